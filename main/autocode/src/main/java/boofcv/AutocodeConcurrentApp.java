@@ -0,0 +1,202 @@
+/*
+ * Copyright (c) 2011-2018, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv;
+
+import java.io.*;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * <p>
+ * Auto generates concurrent implementations, which have an _MT suffix, from single threaded code. Inside
+ * of each function the outer most for-loops are converted into calls to BoofConcurrency.loopFor(). The
+ * loop must be of the form shown below and every variable it references from outside the loop must
+ * be effectively final.
+ * </p>
+ * <pre>
+ *		for( int y = start; y &lt; end; y++ ) {
+ *		...
+ *		}
+ * </pre>
+ *
+ * <p>
+ * Loops which step by a constant, e.g. when down sampling, are also supported. The loop is converted into
+ * a loop over the step index and the original variable is computed from it.
+ * </p>
+ * <pre>
+ *		for( int y = start; y &lt;= end; y += skip ) {
+ *		...
+ *		}
+ * </pre>
+ *
+ * <p>
+ * If work arrays are declared immediately before the loop then they would be shared between threads. In that
+ * situation the loop is converted into a call to BoofConcurrency.loopBlocks() and the arrays are declared
+ * inside of each block instead.
+ * </p>
+ *
+ * <p>
+ * Each row is processed by the same code as before so the output is identical to the single threaded
+ * version.
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+public class AutocodeConcurrentApp {
+
+	// outer most loop inside a function. Indented by two tabs
+	private static final Pattern forLoop = Pattern.compile(
+			"^(\\t\\t)for\\s*\\(\\s*int\\s+(\\w+)\\s*=\\s*(.+?)\\s*;\\s*\\2\\s*<\\s*(.+?)\\s*;\\s*\\2\\+\\+\\s*\\)\\s*\\{\\s*$");
+
+	// outer most loop which steps by a constant
+	private static final Pattern forLoopStep = Pattern.compile(
+			"^(\\t\\t)for\\s*\\(\\s*int\\s+(\\w+)\\s*=\\s*(.+?)\\s*;\\s*\\2\\s*<=\\s*(.+?)\\s*;\\s*\\2\\s*\\+=\\s*(\\w+)\\s*\\)\\s*\\{\\s*$");
+
+	// declaration of a work array which is used inside the loop
+	private static final Pattern workArray = Pattern.compile(
+			"^\\t\\t(final\\s+)?\\w+(\\s*\\[\\]\\s*|\\s+)\\w+(\\s*\\[\\])?\\s*=\\s*new\\s+.*$");
+
+	/**
+	 * Converts the file and saves the output into the same directory
+	 *
+	 * @param file Single threaded source code
+	 */
+	public static void convertFile( File file ) throws IOException {
+		String className = file.getName().substring(0,file.getName().length()-5);
+		String classNameMT = className+"_MT";
+
+		List<String> lines = readLines(file);
+		List<String> output = new ArrayList<>();
+
+		boolean insideLoop = false;
+		boolean insideBlocks = false;
+		boolean addedImport = false;
+		for( String line : lines ) {
+			if( !addedImport && line.startsWith("import ") ) {
+				output.add("import boofcv.concurrency.BoofConcurrency;");
+				addedImport = true;
+			}
+
+			if( insideLoop ) {
+				if( line.equals("\t\t}")) {
+					insideLoop = false;
+					if( insideBlocks ) {
+						output.add("\t\t\t}");
+						line = "\t\t});";
+						insideBlocks = false;
+					} else {
+						line = "\t\t});";
+					}
+				} else if( insideBlocks && line.length() > 0 ) {
+					line = "\t"+line;
+				}
+			} else {
+				Matcher m = forLoop.matcher(line);
+				if( m.matches() ) {
+					List<String> arrays = removeWorkArrays(output);
+					String var = m.group(2);
+					if( arrays.isEmpty() ) {
+						line = m.group(1)+"BoofConcurrency.loopFor("+m.group(3)+", "+m.group(4)+", "+var+" -> {";
+					} else {
+						output.add(m.group(1)+"BoofConcurrency.loopBlocks("+m.group(3)+", "+m.group(4)+", ("+var+"0,"+var+"1) -> {");
+						for( String a : arrays ) {
+							output.add("\t"+a);
+						}
+						line = "\t\t\tfor( int "+var+" = "+var+"0; "+var+" < "+var+"1; "+var+"++ ) {";
+						insideBlocks = true;
+					}
+					insideLoop = true;
+				} else if( (m = forLoopStep.matcher(line)).matches() ) {
+					if( !removeWorkArrays(output).isEmpty() )
+						throw new RuntimeException("Work arrays not supported with step loops in "+file.getName());
+					String var = m.group(2);
+					String start = m.group(3), end = m.group(4), step = m.group(5);
+					// number of iterations in the original loop. Zero or negative if there are none
+					output.add(m.group(1)+"BoofConcurrency.loopFor(0, ("+end+"-"+start+"+"+step+")/"+step+
+							", "+var+"Step -> {");
+					line = "\t\t\tint "+var+" = "+start+" + "+var+"Step*"+step+";";
+					insideLoop = true;
+				}
+			}
+
+			line = line.replace("class "+className+" ","class "+classNameMT+" ");
+			line = line.replace(" * @author"," * <p>Concurrent version of {@link "+className+"}. Generated by "+
+					AutocodeConcurrentApp.class.getSimpleName()+".</p>\n *\n * @author");
+			output.add(line);
+		}
+		if( insideLoop )
+			throw new RuntimeException("Failed to find the end of a loop in "+file.getName());
+
+		File outputFile = new File(file.getParentFile(),classNameMT+".java");
+		try( PrintStream out = new PrintStream(new FileOutputStream(outputFile)) ) {
+			for (String line : output) {
+				out.println(line);
+			}
+		}
+	}
+
+	/**
+	 * Removes work arrays which are declared just before the loop from the output and returns them.
+	 * Blank lines between the declarations and the loop are ignored.
+	 */
+	private static List<String> removeWorkArrays( List<String> output ) {
+		List<String> arrays = new ArrayList<>();
+		int index = output.size()-1;
+		while( index >= 0 && output.get(index).trim().isEmpty() )
+			index--;
+		while( index >= 0 && workArray.matcher(output.get(index)).matches() ) {
+			arrays.add(0,output.remove(index));
+			index--;
+		}
+		return arrays;
+	}
+
+	private static List<String> readLines( File file ) throws IOException {
+		List<String> lines = new ArrayList<>();
+		try( BufferedReader reader = new BufferedReader(new FileReader(file)) ) {
+			String line;
+			while( (line = reader.readLine()) != null ) {
+				lines.add(line);
+			}
+		}
+		return lines;
+	}
+
+	public static void main(String[] args) throws IOException {
+		String directory = "main/boofcv-ip/src/main/java/boofcv/alg/filter/";
+
+		String files[] = new String[]{
+				"convolve/noborder/ConvolveImageStandard_SB","convolve/noborder/ConvolveImageStandard_IL",
+				"convolve/noborder/ConvolveImageUnrolled_SB_F32_F32","convolve/noborder/ConvolveImageUnrolled_SB_F64_F64",
+				"convolve/noborder/ConvolveImageUnrolled_SB_S16_I16","convolve/noborder/ConvolveImageUnrolled_SB_S16_I16_Div",
+				"convolve/noborder/ConvolveImageUnrolled_SB_S32_S32","convolve/noborder/ConvolveImageUnrolled_SB_S32_S32_Div",
+				"convolve/noborder/ConvolveImageUnrolled_SB_U8_I16","convolve/noborder/ConvolveImageUnrolled_SB_U8_I8_Div",
+				"convolve/down/ConvolveDownNoBorderStandard",
+				"convolve/down/ConvolveDownNoBorderUnrolled_F32_F32","convolve/down/ConvolveDownNoBorderUnrolled_S16_I16",
+				"convolve/down/ConvolveDownNoBorderUnrolled_S16_I16_Div","convolve/down/ConvolveDownNoBorderUnrolled_U8_I16",
+				"convolve/down/ConvolveDownNoBorderUnrolled_U8_I8_Div",
+				"derivative/impl/GradientSobel_Outer","derivative/impl/GradientSobel_UnrolledOuter"};
+
+		for( String f : files ) {
+			convertFile(new File(directory+f+".java"));
+		}
+	}
+}
@@ -21,11 +21,17 @@ package boofcv.abst.geo.calibration;
 import boofcv.alg.geo.calibration.*;
 import boofcv.alg.geo.calibration.omni.CalibParamUniversalOmni;
 import boofcv.alg.geo.calibration.pinhole.CalibParamPinholeRadial;
+import boofcv.concurrency.BoofConcurrency;
 import boofcv.struct.calib.CameraModel;
+import boofcv.struct.image.GrayF32;
 import georegression.struct.point.Point2D_F64;
+import org.ddogleg.struct.FastQueue;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
+import java.util.function.IntFunction;
+import java.util.function.Supplier;
 
 /**
  * <p>
@@ -40,7 +46,7 @@ import java.util.List;
  * <ol>
  * <li>{@link #configure}</li> 
  * <li>{@link #reset}</li>
- * <li>{@link #addImage}</li>
+ * <li>{@link #addImage} or {@link #addImages}</li>
  * <li>{@link #process}</li>
  * <li>{@link #getIntrinsic}</li>
  * </ol>
@@ -142,6 +148,54 @@ public class CalibrateMonoPlanar {
 		observations.add( observation );
 	}
 
+	/**
+	 * Detects the calibration target in a set of images concurrently and then adds the observations in the
+	 * same order as the images. Images in which the target could not be detected are skipped. Each thread
+	 * uses its own detector.
+	 *
+	 * @param numImages Number of images
+	 * @param images Returns the image with the specified index. Invoked by multiple threads at the same time
+	 *               and each image is requested once, so images can be loaded from disk as needed.
+	 * @param factory Creates a new detector. Invoked by multiple threads at the same time.
+	 * @return For each image, the observation which was added or null if the target wasn't detected
+	 */
+	public List<CalibrationObservation> addImages( int numImages , IntFunction<GrayF32> images ,
+												   Supplier<DetectorFiducialCalibration> factory ) {
+		List<CalibrationObservation> found = detectTargets(numImages, images, factory);
+		for( CalibrationObservation observation : found ) {
+			if( observation != null )
+				addImage(observation);
+		}
+		return found;
+	}
+
+	/**
+	 * Detects the calibration target in a set of images concurrently. The images are divided into blocks and
+	 * each block is processed in its own thread with its own detector. The results are independent of the number
+	 * of threads.
+	 *
+	 * @param numImages Number of images
+	 * @param images Returns the image with the specified index. Invoked by multiple threads at the same time.
+	 * @param factory Creates a new detector. Invoked by multiple threads at the same time.
+	 * @return For each image, the detected observation or null if the target wasn't detected
+	 */
+	public static List<CalibrationObservation> detectTargets( int numImages , IntFunction<GrayF32> images ,
+															  Supplier<DetectorFiducialCalibration> factory ) {
+		final CalibrationObservation[] found = new CalibrationObservation[numImages];
+
+		FastQueue<DetectorWorkSpace> workspace = new FastQueue<>(DetectorWorkSpace.class,true);
+		BoofConcurrency.loopBlocks(0,numImages,workspace,(work,idx0,idx1)->{
+			if( work.detector == null )
+				work.detector = factory.get();
+			for (int i = idx0; i < idx1; i++) {
+				if( work.detector.process(images.apply(i)) )
+					found[i] = work.detector.getDetectedPoints();
+			}
+		});
+
+		return new ArrayList<>(Arrays.asList(found));
+	}
+
 	/**
 	 * Removes the most recently added image
 	 */
@@ -264,4 +318,11 @@ public class CalibrateMonoPlanar {
 	public CalibrationPlanarGridZhang99 getZhang99() {
 		return zhang99;
 	}
+
+	/**
+	 * Detector used by a single thread
+	 */
+	public static class DetectorWorkSpace {
+		public DetectorFiducialCalibration detector;
+	}
 }
@@ -22,15 +22,19 @@ import boofcv.alg.geo.calibration.CalibrationObservation;
 import boofcv.alg.geo.calibration.Zhang99AllParam;
 import boofcv.struct.calib.CameraPinholeRadial;
 import boofcv.struct.calib.StereoParameters;
+import boofcv.struct.image.GrayF32;
 import georegression.fitting.se.FitSpecialEuclideanOps_F64;
 import georegression.geometry.ConvertRotation3D_F64;
 import georegression.struct.point.Point2D_F64;
 import georegression.struct.point.Point3D_F64;
 import georegression.struct.se.Se3_F64;
 import georegression.transform.se.SePointOps_F64;
+import org.ddogleg.struct.GrowQueue_I32;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.function.IntFunction;
+import java.util.function.Supplier;
 
 /**
  * <p>
@@ -112,6 +116,35 @@ public class CalibrateStereoPlanar {
 		calibRight.addImage(right);
 	}
 
+	/**
+	 * Detects the calibration target in a set of stereo pairs concurrently and adds the pairs where the target was
+	 * seen in both images. Pairs are added in the same order as their index.
+	 *
+	 * @see CalibrateMonoPlanar#detectTargets
+	 *
+	 * @param numPairs Number of stereo pairs
+	 * @param left Returns the left image in a pair. Invoked by multiple threads at the same time.
+	 * @param right Returns the right image in a pair. Invoked by multiple threads at the same time.
+	 * @param factory Creates a new detector. Invoked by multiple threads at the same time.
+	 * @return Indexes of the pairs which were added
+	 */
+	public GrowQueue_I32 addPairs( int numPairs , IntFunction<GrayF32> left , IntFunction<GrayF32> right ,
+								   Supplier<DetectorFiducialCalibration> factory ) {
+		List<CalibrationObservation> found = CalibrateMonoPlanar.detectTargets(2*numPairs,
+				i -> i < numPairs ? left.apply(i) : right.apply(i-numPairs), factory);
+
+		GrowQueue_I32 added = new GrowQueue_I32();
+		for (int i = 0; i < numPairs; i++) {
+			CalibrationObservation obsLeft = found.get(i);
+			CalibrationObservation obsRight = found.get(i+numPairs);
+			if( obsLeft != null && obsRight != null ) {
+				addPair(obsLeft, obsRight);
+				added.add(i);
+			}
+		}
+		return added;
+	}
+
 	/**
 	 * Compute stereo calibration parameters
 	 *
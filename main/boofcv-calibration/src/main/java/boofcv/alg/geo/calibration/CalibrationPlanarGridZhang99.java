@@ -18,6 +18,7 @@
 
 package boofcv.alg.geo.calibration;
 
+import boofcv.concurrency.BoofConcurrency;
 import georegression.geometry.ConvertRotation3D_F64;
 import georegression.struct.point.Point2D_F64;
 import georegression.struct.se.Se3_F64;
@@ -188,8 +189,11 @@ public class CalibrationPlanarGridZhang99 {
 		double model[] = new double[ initial.numParameters() ];
 		initial.convertToParam(model);
 
-		Zhang99OptimizationFunction func = new Zhang99OptimizationFunction(
-				initial.createLike(), grid,observations);
+		Zhang99OptimizationFunction func;
+		if( BoofConcurrency.USE_CONCURRENT )
+			func = new Zhang99OptimizationFunction_MT(initial.createLike(), grid,observations);
+		else
+			func = new Zhang99OptimizationFunction(initial.createLike(), grid,observations);
 
 		Zhang99OptimizationJacobian jacobian = initial.getIntrinsic().createJacobian(observations,grid);
 
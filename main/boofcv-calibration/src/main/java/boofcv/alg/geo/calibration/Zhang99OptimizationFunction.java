@@ -38,19 +38,18 @@ public class Zhang99OptimizationFunction implements FunctionNtoM {
 	private int N,M;
 	
 	// description of the calibration grid
-	private List<Point3D_F64> grid = new ArrayList<>();
+	protected List<Point3D_F64> grid = new ArrayList<>();
 	// optimization parameters
-	private Zhang99AllParam param;
-
-	// variables for storing intermediate results
-	private Se3_F64 se = new Se3_F64();
-
-	private Point3D_F64 cameraPt = new Point3D_F64();
-	private Point2D_F64 pixelPt = new Point2D_F64();
+	protected Zhang99AllParam param;
 
+	// storage for intermediate results
+	private WorkSpace work = new WorkSpace();
 
 	// observations
-	private List<CalibrationObservation> observations;
+	protected List<CalibrationObservation> observations;
+
+	// index of the first residual for each view
+	protected int viewResidualIndexes[];
 
 	/**
 	 * Configurations the optimization function.
@@ -75,6 +74,11 @@ public class Zhang99OptimizationFunction implements FunctionNtoM {
 
 		N = param.numParameters();
 		M = CalibrationPlanarGridZhang99.totalPoints(observations)*2;
+
+		viewResidualIndexes = new int[observations.size()];
+		for (int i = 1; i < observations.size(); i++) {
+			viewResidualIndexes[i] = viewResidualIndexes[i-1] + observations.get(i-1).size()*2;
+		}
 	}
 
 	@Override
@@ -95,29 +99,56 @@ public class Zhang99OptimizationFunction implements FunctionNtoM {
 	}
 
 	public void process(Zhang99AllParam param , double []residuals ) {
-		int index = 0;
 		for( int indexView = 0; indexView < param.views.length; indexView++ ) {
+			processView(param, param.getIntrinsic(), indexView, work, residuals);
+		}
+	}
 
-			Zhang99AllParam.View v = param.views[indexView];
+	/**
+	 * Computes the residuals for all the observations in a single view
+	 *
+	 * @param param Calibration parameters
+	 * @param intrinsic Used to project points. Typically param's intrinsic or a copy of it.
+	 * @param indexView Which view is being processed
+	 * @param work Storage for intermediate results
+	 * @param residuals (Output) Residuals for all views.
+	 */
+	protected void processView( Zhang99AllParam param , Zhang99IntrinsicParam intrinsic , int indexView ,
+								WorkSpace work , double []residuals )
+	{
+		Zhang99AllParam.View v = param.views[indexView];
 
-			ConvertRotation3D_F64.rodriguesToMatrix(v.rotation,se.getR());
-			se.T = v.T;
+		Se3_F64 se = work.se;
+		ConvertRotation3D_F64.rodriguesToMatrix(v.rotation,se.getR());
+		se.T = v.T;
 
-			CalibrationObservation viewSet = observations.get(indexView);
+		CalibrationObservation viewSet = observations.get(indexView);
 
-			for( int i = 0; i < viewSet.size(); i++ ) {
+		int index = viewResidualIndexes[indexView];
+		for( int i = 0; i < viewSet.size(); i++ ) {
 
-				int gridIndex = viewSet.get(i).index;
-				Point2D_F64 obs = viewSet.get(i);
+			int gridIndex = viewSet.get(i).index;
+			Point2D_F64 obs = viewSet.get(i);
 
-				// Put the point in the camera's reference frame
-				SePointOps_F64.transform(se,grid.get(gridIndex), cameraPt);
+			// Put the point in the camera's reference frame
+			SePointOps_F64.transform(se,grid.get(gridIndex), work.cameraPt);
 
-				param.getIntrinsic().project(cameraPt,pixelPt);
+			intrinsic.project(work.cameraPt,work.pixelPt);
 
-				residuals[index++] = pixelPt.x-obs.x;
-				residuals[index++] = pixelPt.y-obs.y;
-			}
+			residuals[index++] = work.pixelPt.x-obs.x;
+			residuals[index++] = work.pixelPt.y-obs.y;
 		}
 	}
+
+	/**
+	 * Storage for intermediate results
+	 */
+	public static class WorkSpace {
+		public Se3_F64 se = new Se3_F64();
+		public Point3D_F64 cameraPt = new Point3D_F64();
+		public Point2D_F64 pixelPt = new Point2D_F64();
+
+		// copy of the intrinsic parameters. Only used by concurrent implementations
+		public Zhang99IntrinsicParam intrinsic;
+	}
 }
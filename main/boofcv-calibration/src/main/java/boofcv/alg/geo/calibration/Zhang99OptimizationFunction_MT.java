@@ -0,0 +1,57 @@
+/*
+ * Copyright (c) 2011-2018, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.geo.calibration;
+
+import boofcv.concurrency.BoofConcurrency;
+import georegression.struct.point.Point2D_F64;
+import org.ddogleg.struct.FastQueue;
+
+import java.util.List;
+
+/**
+ * Concurrent implementation of {@link Zhang99OptimizationFunction}. Views are split into blocks and the residuals
+ * for each block are computed in a different thread. Each thread projects points using its own copy of the
+ * intrinsic parameters since projection isn't thread safe.
+ *
+ * @author Peter Abeles
+ */
+public class Zhang99OptimizationFunction_MT extends Zhang99OptimizationFunction {
+
+	// storage for each thread
+	private FastQueue<WorkSpace> workspace = new FastQueue<>(WorkSpace.class,true);
+
+	public Zhang99OptimizationFunction_MT(Zhang99AllParam param,
+										 List<Point2D_F64> grid,
+										 List<CalibrationObservation> observations) {
+		super(param, grid, observations);
+	}
+
+	@Override
+	public void process(Zhang99AllParam param, double[] residuals) {
+		final Zhang99IntrinsicParam intrinsic = param.getIntrinsic();
+		BoofConcurrency.loopBlocks(0,param.views.length,workspace,(work,idx0,idx1)->{
+			if( work.intrinsic == null || work.intrinsic.getClass() != intrinsic.getClass() )
+				work.intrinsic = intrinsic.createLike();
+			work.intrinsic.setTo(intrinsic);
+			for (int indexView = idx0; indexView < idx1; indexView++) {
+				processView(param, work.intrinsic, indexView, work, residuals);
+			}
+		});
+	}
+}
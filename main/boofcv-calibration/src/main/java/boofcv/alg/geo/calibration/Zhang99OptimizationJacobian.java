@@ -50,12 +50,6 @@ import java.util.List;
  */
 public class Zhang99OptimizationJacobian implements FunctionNtoMxN<DMatrixRMaj> {
 
-	// used to compute the Jacobian from Rodrigues coordinates
-	RodriguesRotationJacobian rodJacobian = new RodriguesRotationJacobian();
-
-	// local variable which stores the predicted location of the feature in the camera frame
-	Rodrigues_F64 rodrigues = new Rodrigues_F64();
-
 	// number of functions and parameters being optimized
 	private int numParam, numFuncs;
 
@@ -63,27 +57,17 @@ public class Zhang99OptimizationJacobian implements FunctionNtoMxN<DMatrixRMaj>
 	private List<Point3D_F64> grid = new ArrayList<>();
 
 	// List of observation sets.  Required so that it knows the total number of observations in each set
-	private List<CalibrationObservation> observationSets;
+	protected List<CalibrationObservation> observationSets;
 
-	// variables for storing intermediate results
-	private Se3_F64 se = new Se3_F64();
+	// index of the first observation in each view
+	protected int viewPointIndexes[];
 
-	// location of point in camera frame
-	private Point3D_F64 cameraPt = new Point3D_F64();
-	// observed point location in undistorted normalized image coordinates
-	private Point2D_F64 normPt = new Point2D_F64();
-	// observed point location in distorted normalized image coordinates
-	private Point2D_F64 dnormPt = new Point2D_F64();
+	// storage for intermediate results
+	private WorkSpace work = new WorkSpace();
 
 	// stores the optimization parameters
-	private CalibParamPinholeRadial param;
-	private CameraPinholeRadial intrinsic;
-
-	// output index for x and y
-	int indexJacX;
-	int indexJacY;
-
-	Point3D_F64 Xdot = new Point3D_F64();
+	protected CalibParamPinholeRadial param;
+	protected CameraPinholeRadial intrinsic;
 
 	/**
 	 * Configurations the optimization function.
@@ -103,6 +87,11 @@ public class Zhang99OptimizationJacobian implements FunctionNtoMxN<DMatrixRMaj>
 		numParam = param.numParameters()+(3+3)*observationSets.size();
 
 		numFuncs = CalibrationPlanarGridZhang99.totalPoints(observationSets)*2;
+
+		viewPointIndexes = new int[observationSets.size()];
+		for (int i = 1; i < observationSets.size(); i++) {
+			viewPointIndexes[i] = viewPointIndexes[i-1] + observationSets.get(i-1).size();
+		}
 	}
 
 	@Override
@@ -117,58 +106,73 @@ public class Zhang99OptimizationJacobian implements FunctionNtoMxN<DMatrixRMaj>
 
 	@Override
 	public void process(double[] input, DMatrixRMaj J) {
-		double output[] = J.data;
-		int index = param.setFromParam(input);
+		int indexIntrinsic = param.setFromParam(input);
 		intrinsic = (CameraPinholeRadial)param.getCameraModel();
-		
-		int indexPoint = 0;
+
 		for( int indexView = 0; indexView < observationSets.size(); indexView++ ) {
-			CalibrationObservation set = observationSets.get(indexView);
+			processView(input, indexIntrinsic, indexView, work, J.data);
+		}
+	}
+
+	/**
+	 * Computes the Jacobian for all the observations in a single view. Only the rows belonging to this view
+	 * are written to. The intrinsic parameters must have already been set from the input.
+	 *
+	 * @param input Parameters being optimized
+	 * @param indexIntrinsic Index of the first view parameter, i.e. number of intrinsic parameters
+	 * @param indexView The view being processed
+	 * @param work Storage for intermediate results
+	 * @param output (Output) Row major Jacobian
+	 */
+	protected void processView( double[] input , int indexIntrinsic , int indexView ,
+								WorkSpace work , double[] output ) {
+		CalibrationObservation set = observationSets.get(indexView);
 
-			// extract rotation and translation parameters
-			double rodX = input[index++];
-			double rodY = input[index++];
-			double rodZ = input[index++];
-			double tranX = input[index++];
-			double tranY = input[index++];
-			double tranZ = input[index++];
+		// extract rotation and translation parameters
+		int index = indexIntrinsic + indexView*6;
+		double rodX = input[index++];
+		double rodY = input[index++];
+		double rodZ = input[index++];
+		double tranX = input[index++];
+		double tranY = input[index++];
+		double tranZ = input[index];
 
-			rodrigues.setParamVector(rodX,rodY,rodZ);
-			rodJacobian.process(rodX,rodY,rodZ);
+		work.rodrigues.setParamVector(rodX,rodY,rodZ);
+		work.rodJacobian.process(rodX,rodY,rodZ);
 
-			ConvertRotation3D_F64.rodriguesToMatrix(rodrigues, se.getR());
-			se.T.set(tranX, tranY, tranZ);
+		ConvertRotation3D_F64.rodriguesToMatrix(work.rodrigues, work.se.getR());
+		work.se.T.set(tranX, tranY, tranZ);
 
-			for( int i = 0; i < set.size(); i++ , indexPoint++ ) {
-				int gridIndex = set.points.get(i).index;
+		int indexPoint = viewPointIndexes[indexView];
+		for( int i = 0; i < set.size(); i++ , indexPoint++ ) {
+			int gridIndex = set.points.get(i).index;
 
-				// index = (function index)*numParam
-				indexJacX = (2*indexPoint     )*numParam;
-				indexJacY = (2*indexPoint + 1 )*numParam;
+			// index = (function index)*numParam
+			work.indexJacX = (2*indexPoint     )*numParam;
+			work.indexJacY = (2*indexPoint + 1 )*numParam;
 
-				// Put the point in the camera's reference frame
-				SePointOps_F64.transform(se, grid.get(gridIndex), cameraPt);
+			// Put the point in the camera's reference frame
+			SePointOps_F64.transform(work.se, grid.get(gridIndex), work.cameraPt);
 
-				// normalized pixel coordinates
-				normPt.x = cameraPt.x/ cameraPt.z;
-				normPt.y = cameraPt.y/ cameraPt.z;
+			// normalized pixel coordinates
+			work.normPt.x = work.cameraPt.x/ work.cameraPt.z;
+			work.normPt.y = work.cameraPt.y/ work.cameraPt.z;
 
-				// apply distortion to the normalized coordinate
-				dnormPt.set(normPt);
-				CalibrationPlanarGridZhang99.applyDistortion(dnormPt, intrinsic.radial, intrinsic.t1, intrinsic.t2);
+			// apply distortion to the normalized coordinate
+			work.dnormPt.set(work.normPt);
+			CalibrationPlanarGridZhang99.applyDistortion(work.dnormPt, intrinsic.radial, intrinsic.t1, intrinsic.t2);
 
-				calibrationGradient(dnormPt,output);
-				distortGradient(normPt,output);
+			calibrationGradient(work.dnormPt,work,output);
+			distortGradient(work.normPt,work,output);
 
-				indexJacX += indexView*6;
-				indexJacY += indexView*6;
+			work.indexJacX += indexView*6;
+			work.indexJacY += indexView*6;
 
-				rodriguesGradient(rodJacobian.Rx,grid.get(gridIndex),cameraPt, normPt,output);
-				rodriguesGradient(rodJacobian.Ry,grid.get(gridIndex),cameraPt, normPt,output);
-				rodriguesGradient(rodJacobian.Rz,grid.get(gridIndex),cameraPt, normPt,output);
+			rodriguesGradient(work.rodJacobian.Rx,grid.get(gridIndex),work.cameraPt, work.normPt,work,output);
+			rodriguesGradient(work.rodJacobian.Ry,grid.get(gridIndex),work.cameraPt, work.normPt,work,output);
+			rodriguesGradient(work.rodJacobian.Rz,grid.get(gridIndex),work.cameraPt, work.normPt,work,output);
 
-				translateGradient(cameraPt, normPt,output);
-			}
+			translateGradient(work.cameraPt, work.normPt,work,output);
 		}
 	}
 
@@ -180,20 +184,20 @@ public class Zhang99OptimizationJacobian implements FunctionNtoMxN<DMatrixRMaj>
 	/**
 	 * Gradient for calibration matrix
 	 */
-	private void calibrationGradient( Point2D_F64 distNorm , double[] output ) {
-		output[indexJacX++] = distNorm.x;
-		output[indexJacX++] = 0;
+	private void calibrationGradient( Point2D_F64 distNorm , WorkSpace work , double[] output ) {
+		output[work.indexJacX++] = distNorm.x;
+		output[work.indexJacX++] = 0;
 		if( !param.assumeZeroSkew )
-			output[indexJacX++] = distNorm.y;
-		output[indexJacX++] = 1;
-		output[indexJacX++] = 0;
+			output[work.indexJacX++] = distNorm.y;
+		output[work.indexJacX++] = 1;
+		output[work.indexJacX++] = 0;
 
-		output[indexJacY++] = 0;
-		output[indexJacY++] = distNorm.y;
+		output[work.indexJacY++] = 0;
+		output[work.indexJacY++] = distNorm.y;
 		if( !param.assumeZeroSkew )
-			output[indexJacY++] = 0;
-		output[indexJacY++] = 0;
-		output[indexJacY++] = 1;
+			output[work.indexJacY++] = 0;
+		output[work.indexJacY++] = 0;
+		output[work.indexJacY++] = 1;
 	}
 
 	/**
@@ -201,7 +205,7 @@ public class Zhang99OptimizationJacobian implements FunctionNtoMxN<DMatrixRMaj>
 	 *
 	 * @param norm undistorted normalized image coordinate
 	 */
-	private void distortGradient( Point2D_F64 norm , double[] output ) {
+	private void distortGradient( Point2D_F64 norm , WorkSpace work , double[] output ) {
 
 		double r2 = norm.x*norm.x + norm.y*norm.y;
 		double r2i = r2;
@@ -209,8 +213,8 @@ public class Zhang99OptimizationJacobian implements FunctionNtoMxN<DMatrixRMaj>
 			double xdot = norm.x*r2i;
 			double ydot = norm.y*r2i;
 
-			output[indexJacX++] = intrinsic.fx*xdot + intrinsic.skew*ydot;
-			output[indexJacY++] = intrinsic.fy*ydot;
+			output[work.indexJacX++] = intrinsic.fx*xdot + intrinsic.skew*ydot;
+			output[work.indexJacY++] = intrinsic.fy*ydot;
 			r2i *= r2;
 		}
 
@@ -219,14 +223,13 @@ public class Zhang99OptimizationJacobian implements FunctionNtoMxN<DMatrixRMaj>
 			double r2yy = r2 + 2*norm.y*norm.y;
 			double r2xx = r2 + 2*norm.x*norm.x;
 
-			output[indexJacX++] = intrinsic.fx*xy2 + intrinsic.skew*r2yy;
-			output[indexJacY++] = intrinsic.fy*r2yy;
+			output[work.indexJacX++] = intrinsic.fx*xy2 + intrinsic.skew*r2yy;
+			output[work.indexJacY++] = intrinsic.fy*r2yy;
 
-			output[indexJacX++] = intrinsic.fx*r2xx + intrinsic.skew*xy2;
-			output[indexJacY++] = intrinsic.fy*xy2;
+			output[work.indexJacX++] = intrinsic.fx*r2xx + intrinsic.skew*xy2;
+			output[work.indexJacY++] = intrinsic.fy*xy2;
 		}
 	}
-
 	/**
 	 * Adds to the Jacobian matrix using the derivative from a Rodrigues parameter.
 	 *
@@ -241,6 +244,7 @@ public class Zhang99OptimizationJacobian implements FunctionNtoMxN<DMatrixRMaj>
 									Point3D_F64 X ,
 									Point3D_F64 cameraPt ,
 									Point2D_F64 normPt ,
+									WorkSpace work ,
 									double[] output ) {
 		// create short hand for normalized image coordinate
 		final double x = normPt.x;
@@ -261,6 +265,7 @@ public class Zhang99OptimizationJacobian implements FunctionNtoMxN<DMatrixRMaj>
 			rdev *= r2;
 		}
 
+		Point3D_F64 Xdot = work.Xdot;
 		GeometryMath_F64.mult(Rdot,X,Xdot);
 
 		// part of radial distortion derivative
@@ -281,8 +286,8 @@ public class Zhang99OptimizationJacobian implements FunctionNtoMxN<DMatrixRMaj>
 			ydot += 2*intrinsic.t1*x*n_dot_x + 6*intrinsic.t1*y*n_dot_y + 2*intrinsic.t2*(n_dot_x*y + x*n_dot_y);
 		}
 
-		output[indexJacX++] = intrinsic.fx*xdot + intrinsic.skew*ydot;
-		output[indexJacY++] = intrinsic.fy*ydot;
+		output[work.indexJacX++] = intrinsic.fx*xdot + intrinsic.skew*ydot;
+		output[work.indexJacY++] = intrinsic.fy*ydot;
 	}
 
 	/**
@@ -294,6 +299,7 @@ public class Zhang99OptimizationJacobian implements FunctionNtoMxN<DMatrixRMaj>
 	 */
 	private void translateGradient( Point3D_F64 cameraPt ,
 									Point2D_F64 normPt ,
+									WorkSpace work ,
 									double[] output ) {
 
 		// create short hand for normalized image coordinate
@@ -323,8 +329,8 @@ public class Zhang99OptimizationJacobian implements FunctionNtoMxN<DMatrixRMaj>
 			ydot += (2*intrinsic.t1*x + 2*y*intrinsic.t2)/cameraPt.z;
 		}
 
-		output[indexJacX++] = intrinsic.fx*xdot + intrinsic.skew*ydot;
-		output[indexJacY++] = intrinsic.fy*ydot;
+		output[work.indexJacX++] = intrinsic.fx*xdot + intrinsic.skew*ydot;
+		output[work.indexJacY++] = intrinsic.fy*ydot;
 
 		// Partial T.y
 		xdot = sumdot*2*y*x/cameraPt.z;
@@ -334,8 +340,8 @@ public class Zhang99OptimizationJacobian implements FunctionNtoMxN<DMatrixRMaj>
 			ydot += (6*intrinsic.t1*y + 2*x*intrinsic.t2)/cameraPt.z;
 		}
 
-		output[indexJacX++] = intrinsic.fx*xdot + intrinsic.skew*ydot;
-		output[indexJacY++] = intrinsic.fy*ydot;
+		output[work.indexJacX++] = intrinsic.fx*xdot + intrinsic.skew*ydot;
+		output[work.indexJacY++] = intrinsic.fy*ydot;
 
 		// Partial T.z
 		xdot = -sumdot*2*r2*x/cameraPt.z;
@@ -349,7 +355,31 @@ public class Zhang99OptimizationJacobian implements FunctionNtoMxN<DMatrixRMaj>
 			ydot += -(2*intrinsic.t1*x*x + 6*intrinsic.t1*y*y + 4*x*y*intrinsic.t2)/cameraPt.z;
 		}
 
-		output[indexJacX++] = intrinsic.fx*xdot + intrinsic.skew*ydot;
-		output[indexJacY++] = intrinsic.fy*ydot;
+		output[work.indexJacX++] = intrinsic.fx*xdot + intrinsic.skew*ydot;
+		output[work.indexJacY++] = intrinsic.fy*ydot;
+	}
+
+	/**
+	 * Storage for intermediate results
+	 */
+	public static class WorkSpace {
+		// used to compute the Jacobian from Rodrigues coordinates
+		public RodriguesRotationJacobian rodJacobian = new RodriguesRotationJacobian();
+		public Rodrigues_F64 rodrigues = new Rodrigues_F64();
+
+		public Se3_F64 se = new Se3_F64();
+
+		// location of point in camera frame
+		public Point3D_F64 cameraPt = new Point3D_F64();
+		// observed point location in undistorted normalized image coordinates
+		public Point2D_F64 normPt = new Point2D_F64();
+		// observed point location in distorted normalized image coordinates
+		public Point2D_F64 dnormPt = new Point2D_F64();
+
+		public Point3D_F64 Xdot = new Point3D_F64();
+
+		// output index for x and y
+		int indexJacX;
+		int indexJacY;
 	}
 }
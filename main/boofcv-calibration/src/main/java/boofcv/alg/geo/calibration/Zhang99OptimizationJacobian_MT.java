@@ -0,0 +1,58 @@
+/*
+ * Copyright (c) 2011-2018, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.geo.calibration;
+
+import boofcv.alg.geo.calibration.pinhole.CalibParamPinholeRadial;
+import boofcv.concurrency.BoofConcurrency;
+import boofcv.struct.calib.CameraPinholeRadial;
+import georegression.struct.point.Point2D_F64;
+import org.ddogleg.struct.FastQueue;
+import org.ejml.data.DMatrixRMaj;
+
+import java.util.List;
+
+/**
+ * Concurrent implementation of {@link Zhang99OptimizationJacobian}. Each view only writes to its own rows
+ * in the Jacobian so views are split into blocks which are processed in different threads.
+ *
+ * @author Peter Abeles
+ */
+public class Zhang99OptimizationJacobian_MT extends Zhang99OptimizationJacobian {
+
+	// storage for each thread
+	private FastQueue<WorkSpace> workspace = new FastQueue<>(WorkSpace.class,true);
+
+	public Zhang99OptimizationJacobian_MT(CalibParamPinholeRadial param,
+										  List<CalibrationObservation> observationSets,
+										  List<Point2D_F64> grid) {
+		super(param, observationSets, grid);
+	}
+
+	@Override
+	public void process(double[] input, DMatrixRMaj J) {
+		final int indexIntrinsic = param.setFromParam(input);
+		intrinsic = (CameraPinholeRadial)param.getCameraModel();
+
+		BoofConcurrency.loopBlocks(0,observationSets.size(),workspace,(work,idx0,idx1)->{
+			for (int indexView = idx0; indexView < idx1; indexView++) {
+				processView(input, indexIntrinsic, indexView, work, J.data);
+			}
+		});
+	}
+}
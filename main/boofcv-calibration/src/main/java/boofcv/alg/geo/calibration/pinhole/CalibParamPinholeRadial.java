@@ -22,6 +22,8 @@ import boofcv.alg.geo.calibration.CalibrationObservation;
 import boofcv.alg.geo.calibration.CalibrationPlanarGridZhang99;
 import boofcv.alg.geo.calibration.Zhang99IntrinsicParam;
 import boofcv.alg.geo.calibration.Zhang99OptimizationJacobian;
+import boofcv.alg.geo.calibration.Zhang99OptimizationJacobian_MT;
+import boofcv.concurrency.BoofConcurrency;
 import boofcv.struct.calib.CameraPinholeRadial;
 import georegression.struct.point.Point2D_F64;
 import georegression.struct.point.Point3D_F64;
@@ -162,7 +164,10 @@ public class CalibParamPinholeRadial extends Zhang99IntrinsicParam {
 
 	@Override
 	public Zhang99OptimizationJacobian createJacobian(List<CalibrationObservation> observations, List<Point2D_F64> grid) {
-		return new Zhang99OptimizationJacobian(this,observations,grid);
+		if( BoofConcurrency.USE_CONCURRENT )
+			return new Zhang99OptimizationJacobian_MT(this,observations,grid);
+		else
+			return new Zhang99OptimizationJacobian(this,observations,grid);
 	}
 
 	@Override
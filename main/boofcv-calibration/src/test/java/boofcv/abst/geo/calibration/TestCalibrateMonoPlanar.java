@@ -21,6 +21,7 @@ package boofcv.abst.geo.calibration;
 import boofcv.abst.fiducial.calib.CalibrationDetectorSquareGrid;
 import boofcv.alg.distort.LensDistortionOps;
 import boofcv.alg.geo.calibration.CalibrationObservation;
+import boofcv.concurrency.BoofConcurrency;
 import boofcv.struct.calib.CameraPinholeRadial;
 import boofcv.struct.distort.Point2Transform2_F64;
 import boofcv.struct.image.GrayF32;
@@ -36,7 +37,7 @@ import org.junit.Test;
 import java.util.ArrayList;
 import java.util.List;
 
-import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.*;
 
 /**
  * @author Peter Abeles
@@ -96,6 +97,75 @@ public class TestCalibrateMonoPlanar {
 		assertEquals(intrinsic.height,found.height,1e-3);
 	}
 
+	/**
+	 * Detect targets in multiple threads and see if the results are added in the correct order with failed
+	 * images skipped
+	 */
+	@Test
+	public void addImages() {
+		int maxThreads = BoofConcurrency.getMaxThreads();
+		try {
+			BoofConcurrency.setMaxThreads(3);
+
+			// the last image will fail detection
+			int numImages = targetToCamera.size()+1;
+			List<GrayF32> images = new ArrayList<>();
+			for (int i = 0; i < numImages; i++) {
+				images.add(blank.createSameShape());
+			}
+
+			CalibrateMonoPlanar alg = new CalibrateMonoPlanar(layout);
+			alg.configurePinhole(true,2,true);
+
+			List<CalibrationObservation> found = alg.addImages(numImages,images::get,
+					()->new FakeDetector(images));
+
+			assertEquals(numImages,found.size());
+			assertNull(found.get(numImages-1));
+			assertEquals(targetToCamera.size(),alg.getObservations().size());
+			for (int i = 0; i < targetToCamera.size(); i++) {
+				CalibrationObservation expected = createFakeObservations(i);
+				CalibrationObservation obs = alg.getObservations().get(i);
+				assertSame(found.get(i),obs);
+				assertEquals(expected.size(),obs.size());
+				assertEquals(0,expected.get(0).distance(obs.get(0)),1e-8);
+			}
+
+			CameraPinholeRadial intrinsic = alg.process();
+			assertEquals(this.intrinsic.fx,intrinsic.fx,1e-3);
+		} finally {
+			BoofConcurrency.setMaxThreads(maxThreads);
+		}
+	}
+
+	/**
+	 * Identifies which view an image is by its instance
+	 */
+	private class FakeDetector implements DetectorFiducialCalibration {
+		List<GrayF32> images;
+		int which;
+
+		FakeDetector(List<GrayF32> images) {
+			this.images = images;
+		}
+
+		@Override
+		public boolean process(GrayF32 input) {
+			which = images.indexOf(input);
+			return which < targetToCamera.size();
+		}
+
+		@Override
+		public CalibrationObservation getDetectedPoints() {
+			return createFakeObservations(which);
+		}
+
+		@Override
+		public List<Point2D_F64> getLayout() {
+			return layout;
+		}
+	}
+
 	private CalibrationObservation createFakeObservations( int which ) {
 		Se3_F64 t2c = targetToCamera.get(which);
 		CalibrationObservation set = new CalibrationObservation(intrinsic.width,intrinsic.height);
@@ -0,0 +1,87 @@
+/*
+ * Copyright (c) 2011-2018, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.geo.calibration;
+
+import boofcv.alg.geo.calibration.pinhole.CalibParamPinholeRadial;
+import boofcv.alg.geo.calibration.pinhole.TestPinholeCalibrationZhang99;
+import boofcv.concurrency.BoofConcurrency;
+import georegression.struct.point.Point2D_F64;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static boofcv.alg.geo.calibration.TestZhang99OptimizationFunction.estimate;
+import static org.junit.Assert.assertEquals;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestZhang99OptimizationFunction_MT {
+
+	Random rand = new Random(234);
+
+	/**
+	 * Compare to the single threaded implementation when the parameters are not perfect
+	 */
+	@Test
+	public void compareToSingleThread() {
+		int maxThreads = BoofConcurrency.getMaxThreads();
+		try {
+			BoofConcurrency.setMaxThreads(3);
+
+			Zhang99AllParam param = GenericCalibrationGrid.createStandardParam(
+					TestPinholeCalibrationZhang99.createStandard(false, true,2,rand), 7, rand);
+
+			List<Point2D_F64> gridPts = GenericCalibrationGrid.standardLayout();
+			List<CalibrationObservation> observations = new ArrayList<>();
+			for( int i = 0; i < param.views.length; i++ ) {
+				observations.add( estimate(param,param.views[i],gridPts));
+			}
+
+			double array[] = new double[ param.numParameters() ];
+			param.convertToParam(array);
+			for (int i = 0; i < array.length; i++) {
+				array[i] += rand.nextGaussian()*0.01;
+			}
+
+			Zhang99OptimizationFunction expected = new Zhang99OptimizationFunction(
+					new Zhang99AllParam(new CalibParamPinholeRadial(false,2,true),7),gridPts,observations );
+			Zhang99OptimizationFunction_MT alg = new Zhang99OptimizationFunction_MT(
+					new Zhang99AllParam(new CalibParamPinholeRadial(false,2,true),7),gridPts,observations );
+
+			assertEquals(expected.getNumOfOutputsM(),alg.getNumOfOutputsM());
+
+			double residualsExpected[] = new double[ expected.getNumOfOutputsM()];
+			double residualsFound[] = new double[ alg.getNumOfOutputsM()];
+
+			expected.process(array,residualsExpected);
+			// process twice to make sure the thread work spaces are reused correctly
+			alg.process(array,residualsFound);
+			alg.process(array,residualsFound);
+
+			for( int i = 0; i < residualsExpected.length; i++ ) {
+				assertEquals(residualsExpected[i],residualsFound[i],1e-12);
+			}
+		} finally {
+			BoofConcurrency.setMaxThreads(maxThreads);
+		}
+	}
+}
@@ -0,0 +1,89 @@
+/*
+ * Copyright (c) 2011-2018, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.geo.calibration;
+
+import boofcv.abst.fiducial.calib.CalibrationDetectorSquareGrid;
+import boofcv.alg.geo.calibration.pinhole.CalibParamPinholeRadial;
+import boofcv.alg.geo.calibration.pinhole.TestPinholeCalibrationZhang99;
+import boofcv.concurrency.BoofConcurrency;
+import georegression.struct.point.Point2D_F64;
+import org.ejml.data.DMatrixRMaj;
+import org.ejml.dense.row.MatrixFeatures_DDRM;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static boofcv.alg.geo.calibration.TestZhang99OptimizationFunction.estimate;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestZhang99OptimizationJacobian_MT {
+
+	Random rand = new Random(234);
+
+	@Test
+	public void compareToSingleThread() {
+		int maxThreads = BoofConcurrency.getMaxThreads();
+		try {
+			BoofConcurrency.setMaxThreads(3);
+
+			compareToSingleThread(false,false);
+			compareToSingleThread(true,true);
+		} finally {
+			BoofConcurrency.setMaxThreads(maxThreads);
+		}
+	}
+
+	private void compareToSingleThread(boolean assumeZeroSkew, boolean includeTangential ) {
+		Zhang99AllParam param = GenericCalibrationGrid.createStandardParam(
+				TestPinholeCalibrationZhang99.createStandard(assumeZeroSkew, includeTangential,2,rand), 7, rand);
+
+		List<Point2D_F64> gridPts = CalibrationDetectorSquareGrid.createLayout(3, 2, 30, 30);
+
+		List<CalibrationObservation> observations = new ArrayList<>();
+		for( int i = 0; i < param.views.length; i++ ) {
+			observations.add( estimate(param,param.views[i],gridPts));
+		}
+		// make the number of observations vary between views
+		for (int i = 0; i < observations.size(); i += 2) {
+			observations.get(i).points.remove(1);
+		}
+
+		double dataParam[] = new double[ param.numParameters() ];
+		param.convertToParam(dataParam);
+
+		Zhang99OptimizationJacobian expected = new Zhang99OptimizationJacobian(
+				(CalibParamPinholeRadial)param.getIntrinsic().createLike(),observations,gridPts);
+		Zhang99OptimizationJacobian_MT alg = new Zhang99OptimizationJacobian_MT(
+				(CalibParamPinholeRadial)param.getIntrinsic().createLike(),observations,gridPts);
+
+		DMatrixRMaj J_expected = expected.declareMatrixMxN();
+		DMatrixRMaj J_found = alg.declareMatrixMxN();
+
+		expected.process(dataParam,J_expected);
+		alg.process(dataParam,J_found);
+		alg.process(dataParam,J_found);
+
+		assertTrue(MatrixFeatures_DDRM.isIdentical(J_expected,J_found,1e-12));
+	}
+}
@@ -26,123 +26,103 @@ import boofcv.io.UtilIO;
 import boofcv.io.image.SimpleImageSequence;
 import boofcv.io.wrapper.DefaultMediaManager;
 import boofcv.struct.image.*;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
 
 import java.io.File;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.TimeUnit;
 
 /**
- * Profiles the time to run each algorithm but ignores the time to load an image frame from the video
+ * Profiles the time to run each algorithm but ignores the time to load an image frame from the video. Frames
+ * are decoded once during setup.
  *
  * @author Peter Abeles
  */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@State(Scope.Benchmark)
+@Fork(value=1)
 public class BenchmarkBackgroundStationary {
 
-	File file;
-	ImageType imageType;
+	@Param({"GRAY_U8","IL_U8","PL_U8","GRAY_F32","IL_F32","PL_F32"})
+	public String imageType;
 
-	public BenchmarkBackgroundStationary(File file, ImageType imageType) {
-		this.file = file;
-		this.imageType = imageType;
-	}
+	// limit on the number of frames so that the decoded video fits in memory
+	@Param({"100"})
+	public int maxFrames;
 
-	public void benchmark() {
-		List<BackgroundBase> algs = new ArrayList<>();
-		algs.add(new Basic());
-		algs.add(new Gaussian());
-		algs.add(new GMM());
+	List<ImageBase> frames = new ArrayList<>();
+	GrayU8 background = new GrayU8(1,1);
 
-		for( BackgroundBase b : algs ) {
-			b.process();
-			System.out.printf("%20s FPS = %.2f\n",b.getName(),b.getFPS());
-		}
-	}
+	BackgroundModelStationary basic;
+	BackgroundModelStationary gaussian;
+	BackgroundModelStationary gmm;
 
-	public class Basic extends BackgroundBase {
+	@Setup
+	public void setup() {
+		ImageType type = selectType(imageType);
 
-		@Override
-		public BackgroundModelStationary create() {
-			ConfigBackgroundBasic config = new ConfigBackgroundBasic(12);
+		File file = new File(UtilIO.pathExample("background/street_intersection.mp4"));
+		SimpleImageSequence sequence = DefaultMediaManager.INSTANCE.openVideo(file.getAbsolutePath(),type);
+		background.reshape(sequence.getNextWidth(),sequence.getNextHeight());
 
-			return FactoryBackgroundModel.stationaryBasic(config,imageType);
+		frames.clear();
+		while( sequence.hasNext() && frames.size() < maxFrames ) {
+			frames.add(sequence.next().clone());
 		}
-	}
-
-	public class Gaussian extends BackgroundBase {
-
-		@Override
-		public BackgroundModelStationary create() {
-			ConfigBackgroundGaussian config = new ConfigBackgroundGaussian(12);
+		sequence.close();
 
-			return FactoryBackgroundModel.stationaryGaussian(config,imageType);
-		}
+		basic = FactoryBackgroundModel.stationaryBasic(new ConfigBackgroundBasic(12),type);
+		gaussian = FactoryBackgroundModel.stationaryGaussian(new ConfigBackgroundGaussian(12),type);
+		gmm = FactoryBackgroundModel.stationaryGmm(new ConfigBackgroundGmm(),type);
 	}
 
-	public class GMM extends BackgroundBase {
-		@Override
-		public BackgroundModelStationary create() {
-			ConfigBackgroundGmm config = new ConfigBackgroundGmm();
-
-			return FactoryBackgroundModel.stationaryGmm(config,imageType);
+	private static ImageType selectType( String name ) {
+		switch( name ) {
+			case "GRAY_U8": return ImageType.single(GrayU8.class);
+			case "IL_U8": return ImageType.il(3,InterleavedU8.class);
+			case "PL_U8": return ImageType.pl(3,GrayU8.class);
+			case "GRAY_F32": return ImageType.single(GrayF32.class);
+			case "IL_F32": return ImageType.il(3,InterleavedF32.class);
+			case "PL_F32": return ImageType.pl(3,GrayF32.class);
+			default: throw new IllegalArgumentException("Unknown image type "+name);
 		}
 	}
 
+	@Benchmark
+	public void basic() {
+		process(basic);
+	}
 
-	public abstract class BackgroundBase {
-		SimpleImageSequence sequence;
-
-		long totalTime;
-		int frames;
-
-		GrayU8 background = new GrayU8(1,1);
-
-		public abstract BackgroundModelStationary create();
-
-		public void process() {
-			sequence = DefaultMediaManager.INSTANCE.openVideo(file.getAbsolutePath(),imageType);
-			background.reshape(sequence.getNextWidth(),sequence.getNextHeight());
-
-			totalTime = 0;
-			frames = 0;
-			BackgroundModelStationary model = create();
-
-			while( sequence.hasNext() ) {
-				ImageBase image = sequence.next();
-
-				long time0 = System.nanoTime();
-				model.updateBackground(image,background);
-				long time1 = System.nanoTime();
-
-				totalTime += (time1-time0);
-				frames++;
-			}
-		}
+	@Benchmark
+	public void gaussian() {
+		process(gaussian);
+	}
 
-		public double getFPS() {
-			return frames/(totalTime*1e-9);
-		}
+	@Benchmark
+	public void gmm() {
+		process(gmm);
+	}
 
-		public String getName() {
-			return getClass().getSimpleName();
+	private void process( BackgroundModelStationary model ) {
+		model.reset();
+		for( int i = 0; i < frames.size(); i++ ) {
+			model.updateBackground(frames.get(i),background);
 		}
 	}
 
-	public static void main(String[] args) {
-		File file = new File(UtilIO.pathExample("background/street_intersection.mp4"));
-
-		List<ImageType> imageTypes = new ArrayList<>();
-		imageTypes.add(ImageType.single(GrayU8.class));
-		imageTypes.add(ImageType.il(3,InterleavedU8.class));
-		imageTypes.add(ImageType.pl(3,GrayU8.class));
-		imageTypes.add(ImageType.single(GrayF32.class));
-		imageTypes.add(ImageType.il(3,InterleavedF32.class));
-		imageTypes.add(ImageType.pl(3,GrayF32.class));
-
+	public static void main( String args[] ) throws RunnerException {
+		Options opt = new OptionsBuilder()
+				.include(BenchmarkBackgroundStationary.class.getSimpleName())
+				.build();
 
-		for( ImageType type : imageTypes ) {
-			System.out.println("Image Type: "+type.toString());
-			BenchmarkBackgroundStationary b = new BenchmarkBackgroundStationary(file, type);
-			b.benchmark();
-		}
+		new Runner(opt).run();
 	}
 }
@@ -0,0 +1,172 @@
+/*
+ * Copyright (c) 2011-2018, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package boofcv.alg.descriptor;
+
+import boofcv.concurrency.BoofConcurrency;
+import boofcv.struct.feature.PackedTupleArray_F64;
+import boofcv.struct.feature.TupleDesc_F64;
+import org.ddogleg.nn.FactoryNearestNeighbor;
+import org.ddogleg.nn.NearestNeighbor;
+import org.ddogleg.nn.NnData;
+import org.ddogleg.struct.GrowQueue_F64;
+import org.ddogleg.struct.GrowQueue_I32;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Time to search for a batch of queries using {@link KMeansTreeIndex_F64} and DDogleg's random kd-forest.
+ * Descriptors are generated from a mixture of Gaussians, since real descriptors are clustered.
+ * Recall of each configuration is printed during setup.
+ *
+ * @author Peter Abeles
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 3)
+@State(Scope.Benchmark)
+@Fork(value=1)
+public class BenchmarkKMeansTreeIndex {
+
+	@Param({"100000"})
+	public int numPoints;
+
+	@Param({"64","256","1024"})
+	public int maxChecks;
+
+	@Param({"1","4"})
+	public int threads;
+
+	static final int DOF = 128;
+	static final int NUM_QUERIES = 1000;
+
+	PackedTupleArray_F64 points;
+	PackedTupleArray_F64 queries;
+	List<TupleDesc_F64> listPoints = new ArrayList<>();
+
+	KMeansTreeIndex_F64 kmeans;
+	NearestNeighbor<TupleDesc_F64> forest;
+
+	GrowQueue_I32 indexes = new GrowQueue_I32();
+	GrowQueue_F64 distances = new GrowQueue_F64();
+	NnData<TupleDesc_F64> result = new NnData<>();
+
+	// global concurrency settings before the benchmark changed them
+	boolean previousConcurrent;
+	int previousMaxThreads;
+
+	@Setup
+	public void setup() {
+		previousConcurrent = BoofConcurrency.USE_CONCURRENT;
+		previousMaxThreads = BoofConcurrency.getMaxThreads();
+		BoofConcurrency.USE_CONCURRENT = threads > 1;
+		BoofConcurrency.setMaxThreads(threads);
+
+		Random rand = new Random(234);
+		double[][] means = new double[500][DOF];
+		for( int i = 0; i < means.length; i++ ) {
+			for( int j = 0; j < DOF; j++ ) {
+				means[i][j] = rand.nextDouble()*10;
+			}
+		}
+		points = createPoints(rand,means,numPoints);
+		queries = createPoints(rand,means,NUM_QUERIES);
+		for( int i = 0; i < points.size(); i++ ) {
+			listPoints.add(points.getTemporary(i).copy());
+		}
+
+		kmeans = new KMeansTreeIndex_F64(DOF,32,11,maxChecks,234);
+		kmeans.setPoints(points);
+		forest = FactoryNearestNeighbor.kdRandomForest(new KdTreeTuple_F64(DOF),maxChecks,10,5,234);
+		forest.setPoints(listPoints,true);
+
+		printRecall();
+	}
+
+	private PackedTupleArray_F64 createPoints( Random rand , double[][] means , int total ) {
+		PackedTupleArray_F64 ret = new PackedTupleArray_F64(DOF);
+		ret.reserve(total);
+		TupleDesc_F64 d = new TupleDesc_F64(DOF);
+		for( int i = 0; i < total; i++ ) {
+			double[] mean = means[rand.nextInt(means.length)];
+			for( int j = 0; j < DOF; j++ ) {
+				d.value[j] = mean[j] + rand.nextGaussian();
+			}
+			ret.append(d);
+		}
+		return ret;
+	}
+
+	private void printRecall() {
+		NearestNeighbor<TupleDesc_F64> exact = FactoryNearestNeighbor.exhaustive(new KdTreeTuple_F64(DOF));
+		exact.setPoints(listPoints,true);
+
+		int correctKMeans = 0, correctForest = 0;
+		for( int i = 0; i < 200; i++ ) {
+			TupleDesc_F64 q = queries.getTemporary(i);
+			exact.findNearest(q,-1,result);
+			int expected = result.index;
+			kmeans.findNearest(q,-1,result);
+			if( result.index == expected )
+				correctKMeans++;
+			forest.findNearest(q,-1,result);
+			if( result.index == expected )
+				correctForest++;
+		}
+		System.out.printf("\nmaxChecks %d recall: k-means tree %.2f kd-forest %.2f\n",
+				maxChecks,correctKMeans/200.0,correctForest/200.0);
+	}
+
+	@TearDown
+	public void tearDown() {
+		BoofConcurrency.USE_CONCURRENT = previousConcurrent;
+		BoofConcurrency.setMaxThreads(previousMaxThreads);
+	}
+
+	@Benchmark
+	public GrowQueue_I32 kmeansTree() {
+		kmeans.findNearest(queries,-1,2,indexes,distances);
+		return indexes;
+	}
+
+	@Benchmark
+	public double kdForest() {
+		double total = 0;
+		for( int i = 0; i < queries.size(); i++ ) {
+			forest.findNearest(queries.getTemporary(i),-1,result);
+			total += result.distance;
+		}
+		return total;
+	}
+
+	public static void main( String args[] ) throws RunnerException {
+		Options opt = new OptionsBuilder()
+				.include(BenchmarkKMeansTreeIndex.class.getSimpleName())
+				.build();
+
+		new Runner(opt).run();
+	}
+}
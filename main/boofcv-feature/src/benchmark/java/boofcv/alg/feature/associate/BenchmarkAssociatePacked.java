@@ -0,0 +1,150 @@
+/*
+ * Copyright (c) 2011-2018, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package boofcv.alg.feature.associate;
+
+import boofcv.abst.feature.associate.ScoreAssociateEuclideanSq_F64;
+import boofcv.abst.feature.associate.ScoreAssociateHamming_B;
+import boofcv.alg.descriptor.KdTreeTuple_F64;
+import boofcv.struct.feature.PackedTupleArray_B;
+import boofcv.struct.feature.PackedTupleArray_F64;
+import boofcv.struct.feature.TupleDesc_B;
+import boofcv.struct.feature.TupleDesc_F64;
+import org.ddogleg.nn.FactoryNearestNeighbor;
+import org.ddogleg.struct.FastQueue;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares association latency when descriptors are stored as one object per feature against when they
+ * are stored in packed arrays.
+ *
+ * @author Peter Abeles
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 3)
+@State(Scope.Benchmark)
+@Fork(value=1)
+public class BenchmarkAssociatePacked {
+
+	@Param({"1000","10000"})
+	public int numFeatures;
+
+	static final int DOF = 64;
+	static final int NUM_BITS = 512;
+
+	FastQueue<TupleDesc_F64> listSrc = new FastQueue<>(TupleDesc_F64.class,false);
+	FastQueue<TupleDesc_F64> listDst = new FastQueue<>(TupleDesc_F64.class,false);
+	PackedTupleArray_F64 packedSrc = new PackedTupleArray_F64(DOF);
+	PackedTupleArray_F64 packedDst = new PackedTupleArray_F64(DOF);
+
+	FastQueue<TupleDesc_B> binarySrc = new FastQueue<>(TupleDesc_B.class,false);
+	FastQueue<TupleDesc_B> binaryDst = new FastQueue<>(TupleDesc_B.class,false);
+	PackedTupleArray_B packedBinarySrc = new PackedTupleArray_B(NUM_BITS);
+	PackedTupleArray_B packedBinaryDst = new PackedTupleArray_B(NUM_BITS);
+
+	AssociateGreedy<TupleDesc_F64> greedy = new AssociateGreedy<>(new ScoreAssociateEuclideanSq_F64(),false);
+	AssociateGreedy<TupleDesc_B> greedyB = new AssociateGreedy<>(new ScoreAssociateHamming_B(),false);
+	AssociateNearestNeighbor<TupleDesc_F64> kdtree = new AssociateNearestNeighbor<>(
+			FactoryNearestNeighbor.kdRandomForest(new KdTreeTuple_F64(DOF),500,5,5,1233445565));
+
+	@Setup
+	public void setup() {
+		Random rand = new Random(234);
+
+		for (int i = 0; i < numFeatures; i++) {
+			createF64(rand,listSrc,packedSrc);
+			createF64(rand,listDst,packedDst);
+			createB(rand,binarySrc,packedBinarySrc);
+			createB(rand,binaryDst,packedBinaryDst);
+		}
+	}
+
+	private static void createF64( Random rand , FastQueue<TupleDesc_F64> list , PackedTupleArray_F64 packed ) {
+		TupleDesc_F64 d = new TupleDesc_F64(DOF);
+		for (int j = 0; j < DOF; j++) {
+			d.value[j] = rand.nextDouble();
+		}
+		list.add(d);
+		packed.append(d);
+	}
+
+	private static void createB( Random rand , FastQueue<TupleDesc_B> list , PackedTupleArray_B packed ) {
+		TupleDesc_B d = new TupleDesc_B(NUM_BITS);
+		for (int j = 0; j < d.data.length; j++) {
+			d.data[j] = rand.nextInt();
+		}
+		list.add(d);
+		packed.append(d);
+	}
+
+	@Benchmark
+	public int[] greedy_list() {
+		greedy.associate(listSrc,listDst);
+		return greedy.getPairs();
+	}
+
+	@Benchmark
+	public int[] greedy_packed() {
+		greedy.associate(packedSrc,packedDst);
+		return greedy.getPairs();
+	}
+
+	@Benchmark
+	public int[] greedyHamming_list() {
+		greedyB.associate(binarySrc,binaryDst);
+		return greedyB.getPairs();
+	}
+
+	@Benchmark
+	public int[] greedyHamming_packed() {
+		greedyB.associate(packedBinarySrc,packedBinaryDst);
+		return greedyB.getPairs();
+	}
+
+	@Benchmark
+	public int kdtree_list() {
+		kdtree.setSource(listSrc);
+		kdtree.setDestination(listDst);
+		kdtree.associate();
+		return kdtree.getMatches().size;
+	}
+
+	@Benchmark
+	public int kdtree_packed() {
+		kdtree.setSource(packedSrc);
+		kdtree.setDestination(packedDst);
+		kdtree.associate();
+		return kdtree.getMatches().size;
+	}
+
+	public static void main( String args[] ) throws RunnerException {
+		Options opt = new OptionsBuilder()
+				.include(BenchmarkAssociatePacked.class.getSimpleName())
+				.build();
+
+		new Runner(opt).run();
+	}
+}
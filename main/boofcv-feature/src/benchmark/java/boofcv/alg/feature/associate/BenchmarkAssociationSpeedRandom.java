@@ -21,51 +21,76 @@ package boofcv.alg.feature.associate;
 import boofcv.abst.feature.associate.AssociateDescription;
 import boofcv.abst.feature.associate.ScoreAssociation;
 import boofcv.factory.feature.associate.FactoryAssociation;
-import boofcv.misc.Performer;
-import boofcv.misc.ProfileOperation;
 import boofcv.struct.feature.TupleDesc_F64;
 import org.ddogleg.struct.FastQueue;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
 
 import java.util.Random;
-
+import java.util.concurrent.TimeUnit;
 
 /**
  * @author Peter Abeles
  */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@State(Scope.Benchmark)
+@Fork(value=1)
 public class BenchmarkAssociationSpeedRandom {
 
-	static final long TEST_TIME = 1000;
-	static final Random rand = new Random(234234);
-	static final int DOF = 50;
-	static final int NUM_FEATURES = 1000;
+	@Param({"50"})
+	public int DOF;
 
-	static final FastQueue<TupleDesc_F64> listA = createSet();
-	static final FastQueue<TupleDesc_F64> listB = createSet();
+	@Param({"1000"})
+	public int NUM_FEATURES;
 
-	public static class General implements Performer {
+	FastQueue<TupleDesc_F64> listA;
+	FastQueue<TupleDesc_F64> listB;
 
-		AssociateDescription<TupleDesc_F64> alg;
-		String name;
+	AssociateDescription<TupleDesc_F64> greedy;
+	AssociateDescription<TupleDesc_F64> greedyBackwards;
+	AssociateDescription<TupleDesc_F64> randomForest;
 
-		public General(String name, AssociateDescription<TupleDesc_F64> alg) {
-			this.alg = alg;
-			this.name = name;
-		}
+	@Setup
+	public void setup() {
+		Random rand = new Random(234234);
+		listA = createSet(rand);
+		listB = createSet(rand);
 
-		@Override
-		public void process() {
-			alg.setSource(listA);
-			alg.setDestination(listB);
-			alg.associate();
-		}
+		ScoreAssociation<TupleDesc_F64> score = FactoryAssociation.scoreEuclidean(TupleDesc_F64.class,true);
 
-		@Override
-		public String getName() {
-			return name;
-		}
+		greedy = FactoryAssociation.greedy(score, Double.MAX_VALUE, false);
+		greedyBackwards = FactoryAssociation.greedy(score, Double.MAX_VALUE, true);
+		randomForest = FactoryAssociation.kdRandomForest(null,DOF,500,15,5,1233445565);
+	}
+
+	@Benchmark
+	public void greedy() {
+		associate(greedy);
 	}
 
-	private static FastQueue<TupleDesc_F64> createSet() {
+	@Benchmark
+	public void greedyBackwards() {
+		associate(greedyBackwards);
+	}
+
+	@Benchmark
+	public void randomForest() {
+		associate(randomForest);
+	}
+
+	private void associate( AssociateDescription<TupleDesc_F64> alg ) {
+		alg.setSource(listA);
+		alg.setDestination(listB);
+		alg.associate();
+	}
+
+	private FastQueue<TupleDesc_F64> createSet( Random rand ) {
 		FastQueue<TupleDesc_F64> ret = new FastQueue<TupleDesc_F64>(10,TupleDesc_F64.class, true) {
 				@Override
 				protected TupleDesc_F64 createInstance() {
@@ -82,15 +107,11 @@ public class BenchmarkAssociationSpeedRandom {
 		return ret;
 	}
 
-	public static void main( String argsp[ ] ) {
-		System.out.println("=========  Profile Description Length "+DOF+" ========== Num Features "+NUM_FEATURES);
-		System.out.println();
-
-		ScoreAssociation<TupleDesc_F64> score = FactoryAssociation.scoreEuclidean(TupleDesc_F64.class,true);
+	public static void main( String args[] ) throws RunnerException {
+		Options opt = new OptionsBuilder()
+				.include(BenchmarkAssociationSpeedRandom.class.getSimpleName())
+				.build();
 
-		ProfileOperation.printOpsPerSec(new General("Greedy", FactoryAssociation.greedy(score, Double.MAX_VALUE, false)),TEST_TIME);
-		ProfileOperation.printOpsPerSec(new General("Greedy Backwards", FactoryAssociation.greedy(score, Double.MAX_VALUE, true)),TEST_TIME);
-		ProfileOperation.printOpsPerSec(new General("Random Forest", FactoryAssociation.kdRandomForest(null,DOF,500,15,5,1233445565)),TEST_TIME);
-		
+		new Runner(opt).run();
 	}
 }
@@ -18,89 +18,99 @@
 
 package boofcv.alg.feature.associate;
 
-import boofcv.abst.feature.associate.ScoreAssociateHamming_B;
-import boofcv.abst.feature.associate.ScoreAssociateNccFeature;
-import boofcv.abst.feature.associate.ScoreAssociation;
-import boofcv.misc.Performer;
-import boofcv.misc.PerformerBase;
-import boofcv.misc.ProfileOperation;
+import boofcv.abst.feature.associate.*;
 import boofcv.struct.feature.*;
 import org.ddogleg.struct.FastQueue;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
 
 import java.util.Random;
-
+import java.util.concurrent.TimeUnit;
 
 /**
  * Compares different scoring functions.
  *
  * @author Peter Abeles
  */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@State(Scope.Benchmark)
+@Fork(value=1)
 public class BenchmarkFeatureScore {
 
-	static final long TEST_TIME = 1000;
-	static final Random rand = new Random(234234);
 	static final int NUM_FEATURES = 2000;
 
 	static final int DOF_TUPLE = 64;
 	static final int DOF_BRIEF = 512;
 
-	static final FastQueue<TupleDesc_F64> listA = createSet();
-	static final FastQueue<TupleDesc_F64> listB = createSet();
-
-	static final FastQueue<TupleDesc_B> briefA = createBriefSet();
-	static final FastQueue<TupleDesc_B> briefB = createBriefSet();
+	Random rand = new Random(234234);
 
-	static final FastQueue<NccFeature> nccA = createNccSet();
-	static final FastQueue<NccFeature> nccB = createNccSet();
+	FastQueue<TupleDesc_F64> listA;
+	FastQueue<TupleDesc_F64> listB;
 
-	public static class General implements Performer {
+	FastQueue<TupleDesc_B> briefA;
+	FastQueue<TupleDesc_B> briefB;
 
-		ScoreAssociation alg;
-		String name;
+	FastQueue<NccFeature> nccA;
+	FastQueue<NccFeature> nccB;
 
-		public General(String name, ScoreAssociation alg) {
-			this.alg = alg;
-			this.name = name;
-		}
+	ScoreAssociateCorrelation correlation = new ScoreAssociateCorrelation();
+	ScoreAssociateEuclidean_F64 euclidean = new ScoreAssociateEuclidean_F64();
+	ScoreAssociateEuclideanSq_F64 euclideanSq = new ScoreAssociateEuclideanSq_F64();
+	ScoreAssociateHamming_B hamming = new ScoreAssociateHamming_B();
+	ScoreAssociateNccFeature ncc = new ScoreAssociateNccFeature();
 
-		@Override
-		public void process() {
-			for( int i = 0; i < listA.size; i++ )
-				for( int j = 0; j < listB.size; j++ )
-					alg.score(listA.data[i],listB.data[j]);
-		}
-
-		@Override
-		public String getName() {
-			return name;
-		}
+	@Setup
+	public void setup() {
+		listA = createSet();
+		listB = createSet();
+		briefA = createBriefSet();
+		briefB = createBriefSet();
+		nccA = createNccSet();
+		nccB = createNccSet();
 	}
 
-	public static class Brief extends PerformerBase {
+	@Benchmark
+	public void correlation() {
+		score(correlation);
+	}
 
-		ScoreAssociateHamming_B scorer = new ScoreAssociateHamming_B();
+	@Benchmark
+	public void euclidean() {
+		score(euclidean);
+	}
 
-		@Override
-		public void process() {
-			for( int i = 0; i < briefA.size; i++ )
-				for( int j = 0; j < briefB.size; j++ )
-					scorer.score(briefA.data[i],briefB.data[j]);
-		}
+	@Benchmark
+	public void euclideanSq() {
+		score(euclideanSq);
 	}
 
-	public static class Ncc extends PerformerBase {
+	@Benchmark
+	public void brief() {
+		for( int i = 0; i < briefA.size; i++ )
+			for( int j = 0; j < briefB.size; j++ )
+				hamming.score(briefA.data[i],briefB.data[j]);
+	}
 
-		ScoreAssociateNccFeature scorer = new ScoreAssociateNccFeature();
+	@Benchmark
+	public void ncc() {
+		for( int i = 0; i < nccA.size; i++ )
+			for( int j = 0; j < nccB.size; j++ )
+				ncc.score(nccA.data[i],nccB.data[j]);
+	}
 
-		@Override
-		public void process() {
-			for( int i = 0; i < nccA.size; i++ )
-				for( int j = 0; j < nccB.size; j++ )
-					scorer.score(nccA.data[i],nccB.data[j]);
-		}
+	private void score( ScoreAssociation<TupleDesc_F64> alg ) {
+		for( int i = 0; i < listA.size; i++ )
+			for( int j = 0; j < listB.size; j++ )
+				alg.score(listA.data[i],listB.data[j]);
 	}
 
-	private static FastQueue<TupleDesc_F64> createSet() {
+	private FastQueue<TupleDesc_F64> createSet() {
 		FastQueue<TupleDesc_F64> ret = new FastQueue<TupleDesc_F64>(10,TupleDesc_F64.class, true) {
 			@Override
 			protected TupleDesc_F64 createInstance() {
@@ -116,7 +126,7 @@ public class BenchmarkFeatureScore {
 		return ret;
 	}
 
-	private static FastQueue<TupleDesc_B> createBriefSet() {
+	private FastQueue<TupleDesc_B> createBriefSet() {
 		FastQueue<TupleDesc_B> ret = new BriefFeatureQueue(DOF_BRIEF);
 
 		for( int i = 0; i < NUM_FEATURES; i++ ) {
@@ -128,7 +138,7 @@ public class BenchmarkFeatureScore {
 		return ret;
 	}
 
-	private static FastQueue<NccFeature> createNccSet() {
+	private FastQueue<NccFeature> createNccSet() {
 		FastQueue<NccFeature> ret = new NccFeatureQueue(DOF_TUPLE);
 
 		for( int i = 0; i < NUM_FEATURES; i++ ) {
@@ -142,16 +152,11 @@ public class BenchmarkFeatureScore {
 		return ret;
 	}
 
-	public static void main( String argsp[ ] ) {
-		System.out.println("=========  Profile Description Length "+ DOF_TUPLE +" ========== Num Features "+NUM_FEATURES);
-		System.out.println();
-
-		// the "fastest" seems to always be the first one tested
-//		ProfileOperation.printOpsPerSec(new General("Correlation", new ScoreAssociateCorrelation()),TEST_TIME);
-//		ProfileOperation.printOpsPerSec(new General("Euclidean", new ScoreAssociateEuclidean_F64()),TEST_TIME);
-//		ProfileOperation.printOpsPerSec(new General("Euclidean Sq", new ScoreAssociateEuclideanSq_F64()),TEST_TIME);
-		ProfileOperation.printOpsPerSec(new Brief(),TEST_TIME);
-		ProfileOperation.printOpsPerSec(new Ncc(),TEST_TIME);
+	public static void main( String args[] ) throws RunnerException {
+		Options opt = new OptionsBuilder()
+				.include(BenchmarkFeatureScore.class.getSimpleName())
+				.build();
 
+		new Runner(opt).run();
 	}
 }
@@ -21,22 +21,36 @@ package boofcv.alg.feature.describe;
 import boofcv.alg.misc.GImageMiscOps;
 import boofcv.core.image.GeneralizedImageOps;
 import boofcv.struct.image.GrayF32;
+import boofcv.struct.image.GrayS32;
 import boofcv.struct.image.ImageGray;
 import boofcv.struct.sparse.GradientValue;
 import boofcv.struct.sparse.SparseScaleGradient;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
 
 import java.util.Random;
+import java.util.concurrent.TimeUnit;
 
 /**
  * @author Peter Abeles
  */
-public class BenchmarkSurfDescribeOps<T extends ImageGray<T>>
-{
-	static int imgWidth = 640;
-	static int imgHeight = 480;
-	Class<T> imageType;
-	
-	T input;
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@State(Scope.Benchmark)
+@Fork(value=1)
+public class BenchmarkSurfDescribeOps {
+	@Param({"GrayF32","GrayS32"})
+	public String imageType;
+
+	int imgWidth = 640;
+	int imgHeight = 480;
+
+	ImageGray input;
 
 	// parameters for region gradient
 	double tl_x = 100.0;
@@ -48,92 +62,81 @@ public class BenchmarkSurfDescribeOps<T extends ImageGray<T>>
 	double derivY[] = new double[ regionSize*regionSize ];
 
 	// kernel used to manually sample
-	SparseScaleGradient<T,?> g;
-
-	public BenchmarkSurfDescribeOps() {
-		this((Class<T>)GrayF32.class);
-	}
+	SparseScaleGradient g;
 
-	public BenchmarkSurfDescribeOps(Class<T> imageType) {
-		this.imageType = imageType;
+	@Setup
+	public void setup() {
+		Class type = imageType.equals("GrayS32") ? GrayS32.class : GrayF32.class;
 		Random rand = new Random(234);
-		input = GeneralizedImageOps.createSingleBand(imageType,imgWidth,imgHeight);
+		input = GeneralizedImageOps.createSingleBand(type,imgWidth,imgHeight);
 		GImageMiscOps.fillUniform(input, rand, 0, 1);
-		g = SurfDescribeOps.createGradient(false,imageType);
+		g = SurfDescribeOps.createGradient(false,type);
 		g.setWidth(kernelWidth);
 		g.setImage(input);
 	}
 
-	public int timeGradient_NotHaar(int reps) {
-		for( int i = 0; i < reps; i++ )
-			SurfDescribeOps.gradient(input, tl_x, tl_y, period, regionSize,
-					kernelWidth, false, derivX, derivY);
-		return 0;
+	@Benchmark
+	public void gradient_NotHaar() {
+		SurfDescribeOps.gradient(input, tl_x, tl_y, period, regionSize,
+				kernelWidth, false, derivX, derivY);
 	}
 
-	public int timeGradient_Haar(int reps) {
-		for( int i = 0; i < reps; i++ )
-			SurfDescribeOps.gradient(input, tl_x , tl_y , period, regionSize,
-					kernelWidth,true,derivX,derivY);
-		return 0;
+	@Benchmark
+	public void gradient_Haar() {
+		SurfDescribeOps.gradient(input, tl_x , tl_y , period, regionSize,
+				kernelWidth,true,derivX,derivY);
 	}
 
 	/**
 	 * Sample the gradient using SparseImageGradient instead of the completely
 	 * unrolled code
 	 */
-	public int timeGradient_Sample(int reps) {
-
-		for( int i = 0; i < reps; i++ ) {
-			double tl_x = this.tl_x + 0.5;
-			double tl_y = this.tl_y + 0.5;
-
-			int j = 0;
-			for( int y = 0; y < regionSize; y++ ) {
-				for( int x = 0; x < regionSize; x++ , j++) {
-					int xx = (int)(tl_x + x * period);
-					int yy = (int)(tl_y + y * period);
-
-					GradientValue deriv = g.compute(xx,yy);
-					derivX[j] = deriv.getX();
-					derivY[j] = deriv.getY();
-				}
+	@Benchmark
+	public void gradient_Sample() {
+		double tl_x = this.tl_x + 0.5;
+		double tl_y = this.tl_y + 0.5;
+
+		int j = 0;
+		for( int y = 0; y < regionSize; y++ ) {
+			for( int x = 0; x < regionSize; x++ , j++) {
+				int xx = (int)(tl_x + x * period);
+				int yy = (int)(tl_y + y * period);
+
+				GradientValue deriv = g.compute(xx,yy);
+				derivX[j] = deriv.getX();
+				derivY[j] = deriv.getY();
 			}
-
 		}
-		return 0;
 	}
 
 	/**
 	 * Sample the gradient, but just for boundary conditions
 	 */
-	public int timeGradient_SampleCheck(int reps) {
-
-		for( int i = 0; i < reps; i++ ) {
-			double tl_x = this.tl_x + 0.5;
-			double tl_y = this.tl_y + 0.5;
-
-			int j = 0;
-			for( int y = 0; y < regionSize; y++ ) {
-				for( int x = 0; x < regionSize; x++ , j++) {
-					int xx = (int)(tl_x + x * period);
-					int yy = (int)(tl_y + y * period);
-
-					if( g.isInBounds(xx,yy)) {
-						GradientValue deriv = g.compute(xx,yy);
-						derivX[j] = deriv.getX();
-						derivY[j] = deriv.getY();
-					}
+	@Benchmark
+	public void gradient_SampleCheck() {
+		double tl_x = this.tl_x + 0.5;
+		double tl_y = this.tl_y + 0.5;
+
+		int j = 0;
+		for( int y = 0; y < regionSize; y++ ) {
+			for( int x = 0; x < regionSize; x++ , j++) {
+				int xx = (int)(tl_x + x * period);
+				int yy = (int)(tl_y + y * period);
+
+				if( g.isInBounds(xx,yy)) {
+					GradientValue deriv = g.compute(xx,yy);
+					derivX[j] = deriv.getX();
+					derivY[j] = deriv.getY();
 				}
 			}
-
 		}
-		return 0;
 	}
 	
-	public static void main( String args[] ) {
-		System.out.println("=========  Profile Image Size "+ imgWidth +" x "+ imgHeight  +" ==========");
+	public static void main( String args[] ) throws RunnerException {
+		Options opt = new OptionsBuilder()
+				.include(BenchmarkSurfDescribeOps.class.getSimpleName())
+				.build();
 
-//		Runner.main(BenchmarkSurfDescribeOps.class, args);
+		new Runner(opt).run();
 	}
 }
@@ -20,27 +20,39 @@ package boofcv.alg.feature.detect.edge;
 
 import boofcv.alg.misc.ImageMiscOps;
 import boofcv.factory.feature.detect.edge.FactoryEdgeDetectors;
-import boofcv.misc.PerformerBase;
-import boofcv.misc.ProfileOperation;
 import boofcv.struct.image.GrayF32;
 import boofcv.struct.image.GrayU8;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
 
 import java.util.Random;
+import java.util.concurrent.TimeUnit;
 
 /**
  * @author Peter Abeles
  */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@State(Scope.Benchmark)
+@Fork(value=1)
 public class BenchmarkDetectEdge {
-	static final long TEST_TIME = 1000;
-
 	int width = 640;
 	int height = 480;
 
-	Random rand = new Random(234);
-
 	GrayF32 input = new GrayF32(width,height);
+	GrayU8 output = new GrayU8(width,height);
 
-	public void createImage() {
+	CannyEdge<GrayF32,GrayF32> cannyMark = FactoryEdgeDetectors.canny(2,false, false, GrayF32.class, GrayF32.class);
+	CannyEdge<GrayF32,GrayF32> cannyTrace = FactoryEdgeDetectors.canny(2,true, false, GrayF32.class, GrayF32.class);
+
+	@Setup
+	public void setup() {
+		Random rand = new Random(234);
 		for( int i = 0; i < 1000; i++ ) {
 			int width = 10+rand.nextInt(50);
 			int height = 10+rand.nextInt(50);
@@ -60,41 +72,21 @@ public class BenchmarkDetectEdge {
 		}
 	}
 
-	public class CannyMark extends PerformerBase {
-
-		CannyEdge<GrayF32,GrayF32> alg = FactoryEdgeDetectors.canny(2,false, false, GrayF32.class, GrayF32.class);
-		GrayU8 output = new GrayU8(width,height);
-
-		@Override
-		public void process() {
-			alg.process(input,5,10,output);
-		}
+	@Benchmark
+	public void cannyMark() {
+		cannyMark.process(input,5,10,output);
 	}
 
-	public class CannyTrace extends PerformerBase {
-
-		CannyEdge<GrayF32,GrayF32> alg = FactoryEdgeDetectors.canny(2,true, false, GrayF32.class, GrayF32.class);
-		GrayU8 output = new GrayU8(width,height);
-
-		@Override
-		public void process() {
-			alg.process(input,5,10,output);
-		}
+	@Benchmark
+	public void cannyTrace() {
+		cannyTrace.process(input,5,10,output);
 	}
 
-	public void performTests() {
-		createImage();
-
-		System.out.println("=========  Profile Image Size " + width + " x " + height + " ==========");
-		System.out.println();
+	public static void main( String args[] ) throws RunnerException {
+		Options opt = new OptionsBuilder()
+				.include(BenchmarkDetectEdge.class.getSimpleName())
+				.build();
 
-		ProfileOperation.printOpsPerSec(new CannyMark(), TEST_TIME);
-		ProfileOperation.printOpsPerSec(new CannyTrace(), TEST_TIME);
+		new Runner(opt).run();
 	}
-
-	public static void main( String args[] ) {
-		BenchmarkDetectEdge benchmark = new BenchmarkDetectEdge();
-		benchmark.performTests();
-	}
-
 }
@@ -20,75 +20,69 @@ package boofcv.alg.feature.detect.edge;
 
 import boofcv.alg.feature.detect.edge.impl.ImplEdgeNonMaxSuppression;
 import boofcv.alg.misc.ImageMiscOps;
-import boofcv.misc.PerformerBase;
-import boofcv.misc.ProfileOperation;
 import boofcv.struct.image.GrayF32;
 import boofcv.struct.image.GrayS8;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
 
 import java.util.Random;
-
+import java.util.concurrent.TimeUnit;
 
 /**
  * @author Peter Abeles
  */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@State(Scope.Benchmark)
+@Fork(value=1)
 public class BenchmarkEdgeNonMaxSupression {
 
-	static final long TEST_TIME = 1000;
-	static Random rand = new Random(234234);
-
-	final static int width = 640;
-	final static int height = 480;
-
-	static GrayF32 intensity = new GrayF32(width,height);
-	static GrayF32 output = new GrayF32(width,height);
-	static GrayS8 direction4 = new GrayS8(width,height);
-	static GrayS8 direction8 = new GrayS8(width,height);
-
+	final int width = 640;
+	final int height = 480;
 
-	public static class Naive4_F32 extends PerformerBase {
+	GrayF32 intensity = new GrayF32(width,height);
+	GrayF32 output = new GrayF32(width,height);
+	GrayS8 direction4 = new GrayS8(width,height);
+	GrayS8 direction8 = new GrayS8(width,height);
 
-		@Override
-		public void process() {
-			ImplEdgeNonMaxSuppression.naive4(intensity, direction4,output);
-		}
+	@Setup
+	public void setup() {
+		Random rand = new Random(234234);
+		ImageMiscOps.fillUniform(intensity, rand, 0, 100);
+		ImageMiscOps.fillUniform(direction4, rand, -1, 3);
+		ImageMiscOps.fillUniform(direction8, rand, -3, 5);
 	}
 
-	public static class Main4_F32 extends PerformerBase {
-
-		@Override
-		public void process() {
-			GradientToEdgeFeatures.nonMaxSuppression4(intensity, direction4,output);
-		}
+	@Benchmark
+	public void naive4_F32() {
+		ImplEdgeNonMaxSuppression.naive4(intensity, direction4,output);
 	}
 
-	public static class Naive8_F32 extends PerformerBase {
-
-		@Override
-		public void process() {
-			ImplEdgeNonMaxSuppression.naive8(intensity,direction8,output);
-		}
+	@Benchmark
+	public void main4_F32() {
+		GradientToEdgeFeatures.nonMaxSuppression4(intensity, direction4,output);
 	}
 
-	public static class Main8_F32 extends PerformerBase {
-
-		@Override
-		public void process() {
-			GradientToEdgeFeatures.nonMaxSuppression8(intensity,direction8,output);
-		}
+	@Benchmark
+	public void naive8_F32() {
+		ImplEdgeNonMaxSuppression.naive8(intensity,direction8,output);
 	}
 
-	public static void main(String args[]) {
-		ImageMiscOps.fillUniform(intensity, rand, 0, 100);
-		ImageMiscOps.fillUniform(direction4, rand, -1, 3);
-		ImageMiscOps.fillUniform(direction8, rand, -3, 5);
-
-		System.out.println("=========  Profile Image Size " + width + " x " + height + " ==========");
-		System.out.println();
+	@Benchmark
+	public void main8_F32() {
+		GradientToEdgeFeatures.nonMaxSuppression8(intensity,direction8,output);
+	}
 
-		ProfileOperation.printOpsPerSec(new Naive4_F32(), TEST_TIME);
-		ProfileOperation.printOpsPerSec(new Main4_F32(), TEST_TIME);
-		ProfileOperation.printOpsPerSec(new Naive8_F32(), TEST_TIME);
-		ProfileOperation.printOpsPerSec(new Main8_F32(), TEST_TIME);
+	public static void main( String args[] ) throws RunnerException {
+		Options opt = new OptionsBuilder()
+				.include(BenchmarkEdgeNonMaxSupression.class.getSimpleName())
+				.build();
 
+		new Runner(opt).run();
 	}
 }
@@ -22,90 +22,99 @@ import boofcv.abst.feature.detect.extract.NonMaxSuppression;
 import boofcv.abst.feature.detect.extract.WrapperNonMaximumBlock;
 import boofcv.abst.feature.detect.extract.WrapperNonMaximumNaive;
 import boofcv.alg.misc.ImageMiscOps;
-import boofcv.misc.Performer;
-import boofcv.misc.ProfileOperation;
 import boofcv.struct.QueueCorner;
 import boofcv.struct.image.GrayF32;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
 
 import java.util.Random;
+import java.util.concurrent.TimeUnit;
 
 /**
  * @author Peter Abeles
  */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@State(Scope.Benchmark)
+@Fork(value=1)
 public class BenchmarkExtractors {
 
-	static int imgWidth = 640;
-	static int imgHeight = 480;
-	static int windowRadius = 2;
-	static float threshold = 1.0f;
-	static long TEST_TIME = 1000;
+	@Param({"1","2","5","10"})
+	public int windowRadius;
 
+	int imgWidth = 640;
+	int imgHeight = 480;
+	float threshold = 1.0f;
 
-	static GrayF32 intensity;
-	static QueueCorner corners;
+	GrayF32 intensity = new GrayF32(imgWidth, imgHeight);
+	QueueCorner corners = new QueueCorner(imgWidth * imgHeight);
 
-	static Random rand = new Random(33456);
+	NonMaxSuppression blockStrict;
+	NonMaxSuppression blockStrictMinMax;
+	NonMaxSuppression naiveStrict;
+	NonMaxSuppression blockRelaxed;
+	NonMaxSuppression naiveRelaxed;
 
+	@Setup
+	public void setup() {
+		Random rand = new Random(33456);
 
-	public static class NM implements Performer {
-		NonMaxSuppression alg;
-		String name;
-
-		public NM(String name , NonMaxSuppression alg) {
-			this.alg = alg;
-			this.name = name;
-			alg.setThresholdMaximum(threshold);
-			alg.setSearchRadius(windowRadius);
-		}
-
-		@Override
-		public void process() {
-			corners.reset();
-			alg.process(intensity, null,null,corners,corners);
-		}
+		// have about 1/20 the image below threshold
+		ImageMiscOps.fillUniform(intensity, rand, 0, threshold * 20.0f);
 
-		@Override
-		public String getName() {
-			return name;
-		}
+		blockStrict = configure(new WrapperNonMaximumBlock(new NonMaxBlockStrict.Max()));
+		blockStrictMinMax = configure(new WrapperNonMaximumBlock(new NonMaxBlockStrict.MinMax()));
+		naiveStrict = configure(new WrapperNonMaximumNaive(new NonMaxExtractorNaive(true)));
+		blockRelaxed = configure(new WrapperNonMaximumBlock(new NonMaxBlockRelaxed.Max()));
+		naiveRelaxed = configure(new WrapperNonMaximumNaive(new NonMaxExtractorNaive(false)));
 	}
 
-	public static void main(String args[]) {
-		intensity = new GrayF32(imgWidth, imgHeight);
-		corners = new QueueCorner(imgWidth * imgHeight);
+	private NonMaxSuppression configure( NonMaxSuppression alg ) {
+		alg.setThresholdMaximum(threshold);
+		alg.setSearchRadius(windowRadius);
+		return alg;
+	}
 
-		// have about 1/20 the image below threshold
-		ImageMiscOps.fillUniform(intensity, rand, 0, threshold * 20.0f);
+	@Benchmark
+	public void blockStrict() {
+		process(blockStrict);
+	}
 
-		System.out.println("=========  Profile Image Size " + imgWidth + " x " + imgHeight + " ==========");
-		System.out.println();
+	@Benchmark
+	public void blockStrictMinMax() {
+		process(blockStrictMinMax);
+	}
 
-		ThresholdCornerExtractor algThresh = new ThresholdCornerExtractor();
-		NonMaxBlockStrict algBlockStrict = new NonMaxBlockStrict.Max();
-		NonMaxBlockStrict algBlockStrictMinMax = new NonMaxBlockStrict.MinMax();
-		NonMaxExtractorNaive algNaiveStrict = new NonMaxExtractorNaive(true);
-		NonMaxBlockRelaxed algBlockRelaxed = new NonMaxBlockRelaxed.Max();
-		NonMaxExtractorNaive algNaiveRelaxed = new NonMaxExtractorNaive(true);
+	@Benchmark
+	public void naiveStrict() {
+		process(naiveStrict);
+	}
 
+	@Benchmark
+	public void blockRelaxed() {
+		process(blockRelaxed);
+	}
 
-		for ( int radius = 1; radius < 20; radius += 1) {
-			System.out.println("Radius: " + radius);
-			System.out.println();
-			windowRadius = radius;
+	@Benchmark
+	public void naiveRelaxed() {
+		process(naiveRelaxed);
+	}
 
-			NM alg2 = new NM("Block Strict",new WrapperNonMaximumBlock(algBlockStrict));
-			NM alg3 = new NM("Block Strict MinMax",new WrapperNonMaximumBlock(algBlockStrictMinMax));
-			NM alg4 = new NM("Naive Strict",new WrapperNonMaximumNaive(algNaiveStrict));
-			NM alg5 = new NM("Block Relaxed",new WrapperNonMaximumBlock(algBlockRelaxed));
-			NM alg6 = new NM("Naive Relaxed",new WrapperNonMaximumNaive(algNaiveRelaxed));
+	private void process( NonMaxSuppression alg ) {
+		corners.reset();
+		alg.process(intensity, null,null,corners,corners);
+	}
 
-			ProfileOperation.printOpsPerSec(alg2, TEST_TIME);
-			ProfileOperation.printOpsPerSec(alg3, TEST_TIME);
-//			ProfileOperation.printOpsPerSec(alg4, TEST_TIME);
-//			ProfileOperation.printOpsPerSec(alg5, TEST_TIME);
-//			ProfileOperation.printOpsPerSec(alg6, TEST_TIME);
-//			ProfileOperation.printOpsPerSec(alg1, TEST_TIME);
-		}
+	public static void main( String args[] ) throws RunnerException {
+		Options opt = new OptionsBuilder()
+				.include(BenchmarkExtractors.class.getSimpleName())
+				.build();
 
+		new Runner(opt).run();
 	}
 }
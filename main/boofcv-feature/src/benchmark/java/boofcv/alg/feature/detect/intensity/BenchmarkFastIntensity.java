@@ -18,87 +18,91 @@
 
 package boofcv.alg.feature.detect.intensity;
 
-import boofcv.alg.feature.detect.intensity.impl.ImplFastCorner12_U8;
-import boofcv.alg.feature.detect.intensity.impl.ImplFastCorner9_U8;
+import boofcv.alg.feature.detect.intensity.impl.*;
 import boofcv.alg.misc.GImageMiscOps;
 import boofcv.core.image.GeneralizedImageOps;
-import boofcv.misc.PerformerBase;
-import boofcv.misc.ProfileOperation;
 import boofcv.struct.image.GrayF32;
 import boofcv.struct.image.GrayU8;
 import boofcv.struct.image.ImageGray;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
 
 import java.util.Random;
+import java.util.concurrent.TimeUnit;
 
 /**
  * @author Peter Abeles
  */
-public class BenchmarkFastIntensity<T extends ImageGray<T>> {
-	static int imgWidth = 640;
-	static int imgHeight = 480;
-	static long TEST_TIME = 1000;
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@State(Scope.Benchmark)
+@Fork(value=1)
+public class BenchmarkFastIntensity {
 
-	T input;
-	GrayF32 intensity;
+	@Param({"640","1920"})
+	public int size;
 
-	public BenchmarkFastIntensity(Class<T> imageType) {
-		input = GeneralizedImageOps.createSingleBand(imageType,imgWidth,imgHeight);
-		intensity = new GrayF32(input.width,input.height);
-	}
+	@Param({"GrayU8","GrayF32"})
+	public String imageType;
 
-	public class FAST_NAIVE_9 extends PerformerBase {
-		DetectorFastNaive corner = new DetectorFastNaive(3,9,60);
+	// random image or an image with a single value
+	@Param({"true","false"})
+	public boolean random;
 
-		@Override
-		public void process() {
-			corner.process((GrayU8)input);
-		}
-	}
-
-	public class FAST9 extends PerformerBase {
-		FastCornerDetector<GrayU8> corner = new FastCornerDetector<>(new ImplFastCorner9_U8(60));
+	ImageGray input;
+	GrayF32 intensity;
 
-		@Override
-		public void process() {
-			corner.process((GrayU8)input,intensity);
+	DetectorFastNaive naive9 = new DetectorFastNaive(3,9,60);
+	FastCornerDetector fast9;
+	FastCornerDetector fast12;
+
+	@Setup
+	public void setup() {
+		Class type = imageType.equals("GrayU8") ? GrayU8.class : GrayF32.class;
+		input = GeneralizedImageOps.createSingleBand(type,size,size);
+		intensity = new GrayF32(size,size);
+
+		if( random )
+			GImageMiscOps.fillUniform(input, new Random(234), 0, 255);
+		else
+			GImageMiscOps.fill(input,125);
+
+		if( input instanceof GrayU8 ) {
+			fast9 = new FastCornerDetector<>(new ImplFastCorner9_U8(60));
+			fast12 = new FastCornerDetector<>(new ImplFastCorner12_U8(60));
+		} else {
+			fast9 = new FastCornerDetector<>(new ImplFastCorner9_F32(60));
+			fast12 = new FastCornerDetector<>(new ImplFastCorner12_F32(60));
 		}
 	}
 
-	public class FAST12 extends PerformerBase {
-		FastCornerDetector<GrayU8> corner = new FastCornerDetector<>(new ImplFastCorner12_U8(60));
-
-		@Override
-		public void process() {
-			corner.process((GrayU8)input,intensity);
-		}
+	@Benchmark
+	public void naive9() {
+		// the naive implementation only supports GrayU8
+		if( input instanceof GrayU8 )
+			naive9.process((GrayU8)input);
 	}
 
-	public void evaluate() {
-		Random rand = new Random(234);
-
-		System.out.println("=========  Profile Image Size " + imgWidth + " x " + imgHeight + " ==========");
-		System.out.println("           Random");
-		System.out.println();
-
-		GImageMiscOps.fillUniform(input, rand, 0, 255);
-		ProfileOperation.printOpsPerSec(new FAST_NAIVE_9(), TEST_TIME);
-		ProfileOperation.printOpsPerSec(new FAST9(), TEST_TIME);
-		ProfileOperation.printOpsPerSec(new FAST12(), TEST_TIME);
-
-		System.out.println();
-		System.out.println("           Single Value");
-		System.out.println();
-
-		GImageMiscOps.fill(input,125);
-		ProfileOperation.printOpsPerSec(new FAST_NAIVE_9(), TEST_TIME);
-		ProfileOperation.printOpsPerSec(new FAST9(), TEST_TIME);
-		ProfileOperation.printOpsPerSec(new FAST12(), TEST_TIME);
+	@Benchmark
+	public void fast9() {
+		fast9.process(input,intensity);
+	}
 
+	@Benchmark
+	public void fast12() {
+		fast12.process(input,intensity);
 	}
 
-	public static void main( String args[] ) {
-		BenchmarkFastIntensity benchmark = new BenchmarkFastIntensity(GrayU8.class);
+	public static void main( String args[] ) throws RunnerException {
+		Options opt = new OptionsBuilder()
+				.include(BenchmarkFastIntensity.class.getSimpleName())
+				.build();
 
-		benchmark.evaluate();
+		new Runner(opt).run();
 	}
 }
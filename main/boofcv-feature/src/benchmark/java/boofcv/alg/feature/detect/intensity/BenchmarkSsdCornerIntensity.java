@@ -20,152 +20,129 @@ package boofcv.alg.feature.detect.intensity;
 
 import boofcv.alg.feature.detect.intensity.impl.*;
 import boofcv.alg.misc.ImageMiscOps;
-import boofcv.misc.PerformerBase;
-import boofcv.misc.ProfileOperation;
 import boofcv.struct.image.GrayF32;
 import boofcv.struct.image.GrayS16;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
 
 import java.util.Random;
+import java.util.concurrent.TimeUnit;
 
 /**
- * Benchmark for different convolution operations.
+ * Benchmark for different corner intensity operations.
  *
  * @author Peter Abeles
  */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@State(Scope.Benchmark)
+@Fork(value=1)
 public class BenchmarkSsdCornerIntensity {
-	static int imgWidth = 640;
-	static int imgHeight = 480;
-	static int windowRadius = 2;
-	static long TEST_TIME = 1000;
-
-	static GrayF32 intensity = new GrayF32(imgWidth,imgHeight);
-
-	static GrayF32 derivX_F32;
-	static GrayF32 derivY_F32;
-	static GrayF32 derivXX_F32;
-	static GrayF32 derivYY_F32;
-	static GrayF32 derivXY_F32;
-	static GrayS16 derivX_I16;
-	static GrayS16 derivY_I16;
-	static GrayS16 derivXX_I16;
-	static GrayS16 derivYY_I16;
-	static GrayS16 derivXY_I16;
-
-	static Random rand = new Random(234);
-
-	public static class KLT_F32 extends PerformerBase {
-		ImplShiTomasiCorner_F32 corner = new ImplShiTomasiCorner_F32(windowRadius);
-
-		@Override
-		public void process() {
-			corner.process(derivX_F32, derivY_F32,intensity);
-		}
-	}
-
-	public static class KLT_WEIGHT_F32 extends PerformerBase {
-		ImplShiTomasiCornerWeighted_F32 corner = new ImplShiTomasiCornerWeighted_F32(windowRadius);
+	@Param({"2"})
+	public int windowRadius;
+
+	int imgWidth = 640;
+	int imgHeight = 480;
+
+	GrayF32 intensity = new GrayF32(imgWidth,imgHeight);
+
+	GrayF32 derivX_F32 = new GrayF32(imgWidth, imgHeight);
+	GrayF32 derivY_F32 = new GrayF32(imgWidth, imgHeight);
+	GrayF32 derivXX_F32 = new GrayF32(imgWidth, imgHeight);
+	GrayF32 derivYY_F32 = new GrayF32(imgWidth, imgHeight);
+	GrayF32 derivXY_F32 = new GrayF32(imgWidth, imgHeight);
+	GrayS16 derivX_I16 = new GrayS16(imgWidth, imgHeight);
+	GrayS16 derivY_I16 = new GrayS16(imgWidth, imgHeight);
+	GrayS16 derivXX_I16 = new GrayS16(imgWidth, imgHeight);
+	GrayS16 derivYY_I16 = new GrayS16(imgWidth, imgHeight);
+	GrayS16 derivXY_I16 = new GrayS16(imgWidth, imgHeight);
+
+	ImplShiTomasiCorner_F32 klt_F32;
+	ImplShiTomasiCornerWeighted_F32 kltWeight_F32;
+	ImplShiTomasiCorner_S16 klt_I16;
+	ImplShiTomasiCornerWeighted_S16 kltWeight_I16;
+	ImplSsdCornerNaive kltNaive_I16;
+	ImplHarrisCorner_F32 harris_F32;
+	ImplHarrisCorner_S16 harris_I16;
+
+	@Setup
+	public void setup() {
+		Random rand = new Random(234);
+		ImageMiscOps.fillUniform(derivX_F32, rand, 0, 255);
+		ImageMiscOps.fillUniform(derivY_F32, rand, 0, 255);
+		ImageMiscOps.fillUniform(derivXX_F32, rand, 0, 255);
+		ImageMiscOps.fillUniform(derivYY_F32, rand, 0, 255);
+		ImageMiscOps.fillUniform(derivXY_F32, rand, 0, 255);
+		ImageMiscOps.fillUniform(derivX_I16, rand, 0, 255);
+		ImageMiscOps.fillUniform(derivY_I16, rand, 0, 255);
+		ImageMiscOps.fillUniform(derivXX_I16, rand, 0, 255);
+		ImageMiscOps.fillUniform(derivYY_I16, rand, 0, 255);
+		ImageMiscOps.fillUniform(derivXY_I16, rand, 0, 255);
 
-		@Override
-		public void process() {
-			corner.process(derivX_F32, derivY_F32,intensity);
-		}
+		klt_F32 = new ImplShiTomasiCorner_F32(windowRadius);
+		kltWeight_F32 = new ImplShiTomasiCornerWeighted_F32(windowRadius);
+		klt_I16 = new ImplShiTomasiCorner_S16(windowRadius);
+		kltWeight_I16 = new ImplShiTomasiCornerWeighted_S16(windowRadius);
+		kltNaive_I16 = new ImplSsdCornerNaive(imgWidth, imgHeight, windowRadius,false);
+		harris_F32 = new ImplHarrisCorner_F32(windowRadius, 0.04f);
+		harris_I16 = new ImplHarrisCorner_S16(windowRadius, 0.04f);
 	}
 
-	public static class KLT_I16 extends PerformerBase {
-		ImplShiTomasiCorner_S16 corner = new ImplShiTomasiCorner_S16(windowRadius);
-
-		@Override
-		public void process() {
-			corner.process(derivX_I16, derivY_I16,intensity);
-		}
+	@Benchmark
+	public void klt_F32() {
+		klt_F32.process(derivX_F32, derivY_F32,intensity);
 	}
-	public static class KLT_WEIGHT_I16 extends PerformerBase {
-		ImplShiTomasiCornerWeighted_S16 corner = new ImplShiTomasiCornerWeighted_S16(windowRadius);
 
-		@Override
-		public void process() {
-			corner.process(derivX_I16, derivY_I16,intensity);
-		}
+	@Benchmark
+	public void kltWeight_F32() {
+		kltWeight_F32.process(derivX_F32, derivY_F32,intensity);
 	}
 
-	public static class KLT_Naive_I16 extends PerformerBase {
-		ImplSsdCornerNaive corner = new ImplSsdCornerNaive(imgWidth, imgHeight, windowRadius,false);
-
-		@Override
-		public void process() {
-			corner.process(derivX_I16, derivY_I16,intensity);
-		}
+	@Benchmark
+	public void klt_I16() {
+		klt_I16.process(derivX_I16, derivY_I16,intensity);
 	}
 
-	public static class Harris_F32 extends PerformerBase {
-		ImplHarrisCorner_F32 corner = new ImplHarrisCorner_F32(windowRadius, 0.04f);
-
-		@Override
-		public void process() {
-			corner.process(derivX_F32, derivY_F32,intensity);
-		}
+	@Benchmark
+	public void kltWeight_I16() {
+		kltWeight_I16.process(derivX_I16, derivY_I16,intensity);
 	}
 
-	public static class Harris_I16 extends PerformerBase {
-		ImplHarrisCorner_S16 corner = new ImplHarrisCorner_S16( windowRadius, 0.04f);
-
-		@Override
-		public void process() {
-			corner.process(derivX_I16, derivY_I16,intensity);
-		}
+	@Benchmark
+	public void kltNaive_I16() {
+		kltNaive_I16.process(derivX_I16, derivY_I16,intensity);
 	}
 
-	public static class KitRos_F32 extends PerformerBase {
-
-		@Override
-		public void process() {
-			KitRosCornerIntensity.process(intensity,derivX_F32, derivY_F32,derivXX_F32,derivYY_F32,derivXY_F32);
-		}
+	@Benchmark
+	public void harris_F32() {
+		harris_F32.process(derivX_F32, derivY_F32,intensity);
 	}
 
-	public static class KitRos_I16 extends PerformerBase {
-		@Override
-		public void process() {
-			KitRosCornerIntensity.process(intensity,derivX_I16, derivY_I16, derivXX_I16,derivYY_I16, derivXY_I16);
-		}
+	@Benchmark
+	public void harris_I16() {
+		harris_I16.process(derivX_I16, derivY_I16,intensity);
 	}
 
+	@Benchmark
+	public void kitRos_F32() {
+		KitRosCornerIntensity.process(intensity,derivX_F32, derivY_F32,derivXX_F32,derivYY_F32,derivXY_F32);
+	}
 
-	public static void main(String args[]) {
-		derivX_F32 = new GrayF32(imgWidth, imgHeight);
-		derivY_F32 = new GrayF32(imgWidth, imgHeight);
-		derivXX_F32 = new GrayF32(imgWidth, imgHeight);
-		derivYY_F32 = new GrayF32(imgWidth, imgHeight);
-		derivXY_F32 = new GrayF32(imgWidth, imgHeight);
-		derivX_I16 = new GrayS16(imgWidth, imgHeight);
-		derivY_I16 = new GrayS16(imgWidth, imgHeight);
-		derivXX_I16 = new GrayS16(imgWidth, imgHeight);
-		derivYY_I16 = new GrayS16(imgWidth, imgHeight);
-		derivXY_I16 = new GrayS16(imgWidth, imgHeight);
-
-		ImageMiscOps.fillUniform(derivX_F32, rand, 0, 255);
-		ImageMiscOps.fillUniform(derivY_F32, rand, 0, 255);
-		ImageMiscOps.fillUniform(derivXX_F32, rand, 0, 255);
-		ImageMiscOps.fillUniform(derivYY_F32, rand, 0, 255);
-		ImageMiscOps.fillUniform(derivXY_F32, rand, 0, 255);
-		ImageMiscOps.fillUniform(derivX_I16, rand, 0, 255);
-		ImageMiscOps.fillUniform(derivY_I16, rand, 0, 255);
-		ImageMiscOps.fillUniform(derivXX_I16, rand, 0, 255);
-		ImageMiscOps.fillUniform(derivYY_I16, rand, 0, 255);
-		ImageMiscOps.fillUniform(derivXY_I16, rand, 0, 255);
-
-		System.out.println("=========  Profile Image Size " + imgWidth + " x " + imgHeight + " ==========");
-		System.out.println();
+	@Benchmark
+	public void kitRos_I16() {
+		KitRosCornerIntensity.process(intensity,derivX_I16, derivY_I16, derivXX_I16,derivYY_I16, derivXY_I16);
+	}
 
-		ProfileOperation.printOpsPerSec(new KLT_F32(), TEST_TIME);
-		ProfileOperation.printOpsPerSec(new KLT_WEIGHT_F32(), TEST_TIME);
-		ProfileOperation.printOpsPerSec(new Harris_F32(), TEST_TIME);
-		ProfileOperation.printOpsPerSec(new KitRos_F32(), TEST_TIME);
-		ProfileOperation.printOpsPerSec(new KLT_I16(), TEST_TIME);
-		ProfileOperation.printOpsPerSec(new KLT_WEIGHT_I16(), TEST_TIME);
-		ProfileOperation.printOpsPerSec(new Harris_I16(), TEST_TIME);
-		ProfileOperation.printOpsPerSec(new KitRos_I16(), TEST_TIME);
-		ProfileOperation.printOpsPerSec(new KLT_Naive_I16(), TEST_TIME);
+	public static void main( String args[] ) throws RunnerException {
+		Options opt = new OptionsBuilder()
+				.include(BenchmarkSsdCornerIntensity.class.getSimpleName())
+				.build();
 
+		new Runner(opt).run();
 	}
 }
@@ -22,55 +22,62 @@ import boofcv.alg.feature.detect.intensity.IntegralImageFeatureIntensity;
 import boofcv.alg.feature.detect.intensity.impl.ImplIntegralImageFeatureIntensity;
 import boofcv.alg.misc.ImageMiscOps;
 import boofcv.alg.transform.ii.IntegralImageOps;
-import boofcv.misc.PerformerBase;
-import boofcv.misc.ProfileOperation;
 import boofcv.struct.image.GrayF32;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
 
 import java.util.Random;
-
+import java.util.concurrent.TimeUnit;
 
 /**
  * @author Peter Abeles
  */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@State(Scope.Benchmark)
+@Fork(value=1)
 public class BenchmarkFastHessianFeatureIntensity {
-	static int width = 640;
-	static int height = 480;
-	static long TEST_TIME = 1000;
-
-	static int skip = 1;
-	static int size = 15;
+	@Param({"1","2"})
+	public int skip;
 
-	static Random rand = new Random(234);
+	@Param({"15"})
+	public int size;
 
-	static GrayF32 original = new GrayF32(width,height);
-	static GrayF32 integral = new GrayF32(width,height);
-	static GrayF32 intensity = new GrayF32(width,height);
+	int width = 640;
+	int height = 480;
 
-	public static class Naive extends PerformerBase {
+	GrayF32 original = new GrayF32(width,height);
+	GrayF32 integral = new GrayF32(width,height);
+	GrayF32 intensity = new GrayF32(1,1);
 
-		@Override
-		public void process() {
-			ImplIntegralImageFeatureIntensity.hessianNaive(integral,skip,size,intensity);
-		}
+	@Setup
+	public void setup() {
+		Random rand = new Random(234);
+		ImageMiscOps.fillUniform(original,rand,0,200);
+		IntegralImageOps.transform(original,integral);
+		intensity.reshape(width/skip,height/skip);
 	}
 
-	public static class Standard extends PerformerBase {
-
-		@Override
-		public void process() {
-			IntegralImageFeatureIntensity.hessian(integral,skip,size,intensity);
-		}
+	@Benchmark
+	public void naive() {
+		ImplIntegralImageFeatureIntensity.hessianNaive(integral,skip,size,intensity);
 	}
 
-	public static void main(String args[]) {
-		ImageMiscOps.fillUniform(original,rand,0,200);
-		IntegralImageOps.transform(original,integral);
+	@Benchmark
+	public void standard() {
+		IntegralImageFeatureIntensity.hessian(integral,skip,size,intensity);
+	}
 
-		System.out.println("=========  Profile Image Size " + width + " x " + height + " ==========");
-		System.out.println("     skip = "+skip+" size = "+size);
-		System.out.println();
+	public static void main( String args[] ) throws RunnerException {
+		Options opt = new OptionsBuilder()
+				.include(BenchmarkFastHessianFeatureIntensity.class.getSimpleName())
+				.build();
 
-		ProfileOperation.printOpsPerSec(new Naive(), TEST_TIME);
-		ProfileOperation.printOpsPerSec(new Standard(), TEST_TIME);
+		new Runner(opt).run();
 	}
 }
@@ -22,76 +22,73 @@ import boofcv.alg.misc.GImageMiscOps;
 import boofcv.core.image.GeneralizedImageOps;
 import boofcv.factory.feature.detect.template.FactoryTemplateMatching;
 import boofcv.factory.feature.detect.template.TemplateScoreType;
-import boofcv.misc.Performer;
-import boofcv.misc.ProfileOperation;
 import boofcv.struct.image.GrayF32;
 import boofcv.struct.image.GrayU8;
 import boofcv.struct.image.ImageGray;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
 
 import java.util.Random;
+import java.util.concurrent.TimeUnit;
 
 /**
  * @author Peter Abeles
  */
-public class BenchmarkTemplateIntensity<T extends ImageGray<T>> {
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@State(Scope.Benchmark)
+@Fork(value=1)
+public class BenchmarkTemplateIntensity {
 
-	Random rand = new Random(234);
-	long TEST_TIME = 2000;
+	@Param({"GrayU8","GrayF32"})
+	public String imageType;
 
 	int width = 320;
 	int height = 240;
 
-	Class<T> imageType;
-	T image;
-	T template;
+	ImageGray image;
+	ImageGray template;
 
-	public BenchmarkTemplateIntensity(Class<T> imageType) {
-		this.imageType = imageType;
-		image = GeneralizedImageOps.createSingleBand(imageType,width,height);
-		template = GeneralizedImageOps.createSingleBand(imageType,20,30);
+	TemplateMatchingIntensity sumDiffSq;
+	TemplateMatchingIntensity ncc;
 
-		GImageMiscOps.fillUniform(image, rand, 0, 200);
-		GImageMiscOps.fillUniform(template, rand, 0, 200);
-	}
-
-	public class TemplatePerformer implements Performer {
-
-		TemplateMatchingIntensity<T> alg;
-		String name;
+	@Setup
+	public void setup() {
+		Class type = imageType.equals("GrayU8") ? GrayU8.class : GrayF32.class;
 
-		public TemplatePerformer(TemplateScoreType type) {
-			this.alg = FactoryTemplateMatching.createIntensity(type,imageType);
-			this.name = type.toString();
-		}
+		Random rand = new Random(234);
+		image = GeneralizedImageOps.createSingleBand(type,width,height);
+		template = GeneralizedImageOps.createSingleBand(type,20,30);
 
-		@Override
-		public void process() {
-			alg.process(image,template);
-		}
+		GImageMiscOps.fillUniform(image, rand, 0, 200);
+		GImageMiscOps.fillUniform(template, rand, 0, 200);
 
-		@Override
-		public String getName() {
-			return name;
-		}
+		sumDiffSq = FactoryTemplateMatching.createIntensity(TemplateScoreType.SUM_DIFF_SQ,type);
+		ncc = FactoryTemplateMatching.createIntensity(TemplateScoreType.NCC,type);
 	}
 
-	public void evaluateAll() {
-		System.out.println("=========  Profile Image Size " + width + " x " + height + " ========== "+imageType.getSimpleName());
-		System.out.println();
-
-		ProfileOperation.printOpsPerSec(new TemplatePerformer(TemplateScoreType.SUM_DIFF_SQ), TEST_TIME);
-		ProfileOperation.printOpsPerSec(new TemplatePerformer(TemplateScoreType.NCC), TEST_TIME);
+	@Benchmark
+	public void sumDiffSq() {
+		sumDiffSq.setInputImage(image);
+		sumDiffSq.process(template);
 	}
 
-	public static void main( String args[] ) {
-		BenchmarkTemplateIntensity<GrayU8>
-				benchmark_U8 = new BenchmarkTemplateIntensity<>(GrayU8.class);
-
-		benchmark_U8.evaluateAll();
+	@Benchmark
+	public void ncc() {
+		ncc.setInputImage(image);
+		ncc.process(template);
+	}
 
-		BenchmarkTemplateIntensity<GrayF32>
-				benchmark_F32 = new BenchmarkTemplateIntensity<>(GrayF32.class);
+	public static void main( String args[] ) throws RunnerException {
+		Options opt = new OptionsBuilder()
+				.include(BenchmarkTemplateIntensity.class.getSimpleName())
+				.build();
 
-		benchmark_F32.evaluateAll();
+		new Runner(opt).run();
 	}
 }
@@ -21,120 +21,111 @@ package boofcv.alg.feature.disparity;
 import boofcv.alg.feature.disparity.impl.*;
 import boofcv.alg.misc.GImageMiscOps;
 import boofcv.core.image.GConvertImage;
-import boofcv.misc.PerformerBase;
-import boofcv.misc.ProfileOperation;
 import boofcv.struct.image.GrayF32;
 import boofcv.struct.image.GrayU8;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
 
 import java.util.Random;
+import java.util.concurrent.TimeUnit;
 
 /**
  * @author Peter Abeles
  */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@State(Scope.Benchmark)
+@Fork(value=1)
 public class BenchmarkDisparityAlgs {
-	static final long TEST_TIME = 1000;
-	static final Random rand = new Random(234234);
-
-	static final int width=640;
-	static final int height=480;
-	static final int min=0;
-	static final int max=20;
-	static final int radiusX=2;
-	static final int radiusY=2;
-
-	static final GrayU8 left = new GrayU8(width,height);
-	static final GrayU8 right = new GrayU8(width,height);
-
-	static final GrayF32 left_F32 = new GrayF32(width,height);
-	static final GrayF32 right_F32 = new GrayF32(width,height);
-
-	static final GrayU8 outU8 = new GrayU8(width,height);
-	static final GrayF32 out_F32 = new GrayF32(width,height);
-
-	public static class Naive extends PerformerBase {
-
-		StereoDisparityWtoNaive<GrayU8> alg =
-				new StereoDisparityWtoNaive<>(0, max, radiusX, radiusY);
+	@Param({"true","false"})
+	public boolean concurrent;
+
+	final int width=640;
+	final int height=480;
+	final int min=0;
+	final int max=20;
+	final int radiusX=2;
+	final int radiusY=2;
+
+	final GrayU8 left = new GrayU8(width,height);
+	final GrayU8 right = new GrayU8(width,height);
+
+	final GrayF32 left_F32 = new GrayF32(width,height);
+	final GrayF32 right_F32 = new GrayF32(width,height);
+
+	final GrayU8 outU8 = new GrayU8(width,height);
+	final GrayF32 out_F32 = new GrayF32(width,height);
+
+	StereoDisparityWtoNaive<GrayU8> naive = new StereoDisparityWtoNaive<>(0, max, radiusX, radiusY);
+	DisparityScoreRowFormat<GrayU8,GrayU8> sad_U8;
+	DisparityScoreRowFormat<GrayF32,GrayU8> sad_F32;
+	DisparityScoreRowFormat<GrayU8,GrayF32> subpixelSad;
+	DisparityScoreRowFormat<GrayU8,GrayU8> sadFive_U8;
+
+	@Setup
+	public void setup() {
+		Random rand = new Random(234234);
+		GImageMiscOps.fillUniform(left, rand, 0, 30);
+		GImageMiscOps.fillUniform(right, rand, 0, 30);
+		GConvertImage.convert(left, left_F32);
+		GConvertImage.convert(right,right_F32);
 
-		@Override
-		public void process() {
-			alg.process(left,right,out_F32);
+		if( concurrent ) {
+			sad_U8 = new ImplDisparityScoreSadRect_U8_MT<>(min,max,radiusX,radiusY,
+					new ImplSelectRectStandard_S32_U8(250,2,0.1));
+			sad_F32 = new ImplDisparityScoreSadRect_F32_MT<>(min,max,radiusX,radiusY,
+					new ImplSelectRectStandard_F32_U8(250,2,0.1));
+			subpixelSad = new ImplDisparityScoreSadRect_U8_MT<>(min,max,radiusX,radiusY,
+					new SelectRectSubpixel.S32_F32(250,2,0.1));
+			sadFive_U8 = new ImplDisparityScoreSadRectFive_U8_MT<>(min,max,radiusX,radiusY,
+					new ImplSelectRectStandard_S32_U8(250,2,0.1));
+		} else {
+			sad_U8 = new ImplDisparityScoreSadRect_U8<>(min,max,radiusX,radiusY,
+					new ImplSelectRectStandard_S32_U8(250,2,0.1));
+			sad_F32 = new ImplDisparityScoreSadRect_F32<>(min,max,radiusX,radiusY,
+					new ImplSelectRectStandard_F32_U8(250,2,0.1));
+			subpixelSad = new ImplDisparityScoreSadRect_U8<>(min,max,radiusX,radiusY,
+					new SelectRectSubpixel.S32_F32(250,2,0.1));
+			sadFive_U8 = new ImplDisparityScoreSadRectFive_U8<>(min,max,radiusX,radiusY,
+					new ImplSelectRectStandard_S32_U8(250,2,0.1));
 		}
 	}
 
-	public static class EfficientSad_U8 extends PerformerBase {
-
-//		DisparitySelect<int[],GrayU8> compDisp =
-//				new ImplSelectRectBasicWta_S32_U8();
-		DisparitySelect<int[],GrayU8> compDisp =
-				new ImplSelectRectStandard_S32_U8(250,2,0.1);
-		ImplDisparityScoreSadRect_U8<GrayU8> alg =
-				new ImplDisparityScoreSadRect_U8<>(min,max,radiusX,radiusY,compDisp);
-
-		@Override
-		public void process() {
-			alg.process(left,right, outU8);
-		}
+	@Benchmark
+	public void naive() {
+		naive.process(left,right,out_F32);
 	}
 
-	public static class EfficientSad_F32 extends PerformerBase {
-
-		//		DisparitySelect<int[],GrayU8> compDisp =
-//				new ImplSelectRectBasicWta_S32_U8();
-		DisparitySelect<float[],GrayU8> compDisp =
-				new ImplSelectRectStandard_F32_U8(250,2,0.1);
-		ImplDisparityScoreSadRect_F32<GrayU8> alg =
-				new ImplDisparityScoreSadRect_F32<>(min,max,radiusX,radiusY,compDisp);
-
-		@Override
-		public void process() {
-			alg.process(left_F32,right_F32, outU8);
-		}
+	@Benchmark
+	public void efficientSad_U8() {
+		sad_U8.process(left,right, outU8);
 	}
 
-	public static class EfficientSubpixelSad extends PerformerBase {
-
-		DisparitySelect<int[],GrayF32> compDisp =
-				new SelectRectSubpixel.S32_F32(250,2,0.1);
-		ImplDisparityScoreSadRect_U8<GrayF32> alg =
-				new ImplDisparityScoreSadRect_U8<>(min,max,radiusX,radiusY,compDisp);
-
-		@Override
-		public void process() {
-			alg.process(left,right, out_F32);
-		}
+	@Benchmark
+	public void efficientSad_F32() {
+		sad_F32.process(left_F32,right_F32, outU8);
 	}
 
-	public static class EfficientSadFive_U8 extends PerformerBase {
-
-		//		DisparitySelect<int[],GrayU8> compDisp =
-//				new ImplSelectRectBasicWta_S32_U8();
-		DisparitySelect<int[],GrayU8> compDisp =
-				new ImplSelectRectStandard_S32_U8(250,2,0.1);
-		ImplDisparityScoreSadRectFive_U8<GrayU8> alg =
-				new ImplDisparityScoreSadRectFive_U8<>(min,max,radiusX,radiusY,compDisp);
-
-		@Override
-		public void process() {
-			alg.process(left,right, outU8);
-		}
+	@Benchmark
+	public void efficientSubpixelSad() {
+		subpixelSad.process(left,right, out_F32);
 	}
 
-	public static void main( String argsp[ ] ) {
-		System.out.println("=========  Image Size "+ width +" "+height+"  disparity "+max);
-		System.out.println();
-
-		GImageMiscOps.fillUniform(left, rand, 0, 30);
-		GImageMiscOps.fillUniform(right, rand, 0, 30);
-		GConvertImage.convert(left, left_F32);
-		GConvertImage.convert(right,right_F32);
+	@Benchmark
+	public void efficientSadFive_U8() {
+		sadFive_U8.process(left,right, outU8);
+	}
 
-		// the "fastest" seems to always be the first one tested
-		ProfileOperation.printOpsPerSec(new EfficientSad_U8(),TEST_TIME);
-		ProfileOperation.printOpsPerSec(new EfficientSadFive_U8(),TEST_TIME);
-		ProfileOperation.printOpsPerSec(new EfficientSad_F32(),TEST_TIME);
-		ProfileOperation.printOpsPerSec(new EfficientSubpixelSad(),TEST_TIME);
-		ProfileOperation.printOpsPerSec(new Naive(), TEST_TIME);
+	public static void main( String args[] ) throws RunnerException {
+		Options opt = new OptionsBuilder()
+				.include(BenchmarkDisparityAlgs.class.getSimpleName())
+				.build();
 
+		new Runner(opt).run();
 	}
 }
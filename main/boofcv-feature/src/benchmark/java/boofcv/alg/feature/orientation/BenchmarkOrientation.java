@@ -20,56 +20,78 @@ package boofcv.alg.feature.orientation;
 
 import boofcv.abst.feature.orientation.*;
 import boofcv.abst.filter.derivative.ImageGradient;
+import boofcv.alg.filter.derivative.GImageDerivativeOps;
 import boofcv.alg.misc.GImageMiscOps;
 import boofcv.alg.transform.ii.GIntegralImageOps;
 import boofcv.core.image.GeneralizedImageOps;
 import boofcv.factory.feature.orientation.FactoryOrientation;
+import boofcv.factory.feature.orientation.FactoryOrientationAlgs;
 import boofcv.factory.filter.derivative.FactoryDerivative;
-import boofcv.misc.Performer;
-import boofcv.misc.ProfileOperation;
 import boofcv.struct.image.GrayF32;
-import boofcv.struct.image.GrayS32;
+import boofcv.struct.image.GrayU8;
 import boofcv.struct.image.ImageGray;
 import georegression.struct.point.Point2D_I32;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
 
 import java.util.Random;
-
-import static boofcv.factory.feature.orientation.FactoryOrientationAlgs.*;
-
+import java.util.concurrent.TimeUnit;
 
 /**
  * @author Peter Abeles
  */
-public class BenchmarkOrientation<I extends ImageGray<I>, D extends ImageGray<D>> {
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@State(Scope.Benchmark)
+@Fork(value=1)
+public class BenchmarkOrientation {
+
+	@Param({"GrayF32","GrayU8"})
+	public String imageType;
 
-	static final long TEST_TIME = 1000;
-	static Random rand = new Random(234234);
 	static int NUM_POINTS = 1000;
 	static int RADIUS = 6;
 	static double OBJECt_TO_SCALE = 1.0/2.0;
 
-	final static int width = 640;
-	final static int height = 480;
+	final int width = 640;
+	final int height = 480;
 
-	I image;
-	D derivX;
-	D derivY;
+	ImageGray image;
+	ImageGray derivX;
+	ImageGray derivY;
 	ImageGray ii;
 
 	Point2D_I32 pts[];
 	double radiuses[];
 
-	Class<I> imageType;
-	Class<D> derivType;
-
-	public BenchmarkOrientation( Class<I> imageType , Class<D> derivType ) {
-
-		this.imageType = imageType;
-		this.derivType = derivType;
-
-		Class integralType = GrayF32.class == imageType ? GrayF32.class : GrayS32.class;
-
-		image = GeneralizedImageOps.createSingleBand(imageType, width, height);
+	OrientationImage sift;
+	OrientationImage noGradient;
+	OrientationGradient average;
+	OrientationGradient averageW;
+	OrientationGradient histogram;
+	OrientationGradient histogramW;
+	OrientationGradient sliding;
+	OrientationGradient slidingW;
+	OrientationIntegral imageII;
+	OrientationIntegral imageIIW;
+	OrientationIntegral averageII;
+	OrientationIntegral averageIIW;
+	OrientationIntegral slidingII;
+	OrientationIntegral slidingIIW;
+
+	@Setup
+	public void setup() {
+		Class<ImageGray> type = imageType.equals("GrayU8") ? (Class)GrayU8.class : (Class)GrayF32.class;
+		Class<ImageGray> derivType = GImageDerivativeOps.getDerivativeType(type);
+		Class<ImageGray> integralType = GIntegralImageOps.getIntegralType(type);
+
+		Random rand = new Random(234234);
+		image = GeneralizedImageOps.createSingleBand(type, width, height);
 		ii = GeneralizedImageOps.createSingleBand(integralType, width, height);
 		derivX = GeneralizedImageOps.createSingleBand(derivType, width, height);
 		derivY = GeneralizedImageOps.createSingleBand(derivType, width, height);
@@ -77,7 +99,7 @@ public class BenchmarkOrientation<I extends ImageGray<I>, D extends ImageGray<D>
 		GImageMiscOps.fillUniform(image, rand, 0, 100);
 		GIntegralImageOps.transform(image,ii);
 
-		ImageGradient<I,D> gradient = FactoryDerivative.sobel(imageType,derivType);
+		ImageGradient gradient = FactoryDerivative.sobel(type,derivType);
 		gradient.process(image,derivX,derivY);
 
 		pts = new Point2D_I32[NUM_POINTS];
@@ -90,116 +112,125 @@ public class BenchmarkOrientation<I extends ImageGray<I>, D extends ImageGray<D>
 			radiuses[i] = rand.nextDouble()*100+10;
 		}
 
+		ConfigAverageIntegral confAverageIIW = new ConfigAverageIntegral();
+		confAverageIIW.weightSigma = -1;
+		ConfigSlidingIntegral confSlidingIIW = new ConfigSlidingIntegral();
+		confSlidingIIW.weightSigma = -1;
+
+		sift = FactoryOrientation.sift(null,null,type);
+		noGradient = FactoryOrientationAlgs.nogradient(OBJECt_TO_SCALE,RADIUS,type);
+		average = FactoryOrientationAlgs.average(OBJECt_TO_SCALE,RADIUS,false,derivType);
+		averageW = FactoryOrientationAlgs.average(OBJECt_TO_SCALE,RADIUS, true, derivType);
+		histogram = FactoryOrientationAlgs.histogram(0.5,15, RADIUS, false, derivType);
+		histogramW = FactoryOrientationAlgs.histogram(0.5,15, RADIUS, true, derivType);
+		sliding = FactoryOrientationAlgs.sliding(OBJECt_TO_SCALE,15, Math.PI / 3.0, RADIUS, false, derivType);
+		slidingW = FactoryOrientationAlgs.sliding(OBJECt_TO_SCALE,15, Math.PI / 3.0, RADIUS, true, derivType);
+		imageII = FactoryOrientationAlgs.image_ii(1.0/2.0,RADIUS, 1, 4, 0, integralType);
+		imageIIW = FactoryOrientationAlgs.image_ii(1.0/2.0,RADIUS, 1, 4, -1, integralType);
+		averageII = FactoryOrientationAlgs.average_ii(null, integralType);
+		averageIIW = FactoryOrientationAlgs.average_ii(confAverageIIW, integralType);
+		slidingII = FactoryOrientationAlgs.sliding_ii(null, integralType);
+		slidingIIW = FactoryOrientationAlgs.sliding_ii(confSlidingIIW, integralType);
 	}
 
-	public class Gradient implements Performer {
+	@Benchmark
+	public void sift() {
+		image(sift);
+	}
 
-		OrientationGradient<D> alg;
-		String name;
+	@Benchmark
+	public void noGradient() {
+		image(noGradient);
+	}
 
-		public Gradient(String name, OrientationGradient<D> alg) {
-			this.alg = alg;
-			this.name = name;
-		}
+	@Benchmark
+	public void average() {
+		gradient(average);
+	}
 
-		@Override
-		public void process() {
-			alg.setImage(derivX,derivY);
-			for( int i = 0; i < pts.length; i++ ) {
-				Point2D_I32 p = pts[i];
-				alg.setObjectRadius(radiuses[i]);
-				alg.compute(p.x,p.y);
-			}
-		}
+	@Benchmark
+	public void averageW() {
+		gradient(averageW);
+	}
 
-		@Override
-		public String getName() {
-			return name;
-		}
+	@Benchmark
+	public void histogram() {
+		gradient(histogram);
+	}
+
+	@Benchmark
+	public void histogramW() {
+		gradient(histogramW);
 	}
 
-	public class Image implements Performer {
+	@Benchmark
+	public void sliding() {
+		gradient(sliding);
+	}
 
-		OrientationImage alg;
-		String name;
+	@Benchmark
+	public void slidingW() {
+		gradient(slidingW);
+	}
 
-		public Image(String name, OrientationImage alg) {
-			this.alg = alg;
-			this.name = name;
-		}
+	@Benchmark
+	public void imageII() {
+		integral(imageII);
+	}
 
-		@Override
-		public void process() {
-			alg.setImage(image);
-			for( int i = 0; i < pts.length; i++ ) {
-				Point2D_I32 p = pts[i];
-				alg.setObjectRadius(radiuses[i]);
-				alg.compute(p.x,p.y);
-			}
-		}
+	@Benchmark
+	public void imageIIW() {
+		integral(imageIIW);
+	}
 
-		@Override
-		public String getName() {
-			return name;
-		}
+	@Benchmark
+	public void averageII() {
+		integral(averageII);
 	}
 
-	public class Integral implements Performer {
+	@Benchmark
+	public void averageIIW() {
+		integral(averageIIW);
+	}
 
-		OrientationIntegral alg;
-		String name;
+	@Benchmark
+	public void slidingII() {
+		integral(slidingII);
+	}
 
-		public Integral(String name, OrientationIntegral alg) {
-			this.alg = alg;
-			this.name = name;
-		}
+	@Benchmark
+	public void slidingIIW() {
+		integral(slidingIIW);
+	}
 
-		@Override
-		public void process() {
-			alg.setImage(ii);
-			for( int i = 0; i < pts.length; i++ ) {
-				Point2D_I32 p = pts[i];
-				alg.setObjectRadius(radiuses[i]);
-				alg.compute(p.x,p.y);
-			}
-		}
+	private void gradient( OrientationGradient alg ) {
+		alg.setImage(derivX,derivY);
+		compute(alg);
+	}
 
-		@Override
-		public String getName() {
-			return name;
-		}
+	private void image( OrientationImage alg ) {
+		alg.setImage(image);
+		compute(alg);
 	}
 
-	public void perform() {
-		System.out.println("=========  Profile Image Size " + width + " x " + height + " ========== "+imageType.getSimpleName());
-		System.out.println();
+	private void integral( OrientationIntegral alg ) {
+		alg.setImage(ii);
+		compute(alg);
+	}
 
+	private void compute( RegionOrientation alg ) {
+		for( int i = 0; i < pts.length; i++ ) {
+			Point2D_I32 p = pts[i];
+			alg.setObjectRadius(radiuses[i]);
+			alg.compute(p.x,p.y);
+		}
+	}
 
-		ConfigAverageIntegral confAverageIIW = new ConfigAverageIntegral();
-		confAverageIIW.weightSigma = -1;
-		ConfigSlidingIntegral confSlidingIIW = new ConfigSlidingIntegral();
-		confSlidingIIW.weightSigma = -1;
+	public static void main( String args[] ) throws RunnerException {
+		Options opt = new OptionsBuilder()
+				.include(BenchmarkOrientation.class.getSimpleName())
+				.build();
 
-		ProfileOperation.printOpsPerSec(new Image("SIFT", FactoryOrientation.sift(null,null,imageType)), TEST_TIME);
-		ProfileOperation.printOpsPerSec(new Image("No Gradient", nogradient(OBJECt_TO_SCALE,RADIUS,imageType)), TEST_TIME);
-		ProfileOperation.printOpsPerSec(new Gradient("Average", average(OBJECt_TO_SCALE,RADIUS,false,derivType)), TEST_TIME);
-		ProfileOperation.printOpsPerSec(new Gradient("Average W", average(OBJECt_TO_SCALE,RADIUS, true, derivType)), TEST_TIME);
-		ProfileOperation.printOpsPerSec(new Gradient("Histogram", histogram(0.5,15, RADIUS, false, derivType)), TEST_TIME);
-		ProfileOperation.printOpsPerSec(new Gradient("Histogram W", histogram(0.5,15, RADIUS, true, derivType)), TEST_TIME);
-		ProfileOperation.printOpsPerSec(new Gradient("Sliding", sliding(OBJECt_TO_SCALE,15, Math.PI / 3.0, RADIUS, false, derivType)), TEST_TIME);
-		ProfileOperation.printOpsPerSec(new Gradient("Sliding W", sliding(OBJECt_TO_SCALE,15, Math.PI / 3.0, RADIUS, true, derivType)), TEST_TIME);
-		ProfileOperation.printOpsPerSec(new Integral("Image II", image_ii(1.0/2.0,RADIUS, 1, 4, 0, imageType)), TEST_TIME);
-		ProfileOperation.printOpsPerSec(new Integral("Image II W", image_ii(1.0/2.0,RADIUS, 1, 4, -1, imageType)), TEST_TIME);
-		ProfileOperation.printOpsPerSec(new Integral("Average II", average_ii(null, imageType)), TEST_TIME);
-		ProfileOperation.printOpsPerSec(new Integral("Average II W", average_ii(confAverageIIW, imageType)), TEST_TIME);
-		ProfileOperation.printOpsPerSec(new Integral("Sliding II", sliding_ii(null, imageType)), TEST_TIME);
-		ProfileOperation.printOpsPerSec(new Integral("Sliding II W", sliding_ii(confSlidingIIW, imageType)), TEST_TIME);
-	}
-
-	public static void main( String argsp[ ] ) {
-		BenchmarkOrientation<GrayF32,GrayF32> alg = new BenchmarkOrientation<>(GrayF32.class, GrayF32.class);
-//		BenchmarkOrientation<GrayU8,GrayS16> alg = new BenchmarkOrientation<GrayU8,GrayS16>(GrayU8.class, GrayS16.class);
-
-		alg.perform();
+		new Runner(opt).run();
 	}
 }
@@ -32,6 +32,7 @@ public class GenerateDisparityScoreSadRect extends CodeGeneratorBase {
 	String dataAbr;
 	String bitWise;
 	String sumType;
+	boolean floating;
 
 	@Override
 	public void generate() throws FileNotFoundException {
@@ -47,6 +48,7 @@ public class GenerateDisparityScoreSadRect extends CodeGeneratorBase {
 		sumType = image.getSumType();
 
 		dataAbr = image.isInteger() ? "S32" : "F32";
+		floating = !image.isInteger();
 
 		printPreamble();
 		printConstructor();
@@ -162,20 +164,7 @@ public class GenerateDisparityScoreSadRect extends CodeGeneratorBase {
 				"\t{\n" +
 				"\t\tfor( int row = regionHeight; row < left.height; row++ ) {\n" +
 				"\t\t\tint oldRow = row%regionHeight;\n" +
-				"\n" +
-				"\t\t\t// subtract first row from vertical score\n" +
-				"\t\t\t"+sumType+" scores[] = horizontalScore[oldRow];\n" +
-				"\t\t\tfor( int i = 0; i < lengthHorizontal; i++ ) {\n" +
-				"\t\t\t\tverticalScore[i] -= scores[i];\n" +
-				"\t\t\t}\n" +
-				"\n" +
-				"\t\t\tUtilDisparityScore.computeScoreRow(left, right, row, scores,\n" +
-				"\t\t\t\t\tminDisparity,maxDisparity,regionWidth,elementScore);\n" +
-				"\n" +
-				"\t\t\t// add the new score\n" +
-				"\t\t\tfor( int i = 0; i < lengthHorizontal; i++ ) {\n" +
-				"\t\t\t\tverticalScore[i] += scores[i];\n" +
-				"\t\t\t}\n" +
+				(floating ? printUpdateVerticalRestart() : printUpdateVertical("\t\t\t")) +
 				"\n" +
 				"\t\t\t// compute disparity\n" +
 				"\t\t\tcomputeDisparity.process(row - regionHeight + 1 + radiusY, verticalScore);\n" +
@@ -183,6 +172,42 @@ public class GenerateDisparityScoreSadRect extends CodeGeneratorBase {
 				"\t}\n\n");
 	}
 
+	/**
+	 * Floating point vertical scores are summed from scratch at fixed rows so that the order of additions is
+	 * the same as the concurrent implementation
+	 */
+	private String printUpdateVerticalRestart() {
+		return "\t\t\t// top row in the region\n" +
+				"\t\t\tint top = row - regionHeight + 1;\n" +
+				"\n" +
+				"\t\t\t"+sumType+" scores[] = horizontalScore[oldRow];\n" +
+				"\t\t\tif( top % UtilDisparityScore.RESTART_ROWS_F32 == 0 ) {\n" +
+				"\t\t\t\t// sum from scratch so that the results don't depend on where the computation started\n" +
+				"\t\t\t\tUtilDisparityScore.computeScoreRow(left, right, row, scores,\n" +
+				"\t\t\t\t\t\tminDisparity,maxDisparity,regionWidth,elementScore);\n" +
+				"\t\t\t\tUtilDisparityScore.sumVertical(horizontalScore,top,lengthHorizontal,verticalScore);\n" +
+				"\t\t\t} else {\n" +
+				printUpdateVertical("\t\t\t\t").substring(1).replace("\t\t\t\t"+sumType+" scores[] = horizontalScore[oldRow];\n","") +
+				"\t\t\t}\n";
+	}
+
+	private String printUpdateVertical( String tabs ) {
+		return "\n" +
+				tabs+"// subtract first row from vertical score\n" +
+				tabs+sumType+" scores[] = horizontalScore[oldRow];\n" +
+				tabs+"for( int i = 0; i < lengthHorizontal; i++ ) {\n" +
+				tabs+"\tverticalScore[i] -= scores[i];\n" +
+				tabs+"}\n" +
+				"\n" +
+				tabs+"UtilDisparityScore.computeScoreRow(left, right, row, scores,\n" +
+				tabs+"\t\tminDisparity,maxDisparity,regionWidth,elementScore);\n" +
+				"\n" +
+				tabs+"// add the new score\n" +
+				tabs+"for( int i = 0; i < lengthHorizontal; i++ ) {\n" +
+				tabs+"\tverticalScore[i] += scores[i];\n" +
+				tabs+"}\n";
+	}
+
 	private void printTheRest() {
 		out.print("\t@Override\n" +
 				"\tpublic Class<"+typeInput+"> getInputType() {\n" +
@@ -32,6 +32,7 @@ public class GenerateDisparityScoreSadRectFive extends CodeGeneratorBase {
 	String dataAbr;
 	String bitWise;
 	String sumType;
+	boolean floating;
 
 	@Override
 	public void generate() throws FileNotFoundException {
@@ -47,6 +48,7 @@ public class GenerateDisparityScoreSadRectFive extends CodeGeneratorBase {
 		sumType = image.getSumType();
 
 		dataAbr = image.isInteger() ? "S32" : "F32";
+		floating = !image.isInteger();
 
 		printPreamble();
 		printProcess();
@@ -165,19 +167,7 @@ public class GenerateDisparityScoreSadRectFive extends CodeGeneratorBase {
 				"\t\t\t"+sumType+" previous[] = verticalScore[ (activeVerticalScore -1) % regionHeight ];\n" +
 				"\t\t\t"+sumType+" active[] = verticalScore[ activeVerticalScore % regionHeight ];\n" +
 				"\n" +
-				"\t\t\t// subtract first row from vertical score\n" +
-				"\t\t\t"+sumType+" scores[] = horizontalScore[oldRow];\n" +
-				"\t\t\tfor( int i = 0; i < lengthHorizontal; i++ ) {\n" +
-				"\t\t\t\tactive[i] = previous[i] - scores[i];\n" +
-				"\t\t\t}\n" +
-				"\n" +
-				"\t\t\tUtilDisparityScore.computeScoreRow(left, right, row, scores,\n" +
-				"\t\t\t\t\tminDisparity,maxDisparity,regionWidth,elementScore);\n" +
-				"\n" +
-				"\t\t\t// add the new score\n" +
-				"\t\t\tfor( int i = 0; i < lengthHorizontal; i++ ) {\n" +
-				"\t\t\t\tactive[i] += scores[i];\n" +
-				"\t\t\t}\n" +
+				(floating ? printUpdateVerticalRestart() : printUpdateVertical("\t\t\t")) +
 				"\n" +
 				"\t\t\tif( activeVerticalScore >= regionHeight-1 ) {\n" +
 				"\t\t\t\t"+sumType+" top[] = verticalScore[ (activeVerticalScore -2*radiusY) % regionHeight ];\n" +
@@ -191,6 +181,38 @@ public class GenerateDisparityScoreSadRectFive extends CodeGeneratorBase {
 				"\t}\n\n");
 	}
 
+	/**
+	 * Floating point vertical scores are summed from scratch at fixed rows so that the order of additions is
+	 * the same as the concurrent implementation
+	 */
+	private String printUpdateVerticalRestart() {
+		return "\t\t\t"+sumType+" scores[] = horizontalScore[oldRow];\n" +
+				"\t\t\tif( activeVerticalScore % UtilDisparityScore.RESTART_ROWS_F32 == 0 ) {\n" +
+				"\t\t\t\t// sum from scratch so that the results don't depend on where the computation started\n" +
+				"\t\t\t\tUtilDisparityScore.computeScoreRow(left, right, row, scores,\n" +
+				"\t\t\t\t\t\tminDisparity,maxDisparity,regionWidth,elementScore);\n" +
+				"\t\t\t\tUtilDisparityScore.sumVertical(horizontalScore,activeVerticalScore,lengthHorizontal,active);\n" +
+				"\t\t\t} else {\n" +
+				printUpdateVertical("\t\t\t\t").replace("\t\t\t\t"+sumType+" scores[] = horizontalScore[oldRow];\n","") +
+				"\t\t\t}\n";
+	}
+
+	private String printUpdateVertical( String tabs ) {
+		return tabs+"// subtract first row from vertical score\n" +
+				tabs+sumType+" scores[] = horizontalScore[oldRow];\n" +
+				tabs+"for( int i = 0; i < lengthHorizontal; i++ ) {\n" +
+				tabs+"\tactive[i] = previous[i] - scores[i];\n" +
+				tabs+"}\n" +
+				"\n" +
+				tabs+"UtilDisparityScore.computeScoreRow(left, right, row, scores,\n" +
+				tabs+"\t\tminDisparity,maxDisparity,regionWidth,elementScore);\n" +
+				"\n" +
+				tabs+"// add the new score\n" +
+				tabs+"for( int i = 0; i < lengthHorizontal; i++ ) {\n" +
+				tabs+"\tactive[i] += scores[i];\n" +
+				tabs+"}\n";
+	}
+
 	private void printScoreFive() {
 		out.print("\t/**\n" +
 				"\t * Compute the final score by sampling the 5 regions.  Four regions are sampled around the center\n" +
@@ -206,7 +228,7 @@ public class GenerateDisparityScoreSadRectFive extends CodeGeneratorBase {
 				"\t\t\tint indexDst = (d-minDisparity)*width + (d-minDisparity);\n" +
 				"\t\t\tint end = indexSrc + (width-d-4*radiusX);\n" +
 				"\t\t\twhile( indexSrc < end ) {\n" +
-				"\t\t\t\tint s = 0;\n" +
+				"\t\t\t\t"+sumType+" s = 0;\n" +
 				"\n" +
 				"\t\t\t\t// sample four outer regions at the corners around the center region\n" +
 				"\t\t\t\t"+sumType+" val0 = top[indexSrc-radiusX];\n" +
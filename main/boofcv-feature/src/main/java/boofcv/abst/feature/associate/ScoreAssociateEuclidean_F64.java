@@ -20,6 +20,8 @@ package boofcv.abst.feature.associate;
 
 import boofcv.alg.descriptor.DescriptorDistance;
 import boofcv.struct.feature.MatchScoreType;
+import boofcv.struct.feature.PackedTupleArray;
+import boofcv.struct.feature.PackedTupleArray_F64;
 import boofcv.struct.feature.TupleDesc_F64;
 
 
@@ -30,12 +32,25 @@ import boofcv.struct.feature.TupleDesc_F64;
  *
  * @author Peter Abeles
  */
-public class ScoreAssociateEuclidean_F64 implements ScoreAssociation<TupleDesc_F64> {
+public class ScoreAssociateEuclidean_F64 implements ScoreAssociationPacked<TupleDesc_F64> {
 	@Override
 	public double score(TupleDesc_F64 a, TupleDesc_F64 b) {
 		return DescriptorDistance.euclidean(a,b);
 	}
 
+	@Override
+	public void scoreAll( PackedTupleArray<TupleDesc_F64> packedA, int indexA, PackedTupleArray<TupleDesc_F64> packedB,
+						  double[] scores, int offset ) {
+		final double[] dataA = ((PackedTupleArray_F64)packedA).data.data;
+		final double[] dataB = ((PackedTupleArray_F64)packedB).data.data;
+		final int length = ((PackedTupleArray_F64)packedA).dof;
+		final int offsetA = indexA*length;
+		final int N = packedB.size();
+		for( int j = 0, offsetB = 0; j < N; j++, offsetB += length ) {
+			scores[offset+j] = Math.sqrt(DescriptorDistance.euclideanSq(dataA,offsetA,dataB,offsetB,length));
+		}
+	}
+
 	@Override
 	public MatchScoreType getScoreType() {
 		return MatchScoreType.NORM_ERROR;
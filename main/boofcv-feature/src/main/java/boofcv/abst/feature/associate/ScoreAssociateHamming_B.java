@@ -20,6 +20,8 @@ package boofcv.abst.feature.associate;
 
 import boofcv.alg.descriptor.DescriptorDistance;
 import boofcv.struct.feature.MatchScoreType;
+import boofcv.struct.feature.PackedTupleArray;
+import boofcv.struct.feature.PackedTupleArray_B;
 import boofcv.struct.feature.TupleDesc_B;
 
 /**
@@ -28,13 +30,26 @@ import boofcv.struct.feature.TupleDesc_B;
  *
  * @author Peter Abeles
  */
-public class ScoreAssociateHamming_B implements ScoreAssociation<TupleDesc_B>{
+public class ScoreAssociateHamming_B implements ScoreAssociationPacked<TupleDesc_B> {
 
 	@Override
 	public double score(TupleDesc_B a, TupleDesc_B b) {
 		return DescriptorDistance.hamming(a,b);
 	}
 
+	@Override
+	public void scoreAll( PackedTupleArray<TupleDesc_B> packedA, int indexA, PackedTupleArray<TupleDesc_B> packedB,
+						  double[] scores, int offset ) {
+		final long[] dataA = ((PackedTupleArray_B)packedA).data.data;
+		final long[] dataB = ((PackedTupleArray_B)packedB).data.data;
+		final int length = ((PackedTupleArray_B)packedA).numWords;
+		final int offsetA = indexA*length;
+		final int N = packedB.size();
+		for( int j = 0, offsetB = 0; j < N; j++, offsetB += length ) {
+			scores[offset+j] = DescriptorDistance.hamming(dataA,offsetA,dataB,offsetB,length);
+		}
+	}
+
 	@Override
 	public MatchScoreType getScoreType() {
 		return MatchScoreType.NORM_ERROR;
@@ -20,6 +20,8 @@ package boofcv.abst.feature.associate;
 
 import boofcv.alg.descriptor.DescriptorDistance;
 import boofcv.struct.feature.MatchScoreType;
+import boofcv.struct.feature.PackedTupleArray;
+import boofcv.struct.feature.PackedTupleArray_F32;
 import boofcv.struct.feature.TupleDesc_F32;
 
 /**
@@ -27,13 +29,26 @@ import boofcv.struct.feature.TupleDesc_F32;
  *
  * @author Peter Abeles
  */
-public class ScoreAssociateSad_F32 implements ScoreAssociation<TupleDesc_F32>{
+public class ScoreAssociateSad_F32 implements ScoreAssociationPacked<TupleDesc_F32> {
 	@Override
 	public double score(TupleDesc_F32 a, TupleDesc_F32 b) {
 
 		return DescriptorDistance.sad(a, b);
 	}
 
+	@Override
+	public void scoreAll( PackedTupleArray<TupleDesc_F32> packedA, int indexA, PackedTupleArray<TupleDesc_F32> packedB,
+						  double[] scores, int offset ) {
+		final float[] dataA = ((PackedTupleArray_F32)packedA).data.data;
+		final float[] dataB = ((PackedTupleArray_F32)packedB).data.data;
+		final int length = ((PackedTupleArray_F32)packedA).dof;
+		final int offsetA = indexA*length;
+		final int N = packedB.size();
+		for( int j = 0, offsetB = 0; j < N; j++, offsetB += length ) {
+			scores[offset+j] = DescriptorDistance.sad(dataA,offsetA,dataB,offsetB,length);
+		}
+	}
+
 	@Override
 	public MatchScoreType getScoreType() {
 		return MatchScoreType.NORM_ERROR;
@@ -0,0 +1,43 @@
+/*
+ * Copyright (c) 2011-2018, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package boofcv.abst.feature.associate;
+
+import boofcv.struct.feature.PackedTupleArray;
+
+/**
+ * Extension of {@link ScoreAssociation} which can directly score descriptors stored inside of
+ * a {@link PackedTupleArray} without copying them into a descriptor object first.
+ *
+ * @param <Desc> Feature description type.
+ * @author Peter Abeles
+ */
+public interface ScoreAssociationPacked<Desc> extends ScoreAssociation<Desc> {
+
+	/**
+	 * Computes the fit score between a feature and every feature in another packed array.  A better fit score
+	 * will have a lower value.  Looping inside the score function allows the distance to be computed in a tight
+	 * loop over contiguous memory.
+	 *
+	 * @param a Array containing the first feature
+	 * @param indexA Index of the first feature
+	 * @param b Array containing the features it's compared against
+	 * @param scores (Output) Quality of fit score for each feature in b. Lower is better.
+	 * @param offset Index in scores that the score for the first feature in b is written to
+	 */
+	void scoreAll( PackedTupleArray<Desc> a , int indexA , PackedTupleArray<Desc> b , double[] scores , int offset );
+}
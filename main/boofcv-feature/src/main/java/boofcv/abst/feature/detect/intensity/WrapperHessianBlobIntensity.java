@@ -19,11 +19,11 @@
 package boofcv.abst.feature.detect.intensity;
 
 import boofcv.alg.feature.detect.intensity.HessianBlobIntensity;
+import boofcv.misc.BoofLambdas;
 import boofcv.struct.QueueCorner;
 import boofcv.struct.image.GrayF32;
 import boofcv.struct.image.ImageGray;
 
-import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
 
 /**
@@ -37,6 +37,8 @@ public class WrapperHessianBlobIntensity<I extends ImageGray<I>, D extends Image
 
 	HessianBlobIntensity.Type type;
 	Method m;
+	BoofLambdas.Process4<GrayF32,D,D,D> determinant;
+	BoofLambdas.Process3<GrayF32,D,D> trace;
 	boolean minimum;
 
 	public WrapperHessianBlobIntensity(HessianBlobIntensity.Type type, Class<D> derivType) {
@@ -46,11 +48,13 @@ public class WrapperHessianBlobIntensity<I extends ImageGray<I>, D extends Image
 				case DETERMINANT:
 					minimum = false;
 					m = HessianBlobIntensity.class.getMethod("determinant",GrayF32.class,derivType,derivType,derivType);
+					determinant = BoofLambdas.bindStatic(m,BoofLambdas.Process4.class);
 					break;
 
 				case TRACE:
 					minimum = true;
 					m = HessianBlobIntensity.class.getMethod("trace",GrayF32.class,derivType,derivType);
+					trace = BoofLambdas.bindStatic(m,BoofLambdas.Process3.class);
 					break;
 
 				default:
@@ -65,18 +69,14 @@ public class WrapperHessianBlobIntensity<I extends ImageGray<I>, D extends Image
 	public void process(I image, D derivX, D derivY, D derivXX, D derivYY, D derivXY) {
 		init(image.width,image.height);
 
-		try {
-			switch( type ) {
-				case DETERMINANT:
-					m.invoke(null,intensity,derivXX,derivYY,derivXY);
-					break;
+		switch( type ) {
+			case DETERMINANT:
+				determinant.process(intensity,derivXX,derivYY,derivXY);
+				break;
 
-				case TRACE:
-					m.invoke(null,intensity,derivXX,derivYY);
-					break;
-			}
-		} catch (IllegalAccessException | InvocationTargetException e) {
-			throw new RuntimeException(e);
+			case TRACE:
+				trace.process(intensity,derivXX,derivYY);
+				break;
 		}
 	}
 
@@ -19,11 +19,11 @@
 package boofcv.abst.feature.detect.intensity;
 
 import boofcv.alg.feature.detect.intensity.KitRosCornerIntensity;
+import boofcv.misc.BoofLambdas;
 import boofcv.struct.QueueCorner;
 import boofcv.struct.image.GrayF32;
 import boofcv.struct.image.ImageGray;
 
-import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
 
 /**
@@ -35,10 +35,12 @@ public class WrapperKitRosCornerIntensity<I extends ImageGray<I>,D extends Image
 		extends BaseGeneralFeatureIntensity<I,D>
 {
 	Method m;
+	BoofLambdas.Process6<GrayF32,D,D,D,D,D> function;
 
 	public WrapperKitRosCornerIntensity(Class<D> derivType ) {
 		try {
 			m = KitRosCornerIntensity.class.getMethod("process",GrayF32.class,derivType,derivType,derivType,derivType,derivType);
+			function = BoofLambdas.bindStatic(m,BoofLambdas.Process6.class);
 		} catch (NoSuchMethodException e) {
 			throw new RuntimeException(e);
 		}
@@ -48,11 +50,7 @@ public class WrapperKitRosCornerIntensity<I extends ImageGray<I>,D extends Image
 	public void process(I image , D derivX, D derivY, D derivXX, D derivYY, D derivXY ) {
 		init(image.width,image.height);
 
-		try {
-			m.invoke(null,intensity,derivX,derivY,derivXX,derivYY,derivXY);
-		} catch (IllegalAccessException | InvocationTargetException e) {
-			throw new RuntimeException(e);
-		}
+		function.process(intensity,derivX,derivY,derivXX,derivYY,derivXY);
 	}
 
 	@Override
@@ -20,11 +20,11 @@ package boofcv.abst.feature.detect.intensity;
 
 import boofcv.abst.filter.blur.BlurStorageFilter;
 import boofcv.alg.feature.detect.intensity.MedianCornerIntensity;
+import boofcv.misc.BoofLambdas;
 import boofcv.struct.QueueCorner;
 import boofcv.struct.image.GrayF32;
 import boofcv.struct.image.ImageGray;
 
-import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
 
 /**
@@ -37,6 +37,7 @@ public class WrapperMedianCornerIntensity<I extends ImageGray<I>, D extends Imag
 		extends BaseGeneralFeatureIntensity<I,D>  {
 
 	Method m;
+	BoofLambdas.Process3<GrayF32,I,I> function;
 	BlurStorageFilter<I> medianFilter;
 	I medianImage;
 
@@ -45,6 +46,7 @@ public class WrapperMedianCornerIntensity<I extends ImageGray<I>, D extends Imag
 		Class<I> imageType = medianFilter.getInputType().getImageClass();
 		try {
 			m = MedianCornerIntensity.class.getMethod("process",GrayF32.class,imageType,imageType);
+			function = BoofLambdas.bindStatic(m,BoofLambdas.Process3.class);
 		} catch (NoSuchMethodException e) {
 			throw new RuntimeException(e);
 		}
@@ -61,11 +63,7 @@ public class WrapperMedianCornerIntensity<I extends ImageGray<I>, D extends Imag
 		}
 		
 		medianFilter.process(input,medianImage);
-		try {
-			m.invoke(null,intensity,input,medianImage);
-		} catch (IllegalAccessException | InvocationTargetException e) {
-			throw new RuntimeException(e);
-		}
+		function.process(intensity,input,medianImage);
 	}
 
 	@Override
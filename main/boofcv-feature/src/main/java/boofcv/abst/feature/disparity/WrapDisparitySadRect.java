@@ -20,8 +20,9 @@ package boofcv.abst.feature.disparity;
 
 import boofcv.alg.feature.disparity.DisparityScoreRowFormat;
 import boofcv.alg.misc.GImageMiscOps;
-import boofcv.core.image.GeneralizedImageOps;
 import boofcv.struct.image.ImageGray;
+import boofcv.struct.image.ImagePool;
+import boofcv.struct.image.ImageType;
 
 /**
  * @author Peter Abeles
@@ -40,7 +41,8 @@ public class WrapDisparitySadRect <T extends ImageGray<T>, D extends ImageGray<D
 	public void process(T imageLeft, T imageRight) {
 		if( disparity == null || disparity.width != imageLeft.width || disparity.height != imageLeft.height )  {
 			// make sure the image borders are marked as invalid
-			disparity = GeneralizedImageOps.createSingleBand(alg.getDisparityType(),imageLeft.width,imageLeft.height);
+			ImagePool.recycle(disparity);
+			disparity = ImagePool.createImage(ImageType.single(alg.getDisparityType()),imageLeft.width,imageLeft.height);
 			GImageMiscOps.fill(disparity, getMaxDisparity() + 1);
 		}
 
@@ -202,6 +202,101 @@ public class DescriptorDistance {
 		return score;
 	}
 
+	/**
+	 * Returns the Euclidean distance squared between two descriptors which are stored inside of arrays, e.g.
+	 * {@link PackedTupleArray_F64}.
+	 *
+	 * @param a Array containing the first descriptor
+	 * @param offsetA Index of the first descriptor's first element
+	 * @param b Array containing the second descriptor
+	 * @param offsetB Index of the second descriptor's first element
+	 * @param length Number of elements in a descriptor
+	 * @return Euclidean distance squared
+	 */
+	public static double euclideanSq( double[] a , int offsetA , double[] b , int offsetB , int length ) {
+		double total = 0;
+		for( int i = 0; i < length; i++ ) {
+			double d = a[offsetA+i]-b[offsetB+i];
+			total += d*d;
+		}
+		return total;
+	}
+
+	/**
+	 * Returns the Euclidean distance squared between two descriptors which are stored inside of arrays, e.g.
+	 * {@link PackedTupleArray_F32}.
+	 *
+	 * @param a Array containing the first descriptor
+	 * @param offsetA Index of the first descriptor's first element
+	 * @param b Array containing the second descriptor
+	 * @param offsetB Index of the second descriptor's first element
+	 * @param length Number of elements in a descriptor
+	 * @return Euclidean distance squared
+	 */
+	public static double euclideanSq( float[] a , int offsetA , float[] b , int offsetB , int length ) {
+		float total = 0;
+		for( int i = 0; i < length; i++ ) {
+			float d = a[offsetA+i]-b[offsetB+i];
+			total += d*d;
+		}
+		return total;
+	}
+
+	/**
+	 * Sum of absolute difference (SAD) score between two descriptors which are stored inside of arrays.
+	 *
+	 * @param a Array containing the first descriptor
+	 * @param offsetA Index of the first descriptor's first element
+	 * @param b Array containing the second descriptor
+	 * @param offsetB Index of the second descriptor's first element
+	 * @param length Number of elements in a descriptor
+	 * @return SAD score
+	 */
+	public static double sad( double[] a , int offsetA , double[] b , int offsetB , int length ) {
+		double total = 0;
+		for( int i = 0; i < length; i++ ) {
+			total += Math.abs(a[offsetA+i]-b[offsetB+i]);
+		}
+		return total;
+	}
+
+	/**
+	 * Sum of absolute difference (SAD) score between two descriptors which are stored inside of arrays.
+	 *
+	 * @param a Array containing the first descriptor
+	 * @param offsetA Index of the first descriptor's first element
+	 * @param b Array containing the second descriptor
+	 * @param offsetB Index of the second descriptor's first element
+	 * @param length Number of elements in a descriptor
+	 * @return SAD score
+	 */
+	public static float sad( float[] a , int offsetA , float[] b , int offsetB , int length ) {
+		float total = 0;
+		for( int i = 0; i < length; i++ ) {
+			total += Math.abs(a[offsetA+i]-b[offsetB+i]);
+		}
+		return total;
+	}
+
+	/**
+	 * Computes the hamming distance between two binary descriptors which have been packed into arrays of longs,
+	 * e.g. {@link PackedTupleArray_B}.
+	 *
+	 * @param a Array containing the first descriptor
+	 * @param offsetA Index of the first descriptor's first word
+	 * @param b Array containing the second descriptor
+	 * @param offsetB Index of the second descriptor's first word
+	 * @param numWords Number of longs in a descriptor
+	 * @return The hamming distance
+	 */
+	public static int hamming( long[] a , int offsetA , long[] b , int offsetB , int numWords ) {
+		int score = 0;
+		for( int i = 0; i < numWords; i++ ) {
+			score += Long.bitCount(a[offsetA+i] ^ b[offsetB+i]);
+		}
+		return score;
+	}
+
 	/**
 	 * <p>Computes the hamming distance.  A bit = 0 is a match and 1 is not match<p>
 	 *
@@ -0,0 +1,688 @@
+/*
+ * Copyright (c) 2011-2018, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package boofcv.alg.descriptor;
+
+import boofcv.concurrency.BoofConcurrency;
+import boofcv.struct.feature.PackedTupleArray;
+import org.ddogleg.nn.NearestNeighbor;
+import org.ddogleg.nn.NnData;
+import org.ddogleg.struct.FastQueue;
+import org.ddogleg.struct.GrowQueue_B;
+import org.ddogleg.struct.GrowQueue_F64;
+import org.ddogleg.struct.GrowQueue_I32;
+
+import java.util.List;
+import java.util.Random;
+
+/**
+ * <p>
+ * Approximate nearest-neighbor search using a hierarchical k-means tree [1]. Each node in the tree is split into
+ * up to {@link #branchFactor} children using k-means until there are few enough points to put into a leaf.
+ * A search descends the tree to the closest leaf while saving the unexplored branches in a priority queue. The
+ * most promising branches are then explored until {@link #maxChecks} points have been examined. Increasing
+ * maxChecks increases recall at the cost of speed. If maxChecks is &le; 0 then every leaf is examined and the
+ * search is exact.
+ * </p>
+ *
+ * <p>
+ * Descriptors are stored in a {@link PackedTupleArray} or a memory mapped buffer and the tree only contains
+ * indexes, which allows a large index to be saved to disk and memory mapped instead of being rebuilt. Many
+ * queries can be searched at once in parallel with
+ * {@link #findNearest(PackedTupleArray, double, int, GrowQueue_I32, GrowQueue_F64)}.
+ * </p>
+ *
+ * <p>
+ * [1] Muja, Marius, and David G. Lowe. "Fast approximate nearest neighbors with automatic algorithm
+ * configuration." VISAPP (2009)
+ * </p>
+ *
+ * @param <D> Feature description type.
+ * @author Peter Abeles
+ */
+public abstract class KMeansTreeIndex<D> implements NearestNeighbor<D> {
+
+	// Maximum number of children a node can have
+	protected int branchFactor = 32;
+	// Maximum number of k-means iterations when splitting a node
+	protected int maxIterations = 11;
+	// Maximum number of points examined by a search. If <= 0 then the search is exact
+	protected int maxChecks = 256;
+
+	protected Random rand;
+
+	// Number of points in the index
+	protected int numPoints;
+	// Number of nodes in the tree. The root is node 0
+	protected int numNodes;
+	// For internal nodes the index of the first child. Children are stored contiguously.
+	// For leaves the first element in indexes which belongs to the leaf
+	protected int[] nodeFirst = new int[0];
+	// Number of children in an internal node or number of points in a leaf
+	protected int[] nodeCount = new int[0];
+	// true if the node is a leaf
+	protected boolean[] nodeLeaf = new boolean[0];
+	// Index of every point, ordered so that points in the same leaf are next to each other
+	protected int[] indexes = new int[0];
+
+	// If points were specified using a list these are the points. Used to fill in NnData
+	protected List<D> listPoints;
+
+	// storage used while building the tree
+	private GrowQueue_I32 workFirst = new GrowQueue_I32();
+	private GrowQueue_I32 workCount = new GrowQueue_I32();
+	private GrowQueue_B workLeaf = new GrowQueue_B();
+	private int[] labels = new int[0];
+	private int[] sorted = new int[0];
+	private int[] clusterSize = new int[0];
+	private double[] weights = new double[0];
+
+	// search workspace used by the single query functions
+	private Search search;
+	// search workspace for each thread
+	private FastQueue<Search> searches = new FastQueue<Search>((Class)Search.class,true) {
+		@Override
+		protected Search createInstance() {
+			return new Search();
+		}
+	};
+
+	/**
+	 * Configures the tree
+	 *
+	 * @param branchFactor Maximum number of children a node can have. Must be &ge; 2. Try 32
+	 * @param maxIterations Maximum number of k-means iterations when splitting a node. Must be &ge; 1. Try 11
+	 * @param maxChecks Number of points examined by a search. Controls recall. &le; 0 for exact search
+	 * @param randomSeed Seed for the random number generator used to initialize k-means
+	 */
+	protected KMeansTreeIndex( int branchFactor , int maxIterations , int maxChecks , long randomSeed ) {
+		if( branchFactor < 2 )
+			throw new IllegalArgumentException("Branch factor must be at least 2");
+		checkMaxIterations(maxIterations);
+		this.branchFactor = branchFactor;
+		this.maxIterations = maxIterations;
+		this.maxChecks = maxChecks;
+		this.rand = new Random(randomSeed);
+	}
+
+	/**
+	 * Builds the tree from points in a packed array. The array is referenced, not copied, and must not be
+	 * modified while the index is in use.
+	 *
+	 * @param points Points which are to be searched
+	 */
+	public abstract void setPoints( PackedTupleArray<D> points );
+
+	@Override
+	public void setPoints( List<D> points , boolean trackIndicies ) {
+		PackedTupleArray<D> packed = createPackedArray();
+		packed.reserve(points.size());
+		for( int i = 0; i < points.size(); i++ ) {
+			packed.append(points.get(i));
+		}
+		setPoints(packed);
+		this.listPoints = points;
+	}
+
+	/**
+	 * Creates the tree from the points. Called by the type specific implementation once the points and
+	 * the number of points have been set.
+	 */
+	protected void buildTree() {
+		listPoints = null;
+		workFirst.reset();
+		workCount.reset();
+		workLeaf.reset();
+		clearCenters();
+
+		if( indexes.length < numPoints ) {
+			indexes = new int[numPoints];
+			labels = new int[numPoints];
+			sorted = new int[numPoints];
+			weights = new double[numPoints];
+		}
+		for( int i = 0; i < numPoints; i++ ) {
+			indexes[i] = i;
+		}
+		if( clusterSize.length < branchFactor ) {
+			clusterSize = new int[branchFactor];
+		}
+
+		int root = addNode();
+		if( numPoints > 0 )
+			splitNode(root,0,numPoints);
+		else
+			makeLeaf(root,0,0);
+
+		numNodes = workFirst.size;
+		nodeFirst = trim(workFirst);
+		nodeCount = trim(workCount);
+		nodeLeaf = new boolean[numNodes];
+		System.arraycopy(workLeaf.data,0,nodeLeaf,0,numNodes);
+		finishCenters();
+	}
+
+	private static int[] trim( GrowQueue_I32 queue ) {
+		int[] ret = new int[queue.size];
+		System.arraycopy(queue.data,0,ret,0,queue.size);
+		return ret;
+	}
+
+	private int addNode() {
+		workFirst.add(0);
+		workCount.add(0);
+		workLeaf.add(false);
+		addCenter();
+		return workFirst.size-1;
+	}
+
+	private void makeLeaf( int node , int start , int end ) {
+		workFirst.data[node] = start;
+		workCount.data[node] = end-start;
+		workLeaf.data[node] = true;
+	}
+
+	/**
+	 * Splits the points in indexes[start:end] into clusters and creates a child for each cluster
+	 */
+	private void splitNode( int node , int start , int end ) {
+		final int N = end-start;
+		if( N <= branchFactor ) {
+			makeLeaf(node,start,end);
+			return;
+		}
+
+		final int K = branchFactor;
+		kmeans(start,end,K);
+
+		// if all the points are identical they can't be split
+		for( int k = 0; k < K; k++ ) {
+			if( clusterSize[k] == N ) {
+				makeLeaf(node,start,end);
+				return;
+			}
+		}
+
+		// sort points by cluster so that each child is a contiguous block
+		int numChildren = 0;
+		int[] offsets = new int[K+1];
+		for( int k = 0; k < K; k++ ) {
+			offsets[k+1] = offsets[k] + clusterSize[k];
+			if( clusterSize[k] > 0 )
+				numChildren++;
+		}
+		int[] fill = offsets.clone();
+		for( int i = start; i < end; i++ ) {
+			sorted[start + fill[labels[i]]++] = indexes[i];
+		}
+		System.arraycopy(sorted,start,indexes,start,N);
+
+		// children must be next to each other, so create all of them before going deeper
+		int firstChild = workFirst.size;
+		for( int k = 0; k < K; k++ ) {
+			if( clusterSize[k] == 0 )
+				continue;
+			int child = addNode();
+			saveCenter(k,child);
+		}
+		workFirst.data[node] = firstChild;
+		workCount.data[node] = numChildren;
+
+		int child = firstChild;
+		for( int k = 0; k < K; k++ ) {
+			if( offsets[k+1] == offsets[k] )
+				continue;
+			splitNode(child++,start+offsets[k],start+offsets[k+1]);
+		}
+	}
+
+	/**
+	 * Clusters indexes[start:end] using k-means with k-means++ seeding. The cluster of point indexes[i] is
+	 * written to labels[i] and the number of points in each cluster to clusterSize.
+	 */
+	private void kmeans( int start , int end , int K ) {
+		final int N = end-start;
+
+		// k-means++ seeding. weights[i] is the distance to the closest seed
+		setClusterCenter(0,indexes[start+rand.nextInt(N)]);
+		for( int i = start; i < end; i++ ) {
+			weights[i] = clusterDistance(indexes[i],0);
+		}
+		for( int k = 1; k < K; k++ ) {
+			double total = 0;
+			for( int i = start; i < end; i++ ) {
+				total += weights[i];
+			}
+			int selected = end-1;
+			if( total > 0 ) {
+				double target = rand.nextDouble()*total;
+				double sum = 0;
+				for( int i = start; i < end; i++ ) {
+					sum += weights[i];
+					if( sum >= target ) {
+						selected = i;
+						break;
+					}
+				}
+			} else {
+				selected = start+rand.nextInt(N);
+			}
+			setClusterCenter(k,indexes[selected]);
+			for( int i = start; i < end; i++ ) {
+				double d = clusterDistance(indexes[i],k);
+				if( d < weights[i] )
+					weights[i] = d;
+			}
+		}
+
+		for( int i = start; i < end; i++ ) {
+			labels[i] = -1;
+		}
+
+		for( int iteration = 0; iteration < maxIterations; iteration++ ) {
+			// assign each point to the closest center
+			boolean changed = false;
+			for( int i = start; i < end; i++ ) {
+				int point = indexes[i];
+				int best = 0;
+				double bestDistance = clusterDistance(point,0);
+				for( int k = 1; k < K; k++ ) {
+					double d = clusterDistance(point,k);
+					if( d < bestDistance ) {
+						bestDistance = d;
+						best = k;
+					}
+				}
+				if( labels[i] != best ) {
+					labels[i] = best;
+					changed = true;
+				}
+			}
+			if( !changed )
+				break;
+
+			// move the centers to the middle of their points
+			clearClusterSums(K);
+			for( int i = start; i < end; i++ ) {
+				addToClusterSum(labels[i],indexes[i]);
+			}
+			countClusters(start,end,K);
+			for( int k = 0; k < K; k++ ) {
+				if( clusterSize[k] > 0 )
+					computeClusterCenter(k,clusterSize[k]);
+			}
+		}
+		countClusters(start,end,K);
+	}
+
+	private void countClusters( int start , int end , int K ) {
+		for( int k = 0; k < K; k++ ) {
+			clusterSize[k] = 0;
+		}
+		for( int i = start; i < end; i++ ) {
+			clusterSize[labels[i]]++;
+		}
+	}
+
+	@Override
+	public boolean findNearest( D point , double maxDistance , NnData<D> result ) {
+		if( search == null )
+			search = new Search();
+		search.search(point,maxDistance,1);
+		if( search.size == 0 )
+			return false;
+		result.index = search.bestIndex[0];
+		result.distance = search.bestDistance[0];
+		result.point = listPoints == null ? null : listPoints.get(result.index);
+		return true;
+	}
+
+	@Override
+	public void findNearest( D point , double maxDistance , int numNeighbors , FastQueue<NnData<D>> results ) {
+		if( search == null )
+			search = new Search();
+		results.reset();
+		search.search(point,maxDistance,numNeighbors);
+		for( int i = 0; i < search.size; i++ ) {
+			NnData<D> r = results.grow();
+			r.index = search.bestIndex[i];
+			r.distance = search.bestDistance[i];
+			r.point = listPoints == null ? null : listPoints.get(r.index);
+		}
+	}
+
+	/**
+	 * Finds the nearest neighbors of every query.  Queries are searched in parallel if
+	 * {@link BoofConcurrency#USE_CONCURRENT} is true. The results for query i start at index i*numNeighbors
+	 * and are sorted from closest to farthest. If fewer than numNeighbors points were found then the
+	 * remaining indexes are -1 and distances are Double.MAX_VALUE.
+	 *
+	 * @param queries Points which are to be searched for
+	 * @param maxDistance Maximum distance a neighbor can be. If negative then there is no limit
+	 * @param numNeighbors Number of neighbors found for each query
+	 * @param outIndexes (Output) Index of each neighbor
+	 * @param outDistances (Output) Distance of each neighbor
+	 */
+	public void findNearest( PackedTupleArray<D> queries , double maxDistance , int numNeighbors ,
+							 GrowQueue_I32 outIndexes , GrowQueue_F64 outDistances ) {
+		final int numQueries = queries.size();
+		outIndexes.resize(numQueries*numNeighbors);
+		outDistances.resize(numQueries*numNeighbors);
+
+		if( BoofConcurrency.USE_CONCURRENT ) {
+			BoofConcurrency.loopBlocks(0,numQueries,searches,(s,idx0,idx1)->
+					findNearest(s,queries,idx0,idx1,maxDistance,numNeighbors,outIndexes,outDistances));
+		} else {
+			if( search == null )
+				search = new Search();
+			findNearest(search,queries,0,numQueries,maxDistance,numNeighbors,outIndexes,outDistances);
+		}
+	}
+
+	private void findNearest( Search s , PackedTupleArray<D> queries , int idx0 , int idx1 ,
+							  double maxDistance , int numNeighbors ,
+							  GrowQueue_I32 outIndexes , GrowQueue_F64 outDistances ) {
+		if( s.query == null )
+			s.query = queries.createDescription();
+
+		for( int i = idx0; i < idx1; i++ ) {
+			queries.getCopy(i,s.query);
+			s.search(s.query,maxDistance,numNeighbors);
+
+			int offset = i*numNeighbors;
+			for( int j = 0; j < numNeighbors; j++ ) {
+				if( j < s.size ) {
+					outIndexes.data[offset+j] = s.bestIndex[j];
+					outDistances.data[offset+j] = s.bestDistance[j];
+				} else {
+					outIndexes.data[offset+j] = -1;
+					outDistances.data[offset+j] = Double.MAX_VALUE;
+				}
+			}
+		}
+	}
+
+	/**
+	 * Specifies the tree directly. Used when loading a saved index.
+	 *
+	 * @param numPoints Number of points in the index
+	 * @param nodeFirst First child of an internal node or first element in indexes for a leaf
+	 * @param nodeCount Number of children or number of points in a leaf
+	 * @param nodeLeaf true if a node is a leaf
+	 * @param indexes Index of each point ordered by leaf
+	 */
+	public void setTree( int numPoints , int[] nodeFirst , int[] nodeCount , boolean[] nodeLeaf , int[] indexes ) {
+		if( nodeFirst.length != nodeCount.length || nodeFirst.length != nodeLeaf.length )
+			throw new IllegalArgumentException("Node arrays must be the same length");
+		if( indexes.length != numPoints )
+			throw new IllegalArgumentException("Must be one index for each point");
+		this.numPoints = numPoints;
+		this.numNodes = nodeFirst.length;
+		this.nodeFirst = nodeFirst;
+		this.nodeCount = nodeCount;
+		this.nodeLeaf = nodeLeaf;
+		this.indexes = indexes;
+		this.listPoints = null;
+	}
+
+	/**
+	 * Creates an empty packed array for this type of descriptor
+	 */
+	public abstract PackedTupleArray<D> createPackedArray();
+
+	/**
+	 * Distance between the query and a point in the index
+	 */
+	protected abstract double distanceToPoint( D query , int point );
+
+	/**
+	 * Distance between the query and the center of a node
+	 */
+	protected abstract double distanceToNode( D query , int node );
+
+	/**
+	 * Removes all node centers
+	 */
+	protected abstract void clearCenters();
+
+	/**
+	 * Adds a center for a new node
+	 */
+	protected abstract void addCenter();
+
+	/**
+	 * Called after all the node centers have been added
+	 */
+	protected abstract void finishCenters();
+
+	/**
+	 * Copies the center of cluster k into the center of the node
+	 */
+	protected abstract void saveCenter( int cluster , int node );
+
+	/**
+	 * Sets the center of a cluster to be the same as a point
+	 */
+	protected abstract void setClusterCenter( int cluster , int point );
+
+	/**
+	 * Distance between a point and the center of a cluster
+	 */
+	protected abstract double clusterDistance( int point , int cluster );
+
+	/**
+	 * Sets the sum of points in each cluster to zero
+	 */
+	protected abstract void clearClusterSums( int numClusters );
+
+	/**
+	 * Adds a point to the sum of points in the cluster
+	 */
+	protected abstract void addToClusterSum( int cluster , int point );
+
+	/**
+	 * Computes the center of the cluster from the sum of points in it
+	 */
+	protected abstract void computeClusterCenter( int cluster , int count );
+
+	public int getBranchFactor() {
+		return branchFactor;
+	}
+
+	public int getMaxIterations() {
+		return maxIterations;
+	}
+
+	public void setMaxIterations(int maxIterations) {
+		checkMaxIterations(maxIterations);
+		this.maxIterations = maxIterations;
+	}
+
+	private static void checkMaxIterations( int maxIterations ) {
+		// at least one iteration is needed to assign points to clusters
+		if( maxIterations < 1 )
+			throw new IllegalArgumentException("Max iterations must be at least 1");
+	}
+
+	public int getMaxChecks() {
+		return maxChecks;
+	}
+
+	public void setMaxChecks(int maxChecks) {
+		this.maxChecks = maxChecks;
+	}
+
+	public int getNumPoints() {
+		return numPoints;
+	}
+
+	public int getNumNodes() {
+		return numNodes;
+	}
+
+	public int[] getNodeFirst() {
+		return nodeFirst;
+	}
+
+	public int[] getNodeCount() {
+		return nodeCount;
+	}
+
+	public boolean[] getNodeLeaf() {
+		return nodeLeaf;
+	}
+
+	public int[] getIndexes() {
+		return indexes;
+	}
+
+	/**
+	 * Storage for a single search. Each thread has its own instance.
+	 */
+	public class Search {
+		// unexplored branches in a binary heap ordered by distance to the node's center
+		double[] heapDistance = new double[16];
+		int[] heapNode = new int[16];
+		int heapSize;
+
+		// best neighbors found so far sorted by distance
+		double[] bestDistance = new double[1];
+		int[] bestIndex = new int[1];
+		int size;
+		int numNeighbors;
+		double maxDistance;
+
+		// copy of the query when searching a packed array
+		D query;
+
+		/**
+		 * Finds the nearest neighbors of the query
+		 */
+		void search( D query , double maxDistance , int numNeighbors ) {
+			if( bestDistance.length < numNeighbors ) {
+				bestDistance = new double[numNeighbors];
+				bestIndex = new int[numNeighbors];
+			}
+			this.size = 0;
+			this.numNeighbors = numNeighbors;
+			this.maxDistance = maxDistance < 0 ? Double.MAX_VALUE : maxDistance;
+			this.heapSize = 0;
+
+			if( numPoints == 0 )
+				return;
+
+			int checks = 0;
+			int node = 0;
+			while( true ) {
+				// descend to the closest leaf and remember the other branches
+				while( !nodeLeaf[node] ) {
+					int first = nodeFirst[node];
+					int last = first + nodeCount[node];
+					int best = first;
+					double bestD = distanceToNode(query,first);
+					for( int child = first+1; child < last; child++ ) {
+						double d = distanceToNode(query,child);
+						if( d < bestD ) {
+							pushBranch(bestD,best);
+							bestD = d;
+							best = child;
+						} else {
+							pushBranch(d,child);
+						}
+					}
+					node = best;
+				}
+
+				int first = nodeFirst[node];
+				int last = first + nodeCount[node];
+				for( int i = first; i < last; i++ ) {
+					int point = indexes[i];
+					addResult(point,distanceToPoint(query,point));
+				}
+				checks += last-first;
+
+				if( heapSize == 0 || (maxChecks > 0 && checks >= maxChecks) )
+					break;
+				node = popBranch();
+			}
+		}
+
+		private void addResult( int index , double distance ) {
+			if( distance > maxDistance )
+				return;
+			if( size == numNeighbors ) {
+				if( distance >= bestDistance[size-1] )
+					return;
+				size--;
+			}
+			int j = size;
+			while( j > 0 && bestDistance[j-1] > distance ) {
+				bestDistance[j] = bestDistance[j-1];
+				bestIndex[j] = bestIndex[j-1];
+				j--;
+			}
+			bestDistance[j] = distance;
+			bestIndex[j] = index;
+			size++;
+		}
+
+		private void pushBranch( double distance , int node ) {
+			if( heapSize == heapNode.length ) {
+				double[] d = new double[heapSize*2];
+				int[] n = new int[heapSize*2];
+				System.arraycopy(heapDistance,0,d,0,heapSize);
+				System.arraycopy(heapNode,0,n,0,heapSize);
+				heapDistance = d;
+				heapNode = n;
+			}
+			int i = heapSize++;
+			while( i > 0 ) {
+				int parent = (i-1)/2;
+				if( heapDistance[parent] <= distance )
+					break;
+				heapDistance[i] = heapDistance[parent];
+				heapNode[i] = heapNode[parent];
+				i = parent;
+			}
+			heapDistance[i] = distance;
+			heapNode[i] = node;
+		}
+
+		private int popBranch() {
+			int ret = heapNode[0];
+			heapSize--;
+			double distance = heapDistance[heapSize];
+			int node = heapNode[heapSize];
+			int i = 0;
+			while( true ) {
+				int child = 2*i+1;
+				if( child >= heapSize )
+					break;
+				if( child+1 < heapSize && heapDistance[child+1] < heapDistance[child] )
+					child++;
+				if( heapDistance[child] >= distance )
+					break;
+				heapDistance[i] = heapDistance[child];
+				heapNode[i] = heapNode[child];
+				i = child;
+			}
+			heapDistance[i] = distance;
+			heapNode[i] = node;
+			return ret;
+		}
+	}
+}
@@ -0,0 +1,288 @@
+/*
+ * Copyright (c) 2011-2018, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package boofcv.alg.descriptor;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.DoubleBuffer;
+import java.nio.LongBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * <p>
+ * Saves and loads a {@link KMeansTreeIndex}. When loaded the points and node centers are memory mapped instead of
+ * being read into the heap, so a large index is available almost immediately and the operating system only reads
+ * the parts which are searched. The tree structure is small and is read into arrays.
+ * </p>
+ *
+ * <p>
+ * File format. All values are little endian and every section starts on an 8-byte boundary.
+ * </p>
+ * <ol>
+ *     <li>Header of {@link #HEADER_SIZE} bytes: "BOOFKMT" magic, format version, descriptor type (0 = F64,
+ *     1 = binary), dof or number of bits, branch factor, max iterations, max checks, number of points,
+ *     and number of nodes</li>
+ *     <li>int[numNodes] first child or first index in a leaf</li>
+ *     <li>int[numNodes] number of children or points in a leaf</li>
+ *     <li>byte[numNodes] 1 if a node is a leaf</li>
+ *     <li>int[numPoints] index of each point ordered by leaf</li>
+ *     <li>Node centers. double[numNodes*dof] or long[numNodes*numWords]</li>
+ *     <li>Points. double[numPoints*dof] or long[numPoints*numWords]</li>
+ * </ol>
+ *
+ * <p>
+ * A single mapping can't be larger than 2GB, which limits the size of the points section.
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+public class KMeansTreeIndexIO {
+	public static final int HEADER_SIZE = 64;
+	public static final byte[] MAGIC = "BOOFKMT".getBytes(StandardCharsets.US_ASCII);
+	public static final int VERSION = 1;
+
+	public static final int TYPE_F64 = 0;
+	public static final int TYPE_B = 1;
+
+	/**
+	 * Saves the index to disk
+	 *
+	 * @param index The index which is to be saved
+	 * @param file Where it should be saved
+	 */
+	public static void save( KMeansTreeIndex<?> index , File file ) throws IOException {
+		final int type;
+		final int dimension;
+		if( index instanceof KMeansTreeIndex_F64 ) {
+			type = TYPE_F64;
+			dimension = ((KMeansTreeIndex_F64)index).getDof();
+		} else if( index instanceof KMeansTreeIndex_B ) {
+			type = TYPE_B;
+			dimension = ((KMeansTreeIndex_B)index).getNumBits();
+		} else {
+			throw new IllegalArgumentException("Unknown index type "+index.getClass().getSimpleName());
+		}
+
+		final int numNodes = index.getNumNodes();
+		final int numPoints = index.getNumPoints();
+
+		try( RandomAccessFile raf = new RandomAccessFile(file,"rw") ) {
+			raf.setLength(0);
+			Writer writer = new Writer(raf.getChannel());
+
+			ByteBuffer header = writer.buffer;
+			header.put(MAGIC);
+			header.put((byte)0);
+			header.putInt(VERSION);
+			header.putInt(type);
+			header.putInt(dimension);
+			header.putInt(index.getBranchFactor());
+			header.putInt(index.getMaxIterations());
+			header.putInt(index.getMaxChecks());
+			header.putInt(numPoints);
+			header.putInt(numNodes);
+			writer.pad(HEADER_SIZE);
+
+			writer.write(index.getNodeFirst(),numNodes);
+			writer.write(index.getNodeCount(),numNodes);
+			boolean[] leaf = index.getNodeLeaf();
+			for( int i = 0; i < numNodes; i++ ) {
+				writer.ensureSpace(1);
+				writer.buffer.put(leaf[i] ? (byte)1 : (byte)0);
+			}
+			writer.align();
+			writer.write(index.getIndexes(),numPoints);
+			writer.align();
+
+			if( type == TYPE_F64 ) {
+				KMeansTreeIndex_F64 alg = (KMeansTreeIndex_F64)index;
+				writer.write(alg.getCenters(),numNodes*alg.getDof());
+				writer.write(alg.getPoints(),numPoints*alg.getDof());
+			} else {
+				KMeansTreeIndex_B alg = (KMeansTreeIndex_B)index;
+				writer.write(alg.getCenters(),numNodes*alg.getNumWords());
+				writer.write(alg.getPoints(),numPoints*alg.getNumWords());
+			}
+			writer.flush();
+		}
+	}
+
+	/**
+	 * Loads an index which was saved by {@link #save}. Points and node centers are memory mapped. The returned
+	 * index is ready to be searched.
+	 *
+	 * @param file Path to the saved index
+	 * @return The index. Either {@link KMeansTreeIndex_F64} or {@link KMeansTreeIndex_B}
+	 */
+	public static <D> KMeansTreeIndex<D> load( File file ) throws IOException {
+		try( RandomAccessFile raf = new RandomAccessFile(file,"r") ) {
+			FileChannel channel = raf.getChannel();
+
+			ByteBuffer header = read(channel,0,HEADER_SIZE);
+			for( int i = 0; i < MAGIC.length; i++ ) {
+				if( header.get() != MAGIC[i] )
+					throw new IOException("Not a saved KMeansTreeIndex");
+			}
+			header.get();
+			int version = header.getInt();
+			if( version != VERSION )
+				throw new IOException("Unsupported version "+version);
+			int type = header.getInt();
+			int dimension = header.getInt();
+			int branchFactor = header.getInt();
+			int maxIterations = header.getInt();
+			int maxChecks = header.getInt();
+			int numPoints = header.getInt();
+			int numNodes = header.getInt();
+
+			long position = HEADER_SIZE;
+			int[] nodeFirst = new int[numNodes];
+			int[] nodeCount = new int[numNodes];
+			boolean[] nodeLeaf = new boolean[numNodes];
+			int[] indexes = new int[numPoints];
+
+			read(channel,position,numNodes*4L).asIntBuffer().get(nodeFirst);
+			position += numNodes*4L;
+			read(channel,position,numNodes*4L).asIntBuffer().get(nodeCount);
+			position += numNodes*4L;
+			ByteBuffer leafBytes = read(channel,position,numNodes);
+			for( int i = 0; i < numNodes; i++ ) {
+				nodeLeaf[i] = leafBytes.get(i) != 0;
+			}
+			position = align(position + numNodes);
+			read(channel,position,numPoints*4L).asIntBuffer().get(indexes);
+			position = align(position + numPoints*4L);
+
+			KMeansTreeIndex ret;
+			if( type == TYPE_F64 ) {
+				KMeansTreeIndex_F64 alg = new KMeansTreeIndex_F64(dimension,branchFactor,maxIterations,maxChecks,0);
+				alg.setTree(numPoints,nodeFirst,nodeCount,nodeLeaf,indexes);
+				long sizeCenters = numNodes*(long)dimension*8;
+				DoubleBuffer centers = map(channel,position,sizeCenters).asDoubleBuffer();
+				DoubleBuffer points = map(channel,position+sizeCenters,numPoints*(long)dimension*8).asDoubleBuffer();
+				alg.setData(points,centers);
+				ret = alg;
+			} else if( type == TYPE_B ) {
+				KMeansTreeIndex_B alg = new KMeansTreeIndex_B(dimension,branchFactor,maxIterations,maxChecks,0);
+				alg.setTree(numPoints,nodeFirst,nodeCount,nodeLeaf,indexes);
+				int numWords = alg.getNumWords();
+				long sizeCenters = numNodes*(long)numWords*8;
+				LongBuffer centers = map(channel,position,sizeCenters).asLongBuffer();
+				LongBuffer points = map(channel,position+sizeCenters,numPoints*(long)numWords*8).asLongBuffer();
+				alg.setData(points,centers);
+				ret = alg;
+			} else {
+				throw new IOException("Unknown descriptor type "+type);
+			}
+			return ret;
+		}
+	}
+
+	private static long align( long position ) {
+		return (position+7)/8*8;
+	}
+
+	private static ByteBuffer read( FileChannel channel , long position , long length ) throws IOException {
+		if( length > Integer.MAX_VALUE )
+			throw new IOException("Section is too large to read");
+		ByteBuffer buffer = ByteBuffer.allocate((int)length);
+		buffer.order(ByteOrder.LITTLE_ENDIAN);
+		while( buffer.hasRemaining() ) {
+			if( channel.read(buffer,position+buffer.position()) < 0 )
+				throw new IOException("Unexpected end of file");
+		}
+		buffer.flip();
+		return buffer;
+	}
+
+	private static ByteBuffer map( FileChannel channel , long position , long length ) throws IOException {
+		if( length > Integer.MAX_VALUE )
+			throw new IOException("Section is too large to be memory mapped. "+length+" bytes");
+		if( position+length > channel.size() )
+			throw new IOException("Unexpected end of file");
+		ByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY,position,length);
+		buffer.order(ByteOrder.LITTLE_ENDIAN);
+		return buffer;
+	}
+
+	/**
+	 * Writes primitive arrays to the channel through a fixed size buffer
+	 */
+	private static class Writer {
+		FileChannel channel;
+		ByteBuffer buffer = ByteBuffer.allocate(1 << 16).order(ByteOrder.LITTLE_ENDIAN);
+		long written;
+
+		Writer( FileChannel channel ) {
+			this.channel = channel;
+		}
+
+		void ensureSpace( int bytes ) throws IOException {
+			if( buffer.remaining() < bytes )
+				flush();
+		}
+
+		void flush() throws IOException {
+			buffer.flip();
+			while( buffer.hasRemaining() ) {
+				written += channel.write(buffer);
+			}
+			buffer.clear();
+		}
+
+		long position() {
+			return written + buffer.position();
+		}
+
+		void pad( long position ) throws IOException {
+			while( position() < position ) {
+				ensureSpace(1);
+				buffer.put((byte)0);
+			}
+		}
+
+		void align() throws IOException {
+			pad(KMeansTreeIndexIO.align(position()));
+		}
+
+		void write( int[] array , int length ) throws IOException {
+			for( int i = 0; i < length; i++ ) {
+				ensureSpace(4);
+				buffer.putInt(array[i]);
+			}
+		}
+
+		void write( DoubleBuffer array , int length ) throws IOException {
+			for( int i = 0; i < length; i++ ) {
+				ensureSpace(8);
+				buffer.putDouble(array.get(i));
+			}
+		}
+
+		void write( LongBuffer array , int length ) throws IOException {
+			for( int i = 0; i < length; i++ ) {
+				ensureSpace(8);
+				buffer.putLong(array.get(i));
+			}
+		}
+	}
+}
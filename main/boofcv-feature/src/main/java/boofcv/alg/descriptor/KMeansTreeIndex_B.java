@@ -0,0 +1,218 @@
+/*
+ * Copyright (c) 2011-2018, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package boofcv.alg.descriptor;
+
+import boofcv.struct.feature.PackedTupleArray;
+import boofcv.struct.feature.PackedTupleArray_B;
+import boofcv.struct.feature.TupleDesc_B;
+import org.ddogleg.struct.GrowQueue_I64;
+
+import java.nio.LongBuffer;
+
+/**
+ * {@link KMeansTreeIndex} for binary descriptors in {@link TupleDesc_B}.  Distance is the hamming distance.
+ * The center of a cluster is found by setting each bit to the value of the majority of the points in it.
+ * Points and node centers are stored using the same layout as {@link PackedTupleArray_B} and are read from
+ * {@link LongBuffer}s so that they can be memory mapped.
+ *
+ * @author Peter Abeles
+ */
+public class KMeansTreeIndex_B extends KMeansTreeIndex<TupleDesc_B> {
+
+	// number of bits in each descriptor
+	protected int numBits;
+	// number of longs in each packed descriptor
+	protected int numWords;
+
+	// Point i starts at index i*numWords
+	protected LongBuffer points;
+	// Center of node i starts at index i*numWords
+	protected LongBuffer centers;
+
+	// storage used while building the tree
+	private GrowQueue_I64 workCenters = new GrowQueue_I64();
+	private long[] clusterCenters = new long[0];
+	// number of points in the cluster with each bit set
+	private int[] clusterBitCounts = new int[0];
+
+	/**
+	 * Configures the tree
+	 *
+	 * @param numBits Number of bits in a descriptor
+	 * @param branchFactor Maximum number of children a node can have. Must be &ge; 2. Try 32
+	 * @param maxIterations Maximum number of k-means iterations when splitting a node. Must be &ge; 1. Try 11
+	 * @param maxChecks Number of points examined by a search. Controls recall. &le; 0 for exact search
+	 * @param randomSeed Seed for the random number generator used to initialize k-means
+	 */
+	public KMeansTreeIndex_B( int numBits , int branchFactor , int maxIterations , int maxChecks , long randomSeed ) {
+		super(branchFactor, maxIterations, maxChecks, randomSeed);
+		this.numBits = numBits;
+		this.numWords = new PackedTupleArray_B(numBits).numWords;
+	}
+
+	@Override
+	public void setPoints( PackedTupleArray<TupleDesc_B> points ) {
+		PackedTupleArray_B packed = (PackedTupleArray_B)points;
+		if( packed.numBits != numBits )
+			throw new IllegalArgumentException("Expected descriptors with "+numBits+" bits not "+packed.numBits);
+		this.numPoints = packed.size();
+		this.points = LongBuffer.wrap(packed.data.data,0,numPoints*numWords);
+
+		if( clusterCenters.length < branchFactor*numWords ) {
+			clusterCenters = new long[branchFactor*numWords];
+			clusterBitCounts = new int[branchFactor*numWords*64];
+		}
+		buildTree();
+	}
+
+	/**
+	 * Specifies the point and node center data directly. Used when loading a saved index.
+	 *
+	 * @param points Points. Point i starts at index i*numWords
+	 * @param centers Node centers. Node i starts at index i*numWords
+	 */
+	public void setData( LongBuffer points , LongBuffer centers ) {
+		if( points.limit() < numPoints*numWords || centers.limit() < numNodes*numWords )
+			throw new IllegalArgumentException("Buffers are too small. Call setTree() first");
+		this.points = points;
+		this.centers = centers;
+	}
+
+	@Override
+	public PackedTupleArray<TupleDesc_B> createPackedArray() {
+		return new PackedTupleArray_B(numBits);
+	}
+
+	@Override
+	protected double distanceToPoint( TupleDesc_B query , int point ) {
+		return distance(query,points,point*numWords);
+	}
+
+	@Override
+	protected double distanceToNode( TupleDesc_B query , int node ) {
+		return distance(query,centers,node*numWords);
+	}
+
+	/**
+	 * Hamming distance between the query and packed descriptor. Pairs of ints in the query are combined
+	 * into a long the same way as in {@link PackedTupleArray_B}
+	 */
+	private int distance( TupleDesc_B query , LongBuffer b , int offsetB ) {
+		final int[] d = query.data;
+		int total = 0;
+		int k = 0;
+		for( int i = 0; i < numWords; i++, k += 2 ) {
+			long word = d[k] & 0xFFFFFFFFL;
+			if( k+1 < d.length )
+				word |= (long)d[k+1] << 32;
+			total += Long.bitCount(word ^ b.get(offsetB+i));
+		}
+		return total;
+	}
+
+	@Override
+	protected void clearCenters() {
+		workCenters.reset();
+	}
+
+	@Override
+	protected void addCenter() {
+		// the center is filled in later by saveCenter()
+		for( int i = 0; i < numWords; i++ ) {
+			workCenters.push(0);
+		}
+	}
+
+	@Override
+	protected void finishCenters() {
+		long[] array = new long[workCenters.size];
+		System.arraycopy(workCenters.data,0,array,0,array.length);
+		centers = LongBuffer.wrap(array);
+	}
+
+	@Override
+	protected void saveCenter( int cluster , int node ) {
+		System.arraycopy(clusterCenters,cluster*numWords,workCenters.data,node*numWords,numWords);
+	}
+
+	@Override
+	protected void setClusterCenter( int cluster , int point ) {
+		for( int i = 0; i < numWords; i++ ) {
+			clusterCenters[cluster*numWords+i] = points.get(point*numWords+i);
+		}
+	}
+
+	@Override
+	protected double clusterDistance( int point , int cluster ) {
+		final int offsetA = point*numWords;
+		final int offsetB = cluster*numWords;
+		int total = 0;
+		for( int i = 0; i < numWords; i++ ) {
+			total += Long.bitCount(points.get(offsetA+i) ^ clusterCenters[offsetB+i]);
+		}
+		return total;
+	}
+
+	@Override
+	protected void clearClusterSums( int numClusters ) {
+		for( int i = 0; i < numClusters*numWords*64; i++ ) {
+			clusterBitCounts[i] = 0;
+		}
+	}
+
+	@Override
+	protected void addToClusterSum( int cluster , int point ) {
+		final int offsetA = point*numWords;
+		int index = cluster*numWords*64;
+		for( int i = 0; i < numWords; i++ ) {
+			long word = points.get(offsetA+i);
+			for( int bit = 0; bit < 64; bit++ ) {
+				clusterBitCounts[index++] += (int)((word >>> bit) & 1L);
+			}
+		}
+	}
+
+	@Override
+	protected void computeClusterCenter( int cluster , int count ) {
+		int index = cluster*numWords*64;
+		for( int i = 0; i < numWords; i++ ) {
+			long word = 0;
+			for( int bit = 0; bit < 64; bit++ ) {
+				if( 2*clusterBitCounts[index++] > count )
+					word |= 1L << bit;
+			}
+			clusterCenters[cluster*numWords+i] = word;
+		}
+	}
+
+	public int getNumBits() {
+		return numBits;
+	}
+
+	public int getNumWords() {
+		return numWords;
+	}
+
+	public LongBuffer getPoints() {
+		return points;
+	}
+
+	public LongBuffer getCenters() {
+		return centers;
+	}
+}
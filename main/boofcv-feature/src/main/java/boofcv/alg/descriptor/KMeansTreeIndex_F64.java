@@ -0,0 +1,193 @@
+/*
+ * Copyright (c) 2011-2018, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package boofcv.alg.descriptor;
+
+import boofcv.struct.feature.PackedTupleArray;
+import boofcv.struct.feature.PackedTupleArray_F64;
+import boofcv.struct.feature.TupleDesc_F64;
+import org.ddogleg.struct.GrowQueue_F64;
+
+import java.nio.DoubleBuffer;
+
+/**
+ * {@link KMeansTreeIndex} for {@link TupleDesc_F64}.  Distance is Euclidean squared.  Points and node centers
+ * are read from {@link DoubleBuffer}s so that they can be memory mapped.
+ *
+ * @author Peter Abeles
+ */
+public class KMeansTreeIndex_F64 extends KMeansTreeIndex<TupleDesc_F64> {
+
+	// degree-of-freedom, number of elements in each descriptor
+	protected int dof;
+
+	// Point i starts at index i*dof
+	protected DoubleBuffer points;
+	// Center of node i starts at index i*dof
+	protected DoubleBuffer centers;
+
+	// storage used while building the tree
+	private GrowQueue_F64 workCenters = new GrowQueue_F64();
+	private double[] clusterCenters = new double[0];
+	private double[] clusterSums = new double[0];
+
+	/**
+	 * Configures the tree
+	 *
+	 * @param dof Number of elements in a descriptor
+	 * @param branchFactor Maximum number of children a node can have. Must be &ge; 2. Try 32
+	 * @param maxIterations Maximum number of k-means iterations when splitting a node. Must be &ge; 1. Try 11
+	 * @param maxChecks Number of points examined by a search. Controls recall. &le; 0 for exact search
+	 * @param randomSeed Seed for the random number generator used to initialize k-means
+	 */
+	public KMeansTreeIndex_F64( int dof , int branchFactor , int maxIterations , int maxChecks , long randomSeed ) {
+		super(branchFactor, maxIterations, maxChecks, randomSeed);
+		this.dof = dof;
+	}
+
+	@Override
+	public void setPoints( PackedTupleArray<TupleDesc_F64> points ) {
+		PackedTupleArray_F64 packed = (PackedTupleArray_F64)points;
+		if( packed.dof != dof )
+			throw new IllegalArgumentException("Expected descriptors with "+dof+" elements not "+packed.dof);
+		this.numPoints = packed.size();
+		this.points = DoubleBuffer.wrap(packed.data.data,0,numPoints*dof);
+
+		if( clusterCenters.length < branchFactor*dof ) {
+			clusterCenters = new double[branchFactor*dof];
+			clusterSums = new double[branchFactor*dof];
+		}
+		buildTree();
+	}
+
+	/**
+	 * Specifies the point and node center data directly. Used when loading a saved index.
+	 *
+	 * @param points Points. Point i starts at index i*dof
+	 * @param centers Node centers. Node i starts at index i*dof
+	 */
+	public void setData( DoubleBuffer points , DoubleBuffer centers ) {
+		if( points.limit() < numPoints*dof || centers.limit() < numNodes*dof )
+			throw new IllegalArgumentException("Buffers are too small. Call setTree() first");
+		this.points = points;
+		this.centers = centers;
+	}
+
+	@Override
+	public PackedTupleArray<TupleDesc_F64> createPackedArray() {
+		return new PackedTupleArray_F64(dof);
+	}
+
+	@Override
+	protected double distanceToPoint( TupleDesc_F64 query , int point ) {
+		return distance(query.value,points,point*dof);
+	}
+
+	@Override
+	protected double distanceToNode( TupleDesc_F64 query , int node ) {
+		return distance(query.value,centers,node*dof);
+	}
+
+	private double distance( double[] a , DoubleBuffer b , int offsetB ) {
+		double total = 0;
+		for( int i = 0; i < dof; i++ ) {
+			double d = a[i] - b.get(offsetB+i);
+			total += d*d;
+		}
+		return total;
+	}
+
+	@Override
+	protected void clearCenters() {
+		workCenters.reset();
+	}
+
+	@Override
+	protected void addCenter() {
+		// the center is filled in later by saveCenter()
+		for( int i = 0; i < dof; i++ ) {
+			workCenters.push(0);
+		}
+	}
+
+	@Override
+	protected void finishCenters() {
+		double[] array = new double[workCenters.size];
+		System.arraycopy(workCenters.data,0,array,0,array.length);
+		centers = DoubleBuffer.wrap(array);
+	}
+
+	@Override
+	protected void saveCenter( int cluster , int node ) {
+		System.arraycopy(clusterCenters,cluster*dof,workCenters.data,node*dof,dof);
+	}
+
+	@Override
+	protected void setClusterCenter( int cluster , int point ) {
+		for( int i = 0; i < dof; i++ ) {
+			clusterCenters[cluster*dof+i] = points.get(point*dof+i);
+		}
+	}
+
+	@Override
+	protected double clusterDistance( int point , int cluster ) {
+		final int offsetA = point*dof;
+		final int offsetB = cluster*dof;
+		double total = 0;
+		for( int i = 0; i < dof; i++ ) {
+			double d = points.get(offsetA+i) - clusterCenters[offsetB+i];
+			total += d*d;
+		}
+		return total;
+	}
+
+	@Override
+	protected void clearClusterSums( int numClusters ) {
+		for( int i = 0; i < numClusters*dof; i++ ) {
+			clusterSums[i] = 0;
+		}
+	}
+
+	@Override
+	protected void addToClusterSum( int cluster , int point ) {
+		final int offsetA = point*dof;
+		final int offsetB = cluster*dof;
+		for( int i = 0; i < dof; i++ ) {
+			clusterSums[offsetB+i] += points.get(offsetA+i);
+		}
+	}
+
+	@Override
+	protected void computeClusterCenter( int cluster , int count ) {
+		final int offset = cluster*dof;
+		for( int i = 0; i < dof; i++ ) {
+			clusterCenters[offset+i] = clusterSums[offset+i]/count;
+		}
+	}
+
+	public int getDof() {
+		return dof;
+	}
+
+	public DoubleBuffer getPoints() {
+		return points;
+	}
+
+	public DoubleBuffer getCenters() {
+		return centers;
+	}
+}
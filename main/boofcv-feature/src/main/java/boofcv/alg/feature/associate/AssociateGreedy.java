@@ -19,6 +19,8 @@
 package boofcv.alg.feature.associate;
 
 import boofcv.abst.feature.associate.ScoreAssociation;
+import boofcv.abst.feature.associate.ScoreAssociationPacked;
+import boofcv.struct.feature.PackedTupleArray;
 import boofcv.struct.feature.TupleDesc_F64;
 import org.ddogleg.struct.FastQueue;
 import org.ddogleg.struct.GrowQueue_F64;
@@ -46,17 +48,17 @@ import org.ddogleg.struct.GrowQueue_I32;
 public class AssociateGreedy<D> {
 
 	// computes association score
-	private ScoreAssociation<D> score;
+	protected ScoreAssociation<D> score;
 	// worst allowed fit score to associate
-	private double maxFitError = Double.MAX_VALUE;
+	protected double maxFitError = Double.MAX_VALUE;
 	// stores the quality of fit score
-	private GrowQueue_F64 fitQuality = new GrowQueue_F64(100);
+	protected GrowQueue_F64 fitQuality = new GrowQueue_F64(100);
 	// stores indexes of associated
-	private GrowQueue_I32 pairs = new GrowQueue_I32(100);
+	protected GrowQueue_I32 pairs = new GrowQueue_I32(100);
 	// various
 	private GrowQueue_F64 workBuffer = new GrowQueue_F64(100);
 	// if true backwardsValidation is done
-	private boolean backwardsValidation;
+	protected boolean backwardsValidation;
 
 	/**
 	 * Configure association
@@ -85,7 +87,9 @@ public class AssociateGreedy<D> {
 
 //		System.out.println("Associate: "+src.size+"*"+dst.size+" = "+(src.size*dst.size)+" or "+(src.size*dst.size*8/1024/1024)+"MB");
 		fitQuality.setMaxSize(src.size);
-		workBuffer.setMaxSize(src.size*dst.size);
+		// the score of every pair is only needed for backwards validation
+		if( backwardsValidation )
+			workBuffer.setMaxSize(src.size*dst.size);
 		for( int i = 0; i < src.size; i++ ) {
 			D a = src.data[i];
 			double bestScore = maxFitError;
@@ -95,7 +99,8 @@ public class AssociateGreedy<D> {
 				D b = dst.data[j];
 
 				double fit = score.score(a,b);
-				workBuffer.push(fit);
+				if( backwardsValidation )
+					workBuffer.push(fit);
 
 				if( fit <= bestScore ) {
 					bestIndex = j;
@@ -107,19 +112,74 @@ public class AssociateGreedy<D> {
 		}
 
 		if( backwardsValidation ) {
-			for( int i = 0; i < src.size; i++ ) {
-				int match = pairs.data[i];
-				if( match == -1 )
-					continue;
-
-				double scoreToBeat = workBuffer.data[i*dst.size+match];
-
-				for( int j = 0; j < src.size; j++ , match += dst.size ) {
-					if( workBuffer.data[match] <= scoreToBeat && j != i) {
-						pairs.data[i] = -1;
-						fitQuality.data[i] = Double.MAX_VALUE;
-						break;
-					}
+			validateBackwards(src.size,dst.size);
+		}
+	}
+
+	/**
+	 * Associates the two sets objects against each other by minimizing fit score.  Descriptors are scored
+	 * directly inside the packed arrays, which requires a score which implements {@link ScoreAssociationPacked}.
+	 *
+	 * @param src Source list.
+	 * @param dst Destination list.
+	 */
+	public void associate( PackedTupleArray<D> src ,
+						   PackedTupleArray<D> dst )
+	{
+		if( !(score instanceof ScoreAssociationPacked) )
+			throw new IllegalArgumentException("Score must implement ScoreAssociationPacked to process packed arrays");
+		ScoreAssociationPacked<D> score = (ScoreAssociationPacked<D>)this.score;
+
+		fitQuality.reset();
+		pairs.reset();
+
+		final int numSrc = src.size();
+		final int numDst = dst.size();
+
+		// scores for a row are written into the work buffer. All rows are saved if validating backwards
+		workBuffer.resize(backwardsValidation ? numSrc*numDst : numDst);
+		final double[] scores = workBuffer.data;
+
+		fitQuality.setMaxSize(numSrc);
+		for( int i = 0; i < numSrc; i++ ) {
+			int offset = backwardsValidation ? i*numDst : 0;
+			score.scoreAll(src,i,dst,scores,offset);
+
+			double bestScore = maxFitError;
+			int bestIndex = -1;
+			for( int j = 0; j < numDst; j++ ) {
+				double fit = scores[offset+j];
+				if( fit <= bestScore ) {
+					bestIndex = j;
+					bestScore = fit;
+				}
+			}
+			pairs.push(bestIndex);
+			fitQuality.push(bestScore);
+		}
+
+		if( backwardsValidation ) {
+			validateBackwards(numSrc,numDst);
+		}
+	}
+
+	/**
+	 * Removes associations where another src feature has a score which is as good or better for the
+	 * same dst feature. Uses the scores of every pair saved in the work buffer.
+	 */
+	private void validateBackwards( int numSrc , int numDst ) {
+		for( int i = 0; i < numSrc; i++ ) {
+			int match = pairs.data[i];
+			if( match == -1 )
+				continue;
+
+			double scoreToBeat = workBuffer.data[i*numDst+match];
+
+			for( int j = 0; j < numSrc; j++ , match += numDst ) {
+				if( workBuffer.data[match] <= scoreToBeat && j != i) {
+					pairs.data[i] = -1;
+					fitQuality.data[i] = Double.MAX_VALUE;
+					break;
 				}
 			}
 		}
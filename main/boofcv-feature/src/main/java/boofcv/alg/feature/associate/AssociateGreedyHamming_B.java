@@ -0,0 +1,207 @@
+/*
+ * Copyright (c) 2011-2018, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.feature.associate;
+
+import boofcv.abst.feature.associate.ScoreAssociateHamming_B;
+import boofcv.struct.feature.PackedTupleArray;
+import boofcv.struct.feature.PackedTupleArray_B;
+import boofcv.struct.feature.TupleDesc_B;
+import org.ddogleg.struct.FastQueue;
+import org.ddogleg.struct.GrowQueue_I32;
+
+/**
+ * <p>
+ * Implementation of {@link AssociateGreedy} which has been specialized for binary descriptors and the Hamming
+ * distance.  Produces the same associations as {@link AssociateGreedy} with {@link ScoreAssociateHamming_B}
+ * but is much faster and uses much less memory.
+ * </p>
+ *
+ * <ul>
+ * <li>Descriptors are packed into long[] arrays, see {@link PackedTupleArray_B}, so that 64-bits are processed at once
+ * with {@link Long#bitCount(long)}, which is a single instruction on most CPUs.</li>
+ * <li>Computing the distance between two descriptors is abandoned as soon as it's worse than the best score.</li>
+ * <li>Backwards validation finds the two best src matches for each associated dst feature instead of saving
+ * the score for every possible pair. Memory is O(N + M) instead of O(N*M).</li>
+ * </ul>
+ *
+ * @author Peter Abeles
+ */
+public class AssociateGreedyHamming_B extends AssociateGreedy<TupleDesc_B> {
+
+	// number of longs in each packed descriptor
+	private int numWords;
+	// descriptors packed into a single array
+	private PackedTupleArray_B packedSrc;
+	private PackedTupleArray_B packedDst;
+
+	// For backwards validation. Lowest and second lowest score for a dst feature and the src index of the lowest
+	private GrowQueue_I32 dstBest0 = new GrowQueue_I32(100);
+	private GrowQueue_I32 dstBest1 = new GrowQueue_I32(100);
+	private GrowQueue_I32 dstBestIndex = new GrowQueue_I32(100);
+
+	/**
+	 * Configure association
+	 *
+	 * @param score Computes the association score.
+	 * @param backwardsValidation If true then backwards validation is performed.
+	 */
+	public AssociateGreedyHamming_B(ScoreAssociateHamming_B score, boolean backwardsValidation) {
+		super(score, backwardsValidation);
+	}
+
+	@Override
+	public void associate( FastQueue<TupleDesc_B> src ,
+						   FastQueue<TupleDesc_B> dst )
+	{
+		if( src.size == 0 ) {
+			fitQuality.reset();
+			pairs.reset();
+			return;
+		}
+
+		int numBits = src.data[0].numBits;
+		if( packedSrc == null || packedSrc.numBits != numBits ) {
+			packedSrc = new PackedTupleArray_B(numBits);
+			packedDst = new PackedTupleArray_B(numBits);
+		}
+		pack(src,packedSrc);
+		pack(dst,packedDst);
+
+		associate(packedSrc,packedDst);
+	}
+
+	@Override
+	public void associate( PackedTupleArray<TupleDesc_B> src ,
+						   PackedTupleArray<TupleDesc_B> dst )
+	{
+		fitQuality.reset();
+		pairs.reset();
+
+		if( src.size() == 0 ) {
+			return;
+		}
+
+		PackedTupleArray_B packedSrc = (PackedTupleArray_B)src;
+		PackedTupleArray_B packedDst = (PackedTupleArray_B)dst;
+		if( packedSrc.numWords != packedDst.numWords )
+			throw new IllegalArgumentException("All descriptors must be the same size");
+
+		numWords = packedSrc.numWords;
+		final long[] dataSrc = packedSrc.data.data;
+		final long[] dataDst = packedDst.data.data;
+		final int numSrc = packedSrc.size();
+		final int numDst = packedDst.size();
+
+		fitQuality.setMaxSize(numSrc);
+		pairs.setMaxSize(numSrc);
+		for( int i = 0; i < numSrc; i++ ) {
+			int indexA = i*numWords;
+			double bestScore = maxFitError;
+			int bestIndex = -1;
+
+			for( int j = 0; j < numDst; j++ ) {
+				int fit = distance(dataSrc, indexA, dataDst, j*numWords, bestScore);
+
+				if( fit <= bestScore ) {
+					bestIndex = j;
+					bestScore = fit;
+				}
+			}
+			pairs.push(bestIndex);
+			fitQuality.push(bestScore);
+		}
+
+		if( backwardsValidation ) {
+			validateBackwards(dataSrc,numSrc,dataDst,numDst);
+		}
+	}
+
+	/**
+	 * Removes associations where another src feature has a score which is as good or better for the same
+	 * dst feature.  The best two scores for each dst feature are computed only for dst features which have
+	 * been associated.
+	 */
+	private void validateBackwards( long[] dataSrc , int numSrc , long[] dataDst , int numDst ) {
+		// -1 indicates that the dst feature hasn't been examined yet
+		dstBestIndex.resize(numDst);
+		dstBest0.resize(numDst);
+		dstBest1.resize(numDst);
+		for( int i = 0; i < numDst; i++ ) {
+			dstBestIndex.data[i] = -1;
+		}
+
+		for( int i = 0; i < numSrc; i++ ) {
+			int match = pairs.data[i];
+			if( match == -1 )
+				continue;
+
+			if( dstBestIndex.data[match] == -1 ) {
+				int indexB = match*numWords;
+				int best0 = Integer.MAX_VALUE, best1 = Integer.MAX_VALUE;
+				int bestIndex = -1;
+				for( int j = 0; j < numSrc; j++ ) {
+					int fit = distance(dataSrc, j*numWords, dataDst, indexB, best1);
+					if( fit < best0 ) {
+						best1 = best0;
+						best0 = fit;
+						bestIndex = j;
+					} else if( fit < best1 ) {
+						best1 = fit;
+					}
+				}
+				dstBest0.data[match] = best0;
+				dstBest1.data[match] = best1;
+				dstBestIndex.data[match] = bestIndex;
+			}
+
+			// best score for the dst feature from a different src feature
+			int other = dstBestIndex.data[match] == i ? dstBest1.data[match] : dstBest0.data[match];
+
+			if( other <= fitQuality.data[i] ) {
+				pairs.data[i] = -1;
+				fitQuality.data[i] = Double.MAX_VALUE;
+			}
+		}
+	}
+
+	/**
+	 * Computes the hamming distance between two packed descriptors.  If the distance becomes larger than
+	 * the threshold it stops early and returns a partial distance which is larger than the threshold.
+	 */
+	private int distance( long[] a , int indexA , long[] b , int indexB , double threshold ) {
+		int score = 0;
+		for( int k = 0; k < numWords; k++ ) {
+			score += Long.bitCount(a[indexA+k] ^ b[indexB+k]);
+			if( score > threshold )
+				break;
+		}
+		return score;
+	}
+
+	/**
+	 * Copies the descriptors into the packed array
+	 */
+	private void pack( FastQueue<TupleDesc_B> descs , PackedTupleArray_B packed ) {
+		packed.reset();
+		packed.reserve(descs.size);
+		for( int i = 0; i < descs.size; i++ ) {
+			packed.append(descs.data[i]);
+		}
+	}
+}
@@ -21,11 +21,13 @@ package boofcv.alg.feature.associate;
 import boofcv.abst.feature.associate.AssociateDescription;
 import boofcv.struct.feature.AssociatedIndex;
 import boofcv.struct.feature.MatchScoreType;
+import boofcv.struct.feature.PackedTupleArray;
 import org.ddogleg.nn.NearestNeighbor;
 import org.ddogleg.nn.NnData;
 import org.ddogleg.struct.FastQueue;
 import org.ddogleg.struct.GrowQueue_I32;
 
+import java.util.ArrayList;
 import java.util.List;
 
 /**
@@ -55,8 +57,15 @@ public class AssociateNearestNeighbor<D>
 
 	// list of features in destination set that are to be searched for in the source list
 	private FastQueue<D> listDst;
+	// destination features when a packed array was provided
+	private PackedTupleArray<D> packedDst;
+
+	// The nearest neighbor search keeps a reference to each point, so packed source features are copied into here.
+	// Descriptors are recycled between calls
+	private List<D> unpackedSrc = new ArrayList<>();
 
 	int sizeSrc;
+	int sizeDst;
 
 	// should the square root of the distance be used instead of the actual distance
 	boolean ratioUsesSqrt =true;
@@ -83,26 +92,67 @@ public class AssociateNearestNeighbor<D>
 		alg.setPoints((List)listSrc.toList(),true);
 	}
 
+	/**
+	 * Specifies the source features using a packed array. Since the nearest neighbor search needs a reference
+	 * to each point the descriptors are copied into internal storage which is reused on the next call.
+	 *
+	 * @param listSrc Source features
+	 */
+	public void setSource(PackedTupleArray<D> listSrc) {
+		this.sizeSrc = listSrc.size();
+		while( unpackedSrc.size() < sizeSrc ) {
+			unpackedSrc.add(listSrc.createDescription());
+		}
+		for (int i = 0; i < sizeSrc; i++) {
+			listSrc.getCopy(i,unpackedSrc.get(i));
+		}
+		alg.setPoints(unpackedSrc.subList(0,sizeSrc),true);
+	}
+
 	@Override
 	public void setDestination(FastQueue<D> listDst) {
 		this.listDst = listDst;
+		this.packedDst = null;
+		this.sizeDst = listDst.size;
+	}
+
+	/**
+	 * Specifies the destination features using a packed array. Features are read directly from the
+	 * packed array when searching.
+	 *
+	 * @param listDst Destination features
+	 */
+	public void setDestination(PackedTupleArray<D> listDst) {
+		this.listDst = null;
+		this.packedDst = listDst;
+		this.sizeDst = listDst.size();
+	}
+
+	/**
+	 * Returns the i-th destination feature
+	 */
+	private D getDestination( int index ) {
+		if( listDst != null )
+			return listDst.data[index];
+		else
+			return packedDst.getTemporary(index);
 	}
 
 	@Override
 	public void associate() {
 
-		matches.resize(listDst.size);
+		matches.resize(sizeDst);
 		matches.reset();
 		if( scoreRatioThreshold >= 1.0 ) {
 			// if score ratio is not turned on then just use the best match
-			for (int i = 0; i < listDst.size; i++) {
-				if (!alg.findNearest(listDst.data[i], maxDistance, result))
+			for (int i = 0; i < sizeDst; i++) {
+				if (!alg.findNearest(getDestination(i), maxDistance, result))
 					continue;
 				matches.grow().setAssociation(result.index, i, result.distance);
 			}
 		} else {
-			for (int i = 0; i < listDst.size; i++) {
-				alg.findNearest(listDst.data[i], maxDistance,2, result2);
+			for (int i = 0; i < sizeDst; i++) {
+				alg.findNearest(getDestination(i), maxDistance,2, result2);
 
 				if( result2.size == 1 ) {
 					NnData<D> r = result2.getTail();
@@ -142,7 +192,7 @@ public class AssociateNearestNeighbor<D>
 
 	@Override
 	public GrowQueue_I32 getUnassociatedDestination() {
-		return unassociated.checkDestination(matches,listDst.size());
+		return unassociated.checkDestination(matches,sizeDst);
 	}
 
 	@Override
@@ -24,6 +24,8 @@ import boofcv.struct.feature.TupleDesc_F64;
 import boofcv.struct.image.ImageGray;
 import georegression.metric.UtilAngle;
 
+import java.util.Arrays;
+
 /**
  * <p>A faithful implementation of the SIFT descriptor.</p>
  * <p>The descriptor is computed inside of a square grid which is scaled and rotated.  Each grid cell is composed
@@ -107,11 +109,29 @@ public class DescribePointSift<Deriv extends ImageGray> extends DescribeSiftComm
 	public void process( double c_x , double c_y , double sigma , double orientation , TupleDesc_F64 descriptor )
 	{
 		this.descriptor = descriptor;
-		descriptor.fill(0);
+		process(c_x, c_y, sigma, orientation, descriptor.value, 0);
+	}
 
-		computeRawDescriptor(c_x, c_y, sigma, orientation);
+	/**
+	 * Computes the SIFT descriptor for the specified key point and writes it into an array.  Useful when the
+	 * descriptors for many features are packed into a single array.
+	 *
+	 * @param c_x center of key point.  x-axis
+	 * @param c_y center of key point.  y-axis
+	 * @param sigma Computed sigma in scale-space for this point
+	 * @param orientation Orientation of keypoint in radians
+	 * @param output (output) Array the descriptor is written into
+	 * @param offset Index of the descriptor's first element in the array
+	 */
+	public void process( double c_x , double c_y , double sigma , double orientation ,
+						 double[] output , int offset )
+	{
+		int length = getDescriptorLength();
+		Arrays.fill(output, offset, offset+length, 0);
 
-		normalizeDescriptor(descriptor,maxDescriptorElementValue);
+		computeRawDescriptor(c_x, c_y, sigma, orientation, output, offset);
+
+		normalizeDescriptor(output,offset,length,maxDescriptorElementValue);
 	}
 
 	/**
@@ -119,6 +139,11 @@ public class DescribePointSift<Deriv extends ImageGray> extends DescribeSiftComm
 	 * yet.
 	 */
 	void computeRawDescriptor(double c_x, double c_y, double sigma, double orientation) {
+		computeRawDescriptor(c_x, c_y, sigma, orientation, descriptor.value, 0);
+	}
+
+	void computeRawDescriptor(double c_x, double c_y, double sigma, double orientation,
+							  double[] output , int offset ) {
 		double c = Math.cos(orientation);
 		double s = Math.sin(orientation);
 
@@ -161,7 +186,7 @@ public class DescribePointSift<Deriv extends ImageGray> extends DescribeSiftComm
 					float weightGradient = (float)Math.sqrt(spacialDX*spacialDX + spacialDY*spacialDY);
 
 					// trilinear interpolation intro descriptor
-					trilinearInterpolation(weightGaussian*weightGradient,subX,subY,angle, descriptor);
+					trilinearInterpolation(weightGaussian*weightGradient,subX,subY,angle,output,offset);
 				}
 			}
 		}
@@ -82,19 +82,45 @@ public class DescribeSiftCommon {
 	 * 3) Apply L2 normalization again
 	 */
 	public static void normalizeDescriptor(TupleDesc_F64 descriptor , double maxDescriptorElementValue ) {
+		normalizeDescriptor(descriptor.value,0,descriptor.size(),maxDescriptorElementValue);
+	}
+
+	/**
+	 * Same as {@link #normalizeDescriptor(TupleDesc_F64, double)} but for a descriptor which is stored inside
+	 * an array starting at the specified offset.
+	 */
+	public static void normalizeDescriptor(double[] values , int offset , int length ,
+										   double maxDescriptorElementValue ) {
 		// normalize descriptor to unit length
-		UtilFeature.normalizeL2(descriptor);
+		normalizeL2(values, offset, length);
 
 		// clip the values
-		for (int i = 0; i < descriptor.size(); i++) {
-			double value = descriptor.value[i];
-			if( value > maxDescriptorElementValue ) {
-				descriptor.value[i] = maxDescriptorElementValue;
+		for (int i = offset; i < offset+length; i++) {
+			if( values[i] > maxDescriptorElementValue ) {
+				values[i] = maxDescriptorElementValue;
 			}
 		}
 
 		// normalize again
-		UtilFeature.normalizeL2(descriptor);
+		normalizeL2(values, offset, length);
+	}
+
+	/**
+	 * Normalizes the descriptor so that it has an L2 norm of one.  Same as {@link UtilFeature#normalizeL2}
+	 */
+	private static void normalizeL2( double[] values , int offset , int length ) {
+		double norm = 0;
+		for (int i = offset; i < offset+length; i++) {
+			double v = values[i];
+			norm += v*v;
+		}
+		if( norm == 0 )
+			return;
+
+		norm = Math.sqrt(norm);
+		for (int i = offset; i < offset+length; i++) {
+			values[i] /= norm;
+		}
 	}
 
 	/**
@@ -111,6 +137,15 @@ public class DescribeSiftCommon {
 	 * Applies trilinear interpolation across the descriptor
 	 */
 	protected void trilinearInterpolation( float weight , float sampleX , float sampleY , double angle , TupleDesc_F64 descriptor )
+	{
+		trilinearInterpolation(weight, sampleX, sampleY, angle, descriptor.value, 0);
+	}
+
+	/**
+	 * Applies trilinear interpolation across a descriptor which is stored inside the array starting at 'offset'
+	 */
+	protected void trilinearInterpolation( float weight , float sampleX , float sampleY , double angle ,
+										   double[] descriptor , int offset )
 	{
 		for (int i = 0; i < widthGrid; i++) {
 			double weightGridY = 1.0 - Math.abs(sampleY-i);
@@ -123,8 +158,8 @@ public class DescribeSiftCommon {
 					double weightHistogram = 1.0 - UtilAngle.dist(angle,angleBin)/histogramBinWidth;
 					if( weightHistogram <= 0 ) continue;
 
-					int descriptorIndex = (i*widthGrid + j)*numHistogramBins + k;
-					descriptor.value[descriptorIndex] += weight*weightGridX*weightGridY*weightHistogram;
+					int descriptorIndex = offset + (i*widthGrid + j)*numHistogramBins + k;
+					descriptor[descriptorIndex] += weight*weightGridX*weightGridY*weightHistogram;
 				}
 			}
 		}
@@ -24,11 +24,13 @@ import boofcv.alg.feature.describe.DescribePointSift;
 import boofcv.alg.feature.detect.interest.SiftDetector;
 import boofcv.alg.feature.detect.interest.SiftScaleSpace;
 import boofcv.alg.feature.orientation.OrientationHistogramSift;
+import boofcv.concurrency.BoofConcurrency;
 import boofcv.factory.filter.derivative.FactoryDerivative;
 import boofcv.struct.feature.BrightFeature;
 import boofcv.struct.feature.ScalePoint;
 import boofcv.struct.image.GrayF32;
 import org.ddogleg.struct.FastQueue;
+import org.ddogleg.struct.GrowQueue_B;
 import org.ddogleg.struct.GrowQueue_F64;
 
 /**
@@ -53,12 +55,19 @@ public class CompleteSift extends SiftDetector
 	FastQueue<ScalePoint> locations = new FastQueue<>(ScalePoint.class, false);
 	GrowQueue_F64 orientations = new GrowQueue_F64();
 
-	// used to compute the image gradient
-	ImageGradient<GrayF32,GrayF32> gradient = FactoryDerivative.three(GrayF32.class,null);
+	// If true then descriptors are written into packedDescriptions instead of features
+	boolean packed = false;
+	// descriptors of all the features stored in a single array, one after another
+	GrowQueue_F64 packedDescriptions = new GrowQueue_F64();
+	// if each feature in the packed array is white or not
+	GrowQueue_B packedWhite = new GrowQueue_B();
 
-	// spacial derivative for the current scale in the octave
-	GrayF32 derivX = new GrayF32(1,1);
-	GrayF32 derivY = new GrayF32(1,1);
+	// used to compute the image gradient.  One for each scale so that they can be computed concurrently
+	ImageGradient<GrayF32,GrayF32>[] gradient;
+
+	// spacial derivative for each scale in the octave.  Recycled between octaves and images
+	GrayF32[] derivX;
+	GrayF32[] derivY;
 
 	/**
 	 * Configures SIFT
@@ -77,6 +86,16 @@ public class CompleteSift extends SiftDetector
 		this.orientation = orientation;
 		this.describe = describe;
 
+		int numScaleImages = scaleSpace.getNumScaleImages();
+		gradient = new ImageGradient[numScaleImages];
+		derivX = new GrayF32[numScaleImages];
+		derivY = new GrayF32[numScaleImages];
+		for (int i = 0; i < numScaleImages; i++) {
+			gradient[i] = FactoryDerivative.three(GrayF32.class,null);
+			derivX[i] = new GrayF32(1,1);
+			derivY[i] = new GrayF32(1,1);
+		}
+
 		final int dof = describe.getDescriptorLength();
 		features = new FastQueue<BrightFeature>(BrightFeature.class,true) {
 			@Override
@@ -91,25 +110,46 @@ public class CompleteSift extends SiftDetector
 		features.reset();
 		locations.reset();
 		orientations.reset();
+		packedDescriptions.reset();
+		packedWhite.reset();
 		super.process(input);
 	}
 
 	@Override
 	protected void detectFeatures(int scaleIndex) {
 
-		// compute image derivative for this scale
-		GrayF32 input = scaleSpace.getImageScale(scaleIndex);
-		derivX.reshape(input.width,input.height);
-		derivY.reshape(input.width,input.height);
-		gradient.process(input,derivX,derivY);
+		// the first scale is processed after a new octave has been computed
+		if( scaleIndex == 1 )
+			computeOctaveGradients();
 
 		// set up the orientation and description algorithms
-		orientation.setImageGradient(derivX,derivY);
-		describe.setImageGradient(derivX,derivY);
+		orientation.setImageGradient(derivX[scaleIndex],derivY[scaleIndex]);
+		describe.setImageGradient(derivX[scaleIndex],derivY[scaleIndex]);
 
 		super.detectFeatures(scaleIndex);
 	}
 
+	/**
+	 * Computes the image derivative for all the scales in the current octave that features are detected in.
+	 */
+	void computeOctaveGradients() {
+		int numScales = scaleSpace.getNumScales();
+		if( BoofConcurrency.USE_CONCURRENT ) {
+			BoofConcurrency.loopFor(1, numScales+1, this::computeGradient);
+		} else {
+			for (int scaleIndex = 1; scaleIndex <= numScales; scaleIndex++) {
+				computeGradient(scaleIndex);
+			}
+		}
+	}
+
+	private void computeGradient( int scaleIndex ) {
+		GrayF32 input = scaleSpace.getImageScale(scaleIndex);
+		derivX[scaleIndex].reshape(input.width,input.height);
+		derivY[scaleIndex].reshape(input.width,input.height);
+		gradient[scaleIndex].process(input,derivX[scaleIndex],derivY[scaleIndex]);
+	}
+
 	@Override
 	protected void handleDetection(ScalePoint p) {
 
@@ -124,9 +164,17 @@ public class CompleteSift extends SiftDetector
 		// describe each feature
 		GrowQueue_F64 angles = orientation.getOrientations();
 		for (int i = 0; i < angles.size; i++) {
-			BrightFeature feature = features.grow();
-			feature.white = p.white;
-			describe.process(localX,localY,localSigma,angles.get(i),feature);
+			if( packed ) {
+				int dof = describe.getDescriptorLength();
+				int offset = packedDescriptions.size;
+				packedDescriptions.extend(offset+dof);
+				packedWhite.add(p.white);
+				describe.process(localX,localY,localSigma,angles.get(i),packedDescriptions.data,offset);
+			} else {
+				BrightFeature feature = features.grow();
+				feature.white = p.white;
+				describe.process(localX,localY,localSigma,angles.get(i),feature);
+			}
 
 			orientations.add(angles.get(i));
 			locations.add(p);
@@ -137,10 +185,42 @@ public class CompleteSift extends SiftDetector
 		return locations;
 	}
 
+	/**
+	 * Descriptions of each feature.  Empty if in packed mode.
+	 */
 	public FastQueue<BrightFeature> getDescriptions() {
 		return features;
 	}
 
+	/**
+	 * If true then descriptors are written into a single array instead of one {@link BrightFeature} for each feature.
+	 * Avoids the overhead of creating and accessing a large number of small objects.
+	 *
+	 * @see #getPackedDescriptions()
+	 */
+	public void setPacked( boolean packed ) {
+		this.packed = packed;
+	}
+
+	public boolean isPacked() {
+		return packed;
+	}
+
+	/**
+	 * Descriptors of all the features in packed mode.  The descriptor of the i-th feature starts at
+	 * index i*{@link #getDescriptorLength()}.  Empty if not in packed mode.
+	 */
+	public GrowQueue_F64 getPackedDescriptions() {
+		return packedDescriptions;
+	}
+
+	/**
+	 * In packed mode, if each feature is white or not.  See {@link BrightFeature#white}
+	 */
+	public GrowQueue_B getPackedWhite() {
+		return packedWhite;
+	}
+
 	public GrowQueue_F64 getOrientations() {
 		return orientations;
 	}
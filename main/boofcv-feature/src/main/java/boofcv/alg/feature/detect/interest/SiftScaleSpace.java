@@ -22,6 +22,7 @@ import boofcv.alg.filter.convolve.GConvolveImageOps;
 import boofcv.alg.interpolate.InterpolatePixelS;
 import boofcv.alg.misc.PixelMath;
 import boofcv.alg.transform.pyramid.PyramidOps;
+import boofcv.concurrency.BoofConcurrency;
 import boofcv.core.image.border.BorderType;
 import boofcv.factory.filter.kernel.FactoryKernel;
 import boofcv.factory.filter.kernel.FactoryKernelGaussian;
@@ -29,6 +30,7 @@ import boofcv.factory.interpolate.FactoryInterpolation;
 import boofcv.struct.convolve.Kernel1D;
 import boofcv.struct.convolve.Kernel1D_F32;
 import boofcv.struct.image.GrayF32;
+import boofcv.struct.image.ImagePool;
 
 /**
  *<p>
@@ -172,15 +174,17 @@ public class SiftScaleSpace {
 		currentOctave = firstOctave;
 
 		if( firstOctave < 0 ) {
-			PyramidOps.scaleImageUp(input,tempImage1,-2*firstOctave,interp);
-			tempImage0.reshape(tempImage1.width, tempImage1.height);
+			int scale = -2*firstOctave;
+			tempImage1 = ImagePool.reshape(tempImage1, input.width*scale, input.height*scale);
+			PyramidOps.scaleImageUp(input,tempImage1,scale,interp);
+			tempImage0 = ImagePool.reshape(tempImage0, tempImage1.width, tempImage1.height);
 			applyGaussian(tempImage1, tempImage0, kernelSigma0);
 		} else {
-			tempImage0.reshape(input.width, input.height);
+			tempImage0 = ImagePool.reshape(tempImage0, input.width, input.height);
 			applyGaussian(input, tempImage0, kernelSigma0);
 			
 			for (int i = 0; i < firstOctave; i++) {
-				tempImage1.reshape(tempImage0.width, tempImage0.height);
+				tempImage1 = ImagePool.reshape(tempImage1, tempImage0.width, tempImage0.height);
 				// first image in the next octave will have 2x the blur as the first image in the prior octave
 				applyGaussian(tempImage0, tempImage1, kernelSigma0);
 				// next octave has half the spacial resolution
@@ -217,14 +221,26 @@ public class SiftScaleSpace {
 	private void computeOctaveScales() {
 		octaveImages[0] = tempImage0;
 		for (int i = 1; i < numScales+3; i++) {
-			octaveImages[i].reshape(tempImage0.width, tempImage0.height);
+			octaveImages[i] = ImagePool.reshape(octaveImages[i], tempImage0.width, tempImage0.height);
 			applyGaussian(octaveImages[i - 1], octaveImages[i], kernelSigmaToK[i-1]);
 		}
 
 		for (int i = 1; i < numScales+3; i++) {
-			differenceOfGaussian[i-1].reshape(tempImage0.width, tempImage0.height);
-			PixelMath.subtract(octaveImages[i],octaveImages[i - 1],differenceOfGaussian[i-1]);
+			differenceOfGaussian[i-1] = ImagePool.reshape(differenceOfGaussian[i-1], tempImage0.width, tempImage0.height);
 		}
+
+		// each DoG image only depends on two scale images, which have already been computed
+		if( BoofConcurrency.USE_CONCURRENT ) {
+			BoofConcurrency.loopFor(1, numScales+3, this::computeDifferenceOfGaussian);
+		} else {
+			for (int i = 1; i < numScales+3; i++) {
+				computeDifferenceOfGaussian(i);
+			}
+		}
+	}
+
+	private void computeDifferenceOfGaussian( int scaleIndex ) {
+		PixelMath.subtract(octaveImages[scaleIndex],octaveImages[scaleIndex - 1],differenceOfGaussian[scaleIndex-1]);
 	}
 
 	public GrayF32 getImageScale(int scaleIndex ) {
@@ -239,7 +255,7 @@ public class SiftScaleSpace {
 	 * Applies the separable kernel to the input image and stores the results in the output image.
 	 */
 	void applyGaussian(GrayF32 input, GrayF32 output, Kernel1D kernel) {
-		tempBlur.reshape(input.width, input.height);
+		tempBlur = ImagePool.reshape(tempBlur, input.width, input.height);
 		GConvolveImageOps.horizontalNormalized(kernel, input, tempBlur);
 		GConvolveImageOps.verticalNormalized(kernel, tempBlur,output);
 	}
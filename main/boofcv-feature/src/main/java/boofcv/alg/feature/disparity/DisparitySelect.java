@@ -64,4 +64,15 @@ public interface DisparitySelect<Array , T extends ImageGray> {
 	 * @return Image type for disparity
 	 */
 	public Class<T> getDisparityType();
+
+	/**
+	 * Creates a new instance with the same settings which can be used in a different thread. Internal work space
+	 * is not shared. {@link #configure(ImageGray, int, int, int)} must still be called on the copy.
+	 * Implementations which can't be copied return null and are then only used by the single threaded algorithms.
+	 *
+	 * @return New instance of this class or null if not supported
+	 */
+	default DisparitySelect<Array,T> concurrentCopy() {
+		return null;
+	}
 }
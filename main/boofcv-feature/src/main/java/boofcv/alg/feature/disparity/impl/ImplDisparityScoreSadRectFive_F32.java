@@ -30,6 +30,10 @@ import boofcv.struct.image.ImageGray;
  * </p>
  *
  * <p>
+ * The vertical score is summed from scratch every {@link UtilDisparityScore#RESTART_ROWS_F32} rows so that the
+ * output is identical to {@link ImplDisparityScoreSadRectFive_F32_MT}.
+ * </p>
+ * <p>
  * DO NOT MODIFY. Generated by {@link GenerateDisparityScoreSadRectFive}.
  * </p>
  *
@@ -96,13 +100,7 @@ public class ImplDisparityScoreSadRectFive_F32<DI extends ImageGray<DI>>
 		}
 
 		// compute score for the top possible row
-		for( int i = 0; i < lengthHorizontal; i++ ) {
-			float sum = 0;
-			for( int row = 0; row < regionHeight; row++ ) {
-				sum += horizontalScore[row][i];
-			}
-			firstRow[i] = sum;
-		}
+		UtilDisparityScore.sumVertical(horizontalScore,0,lengthHorizontal,firstRow);
 	}
 
 	/**
@@ -117,18 +115,25 @@ public class ImplDisparityScoreSadRectFive_F32<DI extends ImageGray<DI>>
 			float previous[] = verticalScore[ (activeVerticalScore -1) % regionHeight ];
 			float active[] = verticalScore[ activeVerticalScore % regionHeight ];
 
-			// subtract first row from vertical score
 			float scores[] = horizontalScore[oldRow];
-			for( int i = 0; i < lengthHorizontal; i++ ) {
-				active[i] = previous[i] - scores[i];
-			}
+			if( activeVerticalScore % UtilDisparityScore.RESTART_ROWS_F32 == 0 ) {
+				// sum from scratch so that the results don't depend on where the computation started
+				UtilDisparityScore.computeScoreRow(left, right, row, scores,
+						minDisparity,maxDisparity,regionWidth,elementScore);
+				UtilDisparityScore.sumVertical(horizontalScore,activeVerticalScore,lengthHorizontal,active);
+			} else {
+				// subtract first row from vertical score
+				for( int i = 0; i < lengthHorizontal; i++ ) {
+					active[i] = previous[i] - scores[i];
+				}
 
-			UtilDisparityScore.computeScoreRow(left, right, row, scores,
-					minDisparity,maxDisparity,regionWidth,elementScore);
+				UtilDisparityScore.computeScoreRow(left, right, row, scores,
+						minDisparity,maxDisparity,regionWidth,elementScore);
 
-			// add the new score
-			for( int i = 0; i < lengthHorizontal; i++ ) {
-				active[i] += scores[i];
+				// add the new score
+				for( int i = 0; i < lengthHorizontal; i++ ) {
+					active[i] += scores[i];
+				}
 			}
 
 			if( activeVerticalScore >= regionHeight-1 ) {
@@ -156,7 +161,7 @@ public class ImplDisparityScoreSadRectFive_F32<DI extends ImageGray<DI>>
 			int indexDst = (d-minDisparity)*width + (d-minDisparity);
 			int end = indexSrc + (width-d-4*radiusX);
 			while( indexSrc < end ) {
-				int s = 0;
+				float s = 0;
 
 				// sample four outer regions at the corners around the center region
 				float val0 = top[indexSrc-radiusX];
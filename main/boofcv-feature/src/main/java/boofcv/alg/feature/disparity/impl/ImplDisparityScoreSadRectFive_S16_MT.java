@@ -0,0 +1,254 @@
+/*
+ * Copyright (c) 2011-2018, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.feature.disparity.impl;
+
+import boofcv.alg.feature.disparity.DisparityScoreWindowFive;
+import boofcv.alg.feature.disparity.DisparitySelect;
+import boofcv.concurrency.BoofConcurrency;
+import boofcv.struct.image.GrayS16;
+import boofcv.struct.image.ImageGray;
+import org.ddogleg.struct.FastQueue;
+
+/**
+ * <p>
+ * Concurrent version of {@link ImplDisparityScoreSadRectFive_S16}. The image is broken up into blocks of rows
+ * which are processed independently. Each block has its own score work space and its own copy of
+ * {@link DisparitySelect}, created with {@link DisparitySelect#concurrentCopy()}.  At the start of each block
+ * the rolling window of vertical scores is filled from scratch.
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+public class ImplDisparityScoreSadRectFive_S16_MT<DI extends ImageGray<DI>>
+		extends DisparityScoreWindowFive<GrayS16, DI>
+{
+
+	// Computes disparity from scores
+	DisparitySelect<int[], DI> computeDisparity;
+
+	// Work space for each block of rows
+	FastQueue<WorkSpace> workspace = new FastQueue<>(WorkSpace.class,true);
+
+	// input and output images
+	GrayS16 left, right;
+	DI disparity;
+
+	public ImplDisparityScoreSadRectFive_S16_MT(int minDisparity, int maxDisparity,
+											int regionRadiusX, int regionRadiusY,
+											DisparitySelect<int[], DI> computeDisparity) {
+		super(minDisparity,maxDisparity,regionRadiusX,regionRadiusY);
+		this.computeDisparity = computeDisparity;
+		if( computeDisparity.concurrentCopy() == null )
+			throw new IllegalArgumentException("DisparitySelect does not support concurrentCopy(). Use the single threaded version");
+	}
+
+	@Override
+	public void _process(GrayS16 left , GrayS16 right , DI disparity ) {
+		this.left = left;
+		this.right = right;
+		this.disparity = disparity;
+
+		// Range of rows which disparity is computed for. Matches the single threaded version, which never
+		// computes the first row when radiusY is zero
+		int rowStart = Math.max(1,2*radiusY);
+		int rowEnd = left.height-2*radiusY;
+
+		BoofConcurrency.loopBlocks(rowStart,rowEnd,workspace,this::computeBlock);
+
+		this.left = this.right = null;
+		this.disparity = null;
+	}
+
+	/**
+	 * Computes the disparity for rows row0 to row1-1, inclusive.
+	 */
+	private void computeBlock( WorkSpace w , int row0 , int row1 ) {
+		w.checkSize(lengthHorizontal,regionHeight,left.width);
+		if( w.computeDisparity == null )
+			w.computeDisparity = computeDisparity.concurrentCopy();
+		w.computeDisparity.configure(disparity,minDisparity,maxDisparity,radiusX*2);
+
+		// top row of the first region which needs to be computed
+		int top0 = row0 - 2*radiusY;
+
+		// initialize computation
+		computeFirstRow(w,top0);
+		// efficiently compute rest of the rows using previous results to avoid repeat computations
+		computeRemainingRows(w,top0,row0,row1);
+	}
+
+	/**
+	 * Initializes disparity calculation by finding the scores for the initial block of horizontal
+	 * rows.
+	 */
+	private void computeFirstRow( WorkSpace w , int top0 ) {
+		int firstRow[] = w.verticalScore[0];
+
+		// compute horizontal scores for first row block
+		for( int row = 0; row < regionHeight; row++ ) {
+
+			int scores[] = w.horizontalScore[row];
+
+			UtilDisparityScore.computeScoreRow(left, right, top0+row, scores,
+					minDisparity, maxDisparity, regionWidth, w.elementScore);
+		}
+
+		// compute score for the top possible row
+		for( int i = 0; i < lengthHorizontal; i++ ) {
+			int sum = 0;
+			for( int row = 0; row < regionHeight; row++ ) {
+				sum += w.horizontalScore[row][i];
+			}
+			firstRow[i] = sum;
+		}
+	}
+
+	/**
+	 * Using previously computed results it efficiently finds the disparity in the remaining rows.
+	 * When a new block is processes the last row/column is subtracted and the new row/column is
+	 * added.
+	 */
+	private void computeRemainingRows( WorkSpace w , int top0 , int row0 , int row1 )
+	{
+		int verticalScore[][] = w.verticalScore;
+
+		// index of the active region in the rolling window. The region's top row is rowTop
+		int activeVerticalScore = 0;
+		for( int rowTop = top0; rowTop < row1; rowTop++ , activeVerticalScore++ ) {
+			if( activeVerticalScore > 0 ) {
+				int row = rowTop + regionHeight - 1;
+				int oldRow = (row - top0) % regionHeight;
+				int previous[] = verticalScore[(activeVerticalScore - 1) % regionHeight];
+				int active[] = verticalScore[activeVerticalScore % regionHeight];
+
+				// subtract first row from vertical score
+				int scores[] = w.horizontalScore[oldRow];
+				for( int i = 0; i < lengthHorizontal; i++ ) {
+					active[i] = previous[i] - scores[i];
+				}
+
+				UtilDisparityScore.computeScoreRow(left, right, row, scores,
+						minDisparity, maxDisparity, regionWidth, w.elementScore);
+
+				// add the new score
+				for( int i = 0; i < lengthHorizontal; i++ ) {
+					active[i] += scores[i];
+				}
+			}
+
+			if( rowTop >= row0 ) {
+				int top[] = verticalScore[(activeVerticalScore - 2*radiusY) % regionHeight];
+				int middle[] = verticalScore[(activeVerticalScore - radiusY) % regionHeight];
+				int bottom[] = verticalScore[activeVerticalScore % regionHeight];
+
+				computeScoreFive(top, middle, bottom, w.fiveScore, left.width);
+				w.computeDisparity.process(rowTop, w.fiveScore);
+			}
+		}
+	}
+
+	/**
+	 * Compute the final score by sampling the 5 regions.  Four regions are sampled around the center
+	 * region.  Out of those four only the two with the smallest score are used.
+	 */
+	protected void computeScoreFive( int top[] , int middle[] , int bottom[] , int score[] , int width ) {
+
+		// disparity as the outer loop to maximize common elements in inner loops, reducing redundant calculations
+		for( int d = minDisparity; d < maxDisparity; d++ ) {
+
+			// take in account the different in image border between the sub-regions and the effective region
+			int indexSrc = (d-minDisparity)*width + (d-minDisparity) + radiusX;
+			int indexDst = (d-minDisparity)*width + (d-minDisparity);
+			int end = indexSrc + (width-d-4*radiusX);
+			while( indexSrc < end ) {
+				int s = 0;
+
+				// sample four outer regions at the corners around the center region
+				int val0 = top[indexSrc-radiusX];
+				int val1 = top[indexSrc+radiusX];
+				int val2 = bottom[indexSrc-radiusX];
+				int val3 = bottom[indexSrc+radiusX];
+
+				// select the two best scores from outer for regions
+				if( val1 < val0 ) {
+					int temp = val0;
+					val0 = val1;
+					val1 = temp;
+				}
+
+				if( val3 < val2 ) {
+					int temp = val2;
+					val2 = val3;
+					val3 = temp;
+				}
+
+				if( val3 < val0 ) {
+					s += val2;
+					s += val3;
+				} else if( val2 < val1 ) {
+					s += val2;
+					s += val0;
+				} else {
+					s += val0;
+					s += val1;
+				}
+
+				score[indexDst++] = s + middle[indexSrc++];
+			}
+		}
+	}
+
+	@Override
+	public Class<GrayS16> getInputType() {
+		return GrayS16.class;
+	}
+
+	@Override
+	public Class<DI> getDisparityType() {
+		return computeDisparity.getDisparityType();
+	}
+
+	/**
+	 * Scores and disparity selection used by a single block of rows
+	 */
+	public static class WorkSpace {
+		// stores the local scores for the width of the region
+		int elementScore[];
+		// scores along horizontal axis for current block
+		int horizontalScore[][];
+		// summed scores along vertical axis
+		// Save the last regionHeight scores in a rolling window
+		int verticalScore[][];
+		// Where the final score it stored that has been computed from five regions
+		int fiveScore[];
+		// Computes disparity from scores. Each block has its own copy
+		DisparitySelect computeDisparity;
+
+		public void checkSize( int lengthHorizontal , int regionHeight , int width ) {
+			if( horizontalScore == null || horizontalScore.length != regionHeight ||
+					fiveScore.length < lengthHorizontal ) {
+				horizontalScore = new int[regionHeight][lengthHorizontal];
+				verticalScore = new int[regionHeight][lengthHorizontal];
+				fiveScore = new int[ lengthHorizontal ];
+			}
+			if( elementScore == null || elementScore.length < width )
+				elementScore = new int[ width ];
+		}
+	}
+}
@@ -29,6 +29,10 @@ import boofcv.struct.image.ImageGray;
  * input images of type {@link GrayF32}.
  * </p>
  * <p>
+ * The vertical score is summed from scratch every {@link UtilDisparityScore#RESTART_ROWS_F32} rows so that the
+ * output is identical to {@link ImplDisparityScoreSadRect_F32_MT}.
+ * </p>
+ * <p>
  * DO NOT MODIFY. Generated by {@link GenerateDisparityScoreSadRect}.
  * </p>
  * 
@@ -91,13 +95,7 @@ public class ImplDisparityScoreSadRect_F32<DI extends ImageGray<DI>>
 		}
 
 		// compute score for the top possible row
-		for( int i = 0; i < lengthHorizontal; i++ ) {
-			float sum = 0;
-			for( int row = 0; row < regionHeight; row++ ) {
-				sum += horizontalScore[row][i];
-			}
-			verticalScore[i] = sum;
-		}
+		UtilDisparityScore.sumVertical(horizontalScore,0,lengthHorizontal,verticalScore);
 
 		// compute disparity
 		computeDisparity.process(radiusY, verticalScore);
@@ -112,23 +110,32 @@ public class ImplDisparityScoreSadRect_F32<DI extends ImageGray<DI>>
 	{
 		for( int row = regionHeight; row < left.height; row++ ) {
 			int oldRow = row%regionHeight;
+			// top row in the region
+			int top = row - regionHeight + 1;
 
-			// subtract first row from vertical score
 			float scores[] = horizontalScore[oldRow];
-			for( int i = 0; i < lengthHorizontal; i++ ) {
-				verticalScore[i] -= scores[i];
-			}
-
-			UtilDisparityScore.computeScoreRow(left, right, row, scores,
-					minDisparity,maxDisparity,regionWidth,elementScore);
-
-			// add the new score
-			for( int i = 0; i < lengthHorizontal; i++ ) {
-				verticalScore[i] += scores[i];
+			if( top % UtilDisparityScore.RESTART_ROWS_F32 == 0 ) {
+				// sum from scratch so that the results don't depend on where the computation started
+				UtilDisparityScore.computeScoreRow(left, right, row, scores,
+						minDisparity,maxDisparity,regionWidth,elementScore);
+				UtilDisparityScore.sumVertical(horizontalScore,top,lengthHorizontal,verticalScore);
+			} else {
+				// subtract first row from vertical score
+				for( int i = 0; i < lengthHorizontal; i++ ) {
+					verticalScore[i] -= scores[i];
+				}
+
+				UtilDisparityScore.computeScoreRow(left, right, row, scores,
+						minDisparity,maxDisparity,regionWidth,elementScore);
+
+				// add the new score
+				for( int i = 0; i < lengthHorizontal; i++ ) {
+					verticalScore[i] += scores[i];
+				}
 			}
 
 			// compute disparity
-			computeDisparity.process(row - regionHeight + 1 + radiusY, verticalScore);
+			computeDisparity.process(top + radiusY, verticalScore);
 		}
 	}
 
@@ -0,0 +1,187 @@
+/*
+ * Copyright (c) 2011-2018, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.feature.disparity.impl;
+
+import boofcv.alg.feature.disparity.DisparityScoreSadRect;
+import boofcv.alg.feature.disparity.DisparitySelect;
+import boofcv.concurrency.BoofConcurrency;
+import boofcv.struct.image.GrayF32;
+import boofcv.struct.image.ImageGray;
+import org.ddogleg.struct.FastQueue;
+
+/**
+ * <p>
+ * Concurrent version of {@link ImplDisparityScoreSadRect_F32}. The image is broken up into blocks of rows which
+ * are processed independently. Each block has its own score work space and its own copy of {@link DisparitySelect},
+ * created with {@link DisparitySelect#concurrentCopy()}. Each block starts at the closest row before it where
+ * the single threaded version sums the vertical score from scratch, see {@link UtilDisparityScore#RESTART_ROWS_F32},
+ * so that the scores are added in the same order and the output is identical.
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+public class ImplDisparityScoreSadRect_F32_MT<DI extends ImageGray<DI>>
+	extends DisparityScoreSadRect<GrayF32, DI>
+{
+	// Computes disparity from scores
+	DisparitySelect<float[], DI> computeDisparity;
+
+	// Work space for each block of rows
+	FastQueue<WorkSpace> workspace = new FastQueue<>(WorkSpace.class,true);
+
+	// input and output images
+	GrayF32 left, right;
+	DI disparity;
+
+	public ImplDisparityScoreSadRect_F32_MT( int minDisparity , int maxDisparity,
+											int regionRadiusX, int regionRadiusY,
+											DisparitySelect<float[], DI> computeDisparity) {
+		super(minDisparity,maxDisparity,regionRadiusX,regionRadiusY);
+
+		this.computeDisparity = computeDisparity;
+		if( computeDisparity.concurrentCopy() == null )
+			throw new IllegalArgumentException("DisparitySelect does not support concurrentCopy(). Use the single threaded version");
+	}
+
+	@Override
+	public void _process( GrayF32 left , GrayF32 right , DI disparity ) {
+		this.left = left;
+		this.right = right;
+		this.disparity = disparity;
+
+		// the region's top row can be anywhere in this range
+		BoofConcurrency.loopBlocks(0,left.height-regionHeight+1,workspace,this::computeBlock);
+
+		this.left = this.right = null;
+		this.disparity = null;
+	}
+
+	/**
+	 * Computes the disparity for all rows with the region's top row inside of row0 to row1-1, inclusive
+	 */
+	private void computeBlock( WorkSpace w , int row0 , int row1 ) {
+		w.checkSize(lengthHorizontal,regionHeight,left.width);
+		if( w.computeDisparity == null )
+			w.computeDisparity = computeDisparity.concurrentCopy();
+		w.computeDisparity.configure(disparity,minDisparity,maxDisparity,radiusX);
+
+		// start where the vertical score is summed from scratch by the single threaded version
+		int start = row0 - row0 % UtilDisparityScore.RESTART_ROWS_F32;
+
+		// initialize computation
+		computeFirstRow(w,start,row0);
+		// efficiently compute rest of the rows using previous results to avoid repeat computations
+		computeRemainingRows(w,start,row0,row1);
+	}
+
+	/**
+	 * Initializes disparity calculation by finding the scores for the initial block of horizontal
+	 * rows.
+	 */
+	private void computeFirstRow( WorkSpace w , int start , int row0 ) {
+		// compute horizontal scores for first row block
+		for( int row = start; row < start+regionHeight; row++ ) {
+
+			float scores[] = w.horizontalScore[row%regionHeight];
+
+			UtilDisparityScore.computeScoreRow(left, right, row, scores,
+					minDisparity,maxDisparity,regionWidth,w.elementScore);
+		}
+
+		// compute score for the top possible row
+		UtilDisparityScore.sumVertical(w.horizontalScore,start,lengthHorizontal,w.verticalScore);
+
+		// compute disparity
+		if( start == row0 )
+			w.computeDisparity.process(start+radiusY, w.verticalScore);
+	}
+
+	/**
+	 * Using previously computed results it efficiently finds the disparity in the remaining rows.
+	 * When a new block is processes the last row/column is subtracted and the new row/column is
+	 * added.
+	 */
+	private void computeRemainingRows( WorkSpace w , int start , int row0 , int row1 )
+	{
+		float verticalScore[] = w.verticalScore;
+
+		for( int top = start+1; top < row1; top++ ) {
+			int row = top + regionHeight - 1;
+			int oldRow = row%regionHeight;
+
+			float scores[] = w.horizontalScore[oldRow];
+			if( top % UtilDisparityScore.RESTART_ROWS_F32 == 0 ) {
+				UtilDisparityScore.computeScoreRow(left, right, row, scores,
+						minDisparity,maxDisparity,regionWidth,w.elementScore);
+				UtilDisparityScore.sumVertical(w.horizontalScore,top,lengthHorizontal,verticalScore);
+			} else {
+				// subtract first row from vertical score
+				for( int i = 0; i < lengthHorizontal; i++ ) {
+					verticalScore[i] -= scores[i];
+				}
+
+				UtilDisparityScore.computeScoreRow(left, right, row, scores,
+						minDisparity,maxDisparity,regionWidth,w.elementScore);
+
+				// add the new score
+				for( int i = 0; i < lengthHorizontal; i++ ) {
+					verticalScore[i] += scores[i];
+				}
+			}
+
+			// compute disparity
+			if( top >= row0 )
+				w.computeDisparity.process(top + radiusY, verticalScore);
+		}
+	}
+
+	@Override
+	public Class<GrayF32> getInputType() {
+		return GrayF32.class;
+	}
+
+	@Override
+	public Class<DI> getDisparityType() {
+		return computeDisparity.getDisparityType();
+	}
+
+	/**
+	 * Scores and disparity selection used by a single block of rows
+	 */
+	public static class WorkSpace {
+		// stores the local scores for the width of the region
+		float elementScore[];
+		// scores along horizontal axis for current block
+		float horizontalScore[][];
+		// summed scores along vertical axis
+		float verticalScore[];
+		// Computes disparity from scores. Each block has its own copy
+		DisparitySelect computeDisparity;
+
+		public void checkSize( int lengthHorizontal , int regionHeight , int width ) {
+			if( horizontalScore == null || horizontalScore.length != regionHeight ||
+					verticalScore.length < lengthHorizontal ) {
+				horizontalScore = new float[regionHeight][lengthHorizontal];
+				verticalScore = new float[lengthHorizontal];
+			}
+			if( elementScore == null || elementScore.length < width )
+				elementScore = new float[ width ];
+		}
+	}
+}
@@ -0,0 +1,180 @@
+/*
+ * Copyright (c) 2011-2018, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.feature.disparity.impl;
+
+import boofcv.alg.feature.disparity.DisparityScoreSadRect;
+import boofcv.alg.feature.disparity.DisparitySelect;
+import boofcv.concurrency.BoofConcurrency;
+import boofcv.struct.image.GrayS16;
+import boofcv.struct.image.ImageGray;
+import org.ddogleg.struct.FastQueue;
+
+/**
+ * <p>
+ * Concurrent version of {@link ImplDisparityScoreSadRect_S16}. The image is broken up into blocks of rows which
+ * are processed independently. Each block has its own score work space and its own copy of {@link DisparitySelect},
+ * created with {@link DisparitySelect#concurrentCopy()}.  At the start of each block the vertical score is
+ * computed from scratch, the rest of the block is processed just like the single threaded version.
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+public class ImplDisparityScoreSadRect_S16_MT<DI extends ImageGray<DI>>
+	extends DisparityScoreSadRect<GrayS16, DI>
+{
+	// Computes disparity from scores
+	DisparitySelect<int[], DI> computeDisparity;
+
+	// Work space for each block of rows
+	FastQueue<WorkSpace> workspace = new FastQueue<>(WorkSpace.class,true);
+
+	// input and output images
+	GrayS16 left, right;
+	DI disparity;
+
+	public ImplDisparityScoreSadRect_S16_MT( int minDisparity , int maxDisparity,
+											int regionRadiusX, int regionRadiusY,
+											DisparitySelect<int[], DI> computeDisparity) {
+		super(minDisparity,maxDisparity,regionRadiusX,regionRadiusY);
+
+		this.computeDisparity = computeDisparity;
+		if( computeDisparity.concurrentCopy() == null )
+			throw new IllegalArgumentException("DisparitySelect does not support concurrentCopy(). Use the single threaded version");
+	}
+
+	@Override
+	public void _process( GrayS16 left , GrayS16 right , DI disparity ) {
+		this.left = left;
+		this.right = right;
+		this.disparity = disparity;
+
+		// the region's top row can be anywhere in this range
+		BoofConcurrency.loopBlocks(0,left.height-regionHeight+1,workspace,this::computeBlock);
+
+		this.left = this.right = null;
+		this.disparity = null;
+	}
+
+	/**
+	 * Computes the disparity for all rows with the region's top row inside of row0 to row1-1, inclusive
+	 */
+	private void computeBlock( WorkSpace w , int row0 , int row1 ) {
+		w.checkSize(lengthHorizontal,regionHeight,left.width);
+		if( w.computeDisparity == null )
+			w.computeDisparity = computeDisparity.concurrentCopy();
+		w.computeDisparity.configure(disparity,minDisparity,maxDisparity,radiusX);
+
+		// initialize computation
+		computeFirstRow(w,row0);
+		// efficiently compute rest of the rows using previous results to avoid repeat computations
+		computeRemainingRows(w,row0,row1);
+	}
+
+	/**
+	 * Initializes disparity calculation by finding the scores for the initial block of horizontal
+	 * rows.
+	 */
+	private void computeFirstRow( WorkSpace w , int row0 ) {
+		// compute horizontal scores for first row block
+		for( int row = 0; row < regionHeight; row++ ) {
+
+			int scores[] = w.horizontalScore[row];
+
+			UtilDisparityScore.computeScoreRow(left, right, row0+row, scores,
+					minDisparity,maxDisparity,regionWidth,w.elementScore);
+		}
+
+		// compute score for the top possible row
+		for( int i = 0; i < lengthHorizontal; i++ ) {
+			int sum = 0;
+			for( int row = 0; row < regionHeight; row++ ) {
+				sum += w.horizontalScore[row][i];
+			}
+			w.verticalScore[i] = sum;
+		}
+
+		// compute disparity
+		w.computeDisparity.process(row0+radiusY, w.verticalScore);
+	}
+
+	/**
+	 * Using previously computed results it efficiently finds the disparity in the remaining rows.
+	 * When a new block is processes the last row/column is subtracted and the new row/column is
+	 * added.
+	 */
+	private void computeRemainingRows( WorkSpace w , int row0 , int row1 )
+	{
+		int verticalScore[] = w.verticalScore;
+
+		for( int row = row0+regionHeight; row < row1+regionHeight-1; row++ ) {
+			int oldRow = (row-row0)%regionHeight;
+
+			// subtract first row from vertical score
+			int scores[] = w.horizontalScore[oldRow];
+			for( int i = 0; i < lengthHorizontal; i++ ) {
+				verticalScore[i] -= scores[i];
+			}
+
+			UtilDisparityScore.computeScoreRow(left, right, row, scores,
+					minDisparity,maxDisparity,regionWidth,w.elementScore);
+
+			// add the new score
+			for( int i = 0; i < lengthHorizontal; i++ ) {
+				verticalScore[i] += scores[i];
+			}
+
+			// compute disparity
+			w.computeDisparity.process(row - regionHeight + 1 + radiusY, verticalScore);
+		}
+	}
+
+	@Override
+	public Class<GrayS16> getInputType() {
+		return GrayS16.class;
+	}
+
+	@Override
+	public Class<DI> getDisparityType() {
+		return computeDisparity.getDisparityType();
+	}
+
+	/**
+	 * Scores and disparity selection used by a single block of rows
+	 */
+	public static class WorkSpace {
+		// stores the local scores for the width of the region
+		int elementScore[];
+		// scores along horizontal axis for current block
+		int horizontalScore[][];
+		// summed scores along vertical axis
+		int verticalScore[];
+		// Computes disparity from scores. Each block has its own copy
+		DisparitySelect computeDisparity;
+
+		public void checkSize( int lengthHorizontal , int regionHeight , int width ) {
+			if( horizontalScore == null || horizontalScore.length != regionHeight ||
+					verticalScore.length < lengthHorizontal ) {
+				horizontalScore = new int[regionHeight][lengthHorizontal];
+				verticalScore = new int[lengthHorizontal];
+			}
+			if( elementScore == null || elementScore.length < width )
+				elementScore = new int[ width ];
+		}
+	}
+}
@@ -18,6 +18,7 @@
 
 package boofcv.alg.feature.disparity.impl;
 
+import boofcv.alg.feature.disparity.DisparitySelect;
 import boofcv.alg.feature.disparity.SelectRectBasicWta;
 import boofcv.struct.image.GrayU8;
 
@@ -61,6 +62,11 @@ public class ImplSelectRectBasicWta_S32_U8 extends SelectRectBasicWta<int[],Gray
 		}
 	}
 
+	@Override
+	public DisparitySelect<int[],GrayU8> concurrentCopy() {
+		return new ImplSelectRectBasicWta_S32_U8();
+	}
+
 	@Override
 	public Class<GrayU8> getDisparityType() {
 		return GrayU8.class;
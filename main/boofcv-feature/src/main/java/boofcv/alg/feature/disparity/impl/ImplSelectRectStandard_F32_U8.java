@@ -18,6 +18,7 @@
 
 package boofcv.alg.feature.disparity.impl;
 
+import boofcv.alg.feature.disparity.DisparitySelect;
 import boofcv.struct.image.GrayU8;
 
 /**
@@ -45,6 +46,13 @@ public class ImplSelectRectStandard_F32_U8 extends ImplSelectRectStandardBase_F3
 		imageDisparity.data[index] = (byte)value;
 	}
 
+	@Override
+	public DisparitySelect<float[],GrayU8> concurrentCopy() {
+		ImplSelectRectStandard_F32_U8 copy = new ImplSelectRectStandard_F32_U8(maxError,rightToLeftTolerance,0);
+		copy.textureThreshold = textureThreshold;
+		return copy;
+	}
+
 	@Override
 	public Class<GrayU8> getDisparityType() {
 		return GrayU8.class;
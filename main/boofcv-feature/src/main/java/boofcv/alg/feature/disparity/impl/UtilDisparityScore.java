@@ -29,6 +29,35 @@ import boofcv.struct.image.GrayU8;
  */
 public class UtilDisparityScore {
 
+	/**
+	 * Floating point vertical scores are summed from scratch for each region whose top row is a multiple of this
+	 * value, instead of being updated from the previous row. Floating point addition depends on the order,
+	 * so restarting at fixed rows makes the results the same no matter how the image is split into blocks by
+	 * concurrent implementations.
+	 */
+	public static final int RESTART_ROWS_F32 = 32;
+
+	/**
+	 * Sums the horizontal scores of every row in a region. Horizontal scores are stored in a rolling window
+	 * where image row y is stored in element y % horizontalScore.length. Rows are added from top to bottom.
+	 *
+	 * @param horizontalScore Rolling window of horizontal scores. One element for each row in the region.
+	 * @param top Image row at the top of the region
+	 * @param length Number of elements in each score array which are summed
+	 * @param verticalScore (Output) Sum of the horizontal scores
+	 */
+	public static void sumVertical( float[][] horizontalScore , int top , int length , float[] verticalScore ) {
+		final int regionHeight = horizontalScore.length;
+		float[] first = horizontalScore[top % regionHeight];
+		System.arraycopy(first,0,verticalScore,0,length);
+		for( int row = 1; row < regionHeight; row++ ) {
+			float[] scores = horizontalScore[(top+row) % regionHeight];
+			for( int i = 0; i < length; i++ ) {
+				verticalScore[i] += scores[i];
+			}
+		}
+	}
+
 	/**
 	 * Computes disparity score for an entire row.
 	 *
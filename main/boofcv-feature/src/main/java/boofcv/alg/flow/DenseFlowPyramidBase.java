@@ -26,6 +26,7 @@ import boofcv.core.image.border.BorderType;
 import boofcv.core.image.border.FactoryImageBorder;
 import boofcv.struct.image.GrayF32;
 import boofcv.struct.image.ImageGray;
+import boofcv.struct.image.ImagePool;
 import boofcv.struct.pyramid.ImagePyramid;
 import boofcv.struct.pyramid.PyramidFloat;
 
@@ -68,6 +69,10 @@ public abstract class DenseFlowPyramidBase<T extends ImageGray<T>> {
 	{
 		// declare image data structures
 		if( pyr1 == null || pyr1.getInputWidth() != image1.width || pyr1.getInputHeight() != image1.height ) {
+			if( pyr1 != null ) {
+				pyr1.recycleLayers();
+				pyr2.recycleLayers();
+			}
 			pyr1 = UtilDenseOpticalFlow.standardPyramid(image1.width, image1.height, scale, sigma, 5, maxLayers, GrayF32.class);
 			pyr2 = UtilDenseOpticalFlow.standardPyramid(image1.width, image1.height, scale, sigma, 5, maxLayers, GrayF32.class);
 
@@ -75,8 +80,8 @@ public abstract class DenseFlowPyramidBase<T extends ImageGray<T>> {
 			pyr2.initialize(image1.width,image1.height);
 		}
 
-		norm1.reshape(image1.width, image1.height);
-		norm2.reshape(image1.width, image1.height);
+		norm1 = ImagePool.reshape(norm1, image1.width, image1.height);
+		norm2 = ImagePool.reshape(norm2, image1.width, image1.height);
 
 		// normalize input image to make sure alpha is image independent
 		imageNormalization(image1, image2, norm1, norm2);
@@ -20,6 +20,7 @@ package boofcv.alg.shapes.polygon;
 
 import boofcv.alg.filter.binary.ContourPacked;
 import boofcv.alg.shapes.edge.EdgeIntensityPolygon;
+import boofcv.metrics.MetricsRecorder;
 import boofcv.misc.MovingAverage;
 import boofcv.struct.distort.PixelTransform2_F32;
 import boofcv.struct.image.GrayU8;
@@ -65,6 +66,7 @@ public class DetectPolygonBinaryGrayRefine<T extends ImageGray<T>> {
 
 	// timing for profiler
 	MovingAverage milliAdjustBias = new MovingAverage(0.8);
+	MetricsRecorder metrics = new MetricsRecorder("DetectPolygonBinaryGrayRefine");
 
 	/**
 	 * Configures the polygon detector
@@ -144,11 +146,13 @@ public class DetectPolygonBinaryGrayRefine<T extends ImageGray<T>> {
 	 * @param binary Binary version of grayscale image
 	 */
 	public void process(T gray , GrayU8 binary ) {
+		metrics.beginFrame();
 		detector.process(gray,binary);
 		if( refineGray != null )
 			refineGray.setImage(gray);
 		edgeIntensity.setImage(gray);
 
+		metrics.stage("detect");
 		long time0 = System.nanoTime();
 		FastQueue<DetectPolygonFromContour.Info> detections = detector.getFound();
 
@@ -165,10 +169,13 @@ public class DetectPolygonBinaryGrayRefine<T extends ImageGray<T>> {
 			}
 		}
 		long time1 = System.nanoTime();
+		metrics.stage("adjust_bias");
 
 		double milli = (time1-time0)*1e-6;
 
 		milliAdjustBias.update(milli);
+		metrics.count("polygons",detections.size());
+		metrics.endFrame();
 //		System.out.printf(" contour %7.2f shapes %7.2f adjust_bias %7.2f\n",
 //				detector.getMilliShapes(),detector.getMilliShapes(),milliAdjustBias);
 	}
@@ -23,6 +23,7 @@ import boofcv.abst.filter.binary.BinaryContourInterface;
 import boofcv.abst.shapes.polyline.PointsToPolyline;
 import boofcv.alg.InputSanityCheck;
 import boofcv.alg.filter.binary.ContourPacked;
+import boofcv.metrics.MetricsRecorder;
 import boofcv.misc.MovingAverage;
 import boofcv.struct.ConfigLength;
 import boofcv.struct.distort.PixelTransform2_F32;
@@ -127,6 +128,7 @@ public class DetectPolygonFromContour<T extends ImageGray<T>> {
 	// times for internal profiling
 	MovingAverage milliContour = new MovingAverage(0.8);
 	MovingAverage milliShapes = new MovingAverage(0.8);
+	MetricsRecorder metrics = new MetricsRecorder("DetectPolygonFromContour");
 
 	/**
 	 * Configures the detector.
@@ -232,17 +234,20 @@ public class DetectPolygonFromContour<T extends ImageGray<T>> {
 		if( contourEdgeIntensity != null )
 			contourEdgeIntensity.setImage(gray);
 
+		metrics.beginFrame();
 		long time0 = System.nanoTime();
 
 		// find all the contours
 		contourFinder.process(binary);
 
 		long time1 = System.nanoTime();
+		metrics.stage("contour");
 
 		// Using the contours find the polygons
 		findCandidateShapes();
 
 		long time2 = System.nanoTime();
+		metrics.stage("shapes");
 
 		double a = (time1-time0)*1e-6;
 		double b = (time2-time1)*1e-6;
@@ -250,6 +255,10 @@ public class DetectPolygonFromContour<T extends ImageGray<T>> {
 		milliContour.update(a);
 		milliShapes.update(b);
 
+		metrics.count("contours",contourFinder.getContours().size());
+		metrics.count("polygons",foundInfo.size);
+		metrics.endFrame();
+
 		if( verbose ) System.out.println("EXIT  DetectPolygonFromContour.process()");
 	}
 
@@ -505,4 +505,18 @@ public class KltTracker<I extends ImageGray<I>, D extends ImageGray<D>> {
 	public KltConfig getConfig() {
 		return config;
 	}
+
+	/**
+	 * Creates a new tracker with the same configuration. Interpolation is copied and the image isn't set.
+	 * Intended for use in concurrent code where each thread needs its own tracker.
+	 *
+	 * @return New instance of the tracker or null if the interpolation can't be copied
+	 */
+	public KltTracker<I,D> copy() {
+		InterpolateRectangle<I> copyInput = interpInput.copy();
+		InterpolateRectangle<D> copyDeriv = interpDeriv.copy();
+		if( copyInput == null || copyDeriv == null )
+			return null;
+		return new KltTracker<>(copyInput, copyDeriv, config);
+	}
 }
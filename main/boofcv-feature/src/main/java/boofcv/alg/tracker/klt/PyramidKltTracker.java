@@ -161,6 +161,17 @@ public class PyramidKltTracker<InputImage extends ImageGray<InputImage>, Derivat
 		return tracker.getError();
 	}
 
+	/**
+	 * Creates a new tracker with the same configuration. The images are not set. Intended for use in concurrent
+	 * code where each thread needs its own tracker.
+	 *
+	 * @return New instance of the tracker or null if the interpolation can't be copied
+	 */
+	public PyramidKltTracker<InputImage, DerivativeImage> copy() {
+		KltTracker<InputImage, DerivativeImage> copy = tracker.copy();
+		return copy == null ? null : new PyramidKltTracker<>(copy);
+	}
+
 	private void setupKltTracker(int layer) {
 		if (derivX != null)
 			tracker.unsafe_setImage(image.getLayer(layer), derivX[layer], derivY[layer]);
@@ -19,8 +19,12 @@
 package boofcv.factory.feature.associate;
 
 import boofcv.abst.feature.associate.*;
+import boofcv.alg.descriptor.KMeansTreeIndex;
+import boofcv.alg.descriptor.KMeansTreeIndex_B;
+import boofcv.alg.descriptor.KMeansTreeIndex_F64;
 import boofcv.alg.descriptor.KdTreeTuple_F64;
 import boofcv.alg.feature.associate.AssociateGreedy;
+import boofcv.alg.feature.associate.AssociateGreedyHamming_B;
 import boofcv.alg.feature.associate.AssociateNearestNeighbor;
 import boofcv.struct.feature.*;
 import org.ddogleg.nn.FactoryNearestNeighbor;
@@ -39,7 +43,8 @@ public class FactoryAssociation {
 
 	/**
 	 * Returns an algorithm for associating features together which uses a brute force greedy algorithm.
-	 * See {@link AssociateGreedy} for details.
+	 * See {@link AssociateGreedy} for details.  If the score is {@link ScoreAssociateHamming_B} then
+	 * {@link AssociateGreedyHamming_B} is used, which is specialized for binary descriptors.
 	 * 
 	 * @param score Computes the fit score between two features.
 	 * @param maxError Maximum allowed error/fit score between two features.  To disable set to Double.MAX_VALUE
@@ -53,7 +58,12 @@ public class FactoryAssociation {
 			double maxError ,
 			boolean backwardsValidation )
 	{
-		AssociateGreedy<D> alg = new AssociateGreedy<>(score, backwardsValidation);
+		AssociateGreedy<D> alg;
+		if( score instanceof ScoreAssociateHamming_B ) {
+			alg = (AssociateGreedy)new AssociateGreedyHamming_B((ScoreAssociateHamming_B)score, backwardsValidation);
+		} else {
+			alg = new AssociateGreedy<>(score, backwardsValidation);
+		}
 		alg.setMaxFitError(maxError);
 		WrapAssociateGreedy<D> ret = new WrapAssociateGreedy<>(alg);
 		return ret;
@@ -106,6 +116,50 @@ public class FactoryAssociation {
 		return associateNearestNeighbor(configNN,nn);
 	}
 
+	/**
+	 * Approximate association using a hierarchical k-means tree for descriptors with a high degree of freedom.
+	 * The index can be saved to disk and memory mapped, see {@link boofcv.alg.descriptor.KMeansTreeIndexIO}.
+	 *
+	 * @see AssociateNearestNeighbor
+	 * @see KMeansTreeIndex
+	 *
+	 * @param dimension Number of elements in the feature vector
+	 * @param branchFactor Maximum number of children a node in the tree can have. Try 32
+	 * @param maxChecks Maximum number of points examined for each search. Controls speed and accuracy.
+	 *                  If &le; 0 then the search is exact.
+	 * @param randomSeed Seed used by random number generator
+	 * @return Association using approximate nearest neighbor
+	 */
+	public static AssociateDescription<TupleDesc_F64> kmeansTree( ConfigAssociateNearestNeighbor configNN ,
+																  int dimension, int branchFactor , int maxChecks ,
+																  long randomSeed ) {
+		NearestNeighbor nn = new KMeansTreeIndex_F64(dimension,branchFactor,11,maxChecks,randomSeed);
+
+		return associateNearestNeighbor(configNN,nn);
+	}
+
+	/**
+	 * Approximate association for binary descriptors using a hierarchical k-means tree and hamming distance.
+	 * Since the distance isn't squared, {@link ConfigAssociateNearestNeighbor#distanceIsSquared} should be false.
+	 *
+	 * @see AssociateNearestNeighbor
+	 * @see KMeansTreeIndex_B
+	 *
+	 * @param numBits Number of bits in the descriptor
+	 * @param branchFactor Maximum number of children a node in the tree can have. Try 32
+	 * @param maxChecks Maximum number of points examined for each search. Controls speed and accuracy.
+	 *                  If &le; 0 then the search is exact.
+	 * @param randomSeed Seed used by random number generator
+	 * @return Association using approximate nearest neighbor
+	 */
+	public static AssociateDescription<TupleDesc_B> kmeansTreeBinary( ConfigAssociateNearestNeighbor configNN ,
+																	  int numBits, int branchFactor , int maxChecks ,
+																	  long randomSeed ) {
+		NearestNeighbor nn = new KMeansTreeIndex_B(numBits,branchFactor,11,maxChecks,randomSeed);
+
+		return (AssociateDescription)associateNearestNeighbor(configNN,nn);
+	}
+
 	public static AssociateNearestNeighbor<TupleDesc_F64>
 	associateNearestNeighbor( @Nullable ConfigAssociateNearestNeighbor config ,
 							  NearestNeighbor nn )
@@ -26,6 +26,7 @@ import boofcv.alg.feature.disparity.DisparityScoreRowFormat;
 import boofcv.alg.feature.disparity.DisparitySelect;
 import boofcv.alg.feature.disparity.DisparitySparseScoreSadRect;
 import boofcv.alg.feature.disparity.DisparitySparseSelect;
+import boofcv.concurrency.BoofConcurrency;
 import boofcv.struct.image.GrayF32;
 import boofcv.struct.image.GrayS16;
 import boofcv.struct.image.GrayU8;
@@ -52,11 +53,34 @@ import static boofcv.factory.feature.disparity.FactoryStereoDisparityAlgs.*;
  * to computing the disparity for a single pixel at a time as requested by the user,
  * </p>
  *
+ * <p>
+ * Dense algorithms will process blocks of rows in parallel when
+ * {@link boofcv.concurrency.BoofConcurrency#USE_CONCURRENT} is true, or when requested with the
+ * <code>concurrent</code> parameter. The output is identical to the single threaded implementation for all
+ * image types.
+ * </p>
+ *
  * @author Peter Abeles
  */
 @SuppressWarnings("unchecked")
 public class FactoryStereoDisparity {
 
+	/**
+	 * Same as {@link #regionWta(DisparityAlgorithms, int, int, int, int, double, int, double, boolean, Class)}
+	 * but concurrency is selected by {@link BoofConcurrency#USE_CONCURRENT}.
+	 */
+	public static <T extends ImageGray<T>> StereoDisparity<T,GrayU8>
+	regionWta( DisparityAlgorithms whichAlg ,
+			   int minDisparity , int maxDisparity,
+			   int regionRadiusX, int regionRadiusY ,
+			   double maxPerPixelError ,
+			   int validateRtoL ,
+			   double texture ,
+			   Class<T> imageType ) {
+		return regionWta(whichAlg,minDisparity,maxDisparity,regionRadiusX,regionRadiusY,
+				maxPerPixelError,validateRtoL,texture,BoofConcurrency.USE_CONCURRENT,imageType);
+	}
+
 	/**
 	 * <p>
 	 * Crates algorithms for computing dense disparity images up to pixel level accuracy.
@@ -74,6 +98,7 @@ public class FactoryStereoDisparity {
 	 * @param validateRtoL Tolerance for how difference the left to right associated values can be.  Try 6
 	 * @param texture Tolerance for how similar optimal region is to other region.  Closer to zero is more tolerant.
 	 *                Try 0.1
+	 * @param concurrent If true the dense score is computed using multiple threads
 	 * @param imageType Type of input image.
 	 * @return Rectangular region based WTA disparity.algorithm.
 	 */
@@ -84,6 +109,7 @@ public class FactoryStereoDisparity {
 			   double maxPerPixelError ,
 			   int validateRtoL ,
 			   double texture ,
+			   boolean concurrent ,
 			   Class<T> imageType ) {
 
 		double maxError = (regionRadiusX*2+1)*(regionRadiusY*2+1)*maxPerPixelError;
@@ -107,26 +133,26 @@ public class FactoryStereoDisparity {
 			case RECT:
 				if( imageType == GrayU8.class ) {
 					alg = FactoryStereoDisparityAlgs.scoreDisparitySadRect_U8(minDisparity,
-							maxDisparity,regionRadiusX,regionRadiusY,select);
+							maxDisparity,regionRadiusX,regionRadiusY,select,concurrent);
 				} else if( imageType == GrayS16.class ) {
 					alg = FactoryStereoDisparityAlgs.scoreDisparitySadRect_S16(minDisparity,
-							maxDisparity, regionRadiusX, regionRadiusY, select);
+							maxDisparity, regionRadiusX, regionRadiusY, select,concurrent);
 				} else if( imageType == GrayF32.class ) {
 					alg = FactoryStereoDisparityAlgs.scoreDisparitySadRect_F32(minDisparity,
-							maxDisparity, regionRadiusX, regionRadiusY, select);
+							maxDisparity, regionRadiusX, regionRadiusY, select,concurrent);
 				}
 				break;
 
 			case RECT_FIVE:
 				if( imageType == GrayU8.class ) {
 					alg = FactoryStereoDisparityAlgs.scoreDisparitySadRectFive_U8(minDisparity,
-							maxDisparity,regionRadiusX,regionRadiusY,select);
+							maxDisparity,regionRadiusX,regionRadiusY,select,concurrent);
 				} else if( imageType == GrayS16.class ) {
 					alg = FactoryStereoDisparityAlgs.scoreDisparitySadRectFive_S16(minDisparity,
-							maxDisparity, regionRadiusX, regionRadiusY, select);
+							maxDisparity, regionRadiusX, regionRadiusY, select,concurrent);
 				} else if( imageType == GrayF32.class ) {
 					alg = FactoryStereoDisparityAlgs.scoreDisparitySadRectFive_F32(minDisparity,
-							maxDisparity, regionRadiusX, regionRadiusY, select);
+							maxDisparity, regionRadiusX, regionRadiusY, select,concurrent);
 				}
 				break;
 
@@ -140,6 +166,22 @@ public class FactoryStereoDisparity {
 		return new WrapDisparitySadRect<>(alg);
 	}
 
+	/**
+	 * Same as {@link #regionSubpixelWta(DisparityAlgorithms, int, int, int, int, double, int, double, boolean, Class)}
+	 * but concurrency is selected by {@link BoofConcurrency#USE_CONCURRENT}.
+	 */
+	public static <T extends ImageGray<T>> StereoDisparity<T,GrayF32>
+	regionSubpixelWta( DisparityAlgorithms whichAlg ,
+					   int minDisparity , int maxDisparity,
+					   int regionRadiusX, int regionRadiusY ,
+					   double maxPerPixelError ,
+					   int validateRtoL ,
+					   double texture ,
+					   Class<T> imageType ) {
+		return regionSubpixelWta(whichAlg,minDisparity,maxDisparity,regionRadiusX,regionRadiusY,
+				maxPerPixelError,validateRtoL,texture,BoofConcurrency.USE_CONCURRENT,imageType);
+	}
+
 	/**
 	 * <p>
 	 * Returns an algorithm for computing a dense disparity images with sub-pixel disparity accuracy.
@@ -157,6 +199,7 @@ public class FactoryStereoDisparity {
 	 * @param validateRtoL Tolerance for how difference the left to right associated values can be.  Try 6
 	 * @param texture Tolerance for how similar optimal region is to other region.  Disable with a value &le; 0.
 	 *                Closer to zero is more tolerant. Try 0.1
+	 * @param concurrent If true the dense score is computed using multiple threads
 	 * @param imageType Type of input image.
 	 * @return Rectangular region based WTA disparity.algorithm.
 	 */
@@ -167,6 +210,7 @@ public class FactoryStereoDisparity {
 					   double maxPerPixelError ,
 					   int validateRtoL ,
 					   double texture ,
+					   boolean concurrent ,
 					   Class<T> imageType ) {
 
 		double maxError = (regionRadiusX*2+1)*(regionRadiusY*2+1)*maxPerPixelError;
@@ -190,26 +234,26 @@ public class FactoryStereoDisparity {
 			case RECT:
 				if( imageType == GrayU8.class ) {
 					alg = FactoryStereoDisparityAlgs.scoreDisparitySadRect_U8(minDisparity,
-							maxDisparity,regionRadiusX,regionRadiusY,select);
+							maxDisparity,regionRadiusX,regionRadiusY,select,concurrent);
 				} else if( imageType == GrayS16.class ) {
 					alg = FactoryStereoDisparityAlgs.scoreDisparitySadRect_S16(minDisparity,
-							maxDisparity, regionRadiusX, regionRadiusY, select);
+							maxDisparity, regionRadiusX, regionRadiusY, select,concurrent);
 				} else if( imageType == GrayF32.class ) {
 					alg = FactoryStereoDisparityAlgs.scoreDisparitySadRect_F32(minDisparity,
-							maxDisparity, regionRadiusX, regionRadiusY, select);
+							maxDisparity, regionRadiusX, regionRadiusY, select,concurrent);
 				}
 				break;
 
 			case RECT_FIVE:
 				if( imageType == GrayU8.class ) {
 					alg = FactoryStereoDisparityAlgs.scoreDisparitySadRectFive_U8(minDisparity,
-							maxDisparity,regionRadiusX,regionRadiusY,select);
+							maxDisparity,regionRadiusX,regionRadiusY,select,concurrent);
 				} else if( imageType == GrayS16.class ) {
 					alg = FactoryStereoDisparityAlgs.scoreDisparitySadRectFive_S16(minDisparity,
-							maxDisparity, regionRadiusX, regionRadiusY, select);
+							maxDisparity, regionRadiusX, regionRadiusY, select,concurrent);
 				} else if( imageType == GrayF32.class ) {
 					alg = FactoryStereoDisparityAlgs.scoreDisparitySadRectFive_F32(minDisparity,
-							maxDisparity, regionRadiusX, regionRadiusY, select);
+							maxDisparity, regionRadiusX, regionRadiusY, select,concurrent);
 				}
 				break;
 
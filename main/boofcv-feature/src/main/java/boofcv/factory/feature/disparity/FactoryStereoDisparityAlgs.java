@@ -20,6 +20,7 @@ package boofcv.factory.feature.disparity;
 
 import boofcv.alg.feature.disparity.*;
 import boofcv.alg.feature.disparity.impl.*;
+import boofcv.concurrency.BoofConcurrency;
 import boofcv.struct.image.GrayF32;
 import boofcv.struct.image.GrayS16;
 import boofcv.struct.image.GrayU8;
@@ -87,8 +88,23 @@ public class FactoryStereoDisparityAlgs {
 						   int regionRadiusX, int regionRadiusY,
 						   DisparitySelect<int[],T> computeDisparity)
 	{
-		return new ImplDisparityScoreSadRect_U8<>(minDisparity,
-				maxDisparity, regionRadiusX, regionRadiusY, computeDisparity);
+		return scoreDisparitySadRect_U8(minDisparity,maxDisparity,regionRadiusX,regionRadiusY,
+				computeDisparity,BoofConcurrency.USE_CONCURRENT);
+	}
+
+	public static <T extends ImageGray<T>> DisparityScoreSadRect<GrayU8,T>
+	scoreDisparitySadRect_U8( int minDisparity , int maxDisparity,
+						   int regionRadiusX, int regionRadiusY,
+						   DisparitySelect<int[],T> computeDisparity,
+						   boolean concurrent )
+	{
+		if( useConcurrent(concurrent,computeDisparity) ) {
+			return new ImplDisparityScoreSadRect_U8_MT<>(minDisparity,
+					maxDisparity, regionRadiusX, regionRadiusY, computeDisparity);
+		} else {
+			return new ImplDisparityScoreSadRect_U8<>(minDisparity,
+					maxDisparity, regionRadiusX, regionRadiusY, computeDisparity);
+		}
 	}
 
 	public static <T extends ImageGray<T>> DisparityScoreSadRect<GrayS16,T>
@@ -96,8 +112,23 @@ public class FactoryStereoDisparityAlgs {
 							  int regionRadiusX, int regionRadiusY,
 							  DisparitySelect<int[],T> computeDisparity)
 	{
-		return new ImplDisparityScoreSadRect_S16<>(minDisparity,
-				maxDisparity, regionRadiusX, regionRadiusY, computeDisparity);
+		return scoreDisparitySadRect_S16(minDisparity,maxDisparity,regionRadiusX,regionRadiusY,
+				computeDisparity,BoofConcurrency.USE_CONCURRENT);
+	}
+
+	public static <T extends ImageGray<T>> DisparityScoreSadRect<GrayS16,T>
+	scoreDisparitySadRect_S16( int minDisparity , int maxDisparity,
+							  int regionRadiusX, int regionRadiusY,
+							  DisparitySelect<int[],T> computeDisparity,
+							  boolean concurrent )
+	{
+		if( useConcurrent(concurrent,computeDisparity) ) {
+			return new ImplDisparityScoreSadRect_S16_MT<>(minDisparity,
+					maxDisparity, regionRadiusX, regionRadiusY, computeDisparity);
+		} else {
+			return new ImplDisparityScoreSadRect_S16<>(minDisparity,
+					maxDisparity, regionRadiusX, regionRadiusY, computeDisparity);
+		}
 	}
 
 	public static <T extends ImageGray<T>> DisparityScoreSadRect<GrayF32,T>
@@ -105,8 +136,23 @@ public class FactoryStereoDisparityAlgs {
 							  int regionRadiusX, int regionRadiusY,
 							  DisparitySelect<float[],T> computeDisparity)
 	{
-		return new ImplDisparityScoreSadRect_F32<>(minDisparity,
-				maxDisparity, regionRadiusX, regionRadiusY, computeDisparity);
+		return scoreDisparitySadRect_F32(minDisparity,maxDisparity,regionRadiusX,regionRadiusY,
+				computeDisparity,BoofConcurrency.USE_CONCURRENT);
+	}
+
+	public static <T extends ImageGray<T>> DisparityScoreSadRect<GrayF32,T>
+	scoreDisparitySadRect_F32( int minDisparity , int maxDisparity,
+							  int regionRadiusX, int regionRadiusY,
+							  DisparitySelect<float[],T> computeDisparity,
+							  boolean concurrent )
+	{
+		if( useConcurrent(concurrent,computeDisparity) ) {
+			return new ImplDisparityScoreSadRect_F32_MT<>(minDisparity,
+					maxDisparity, regionRadiusX, regionRadiusY, computeDisparity);
+		} else {
+			return new ImplDisparityScoreSadRect_F32<>(minDisparity,
+					maxDisparity, regionRadiusX, regionRadiusY, computeDisparity);
+		}
 	}
 
 	public static <T extends ImageGray<T>> DisparityScoreWindowFive<GrayU8,T>
@@ -114,8 +160,23 @@ public class FactoryStereoDisparityAlgs {
 								  int regionRadiusX, int regionRadiusY,
 								  DisparitySelect<int[],T> computeDisparity)
 	{
-		return new ImplDisparityScoreSadRectFive_U8<>(minDisparity,
-				maxDisparity, regionRadiusX, regionRadiusY, computeDisparity);
+		return scoreDisparitySadRectFive_U8(minDisparity,maxDisparity,regionRadiusX,regionRadiusY,
+				computeDisparity,BoofConcurrency.USE_CONCURRENT);
+	}
+
+	public static <T extends ImageGray<T>> DisparityScoreWindowFive<GrayU8,T>
+	scoreDisparitySadRectFive_U8( int minDisparity , int maxDisparity,
+								  int regionRadiusX, int regionRadiusY,
+								  DisparitySelect<int[],T> computeDisparity,
+								  boolean concurrent )
+	{
+		if( useConcurrent(concurrent,computeDisparity) ) {
+			return new ImplDisparityScoreSadRectFive_U8_MT<>(minDisparity,
+					maxDisparity, regionRadiusX, regionRadiusY, computeDisparity);
+		} else {
+			return new ImplDisparityScoreSadRectFive_U8<>(minDisparity,
+					maxDisparity, regionRadiusX, regionRadiusY, computeDisparity);
+		}
 	}
 
 	public static <T extends ImageGray<T>> DisparityScoreWindowFive<GrayS16,T>
@@ -123,8 +184,23 @@ public class FactoryStereoDisparityAlgs {
 								  int regionRadiusX, int regionRadiusY,
 								  DisparitySelect<int[],T> computeDisparity)
 	{
-		return new ImplDisparityScoreSadRectFive_S16<>(minDisparity,
-				maxDisparity, regionRadiusX, regionRadiusY, computeDisparity);
+		return scoreDisparitySadRectFive_S16(minDisparity,maxDisparity,regionRadiusX,regionRadiusY,
+				computeDisparity,BoofConcurrency.USE_CONCURRENT);
+	}
+
+	public static <T extends ImageGray<T>> DisparityScoreWindowFive<GrayS16,T>
+	scoreDisparitySadRectFive_S16( int minDisparity , int maxDisparity,
+								  int regionRadiusX, int regionRadiusY,
+								  DisparitySelect<int[],T> computeDisparity,
+								  boolean concurrent )
+	{
+		if( useConcurrent(concurrent,computeDisparity) ) {
+			return new ImplDisparityScoreSadRectFive_S16_MT<>(minDisparity,
+					maxDisparity, regionRadiusX, regionRadiusY, computeDisparity);
+		} else {
+			return new ImplDisparityScoreSadRectFive_S16<>(minDisparity,
+					maxDisparity, regionRadiusX, regionRadiusY, computeDisparity);
+		}
 	}
 
 	public static <T extends ImageGray<T>> DisparityScoreWindowFive<GrayF32,T>
@@ -132,8 +208,31 @@ public class FactoryStereoDisparityAlgs {
 								   int regionRadiusX, int regionRadiusY,
 								   DisparitySelect<float[],T> computeDisparity)
 	{
-		return new ImplDisparityScoreSadRectFive_F32<>(minDisparity,
-				maxDisparity, regionRadiusX, regionRadiusY, computeDisparity);
+		return scoreDisparitySadRectFive_F32(minDisparity,maxDisparity,regionRadiusX,regionRadiusY,
+				computeDisparity,BoofConcurrency.USE_CONCURRENT);
+	}
+
+	public static <T extends ImageGray<T>> DisparityScoreWindowFive<GrayF32,T>
+	scoreDisparitySadRectFive_F32( int minDisparity , int maxDisparity,
+								   int regionRadiusX, int regionRadiusY,
+								   DisparitySelect<float[],T> computeDisparity,
+								   boolean concurrent )
+	{
+		if( useConcurrent(concurrent,computeDisparity) ) {
+			return new ImplDisparityScoreSadRectFive_F32_MT<>(minDisparity,
+					maxDisparity, regionRadiusX, regionRadiusY, computeDisparity);
+		} else {
+			return new ImplDisparityScoreSadRectFive_F32<>(minDisparity,
+					maxDisparity, regionRadiusX, regionRadiusY, computeDisparity);
+		}
+	}
+
+	/**
+	 * The concurrent implementations need a copy of the {@link DisparitySelect} for each thread. If one can't be
+	 * made then the single threaded implementation is used.
+	 */
+	private static boolean useConcurrent( boolean concurrent , DisparitySelect computeDisparity ) {
+		return concurrent && computeDisparity.concurrentCopy() != null;
 	}
 
 	public static DisparitySparseScoreSadRect<int[],GrayU8>
@@ -0,0 +1,75 @@
+/*
+ * Copyright (c) 2011-2018, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package boofcv.struct.feature;
+
+/**
+ * Stores a set of feature descriptors in a single contiguous array instead of one object per descriptor. Looping
+ * through a packed set avoids chasing a pointer to a different array for every descriptor, which is what dominates
+ * the cost of association with a large number of features.
+ *
+ * @param <D> Feature description type.
+ * @author Peter Abeles
+ */
+public interface PackedTupleArray<D> {
+
+	/**
+	 * Discards all descriptors without releasing memory
+	 */
+	void reset();
+
+	/**
+	 * Ensures that there's enough storage for the specified number of descriptors without needing to grow
+	 *
+	 * @param numDescriptors Number of descriptors
+	 */
+	void reserve( int numDescriptors );
+
+	/**
+	 * Copies the descriptor onto the end of the array
+	 *
+	 * @param description The descriptor which is to be added
+	 */
+	void append( D description );
+
+	/**
+	 * Returns a copy of the descriptor at the specified index. The returned instance is owned by this class and
+	 * is modified the next time this function is called.
+	 *
+	 * @param index Which descriptor
+	 * @return Internal descriptor which has been set to the requested value
+	 */
+	D getTemporary( int index );
+
+	/**
+	 * Copies the descriptor at the specified index into the provided descriptor
+	 *
+	 * @param index Which descriptor
+	 * @param dst (Output) Storage for the copy
+	 */
+	void getCopy( int index , D dst );
+
+	/**
+	 * Creates a new descriptor which can store descriptors in this array
+	 */
+	D createDescription();
+
+	/**
+	 * Number of descriptors in the array
+	 */
+	int size();
+}
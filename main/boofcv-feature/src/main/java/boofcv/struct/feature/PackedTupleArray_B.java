@@ -0,0 +1,123 @@
+/*
+ * Copyright (c) 2011-2018, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package boofcv.struct.feature;
+
+import org.ddogleg.struct.GrowQueue_I64;
+
+/**
+ * Packed array of {@link TupleDesc_B}. Pairs of 32-bit integers are packed into a single long so that 64-bits
+ * can be processed at once when computing the hamming distance. If there are an odd number of integers then
+ * the upper bits of the last long are zero. Descriptor i is stored in {@link #data} starting at index i*numWords.
+ *
+ * @author Peter Abeles
+ */
+public class PackedTupleArray_B implements PackedTupleArray<TupleDesc_B> {
+	// number of bits in each descriptor
+	public final int numBits;
+	// number of integers in each descriptor
+	public final int numInts;
+	// number of longs in each packed descriptor
+	public final int numWords;
+	// all the descriptors packed into a single array
+	public final GrowQueue_I64 data = new GrowQueue_I64(0);
+	// number of descriptors
+	protected int numElements;
+
+	// returned by getTemporary()
+	private TupleDesc_B temp;
+
+	public PackedTupleArray_B( int numBits ) {
+		this.numBits = numBits;
+		this.temp = new TupleDesc_B(numBits);
+		this.numInts = temp.data.length;
+		this.numWords = (numInts+1)/2;
+	}
+
+	@Override
+	public void reset() {
+		numElements = 0;
+		data.reset();
+	}
+
+	@Override
+	public void reserve( int numDescriptors ) {
+		growArray(numDescriptors*numWords);
+	}
+
+	@Override
+	public void append( TupleDesc_B description ) {
+		if( description.numBits != numBits )
+			throw new IllegalArgumentException("All descriptors must be the same size");
+		final int[] d = description.data;
+
+		int index = data.size;
+		if( index+numWords > data.data.length ) {
+			growArray(Math.max(index+numWords,data.data.length*2));
+		}
+
+		final long[] packed = data.data;
+		int k = 0;
+		for( ; k+1 < d.length; k += 2 ) {
+			packed[index++] = (d[k] & 0xFFFFFFFFL) | ((long)d[k+1] << 32);
+		}
+		if( k < d.length ) {
+			packed[index] = d[k] & 0xFFFFFFFFL;
+		}
+		data.size += numWords;
+		numElements++;
+	}
+
+	/**
+	 * Increases the size of the internal array while preserving its contents
+	 */
+	private void growArray( int length ) {
+		if( data.data.length >= length )
+			return;
+		long[] tmp = new long[length];
+		System.arraycopy(data.data,0,tmp,0,data.size);
+		data.data = tmp;
+	}
+
+	@Override
+	public TupleDesc_B getTemporary( int index ) {
+		getCopy(index,temp);
+		return temp;
+	}
+
+	@Override
+	public void getCopy( int index , TupleDesc_B dst ) {
+		final long[] packed = data.data;
+		final int[] d = dst.data;
+		int offset = index*numWords;
+		for( int k = 0; k < d.length; k++ ) {
+			long word = packed[offset + k/2];
+			d[k] = (int)(k%2 == 0 ? word : word >>> 32);
+		}
+		dst.numBits = numBits;
+	}
+
+	@Override
+	public TupleDesc_B createDescription() {
+		return new TupleDesc_B(numBits);
+	}
+
+	@Override
+	public int size() {
+		return numElements;
+	}
+}
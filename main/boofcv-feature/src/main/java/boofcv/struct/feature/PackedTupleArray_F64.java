@@ -0,0 +1,106 @@
+/*
+ * Copyright (c) 2011-2018, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package boofcv.struct.feature;
+
+import org.ddogleg.struct.GrowQueue_F64;
+
+/**
+ * Packed array of {@link TupleDesc_F64}. Descriptor i is stored in {@link #data} starting at index i*dof.
+ *
+ * @author Peter Abeles
+ */
+public class PackedTupleArray_F64 implements PackedTupleArray<TupleDesc_F64> {
+	// degree-of-freedom, number of elements in each descriptor
+	public final int dof;
+	// all the descriptors packed into a single array
+	public final GrowQueue_F64 data = new GrowQueue_F64(0);
+	// number of descriptors
+	protected int numElements;
+
+	// returned by getTemporary()
+	private TupleDesc_F64 temp;
+
+	public PackedTupleArray_F64( int dof ) {
+		this.dof = dof;
+		this.temp = new TupleDesc_F64(dof);
+	}
+
+	@Override
+	public void reset() {
+		numElements = 0;
+		data.reset();
+	}
+
+	@Override
+	public void reserve( int numDescriptors ) {
+		growArray(numDescriptors*dof);
+	}
+
+	@Override
+	public void append( TupleDesc_F64 description ) {
+		append(description.value,0);
+	}
+
+	/**
+	 * Copies a descriptor from an array onto the end of the packed array
+	 *
+	 * @param src Array containing the descriptor
+	 * @param offset Index of the descriptor's first element in src
+	 */
+	public void append( double[] src , int offset ) {
+		int index = data.size;
+		if( index+dof > data.data.length ) {
+			growArray(Math.max(index+dof,data.data.length*2));
+		}
+		System.arraycopy(src,offset,data.data,index,dof);
+		data.size += dof;
+		numElements++;
+	}
+
+	/**
+	 * Increases the size of the internal array while preserving its contents
+	 */
+	private void growArray( int length ) {
+		if( data.data.length >= length )
+			return;
+		double[] tmp = new double[length];
+		System.arraycopy(data.data,0,tmp,0,data.size);
+		data.data = tmp;
+	}
+
+	@Override
+	public TupleDesc_F64 getTemporary( int index ) {
+		getCopy(index,temp);
+		return temp;
+	}
+
+	@Override
+	public void getCopy( int index , TupleDesc_F64 dst ) {
+		System.arraycopy(data.data,index*dof,dst.value,0,dof);
+	}
+
+	@Override
+	public TupleDesc_F64 createDescription() {
+		return new TupleDesc_F64(dof);
+	}
+
+	@Override
+	public int size() {
+		return numElements;
+	}
+}
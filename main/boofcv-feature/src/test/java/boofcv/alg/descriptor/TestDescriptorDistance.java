@@ -187,6 +187,44 @@ public class TestDescriptorDistance {
 		assertEquals(8,DescriptorDistance.hamming(0xF000000F));
 	}
 
+	/**
+	 * Compare the packed array versions against the descriptor versions
+	 */
+	@Test
+	public void packedArrays() {
+		PackedTupleArray_F64 packed64 = new PackedTupleArray_F64(7);
+		PackedTupleArray_F32 packed32 = new PackedTupleArray_F32(7);
+		PackedTupleArray_B packedB = new PackedTupleArray_B(96);
+		TupleDesc_F64[] d64 = new TupleDesc_F64[3];
+		TupleDesc_F32[] d32 = new TupleDesc_F32[3];
+		TupleDesc_B[] dB = new TupleDesc_B[3];
+		for( int i = 0; i < 3; i++ ) {
+			d64[i] = new TupleDesc_F64(7);
+			d32[i] = new TupleDesc_F32(7);
+			dB[i] = new TupleDesc_B(96);
+			for( int j = 0; j < 7; j++ ) {
+				d64[i].value[j] = rand.nextGaussian();
+				d32[i].value[j] = (float)rand.nextGaussian();
+			}
+			for( int j = 0; j < dB[i].data.length; j++ ) {
+				dB[i].data[j] = rand.nextInt();
+			}
+			packed64.append(d64[i]);
+			packed32.append(d32[i]);
+			packedB.append(dB[i]);
+		}
+
+		double[] a64 = packed64.data.data;
+		float[] a32 = packed32.data.data;
+		long[] aB = packedB.data.data;
+		assertEquals(DescriptorDistance.euclideanSq(d64[0],d64[2]),DescriptorDistance.euclideanSq(a64,0,a64,14,7),1e-8);
+		assertEquals(DescriptorDistance.sad(d64[2],d64[1]),DescriptorDistance.sad(a64,14,a64,7,7),1e-8);
+		assertEquals(DescriptorDistance.euclideanSq(d32[0],d32[2]),DescriptorDistance.euclideanSq(a32,0,a32,14,7),1e-4);
+		assertEquals(DescriptorDistance.sad(d32[2],d32[1]),DescriptorDistance.sad(a32,14,a32,7,7),1e-4);
+		assertEquals(DescriptorDistance.hamming(dB[0],dB[2]),DescriptorDistance.hamming(aB,0,aB,4,2));
+		assertEquals(DescriptorDistance.hamming(dB[1],dB[2]),DescriptorDistance.hamming(aB,2,aB,4,2));
+	}
+
 	private int hamming( TupleDesc_B a, TupleDesc_B b) {
 		int ret = 0;
 		for( int i = 0; i < a.data.length; i++ ) {
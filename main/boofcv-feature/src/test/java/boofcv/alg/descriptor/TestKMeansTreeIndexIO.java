@@ -0,0 +1,130 @@
+/*
+ * Copyright (c) 2011-2018, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package boofcv.alg.descriptor;
+
+import boofcv.struct.feature.PackedTupleArray_B;
+import boofcv.struct.feature.PackedTupleArray_F64;
+import boofcv.struct.feature.TupleDesc_B;
+import boofcv.struct.feature.TupleDesc_F64;
+import org.ddogleg.nn.NnData;
+import org.ddogleg.struct.FastQueue;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestKMeansTreeIndexIO {
+
+	Random rand = new Random(234);
+
+	@Test
+	public void saveLoad_F64() throws IOException {
+		int dof = 12;
+		PackedTupleArray_F64 points = new PackedTupleArray_F64(dof);
+		PackedTupleArray_F64 queries = new PackedTupleArray_F64(dof);
+		TupleDesc_F64 d = new TupleDesc_F64(dof);
+		for( int i = 0; i < 1030; i++ ) {
+			for( int j = 0; j < dof; j++ ) {
+				d.value[j] = rand.nextGaussian();
+			}
+			(i < 1000 ? points : queries).append(d);
+		}
+
+		KMeansTreeIndex_F64 expected = new KMeansTreeIndex_F64(dof,8,11,50,234);
+		expected.setPoints(points);
+
+		File file = createTempFile();
+		KMeansTreeIndexIO.save(expected,file);
+		KMeansTreeIndex<TupleDesc_F64> found = KMeansTreeIndexIO.load(file);
+
+		assertTrue(found instanceof KMeansTreeIndex_F64);
+		assertEquals(dof,((KMeansTreeIndex_F64)found).getDof());
+		checkIdentical(expected,found,queries.size(),queries::getTemporary);
+	}
+
+	@Test
+	public void saveLoad_B() throws IOException {
+		int numBits = 96;
+		PackedTupleArray_B points = new PackedTupleArray_B(numBits);
+		PackedTupleArray_B queries = new PackedTupleArray_B(numBits);
+		TupleDesc_B d = new TupleDesc_B(numBits);
+		for( int i = 0; i < 1030; i++ ) {
+			for( int j = 0; j < d.data.length; j++ ) {
+				d.data[j] = rand.nextInt();
+			}
+			(i < 1000 ? points : queries).append(d);
+		}
+
+		KMeansTreeIndex_B expected = new KMeansTreeIndex_B(numBits,8,11,50,234);
+		expected.setPoints(points);
+
+		File file = createTempFile();
+		KMeansTreeIndexIO.save(expected,file);
+		KMeansTreeIndex<TupleDesc_B> found = KMeansTreeIndexIO.load(file);
+
+		assertTrue(found instanceof KMeansTreeIndex_B);
+		assertEquals(numBits,((KMeansTreeIndex_B)found).getNumBits());
+		checkIdentical(expected,found,queries.size(),queries::getTemporary);
+	}
+
+	@Test(expected = IOException.class)
+	public void load_notIndex() throws IOException {
+		File file = createTempFile();
+		try( RandomAccessFile raf = new RandomAccessFile(file,"rw") ) {
+			raf.write(new byte[200]);
+		}
+		KMeansTreeIndexIO.load(file);
+	}
+
+	interface Query<D> {
+		D get( int index );
+	}
+
+	private <D> void checkIdentical( KMeansTreeIndex<D> expected , KMeansTreeIndex<D> found ,
+									 int numQueries , Query<D> queries ) {
+		assertEquals(expected.getNumPoints(),found.getNumPoints());
+		assertEquals(expected.getNumNodes(),found.getNumNodes());
+		assertEquals(expected.getBranchFactor(),found.getBranchFactor());
+		assertEquals(expected.getMaxChecks(),found.getMaxChecks());
+
+		FastQueue<NnData<D>> resultsA = new FastQueue(NnData.class,true);
+		FastQueue<NnData<D>> resultsB = new FastQueue(NnData.class,true);
+		for( int i = 0; i < numQueries; i++ ) {
+			expected.findNearest(queries.get(i),-1,3,resultsA);
+			found.findNearest(queries.get(i),-1,3,resultsB);
+			assertEquals(resultsA.size,resultsB.size);
+			for( int j = 0; j < resultsA.size; j++ ) {
+				assertEquals(resultsA.get(j).index,resultsB.get(j).index);
+				assertEquals(resultsA.get(j).distance,resultsB.get(j).distance,0);
+			}
+		}
+	}
+
+	private static File createTempFile() throws IOException {
+		File file = File.createTempFile("boofcv",".kmt");
+		file.deleteOnExit();
+		return file;
+	}
+}
@@ -0,0 +1,101 @@
+/*
+ * Copyright (c) 2011-2018, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package boofcv.alg.descriptor;
+
+import boofcv.struct.feature.PackedTupleArray_B;
+import boofcv.struct.feature.TupleDesc_B;
+import org.ddogleg.nn.NnData;
+import org.ddogleg.struct.FastQueue;
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestKMeansTreeIndex_B {
+
+	Random rand = new Random(234);
+
+	/**
+	 * When every leaf is examined the best distance should be identical to brute force. Ties are common with
+	 * hamming distance so the distance is compared and not the index
+	 */
+	@Test
+	public void exact() {
+		for( int numBits : new int[]{96,256} ) {
+			PackedTupleArray_B points = createPoints(numBits,1000);
+			PackedTupleArray_B queries = createPoints(numBits,40);
+
+			KMeansTreeIndex_B alg = new KMeansTreeIndex_B(numBits,8,11,-1,234);
+			alg.setPoints(points);
+
+			NnData<TupleDesc_B> result = new NnData<>();
+			FastQueue<NnData<TupleDesc_B>> found = new FastQueue(NnData.class,true);
+			for( int i = 0; i < queries.size(); i++ ) {
+				TupleDesc_B q = queries.getTemporary(i);
+				int best = Integer.MAX_VALUE;
+				for( int j = 0; j < points.size(); j++ ) {
+					best = Math.min(best,DescriptorDistance.hamming(q,points.getTemporary(j)));
+				}
+
+				assertTrue(alg.findNearest(q,-1,result));
+				assertEquals(best,result.distance,1e-8);
+				assertEquals(best,DescriptorDistance.hamming(q,points.getTemporary(result.index)));
+
+				alg.findNearest(q,-1,4,found);
+				assertEquals(4,found.size);
+				for( int j = 1; j < 4; j++ ) {
+					assertTrue(found.get(j-1).distance <= found.get(j).distance);
+				}
+			}
+		}
+	}
+
+	/**
+	 * A point which is in the index should be found
+	 */
+	@Test
+	public void findSelf() {
+		PackedTupleArray_B points = createPoints(512,2000);
+		KMeansTreeIndex_B alg = new KMeansTreeIndex_B(512,16,11,64,234);
+		alg.setPoints(points);
+
+		NnData<TupleDesc_B> result = new NnData<>();
+		for( int i = 0; i < points.size(); i += 20 ) {
+			assertTrue(alg.findNearest(points.getTemporary(i),-1,result));
+			assertEquals(i,result.index);
+			assertEquals(0,result.distance,1e-8);
+		}
+	}
+
+	private PackedTupleArray_B createPoints( int numBits , int total ) {
+		PackedTupleArray_B ret = new PackedTupleArray_B(numBits);
+		TupleDesc_B d = new TupleDesc_B(numBits);
+		for( int i = 0; i < total; i++ ) {
+			for( int j = 0; j < d.data.length; j++ ) {
+				d.data[j] = rand.nextInt();
+			}
+			ret.append(d);
+		}
+		return ret;
+	}
+}
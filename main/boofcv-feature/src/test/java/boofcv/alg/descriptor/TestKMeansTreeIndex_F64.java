@@ -0,0 +1,273 @@
+/*
+ * Copyright (c) 2011-2018, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package boofcv.alg.descriptor;
+
+import boofcv.concurrency.BoofConcurrency;
+import boofcv.struct.feature.PackedTupleArray_F64;
+import boofcv.struct.feature.TupleDesc_F64;
+import org.ddogleg.nn.NnData;
+import org.ddogleg.struct.FastQueue;
+import org.ddogleg.struct.GrowQueue_F64;
+import org.ddogleg.struct.GrowQueue_I32;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestKMeansTreeIndex_F64 {
+
+	Random rand = new Random(234);
+	int DOF = 16;
+
+	/**
+	 * When every leaf is examined the results should be identical to brute force
+	 */
+	@Test
+	public void exact() {
+		PackedTupleArray_F64 points = createPoints(1500);
+		PackedTupleArray_F64 queries = createPoints(50);
+
+		KMeansTreeIndex_F64 alg = new KMeansTreeIndex_F64(DOF,8,11,-1,234);
+		alg.setPoints(points);
+
+		FastQueue<NnData<TupleDesc_F64>> found = new FastQueue(NnData.class,true);
+		NnData<TupleDesc_F64> result = new NnData<>();
+		for( int i = 0; i < queries.size(); i++ ) {
+			TupleDesc_F64 q = queries.getTemporary(i);
+			int[] expected = bruteForce(points,q,3);
+
+			assertTrue(alg.findNearest(q,-1,result));
+			assertEquals(expected[0],result.index);
+			assertEquals(DescriptorDistance.euclideanSq(q,points.getTemporary(expected[0])),result.distance,1e-8);
+
+			alg.findNearest(q,-1,3,found);
+			assertEquals(3,found.size);
+			for( int j = 0; j < 3; j++ ) {
+				assertEquals(expected[j],found.get(j).index);
+			}
+		}
+	}
+
+	/**
+	 * Recall should be high when a reasonable number of points are examined and increase with maxChecks
+	 */
+	@Test
+	public void approximate_recall() {
+		PackedTupleArray_F64 points = createClusteredPoints(5000);
+		PackedTupleArray_F64 queries = createClusteredPoints(200);
+
+		KMeansTreeIndex_F64 alg = new KMeansTreeIndex_F64(DOF,16,11,100,234);
+		alg.setPoints(points);
+		int correctLow = countCorrect(alg,points,queries);
+		alg.setMaxChecks(1000);
+		int correctHigh = countCorrect(alg,points,queries);
+
+		assertTrue(correctLow > queries.size()*0.5);
+		assertTrue(correctHigh >= correctLow);
+		assertTrue(correctHigh > queries.size()*0.9);
+	}
+
+	private int countCorrect( KMeansTreeIndex_F64 alg , PackedTupleArray_F64 points , PackedTupleArray_F64 queries ) {
+		NnData<TupleDesc_F64> result = new NnData<>();
+		int correct = 0;
+		for( int i = 0; i < queries.size(); i++ ) {
+			TupleDesc_F64 q = queries.getTemporary(i);
+			alg.findNearest(q,-1,result);
+			if( result.index == bruteForce(points,q,1)[0] )
+				correct++;
+		}
+		return correct;
+	}
+
+	/**
+	 * Batch queries should produce the same results as single queries with and without concurrency
+	 */
+	@Test
+	public void findNearest_batch() {
+		PackedTupleArray_F64 points = createPoints(1000);
+		PackedTupleArray_F64 queries = createPoints(97);
+
+		KMeansTreeIndex_F64 alg = new KMeansTreeIndex_F64(DOF,8,11,200,234);
+		alg.setPoints(points);
+
+		FastQueue<NnData<TupleDesc_F64>> found = new FastQueue(NnData.class,true);
+		int maxThreads = BoofConcurrency.getMaxThreads();
+		boolean concurrent = BoofConcurrency.USE_CONCURRENT;
+		try {
+			BoofConcurrency.setMaxThreads(3);
+			for( boolean useConcurrent : new boolean[]{false,true} ) {
+				BoofConcurrency.USE_CONCURRENT = useConcurrent;
+				GrowQueue_I32 indexes = new GrowQueue_I32();
+				GrowQueue_F64 distances = new GrowQueue_F64();
+				alg.findNearest(queries,-1,2,indexes,distances);
+				assertEquals(queries.size()*2,indexes.size);
+
+				for( int i = 0; i < queries.size(); i++ ) {
+					alg.findNearest(queries.getTemporary(i),-1,2,found);
+					for( int j = 0; j < 2; j++ ) {
+						assertEquals(found.get(j).index,indexes.get(i*2+j));
+						assertEquals(found.get(j).distance,distances.get(i*2+j),1e-8);
+					}
+				}
+			}
+		} finally {
+			BoofConcurrency.USE_CONCURRENT = concurrent;
+			BoofConcurrency.setMaxThreads(maxThreads);
+		}
+	}
+
+	@Test
+	public void maxDistance() {
+		PackedTupleArray_F64 points = createPoints(200);
+		KMeansTreeIndex_F64 alg = new KMeansTreeIndex_F64(DOF,8,11,-1,234);
+		alg.setPoints(points);
+
+		TupleDesc_F64 q = new TupleDesc_F64(DOF);
+		q.fill(100);
+		assertFalse(alg.findNearest(q,1.0,new NnData<>()));
+		assertTrue(alg.findNearest(q,-1,new NnData<>()));
+	}
+
+	@Test
+	public void invalidArguments() {
+		try {
+			new KMeansTreeIndex_F64(DOF,1,11,-1,234);
+			fail("Branch factor must be at least 2");
+		} catch( IllegalArgumentException ignore ) {}
+		try {
+			new KMeansTreeIndex_F64(DOF,8,0,-1,234);
+			fail("Max iterations must be at least 1");
+		} catch( IllegalArgumentException ignore ) {}
+
+		KMeansTreeIndex_F64 alg = new KMeansTreeIndex_F64(DOF,8,11,-1,234);
+		try {
+			alg.setMaxIterations(0);
+			fail("Max iterations must be at least 1");
+		} catch( IllegalArgumentException ignore ) {}
+		assertEquals(11,alg.getMaxIterations());
+	}
+
+	/**
+	 * Points which are all identical can't be split and should be put into a single leaf
+	 */
+	@Test
+	public void identicalPoints() {
+		PackedTupleArray_F64 points = new PackedTupleArray_F64(DOF);
+		TupleDesc_F64 d = new TupleDesc_F64(DOF);
+		d.fill(2);
+		for( int i = 0; i < 100; i++ ) {
+			points.append(d);
+		}
+
+		KMeansTreeIndex_F64 alg = new KMeansTreeIndex_F64(DOF,8,11,-1,234);
+		alg.setPoints(points);
+		assertEquals(1,alg.getNumNodes());
+
+		FastQueue<NnData<TupleDesc_F64>> found = new FastQueue(NnData.class,true);
+		alg.findNearest(d,-1,5,found);
+		assertEquals(5,found.size);
+		assertEquals(0,found.get(0).distance,1e-8);
+	}
+
+	/**
+	 * Points specified with a list should be returned in the results
+	 */
+	@Test
+	public void setPoints_list() {
+		PackedTupleArray_F64 packed = createPoints(300);
+		List<TupleDesc_F64> points = new ArrayList<>();
+		for( int i = 0; i < packed.size(); i++ ) {
+			points.add(packed.getTemporary(i).copy());
+		}
+
+		KMeansTreeIndex_F64 alg = new KMeansTreeIndex_F64(DOF,8,11,-1,234);
+		alg.setPoints(points,true);
+
+		NnData<TupleDesc_F64> result = new NnData<>();
+		assertTrue(alg.findNearest(points.get(45),-1,result));
+		assertEquals(45,result.index);
+		assertSame(points.get(45),result.point);
+
+		// an empty set of points
+		alg.setPoints(new ArrayList<>(),true);
+		assertFalse(alg.findNearest(points.get(45),-1,result));
+	}
+
+	private int[] bruteForce( PackedTupleArray_F64 points , TupleDesc_F64 q , int numNeighbors ) {
+		int[] best = new int[numNeighbors];
+		double[] bestD = new double[numNeighbors];
+		java.util.Arrays.fill(bestD,Double.MAX_VALUE);
+		for( int i = 0; i < points.size(); i++ ) {
+			double d = DescriptorDistance.euclideanSq(q.value,0,points.data.data,i*DOF,DOF);
+			for( int j = 0; j < numNeighbors; j++ ) {
+				if( d < bestD[j] ) {
+					for( int k = numNeighbors-1; k > j; k-- ) {
+						bestD[k] = bestD[k-1];
+						best[k] = best[k-1];
+					}
+					bestD[j] = d;
+					best[j] = i;
+					break;
+				}
+			}
+		}
+		return best;
+	}
+
+	private PackedTupleArray_F64 createPoints( int total ) {
+		PackedTupleArray_F64 ret = new PackedTupleArray_F64(DOF);
+		TupleDesc_F64 d = new TupleDesc_F64(DOF);
+		for( int i = 0; i < total; i++ ) {
+			for( int j = 0; j < DOF; j++ ) {
+				d.value[j] = rand.nextDouble();
+			}
+			ret.append(d);
+		}
+		return ret;
+	}
+
+	/**
+	 * Real descriptors are clustered, which is what the tree takes advantage of
+	 */
+	private PackedTupleArray_F64 createClusteredPoints( int total ) {
+		Random rand = new Random(2345);
+		double[][] means = new double[20][DOF];
+		for( int i = 0; i < means.length; i++ ) {
+			for( int j = 0; j < DOF; j++ ) {
+				means[i][j] = rand.nextDouble()*10;
+			}
+		}
+
+		PackedTupleArray_F64 ret = new PackedTupleArray_F64(DOF);
+		TupleDesc_F64 d = new TupleDesc_F64(DOF);
+		for( int i = 0; i < total; i++ ) {
+			double[] mean = means[this.rand.nextInt(means.length)];
+			for( int j = 0; j < DOF; j++ ) {
+				d.value[j] = mean[j] + this.rand.nextGaussian();
+			}
+			ret.append(d);
+		}
+		return ret;
+	}
+}
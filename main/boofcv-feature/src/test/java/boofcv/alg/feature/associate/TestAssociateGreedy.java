@@ -20,10 +20,13 @@ package boofcv.alg.feature.associate;
 
 import boofcv.abst.feature.associate.ScoreAssociateEuclidean_F64;
 import boofcv.abst.feature.associate.ScoreAssociation;
+import boofcv.struct.feature.PackedTupleArray_F64;
 import boofcv.struct.feature.TupleDesc_F64;
 import org.ddogleg.struct.FastQueue;
 import org.junit.Test;
 
+import java.util.Random;
+
 import static org.junit.Assert.assertEquals;
 
 
@@ -101,6 +104,42 @@ public class TestAssociateGreedy {
 		assertEquals(2,fitScore[3],1e-5);
 	}
 
+	/**
+	 * Packed arrays should produce identical results to the list of descriptors
+	 */
+	@Test
+	public void packed() {
+		Random rand = new Random(234);
+		FastQueue<TupleDesc_F64> a = new FastQueue<>(TupleDesc_F64.class,false);
+		FastQueue<TupleDesc_F64> b = new FastQueue<>(TupleDesc_F64.class,false);
+		PackedTupleArray_F64 packedA = new PackedTupleArray_F64(5);
+		PackedTupleArray_F64 packedB = new PackedTupleArray_F64(5);
+
+		for( int i = 0; i < 40; i++ ) {
+			TupleDesc_F64 d = new TupleDesc_F64(5);
+			for( int j = 0; j < 5; j++ ) {
+				d.value[j] = rand.nextGaussian();
+			}
+			(i < 15 ? a : b).add(d);
+			(i < 15 ? packedA : packedB).append(d);
+		}
+
+		for( boolean backwards : new boolean[]{true,false}) {
+			AssociateGreedy<TupleDesc_F64> expected = new AssociateGreedy<>(score, backwards);
+			AssociateGreedy<TupleDesc_F64> alg = new AssociateGreedy<>(score, backwards);
+			expected.setMaxFitError(2);
+			alg.setMaxFitError(2);
+
+			expected.associate(a,b);
+			alg.associate(packedA,packedB);
+
+			for( int i = 0; i < a.size; i++ ) {
+				assertEquals(expected.getPairs()[i],alg.getPairs()[i]);
+				assertEquals(expected.getFitQuality()[i],alg.getFitQuality()[i],1e-8);
+			}
+		}
+	}
+
 	private FastQueue<TupleDesc_F64> createData( double ...values )
 	{
 		FastQueue<TupleDesc_F64> ret = new FastQueue<TupleDesc_F64>(10,TupleDesc_F64.class, true) {
@@ -0,0 +1,149 @@
+/*
+ * Copyright (c) 2011-2018, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.feature.associate;
+
+import boofcv.abst.feature.associate.ScoreAssociateHamming_B;
+import boofcv.struct.feature.PackedTupleArray_B;
+import boofcv.struct.feature.TupleDesc_B;
+import org.ddogleg.struct.FastQueue;
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestAssociateGreedyHamming_B {
+
+	Random rand = new Random(234);
+
+	ScoreAssociateHamming_B score = new ScoreAssociateHamming_B();
+
+	/**
+	 * Compare against the generic implementation.  Results should be identical
+	 */
+	@Test
+	public void compareToGeneric() {
+		for( int numBits : new int[]{64,96,256,512} ) {
+			for( boolean backwards : new boolean[]{true,false}) {
+				compareToGeneric(numBits,40,55,Double.MAX_VALUE,backwards);
+				compareToGeneric(numBits,55,40,numBits/4,backwards);
+				compareToGeneric(numBits,1,20,Double.MAX_VALUE,backwards);
+				compareToGeneric(numBits,0,20,Double.MAX_VALUE,backwards);
+				compareToGeneric(numBits,20,0,Double.MAX_VALUE,backwards);
+			}
+		}
+	}
+
+	private void compareToGeneric( int numBits , int numSrc , int numDst , double maxError , boolean backwards ) {
+		FastQueue<TupleDesc_B> src = createData(numBits,numSrc);
+		FastQueue<TupleDesc_B> dst = createData(numBits,numDst);
+
+		AssociateGreedy<TupleDesc_B> expected = new AssociateGreedy<>(score,backwards);
+		AssociateGreedyHamming_B alg = new AssociateGreedyHamming_B(score,backwards);
+		expected.setMaxFitError(maxError);
+		alg.setMaxFitError(maxError);
+
+		expected.associate(src,dst);
+		alg.associate(src,dst);
+
+		for( int i = 0; i < numSrc; i++ ) {
+			assertEquals(expected.getPairs()[i],alg.getPairs()[i]);
+			assertEquals(expected.getFitQuality()[i],alg.getFitQuality()[i],1e-8);
+		}
+	}
+
+	/**
+	 * Packed arrays should produce the same results as the generic implementation
+	 */
+	@Test
+	public void packed() {
+		for( boolean backwards : new boolean[]{true,false}) {
+			FastQueue<TupleDesc_B> src = createData(256,40);
+			FastQueue<TupleDesc_B> dst = createData(256,55);
+
+			AssociateGreedy<TupleDesc_B> expected = new AssociateGreedy<>(score,backwards);
+			AssociateGreedyHamming_B alg = new AssociateGreedyHamming_B(score,backwards);
+			expected.associate(src,dst);
+			alg.associate(pack(src),pack(dst));
+
+			for( int i = 0; i < src.size; i++ ) {
+				assertEquals(expected.getPairs()[i],alg.getPairs()[i]);
+				assertEquals(expected.getFitQuality()[i],alg.getFitQuality()[i],1e-8);
+			}
+
+			// generic implementation with packed arrays
+			AssociateGreedy<TupleDesc_B> generic = new AssociateGreedy<>(score,backwards);
+			generic.associate(pack(src),pack(dst));
+			for( int i = 0; i < src.size; i++ ) {
+				assertEquals(expected.getPairs()[i],generic.getPairs()[i]);
+				assertEquals(expected.getFitQuality()[i],generic.getFitQuality()[i],1e-8);
+			}
+		}
+	}
+
+	/**
+	 * Several src features are identical, which creates ties that need to be handled the same way
+	 */
+	@Test
+	public void backwardsValidation_ties() {
+		FastQueue<TupleDesc_B> src = createData(128,10);
+		FastQueue<TupleDesc_B> dst = createData(128,10);
+		src.get(3).setTo(src.get(1));
+		src.get(5).setTo(dst.get(4));
+		src.get(6).setTo(dst.get(4));
+		src.get(7).setTo(dst.get(2));
+
+		AssociateGreedyHamming_B alg = new AssociateGreedyHamming_B(score,true);
+		alg.associate(src,dst);
+
+		assertEquals(-1,alg.getPairs()[5]);
+		assertEquals(-1,alg.getPairs()[6]);
+		assertEquals(2,alg.getPairs()[7]);
+		assertEquals(0,alg.getFitQuality()[7],1e-8);
+
+		AssociateGreedy<TupleDesc_B> expected = new AssociateGreedy<>(score,true);
+		expected.associate(src,dst);
+		for( int i = 0; i < src.size; i++ ) {
+			assertEquals(expected.getPairs()[i],alg.getPairs()[i]);
+		}
+	}
+
+	private PackedTupleArray_B pack( FastQueue<TupleDesc_B> descs ) {
+		PackedTupleArray_B ret = new PackedTupleArray_B(descs.get(0).numBits);
+		for( int i = 0; i < descs.size; i++ ) {
+			ret.append(descs.get(i));
+		}
+		return ret;
+	}
+
+	private FastQueue<TupleDesc_B> createData( int numBits , int total ) {
+		FastQueue<TupleDesc_B> ret = new FastQueue<>(TupleDesc_B.class,false);
+		for( int i = 0; i < total; i++ ) {
+			TupleDesc_B d = new TupleDesc_B(numBits);
+			for( int j = 0; j < d.data.length; j++ ) {
+				d.data[j] = rand.nextInt();
+			}
+			ret.add(d);
+		}
+		return ret;
+	}
+}
@@ -22,6 +22,7 @@ import boofcv.abst.feature.associate.AssociateDescription;
 import boofcv.abst.feature.associate.StandardAssociateDescriptionChecks;
 import boofcv.alg.descriptor.KdTreeTuple_F64;
 import boofcv.struct.feature.AssociatedIndex;
+import boofcv.struct.feature.PackedTupleArray_F64;
 import boofcv.struct.feature.TupleDesc_F64;
 import org.ddogleg.nn.FactoryNearestNeighbor;
 import org.ddogleg.nn.NearestNeighbor;
@@ -31,8 +32,10 @@ import org.ddogleg.struct.GrowQueue_I32;
 import org.junit.Test;
 
 import java.util.List;
+import java.util.Random;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
 
 /**
  * @author Peter Abeles
@@ -153,6 +156,56 @@ public class TestAssociateNearestNeighbor extends StandardAssociateDescriptionCh
 		assertEquals(6,unassoc.get(2));
 	}
 
+	/**
+	 * Packed arrays should produce the same matches as a list of descriptors
+	 */
+	@Test
+	public void packed() {
+		Random rand = new Random(234);
+		FastQueue<TupleDesc_F64> src = new FastQueue<>(TupleDesc_F64.class,false);
+		FastQueue<TupleDesc_F64> dst = new FastQueue<>(TupleDesc_F64.class,false);
+		PackedTupleArray_F64 packedSrc = new PackedTupleArray_F64(4);
+		PackedTupleArray_F64 packedDst = new PackedTupleArray_F64(4);
+
+		for( int i = 0; i < 50; i++ ) {
+			TupleDesc_F64 d = new TupleDesc_F64(4);
+			for( int j = 0; j < 4; j++ ) {
+				d.value[j] = rand.nextGaussian();
+			}
+			(i < 20 ? src : dst).add(d);
+			(i < 20 ? packedSrc : packedDst).append(d);
+		}
+
+		AssociateNearestNeighbor<TupleDesc_F64> expected =
+				new AssociateNearestNeighbor<>(FactoryNearestNeighbor.exhaustive(new KdTreeTuple_F64(4)));
+		AssociateNearestNeighbor<TupleDesc_F64> alg =
+				new AssociateNearestNeighbor<>(FactoryNearestNeighbor.exhaustive(new KdTreeTuple_F64(4)));
+		expected.setScoreRatioThreshold(0.9);
+		alg.setScoreRatioThreshold(0.9);
+
+		expected.setSource(src);
+		expected.setDestination(dst);
+		expected.associate();
+
+		// call it twice to make sure recycled descriptors are handled correctly
+		for( int trial = 0; trial < 2; trial++ ) {
+			alg.setSource(packedSrc);
+			alg.setDestination(packedDst);
+			alg.associate();
+
+			assertTrue(alg.getMatches().size > 0);
+			assertEquals(expected.getMatches().size, alg.getMatches().size);
+			for (int i = 0; i < alg.getMatches().size; i++) {
+				AssociatedIndex e = expected.getMatches().get(i);
+				AssociatedIndex f = alg.getMatches().get(i);
+				assertEquals(e.src, f.src);
+				assertEquals(e.dst, f.dst);
+				assertEquals(e.fitScore, f.fitScore, 1e-8);
+			}
+			assertEquals(expected.getUnassociatedDestination().size, alg.getUnassociatedDestination().size);
+		}
+	}
+
 	public static class Dummy<D> implements NearestNeighbor<D> {
 
 		List<D> points;
@@ -25,6 +25,7 @@ import boofcv.alg.feature.describe.DescribePointSift;
 import boofcv.alg.feature.detect.interest.SiftScaleSpace;
 import boofcv.alg.feature.orientation.OrientationHistogramSift;
 import boofcv.alg.misc.GImageMiscOps;
+import boofcv.concurrency.BoofConcurrency;
 import boofcv.factory.feature.detect.extract.FactoryFeatureExtractor;
 import boofcv.struct.feature.BrightFeature;
 import boofcv.struct.feature.ScalePoint;
@@ -70,6 +71,81 @@ public class TestCompleteSift {
 		assertEquals(orientations.size,descriptions.size);
 	}
 
+	/**
+	 * Packed descriptors should be identical to the ones stored in individual features
+	 */
+	@Test
+	public void packed() {
+		GrayF32 image = new GrayF32(300,290);
+		GImageMiscOps.fillUniform(image,rand,0,200);
+
+		CompleteSift expected = createAlg();
+		CompleteSift found = createAlg();
+		found.setPacked(true);
+
+		expected.process(image);
+		// process twice to make sure the previous results are cleared
+		found.process(image);
+		found.process(image);
+
+		int N = expected.getDescriptions().size;
+		int dof = found.getDescriptorLength();
+		assertTrue(N > 10);
+		assertEquals(0, found.getDescriptions().size);
+		assertEquals(N, found.getLocations().size);
+		assertEquals(N*dof, found.getPackedDescriptions().size);
+		assertEquals(N, found.getPackedWhite().size);
+
+		for (int i = 0; i < N; i++) {
+			BrightFeature f = expected.getDescriptions().get(i);
+			assertEquals(f.white, found.getPackedWhite().get(i));
+			for (int j = 0; j < dof; j++) {
+				assertEquals(f.value[j], found.getPackedDescriptions().get(i*dof+j), 0.0);
+			}
+		}
+	}
+
+	/**
+	 * Concurrent computation of the scale-space and gradient should produce identical results
+	 */
+	@Test
+	public void concurrent() {
+		GrayF32 image = new GrayF32(300,290);
+		GImageMiscOps.fillUniform(image,rand,0,200);
+
+		boolean concurrent = BoofConcurrency.USE_CONCURRENT;
+		int maxThreads = BoofConcurrency.getMaxThreads();
+		try {
+			BoofConcurrency.USE_CONCURRENT = false;
+			CompleteSift expected = createAlg();
+			expected.process(image);
+
+			BoofConcurrency.USE_CONCURRENT = true;
+			BoofConcurrency.setMaxThreads(3);
+			CompleteSift found = createAlg();
+			found.process(image);
+
+			assertEquals(expected.getDescriptions().size, found.getDescriptions().size);
+			for (int i = 0; i < expected.getLocations().size; i++) {
+				ScalePoint e = expected.getLocations().get(i);
+				ScalePoint f = found.getLocations().get(i);
+				assertEquals(e.x, f.x, 0.0);
+				assertEquals(e.y, f.y, 0.0);
+				assertEquals(e.scale, f.scale, 0.0);
+				assertEquals(expected.getOrientations().get(i), found.getOrientations().get(i), 0.0);
+
+				BrightFeature de = expected.getDescriptions().get(i);
+				BrightFeature df = found.getDescriptions().get(i);
+				for (int j = 0; j < de.size(); j++) {
+					assertEquals(de.value[j], df.value[j], 0.0);
+				}
+			}
+		} finally {
+			BoofConcurrency.USE_CONCURRENT = concurrent;
+			BoofConcurrency.setMaxThreads(maxThreads);
+		}
+	}
+
 	private CompleteSift createAlg() {
 
 		SiftScaleSpace ss = new SiftScaleSpace(-1,4,3,1.6);
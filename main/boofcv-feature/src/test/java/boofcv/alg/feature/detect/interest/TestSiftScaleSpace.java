@@ -161,4 +161,32 @@ public class TestSiftScaleSpace {
 
 
 	}
+
+	/**
+	 * Images inside the scale space should be recycled when the next image is processed
+	 */
+	@Test
+	public void recycleImages() {
+		SiftScaleSpace alg = new SiftScaleSpace(-1,3,3,1.6);
+
+		GrayF32 input = new GrayF32(100,90);
+		GImageMiscOps.fillUniform(input,rand,0,100);
+
+		alg.initialize(input);
+		while( alg.computeNextOctave() ) {}
+
+		GrayF32[] scales = alg.octaveImages.clone();
+		GrayF32[] dogs = alg.differenceOfGaussian.clone();
+
+		GImageMiscOps.fillUniform(input,rand,0,100);
+		alg.initialize(input);
+		do {
+			for (int i = 0; i < scales.length; i++) {
+				assertSame(scales[i], alg.getImageScale(i));
+			}
+			for (int i = 0; i < dogs.length; i++) {
+				assertSame(dogs[i], alg.getDifferenceOfGaussian(i));
+			}
+		} while( alg.computeNextOctave() );
+	}
 }
\ No newline at end of file
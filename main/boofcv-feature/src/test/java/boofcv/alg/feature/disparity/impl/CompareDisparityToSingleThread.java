@@ -0,0 +1,114 @@
+/*
+ * Copyright (c) 2011-2018, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.feature.disparity.impl;
+
+import boofcv.alg.feature.disparity.DisparityScoreRowFormat;
+import boofcv.alg.feature.disparity.DisparitySelect;
+import boofcv.alg.misc.GImageMiscOps;
+import boofcv.concurrency.BoofConcurrency;
+import boofcv.core.image.GeneralizedImageOps;
+import boofcv.struct.image.GrayF32;
+import boofcv.struct.image.ImageGray;
+import boofcv.testing.BoofTesting;
+
+import java.util.Random;
+
+/**
+ * Compares the output of concurrent disparity algorithms against their single threaded equivalent. Floating point
+ * images are filled with values which aren't integers, so the order scores are summed in matters, and
+ * the results must still be identical.
+ *
+ * @author Peter Abeles
+ */
+public class CompareDisparityToSingleThread<I extends ImageGray<I>> {
+
+	Random rand = new Random(234);
+
+	Class<I> imageType;
+	Factory factory;
+
+	public CompareDisparityToSingleThread(Class<I> imageType, Factory factory) {
+		this.imageType = imageType;
+		this.factory = factory;
+	}
+
+	public void compareAll() {
+		int maxThreads = BoofConcurrency.getMaxThreads();
+		try {
+			// the number of threads changes where blocks start
+			for( int numThreads : new int[]{3,4} ) {
+				BoofConcurrency.setMaxThreads(numThreads);
+				compare(0,12,2,3,false);
+				compare(4,12,3,2,false);
+				compare(2,10,2,0,false);
+				compare(0,12,2,3,true);
+				compare(4,12,1,1,true);
+			}
+		} finally {
+			BoofConcurrency.setMaxThreads(maxThreads);
+		}
+	}
+
+	private void compare( int minDisparity , int maxDisparity , int radiusX , int radiusY , boolean subpixel ) {
+		// tall enough for the vertical score to be summed from scratch several times
+		int w = 45, h = 110;
+		I left = GeneralizedImageOps.createSingleBand(imageType,w,h);
+		I right = GeneralizedImageOps.createSingleBand(imageType,w,h);
+		GImageMiscOps.fillUniform(left, rand, 0, 30);
+		GImageMiscOps.fillUniform(right, rand, 0, 30);
+
+		DisparityScoreRowFormat single = factory.create(false,minDisparity,maxDisparity,radiusX,radiusY,
+				createSelect(subpixel));
+		DisparityScoreRowFormat concurrent = factory.create(true,minDisparity,maxDisparity,radiusX,radiusY,
+				createSelect(subpixel));
+
+		ImageGray expected = GeneralizedImageOps.createSingleBand(single.getDisparityType(),w,h);
+		ImageGray found = GeneralizedImageOps.createSingleBand(concurrent.getDisparityType(),w,h);
+
+		single.process(left,right,expected);
+		concurrent.process(left,right,found);
+
+		BoofTesting.assertEquals(expected, found, 0);
+
+		// process again to make sure the work space is correctly reused
+		GImageMiscOps.fill(found,0);
+		concurrent.process(left,right,found);
+		BoofTesting.assertEquals(expected, found, 0);
+	}
+
+	private DisparitySelect createSelect( boolean subpixel ) {
+		boolean integer = imageType != GrayF32.class;
+		if( subpixel ) {
+			if( integer )
+				return new SelectRectSubpixel.S32_F32(-1,2,0.1);
+			else
+				return new SelectRectSubpixel.F32_F32(-1,2,0.1);
+		} else {
+			if( integer )
+				return new ImplSelectRectStandard_S32_U8(-1,2,0.1);
+			else
+				return new ImplSelectRectStandard_F32_U8(-1,2,0.1);
+		}
+	}
+
+	public interface Factory {
+		DisparityScoreRowFormat create( boolean concurrent , int minDisparity , int maxDisparity ,
+										int radiusX , int radiusY , DisparitySelect select );
+	}
+}
@@ -0,0 +1,79 @@
+/*
+ * Copyright (c) 2011-2018, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.feature.disparity.impl;
+
+import boofcv.alg.feature.disparity.DisparityScoreSadRect;
+import boofcv.alg.feature.disparity.DisparitySelect;
+import boofcv.factory.feature.disparity.FactoryStereoDisparityAlgs;
+import boofcv.struct.image.GrayF32;
+import boofcv.struct.image.GrayU8;
+import org.junit.Test;
+
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestImplDisparityScoreSadRect_F32_MT extends ChecksImplDisparityScoreSadRect<GrayF32,GrayU8> {
+
+	public TestImplDisparityScoreSadRect_F32_MT() {
+		super(GrayF32.class, GrayU8.class);
+	}
+
+	@Override
+	protected DisparityScoreSadRect<GrayF32, GrayU8>
+	createAlg(int minDisparity, int maxDisparity, int radiusX, int radiusY, DisparitySelect compDisp) {
+		return new ImplDisparityScoreSadRect_F32_MT<>(minDisparity,maxDisparity,radiusX,radiusY,compDisp);
+	}
+
+	@Test
+	public void compareToSingleThread() {
+		new CompareDisparityToSingleThread<>(GrayF32.class,(concurrent, minDisparity, maxDisparity, radiusX, radiusY, select) -> {
+			if( concurrent )
+				return new ImplDisparityScoreSadRect_F32_MT<>(minDisparity, maxDisparity, radiusX, radiusY, select);
+			else
+				return new ImplDisparityScoreSadRect_F32<>(minDisparity, maxDisparity, radiusX, radiusY, select);
+		}).compareAll();
+	}
+
+	/**
+	 * If the select can't be copied the concurrent version can't be used and the factory should fall back on
+	 * the single threaded version
+	 */
+	@Test
+	public void selectWithoutConcurrentCopy() {
+		DisparitySelect<float[],GrayU8> select = new ImplSelectRectStandard_F32_U8(-1,2,0.1) {
+			@Override
+			public DisparitySelect<float[], GrayU8> concurrentCopy() {
+				return null;
+			}
+		};
+
+		try {
+			new ImplDisparityScoreSadRect_F32_MT<>(0,10,2,2,select);
+			fail("Should have thrown an exception");
+		} catch( IllegalArgumentException ignore ){}
+
+		assertTrue(FactoryStereoDisparityAlgs.scoreDisparitySadRect_F32(0,10,2,2,select,true)
+				instanceof ImplDisparityScoreSadRect_F32);
+		assertTrue(FactoryStereoDisparityAlgs.scoreDisparitySadRect_F32(0,10,2,2,
+				new ImplSelectRectStandard_F32_U8(-1,2,0.1),true) instanceof ImplDisparityScoreSadRect_F32_MT);
+	}
+}
@@ -0,0 +1,76 @@
+/*
+ * Copyright (c) 2011-2018, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package boofcv.struct.feature;
+
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestPackedTupleArray_B {
+
+	Random rand = new Random(234);
+
+	@Test
+	public void append_getCopy() {
+		// includes descriptors with an odd number of integers
+		for( int numBits : new int[]{32,40,64,96,512} ) {
+			PackedTupleArray_B alg = new PackedTupleArray_B(numBits);
+
+			TupleDesc_B[] expected = new TupleDesc_B[30];
+			for( int i = 0; i < expected.length; i++ ) {
+				expected[i] = new TupleDesc_B(numBits);
+				for( int j = 0; j < expected[i].data.length; j++ ) {
+					expected[i].data[j] = rand.nextInt();
+				}
+				alg.append(expected[i]);
+			}
+			assertEquals(expected.length,alg.size());
+			assertEquals(expected.length*alg.numWords,alg.data.size);
+
+			TupleDesc_B found = alg.createDescription();
+			for( int i = 0; i < expected.length; i++ ) {
+				alg.getCopy(i,found);
+				assertEquals(numBits,found.numBits);
+				for( int j = 0; j < found.data.length; j++ ) {
+					assertEquals(expected[i].data[j],found.data[j]);
+					assertEquals(expected[i].data[j],alg.getTemporary(i).data[j]);
+				}
+			}
+		}
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void append_wrongSize() {
+		PackedTupleArray_B alg = new PackedTupleArray_B(128);
+		alg.append(new TupleDesc_B(512));
+	}
+
+	/**
+	 * Same number of packed words but a different number of bits
+	 */
+	@Test(expected = IllegalArgumentException.class)
+	public void append_wrongSize_sameWords() {
+		PackedTupleArray_B alg = new PackedTupleArray_B(128);
+		alg.append(new TupleDesc_B(96));
+	}
+}
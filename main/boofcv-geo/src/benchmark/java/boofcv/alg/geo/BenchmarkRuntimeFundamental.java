@@ -22,87 +22,85 @@ import boofcv.abst.geo.Estimate1ofEpipolar;
 import boofcv.factory.geo.EnumEssential;
 import boofcv.factory.geo.EnumFundamental;
 import boofcv.factory.geo.FactoryMultiView;
-import boofcv.misc.Performer;
-import boofcv.misc.ProfileOperation;
 import boofcv.struct.geo.AssociatedPair;
 import org.ejml.data.DMatrixRMaj;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.TimeUnit;
 
 /**
  * @author Peter Abeles
  */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@State(Scope.Benchmark)
+@Fork(value=1)
 public class BenchmarkRuntimeFundamental extends ArtificialStereoScene{
-	static final long TEST_TIME = 1000;
 	static final int NUM_POINTS = 500;
-	static final boolean FUNDAMENTAL = false;
+
+	// fundamental if true or essential if false
+	@Param({"false","true"})
+	public boolean fundamental;
 
 	List<AssociatedPair> pairs8 = new ArrayList<>();
-	List<AssociatedPair> pairs7 = new ArrayList<>();
 	List<AssociatedPair> pairs6 = new ArrayList<>();
-	List<AssociatedPair> pairs5 = new ArrayList<>();
 
 	DMatrixRMaj found = new DMatrixRMaj(3,3);
 
-	public class Estimate implements Performer {
-
-		Estimate1ofEpipolar alg;
-		String name;
-		List<AssociatedPair> list;
-		
-		public Estimate( String name ,
-						 Estimate1ofEpipolar alg ,
-						 List<AssociatedPair> list )
-		{
-			this.alg = alg;
-			this.name = name;
-			this.list = list;
-		}
-
-		@Override
-		public void process() {
-			alg.process(list, found);
-		}
-
-		@Override
-		public String getName() {
-			return name;
-		}
-	}
-	
-	public void runAll() {
-		System.out.println("=========  Profile numFeatures "+NUM_POINTS);
-		System.out.println();
+	Estimate1ofEpipolar linear8;
+	Estimate1ofEpipolar linear7;
+	Estimate1ofEpipolar nister5 = FactoryMultiView.computeEssential_1(EnumEssential.NISTER_5, 1);
 
-		init(NUM_POINTS,FUNDAMENTAL,false);
+	@Setup
+	public void setup() {
+		init(NUM_POINTS,fundamental,false);
 
-		for( int i = 0; i < 5; i++ )
-			pairs5.add(pairs.get(i));
+		pairs6.clear();
+		pairs8.clear();
 		for( int i = 0; i < 6; i++ )
 			pairs6.add(pairs.get(i));
-
-		for( int i = 0; i < 7; i++ ) {
-			pairs7.add(pairs.get(i));
+		for( int i = 0; i < 8; i++ )
 			pairs8.add(pairs.get(i));
-		}
-		pairs8.add(pairs.get(7));
 
-		System.out.println("Minimum Number");
-		if( FUNDAMENTAL ) {
-			ProfileOperation.printOpsPerSec(new Estimate("Linear 8", FactoryMultiView.computeFundamental_1(EnumFundamental.LINEAR_8, 0),pairs8), TEST_TIME);
-			ProfileOperation.printOpsPerSec(new Estimate("Linear 7", FactoryMultiView.computeFundamental_1(EnumFundamental.LINEAR_7, 1),pairs8), TEST_TIME);
+		if( fundamental ) {
+			linear8 = FactoryMultiView.computeFundamental_1(EnumFundamental.LINEAR_8, 0);
+			linear7 = FactoryMultiView.computeFundamental_1(EnumFundamental.LINEAR_7, 1);
 		} else {
-			ProfileOperation.printOpsPerSec(new Estimate("Linear 8", FactoryMultiView.computeEssential_1(EnumEssential.LINEAR_8, 0),pairs8), TEST_TIME);
-			ProfileOperation.printOpsPerSec(new Estimate("Linear 7", FactoryMultiView.computeEssential_1(EnumEssential.LINEAR_7, 1),pairs8), TEST_TIME);
-			ProfileOperation.printOpsPerSec(new Estimate("Linear 5", FactoryMultiView.computeEssential_1(EnumEssential.NISTER_5, 1),pairs6), TEST_TIME);
+			linear8 = FactoryMultiView.computeEssential_1(EnumEssential.LINEAR_8, 0);
+			linear7 = FactoryMultiView.computeEssential_1(EnumEssential.LINEAR_7, 1);
 		}
+	}
+
+	@Benchmark
+	public void Linear8() {
+		linear8.process(pairs8, found);
+	}
 
+	@Benchmark
+	public void Linear7() {
+		linear7.process(pairs8, found);
 	}
-	
-	public static void main( String args[] ) {
-		BenchmarkRuntimeFundamental alg = new BenchmarkRuntimeFundamental();
 
-		alg.runAll();
+	@Benchmark
+	public void Nister5() {
+		// only an essential matrix can be computed from 5 points
+		if( !fundamental )
+			nister5.process(pairs6, found);
+	}
+
+	public static void main( String args[] ) throws RunnerException {
+		Options opt = new OptionsBuilder()
+				.include(BenchmarkRuntimeFundamental.class.getSimpleName())
+				.build();
+
+		new Runner(opt).run();
 	}
 }
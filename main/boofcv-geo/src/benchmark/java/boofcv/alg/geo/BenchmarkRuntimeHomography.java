@@ -20,73 +20,81 @@ package boofcv.alg.geo;
 
 import boofcv.abst.geo.Estimate1ofEpipolar;
 import boofcv.factory.geo.FactoryMultiView;
-import boofcv.misc.Performer;
-import boofcv.misc.ProfileOperation;
 import boofcv.struct.geo.AssociatedPair;
 import org.ejml.data.DMatrixRMaj;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.TimeUnit;
 
 /**
  * @author Peter Abeles
  */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@State(Scope.Benchmark)
+@Fork(value=1)
 public class BenchmarkRuntimeHomography extends ArtificialStereoScene {
-	static final long TEST_TIME = 1000;
-	static final int NUM_POINTS = 500;
 	static final boolean PIXELS = true;
 
+	@Param({"500"})
+	public int numPoints;
+
 	List<AssociatedPair> pairs4 = new ArrayList<>();
 
 	DMatrixRMaj H = new DMatrixRMaj(3,3);
 
-	public class Estimate implements Performer {
+	Estimate1ofEpipolar dltNorm = FactoryMultiView.computeHomographyDLT(true);
+	Estimate1ofEpipolar dltUnorm = FactoryMultiView.computeHomographyDLT(false);
+	Estimate1ofEpipolar tls = FactoryMultiView.computeHomographyTLS();
 
-		Estimate1ofEpipolar alg;
-		String name;
-		List<AssociatedPair> list;
-		
-		public Estimate( String name , Estimate1ofEpipolar alg , List<AssociatedPair> list ) {
-			this.alg = alg;
-			this.name = name;
-			this.list = list;
-		}
+	@Setup
+	public void setup() {
+		init(numPoints, PIXELS,true);
 
-		@Override
-		public void process() {
-			alg.process(list, H);
+		pairs4.clear();
+		for( int i = 0; i < 4; i++ ) {
+			pairs4.add(pairs.get(i));
 		}
+	}
 
-		@Override
-		public String getName() {
-			return name;
-		}
+	@Benchmark
+	public void DLT_Norm_4() {
+		dltNorm.process(pairs4, H);
 	}
-	
-	public void runAll() {
-		System.out.println("=========  Profile numFeatures "+NUM_POINTS);
-		System.out.println();
 
-		init(NUM_POINTS, PIXELS,true);
-		
-		for( int i = 0; i < 4; i++ ) {
-			pairs4.add(pairs.get(i));
-		}
+	@Benchmark
+	public void DLT_Unorm_4() {
+		dltUnorm.process(pairs4, H);
+	}
 
-		System.out.println("4 pairs");
-		ProfileOperation.printOpsPerSec(new Estimate("DLT Norm", FactoryMultiView.computeHomographyDLT(true), pairs4), TEST_TIME);
-		ProfileOperation.printOpsPerSec(new Estimate("DLT Unorm", FactoryMultiView.computeHomographyDLT(false),pairs4), TEST_TIME);
-		ProfileOperation.printOpsPerSec(new Estimate("TLS", FactoryMultiView.computeHomographyTLS(),pairs4), TEST_TIME);
+	@Benchmark
+	public void TLS_4() {
+		tls.process(pairs4, H);
+	}
 
-		System.out.println(pairs.size()+" pairs");
-		ProfileOperation.printOpsPerSec(new Estimate("DLT Norm", FactoryMultiView.computeHomographyDLT(true),pairs), TEST_TIME);
-		ProfileOperation.printOpsPerSec(new Estimate("TLS", FactoryMultiView.computeHomographyTLS(),pairs), TEST_TIME);
+	@Benchmark
+	public void DLT_Norm_All() {
+		dltNorm.process(pairs, H);
+	}
 
+	@Benchmark
+	public void TLS_All() {
+		tls.process(pairs, H);
 	}
-	
-	public static void main( String args[] ) {
-		BenchmarkRuntimeHomography alg = new BenchmarkRuntimeHomography();
 
-		alg.runAll();
+	public static void main( String args[] ) throws RunnerException {
+		Options opt = new OptionsBuilder()
+				.include(BenchmarkRuntimeHomography.class.getSimpleName())
+				.build();
+
+		new Runner(opt).run();
 	}
 }
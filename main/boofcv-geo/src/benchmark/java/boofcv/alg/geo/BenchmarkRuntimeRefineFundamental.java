@@ -18,70 +18,77 @@
 
 package boofcv.alg.geo;
 
+import boofcv.abst.geo.Estimate1ofEpipolar;
 import boofcv.abst.geo.RefineEpipolar;
-import boofcv.misc.Performer;
+import boofcv.factory.geo.EnumEssential;
+import boofcv.factory.geo.EnumFundamental;
+import boofcv.factory.geo.EpipolarError;
+import boofcv.factory.geo.FactoryMultiView;
 import org.ejml.data.DMatrixRMaj;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.concurrent.TimeUnit;
+
+import static boofcv.factory.geo.FactoryMultiView.refineFundamental;
 
 /**
  * @author Peter Abeles
  */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@State(Scope.Benchmark)
+@Fork(value=1)
 public class BenchmarkRuntimeRefineFundamental extends ArtificialStereoScene{
-	static final long TEST_TIME = 1000;
-	static final int NUM_POINTS = 500;
-	static final boolean FUNDAMENTAL = false;
-	
-	protected DMatrixRMaj initialF;
+	static final double TOL = 1e-16;
+	static final int MAX_ITER = 100;
 
-	public class Refine implements Performer {
+	@Param({"500"})
+	public int numPoints;
 
-		RefineEpipolar alg;
-		String name;
-		DMatrixRMaj refinement = new DMatrixRMaj(3,3);
+	// fundamental if true or essential if false
+	@Param({"false","true"})
+	public boolean fundamental;
 
-		public Refine( String name , RefineEpipolar alg) {
-			this.alg = alg;
-			this.name = name;
-		}
+	protected DMatrixRMaj initialF = new DMatrixRMaj(3,3);
+	DMatrixRMaj refinement = new DMatrixRMaj(3,3);
 
-		@Override
-		public void process() {
-			alg.fitModel(pairs, initialF, refinement);
-		}
+	RefineEpipolar sampson = refineFundamental(TOL, MAX_ITER, EpipolarError.SAMPSON);
+	RefineEpipolar simple = refineFundamental(TOL, MAX_ITER, EpipolarError.SIMPLE);
 
-		@Override
-		public String getName() {
-			return name;
-		}
-	}
-	
-	public void runAll() {
-		System.out.println("=========  Profile numFeatures "+NUM_POINTS);
-		System.out.println();
+	@Setup
+	public void setup() {
+		init(numPoints,fundamental,false);
 
-		double tol = 1e-16;
-		int MAX_ITER = 100;
+		Estimate1ofEpipolar computeAlg = fundamental ?
+				FactoryMultiView.computeFundamental_1(EnumFundamental.LINEAR_8, 0) :
+				FactoryMultiView.computeEssential_1(EnumEssential.LINEAR_8, 0);
+		computeAlg.process(pairs,initialF);
+		initialF.data[0] += 0.1;
+		initialF.data[4] -= 0.15;
+		initialF.data[7] -= 0.2;
+	}
 
-		init(NUM_POINTS,FUNDAMENTAL,false);
+	@Benchmark
+	public void LS_Sampson() {
+		sampson.fitModel(pairs, initialF, refinement);
+	}
 
-//		EpipolarMatrixEstimator computeAlg =
-//				FUNDAMENTAL ? FactoryMultiView.computeFundamental(8) : FactoryMultiView.computeEssential(8);
-//		computeAlg.process(pairs);
-//		initialF = computeAlg.getEpipolarMatrix();
-//		initialF.data[0] += 0.1;
-//		initialF.data[4] -= 0.15;
-//		initialF.data[7] -= 0.2;
-//
-//		ProfileOperation.printOpsPerSec(new Refine("LS Sampson",refineFundamental(tol, MAX_ITER, EpipolarError.SAMPSON)), TEST_TIME);
-//		ProfileOperation.printOpsPerSec(new Refine("LS Simple",refineFundamental(tol, MAX_ITER, EpipolarError.SIMPLE)), TEST_TIME);
-//		ProfileOperation.printOpsPerSec(new Refine("QN Sampson",new QuasiNewtonFundamentalSampson(tol,MAX_ITER)), TEST_TIME);
-//
-//		System.out.println();
-//		System.out.println("Done");
+	@Benchmark
+	public void LS_Simple() {
+		simple.fitModel(pairs, initialF, refinement);
 	}
-	
-	public static void main( String args[] ) {
-		BenchmarkRuntimeRefineFundamental alg = new BenchmarkRuntimeRefineFundamental();
 
-		alg.runAll();
+	public static void main( String args[] ) throws RunnerException {
+		Options opt = new OptionsBuilder()
+				.include(BenchmarkRuntimeRefineFundamental.class.getSimpleName())
+				.build();
+
+		new Runner(opt).run();
 	}
 }
@@ -19,88 +19,76 @@
 package boofcv.alg.geo;
 
 import boofcv.abst.geo.Estimate1ofEpipolar;
+import boofcv.abst.geo.RefineEpipolar;
 import boofcv.alg.geo.h.HomographyDirectLinearTransform;
 import boofcv.factory.geo.EpipolarError;
 import boofcv.factory.geo.FactoryMultiView;
-import boofcv.misc.Performer;
-import boofcv.misc.PerformerBase;
-import boofcv.misc.ProfileOperation;
-import boofcv.struct.geo.AssociatedPair;
-import org.ddogleg.fitting.modelset.ModelFitter;
 import org.ejml.data.DMatrixRMaj;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.concurrent.TimeUnit;
 
 import static boofcv.factory.geo.FactoryMultiView.refineHomography;
 
 /**
  * @author Peter Abeles
  */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@State(Scope.Benchmark)
+@Fork(value=1)
 public class BenchmarkRuntimeRefineHomography extends ArtificialStereoScene{
-	static final long TEST_TIME = 1000;
-	static final int NUM_POINTS = 500;
 	static final boolean PIXELS = false;
-	
-	protected DMatrixRMaj H = new DMatrixRMaj(3,3);
-	DMatrixRMaj refinedF = new DMatrixRMaj(3,3);
-
-	public class Refine implements Performer {
-
-		ModelFitter<DMatrixRMaj,AssociatedPair> alg;
-		String name;
-
-		public Refine(String name , ModelFitter<DMatrixRMaj,AssociatedPair> alg) {
-			this.name = name;
-			this.alg = alg;
-		}
-
-		@Override
-		public void process() {
-			alg.fitModel(pairs, H, refinedF);
-		}
-
-		@Override
-		public String getName() {
-			return name;
-		}
-	}
+	static final double TOL = 1e-16;
+	static final int MAX_ITER = 200;
 
-	public class Linear4 extends PerformerBase {
+	@Param({"500"})
+	public int numPoints;
 
-		HomographyDirectLinearTransform alg = new HomographyDirectLinearTransform(true);
-
-		@Override
-		public void process() {
-			alg.process(pairs,refinedF);
-		}
-	}
-	
-	public void runAll() {
-		System.out.println("=========  Profile numFeatures "+NUM_POINTS);
-		System.out.println();
+	protected DMatrixRMaj H = new DMatrixRMaj(3,3);
+	DMatrixRMaj refinedF = new DMatrixRMaj(3,3);
 
-		double tol = 1e-16;
-		int MAX_ITER = 200;
+	RefineEpipolar simple = refineHomography(TOL, MAX_ITER, EpipolarError.SIMPLE);
+	RefineEpipolar sampson = refineHomography(TOL, MAX_ITER, EpipolarError.SAMPSON);
+	HomographyDirectLinearTransform linear = new HomographyDirectLinearTransform(true);
 
-		init(NUM_POINTS, PIXELS, true);
+	@Setup
+	public void setup() {
+		init(numPoints, PIXELS, true);
 
 		Estimate1ofEpipolar computeAlg = FactoryMultiView.computeHomographyDLT(true);
 		computeAlg.process(pairs, H);
 		H.data[0] += 0.1;
 		H.data[4] -= 0.15;
 		H.data[7] -= 0.2;
+	}
 
+	@Benchmark
+	public void Simple() {
+		simple.fitModel(pairs, H, refinedF);
+	}
 
-		ProfileOperation.printOpsPerSec(new Refine("Simple",refineHomography(tol, MAX_ITER, EpipolarError.SIMPLE)), TEST_TIME);
-		ProfileOperation.printOpsPerSec(new Refine("Sampson",refineHomography(tol, MAX_ITER, EpipolarError.SAMPSON)), TEST_TIME);
-		ProfileOperation.printOpsPerSec(new Linear4(), TEST_TIME);
+	@Benchmark
+	public void Sampson() {
+		sampson.fitModel(pairs, H, refinedF);
+	}
 
-		
-		System.out.println();
-		System.out.println("Done");
+	@Benchmark
+	public void Linear() {
+		linear.process(pairs,refinedF);
 	}
-	
-	public static void main( String args[] ) {
-		BenchmarkRuntimeRefineHomography alg = new BenchmarkRuntimeRefineHomography();
 
-		alg.runAll();
+	public static void main( String args[] ) throws RunnerException {
+		Options opt = new OptionsBuilder()
+				.include(BenchmarkRuntimeRefineHomography.class.getSimpleName())
+				.build();
+
+		new Runner(opt).run();
 	}
 }
@@ -42,6 +42,9 @@ import java.util.List;
 import java.util.Random;
 
 /**
+ * Evaluates the accuracy of fundamental and essential matrix estimators as noise is added to the observations. This measures
+ * numerical stability and not speed, so it prints errors instead of being a JMH benchmark.
+ *
  * @author Peter Abeles
  */
 public class BenchmarkStabilityFundamental {
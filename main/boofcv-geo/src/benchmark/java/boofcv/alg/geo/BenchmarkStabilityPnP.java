@@ -29,6 +29,9 @@ import georegression.struct.se.Se3_F64;
 import java.util.Random;
 
 /**
+ * Evaluates the accuracy of PnP estimators as noise is added to the observations. This measures
+ * numerical stability and not speed, so it prints errors instead of being a JMH benchmark.
+ *
  * @author Peter Abeles
  */
 public class BenchmarkStabilityPnP extends ArtificialStereoScene {
@@ -19,6 +19,7 @@
 package boofcv.abst.feature.tracker;
 
 import boofcv.abst.feature.associate.AssociateDescription2D;
+import boofcv.metrics.MetricsRecorder;
 import boofcv.struct.feature.AssociatedIndex;
 import boofcv.struct.feature.TupleDesc;
 import boofcv.struct.image.ImageGray;
@@ -68,6 +69,9 @@ public class DetectDescribeAssociate<I extends ImageGray<I>, Desc extends TupleD
 	// should it update the feature description after each association?
 	boolean updateDescription;
 
+	// reports how long each step takes
+	protected MetricsRecorder metrics = new MetricsRecorder("DetectDescribeAssociate");
+
 	/**
 	 * Configures tracker
 	 *
@@ -124,8 +128,10 @@ public class DetectDescribeAssociate<I extends ImageGray<I>, Desc extends TupleD
 		tracksInactive.clear();
 		tracksDropped.clear();
 		tracksNew.clear();
+		metrics.beginFrame();
 
 		manager.detectFeatures(input);
+		metrics.stage("detect");
 		for (int setIndex = 0; setIndex < sets.length; setIndex++) {
 			SetTrackInfo<Desc> info = sets[setIndex];
 
@@ -151,9 +157,11 @@ public class DetectDescribeAssociate<I extends ImageGray<I>, Desc extends TupleD
 				}
 			}
 		}
-
-
-
+		metrics.stage("associate");
+		metrics.count("active",tracksActive.size());
+		metrics.count("inactive",tracksInactive.size());
+		metrics.count("dropped",tracksDropped.size());
+		metrics.endFrame();
 	}
 
 	protected void performTracking( SetTrackInfo<Desc> info ) {
@@ -23,6 +23,7 @@ import boofcv.alg.feature.detect.interest.GeneralFeatureDetector;
 import boofcv.alg.interpolate.InterpolateRectangle;
 import boofcv.alg.tracker.klt.*;
 import boofcv.alg.transform.pyramid.PyramidOps;
+import boofcv.metrics.MetricsRecorder;
 import boofcv.struct.QueueCorner;
 import boofcv.struct.image.ImageGray;
 import boofcv.struct.pyramid.PyramidDiscrete;
@@ -78,6 +79,9 @@ public class PointTrackerKltPyramid<I extends ImageGray<I>,D extends ImageGray<D
 	// number of features tracked so far
 	private long totalFeatures = 0;
 
+	// reports how long each step takes
+	protected MetricsRecorder metrics = new MetricsRecorder("PointTrackerKltPyramid");
+
 	/**
 	 * Constructor which specified the KLT track manager and how the image pyramids are computed.
 	 *
@@ -232,31 +236,34 @@ public class PointTrackerKltPyramid<I extends ImageGray<I>,D extends ImageGray<D
 
 		spawned.clear();
 		dropped.clear();
+		metrics.beginFrame();
 
 		// update image pyramids
 		basePyramid.process(image);
+		metrics.stage("pyramid");
 		declareOutput();
 		PyramidOps.gradient(basePyramid, gradient, derivX,derivY);
+		metrics.stage("gradient");
 
 		// track features
 		tracker.setImage(basePyramid,derivX,derivY);
+		trackActive();
+		metrics.stage("track");
+		metrics.count("active",active.size());
+		metrics.count("dropped",dropped.size());
+		metrics.endFrame();
+	}
+
+	/**
+	 * Tracks all the active features. Features which could not be tracked are moved into the dropped list.
+	 */
+	protected void trackActive() {
 		for( int i = 0; i < active.size(); ) {
 			PyramidKltFeature t = active.get(i);
-			KltTrackFault ret = tracker.track(t);
-
-			boolean success = false;
-
-			if( ret == KltTrackFault.SUCCESS ) {
-				// discard a track if its center drifts outside the image.
-				if( image.isInBounds((int)t.x,(int)t.y) && tracker.setDescription(t) ) {
-					PointTrack p = t.getCookie();
-					p.set(t.x,t.y);
-					i++;
-					success = true;
-				}
-			}
 
-			if( !success ) {
+			if( trackFeature(tracker,t) ) {
+				i++;
+			} else {
 				active.remove(i);
 				dropped.add( t );
 				unused.add( t );
@@ -264,6 +271,27 @@ public class PointTrackerKltPyramid<I extends ImageGray<I>,D extends ImageGray<D
 		}
 	}
 
+	/**
+	 * Tracks a single feature and updates its description
+	 *
+	 * @param tracker The tracker. Must have the current images set.
+	 * @param t The feature being tracked
+	 * @return true if the feature was successfully tracked and should be kept
+	 */
+	protected boolean trackFeature( PyramidKltTracker<I, D> tracker , PyramidKltFeature t ) {
+		KltTrackFault ret = tracker.track(t);
+
+		if( ret == KltTrackFault.SUCCESS ) {
+			// discard a track if its center drifts outside the image.
+			if( input.isInBounds((int)t.x,(int)t.y) && tracker.setDescription(t) ) {
+				PointTrack p = t.getCookie();
+				p.set(t.x,t.y);
+				return true;
+			}
+		}
+		return false;
+	}
+
 	protected void declareOutput() {
 		if( derivX == null ) {
 			// declare storage for image derivative since the image size is now known
@@ -0,0 +1,107 @@
+/*
+ * Copyright (c) 2011-2018, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.abst.feature.tracker;
+
+import boofcv.abst.filter.derivative.ImageGradient;
+import boofcv.alg.feature.detect.interest.GeneralFeatureDetector;
+import boofcv.alg.interpolate.InterpolateRectangle;
+import boofcv.alg.tracker.klt.KltConfig;
+import boofcv.alg.tracker.klt.PyramidKltFeature;
+import boofcv.alg.tracker.klt.PyramidKltTracker;
+import boofcv.concurrency.BoofConcurrency;
+import boofcv.struct.image.ImageGray;
+import boofcv.struct.pyramid.PyramidDiscrete;
+import org.ddogleg.struct.FastQueue;
+import org.ddogleg.struct.GrowQueue_B;
+
+/**
+ * Concurrent implementation of {@link PointTrackerKltPyramid}. Active tracks are split into blocks and each
+ * block is tracked in a different thread with its own copy of the low level tracker. Which tracks were
+ * dropped is decided after all the threads finish so the results are identical to the single threaded version.
+ * If the interpolation can't be copied then tracking is done in a single thread.
+ *
+ * @author Peter Abeles
+ */
+public class PointTrackerKltPyramid_MT<I extends ImageGray<I>,D extends ImageGray<D>>
+		extends PointTrackerKltPyramid<I,D>
+{
+	// tracker for each thread. The class literal of a generic type can't be parameterized, so it's cast once
+	@SuppressWarnings({"unchecked","rawtypes"})
+	private FastQueue<TrackerWorkSpace<I,D>> workspace =
+			new FastQueue<>((Class<TrackerWorkSpace<I,D>>)(Class)TrackerWorkSpace.class,true);
+
+	// if the track at the same index in the active list was successfully tracked
+	private GrowQueue_B success = new GrowQueue_B();
+
+	// true if the tracker can be copied for use in other threads
+	private boolean copySupported;
+
+	public PointTrackerKltPyramid_MT(KltConfig config,
+									 int templateRadius,
+									 PyramidDiscrete<I> pyramid,
+									 GeneralFeatureDetector<I, D> detector,
+									 ImageGradient<I, D> gradient,
+									 InterpolateRectangle<I> interpInput,
+									 InterpolateRectangle<D> interpDeriv,
+									 Class<D> derivType) {
+		super(config, templateRadius, pyramid, detector, gradient, interpInput, interpDeriv, derivType);
+		copySupported = interpInput.copy() != null && interpDeriv.copy() != null;
+	}
+
+	@Override
+	protected void trackActive() {
+		if( !copySupported ) {
+			super.trackActive();
+			return;
+		}
+
+		success.resize(active.size());
+
+		BoofConcurrency.loopBlocks(0,active.size(),workspace,(work,idx0,idx1)->{
+			if( work.tracker == null )
+				work.tracker = tracker.copy();
+			work.tracker.setImage(basePyramid,derivX,derivY);
+
+			for (int i = idx0; i < idx1; i++) {
+				success.data[i] = trackFeature(work.tracker,active.get(i));
+			}
+		});
+
+		// remove tracks which failed while preserving the order of the active list
+		int numActive = 0;
+		for (int i = 0; i < success.size; i++) {
+			PyramidKltFeature t = active.get(i);
+			if( success.data[i] ) {
+				active.set(numActive++,t);
+			} else {
+				dropped.add( t );
+				unused.add( t );
+			}
+		}
+		while( active.size() > numActive )
+			active.remove(active.size()-1);
+	}
+
+	/**
+	 * Tracker used by a single thread
+	 */
+	public static class TrackerWorkSpace<I extends ImageGray<I>,D extends ImageGray<D>> {
+		public PyramidKltTracker<I,D> tracker;
+	}
+}
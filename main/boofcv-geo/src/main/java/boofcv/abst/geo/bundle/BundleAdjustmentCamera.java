@@ -79,4 +79,15 @@ public interface BundleAdjustmentCamera {
 	 * @return number of intrinsic parameters.
 	 */
 	int getIntrinsicCount();
+
+	/**
+	 * Creates a new instance with the same model and intrinsic parameters which can be used in a different thread.
+	 * No internal state is shared between the two instances.
+	 *
+	 * @return New instance of this camera model or null if copying isn't supported, in which case it can only be
+	 * used in a single thread
+	 */
+	default BundleAdjustmentCamera concurrentCopy() {
+		return null;
+	}
 }
@@ -19,8 +19,12 @@
 package boofcv.abst.geo.bundle;
 
 import boofcv.alg.geo.bundle.BundleAdjustmentResidualFunction;
+import boofcv.alg.geo.bundle.BundleAdjustmentResidualFunction_MT;
 import boofcv.alg.geo.bundle.BundleAdjustmentSchurJacobian_DSCC;
+import boofcv.alg.geo.bundle.BundleAdjustmentSchurJacobian_DSCC_MT;
 import boofcv.alg.geo.bundle.CodecBundleAdjustmentSceneStructure;
+import boofcv.concurrency.BoofConcurrency;
+import boofcv.metrics.MetricsRecorder;
 import org.ddogleg.optimization.FactoryOptimizationSparse;
 import org.ddogleg.optimization.UnconstrainedLeastSquaresSchur;
 import org.ddogleg.optimization.lm.ConfigLevenbergMarquardt;
@@ -31,7 +35,10 @@ import javax.annotation.Nullable;
 import java.io.PrintStream;
 
 /**
- * Implementation of bundle adjustment using Shur Complement and generic sparse matrices.
+ * Implementation of bundle adjustment using Shur Complement and generic sparse matrices. If
+ * {@link BoofConcurrency#USE_CONCURRENT} is true when it's created then the residuals and Jacobian are
+ * computed using multiple threads, unless a camera model doesn't support
+ * {@link BundleAdjustmentCamera#concurrentCopy()}.
  *
  * @author Peter Abeles
  */
@@ -41,8 +48,12 @@ public class BundleAdjustmentSchur_DSCC
 	// minimization algorithm
 	private UnconstrainedLeastSquaresSchur<DMatrixSparseCSC> minimizer;
 
-	private BundleAdjustmentResidualFunction function = new BundleAdjustmentResidualFunction();
-	private BundleAdjustmentSchurJacobian_DSCC jacobian = new BundleAdjustmentSchurJacobian_DSCC();
+	// if concurrency was turned on when created
+	private final boolean concurrent = BoofConcurrency.USE_CONCURRENT;
+
+	// residuals and Jacobian. Selected when the parameters are set
+	private BundleAdjustmentResidualFunction function;
+	private BundleAdjustmentSchurJacobian_DSCC jacobian;
 
 	private int maxIterations;
 	private double parameters[]=new double[0];
@@ -55,6 +66,9 @@ public class BundleAdjustmentSchur_DSCC
 
 	private CodecBundleAdjustmentSceneStructure codec = new CodecBundleAdjustmentSceneStructure();
 
+	// reports how long optimization takes and how well it did
+	private MetricsRecorder metrics = new MetricsRecorder("BundleAdjustmentSchur_DSCC");
+
 	public BundleAdjustmentSchur_DSCC(@Nullable ConfigTrustRegion config) {
 		this.minimizer = FactoryOptimizationSparse.doglegSchur(config);
 	}
@@ -72,6 +86,13 @@ public class BundleAdjustmentSchur_DSCC
 
 	@Override
 	public void setParameters(BundleAdjustmentSceneStructure structure, BundleAdjustmentObservations observations) {
+		// multiple threads can only be used if every camera model can be copied
+		boolean threaded = concurrent && canCopyCameras(structure);
+		if( function == null || threaded != (function instanceof BundleAdjustmentResidualFunction_MT) ) {
+			function = threaded ? new BundleAdjustmentResidualFunction_MT() : new BundleAdjustmentResidualFunction();
+			jacobian = threaded ? new BundleAdjustmentSchurJacobian_DSCC_MT() : new BundleAdjustmentSchurJacobian_DSCC();
+		}
+
 		this.function.configure(structure, observations);
 		this.jacobian.configure(structure, observations);
 		this.minimizer.setFunction(function,jacobian);
@@ -85,17 +106,41 @@ public class BundleAdjustmentSchur_DSCC
 
 	}
 
+	private static boolean canCopyCameras( BundleAdjustmentSceneStructure structure ) {
+		for( BundleAdjustmentSceneStructure.Camera c : structure.cameras ) {
+			if( c.model.concurrentCopy() == null )
+				return false;
+		}
+		return true;
+	}
+
+	/**
+	 * Returns true if the residuals and Jacobian are computed using multiple threads. Only valid after
+	 * {@link #setParameters} has been called.
+	 */
+	public boolean isConcurrent() {
+		return function instanceof BundleAdjustmentResidualFunction_MT;
+	}
+
 	@Override
 	public boolean optimize( BundleAdjustmentSceneStructure output) {
 		stopRequested = false;
+		metrics.beginFrame();
 
 		double before = minimizer.getFunctionValue();
+		int iterations = 0;
 		for( int i = 0; i < maxIterations && !stopRequested; i++ ) {
+			iterations++;
 			if( minimizer.iterate() )
 				break;
 		}
+		metrics.stage("iterate");
 
 		codec.decode(minimizer.getParameters(), output);
+		metrics.count("iterations",iterations);
+		metrics.value("initial_score",before);
+		metrics.value("final_score",minimizer.getFunctionValue());
+		metrics.endFrame();
 		return minimizer.getFunctionValue() < before;
 	}
 
@@ -43,4 +43,12 @@ public class FlipVerticalNorm2_F32 implements Point2Transform2_F32 {
 	public void compute(float x, float y, Point2D_F32 out) {
 		pixelToNormalized.compute(x, height - y, out);
 	}
+
+	@Override
+	public FlipVerticalNorm2_F32 copyConcurrent() {
+		Point2Transform2_F32 pixelToNormalized = this.pixelToNormalized.copyConcurrent();
+		if( pixelToNormalized == null )
+			return null;
+		return new FlipVerticalNorm2_F32(pixelToNormalized,height+1);
+	}
 }
@@ -43,4 +43,12 @@ public class FlipVerticalNorm2_F64 implements Point2Transform2_F64 {
 	public void compute(double x, double y, Point2D_F64 out) {
 		pixelToNormalized.compute(x, height - y, out);
 	}
+
+	@Override
+	public FlipVerticalNorm2_F64 copyConcurrent() {
+		Point2Transform2_F64 pixelToNormalized = this.pixelToNormalized.copyConcurrent();
+		if( pixelToNormalized == null )
+			return null;
+		return new FlipVerticalNorm2_F64(pixelToNormalized,height+1);
+	}
 }
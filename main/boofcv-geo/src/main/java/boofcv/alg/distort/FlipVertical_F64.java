@@ -42,4 +42,9 @@ public class FlipVertical_F64 implements Point2Transform2_F64 {
 		out.x = x;
 		out.y = height - y;
 	}
+
+	@Override
+	public FlipVertical_F64 copyConcurrent() {
+		return new FlipVertical_F64(height+1);
+	}
 }
@@ -34,6 +34,7 @@ import boofcv.struct.calib.CameraUniversalOmni;
 import boofcv.struct.distort.PixelTransform2_F32;
 import boofcv.struct.distort.PixelTransform2_F64;
 import boofcv.struct.distort.Point2Transform2_F32;
+import boofcv.struct.distort.RemapTable_F32;
 import boofcv.struct.distort.SequencePoint2Transform2_F32;
 import boofcv.struct.image.ImageBase;
 import boofcv.struct.image.ImageType;
@@ -67,6 +68,47 @@ public class LensDistortionOps {
 										D desired,
 										D modified,
 										ImageType<T> imageType)
+	{
+		Point2Transform2_F32 undistToDist = transformChangeModel_F32(type, original, desired, true, modified);
+
+		return createCachedDistort(new PointToPixelTransform_F32(undistToDist),borderType,imageType);
+	}
+
+	/**
+	 * Same as {@link #changeCameraModel(AdjustmentType, BorderType, CameraPinhole, CameraPinhole, CameraPinhole, ImageType)}
+	 * but the distortion is specified by a table created with
+	 * {@link #remapTable(AdjustmentType, CameraPinhole, CameraPinhole, CameraPinhole)}. The table is used
+	 * directly and not recomputed, so a table which was saved to disk for a known camera can be loaded and used
+	 * immediately. The output image must be the same size as the table or an IllegalArgumentException is thrown.
+	 *
+	 * @param table Source pixel for each pixel in the output image. Not modified and can be shared.
+	 * @param borderType How the image border is handled
+	 * @param imageType Type of image.
+	 * @return Image distortion from original camera model to the modified one.
+	 */
+	public static <T extends ImageBase<T>>
+	ImageDistort<T,T> changeCameraModel(RemapTable_F32 table, BorderType borderType, ImageType<T> imageType)
+	{
+		return createCachedDistort(new PixelTransformTable_F32(table),borderType,imageType);
+	}
+
+	/**
+	 * Computes the source pixel of every pixel in the image with the desired camera model.
+	 * See {@link #changeCameraModel(AdjustmentType, BorderType, CameraPinhole, CameraPinhole, CameraPinhole, ImageType)}
+	 * for a description of the parameters. The table has the size of the desired camera.
+	 *
+	 * @return Table which can be passed to {@link #changeCameraModel(RemapTable_F32, BorderType, ImageType)}
+	 */
+	public static <O extends CameraPinhole, D extends CameraPinhole>
+	RemapTable_F32 remapTable(AdjustmentType type, O original, D desired, D modified)
+	{
+		Point2Transform2_F32 undistToDist = transformChangeModel_F32(type, original, desired, true, modified);
+
+		return RemapTable_F32.create(desired.width,desired.height,new PointToPixelTransform_F32(undistToDist));
+	}
+
+	private static <T extends ImageBase<T>>
+	ImageDistort<T,T> createCachedDistort(PixelTransform2_F32 dstToSrc, BorderType borderType, ImageType<T> imageType)
 	{
 		Class bandType = imageType.getImageClass();
 		boolean skip = borderType == BorderType.SKIP;
@@ -77,11 +119,9 @@ public class LensDistortionOps {
 
 		InterpolatePixelS interp = FactoryInterpolation.createPixelS(0, 255, InterpolationType.BILINEAR,borderType, bandType);
 
-		Point2Transform2_F32 undistToDist = transformChangeModel_F32(type, original, desired, true, modified);
-
 		ImageDistort<T,T> distort = FactoryDistort.distort(true, interp, imageType);
 
-		distort.setModel(new PointToPixelTransform_F32(undistToDist));
+		distort.setModel(dstToSrc);
 		distort.setRenderAll(!skip );
 
 		return distort;
@@ -88,4 +88,16 @@ public class NarrowToWidePtoP_F32 implements Point2Transform2_F32 {
 		unitToWide.compute(unit.x,unit.y,unit.z,out);
 	}
 
+	@Override
+	public NarrowToWidePtoP_F32 copyConcurrent() {
+		Point2Transform2_F32 narrowToNorm = this.narrowToNorm.copyConcurrent();
+		Point3Transform2_F32 unitToWide = this.unitToWide.copyConcurrent();
+		if( narrowToNorm == null || unitToWide == null )
+			return null;
+		NarrowToWidePtoP_F32 c = new NarrowToWidePtoP_F32();
+		c.rotateWideToNarrow.set(rotateWideToNarrow);
+		c.narrowToNorm = narrowToNorm;
+		c.unitToWide = unitToWide;
+		return c;
+	}
 }
@@ -88,4 +88,16 @@ public class NarrowToWidePtoP_F64 implements Point2Transform2_F64 {
 		unitToWide.compute(unit.x,unit.y,unit.z,out);
 	}
 
+	@Override
+	public NarrowToWidePtoP_F64 copyConcurrent() {
+		Point2Transform2_F64 narrowToNorm = this.narrowToNorm.copyConcurrent();
+		Point3Transform2_F64 unitToWide = this.unitToWide.copyConcurrent();
+		if( narrowToNorm == null || unitToWide == null )
+			return null;
+		NarrowToWidePtoP_F64 c = new NarrowToWidePtoP_F64();
+		c.rotateWideToNarrow.set(rotateWideToNarrow);
+		c.narrowToNorm = narrowToNorm;
+		c.unitToWide = unitToWide;
+		return c;
+	}
 }
@@ -53,4 +53,12 @@ public class Transform2ThenPixel_F64 implements Point2Transform2_F64 {
 		out.x = fx*x + skew*y + cx;
 		out.y = fy*y + cy;
 	}
+
+	@Override
+	public Point2Transform2_F64 copyConcurrent() {
+		Point2Transform2_F64 first = this.first.copyConcurrent();
+		if( first == null )
+			return null;
+		return new Transform2ThenPixel_F64(first).set(fx,fy,skew,cx,cy);
+	}
 }
@@ -46,4 +46,9 @@ public class PinholeNtoP_F64 implements Point2Transform2_F64 {
 		out.x = fx * x + skew * y + cx;
 		out.y = fy * y + cy;
 	}
+
+	@Override
+	public PinholeNtoP_F64 copyConcurrent() {
+		return new PinholeNtoP_F64().set(fx,fy,skew,cx,cy);
+	}
 }
@@ -49,4 +49,12 @@ public class PinholePtoN_F64 implements Point2Transform2_F64 {
 		out.x = a11*x + a12*y + a13;
 		out.y = a22*y + a23;
 	}
+
+	@Override
+	public PinholePtoN_F64 copyConcurrent() {
+		PinholePtoN_F64 c = new PinholePtoN_F64();
+		c.a11 = a11; c.a12 = a12; c.a13 = a13;
+		c.a22 = a22; c.a23 = a23;
+		return c;
+	}
 }
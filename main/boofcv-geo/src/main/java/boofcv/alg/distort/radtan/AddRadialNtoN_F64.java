@@ -72,4 +72,11 @@ public class AddRadialNtoN_F64 implements Point2Transform2_F64 {
 		out.x += 2*t1*x*y + t2*(r2 + 2*x*x);
 		out.y += t1*(r2 + 2*y*y) + 2*t2*x*y;
 	}
+
+	@Override
+	public AddRadialNtoN_F64 copyConcurrent() {
+		AddRadialNtoN_F64 c = new AddRadialNtoN_F64();
+		c.params = params;
+		return c;
+	}
 }
@@ -102,4 +102,13 @@ public class AddRadialPtoN_F32 implements Point2Transform2_F32 {
 		out.x = out.x*(1 + sum) + tx;
 		out.y = out.y*(1 + sum) + ty;
 	}
-}
\ No newline at end of file
+
+	@Override
+	public AddRadialPtoN_F32 copyConcurrent() {
+		AddRadialPtoN_F32 c = new AddRadialPtoN_F32();
+		c.params = params;
+		c.a11 = a11; c.a12 = a12; c.a13 = a13;
+		c.a22 = a22; c.a23 = a23;
+		return c;
+	}
+}
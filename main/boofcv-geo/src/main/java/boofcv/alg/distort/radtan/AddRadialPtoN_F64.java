@@ -102,4 +102,13 @@ public class AddRadialPtoN_F64 implements Point2Transform2_F64 {
 		out.x = out.x*(1 + sum) + tx;
 		out.y = out.y*(1 + sum) + ty;
 	}
-}
\ No newline at end of file
+
+	@Override
+	public AddRadialPtoN_F64 copyConcurrent() {
+		AddRadialPtoN_F64 c = new AddRadialPtoN_F64();
+		c.params = params;
+		c.a11 = a11; c.a12 = a12; c.a13 = a13;
+		c.a22 = a22; c.a23 = a23;
+		return c;
+	}
+}
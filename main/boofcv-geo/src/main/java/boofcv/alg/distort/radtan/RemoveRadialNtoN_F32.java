@@ -107,4 +107,11 @@ public class RemoveRadialNtoN_F32 implements Point2Transform2_F32 {
 		}
 		out.set(x,y);
 	}
-}
\ No newline at end of file
+
+	@Override
+	public RemoveRadialNtoN_F32 copyConcurrent() {
+		RemoveRadialNtoN_F32 c = new RemoveRadialNtoN_F32(tol);
+		c.params = params;
+		return c;
+	}
+}
@@ -107,4 +107,11 @@ public class RemoveRadialNtoN_F64 implements Point2Transform2_F64 {
 		}
 		out.set(x,y);
 	}
-}
\ No newline at end of file
+
+	@Override
+	public RemoveRadialNtoN_F64 copyConcurrent() {
+		RemoveRadialNtoN_F64 c = new RemoveRadialNtoN_F64(tol);
+		c.params = params;
+		return c;
+	}
+}
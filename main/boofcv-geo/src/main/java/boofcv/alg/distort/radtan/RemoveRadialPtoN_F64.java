@@ -103,4 +103,14 @@ public class RemoveRadialPtoN_F64 implements Point2Transform2_F64 {
 
 		removeRadial(out.x, out.y, params.radial, params.t1, params.t2, out, tol );
 	}
-}
\ No newline at end of file
+
+	@Override
+	public RemoveRadialPtoN_F64 copyConcurrent() {
+		RemoveRadialPtoN_F64 c = new RemoveRadialPtoN_F64(tol);
+		c.params = params;
+		c.fx = fx; c.fy = fy; c.skew = skew; c.cx = cx; c.cy = cy;
+		c.a11 = a11; c.a12 = a12; c.a13 = a13;
+		c.a22 = a22; c.a23 = a23;
+		return c;
+	}
+}
@@ -93,4 +93,14 @@ public class UniOmniStoP_F32 implements Point3Transform2_F32 {
 		out.x = fx * x + skew * y + cx;
 		out.y = fy * y + cy;
 	}
+
+	@Override
+	public UniOmniStoP_F32 copyConcurrent() {
+		UniOmniStoP_F32 c = new UniOmniStoP_F32();
+		c.mirrorOffset = mirrorOffset;
+		c.distortion = distortion;
+		c.cx = cx; c.cy = cy;
+		c.fx = fx; c.fy = fy; c.skew = skew;
+		return c;
+	}
 }
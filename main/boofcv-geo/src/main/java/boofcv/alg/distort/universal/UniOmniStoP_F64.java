@@ -93,4 +93,14 @@ public class UniOmniStoP_F64 implements Point3Transform2_F64 {
 		out.x = fx * x + skew * y + cx;
 		out.y = fy * y + cy;
 	}
+
+	@Override
+	public UniOmniStoP_F64 copyConcurrent() {
+		UniOmniStoP_F64 c = new UniOmniStoP_F64();
+		c.mirrorOffset = mirrorOffset;
+		c.distortion = distortion;
+		c.cx = cx; c.cy = cy;
+		c.fx = fx; c.fy = fy; c.skew = skew;
+		return c;
+	}
 }
@@ -18,6 +18,7 @@
 
 package boofcv.alg.geo.bundle;
 
+import boofcv.abst.geo.bundle.BundleAdjustmentCamera;
 import boofcv.abst.geo.bundle.BundleAdjustmentObservations;
 import boofcv.abst.geo.bundle.BundleAdjustmentSceneStructure;
 import boofcv.struct.geo.PointIndex2D_F64;
@@ -45,28 +46,23 @@ import org.ddogleg.optimization.functions.FunctionNtoM;
 public class BundleAdjustmentResidualFunction
 	implements FunctionNtoM
 {
-	private BundleAdjustmentSceneStructure structure;
-	private BundleAdjustmentObservations observations;
-
-	// feature location in world coordinates
-	private Point3D_F64 worldPt = new Point3D_F64();
+	protected BundleAdjustmentSceneStructure structure;
+	protected BundleAdjustmentObservations observations;
 
 	// number of parameters being optimised
 	private int numParameters;
 	// number of observations.  2 for each point in each view
 	private int numObservations;
 
-	// local variable which stores the predicted location of the feature in the camera frame
-	private Point3D_F64 cameraPt = new Point3D_F64();
+	// index of the first observation in each view
+	protected int viewObservationIndexes[];
 
-	// Storage for rendered output
-	private Point2D_F64 predictedPixel = new Point2D_F64();
-	private PointIndex2D_F64 observedPixel = new PointIndex2D_F64();
+	// Storage for temporary variables
+	private WorkSpace workspace = new WorkSpace();
 
 	// Used to write the "unknown" paramters into the scene
 	CodecBundleAdjustmentSceneStructure codec = new CodecBundleAdjustmentSceneStructure();
 
-	Point3D_F64 p3 = new Point3D_F64();
 	/**
 	 * Specifies the scenes structure and observed feature locations
 	 */
@@ -81,6 +77,13 @@ public class BundleAdjustmentResidualFunction
 		numObservations = observations.getObservationCount();
 
 		numParameters = numViewsUnknown*6 + structure.points.length*3 + numCameraParameters;
+
+		viewObservationIndexes = new int[structure.views.length];
+		int index = 0;
+		for (int i = 0; i < structure.views.length; i++) {
+			viewObservationIndexes[i] = index;
+			index += observations.views[i].size();
+		}
 	}
 
 	@Override
@@ -98,27 +101,56 @@ public class BundleAdjustmentResidualFunction
 
 		// write the current parameters into the scene's structure
 		codec.decode(input,structure);
-		int observationIndex = 0;
 		for( int viewIndex = 0; viewIndex < structure.views.length; viewIndex++ ) {
 			BundleAdjustmentSceneStructure.View view = structure.views[viewIndex];
-			BundleAdjustmentSceneStructure.Camera camera = structure.cameras[view.camera];
-			BundleAdjustmentObservations.View obsView = observations.views[viewIndex];
+			processView(viewIndex, structure.cameras[view.camera].model, workspace, output);
+		}
+	}
 
-			for (int i = 0; i < obsView.size(); i++) {
-				obsView.get(i,observedPixel);
-				BundleAdjustmentSceneStructure.Point worldPt = structure.points[observedPixel.index];
-				worldPt.get(p3);
+	/**
+	 * Computes the residuals for all the observations in a single view. The scene's structure must already
+	 * contain the current parameters.
+	 *
+	 * @param viewIndex Index of the view being processed
+	 * @param model Camera model for the view with the current intrinsic parameters
+	 * @param w Storage for temporary variables
+	 * @param output Storage for residuals
+	 */
+	protected void processView( int viewIndex , BundleAdjustmentCamera model , WorkSpace w , double[] output ) {
+		BundleAdjustmentSceneStructure.View view = structure.views[viewIndex];
+		BundleAdjustmentObservations.View obsView = observations.views[viewIndex];
+
+		int observationIndex = viewObservationIndexes[viewIndex];
+		for (int i = 0; i < obsView.size(); i++) {
+			obsView.get(i,w.observedPixel);
+			BundleAdjustmentSceneStructure.Point worldPt = structure.points[w.observedPixel.index];
+			worldPt.get(w.p3);
 
-				SePointOps_F64.transform(view.worldToView,p3,cameraPt);
+			SePointOps_F64.transform(view.worldToView,w.p3,w.cameraPt);
 
-				camera.model.project(cameraPt.x,cameraPt.y,cameraPt.z, predictedPixel);
+			model.project(w.cameraPt.x,w.cameraPt.y,w.cameraPt.z, w.predictedPixel);
 
-				int outputIndex = observationIndex*2;
-				output[outputIndex  ] = predictedPixel.x - observedPixel.x;
-				output[outputIndex+1] = predictedPixel.y - observedPixel.y;
-				observationIndex++;
-			}
+			int outputIndex = observationIndex*2;
+			output[outputIndex  ] = w.predictedPixel.x - w.observedPixel.x;
+			output[outputIndex+1] = w.predictedPixel.y - w.observedPixel.y;
+			observationIndex++;
 		}
 	}
 
+	/**
+	 * Temporary variables used when computing the residuals.
+	 */
+	public static class WorkSpace {
+		// feature location in world coordinates
+		public Point3D_F64 p3 = new Point3D_F64();
+		// local variable which stores the predicted location of the feature in the camera frame
+		public Point3D_F64 cameraPt = new Point3D_F64();
+
+		// Storage for rendered output
+		public Point2D_F64 predictedPixel = new Point2D_F64();
+		public PointIndex2D_F64 observedPixel = new PointIndex2D_F64();
+
+		// Copy of each camera model which is only used by this work space. Only used when concurrent
+		public BundleAdjustmentCamera cameras[];
+	}
 }
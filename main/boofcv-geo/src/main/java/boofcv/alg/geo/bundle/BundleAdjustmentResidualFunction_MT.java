@@ -0,0 +1,97 @@
+/*
+ * Copyright (c) 2011-2018, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.geo.bundle;
+
+import boofcv.abst.geo.bundle.BundleAdjustmentCamera;
+import boofcv.abst.geo.bundle.BundleAdjustmentObservations;
+import boofcv.abst.geo.bundle.BundleAdjustmentSceneStructure;
+import boofcv.concurrency.BoofConcurrency;
+import org.ddogleg.struct.FastQueue;
+
+/**
+ * Concurrent version of {@link BundleAdjustmentResidualFunction}. Views are split into blocks which are processed
+ * independently. Each block has its own temporary variables and its own copy of every camera model, created
+ * with {@link BundleAdjustmentCamera#concurrentCopy()}. Output is identical to the single threaded version.
+ *
+ * @author Peter Abeles
+ */
+public class BundleAdjustmentResidualFunction_MT extends BundleAdjustmentResidualFunction {
+
+	// first index in input/parameters vector for each camera
+	private int cameraParameterIndexes[];
+
+	// Work space for each block of views
+	private FastQueue<WorkSpace> workspaces = new FastQueue<>(WorkSpace.class,true);
+
+	// parameters being processed
+	private double input[],output[];
+
+	@Override
+	public void configure(BundleAdjustmentSceneStructure structure, BundleAdjustmentObservations observations) {
+		super.configure(structure, observations);
+
+		cameraParameterIndexes = new int[structure.cameras.length];
+		int index = structure.points.length*3 + structure.getUnknownViewCount()*6;
+		for (int i = 0; i < structure.cameras.length; i++) {
+			cameraParameterIndexes[i] = index;
+			if( !structure.cameras[i].known ) {
+				index += structure.cameras[i].model.getIntrinsicCount();
+			}
+		}
+
+		// the camera models might have changed, so discard the old copies
+		workspaces = new FastQueue<>(WorkSpace.class,true);
+	}
+
+	@Override
+	public void process(double[] input, double[] output) {
+		// write the current parameters into the scene's structure
+		codec.decode(input,structure);
+
+		this.input = input;
+		this.output = output;
+		BoofConcurrency.loopBlocks(0,structure.views.length,workspaces,this::processBlock);
+		this.input = this.output = null;
+	}
+
+	/**
+	 * Computes the residuals for views view0 to view1-1, inclusive
+	 */
+	private void processBlock( WorkSpace w , int view0 , int view1 ) {
+		if( w.cameras == null )
+			w.cameras = new BundleAdjustmentCamera[structure.cameras.length];
+
+		for (int viewIndex = view0; viewIndex < view1; viewIndex++) {
+			int cameraIndex = structure.views[viewIndex].camera;
+			BundleAdjustmentSceneStructure.Camera camera = structure.cameras[cameraIndex];
+			BundleAdjustmentCamera model = w.cameras[cameraIndex];
+			if( model == null ) {
+				// the shared model is only read here and the copy already has the latest parameters
+				model = w.cameras[cameraIndex] = camera.model.concurrentCopy();
+				if( model == null )
+					throw new IllegalArgumentException("Camera model does not support concurrentCopy(). " +
+							"Use the single threaded version");
+			} else if( !camera.known ) {
+				model.setIntrinsic(input,cameraParameterIndexes[cameraIndex]);
+			}
+
+			processView(viewIndex, model, w, output);
+		}
+	}
+}
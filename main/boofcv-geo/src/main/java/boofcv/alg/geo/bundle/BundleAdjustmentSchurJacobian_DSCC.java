@@ -18,6 +18,7 @@
 
 package boofcv.alg.geo.bundle;
 
+import boofcv.abst.geo.bundle.BundleAdjustmentCamera;
 import boofcv.abst.geo.bundle.BundleAdjustmentObservations;
 import boofcv.abst.geo.bundle.BundleAdjustmentSceneStructure;
 import boofcv.abst.geo.bundle.BundleAdjustmentSchur_DSCC;
@@ -41,25 +42,14 @@ import org.ejml.ops.ConvertDMatrixStruct;
  */
 public class BundleAdjustmentSchurJacobian_DSCC implements SchurJacobian<DMatrixSparseCSC>
 {
-	private BundleAdjustmentSceneStructure structure;
-	private BundleAdjustmentObservations observations;
+	protected BundleAdjustmentSceneStructure structure;
+	protected BundleAdjustmentObservations observations;
 
 	// number of views with parameters that are going to be adjusted
 	private int numViewsUnknown;
 
 	// total number of parameters being optimized
-	private int numParameters;
-
-	// used to compute the Jacobian from Rodrigues coordinates
-	private RodriguesRotationJacobian rodJacobian = new RodriguesRotationJacobian();
-	private Se3_F64 worldToView = new Se3_F64();
-
-	// local variable which stores the predicted location of the feature in the camera frame
-	private Rodrigues_F64 rodrigues = new Rodrigues_F64();
-	// feature location in world coordinates
-	private Point3D_F64 worldPt = new Point3D_F64();
-	// feature location in camera coordinates
-	private Point3D_F64 cameraPt = new Point3D_F64();
+	protected int numParameters;
 
 	// index in parameters of the first point
 	private int indexFirstView;
@@ -68,19 +58,13 @@ public class BundleAdjustmentSchurJacobian_DSCC implements SchurJacobian<DMatrix
 	private int viewParameterIndexes[];
 	// first index in input/parameters vector for each camera
 	private int cameraParameterIndexes[];
+	// index of the first observation in each view
+	private int viewObservationIndexes[];
+	// largest number of intrinsic parameters in a camera model
+	protected int largestCameraSize;
 
-	// Jacobian matrix index of x and y partial
-	private int jacRowX,jacRowY;
-
-	// reference to output Jacobian matrix
-	private DMatrixSparseTriplet tripletPoint = new DMatrixSparseTriplet();
-	private DMatrixSparseTriplet tripletView = new DMatrixSparseTriplet();
-
-	// Storage for gradients
-	private double pointGradX[] = new double[3];
-	private double pointGradY[] = new double[3];
-	private double calibGradX[] = null;
-	private double calibGradY[] = null;
+	// Storage for temporary variables and the Jacobian being computed
+	private WorkSpace workspace = new WorkSpace();
 
 	public void configure( BundleAdjustmentSceneStructure structure , BundleAdjustmentObservations observations ) {
 		this.structure = structure;
@@ -94,18 +78,22 @@ public class BundleAdjustmentSchurJacobian_DSCC implements SchurJacobian<DMatrix
 		numParameters = indexLastView + numCameraParameters;
 
 		viewParameterIndexes = new int[structure.views.length];
+		viewObservationIndexes = new int[structure.views.length];
 		int index = 0;
+		int observationIndex = 0;
 		for (int i = 0; i < structure.views.length; i++) {
 			viewParameterIndexes[i] = index;
+			viewObservationIndexes[i] = observationIndex;
 			if( !structure.views[i].known ) {
 				index += 6;
 			}
+			observationIndex += observations.views[i].size();
 		}
 
 		// Create a lookup table for each camera. Camera ID to location in parameter vector
 		cameraParameterIndexes = new int[structure.cameras.length];
 		index = 0;
-		int largestCameraSize = 0;
+		largestCameraSize = 0;
 		for (int i = 0; i < structure.cameras.length; i++) {
 			if( !structure.cameras[i].known ) {
 				cameraParameterIndexes[i] = index;
@@ -114,9 +102,6 @@ public class BundleAdjustmentSchurJacobian_DSCC implements SchurJacobian<DMatrix
 				index += count;
 			}
 		}
-
-		calibGradX = new double[largestCameraSize];
-		calibGradY = new double[largestCameraSize];
 	}
 
 	@Override
@@ -131,107 +116,120 @@ public class BundleAdjustmentSchurJacobian_DSCC implements SchurJacobian<DMatrix
 
 	@Override
 	public void process( double[] input, DMatrixSparseCSC left, DMatrixSparseCSC right) {
-		int numRows = getNumOfOutputsM();
-		int numPointParam = structure.points.length*3;
-		int numViewParam = numParameters-numPointParam; // view + camera
-
-		tripletPoint.reshape(numRows,numPointParam);
-		tripletView.reshape(numRows,numViewParam);
+		WorkSpace w = workspace;
+		w.initialize(getNumOfOutputsM(),structure.points.length*3,numParameters,largestCameraSize);
 
-		int observationIndex = 0;
-		// first decode the transformation
 		for( int viewIndex = 0; viewIndex < structure.views.length; viewIndex++ ) {
 			BundleAdjustmentSceneStructure.View view = structure.views[viewIndex];
-			BundleAdjustmentSceneStructure.Camera camera = structure.cameras[view.camera];
-
-			if( !view.known ) {
-				int paramIndex = viewParameterIndexes[viewIndex]+indexFirstView;
-				double rodX = input[paramIndex];
-				double rodY = input[paramIndex+1];
-				double rodZ = input[paramIndex+2];
+			processView(input, viewIndex, structure.cameras[view.camera].model, w);
+		}
 
-				worldToView.T.x = input[paramIndex+3];
-				worldToView.T.y = input[paramIndex+4];
-				worldToView.T.z = input[paramIndex+5];
+		ConvertDMatrixStruct.convert(w.tripletPoint,left);
+		ConvertDMatrixStruct.convert(w.tripletView,right);
+	}
 
-				rodrigues.setParamVector(rodX,rodY,rodZ);
-				rodJacobian.process(rodX,rodY,rodZ);
+	/**
+	 * Adds the partials for all the observations in a single view to the work space's Jacobian
+	 *
+	 * @param input Parameters the Jacobian is computed at
+	 * @param viewIndex Index of the view being processed
+	 * @param model Camera model for the view. If the camera is unknown its intrinsic parameters are modified.
+	 * @param w Storage for temporary variables and the Jacobian
+	 */
+	protected void processView( double[] input, int viewIndex , BundleAdjustmentCamera model , WorkSpace w ) {
+		BundleAdjustmentSceneStructure.View view = structure.views[viewIndex];
+		BundleAdjustmentSceneStructure.Camera camera = structure.cameras[view.camera];
 
-				ConvertRotation3D_F64.rodriguesToMatrix(rodrigues,worldToView.R);
-			} else {
-				worldToView.set(view.worldToView);
-			}
-			int cameraParamStartIndex = cameraParameterIndexes[view.camera];
-			if( !camera.known ) {
-				camera.model.setIntrinsic(input,indexLastView+cameraParamStartIndex);
-			}
+		Se3_F64 worldToView = w.worldToView;
+		Point3D_F64 worldPt = w.worldPt;
+		Point3D_F64 cameraPt = w.cameraPt;
+		double pointGradX[] = w.pointGradX, pointGradY[] = w.pointGradY;
+		DMatrixSparseTriplet tripletView = w.tripletView;
 
-			BundleAdjustmentObservations.View obsView = observations.views[viewIndex];
+		// first decode the transformation
+		if( !view.known ) {
+			int paramIndex = viewParameterIndexes[viewIndex]+indexFirstView;
+			double rodX = input[paramIndex];
+			double rodY = input[paramIndex+1];
+			double rodZ = input[paramIndex+2];
+
+			worldToView.T.x = input[paramIndex+3];
+			worldToView.T.y = input[paramIndex+4];
+			worldToView.T.z = input[paramIndex+5];
+
+			w.rodrigues.setParamVector(rodX,rodY,rodZ);
+			w.rodJacobian.process(rodX,rodY,rodZ);
+
+			ConvertRotation3D_F64.rodriguesToMatrix(w.rodrigues,worldToView.R);
+		} else {
+			worldToView.set(view.worldToView);
+		}
+		int cameraParamStartIndex = cameraParameterIndexes[view.camera];
+		if( !camera.known ) {
+			model.setIntrinsic(input,indexLastView+cameraParamStartIndex);
+		}
 
-			for (int i = 0; i < obsView.size(); i++) {
-				int featureIndex = obsView.point.get(i);
-				int columnOfPointInJac = featureIndex*3;
+		BundleAdjustmentObservations.View obsView = observations.views[viewIndex];
 
-				worldPt.x = input[columnOfPointInJac];
-				worldPt.y = input[columnOfPointInJac+1];
-				worldPt.z = input[columnOfPointInJac+2];
+		int observationIndex = viewObservationIndexes[viewIndex];
+		for (int i = 0; i < obsView.size(); i++) {
+			int featureIndex = obsView.point.get(i);
+			int columnOfPointInJac = featureIndex*3;
 
-				SePointOps_F64.transform(worldToView,worldPt,cameraPt);
+			worldPt.x = input[columnOfPointInJac];
+			worldPt.y = input[columnOfPointInJac+1];
+			worldPt.z = input[columnOfPointInJac+2];
 
-				jacRowX = observationIndex*2;
-				jacRowY = jacRowX+1;
+			SePointOps_F64.transform(worldToView,worldPt,cameraPt);
 
-				//============ Partial of camera parameters
-				if( !camera.known ) {
-					int N = camera.model.getIntrinsicCount();
-					camera.model.jacobian(cameraPt.x, cameraPt.y, cameraPt.z,
-							pointGradX, pointGradY, true, calibGradX, calibGradY);
+			int jacRowX = observationIndex*2;
+			int jacRowY = jacRowX+1;
 
-					int location = indexLastView-indexFirstView+cameraParamStartIndex;
-					for (int j = 0; j < N; j++) {
-						tripletView.addItemCheck(jacRowX,location+j,calibGradX[j]);
-						tripletView.addItemCheck(jacRowY,location+j,calibGradY[j]);
-					}
-				} else {
-					camera.model.jacobian(cameraPt.x, cameraPt.y, cameraPt.z, pointGradX, pointGradY,
-							false, null, null);
-				}
-				//============ Partial of worldPt
-				// partial of (R*X + T) with respect to X is a 3 by 3 matrix
-				// This turns out to be just R
-				// grad F(G(X)) = 2 x 3 matrix which is then multiplied by R
-				addToJacobian(tripletPoint,columnOfPointInJac,pointGradX,pointGradY,worldToView.R);
-
-				if( !view.known ) {
-					int col = viewParameterIndexes[viewIndex];
-
-					//============== Partial of view rotation parameters
-					addToJacobian(tripletView, col+0, pointGradX, pointGradY, rodJacobian.Rx,worldPt);
-					addToJacobian(tripletView, col+1, pointGradX, pointGradY, rodJacobian.Ry,worldPt);
-					addToJacobian(tripletView, col+2, pointGradX, pointGradY, rodJacobian.Rz,worldPt);
-
-					//============== Partial of view translation parameters
-					tripletView.addItemCheck(jacRowX,col+3, pointGradX[0]); tripletView.addItem(jacRowY,col+3, pointGradY[0]);
-					tripletView.addItemCheck(jacRowX,col+4, pointGradX[1]); tripletView.addItem(jacRowY,col+4, pointGradY[1]);
-					tripletView.addItemCheck(jacRowX,col+5, pointGradX[2]); tripletView.addItem(jacRowY,col+5, pointGradY[2]);
+			//============ Partial of camera parameters
+			if( !camera.known ) {
+				int N = model.getIntrinsicCount();
+				model.jacobian(cameraPt.x, cameraPt.y, cameraPt.z,
+						pointGradX, pointGradY, true, w.calibGradX, w.calibGradY);
+
+				int location = indexLastView-indexFirstView+cameraParamStartIndex;
+				for (int j = 0; j < N; j++) {
+					tripletView.addItemCheck(jacRowX,location+j,w.calibGradX[j]);
+					tripletView.addItemCheck(jacRowY,location+j,w.calibGradY[j]);
 				}
-
-				observationIndex++;
+			} else {
+				model.jacobian(cameraPt.x, cameraPt.y, cameraPt.z, pointGradX, pointGradY,
+						false, null, null);
 			}
-		}
+			//============ Partial of worldPt
+			// partial of (R*X + T) with respect to X is a 3 by 3 matrix
+			// This turns out to be just R
+			// grad F(G(X)) = 2 x 3 matrix which is then multiplied by R
+			addToJacobian(w.tripletPoint,jacRowX,columnOfPointInJac,pointGradX,pointGradY,worldToView.R);
 
-		ConvertDMatrixStruct.convert(tripletPoint,left);
-		ConvertDMatrixStruct.convert(tripletView,right);
+			if( !view.known ) {
+				int col = viewParameterIndexes[viewIndex];
+				RodriguesRotationJacobian rodJacobian = w.rodJacobian;
+
+				//============== Partial of view rotation parameters
+				addToJacobian(tripletView, jacRowX, col+0, pointGradX, pointGradY, rodJacobian.Rx,worldPt);
+				addToJacobian(tripletView, jacRowX, col+1, pointGradX, pointGradY, rodJacobian.Ry,worldPt);
+				addToJacobian(tripletView, jacRowX, col+2, pointGradX, pointGradY, rodJacobian.Rz,worldPt);
+
+				//============== Partial of view translation parameters
+				tripletView.addItemCheck(jacRowX,col+3, pointGradX[0]); tripletView.addItem(jacRowY,col+3, pointGradY[0]);
+				tripletView.addItemCheck(jacRowX,col+4, pointGradX[1]); tripletView.addItem(jacRowY,col+4, pointGradY[1]);
+				tripletView.addItemCheck(jacRowX,col+5, pointGradX[2]); tripletView.addItem(jacRowY,col+5, pointGradY[2]);
+			}
 
-//		left.print();
-//		right.print();
-//		System.out.println("Asdads");
+			observationIndex++;
+		}
 	}
 
 	/**
 	 * J[rows,col:(col+3)] =  [a;b]*R
 	 */
-	private void addToJacobian(DMatrixSparseTriplet tripplet, int col , double a[], double b[], DMatrixRMaj R ) {
+	private static void addToJacobian(DMatrixSparseTriplet tripplet, int jacRowX, int col , double a[], double b[], DMatrixRMaj R ) {
+		int jacRowY = jacRowX+1;
 		tripplet.addItem(jacRowX,col+0,a[0]*R.data[0] + a[1]*R.data[3] + a[2]*R.data[6]);
 		tripplet.addItem(jacRowX,col+1,a[0]*R.data[1] + a[1]*R.data[4] + a[2]*R.data[7]);
 		tripplet.addItem(jacRowX,col+2,a[0]*R.data[2] + a[1]*R.data[5] + a[2]*R.data[8]);
@@ -241,13 +239,55 @@ public class BundleAdjustmentSchurJacobian_DSCC implements SchurJacobian<DMatrix
 		tripplet.addItem(jacRowY,col+2,b[0]*R.data[2] + b[1]*R.data[5] + b[2]*R.data[8]);
 	}
 
-	private void addToJacobian(DMatrixSparseTriplet tripplet, int col , double a[], double b[], DMatrixRMaj R , Point3D_F64 X  ) {
+	private static void addToJacobian(DMatrixSparseTriplet tripplet, int jacRowX, int col , double a[], double b[], DMatrixRMaj R , Point3D_F64 X  ) {
 
 		double x = R.data[0]*X.x + R.data[1]*X.y + R.data[2]*X.z;
 		double y = R.data[3]*X.x + R.data[4]*X.y + R.data[5]*X.z;
 		double z = R.data[6]*X.x + R.data[7]*X.y + R.data[8]*X.z;
 
 		tripplet.addItem(jacRowX,col,a[0]*x + a[1]*y + a[2]*z);
-		tripplet.addItem(jacRowY,col,b[0]*x + b[1]*y + b[2]*z);
+		tripplet.addItem(jacRowX+1,col,b[0]*x + b[1]*y + b[2]*z);
+	}
+
+	/**
+	 * Temporary variables and storage for the partials computed from a set of views.
+	 */
+	public static class WorkSpace {
+		// used to compute the Jacobian from Rodrigues coordinates
+		public RodriguesRotationJacobian rodJacobian = new RodriguesRotationJacobian();
+		public Se3_F64 worldToView = new Se3_F64();
+
+		// local variable which stores the predicted location of the feature in the camera frame
+		public Rodrigues_F64 rodrigues = new Rodrigues_F64();
+		// feature location in world coordinates
+		public Point3D_F64 worldPt = new Point3D_F64();
+		// feature location in camera coordinates
+		public Point3D_F64 cameraPt = new Point3D_F64();
+
+		// Jacobian for point and view+camera parameters
+		public DMatrixSparseTriplet tripletPoint = new DMatrixSparseTriplet();
+		public DMatrixSparseTriplet tripletView = new DMatrixSparseTriplet();
+
+		// Storage for gradients
+		public double pointGradX[] = new double[3];
+		public double pointGradY[] = new double[3];
+		public double calibGradX[] = new double[0];
+		public double calibGradY[] = new double[0];
+
+		// Copy of each camera model which is only used by this work space. Only used when concurrent
+		public BundleAdjustmentCamera cameras[];
+
+		/**
+		 * Resets the Jacobians and makes sure the gradient storage is large enough
+		 */
+		public void initialize( int numRows , int numPointParam , int numParameters , int largestCameraSize ) {
+			tripletPoint.reshape(numRows,numPointParam);
+			tripletView.reshape(numRows,numParameters-numPointParam); // view + camera
+
+			if( calibGradX.length < largestCameraSize ) {
+				calibGradX = new double[largestCameraSize];
+				calibGradY = new double[largestCameraSize];
+			}
+		}
 	}
 }
@@ -0,0 +1,115 @@
+/*
+ * Copyright (c) 2011-2018, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.geo.bundle;
+
+import boofcv.abst.geo.bundle.BundleAdjustmentCamera;
+import boofcv.abst.geo.bundle.BundleAdjustmentObservations;
+import boofcv.abst.geo.bundle.BundleAdjustmentSceneStructure;
+import boofcv.concurrency.BoofConcurrency;
+import org.ddogleg.struct.FastQueue;
+import org.ejml.data.DMatrixSparseCSC;
+import org.ejml.data.DMatrixSparseTriplet;
+import org.ejml.ops.ConvertDMatrixStruct;
+
+/**
+ * Concurrent version of {@link BundleAdjustmentSchurJacobian_DSCC}. Views are split into blocks which are
+ * processed independently. Each block has its own temporary variables, its own copy of every camera model,
+ * created with {@link BundleAdjustmentCamera#concurrentCopy()}, and its own set of triplets. Once all the blocks
+ * are done the triplets are appended together in block order, which results in the same Jacobian as the single
+ * threaded version.
+ *
+ * @author Peter Abeles
+ */
+public class BundleAdjustmentSchurJacobian_DSCC_MT extends BundleAdjustmentSchurJacobian_DSCC {
+
+	// Work space for each block of views
+	private FastQueue<WorkSpace> workspaces = new FastQueue<>(WorkSpace.class,true);
+
+	// The triplets from all the blocks combined together
+	private DMatrixSparseTriplet tripletPoint = new DMatrixSparseTriplet();
+	private DMatrixSparseTriplet tripletView = new DMatrixSparseTriplet();
+
+	// parameters being processed
+	private double input[];
+
+	@Override
+	public void configure(BundleAdjustmentSceneStructure structure, BundleAdjustmentObservations observations) {
+		super.configure(structure, observations);
+
+		// the camera models might have changed, so discard the old copies
+		workspaces = new FastQueue<>(WorkSpace.class,true);
+	}
+
+	@Override
+	public void process(double[] input, DMatrixSparseCSC left, DMatrixSparseCSC right) {
+		this.input = input;
+		BoofConcurrency.loopBlocks(0,structure.views.length,workspaces,this::processBlock);
+		this.input = null;
+
+		int numRows = getNumOfOutputsM();
+		int numPointParam = structure.points.length*3;
+		concatenate(numRows,numPointParam,true,tripletPoint);
+		concatenate(numRows,numParameters-numPointParam,false,tripletView);
+
+		ConvertDMatrixStruct.convert(tripletPoint,left);
+		ConvertDMatrixStruct.convert(tripletView,right);
+	}
+
+	/**
+	 * Computes the partials for views view0 to view1-1, inclusive
+	 */
+	private void processBlock( WorkSpace w , int view0 , int view1 ) {
+		w.initialize(getNumOfOutputsM(),structure.points.length*3,numParameters,largestCameraSize);
+		if( w.cameras == null ) {
+			w.cameras = new BundleAdjustmentCamera[structure.cameras.length];
+		}
+
+		for (int viewIndex = view0; viewIndex < view1; viewIndex++) {
+			int cameraIndex = structure.views[viewIndex].camera;
+			if( w.cameras[cameraIndex] == null ) {
+				w.cameras[cameraIndex] = structure.cameras[cameraIndex].model.concurrentCopy();
+				if( w.cameras[cameraIndex] == null )
+					throw new IllegalArgumentException("Camera model does not support concurrentCopy(). " +
+							"Use the single threaded version");
+			}
+			processView(input, viewIndex, w.cameras[cameraIndex], w);
+		}
+	}
+
+	/**
+	 * Appends the triplets from each block together, in order, into the output
+	 */
+	private void concatenate( int numRows , int numCols , boolean point , DMatrixSparseTriplet output ) {
+		int total = 0;
+		for (int i = 0; i < workspaces.size; i++) {
+			WorkSpace w = workspaces.get(i);
+			total += (point ? w.tripletPoint : w.tripletView).nz_length;
+		}
+
+		output.reshape(numRows,numCols,total);
+		for (int i = 0; i < workspaces.size; i++) {
+			WorkSpace w = workspaces.get(i);
+			DMatrixSparseTriplet src = point ? w.tripletPoint : w.tripletView;
+
+			System.arraycopy(src.nz_rowcol.data,0,output.nz_rowcol.data,output.nz_length*2,src.nz_length*2);
+			System.arraycopy(src.nz_value.data,0,output.nz_value.data,output.nz_length,src.nz_length);
+			output.nz_length += src.nz_length;
+		}
+	}
+}
@@ -112,4 +112,12 @@ public class BundlePinhole implements BundleAdjustmentCamera {
 	public int getIntrinsicCount() {
 		return zeroSkew ? 4 : 5;
 	}
+
+	@Override
+	public BundlePinhole concurrentCopy() {
+		BundlePinhole copy = new BundlePinhole(zeroSkew);
+		copy.fx = fx; copy.fy = fy; copy.skew = skew;
+		copy.cx = cx; copy.cy = cy;
+		return copy;
+	}
 }
@@ -191,4 +191,14 @@ public class BundlePinholeRadial implements BundleAdjustmentCamera {
 	public int getIntrinsicCount() {
 		return zeroSkew ? 8 : 9;
 	}
+
+	@Override
+	public BundlePinholeRadial concurrentCopy() {
+		BundlePinholeRadial copy = new BundlePinholeRadial(zeroSkew);
+		copy.fx = fx; copy.fy = fy; copy.skew = skew;
+		copy.cx = cx; copy.cy = cy;
+		copy.r1 = r1; copy.r2 = r2;
+		copy.t1 = t1; copy.t2 = t2;
+		return copy;
+	}
 }
@@ -123,4 +123,11 @@ public class BundlePinholeSimplified implements BundleAdjustmentCamera {
 		return 3;
 	}
 
+	@Override
+	public BundlePinholeSimplified concurrentCopy() {
+		BundlePinholeSimplified copy = new BundlePinholeSimplified();
+		copy.f = f; copy.k1 = k1; copy.k2 = k2;
+		return copy;
+	}
+
 }
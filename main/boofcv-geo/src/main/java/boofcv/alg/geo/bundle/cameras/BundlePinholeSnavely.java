@@ -80,4 +80,11 @@ public class BundlePinholeSnavely extends BundlePinholeSimplified {
         calibX[2] = f*normX*n2*n2;
         calibY[2] = f*normY*n2*n2;
     }
+
+    @Override
+    public BundlePinholeSnavely concurrentCopy() {
+        BundlePinholeSnavely copy = new BundlePinholeSnavely();
+        copy.f = f; copy.k1 = k1; copy.k2 = k2;
+        return copy;
+    }
 }
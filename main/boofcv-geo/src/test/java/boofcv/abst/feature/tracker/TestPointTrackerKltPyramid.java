@@ -175,5 +175,11 @@ public class TestPointTrackerKltPyramid extends StandardPointTracker<GrayF32> {
 		public KltTrackFault track(PyramidKltFeature feature) {
 			return KltTrackFault.SUCCESS;
 		}
+
+		@Override
+		public PyramidKltTracker copy() {
+			// there's no state so it can be shared between threads
+			return this;
+		}
 	}
 }
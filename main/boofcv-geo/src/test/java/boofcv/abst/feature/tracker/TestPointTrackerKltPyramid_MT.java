@@ -0,0 +1,171 @@
+/*
+ * Copyright (c) 2011-2018, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.abst.feature.tracker;
+
+import boofcv.abst.feature.detect.interest.ConfigGeneralDetector;
+import boofcv.abst.filter.blur.BlurFilter;
+import boofcv.alg.interpolate.InterpolateRectangle;
+import boofcv.alg.misc.ImageMiscOps;
+import boofcv.alg.tracker.klt.PkltConfig;
+import boofcv.concurrency.BoofConcurrency;
+import boofcv.factory.feature.tracker.FactoryPointTracker;
+import boofcv.factory.filter.blur.FactoryBlurFilter;
+import boofcv.factory.filter.derivative.FactoryDerivative;
+import boofcv.factory.interpolate.FactoryInterpolation;
+import boofcv.factory.transform.pyramid.FactoryPyramid;
+import boofcv.struct.image.GrayF32;
+import boofcv.struct.image.ImageType;
+import org.junit.Test;
+
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestPointTrackerKltPyramid_MT {
+
+	Random rand = new Random(234);
+
+	/**
+	 * Track features across a sequence and see if the results are identical to the single threaded version
+	 */
+	@Test
+	public void compareToSingleThread() {
+		int previousThreads = BoofConcurrency.getMaxThreads();
+		boolean previousConcurrent = BoofConcurrency.USE_CONCURRENT;
+		try {
+			BoofConcurrency.setMaxThreads(3);
+
+			BoofConcurrency.USE_CONCURRENT = false;
+			PointTrackerKltPyramid<GrayF32,GrayF32> single = createTracker();
+			BoofConcurrency.USE_CONCURRENT = true;
+			PointTrackerKltPyramid<GrayF32,GrayF32> concurrent = createTracker();
+			assertTrue(concurrent instanceof PointTrackerKltPyramid_MT);
+
+			compareSequence(single,concurrent);
+		} finally {
+			BoofConcurrency.setMaxThreads(previousThreads);
+			BoofConcurrency.USE_CONCURRENT = previousConcurrent;
+		}
+	}
+
+	/**
+	 * If the interpolation can't be copied it should fall back to tracking in a single thread
+	 */
+	@Test
+	public void interpolationNotCopied() {
+		int previousThreads = BoofConcurrency.getMaxThreads();
+		boolean previousConcurrent = BoofConcurrency.USE_CONCURRENT;
+		try {
+			BoofConcurrency.setMaxThreads(3);
+			BoofConcurrency.USE_CONCURRENT = true;
+
+			PointTrackerKltPyramid<GrayF32,GrayF32> single = createTracker();
+			PkltConfig config = new PkltConfig();
+			PointTrackerKltPyramid_MT<GrayF32,GrayF32> concurrent = new PointTrackerKltPyramid_MT<>(
+					config.config, config.templateRadius,
+					FactoryPyramid.discreteGaussian(config.pyramidScaling,-1,2,true, ImageType.single(GrayF32.class)),
+					FactoryPointTracker.createShiTomasi(new ConfigGeneralDetector(200, 3, 1000, 0, true), GrayF32.class),
+					FactoryDerivative.sobel(GrayF32.class, GrayF32.class),
+					new NoCopy(FactoryInterpolation.bilinearRectangle(GrayF32.class)),
+					new NoCopy(FactoryInterpolation.bilinearRectangle(GrayF32.class)), GrayF32.class);
+
+			compareSequence(single,concurrent);
+		} finally {
+			BoofConcurrency.setMaxThreads(previousThreads);
+			BoofConcurrency.USE_CONCURRENT = previousConcurrent;
+		}
+	}
+
+	private void compareSequence( PointTrackerKltPyramid<GrayF32,GrayF32> single ,
+								  PointTrackerKltPyramid<GrayF32,GrayF32> concurrent ) {
+		GrayF32 original = new GrayF32(160,120);
+		ImageMiscOps.fillUniform(original, rand, 0, 200);
+		BlurFilter<GrayF32> blur = FactoryBlurFilter.gaussian(GrayF32.class,-1,2);
+		GrayF32 blurred = original.createSameShape();
+		blur.process(original,blurred);
+
+		GrayF32 image = blurred.createSameShape();
+		for (int frame = 0; frame < 6; frame++) {
+			// shift the image so that tracks move and some leave the image
+			ImageMiscOps.fill(image,0);
+			int shift = frame*3;
+			image.subimage(shift,0,image.width,image.height).setTo(
+					blurred.subimage(0,0,image.width-shift,image.height));
+
+			single.process(image);
+			concurrent.process(image);
+
+			if( frame == 0 ) {
+				single.spawnTracks();
+				concurrent.spawnTracks();
+			}
+
+			compare(single.getActiveTracks(null), concurrent.getActiveTracks(null));
+			compare(single.getDroppedTracks(null), concurrent.getDroppedTracks(null));
+		}
+		assertTrue(single.getActiveTracks(null).size() > 10);
+	}
+
+	private PointTrackerKltPyramid<GrayF32,GrayF32> createTracker() {
+		return (PointTrackerKltPyramid<GrayF32,GrayF32>)FactoryPointTracker.klt(new PkltConfig(),
+				new ConfigGeneralDetector(200, 3, 1000, 0, true), GrayF32.class, GrayF32.class);
+	}
+
+	private void compare( List<PointTrack> expected , List<PointTrack> found ) {
+		assertEquals(expected.size(), found.size());
+		for (int i = 0; i < expected.size(); i++) {
+			PointTrack a = expected.get(i);
+			PointTrack b = found.get(i);
+			assertEquals(a.featureId, b.featureId);
+			assertEquals(a.x, b.x, 0);
+			assertEquals(a.y, b.y, 0);
+		}
+	}
+
+	/**
+	 * Interpolation which doesn't support copy()
+	 */
+	private static class NoCopy implements InterpolateRectangle<GrayF32> {
+		InterpolateRectangle<GrayF32> alg;
+
+		NoCopy( InterpolateRectangle<GrayF32> alg ) {
+			this.alg = alg;
+		}
+
+		@Override
+		public void setImage(GrayF32 image) {
+			alg.setImage(image);
+		}
+
+		@Override
+		public GrayF32 getImage() {
+			return alg.getImage();
+		}
+
+		@Override
+		public void region(float tl_x, float tl_y, GrayF32 dest) {
+			alg.region(tl_x,tl_y,dest);
+		}
+	}
+}
@@ -18,7 +18,18 @@
 
 package boofcv.abst.geo.bundle;
 
+import boofcv.alg.geo.bundle.cameras.BundlePinhole;
+import boofcv.concurrency.BoofConcurrency;
+import boofcv.struct.calib.CameraPinhole;
 import org.ddogleg.optimization.lm.ConfigLevenbergMarquardt;
+import org.junit.Test;
+
+import java.util.Random;
+
+import static boofcv.alg.geo.bundle.TestBundleAdjustmentResidualFunction.createObservations;
+import static boofcv.alg.geo.bundle.TestCodecBundleAdjustmentSceneStructure.createScene;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
 
 /**
  * @author Peter Abeles
@@ -32,4 +43,35 @@ public class TestBundleAdjustmentSchur_DSCC extends GenericBundleAdjustmentCheck
 		ret.configure(1e-5,1e-5,20);
 		return ret;
 	}
-}
\ No newline at end of file
+
+	/**
+	 * If a camera model can't be copied then it should fall back to the single threaded residuals and Jacobian
+	 */
+	@Test
+	public void concurrentCopyNotSupported() {
+		boolean previous = BoofConcurrency.USE_CONCURRENT;
+		try {
+			BoofConcurrency.USE_CONCURRENT = true;
+			Random rand = new Random(234);
+
+			BundleAdjustmentSceneStructure structure = createScene(rand);
+			BundleAdjustmentObservations observations = createObservations(rand,structure);
+
+			BundleAdjustmentSchur_DSCC alg = (BundleAdjustmentSchur_DSCC)createAlg();
+			alg.setParameters(structure,observations);
+			assertTrue(alg.isConcurrent());
+
+			structure.setCamera(1,false,new BundlePinhole(new CameraPinhole(200,210,0,300,250,600,500)) {
+				@Override
+				public BundlePinhole concurrentCopy() {
+					return null;
+				}
+			});
+			alg.setParameters(structure,observations);
+			assertFalse(alg.isConcurrent());
+			alg.optimize(structure);
+		} finally {
+			BoofConcurrency.USE_CONCURRENT = previous;
+		}
+	}
+}
@@ -25,6 +25,7 @@ import georegression.struct.point.Point2D_F64;
 import org.junit.Test;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
 
 /**
  * Common checks for LensDistortionPinhole
@@ -103,4 +104,59 @@ public abstract class GeneralLensDistortionNarrowFOVChecks {
 			assertEquals(inputY, found.y, scale * tol_F64);
 		}
 	}
+
+	/**
+	 * Copies should produce the same results as the original so that images can be undistorted concurrently
+	 */
+	@Test
+	public void copyConcurrent_F32() {
+		LensDistortionNarrowFOV alg = create();
+
+		for (int i = 0; i < 8; i++) {
+			boolean inputPixel = i%2 == 0;
+			boolean outputPixel = (i/2)%2 == 0;
+
+			Point2Transform2_F32 original = i < 4 ? alg.distort_F32(inputPixel,outputPixel) :
+					alg.undistort_F32(inputPixel,outputPixel);
+			Point2Transform2_F32 copy = original.copyConcurrent();
+			assertNotNull(copy);
+
+			float x = inputPixel ? 21.3f : 0.05f;
+			float y = inputPixel ? 45.1f : -0.1f;
+
+			Point2D_F32 expected = new Point2D_F32();
+			Point2D_F32 found = new Point2D_F32();
+			original.compute(x,y,expected);
+			copy.compute(x,y,found);
+
+			assertEquals(expected.x, found.x, 0);
+			assertEquals(expected.y, found.y, 0);
+		}
+	}
+
+	@Test
+	public void copyConcurrent_F64() {
+		LensDistortionNarrowFOV alg = create();
+
+		for (int i = 0; i < 8; i++) {
+			boolean inputPixel = i%2 == 0;
+			boolean outputPixel = (i/2)%2 == 0;
+
+			Point2Transform2_F64 original = i < 4 ? alg.distort_F64(inputPixel,outputPixel) :
+					alg.undistort_F64(inputPixel,outputPixel);
+			Point2Transform2_F64 copy = original.copyConcurrent();
+			assertNotNull(copy);
+
+			double x = inputPixel ? 21.3 : 0.05;
+			double y = inputPixel ? 45.1 : -0.1;
+
+			Point2D_F64 expected = new Point2D_F64();
+			Point2D_F64 found = new Point2D_F64();
+			original.compute(x,y,expected);
+			copy.compute(x,y,found);
+
+			assertEquals(expected.x, found.x, 0);
+			assertEquals(expected.y, found.y, 0);
+		}
+	}
 }
@@ -19,10 +19,16 @@
 package boofcv.alg.distort;
 
 import boofcv.alg.geo.PerspectiveOps;
+import boofcv.alg.misc.ImageMiscOps;
+import boofcv.core.image.border.BorderType;
 import boofcv.struct.calib.CameraPinhole;
 import boofcv.struct.calib.CameraPinholeRadial;
 import boofcv.struct.distort.Point2Transform2_F32;
 import boofcv.struct.distort.Point2Transform2_F64;
+import boofcv.struct.distort.RemapTable_F32;
+import boofcv.struct.image.GrayU8;
+import boofcv.struct.image.ImageType;
+import boofcv.testing.BoofTesting;
 import georegression.struct.affine.Affine2D_F32;
 import georegression.struct.affine.Affine2D_F64;
 import georegression.struct.point.Point2D_F32;
@@ -31,6 +37,8 @@ import georegression.struct.shapes.RectangleLength2D_F32;
 import georegression.struct.shapes.RectangleLength2D_F64;
 import org.junit.Test;
 
+import java.util.Random;
+
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertTrue;
 
@@ -44,6 +52,35 @@ public class TestLensDistortionOps {
 	int width = 300;
 	int height = 350;
 
+	/**
+	 * Distortion created from a precomputed table should produce the same image
+	 */
+	@Test
+	public void changeCameraModel_table() {
+		CameraPinholeRadial orig = new CameraPinholeRadial().
+				fsetK(300, 320, 0, 150, 130, width, height).fsetRadial(0.1, 0.05);
+		CameraPinhole desired = new CameraPinhole(orig);
+
+		ImageType<GrayU8> imageType = ImageType.single(GrayU8.class);
+		GrayU8 input = new GrayU8(width,height);
+		ImageMiscOps.fillUniform(input,new Random(234),0,255);
+
+		ImageDistort<GrayU8,GrayU8> expected = LensDistortionOps.changeCameraModel(
+				AdjustmentType.FULL_VIEW, BorderType.ZERO, orig, desired, null, imageType);
+		RemapTable_F32 table = LensDistortionOps.remapTable(AdjustmentType.FULL_VIEW, orig, desired, null);
+		assertEquals(width,table.width);
+		assertEquals(height,table.height);
+		ImageDistort<GrayU8,GrayU8> found = LensDistortionOps.changeCameraModel(
+				table, BorderType.ZERO, imageType);
+
+		GrayU8 outputA = new GrayU8(width,height);
+		GrayU8 outputB = new GrayU8(width,height);
+		expected.apply(input,outputA);
+		found.apply(input,outputB);
+
+		BoofTesting.assertEquals(outputA,outputB,0);
+	}
+
 	@Test
 	public void transformChangeModel_F32_NONE_modified() {
 		// distorted pixel in original image
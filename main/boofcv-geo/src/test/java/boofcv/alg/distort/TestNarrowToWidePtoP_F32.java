@@ -57,6 +57,25 @@ public class TestNarrowToWidePtoP_F32 {
 	/**
 	 * Rotate the camera and see if the point moves in the expected way
 	 */
+	/**
+	 * The copy should produce the same results as the original, including the rotation
+	 */
+	@Test
+	public void copyConcurrent() {
+		NarrowToWidePtoP_F32 alg = createAlg();
+		alg.setRotationWideToNarrow(ConvertRotation3D_F32.eulerToMatrix(EulerType.YXZ,0.1f,-0.05f,0,null));
+
+		NarrowToWidePtoP_F32 copy = alg.copyConcurrent();
+
+		Point2D_F32 expected = new Point2D_F32();
+		Point2D_F32 found = new Point2D_F32();
+		alg.compute(120,300,expected);
+		copy.compute(120,300,found);
+
+		assertEquals(expected.x,found.x,0);
+		assertEquals(expected.y,found.y,0);
+	}
+
 	@Test
 	public void rotateCamera() {
 		NarrowToWidePtoP_F32 alg = createAlg();
@@ -57,6 +57,25 @@ public class TestNarrowToWidePtoP_F64 {
 	/**
 	 * Rotate the camera and see if the point moves in the expected way
 	 */
+	/**
+	 * The copy should produce the same results as the original, including the rotation
+	 */
+	@Test
+	public void copyConcurrent() {
+		NarrowToWidePtoP_F64 alg = createAlg();
+		alg.setRotationWideToNarrow(ConvertRotation3D_F64.eulerToMatrix(EulerType.YXZ,0.1,-0.05,0,null));
+
+		NarrowToWidePtoP_F64 copy = alg.copyConcurrent();
+
+		Point2D_F64 expected = new Point2D_F64();
+		Point2D_F64 found = new Point2D_F64();
+		alg.compute(120,300,expected);
+		copy.compute(120,300,found);
+
+		assertEquals(expected.x,found.x,0);
+		assertEquals(expected.y,found.y,0);
+	}
+
 	@Test
 	public void rotateCamera() {
 		NarrowToWidePtoP_F64 alg = createAlg();
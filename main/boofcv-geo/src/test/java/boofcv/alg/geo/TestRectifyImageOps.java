@@ -18,10 +18,17 @@
 
 package boofcv.alg.geo;
 
+import boofcv.alg.distort.ImageDistortBasic;
 import boofcv.alg.distort.PointTransformHomography_F32;
+import boofcv.alg.misc.ImageMiscOps;
+import boofcv.concurrency.BoofConcurrency;
+import boofcv.core.image.border.BorderType;
 import boofcv.struct.calib.CameraPinholeRadial;
+import boofcv.struct.distort.PixelTransform2_F32;
 import boofcv.struct.distort.Point2Transform2_F32;
 import boofcv.struct.distort.Point2Transform2_F64;
+import boofcv.struct.image.GrayF32;
+import boofcv.testing.BoofTesting;
 import georegression.geometry.GeometryMath_F64;
 import georegression.struct.point.Point2D_F32;
 import georegression.struct.point.Point2D_F64;
@@ -31,6 +38,9 @@ import org.ejml.dense.row.CommonOps_DDRM;
 import org.ejml.dense.row.CommonOps_FDRM;
 import org.junit.Test;
 
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicInteger;
+
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertTrue;
 
@@ -224,4 +234,63 @@ public class TestRectifyImageOps {
 		assertEquals(expected.x, found.x, 1e-4);
 		assertEquals(expected.y, found.y, 1e-4);
 	}
+
+	/**
+	 * Rectifying with just a homography should render using multiple threads and produce the same image as
+	 * a single thread
+	 */
+	@Test
+	public void rectifyImage_concurrent() {
+		FMatrixRMaj rect = new FMatrixRMaj(3,3,true,1.05f,0.02f,-4,-0.01f,0.98f,3,0.0001f,0,1);
+
+		GrayF32 input = new GrayF32(width,height);
+		ImageMiscOps.fillUniform(input,new Random(234),0,100);
+		GrayF32 expected = input.createSameShape();
+		GrayF32 found = input.createSameShape();
+
+		boolean concurrent = BoofConcurrency.USE_CONCURRENT;
+		int maxThreads = BoofConcurrency.getMaxThreads();
+		try {
+			BoofConcurrency.USE_CONCURRENT = false;
+			RectifyImageOps.rectifyImage(rect, BorderType.EXTENDED,GrayF32.class).apply(input,expected);
+
+			BoofConcurrency.USE_CONCURRENT = true;
+			BoofConcurrency.setMaxThreads(3);
+			ImageDistortBasic<GrayF32,GrayF32,?> alg = (ImageDistortBasic)
+					RectifyImageOps.rectifyImage(rect, BorderType.EXTENDED,GrayF32.class);
+			CountCopies model = new CountCopies(alg.getModel());
+			alg.setModel(model);
+			alg.apply(input,found);
+
+			// more copies than the one used to check if it's supported means each block of tiles got its own
+			assertTrue(model.copies.get() > 1);
+		} finally {
+			BoofConcurrency.USE_CONCURRENT = concurrent;
+			BoofConcurrency.setMaxThreads(maxThreads);
+		}
+
+		BoofTesting.assertEquals(expected,found,0);
+	}
+
+	private static class CountCopies extends PixelTransform2_F32 {
+		PixelTransform2_F32 alg;
+		AtomicInteger copies = new AtomicInteger();
+
+		CountCopies(PixelTransform2_F32 alg) {
+			this.alg = alg;
+		}
+
+		@Override
+		public void compute(int x, int y) {
+			alg.compute(x,y);
+			distX = alg.distX;
+			distY = alg.distY;
+		}
+
+		@Override
+		public PixelTransform2_F32 copyConcurrent() {
+			copies.incrementAndGet();
+			return alg.copyConcurrent();
+		}
+	}
 }
@@ -0,0 +1,76 @@
+/*
+ * Copyright (c) 2011-2018, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.geo.bundle;
+
+import boofcv.abst.geo.bundle.BundleAdjustmentObservations;
+import boofcv.abst.geo.bundle.BundleAdjustmentSceneStructure;
+import boofcv.concurrency.BoofConcurrency;
+import org.junit.Test;
+
+import java.util.Random;
+
+import static boofcv.alg.geo.bundle.TestBundleAdjustmentResidualFunction.createObservations;
+import static boofcv.alg.geo.bundle.TestCodecBundleAdjustmentSceneStructure.createScene;
+import static org.junit.Assert.assertArrayEquals;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestBundleAdjustmentResidualFunction_MT {
+	Random rand = new Random(234);
+
+	/**
+	 * Compare against the single threaded version. The parameters are changed between calls to make sure
+	 * the copies of the camera models are updated
+	 */
+	@Test
+	public void compareToSingleThread() {
+		int maxThreads = BoofConcurrency.getMaxThreads();
+		try {
+			BoofConcurrency.setMaxThreads(3);
+
+			BundleAdjustmentSceneStructure structure = createScene(rand);
+			BundleAdjustmentObservations obs = createObservations(rand,structure);
+
+			double param[] = new double[structure.getParameterCount()];
+			new CodecBundleAdjustmentSceneStructure().encode(structure,param);
+
+			BundleAdjustmentResidualFunction single = new BundleAdjustmentResidualFunction();
+			BundleAdjustmentResidualFunction_MT alg = new BundleAdjustmentResidualFunction_MT();
+			single.configure(structure,obs);
+			alg.configure(structure,obs);
+
+			double []expected = new double[alg.getNumOfOutputsM()];
+			double []found = new double[alg.getNumOfOutputsM()];
+
+			for (int trial = 0; trial < 3; trial++) {
+				single.process(param,expected);
+				alg.process(param,found);
+
+				assertArrayEquals(expected,found,0.0);
+
+				for (int i = 0; i < param.length; i++) {
+					param[i] += rand.nextGaussian()*0.01;
+				}
+			}
+		} finally {
+			BoofConcurrency.setMaxThreads(maxThreads);
+		}
+	}
+}
@@ -0,0 +1,82 @@
+/*
+ * Copyright (c) 2011-2018, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.geo.bundle;
+
+import boofcv.abst.geo.bundle.BundleAdjustmentObservations;
+import boofcv.abst.geo.bundle.BundleAdjustmentSceneStructure;
+import boofcv.concurrency.BoofConcurrency;
+import org.ejml.UtilEjml;
+import org.ejml.data.DMatrixSparseCSC;
+import org.ejml.sparse.csc.MatrixFeatures_DSCC;
+import org.junit.Test;
+
+import java.util.Random;
+
+import static boofcv.alg.geo.bundle.TestBundleAdjustmentResidualFunction.createObservations;
+import static boofcv.alg.geo.bundle.TestCodecBundleAdjustmentSceneStructure.createScene;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestBundleAdjustmentSchurJacobian_DSCC_MT {
+	Random rand = new Random(48854);
+
+	/**
+	 * Compare against the single threaded version. The parameters are changed between calls to make sure
+	 * the copies of the camera models are updated
+	 */
+	@Test
+	public void compareToSingleThread() {
+		int maxThreads = BoofConcurrency.getMaxThreads();
+		try {
+			BoofConcurrency.setMaxThreads(3);
+
+			BundleAdjustmentSceneStructure structure = createScene(rand);
+			BundleAdjustmentObservations observations = createObservations(rand,structure);
+
+			double param[] = new double[structure.getParameterCount()];
+			new CodecBundleAdjustmentSceneStructure().encode(structure,param);
+
+			BundleAdjustmentSchurJacobian_DSCC single = new BundleAdjustmentSchurJacobian_DSCC();
+			BundleAdjustmentSchurJacobian_DSCC_MT alg = new BundleAdjustmentSchurJacobian_DSCC_MT();
+			single.configure(structure,observations);
+			alg.configure(structure,observations);
+
+			DMatrixSparseCSC expectedLeft = new DMatrixSparseCSC(1,1,1);
+			DMatrixSparseCSC expectedRight = new DMatrixSparseCSC(1,1,1);
+			DMatrixSparseCSC foundLeft = new DMatrixSparseCSC(1,1,1);
+			DMatrixSparseCSC foundRight = new DMatrixSparseCSC(1,1,1);
+
+			for (int trial = 0; trial < 3; trial++) {
+				single.process(param,expectedLeft,expectedRight);
+				alg.process(param,foundLeft,foundRight);
+
+				assertTrue(MatrixFeatures_DSCC.isEqualsSort(expectedLeft,foundLeft,UtilEjml.TEST_F64));
+				assertTrue(MatrixFeatures_DSCC.isEqualsSort(expectedRight,foundRight,UtilEjml.TEST_F64));
+
+				for (int i = 0; i < param.length; i++) {
+					param[i] += rand.nextGaussian()*0.01;
+				}
+			}
+		} finally {
+			BoofConcurrency.setMaxThreads(maxThreads);
+		}
+	}
+}
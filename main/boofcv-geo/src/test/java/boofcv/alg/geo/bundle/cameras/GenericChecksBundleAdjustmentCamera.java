@@ -64,6 +64,7 @@ public abstract class GenericChecksBundleAdjustmentCamera {
 	public void checkAll() {
 		jacobians();
 		compare_input_jacobians();
+		concurrentCopy();
 	}
 
 	/**
@@ -114,6 +115,39 @@ public abstract class GenericChecksBundleAdjustmentCamera {
 		}
 	}
 
+	/**
+	 * The copy should produce the same results and not be affected by changes to the original
+	 */
+	@Test
+	public void concurrentCopy() {
+		Point2D_F64 expected = new Point2D_F64();
+		Point2D_F64 found = new Point2D_F64();
+
+		for (double p[] : parameters) {
+			model.setIntrinsic(p, 0);
+			BundleAdjustmentCamera copy = model.concurrentCopy();
+			assertTrue(copy != model);
+			assertEquals(model.getClass(), copy.getClass());
+			assertEquals(model.getIntrinsicCount(), copy.getIntrinsicCount());
+
+			// modify the original
+			double[] modified = p.clone();
+			for (int i = 0; i < modified.length; i++) {
+				modified[i] += 0.1;
+			}
+
+			for( double X[] : test_X ) {
+				model.setIntrinsic(p, 0);
+				model.project(X[0], X[1], X[2], expected);
+				model.setIntrinsic(modified, 0);
+				copy.project(X[0], X[1], X[2], found);
+
+				assertEquals(expected.x, found.x, UtilEjml.TEST_F64);
+				assertEquals(expected.y, found.y, UtilEjml.TEST_F64);
+			}
+		}
+	}
+
 	private class FunctionOfPoint implements FunctionNtoM {
 
 		Point2D_F64 p = new Point2D_F64();
@@ -0,0 +1,123 @@
+/*
+ * Copyright (c) 2011-2018, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.abst.geo.bundle;
+
+import boofcv.alg.geo.bundle.*;
+import boofcv.concurrency.BoofConcurrency;
+import boofcv.io.UtilIO;
+import boofcv.io.geo.CodecBundleAdjustmentInTheLarge;
+import org.ddogleg.optimization.lm.ConfigLevenbergMarquardt;
+import org.ejml.data.DMatrixSparseCSC;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runtime of {@link BundleAdjustmentSchur_DSCC} on problems from the Bundle Adjustment in the Large data set.
+ * The residual and Jacobian are benchmarked individually along with a few iterations of the full optimization.
+ * Additional BAL files can be specified with "-p file=path/to/problem.txt".
+ *
+ * @author Peter Abeles
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@State(Scope.Benchmark)
+@Fork(value=1)
+public class BenchmarkBundleAdjustmentSchur_DSCC {
+
+	@Param({"sfm/problem-16-22106-pre.txt"})
+	public String file;
+
+	@Param({"true","false"})
+	public boolean concurrent;
+
+	BundleAdjustmentSceneStructure scene;
+	BundleAdjustmentSceneStructure output;
+	BundleAdjustmentObservations observations;
+
+	BundleAdjustmentResidualFunction function;
+	BundleAdjustmentSchurJacobian_DSCC jacobian;
+	BundleAdjustmentSchur_DSCC bundleAdjustment;
+
+	double parameters[];
+	double residuals[];
+	DMatrixSparseCSC left = new DMatrixSparseCSC(1,1,1);
+	DMatrixSparseCSC right = new DMatrixSparseCSC(1,1,1);
+
+	@Setup
+	public void setup() throws IOException {
+		BoofConcurrency.USE_CONCURRENT = concurrent;
+
+		CodecBundleAdjustmentInTheLarge parser = new CodecBundleAdjustmentInTheLarge();
+		parser.parse(new File(UtilIO.pathExample(file)));
+		scene = parser.scene;
+		observations = parser.observations;
+
+		// the optimization writes its results here so that every call starts from the same state
+		parser.parse(new File(UtilIO.pathExample(file)));
+		output = parser.scene;
+
+		function = concurrent ? new BundleAdjustmentResidualFunction_MT() : new BundleAdjustmentResidualFunction();
+		jacobian = concurrent ? new BundleAdjustmentSchurJacobian_DSCC_MT() : new BundleAdjustmentSchurJacobian_DSCC();
+		function.configure(scene,observations);
+		jacobian.configure(scene,observations);
+
+		parameters = new double[scene.getParameterCount()];
+		new CodecBundleAdjustmentSceneStructure().encode(scene,parameters);
+		residuals = new double[function.getNumOfOutputsM()];
+
+		ConfigLevenbergMarquardt configLM = new ConfigLevenbergMarquardt();
+		configLM.dampeningInitial = 1e-3;
+		configLM.hessianScaling = true;
+		bundleAdjustment = new BundleAdjustmentSchur_DSCC(configLM);
+		bundleAdjustment.configure(1e-12, 1e-12, 3);
+	}
+
+	@Benchmark
+	public void residual() {
+		function.process(parameters,residuals);
+	}
+
+	@Benchmark
+	public void jacobian() {
+		jacobian.process(parameters,left,right);
+	}
+
+	@Benchmark
+	public void optimize_3() {
+		bundleAdjustment.setParameters(scene,observations);
+		bundleAdjustment.optimize(output);
+	}
+
+	public static void main( String args[] ) throws RunnerException {
+		Options opt = new OptionsBuilder()
+				.include(BenchmarkBundleAdjustmentSchur_DSCC.class.getSimpleName())
+				.build();
+
+		new Runner(opt).run();
+	}
+}
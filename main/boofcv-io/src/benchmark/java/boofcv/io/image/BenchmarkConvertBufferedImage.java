@@ -19,75 +19,58 @@
 package boofcv.io.image;
 
 import boofcv.alg.misc.GImageMiscOps;
-import boofcv.misc.PerformerBase;
-import boofcv.misc.ProfileOperation;
 import boofcv.struct.image.GrayU8;
-import boofcv.struct.image.ImageBase;
 import boofcv.struct.image.Planar;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
 
 import java.awt.image.BufferedImage;
 import java.util.Random;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Benchmarks related to converting to and from BufferedImage.
  * 
  * @author Peter Abeles
  */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@State(Scope.Benchmark)
+@Fork(value=1)
 public class BenchmarkConvertBufferedImage {
-	static Random rand = new Random(342543);
-
-	static int imgWidth = 640;
-	static int imgHeight = 480;
-
-	static BufferedImage imgBuff;
-	static GrayU8 imgInt8;
-	static Planar<GrayU8> multiInt8;
-	
-	static ImageBase boofImg;
-
-	public static class FromBuffToBoof extends PerformerBase
-	{
-		@Override
-		public void process() {
-			ConvertBufferedImage.convertFrom(imgBuff,boofImg,true);
-		}
-	}
 
-	public static class FromBoofToBuff extends PerformerBase
-	{
-		@Override
-		public void process() {
-			ConvertBufferedImage.convertTo(boofImg,imgBuff,true);
-		}
-	}
+	@Param({"640x480"})
+	public String size;
 
-	public static class FromInt8ToGenericBuff extends PerformerBase
-	{
-		@Override
-		public void process() {
-			ConvertRaster.grayToBuffered(imgInt8,imgBuff);
-		}
-	}
+	@Param({"TYPE_3BYTE_BGR","TYPE_INT_RGB","TYPE_BYTE_GRAY"})
+	public String bufferedType;
 
-	public static class ExtractImageInt8 extends PerformerBase
-	{
-		@Override
-		public void process() {
-			ConvertBufferedImage.extractGrayU8(imgBuff);
-		}
-	}
+	BufferedImage imgBuff;
+	GrayU8 imgInt8;
+	Planar<GrayU8> multiInt8;
 
-	public static class ExtractBuffered extends PerformerBase
-	{
-		@Override
-		public void process() {
-			ConvertBufferedImage.extractBuffered(imgInt8);
-		}
-	}
+	@Setup
+	public void setup() throws Exception {
+		Random rand = new Random(342543);
+		String[] dims = size.split("x");
+		int imgWidth = Integer.parseInt(dims[0]);
+		int imgHeight = Integer.parseInt(dims[1]);
 
-	public static void createBufferedImage( int type ) {
+		int type = BufferedImage.class.getField(bufferedType).getInt(null);
 		imgBuff = new BufferedImage(imgWidth,imgHeight,type);
 
+		// the number of bands has to match for the planar conversions
+		imgInt8 = new GrayU8(imgWidth,imgHeight);
+		multiInt8 = new Planar<>(GrayU8.class,imgWidth,imgHeight,imgBuff.getRaster().getNumBands());
+
+		GImageMiscOps.fillUniform(imgInt8, rand, 0, 100);
+		GImageMiscOps.fillUniform(multiInt8, rand, 0, 100);
+
 		// randomize it to prevent some pathological condition
 		for( int i = 0; i < imgHeight; i++ ) {
 			for( int j = 0; j < imgWidth; j++ ) {
@@ -96,51 +79,49 @@ public class BenchmarkConvertBufferedImage {
 		}
 	}
 
-	public static void evaluateConvert( ImageBase image , String name )
-	{
-		boofImg = image;
-		System.out.printf("Buffered to %s  %10.2f ops/sec\n",name,
-				ProfileOperation.profileOpsPerSec(new FromBuffToBoof(),1000, false));
-		System.out.printf("%s to Buffered  %10.2f ops/sec\n",name,
-				ProfileOperation.profileOpsPerSec(new FromBoofToBuff(),1000, false));
+	@Benchmark
+	public void BufferedToGrayU8() {
+		ConvertBufferedImage.convertFrom(imgBuff,imgInt8,true);
+	}
 
+	@Benchmark
+	public void GrayU8ToBuffered() {
+		ConvertBufferedImage.convertTo(imgInt8,imgBuff,true);
 	}
-	
-	public static void main( String args[] ) {
-		imgInt8 = new GrayU8(imgWidth,imgHeight);
-		multiInt8 = new Planar<>(GrayU8.class,imgWidth,imgHeight,3);
-		
-		GImageMiscOps.fillUniform(imgInt8, rand, 0, 100);
-		for( int i = 0; i < multiInt8.getNumBands(); i++ )
-			GImageMiscOps.fillUniform(multiInt8.getBand(0), rand, 0, 100);
-
-		System.out.println("=========  Profiling for GrayU8 ==========");
-		System.out.println();
-
-		createBufferedImage(BufferedImage.TYPE_3BYTE_BGR);
-		System.out.println("------- BufferedImage RGB interface ---------- ");
-		System.out.printf("BufferedImage to GrayU8   %10.2f ops/sec\n",
-				ProfileOperation.profileOpsPerSec(new FromInt8ToGenericBuff(),1000, false));
-		System.out.println("---- TYPE_3BYTE_BGR ----");
-		evaluateConvert(imgInt8,"GrayU8");
-		evaluateConvert(multiInt8,"Planar_U8");
-
-		System.out.println("---- TYPE_INT_RGB ----");
-		createBufferedImage(BufferedImage.TYPE_INT_RGB);
-		evaluateConvert(imgInt8,"GrayU8");
-		evaluateConvert(multiInt8,"Planar_U8");
-
-		System.out.println("---- TYPE_BYTE_GRAY ----");
-		createBufferedImage(BufferedImage.TYPE_BYTE_GRAY);
-		evaluateConvert(imgInt8,"GrayU8");
-
-		System.out.printf("extractImageInt8             %10.2f ops/sec\n",
-				ProfileOperation.profileOpsPerSec(new ExtractImageInt8(),1000, false));
-		System.out.printf("extractBuffered              %10.2f ops/sec\n",
-				ProfileOperation.profileOpsPerSec(new ExtractBuffered(),1000, false));
-
-		System.out.println();
-		System.out.println("=========  Profiling for ImageInterleavedInt8 ==========");
-		System.out.println();
+
+	@Benchmark
+	public void BufferedToPlanarU8() {
+		ConvertBufferedImage.convertFrom(imgBuff,multiInt8,true);
+	}
+
+	@Benchmark
+	public void PlanarU8ToBuffered() {
+		ConvertBufferedImage.convertTo(multiInt8,imgBuff,true);
+	}
+
+	@Benchmark
+	public void GrayU8ToGenericBuffered() {
+		ConvertRaster.grayToBuffered(imgInt8,imgBuff);
+	}
+
+	@Benchmark
+	public GrayU8 ExtractGrayU8() {
+		// only works with TYPE_BYTE_GRAY
+		if( imgBuff.getType() == BufferedImage.TYPE_BYTE_GRAY )
+			return ConvertBufferedImage.extractGrayU8(imgBuff);
+		return null;
+	}
+
+	@Benchmark
+	public BufferedImage ExtractBuffered() {
+		return ConvertBufferedImage.extractBuffered(imgInt8);
+	}
+
+	public static void main( String args[] ) throws RunnerException {
+		Options opt = new OptionsBuilder()
+				.include(BenchmarkConvertBufferedImage.class.getSimpleName())
+				.build();
+
+		new Runner(opt).run();
 	}
 }
@@ -0,0 +1,143 @@
+/*
+ * Copyright (c) 2011-2018, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.io.calibration;
+
+import boofcv.struct.distort.RemapTable_F32;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.FloatBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * <p>
+ * Saves and loads a {@link RemapTable_F32}, e.g. the undistortion table of a known camera, so that it doesn't need
+ * to be computed again when an application starts. The table is written as raw floats and read with a single
+ * bulk copy from a memory mapped file.
+ * </p>
+ *
+ * <p>
+ * File format. All values are little endian.
+ * </p>
+ * <ol>
+ *     <li>Header of {@link #HEADER_SIZE} bytes: "BOOFRMP" magic, format version, width, and height</li>
+ *     <li>float[width*height*2] source (x,y) of each pixel in row-major order</li>
+ * </ol>
+ *
+ * @author Peter Abeles
+ */
+public class RemapTableIO {
+	public static final int HEADER_SIZE = 32;
+	public static final byte[] MAGIC = "BOOFRMP".getBytes(StandardCharsets.US_ASCII);
+	public static final int VERSION = 1;
+
+	/**
+	 * Saves the table to disk
+	 *
+	 * @param table The table which is to be saved
+	 * @param file Where it should be saved
+	 */
+	public static void save( RemapTable_F32 table , File file ) throws IOException {
+		final int length = table.width*table.height*2;
+
+		try( RandomAccessFile raf = new RandomAccessFile(file,"rw") ) {
+			raf.setLength(0);
+			FileChannel channel = raf.getChannel();
+
+			ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+			header.put(MAGIC);
+			header.put((byte)0);
+			header.putInt(VERSION);
+			header.putInt(table.width);
+			header.putInt(table.height);
+			header.position(HEADER_SIZE);
+			header.flip();
+			write(channel,header);
+
+			ByteBuffer buffer = ByteBuffer.allocate(1 << 16).order(ByteOrder.LITTLE_ENDIAN);
+			FloatBuffer floats = buffer.asFloatBuffer();
+			for( int i = 0; i < length; ) {
+				int n = Math.min(floats.capacity(),length-i);
+				floats.clear();
+				floats.put(table.data,i,n);
+				buffer.position(0);
+				buffer.limit(n*4);
+				write(channel,buffer);
+				i += n;
+			}
+		}
+	}
+
+	/**
+	 * Loads a table which was saved by {@link #save}
+	 *
+	 * @param file Path to the saved table
+	 * @param storage (Optional) Storage for the table. Reshaped to match the file. If null a new table is created.
+	 * @return The table
+	 */
+	public static RemapTable_F32 load( File file , RemapTable_F32 storage ) throws IOException {
+		try( RandomAccessFile raf = new RandomAccessFile(file,"r") ) {
+			FileChannel channel = raf.getChannel();
+			if( channel.size() < HEADER_SIZE )
+				throw new IOException("Not a saved RemapTable_F32");
+
+			ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+			while( header.hasRemaining() ) {
+				if( channel.read(header) < 0 )
+					throw new IOException("Unexpected end of file");
+			}
+			header.flip();
+			for( int i = 0; i < MAGIC.length; i++ ) {
+				if( header.get() != MAGIC[i] )
+					throw new IOException("Not a saved RemapTable_F32");
+			}
+			header.get();
+			int version = header.getInt();
+			if( version != VERSION )
+				throw new IOException("Unsupported version "+version);
+			int width = header.getInt();
+			int height = header.getInt();
+
+			long bytes = (long)width*height*8;
+			if( width < 0 || height < 0 || HEADER_SIZE+bytes > channel.size() )
+				throw new IOException("Unexpected end of file");
+			if( bytes > Integer.MAX_VALUE )
+				throw new IOException("Table is too large. "+width+"x"+height);
+
+			if( storage == null )
+				storage = new RemapTable_F32(width,height);
+			else
+				storage.reshape(width,height);
+
+			ByteBuffer mapped = channel.map(FileChannel.MapMode.READ_ONLY,HEADER_SIZE,bytes);
+			mapped.order(ByteOrder.LITTLE_ENDIAN).asFloatBuffer().get(storage.data,0,width*height*2);
+			return storage;
+		}
+	}
+
+	private static void write( FileChannel channel , ByteBuffer buffer ) throws IOException {
+		while( buffer.hasRemaining() ) {
+			channel.write(buffer);
+		}
+	}
+}
@@ -20,13 +20,11 @@ package boofcv.io.video;
 
 import boofcv.io.image.SimpleImageSequence;
 import boofcv.io.wrapper.images.ImageStreamSequence;
-import boofcv.io.wrapper.images.JpegByteImageSequence;
+import boofcv.io.wrapper.images.MjpegStreamSequence;
 import boofcv.struct.image.ImageBase;
 import boofcv.struct.image.ImageType;
 
-import java.io.FileInputStream;
 import java.io.FileNotFoundException;
-import java.util.List;
 
 /**
  * This video interface attempts to load a native reader.  If that fails, jcodec, if that fails it just
@@ -57,9 +55,7 @@ public class DynamicVideoInterface implements VideoInterface {
 		if( fileName.endsWith("mjpeg") || fileName.endsWith("MJPEG") ||
 				fileName.endsWith("mjpg") || fileName.endsWith("MJPG") ) {
 			try {
-				VideoMjpegCodec codec = new VideoMjpegCodec();
-				List<byte[]> data = codec.read(new FileInputStream(fileName));
-				return new JpegByteImageSequence<>(imageType, data, false);
+				return new MjpegStreamSequence<>(fileName, imageType);
 			} catch (FileNotFoundException e) {
 				throw new RuntimeException(e);
 			}
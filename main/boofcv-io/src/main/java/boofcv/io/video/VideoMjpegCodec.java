@@ -19,12 +19,15 @@
 package boofcv.io.video;
 
 
+import org.ddogleg.struct.GrowQueue_I8;
+
 import java.io.*;
 import java.util.ArrayList;
 import java.util.List;
 
 /**
- * Very simple MJPEG reader
+ * Very simple MJPEG reader. Frames are read from the stream one at a time, so memory usage is bounded by the
+ * size of a single frame unless {@link #read(InputStream)} is used.
  *
  * @author Peter Abeles
  */
@@ -34,18 +37,21 @@ public class VideoMjpegCodec {
 	// end of image
 	public static final byte EOI = (byte)0xD9;
 
-	public List<byte[]> read( InputStream streamIn ) {
-		// read the whole movie in at once to make it faster
+	// storage for the frame being read
+	private GrowQueue_I8 work = new GrowQueue_I8(1024);
 
+	/**
+	 * Reads every frame in the stream and keeps all of them in memory. For long videos use
+	 * {@link #readFrame(InputStream, GrowQueue_I8)} or {@link boofcv.io.wrapper.images.MjpegStreamSequence}
+	 * instead.
+	 */
+	public List<byte[]> read( InputStream streamIn ) {
 		List<byte[]> ret = new ArrayList<>();
 		try {
-			byte[] b = convertToByteArray(streamIn);
-//			System.out.println("MJPEG file is "+b.length+" bytes");
-
-			DataInputStream in = new DataInputStream(new ByteArrayInputStream(b));
-
-			while( findMarker(in,SOI) && in.available() > 0 ) {
-				byte data[] = readJpegData(in, EOI);
+			InputStream in = new BufferedInputStream(streamIn,1024*200);
+			while( readFrame(in,work) ) {
+				byte data[] = new byte[work.size];
+				System.arraycopy(work.data,0,data,0,work.size);
 				ret.add(data);
 			}
 		} catch (IOException e) {
@@ -58,13 +64,31 @@ public class VideoMjpegCodec {
 	 */
 	public byte[] readFrame( DataInputStream in ) {
 		try {
-			if( findMarker(in,SOI) && in.available() > 0 ) {
-				return readJpegData(in, EOI);
+			if( readFrame(in,work) ) {
+				byte data[] = new byte[work.size];
+				System.arraycopy(work.data,0,data,0,work.size);
+				return data;
 			}
 		} catch (IOException e) {}
 		return null;
 	}
 
+	/**
+	 * Reads the next frame from the stream into the provided storage. The stream is only read up to the end of
+	 * the frame. For performance the stream should be buffered.
+	 *
+	 * @param in Input stream
+	 * @param output (Output) The JPEG encoded frame. Reset before the frame is read.
+	 * @return true if a frame was read or false if the end of the stream was reached
+	 */
+	public static boolean readFrame( InputStream in , GrowQueue_I8 output ) throws IOException {
+		output.reset();
+		if( !findMarker(in,SOI) )
+			return false;
+		readJpegData(in, EOI, output);
+		// a marker with no data after it is the end of the stream
+		return output.size > 2;
+	}
 
 	public static byte[] convertToByteArray(InputStream streamIn) throws IOException {
 		ByteArrayOutputStream temp = new ByteArrayOutputStream(1024);
@@ -76,11 +100,12 @@ public class VideoMjpegCodec {
 		return temp.toByteArray();
 	}
 
-	private boolean findMarker( DataInputStream in , byte marker ) throws IOException {
+	private static boolean findMarker( InputStream in , byte marker ) throws IOException {
 		boolean foundFF = false;
 
-		while( in.available() > 0 )  {
-			byte b = in.readByte();
+		int value;
+		while( (value = in.read()) != -1 )  {
+			byte b = (byte)value;
 			if( foundFF ) {
 				if( b == marker ) {
 					return true;
@@ -90,36 +115,32 @@ public class VideoMjpegCodec {
 				foundFF = true;
 			}
 		}
-		return foundFF;
+		return false;
 	}
 
-	private byte[] readJpegData(DataInputStream in, byte marker) throws IOException {
-		ByteArrayOutputStream bout = new ByteArrayOutputStream(1024);
-
+	private static void readJpegData( InputStream in, byte marker , GrowQueue_I8 output ) throws IOException {
 		// add the SOI marker back into it
-		bout.write(0xFF);
-		bout.write(SOI);
+		output.add(0xFF);
+		output.add(SOI);
 
 		boolean foundFF = false;
 
-		while( in.available() > 0 ) {
-			byte d = in.readByte();
+		int value;
+		while( (value = in.read()) != -1 ) {
+			byte d = (byte)value;
 			if( foundFF ) {
 				if( d == marker )
 					break;
 				else {
-					bout.write(0xFF);
-					bout.write(d);
+					output.add(0xFF);
+					output.add(d);
 					foundFF = false;
 				}
 			} else if( d ==(byte)0xFF ) {
 				foundFF = true;
 			} else {
-				bout.write(d);
+				output.add(d);
 			}
 		}
-		return bout.toByteArray();
 	}
-
-
 }
@@ -0,0 +1,252 @@
+/*
+ * Copyright (c) 2011-2018, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.io.wrapper.images;
+
+import boofcv.core.image.GConvertImage;
+import boofcv.io.image.ConvertBufferedImage;
+import boofcv.io.image.SimpleImageSequence;
+import boofcv.struct.image.ImageBase;
+import boofcv.struct.image.ImageType;
+
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+
+/**
+ * <p>
+ * Reads an image sequence stored in the {@link RawImageSequenceFormat} by memory mapping the file. Any frame
+ * can be jumped to in constant time using {@link #setFrame(int)} and reading a frame is just a copy.
+ * </p>
+ *
+ * <p>
+ * A single mapping can't be larger than 2GB, so the file is mapped in chunks that contain a whole number of
+ * frames. Chunks are only mapped the first time they are used. If the requested image type is different from
+ * the type in the file then the frame is converted using {@link GConvertImage}.
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+public class MappedRawImageSequence<T extends ImageBase<T>> implements SimpleImageSequence<T> {
+
+	// the largest region that's mapped at once
+	static final long MAX_CHUNK_SIZE = 1L << 30;
+
+	RandomAccessFile file;
+	FileChannel channel;
+
+	RawImageSequenceFormat format = new RawImageSequenceFormat();
+	long frameSize;
+	int framesPerChunk;
+	MappedByteBuffer[] chunks;
+
+	int totalFrames;
+	// index of the frame which will be read next
+	int index;
+	// index of the last frame which was read
+	int frameNumber = -1;
+	boolean loop = false;
+
+	// type of image it outputs
+	ImageType<T> imageType;
+	// the output image
+	T image;
+	// image with the same type as the file. Only used if the output type is different
+	ImageBase internal;
+	// GUI image is only created when requested
+	BufferedImage imageGUI;
+	boolean imageGuiUpdated;
+
+	/**
+	 * Opens the file and reads the header
+	 *
+	 * @param file Path to the file
+	 * @param imageType Type of image which is returned
+	 */
+	public MappedRawImageSequence( File file , ImageType<T> imageType ) throws IOException {
+		this.imageType = imageType;
+		this.file = new RandomAccessFile(file,"r");
+		this.channel = this.file.getChannel();
+
+		try {
+			ByteBuffer header = ByteBuffer.allocate(RawImageSequenceFormat.HEADER_SIZE);
+			while( header.hasRemaining() && channel.read(header) >= 0 ) {}
+			header.flip();
+			format.decodeHeader(header);
+
+			frameSize = format.getFrameSize();
+			if( frameSize <= 0 || frameSize > MAX_CHUNK_SIZE )
+				throw new IOException("Unsupported frame size "+frameSize);
+			long total = (channel.size() - RawImageSequenceFormat.HEADER_SIZE)/frameSize;
+			if( total > Integer.MAX_VALUE )
+				throw new IOException("Too many frames");
+			totalFrames = (int)total;
+		} catch( IOException e ) {
+			close();
+			throw e;
+		}
+
+		framesPerChunk = (int)(MAX_CHUNK_SIZE/frameSize);
+		chunks = new MappedByteBuffer[(totalFrames+framesPerChunk-1)/framesPerChunk];
+
+		image = imageType.createImage(format.width, format.height);
+		if( !imageType.isSameType(format.imageType) )
+			internal = format.imageType.createImage(format.width, format.height);
+	}
+
+	/**
+	 * Total number of frames in the file
+	 */
+	public int getTotalFrames() {
+		return totalFrames;
+	}
+
+	/**
+	 * Specifies which frame will be returned by the next call to {@link #next()}.
+	 *
+	 * @param index Index of the frame. 0 to total frames - 1
+	 */
+	public void setFrame( int index ) {
+		if( index < 0 || index >= totalFrames )
+			throw new IllegalArgumentException("Frame index out of bounds. "+index);
+		this.index = index;
+	}
+
+	/**
+	 * Reads the specified frame. The same image instance is returned on each call.
+	 */
+	public T getFrame( int index ) {
+		setFrame(index);
+		return next();
+	}
+
+	@Override
+	public int getNextWidth() {
+		return format.width;
+	}
+
+	@Override
+	public int getNextHeight() {
+		return format.height;
+	}
+
+	@Override
+	public boolean hasNext() {
+		if( loop )
+			return totalFrames > 0;
+		else
+			return index < totalFrames;
+	}
+
+	/**
+	 * Reads the next frame. The same image instance is returned on each call.
+	 */
+	@Override
+	public T next() {
+		if( loop && index >= totalFrames )
+			index = 0;
+		if( index >= totalFrames )
+			throw new IllegalArgumentException("No more frames");
+
+		ByteBuffer buffer = lookupChunk(index/framesPerChunk);
+		buffer.position((int)((index%framesPerChunk)*frameSize));
+
+		if( internal == null ) {
+			RawImageSequenceFormat.bufferToImage(buffer,image);
+		} else {
+			RawImageSequenceFormat.bufferToImage(buffer,internal);
+			GConvertImage.convert(internal,image);
+		}
+
+		frameNumber = index++;
+		imageGuiUpdated = false;
+		return image;
+	}
+
+	/**
+	 * Returns the memory mapped chunk. If it hasn't been mapped yet it's mapped now.
+	 */
+	private ByteBuffer lookupChunk( int which ) {
+		if( chunks[which] == null ) {
+			long start = RawImageSequenceFormat.HEADER_SIZE + which*framesPerChunk*frameSize;
+			long length = Math.min(framesPerChunk,totalFrames-which*framesPerChunk)*frameSize;
+			try {
+				chunks[which] = channel.map(FileChannel.MapMode.READ_ONLY, start, length);
+			} catch (IOException e) {
+				throw new RuntimeException(e);
+			}
+		}
+		return chunks[which];
+	}
+
+	@Override
+	public BufferedImage getGuiImage() {
+		if( !imageGuiUpdated && frameNumber >= 0 ) {
+			imageGUI = ConvertBufferedImage.convertTo(image, imageGUI, true);
+			imageGuiUpdated = true;
+		}
+		return imageGUI;
+	}
+
+	@Override
+	public void close() {
+		chunks = null;
+		try {
+			channel.close();
+			file.close();
+		} catch (IOException e) {
+			throw new RuntimeException(e);
+		}
+	}
+
+	@Override
+	public int getFrameNumber() {
+		return frameNumber;
+	}
+
+	@Override
+	public void setLoop(boolean loop) {
+		this.loop = loop;
+	}
+
+	public boolean isLoop() {
+		return loop;
+	}
+
+	@Override
+	public ImageType<T> getImageType() {
+		return imageType;
+	}
+
+	/**
+	 * Type of image which is stored in the file
+	 */
+	public ImageType<?> getFileImageType() {
+		return format.imageType;
+	}
+
+	@Override
+	public void reset() {
+		index = 0;
+		frameNumber = -1;
+	}
+}
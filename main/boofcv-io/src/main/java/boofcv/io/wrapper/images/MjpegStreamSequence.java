@@ -23,88 +23,225 @@ import boofcv.io.image.SimpleImageSequence;
 import boofcv.io.video.VideoMjpegCodec;
 import boofcv.struct.image.ImageBase;
 import boofcv.struct.image.ImageType;
+import org.ddogleg.struct.GrowQueue_I8;
 
 import javax.imageio.ImageIO;
 import java.awt.image.BufferedImage;
 import java.io.*;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
 
 /**
+ * <p>
  * Instead of loading and decompressing the whole MJPEG at once, it loads the images
- * one at a time until it reaches the end of the file.
+ * one at a time until it reaches the end of the file. If a frame can't be read or decoded then a
+ * RuntimeException is thrown when that frame is requested.
+ * </p>
+ *
+ * <p>
+ * Optionally, frames can be read and decoded ahead of time in a background thread. The number of frames which
+ * are prefetched is bounded and the storage for each frame is recycled, so memory usage doesn't depend on the
+ * length of the video. The image returned by {@link #next()} is valid until the next call to {@link #next()}.
+ * </p>
  *
  * @author Peter Abeles
  */
 public class MjpegStreamSequence<T extends ImageBase<T>>
 		implements SimpleImageSequence<T>
 {
-	VideoMjpegCodec codec = new VideoMjpegCodec();
-	DataInputStream in;
-	BufferedImage original;
-	BufferedImage next;
-	T image;
+	InputStream in;
 	int frameNumber;
 	ImageType<T> imageType;
 
+	// frames which can be written to
+	BlockingQueue<Frame<T>> free;
+	// frames which have been decoded by the prefetch thread. null if not prefetching
+	BlockingQueue<Frame<T>> ready;
+	Thread prefetchThread;
+	volatile boolean stopRequested = false;
+
+	// frame which will be returned by the next call to next()
+	Frame<T> pending;
+	// frame which was returned by the last call to next()
+	Frame<T> current;
+
+	/**
+	 * Reads and decodes each frame when it's requested
+	 */
 	public MjpegStreamSequence( InputStream in , ImageType<T> imageType ) {
-		this.in = new DataInputStream(in);
+		this(in, 0, imageType);
+	}
+
+	/**
+	 * Creates a sequence which can decode frames in a background thread
+	 *
+	 * @param in Input stream. For performance it should be buffered
+	 * @param numPrefetch Number of frames which will be decoded ahead of time in a background thread.
+	 *                    If zero then no thread is created and frames are decoded when requested.
+	 * @param imageType Type of image which is returned
+	 */
+	public MjpegStreamSequence( InputStream in , int numPrefetch , ImageType<T> imageType ) {
+		if( numPrefetch < 0 )
+			throw new IllegalArgumentException("numPrefetch can't be negative");
+		this.in = in;
 		this.imageType = imageType;
-		image = imageType.createImage(1,1);
-		readNext();
+
+		// one frame for the user, one for the next frame, and the prefetched frames
+		int numFrames = numPrefetch+2;
+		free = new ArrayBlockingQueue<>(numFrames);
+		for (int i = 0; i < numFrames; i++) {
+			free.add(new Frame<>(imageType));
+		}
+
+		if( numPrefetch > 0 ) {
+			ready = new ArrayBlockingQueue<>(numFrames);
+			prefetchThread = new Thread(this::prefetch,"MjpegPrefetch");
+			prefetchThread.setDaemon(true);
+			prefetchThread.start();
+		}
 	}
 
 	public MjpegStreamSequence( String fileName , ImageType<T> imageType ) throws FileNotFoundException {
-		this(new DataInputStream(new BufferedInputStream(new FileInputStream(fileName),1024*200)),imageType);
+		this(fileName, 0, imageType);
 	}
 
-	private void readNext() {
-		byte[] data = codec.readFrame(in);
-		if( data == null ) {
-			next = null;
-		} else {
-			try {
-				next = ImageIO.read(new ByteArrayInputStream(data));
-				frameNumber++;
-			} catch (IOException e) {
-				throw new RuntimeException(e);
+	public MjpegStreamSequence( String fileName , int numPrefetch , ImageType<T> imageType )
+			throws FileNotFoundException
+	{
+		this(new BufferedInputStream(new FileInputStream(fileName),1024*200),numPrefetch,imageType);
+	}
+
+	/**
+	 * Reads and decodes frames until the end of the stream or it's told to stop
+	 */
+	private void prefetch() {
+		try {
+			while( !stopRequested ) {
+				Frame<T> frame = free.take();
+				decode(frame);
+				ready.put(frame);
+				if( frame.last )
+					break;
 			}
+		} catch (InterruptedException ignore) {
 		}
 	}
 
+	/**
+	 * Reads the next frame from the stream and decodes it. If there are no more frames or an error happens
+	 * then the frame is marked as the last one. Errors are saved and thrown when the frame is requested.
+	 */
+	private void decode( Frame<T> frame ) {
+		frame.last = false;
+		frame.error = null;
+		frame.gui = null;
+		try {
+			if( !VideoMjpegCodec.readFrame(in, frame.jpeg) ) {
+				frame.last = true;
+				return;
+			}
+			frame.gui = ImageIO.read(new ByteArrayInputStream(frame.jpeg.data, 0, frame.jpeg.size));
+			if( frame.gui == null ) {
+				frame.last = true;
+				frame.error = new RuntimeException("Failed to decode JPEG in frame");
+				return;
+			}
+			frame.image.reshape(frame.gui.getWidth(), frame.gui.getHeight());
+			ConvertBufferedImage.convertFrom(frame.gui, frame.image, true);
+		} catch (IOException e) {
+			frame.last = true;
+			frame.error = new RuntimeException(e);
+		} catch (RuntimeException e) {
+			frame.last = true;
+			frame.error = e;
+		}
+	}
+
+	/**
+	 * Makes sure the next frame has been decoded
+	 */
+	private Frame<T> lookupPending() {
+		if( pending == null ) {
+			if( ready == null ) {
+				pending = free.poll();
+				decode(pending);
+			} else {
+				try {
+					pending = ready.take();
+				} catch (InterruptedException e) {
+					throw new RuntimeException(e);
+				}
+			}
+			if( pending.error != null )
+				throw pending.error;
+		}
+		return pending;
+	}
+
+	/**
+	 * Returns the next frame or throws an exception if there are no more frames
+	 */
+	private Frame<T> lookupNext() {
+		if( !hasNext() )
+			throw new RuntimeException("No more frames");
+		return pending;
+	}
+
 	@Override
 	public int getNextWidth() {
-		return next.getWidth();
+		return lookupNext().gui.getWidth();
 	}
 
 	@Override
 	public int getNextHeight() {
-		return next.getHeight();
+		return lookupNext().gui.getHeight();
 	}
 
 	@Override
 	public boolean hasNext() {
-		return next != null;
+		if( in == null )
+			return false;
+		return !lookupPending().last;
 	}
 
 	@Override
 	public T next() {
-		original = next;
-		image.reshape(original.getWidth(),original.getHeight());
-		ConvertBufferedImage.convertFrom(original,image, true);
-		readNext();
-		return image;
+		lookupNext();
+
+		// recycle the previous frame now that it's no longer being used
+		if( current != null )
+			free.add(current);
+		current = pending;
+		pending = null;
+		frameNumber++;
+		return current.image;
 	}
 
 	@Override
 	public BufferedImage getGuiImage() {
-		return original;
+		return current == null ? null : current.gui;
 	}
 
 	@Override
 	public void close() {
+		if( in == null )
+			return;
+		stopRequested = true;
+		if( prefetchThread != null ) {
+			prefetchThread.interrupt();
+		}
+		// closed before waiting since the prefetch thread could be blocked while reading the stream
 		try {
 			in.close();
 		} catch (IOException e) {
 		}
+		if( prefetchThread != null ) {
+			try {
+				prefetchThread.join();
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+		}
 		in = null;
 	}
 
@@ -128,4 +265,23 @@ public class MjpegStreamSequence<T extends ImageBase<T>>
 	public void reset() {
 		throw new RuntimeException("Reset not supported");
 	}
+
+	/**
+	 * Storage for a single frame
+	 */
+	static class Frame<T extends ImageBase<T>> {
+		// encoded JPEG
+		GrowQueue_I8 jpeg = new GrowQueue_I8(1024);
+		// decoded image
+		BufferedImage gui;
+		T image;
+		// true if the end of the stream has been reached and this frame has no image
+		boolean last;
+		// an error which happened while decoding
+		RuntimeException error;
+
+		Frame( ImageType<T> imageType ) {
+			image = imageType.createImage(1,1);
+		}
+	}
 }
@@ -0,0 +1,267 @@
+/*
+ * Copyright (c) 2011-2018, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.io.wrapper.images;
+
+import boofcv.struct.image.*;
+
+import java.io.IOException;
+import java.nio.*;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * <p>
+ * Simple container format for a sequence of uncompressed images which all have the same shape and type. It's
+ * designed so that any frame can be found with a single multiplication and loaded with a bulk copy, which makes
+ * it possible to memory map the file and seek in constant time. See {@link RawImageSequenceWriter} and
+ * {@link MappedRawImageSequence}.
+ * </p>
+ *
+ * <p>
+ * The file starts with a {@link #HEADER_SIZE} byte header which is followed by the frames. All values are
+ * little endian.
+ * </p>
+ * <pre>
+ * Offset  Size  Description
+ *  0       8    "BOOFRAWS"
+ *  8       4    version
+ * 12       4    image width
+ * 16       4    image height
+ * 20       4    number of bands
+ * 24      16    {@link ImageType.Family} name, ASCII padded with zeros
+ * 40      16    {@link ImageDataType} name, ASCII padded with zeros
+ * 56       8    reserved
+ * </pre>
+ * <p>
+ * Each frame is stored with no padding between rows. Gray and interleaved images are stored just like they are in
+ * memory. Planar images are stored one band after another.
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+public class RawImageSequenceFormat {
+	/** Number of bytes in the header */
+	public static final int HEADER_SIZE = 64;
+	/** Byte order of all values in the file */
+	public static final ByteOrder ORDER = ByteOrder.LITTLE_ENDIAN;
+	/** Current version of the format */
+	public static final int VERSION = 1;
+
+	private static final byte[] MAGIC = "BOOFRAWS".getBytes(StandardCharsets.US_ASCII);
+	private static final int NAME_LENGTH = 16;
+
+	/** Type of image stored in each frame */
+	public ImageType<?> imageType;
+	/** Shape of each frame */
+	public int width, height;
+
+	public RawImageSequenceFormat( ImageType<?> imageType , int width , int height ) {
+		this.imageType = imageType;
+		this.width = width;
+		this.height = height;
+	}
+
+	public RawImageSequenceFormat() {
+	}
+
+	/**
+	 * Number of bytes in a single frame
+	 */
+	public long getFrameSize() {
+		return (long)width*height*imageType.getNumBands()*(imageType.getDataType().getNumBits()/8);
+	}
+
+	/**
+	 * Writes the header into the buffer starting at its current position
+	 */
+	public void encodeHeader( ByteBuffer output ) {
+		ByteBuffer header = output.slice().order(ORDER);
+		header.put(MAGIC);
+		header.putInt(VERSION);
+		header.putInt(width);
+		header.putInt(height);
+		header.putInt(imageType.getNumBands());
+		putName(header, imageType.getFamily().name());
+		putName(header, imageType.getDataType().name());
+		while( header.position() < HEADER_SIZE )
+			header.put((byte)0);
+		output.position(output.position()+HEADER_SIZE);
+	}
+
+	/**
+	 * Reads the header from the buffer starting at its current position
+	 *
+	 * @throws IOException If the header isn't valid
+	 */
+	public void decodeHeader( ByteBuffer input ) throws IOException {
+		if( input.remaining() < HEADER_SIZE )
+			throw new IOException("Too short to contain a header");
+		ByteBuffer header = input.slice().order(ORDER);
+		for (int i = 0; i < MAGIC.length; i++) {
+			if( header.get() != MAGIC[i] )
+				throw new IOException("Not a raw image sequence file");
+		}
+		int version = header.getInt();
+		if( version != VERSION )
+			throw new IOException("Unsupported version "+version);
+		width = header.getInt();
+		height = header.getInt();
+		int numBands = header.getInt();
+		try {
+			ImageType.Family family = ImageType.Family.valueOf(getName(header));
+			ImageDataType dataType = ImageDataType.valueOf(getName(header));
+			imageType = new ImageType(family,dataType,numBands);
+		} catch( IllegalArgumentException e ) {
+			throw new IOException("Unknown image type",e);
+		}
+		input.position(input.position()+HEADER_SIZE);
+	}
+
+	private static void putName( ByteBuffer output , String name ) {
+		byte[] bytes = name.getBytes(StandardCharsets.US_ASCII);
+		if( bytes.length > NAME_LENGTH )
+			throw new IllegalArgumentException("Name is too long. "+name);
+		output.put(bytes);
+		for (int i = bytes.length; i < NAME_LENGTH; i++) {
+			output.put((byte)0);
+		}
+	}
+
+	private static String getName( ByteBuffer input ) {
+		byte[] bytes = new byte[NAME_LENGTH];
+		input.get(bytes);
+		int length = 0;
+		while( length < NAME_LENGTH && bytes[length] != 0 )
+			length++;
+		return new String(bytes,0,length,StandardCharsets.US_ASCII);
+	}
+
+	/**
+	 * Copies the frame, which starts at the buffer's current position, into the image. After the position will
+	 * be at the end of the frame. The buffer's byte order isn't modified.
+	 */
+	public static void bufferToImage( ByteBuffer input , ImageBase image ) {
+		ByteBuffer view = input.duplicate().order(ORDER);
+		transfer(view, image, true);
+		input.position(view.position());
+	}
+
+	/**
+	 * Copies the image into the buffer starting at its current position. After the position will be at the end
+	 * of the frame. The buffer's byte order isn't modified.
+	 */
+	public static void imageToBuffer( ImageBase image , ByteBuffer output ) {
+		ByteBuffer view = output.duplicate().order(ORDER);
+		transfer(view, image, false);
+		output.position(view.position());
+	}
+
+	private static void transfer( ByteBuffer buffer , ImageBase image , boolean toImage ) {
+		if( image instanceof Planar ) {
+			Planar planar = (Planar)image;
+			for (int band = 0; band < planar.getNumBands(); band++) {
+				transferBand(buffer, planar.getBand(band), image.width, toImage);
+			}
+		} else if( image instanceof ImageInterleaved ) {
+			transferBand(buffer, image, image.width*((ImageInterleaved)image).numBands, toImage);
+		} else {
+			transferBand(buffer, image, image.width, toImage);
+		}
+	}
+
+	/**
+	 * Copies a single array based image one row at a time using bulk operations
+	 *
+	 * @param rowLength Number of elements in a row
+	 */
+	private static void transferBand( ByteBuffer buffer , ImageBase image , int rowLength , boolean toImage ) {
+		Object data = getData(image);
+		int start = buffer.position();
+		int bytesPerElement;
+
+		if( data instanceof byte[] ) {
+			bytesPerElement = 1;
+			byte[] array = (byte[])data;
+			for (int y = 0; y < image.height; y++) {
+				int index = image.startIndex + y*image.stride;
+				if( toImage ) buffer.get(array, index, rowLength); else buffer.put(array, index, rowLength);
+			}
+		} else if( data instanceof short[] ) {
+			bytesPerElement = 2;
+			short[] array = (short[])data;
+			ShortBuffer typed = buffer.asShortBuffer();
+			for (int y = 0; y < image.height; y++) {
+				int index = image.startIndex + y*image.stride;
+				if( toImage ) typed.get(array, index, rowLength); else typed.put(array, index, rowLength);
+			}
+		} else if( data instanceof int[] ) {
+			bytesPerElement = 4;
+			int[] array = (int[])data;
+			IntBuffer typed = buffer.asIntBuffer();
+			for (int y = 0; y < image.height; y++) {
+				int index = image.startIndex + y*image.stride;
+				if( toImage ) typed.get(array, index, rowLength); else typed.put(array, index, rowLength);
+			}
+		} else if( data instanceof long[] ) {
+			bytesPerElement = 8;
+			long[] array = (long[])data;
+			LongBuffer typed = buffer.asLongBuffer();
+			for (int y = 0; y < image.height; y++) {
+				int index = image.startIndex + y*image.stride;
+				if( toImage ) typed.get(array, index, rowLength); else typed.put(array, index, rowLength);
+			}
+		} else if( data instanceof float[] ) {
+			bytesPerElement = 4;
+			float[] array = (float[])data;
+			FloatBuffer typed = buffer.asFloatBuffer();
+			for (int y = 0; y < image.height; y++) {
+				int index = image.startIndex + y*image.stride;
+				if( toImage ) typed.get(array, index, rowLength); else typed.put(array, index, rowLength);
+			}
+		} else {
+			bytesPerElement = 8;
+			double[] array = (double[])data;
+			DoubleBuffer typed = buffer.asDoubleBuffer();
+			for (int y = 0; y < image.height; y++) {
+				int index = image.startIndex + y*image.stride;
+				if( toImage ) typed.get(array, index, rowLength); else typed.put(array, index, rowLength);
+			}
+		}
+
+		buffer.position(start + rowLength*image.height*bytesPerElement);
+	}
+
+	/**
+	 * Returns the primitive array which stores the image's pixels
+	 */
+	private static Object getData( ImageBase image ) {
+		if( image instanceof GrayI8 ) return ((GrayI8)image).data;
+		if( image instanceof GrayI16 ) return ((GrayI16)image).data;
+		if( image instanceof GrayS32 ) return ((GrayS32)image).data;
+		if( image instanceof GrayS64 ) return ((GrayS64)image).data;
+		if( image instanceof GrayF32 ) return ((GrayF32)image).data;
+		if( image instanceof GrayF64 ) return ((GrayF64)image).data;
+		if( image instanceof InterleavedI8 ) return ((InterleavedI8)image).data;
+		if( image instanceof InterleavedI16 ) return ((InterleavedI16)image).data;
+		if( image instanceof InterleavedS32 ) return ((InterleavedS32)image).data;
+		if( image instanceof InterleavedS64 ) return ((InterleavedS64)image).data;
+		if( image instanceof InterleavedF32 ) return ((InterleavedF32)image).data;
+		if( image instanceof InterleavedF64 ) return ((InterleavedF64)image).data;
+		throw new IllegalArgumentException("Unsupported image type "+image.getClass().getSimpleName());
+	}
+}
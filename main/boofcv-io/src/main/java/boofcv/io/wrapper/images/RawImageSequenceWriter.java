@@ -0,0 +1,108 @@
+/*
+ * Copyright (c) 2011-2018, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.io.wrapper.images;
+
+import boofcv.struct.image.ImageBase;
+import boofcv.struct.image.ImageType;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+
+/**
+ * Writes a sequence of images to a file using the {@link RawImageSequenceFormat}. Every image must have the
+ * same shape and type.
+ *
+ * @author Peter Abeles
+ */
+public class RawImageSequenceWriter<T extends ImageBase<T>> implements Closeable {
+
+	RandomAccessFile file;
+	FileChannel channel;
+
+	RawImageSequenceFormat format;
+
+	// storage for a single frame before it's written to disk
+	ByteBuffer frame;
+
+	int totalFrames;
+
+	/**
+	 * Creates the file and writes the header. If the file already exists it's overwritten.
+	 *
+	 * @param file Path to the output file
+	 * @param imageType Type of image in every frame
+	 * @param width Width of every frame
+	 * @param height Height of every frame
+	 */
+	public RawImageSequenceWriter( File file , ImageType<T> imageType , int width , int height ) throws IOException {
+		this.format = new RawImageSequenceFormat(imageType,width,height);
+		long frameSize = format.getFrameSize();
+		if( frameSize > Integer.MAX_VALUE )
+			throw new IllegalArgumentException("Frames larger than 2GB aren't supported");
+
+		this.file = new RandomAccessFile(file,"rw");
+		this.file.setLength(0);
+		this.channel = this.file.getChannel();
+
+		ByteBuffer header = ByteBuffer.allocate(RawImageSequenceFormat.HEADER_SIZE);
+		format.encodeHeader(header);
+		header.flip();
+		writeFully(header);
+
+		frame = ByteBuffer.allocate((int)frameSize);
+	}
+
+	/**
+	 * Appends the image to the end of the file
+	 */
+	public void write( T image ) throws IOException {
+		if( image.width != format.width || image.height != format.height )
+			throw new IllegalArgumentException("Unexpected image shape. "+image.width+"x"+image.height);
+		if( !format.imageType.isSameType(image.getImageType()) )
+			throw new IllegalArgumentException("Unexpected image type. "+image.getImageType());
+
+		frame.clear();
+		RawImageSequenceFormat.imageToBuffer(image,frame);
+		frame.flip();
+		writeFully(frame);
+		totalFrames++;
+	}
+
+	private void writeFully( ByteBuffer buffer ) throws IOException {
+		while( buffer.hasRemaining() )
+			channel.write(buffer);
+	}
+
+	/**
+	 * Number of frames written so far
+	 */
+	public int getTotalFrames() {
+		return totalFrames;
+	}
+
+	@Override
+	public void close() throws IOException {
+		channel.close();
+		file.close();
+	}
+}
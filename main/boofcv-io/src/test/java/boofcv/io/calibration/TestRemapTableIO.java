@@ -0,0 +1,85 @@
+/*
+ * Copyright (c) 2011-2018, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.io.calibration;
+
+import boofcv.struct.distort.RemapTable_F32;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestRemapTableIO {
+
+	Random rand = new Random(234);
+
+	@Test
+	public void saveLoad() throws IOException {
+		// large enough to require multiple writes
+		RemapTable_F32 original = new RemapTable_F32(150,103);
+		for( int i = 0; i < original.data.length; i++ ) {
+			original.data[i] = rand.nextFloat()*200-50;
+		}
+		original.data[5] = Float.NaN;
+
+		File file = File.createTempFile("remap",".bin");
+		try {
+			RemapTableIO.save(original,file);
+			assertEquals(RemapTableIO.HEADER_SIZE+150*103*8,file.length());
+
+			RemapTable_F32 found = RemapTableIO.load(file,null);
+			assertEquals(150,found.width);
+			assertEquals(103,found.height);
+			assertArrayEquals(original.data,found.data,0);
+
+			// load into existing storage
+			RemapTable_F32 storage = new RemapTable_F32(200,200);
+			float[] data = storage.data;
+			assertSame(storage,RemapTableIO.load(file,storage));
+			assertSame(data,storage.data);
+			assertEquals(150,storage.width);
+			for( int i = 0; i < 150*103*2; i++ ) {
+				assertEquals(original.data[i],storage.data[i],0);
+			}
+		} finally {
+			file.delete();
+		}
+	}
+
+	@Test
+	public void load_notTable() throws IOException {
+		File file = File.createTempFile("remap",".bin");
+		try {
+			try( RandomAccessFile raf = new RandomAccessFile(file,"rw") ) {
+				raf.write(new byte[100]);
+			}
+			RemapTableIO.load(file,null);
+			fail("Should have thrown an exception");
+		} catch( IOException ignore ) {
+		} finally {
+			file.delete();
+		}
+	}
+}
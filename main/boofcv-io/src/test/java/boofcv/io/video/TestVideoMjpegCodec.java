@@ -0,0 +1,75 @@
+/*
+ * Copyright (c) 2011-2018, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.io.video;
+
+import org.ddogleg.struct.GrowQueue_I8;
+import org.junit.Test;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestVideoMjpegCodec {
+
+	/**
+	 * Read frames one at a time and compare to reading them all at once
+	 */
+	@Test
+	public void readFrame() throws IOException {
+		List<byte[]> jpegs = new ArrayList<>();
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		for (int i = 0; i < 4; i++) {
+			ByteArrayOutputStream single = new ByteArrayOutputStream();
+			ImageIO.write(new BufferedImage(20+i,15,BufferedImage.TYPE_INT_RGB),"jpg",single);
+			jpegs.add(single.toByteArray());
+			out.write(single.toByteArray());
+		}
+		byte[] mjpeg = out.toByteArray();
+
+		List<byte[]> all = new VideoMjpegCodec().read(new ByteArrayInputStream(mjpeg));
+		assertEquals(4, all.size());
+
+		InputStream in = new ByteArrayInputStream(mjpeg);
+		GrowQueue_I8 frame = new GrowQueue_I8();
+		for (int i = 0; i < 4; i++) {
+			assertTrue(VideoMjpegCodec.readFrame(in,frame));
+			assertEquals(all.get(i).length, frame.size);
+			for (int j = 0; j < frame.size; j++) {
+				assertEquals(all.get(i)[j], frame.data[j]);
+			}
+
+			// everything but the end of image marker is returned
+			assertEquals(jpegs.get(i).length-2, frame.size);
+
+			BufferedImage decoded = ImageIO.read(new ByteArrayInputStream(frame.data,0,frame.size));
+			assertEquals(20+i, decoded.getWidth());
+		}
+		assertFalse(VideoMjpegCodec.readFrame(in,frame));
+	}
+}
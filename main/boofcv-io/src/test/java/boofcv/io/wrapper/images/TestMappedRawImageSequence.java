@@ -0,0 +1,198 @@
+/*
+ * Copyright (c) 2011-2018, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.io.wrapper.images;
+
+import boofcv.alg.misc.GImageMiscOps;
+import boofcv.core.image.GConvertImage;
+import boofcv.struct.image.*;
+import boofcv.testing.BoofTesting;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestMappedRawImageSequence {
+	Random rand = new Random(234);
+
+	int width = 20, height = 15;
+
+	ImageType[] types = new ImageType[]{
+			ImageType.single(GrayU8.class), ImageType.single(GrayS16.class), ImageType.single(GrayS32.class),
+			ImageType.single(GrayS64.class), ImageType.single(GrayF32.class), ImageType.single(GrayF64.class),
+			ImageType.pl(2,GrayU8.class), ImageType.pl(3,GrayF32.class),
+			ImageType.il(3,InterleavedU8.class), ImageType.il(2,InterleavedU16.class),
+			ImageType.il(2,InterleavedS32.class), ImageType.il(3,InterleavedF32.class),
+			ImageType.il(2,InterleavedF64.class)};
+
+	/**
+	 * Write then read back every frame in order for all the image types
+	 */
+	@Test
+	public void writeThenRead() throws IOException {
+		for( ImageType type : types ) {
+			File file = createTempFile();
+			List<ImageBase> expected = writeSequence(file,type,4);
+
+			MappedRawImageSequence alg = new MappedRawImageSequence(file,type);
+			assertEquals(4, alg.getTotalFrames());
+			assertTrue(type.isSameType(alg.getFileImageType()));
+			assertEquals(width, alg.getNextWidth());
+			assertEquals(height, alg.getNextHeight());
+
+			int total = 0;
+			while( alg.hasNext() ) {
+				ImageBase found = alg.next();
+				assertEquals(total, alg.getFrameNumber());
+				BoofTesting.assertEquals(expected.get(total++),found,0);
+			}
+			assertEquals(4, total);
+			alg.close();
+		}
+	}
+
+	@Test
+	public void randomAccess() throws IOException {
+		File file = createTempFile();
+		ImageType<GrayF32> type = ImageType.single(GrayF32.class);
+		List<ImageBase> expected = writeSequence(file,type,6);
+
+		MappedRawImageSequence<GrayF32> alg = new MappedRawImageSequence<>(file,type);
+		for( int index : new int[]{4,1,5,0,3} ) {
+			BoofTesting.assertEquals(expected.get(index),alg.getFrame(index),0);
+			assertEquals(index, alg.getFrameNumber());
+		}
+
+		// next() should continue from where it jumped to
+		alg.setFrame(2);
+		alg.next();
+		BoofTesting.assertEquals(expected.get(3),alg.next(),0);
+
+		alg.reset();
+		BoofTesting.assertEquals(expected.get(0),alg.next(),0);
+		alg.close();
+	}
+
+	/**
+	 * Multiple chunks are mapped when the file is too large for one
+	 */
+	@Test
+	public void multipleChunks() throws IOException {
+		File file = createTempFile();
+		ImageType<GrayU8> type = ImageType.single(GrayU8.class);
+		List<ImageBase> expected = writeSequence(file,type,7);
+
+		MappedRawImageSequence<GrayU8> alg = new MappedRawImageSequence<>(file,type);
+		// force it to use small chunks
+		alg.framesPerChunk = 3;
+		alg.chunks = new java.nio.MappedByteBuffer[3];
+
+		for( int index : new int[]{6,0,4,2,3} ) {
+			BoofTesting.assertEquals(expected.get(index),alg.getFrame(index),0);
+		}
+		alg.close();
+	}
+
+	/**
+	 * The output type is different from the type in the file
+	 */
+	@Test
+	public void convertType() throws IOException {
+		File file = createTempFile();
+		List<ImageBase> expected = writeSequence(file,ImageType.single(GrayU8.class),2);
+
+		MappedRawImageSequence<GrayF32> alg = new MappedRawImageSequence<>(file,ImageType.single(GrayF32.class));
+		GrayF32 converted = new GrayF32(width,height);
+		for (int i = 0; i < 2; i++) {
+			GConvertImage.convert(expected.get(i),converted);
+			BoofTesting.assertEquals(converted,alg.next(),0);
+		}
+		assertFalse(alg.hasNext());
+		alg.close();
+	}
+
+	@Test
+	public void loop() throws IOException {
+		File file = createTempFile();
+		ImageType<GrayU8> type = ImageType.single(GrayU8.class);
+		List<ImageBase> expected = writeSequence(file,type,3);
+
+		MappedRawImageSequence<GrayU8> alg = new MappedRawImageSequence<>(file,type);
+		alg.setLoop(true);
+		for (int i = 0; i < 7; i++) {
+			assertTrue(alg.hasNext());
+			BoofTesting.assertEquals(expected.get(i%3),alg.next(),0);
+		}
+		alg.close();
+	}
+
+	@Test
+	public void getGuiImage() throws IOException {
+		File file = createTempFile();
+		writeSequence(file,ImageType.single(GrayU8.class),2);
+
+		MappedRawImageSequence<GrayU8> alg = new MappedRawImageSequence<>(file,ImageType.single(GrayU8.class));
+		assertNull(alg.getGuiImage());
+		GrayU8 found = alg.next();
+		assertEquals(width, alg.getGuiImage().getWidth());
+		assertEquals(found.get(3,4), alg.getGuiImage().getRaster().getSample(3,4,0));
+		alg.close();
+	}
+
+	/**
+	 * Writing an image with the wrong shape or type should fail
+	 */
+	@Test
+	public void writer_checkImage() throws IOException {
+		try( RawImageSequenceWriter<GrayU8> writer =
+				new RawImageSequenceWriter<>(createTempFile(),ImageType.single(GrayU8.class),width,height) ) {
+			writer.write(new GrayU8(width+1,height));
+			fail("Exception expected");
+		} catch( IllegalArgumentException ignore ){}
+	}
+
+	private List<ImageBase> writeSequence( File file , ImageType type , int numFrames ) throws IOException {
+		List<ImageBase> expected = new ArrayList<>();
+		RawImageSequenceWriter writer = new RawImageSequenceWriter(file,type,width,height);
+		for (int i = 0; i < numFrames; i++) {
+			ImageBase image = type.createImage(width,height);
+			GImageMiscOps.fillUniform(image,rand,0,100);
+			// sub-images should be handled correctly when writing
+			ImageBase sub = BoofTesting.createSubImageOf(image);
+			writer.write(sub);
+			expected.add(image);
+		}
+		assertEquals(numFrames, writer.getTotalFrames());
+		writer.close();
+		return expected;
+	}
+
+	private static File createTempFile() throws IOException {
+		File file = File.createTempFile("boofcv",".rawseq");
+		file.deleteOnExit();
+		return file;
+	}
+}
@@ -0,0 +1,166 @@
+/*
+ * Copyright (c) 2011-2018, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.io.wrapper.images;
+
+import boofcv.struct.image.GrayU8;
+import boofcv.struct.image.ImageType;
+import boofcv.struct.image.Planar;
+import boofcv.testing.BoofTesting;
+import org.junit.Test;
+
+import javax.imageio.ImageIO;
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestMjpegStreamSequence {
+
+	int width = 40, height = 30;
+
+	@Test
+	public void readAll() throws IOException {
+		byte[] mjpeg = createMjpeg(5);
+
+		for( int numPrefetch : new int[]{0,1,3} ) {
+			MjpegStreamSequence<GrayU8> alg = new MjpegStreamSequence<>(
+					new ByteArrayInputStream(mjpeg),numPrefetch,ImageType.single(GrayU8.class));
+
+			int total = 0;
+			while( alg.hasNext() ) {
+				assertEquals(width, alg.getNextWidth());
+				assertEquals(height, alg.getNextHeight());
+				GrayU8 image = alg.next();
+				assertEquals(total, alg.getFrameNumber());
+				assertEquals(width, image.width);
+				assertEquals(height, image.height);
+				assertEquals(width, alg.getGuiImage().getWidth());
+				total++;
+			}
+			assertEquals(5, total);
+			alg.close();
+		}
+	}
+
+	/**
+	 * Images decoded in the background should be identical to the ones decoded when requested
+	 */
+	@Test
+	public void prefetch_sameAsSynchronous() throws IOException {
+		byte[] mjpeg = createMjpeg(8);
+		ImageType<Planar<GrayU8>> type = ImageType.pl(3,GrayU8.class);
+
+		MjpegStreamSequence<Planar<GrayU8>> expected = new MjpegStreamSequence<>(
+				new ByteArrayInputStream(mjpeg),0,type);
+		MjpegStreamSequence<Planar<GrayU8>> found = new MjpegStreamSequence<>(
+				new ByteArrayInputStream(mjpeg),2,type);
+
+		List<Planar<GrayU8>> previous = new ArrayList<>();
+		while( expected.hasNext() ) {
+			assertTrue(found.hasNext());
+			Planar<GrayU8> imageFound = found.next();
+			BoofTesting.assertEquals(expected.next(),imageFound,0);
+			previous.add(imageFound);
+		}
+		assertFalse(found.hasNext());
+
+		// the image storage should be recycled
+		assertTrue(previous.get(0) == previous.get(4));
+
+		expected.close();
+		found.close();
+	}
+
+	/**
+	 * Closing before the end of the stream should stop the prefetch thread
+	 */
+	@Test
+	public void close_stopsThread() throws Exception {
+		MjpegStreamSequence<GrayU8> alg = new MjpegStreamSequence<>(
+				new ByteArrayInputStream(createMjpeg(10)),2,ImageType.single(GrayU8.class));
+		alg.next();
+		alg.close();
+		// close() waits for the thread to finish
+		assertFalse(alg.prefetchThread.isAlive());
+		assertFalse(alg.hasNext());
+	}
+
+	/**
+	 * A frame which can't be decoded should be reported as an error and not as the end of the stream
+	 */
+	@Test
+	public void corruptFrame() throws IOException {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		out.write(createMjpeg(2));
+		out.write(new byte[]{(byte)0xFF,(byte)0xD8,1,2,3,4,5,(byte)0xFF,(byte)0xD9});
+		out.write(createMjpeg(2));
+
+		for( int numPrefetch : new int[]{0,2} ) {
+			MjpegStreamSequence<GrayU8> alg = new MjpegStreamSequence<>(
+					new ByteArrayInputStream(out.toByteArray()),numPrefetch,ImageType.single(GrayU8.class));
+			alg.next();
+			alg.next();
+			try {
+				alg.hasNext();
+				fail("Should have thrown an exception");
+			} catch( RuntimeException ignore ) {}
+			alg.close();
+		}
+	}
+
+	/**
+	 * There is no next image once the end of the stream has been reached
+	 */
+	@Test
+	public void nextSize_endOfStream() throws IOException {
+		MjpegStreamSequence<GrayU8> alg = new MjpegStreamSequence<>(
+				new ByteArrayInputStream(createMjpeg(1)),ImageType.single(GrayU8.class));
+		alg.next();
+		assertFalse(alg.hasNext());
+		try {
+			alg.getNextWidth();
+			fail("Should have thrown an exception");
+		} catch( RuntimeException ignore ) {}
+		try {
+			alg.getNextHeight();
+			fail("Should have thrown an exception");
+		} catch( RuntimeException ignore ) {}
+		alg.close();
+	}
+
+	private byte[] createMjpeg( int numFrames ) throws IOException {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		for (int i = 0; i < numFrames; i++) {
+			BufferedImage image = new BufferedImage(width,height,BufferedImage.TYPE_INT_RGB);
+			Graphics2D g2 = image.createGraphics();
+			g2.setColor(new Color(20*i,100,200-10*i));
+			g2.fillRect(i,2*i,15,10);
+			ImageIO.write(image,"jpg",out);
+		}
+		return out.toByteArray();
+	}
+}
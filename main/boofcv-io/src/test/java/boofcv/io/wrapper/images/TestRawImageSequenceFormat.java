@@ -0,0 +1,97 @@
+/*
+ * Copyright (c) 2011-2018, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.io.wrapper.images;
+
+import boofcv.alg.misc.ImageMiscOps;
+import boofcv.struct.image.GrayF32;
+import boofcv.struct.image.GrayU8;
+import boofcv.struct.image.ImageDataType;
+import boofcv.struct.image.ImageType;
+import boofcv.struct.image.InterleavedF64;
+import boofcv.testing.BoofTesting;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestRawImageSequenceFormat {
+	@Test
+	public void encode_decode() throws IOException {
+		RawImageSequenceFormat expected = new RawImageSequenceFormat(ImageType.il(3, InterleavedF64.class),640,480);
+
+		ByteBuffer buffer = ByteBuffer.allocate(RawImageSequenceFormat.HEADER_SIZE+5);
+		buffer.position(2);
+		expected.encodeHeader(buffer);
+		assertEquals(2+RawImageSequenceFormat.HEADER_SIZE, buffer.position());
+
+		buffer.position(2);
+		RawImageSequenceFormat found = new RawImageSequenceFormat();
+		found.decodeHeader(buffer);
+		assertEquals(2+RawImageSequenceFormat.HEADER_SIZE, buffer.position());
+
+		assertEquals(640, found.width);
+		assertEquals(480, found.height);
+		assertTrue(expected.imageType.isSameType(found.imageType));
+		assertEquals(ImageType.Family.INTERLEAVED, found.imageType.getFamily());
+		assertEquals(ImageDataType.F64, found.imageType.getDataType());
+		assertEquals(3, found.imageType.getNumBands());
+		assertEquals(640*480*3*8, found.getFrameSize());
+	}
+
+	@Test(expected = IOException.class)
+	public void decode_badMagic() throws IOException {
+		ByteBuffer buffer = ByteBuffer.allocate(RawImageSequenceFormat.HEADER_SIZE);
+		new RawImageSequenceFormat(ImageType.single(GrayU8.class),10,10).encodeHeader(buffer);
+		buffer.put(0,(byte)'X');
+		buffer.position(0);
+		new RawImageSequenceFormat().decodeHeader(buffer);
+	}
+
+	/**
+	 * The caller's byte order should not be changed and the position should be after the frame
+	 */
+	@Test
+	public void imageToBuffer_bufferToImage() {
+		GrayF32 expected = new GrayF32(12,8);
+		ImageMiscOps.fillUniform(expected,new Random(234),-10,10);
+
+		ByteBuffer buffer = ByteBuffer.allocate(3+expected.width*expected.height*4).order(ByteOrder.BIG_ENDIAN);
+		buffer.position(3);
+		RawImageSequenceFormat.imageToBuffer(expected,buffer);
+		assertEquals(ByteOrder.BIG_ENDIAN, buffer.order());
+		assertEquals(buffer.capacity(), buffer.position());
+
+		// pixels are saved in the format's byte order
+		assertEquals(expected.get(0,0), buffer.duplicate().order(RawImageSequenceFormat.ORDER).getFloat(3), 0);
+
+		buffer.position(3);
+		GrayF32 found = new GrayF32(12,8);
+		RawImageSequenceFormat.bufferToImage(buffer,found);
+		assertEquals(ByteOrder.BIG_ENDIAN, buffer.order());
+		assertEquals(buffer.capacity(), buffer.position());
+		BoofTesting.assertEquals(expected,found,0);
+	}
+}
@@ -18,23 +18,29 @@
 
 package boofcv;
 
-import boofcv.misc.PerformerBase;
-import boofcv.misc.ProfileOperation;
 import org.ejml.data.Complex_F64;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
 
 import java.util.Random;
+import java.util.concurrent.TimeUnit;
 
 /**
  * @author Peter Abeles
  */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@State(Scope.Benchmark)
+@Fork(value=1)
 public class BenchmarkComplexMath {
 
-	public int TEST_TIME = 2000;
-
 	int N = 20000;
 
-	Random rand = new Random(234);
-
 	Complex_F64 number = new Complex_F64(1.5,0.3);
 
 	Complex_F64 objectInput[] = new Complex_F64[N];
@@ -43,68 +49,50 @@ public class BenchmarkComplexMath {
 	double arrayInput[] = new double[2*N];
 	double arrayOutput[] = new double[2*N];
 
-	public BenchmarkComplexMath() {
+	@Setup
+	public void setup() {
+		Random rand = new Random(234);
 		for( int i = 0; i < N; i++ ) {
-			objectInput[i] = new Complex_F64();
+			objectInput[i] = new Complex_F64(rand.nextGaussian(),rand.nextGaussian());
 			objectOutput[i] = new Complex_F64();
+			arrayInput[i*2] = objectInput[i].real;
+			arrayInput[i*2+1] = objectInput[i].imaginary;
 		}
 	}
 
-	private class ComplexObject extends PerformerBase
-	{
-
-		@Override
-		public void process() {
+	@Benchmark
+	public void complexObject() {
+		Complex_F64 a = number;
 
-			Complex_F64 a = number;
-
-			for( int i = 0; i < N; i++ ) {
-				Complex_F64 b = objectInput[i];
-				Complex_F64 o = objectOutput[i];
+		for( int i = 0; i < N; i++ ) {
+			Complex_F64 b = objectInput[i];
+			Complex_F64 o = objectOutput[i];
 
-				o.real = a.real * b.real - a.imaginary*b.imaginary;
-				o.imaginary = a.real*b.imaginary + a.imaginary*b.real;
-			}
+			o.real = a.real * b.real - a.imaginary*b.imaginary;
+			o.imaginary = a.real*b.imaginary + a.imaginary*b.real;
 		}
 	}
 
-	private class PureArray extends PerformerBase
-	{
-
-		@Override
-		public void process() {
-
-			double ar = number.real;
-			double ai = number.imaginary;
+	@Benchmark
+	public void pureArray() {
+		double ar = number.real;
+		double ai = number.imaginary;
 
+		for( int i = 0; i < N; i++ ) {
+			int index = i*2;
+			double bi = arrayInput[index];
+			double br = arrayInput[index+1];
 
-			for( int i = 0; i < N; i++ ) {
-				int index = i*2;
-				double bi = arrayInput[index];
-				double br = arrayInput[index+1];
-
-				arrayOutput[index] = ar*br - ai*bi;
-				arrayOutput[index+1] = ar*bi + ai*br;
-			}
+			arrayOutput[index] = ar*br - ai*bi;
+			arrayOutput[index+1] = ar*bi + ai*br;
 		}
 	}
 
-	public void run() {
-		for( int i = 0; i < N; i++ ) {
-			objectInput[i].set(rand.nextGaussian(),rand.nextGaussian());
-			arrayInput[i*2] = objectInput[i].real;
-			arrayInput[i*2+1] = objectInput[i].imaginary;
-		}
-
-		ComplexObject object = new ComplexObject();
-		PureArray array = new PureArray();
-
-		ProfileOperation.printOpsPerSec(array, TEST_TIME);
-		ProfileOperation.printOpsPerSec(object, TEST_TIME);
-	}
+	public static void main( String args[] ) throws RunnerException {
+		Options opt = new OptionsBuilder()
+				.include(BenchmarkComplexMath.class.getSimpleName())
+				.build();
 
-	public static void main( String args[] ) {
-		BenchmarkComplexMath benchmark = new BenchmarkComplexMath();
-		benchmark.run();
+		new Runner(opt).run();
 	}
 }
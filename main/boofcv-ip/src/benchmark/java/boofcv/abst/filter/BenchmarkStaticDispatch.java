@@ -0,0 +1,94 @@
+/*
+ * Copyright (c) 2011-2018, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.abst.filter;
+
+import boofcv.alg.filter.derivative.GradientSobel;
+import boofcv.alg.misc.GImageMiscOps;
+import boofcv.core.image.border.BorderType;
+import boofcv.core.image.border.FactoryImageBorder;
+import boofcv.core.image.border.ImageBorder_F32;
+import boofcv.misc.BoofLambdas;
+import boofcv.struct.image.GrayF32;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.lang.reflect.Method;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the overhead of invoking a static image processing function through reflection against a function
+ * bound using {@link BoofLambdas} and a direct call. Small images make the dispatch cost easier to see.
+ *
+ * @author Peter Abeles
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@State(Scope.Benchmark)
+@Fork(value=1)
+public class BenchmarkStaticDispatch {
+
+	@Param({"16","320"})
+	public int size;
+
+	GrayF32 input, derivX, derivY;
+	ImageBorder_F32 border = (ImageBorder_F32)FactoryImageBorder.single(GrayF32.class, BorderType.EXTENDED);
+
+	Method m;
+	BoofLambdas.Process4<GrayF32,GrayF32,GrayF32,ImageBorder_F32> function;
+
+	@Setup
+	public void setup() throws NoSuchMethodException {
+		input = new GrayF32(size,size);
+		derivX = input.createSameShape();
+		derivY = input.createSameShape();
+		GImageMiscOps.fillUniform(input, new Random(234), 0, 100);
+
+		m = GradientSobel.class.getMethod("process",GrayF32.class,GrayF32.class,GrayF32.class,ImageBorder_F32.class);
+		function = BoofLambdas.bindStatic(m,BoofLambdas.Process4.class);
+	}
+
+	@Benchmark
+	public void reflection() throws Exception {
+		m.invoke(null,input,derivX,derivY,border);
+	}
+
+	@Benchmark
+	public void bound() {
+		function.process(input,derivX,derivY,border);
+	}
+
+	@Benchmark
+	public void direct() {
+		GradientSobel.process(input,derivX,derivY,border);
+	}
+
+	public static void main( String args[] ) throws RunnerException {
+		Options opt = new OptionsBuilder()
+				.include(BenchmarkStaticDispatch.class.getSimpleName())
+				.build();
+
+		new Runner(opt).run();
+	}
+}
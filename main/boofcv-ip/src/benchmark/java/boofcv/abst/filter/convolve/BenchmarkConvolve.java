@@ -22,6 +22,7 @@ import boofcv.alg.filter.convolve.ConvolveImage;
 import boofcv.alg.filter.convolve.ConvolveImageNoBorder;
 import boofcv.alg.filter.convolve.noborder.*;
 import boofcv.alg.misc.ImageMiscOps;
+import boofcv.concurrency.BoofConcurrency;
 import boofcv.core.image.border.BorderIndex1D_Extend;
 import boofcv.core.image.border.ImageBorder1D_S32;
 import boofcv.factory.filter.kernel.FactoryKernelGaussian;
@@ -33,211 +34,162 @@ import boofcv.struct.image.GrayF32;
 import boofcv.struct.image.GrayS16;
 import boofcv.struct.image.GrayS32;
 import boofcv.struct.image.GrayU8;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
 
 import java.util.Random;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Benchmark for different convolution operations.
  * @author Peter Abeles
  */
-@SuppressWarnings({"UnusedDeclaration"})
-public class BenchmarkConvolve  {
-	static int width = 640;
-	static int height = 480;
-
-	Random rand = new Random(234);
-
-	static Kernel2D_F32 kernel2D_F32;
-	static Kernel1D_F32 kernelF32;
-	static Kernel1D_S32 kernelI32;
-	static Kernel2D_S32 kernel2D_I32;
-	static GrayF32 input_F32 = new GrayF32(width,height);
-	static GrayF32 out_F32 = new GrayF32(width,height);
-	static GrayU8 input_U8 = new GrayU8(width,height);
-	static GrayS16 input_S16 = new GrayS16(width,height);
-	static GrayU8 out_U8 = new GrayU8(width,height);
-	static GrayS16 out_S16 = new GrayS16(width,height);
-	static GrayS32 out_S32 = new GrayS32(width,height);
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@State(Scope.Benchmark)
+@Fork(value=1)
+public class BenchmarkConvolve {
+
+	@Param({"640","1920"})
+	public int size;
 
 	// iterate through different sized kernel radius
-//	@Param({"1", "2"})
-	private int radius;
+	@Param({"1","5"})
+	public int radius;
+
+	@Param({"true","false"})
+	public boolean concurrent;
+
+	Kernel2D_F32 kernel2D_F32;
+	Kernel1D_F32 kernelF32;
+	Kernel1D_S32 kernelI32;
+	Kernel2D_S32 kernel2D_I32;
+	GrayF32 input_F32 = new GrayF32(1,1);
+	GrayF32 out_F32 = new GrayF32(1,1);
+	GrayU8 input_U8 = new GrayU8(1,1);
+	GrayS16 input_S16 = new GrayS16(1,1);
+	GrayU8 out_U8 = new GrayU8(1,1);
+	GrayS16 out_S16 = new GrayS16(1,1);
+	GrayS32 out_S32 = new GrayS32(1,1);
+
+	@Setup
+	public void setup() {
+		BoofConcurrency.USE_CONCURRENT = concurrent;
+		Random rand = new Random(234);
+
+		input_F32.reshape(size,size);
+		out_F32.reshape(size,size);
+		input_U8.reshape(size,size);
+		input_S16.reshape(size,size);
+		out_U8.reshape(size,size);
+		out_S16.reshape(size,size);
+		out_S32.reshape(size,size);
 
-	public BenchmarkConvolve() {
 		ImageMiscOps.fillUniform(input_U8,rand,0,20);
 		ImageMiscOps.fillUniform(input_S16,rand,0,20);
 		ImageMiscOps.fillUniform(input_F32,rand,0,20);
-	}
 
-	protected void setUp() throws Exception {
 		kernelF32 = FactoryKernelGaussian.gaussian(Kernel1D_F32.class, -1, radius);
 		kernelI32 = FactoryKernelGaussian.gaussian(Kernel1D_S32.class,-1,radius);
 		kernel2D_F32 = FactoryKernelGaussian.gaussian(Kernel2D_F32.class,-1,radius);
 		kernel2D_I32 = FactoryKernelGaussian.gaussian(Kernel2D_S32.class, -1, radius);
 	}
 
-	public int timeHorizontal_F32(int reps) {
-		for( int i = 0; i < reps; i++ )
-			ConvolveImageStandard_SB.horizontal(kernelF32, input_F32,out_F32);
-		return 0;
-	}
-
-	public int timeHorizontal_I8_I8_div2(int reps) {
-		for( int i = 0; i < reps; i++ )
-			ConvolveImageStandard_SB.horizontal(kernelI32, input_U8, out_U8, 10);
-		return 0;
-	}
-
-	public int timeHorizontalUnroll_I8_I8_div(int reps) {
-		for( int i = 0; i < reps; i++ )
-			if( !ConvolveImageUnrolled_SB_U8_I8_Div.horizontal(kernelI32, input_U8, out_U8,10) )
-				throw new RuntimeException();
-		return 0;
-	}
-
-	public int timeHorizontal_I8_I16(int reps) {
-		for( int i = 0; i < reps; i++ )
-			ConvolveImageStandard_SB.horizontal(kernelI32, input_U8, out_S16);
-		return 0;
+	@Benchmark
+	public void horizontal_F32() {
+		ConvolveImageNoBorder.horizontal(kernelF32, input_F32,out_F32);
 	}
 
-	public int timeHorizontal_I16_I16(int reps) {
-		for( int i = 0; i < reps; i++ )
-			ConvolveImageStandard_SB.horizontal(kernelI32, input_S16, out_S16);
-		return 0;
+	@Benchmark
+	public void horizontalStd_F32() {
+		ConvolveImageStandard_SB.horizontal(kernelF32, input_F32,out_F32);
 	}
 
-	public int timeVertical_F32(int reps) {
-		for( int i = 0; i < reps; i++ )
-			ConvolveImageStandard_SB.vertical(kernelF32, input_F32, out_F32);
-		return 0;
+	@Benchmark
+	public void horizontal_U8_I8_div() {
+		ConvolveImageNoBorder.horizontal(kernelI32, input_U8, out_U8, 10);
 	}
 
-	public int timeVertical_I8_I8_div(int reps) {
-		for( int i = 0; i < reps; i++ )
-			ConvolveImageStandard_SB.vertical(kernelI32, input_U8, out_U8,10);
-		return 0;
+	@Benchmark
+	public void horizontal_U8_I16() {
+		ConvolveImageNoBorder.horizontal(kernelI32, input_U8, out_S16);
 	}
 
-	public int timeVerticalUnrolled_U8_I8_div(int reps) {
-		for( int i = 0; i < reps; i++ )
-			if( !ConvolveImageUnrolled_SB_U8_I8_Div.vertical(kernelI32, input_U8, out_U8,10) )
-				throw new RuntimeException();
-		return 0;
+	@Benchmark
+	public void horizontal_S16_I16() {
+		ConvolveImageNoBorder.horizontal(kernelI32, input_S16, out_S16);
 	}
 
-	public int timeVertical_I8_I16(int reps) {
-		for( int i = 0; i < reps; i++ )
-			ConvolveImageStandard_SB.vertical(kernelI32, input_U8, out_S16);
-		return 0;
+	@Benchmark
+	public void vertical_F32() {
+		ConvolveImageNoBorder.vertical(kernelF32, input_F32, out_F32);
 	}
 
-	public int timeVertical_I16_I16(int reps) {
-		for( int i = 0; i < reps; i++ )
-			ConvolveImageStandard_SB.vertical(kernelI32, input_S16, out_S16);
-		return 0;
+	@Benchmark
+	public void verticalStd_F32() {
+		ConvolveImageStandard_SB.vertical(kernelF32, input_F32, out_F32);
 	}
 
-	public int timeConvolve2D_F32(int reps) {
-		for( int i = 0; i < reps; i++ )
-			ConvolveImageNoBorder.convolve(kernel2D_F32, input_F32, out_F32);
-		return 0;
+	@Benchmark
+	public void vertical_U8_I8_div() {
+		ConvolveImageNoBorder.vertical(kernelI32, input_U8, out_U8,10);
 	}
 
-	public int timeConvolve2D_Std_F32(int reps) {
-		for( int i = 0; i < reps; i++ )
-			ConvolveImageStandard_SB.convolve(kernel2D_F32, input_F32,out_F32);
-		return 0;
+	@Benchmark
+	public void vertical_U8_I16() {
+		ConvolveImageNoBorder.vertical(kernelI32, input_U8, out_S16);
 	}
 
-	public int timeConvolve2D_Unrolled_F32(int reps) {
-		for( int i = 0; i < reps; i++ )
-			if( !ConvolveImageUnrolled_SB_F32_F32.convolve(kernel2D_F32, input_F32,out_F32) )
-				throw new RuntimeException();
-		return 0;
+	@Benchmark
+	public void vertical_S16_I16() {
+		ConvolveImageNoBorder.vertical(kernelI32, input_S16, out_S16);
 	}
 
-	public int timeConvolve2D_I8_I16(int reps) {
-		for( int i = 0; i < reps; i++ )
-			ConvolveImageNoBorder.convolve(kernel2D_I32, input_U8, out_S16);
-		return 0;
+	@Benchmark
+	public void convolve2D_F32() {
+		ConvolveImageNoBorder.convolve(kernel2D_F32, input_F32, out_F32);
 	}
 
-	public int timeConvolve2D_Extend_I8_I16(int reps) {
-		for( int i = 0; i < reps; i++ )
-			ConvolveImage.convolve(kernel2D_I32, input_U8, out_S16, new ImageBorder1D_S32(BorderIndex1D_Extend.class));
-		return 0;
+	@Benchmark
+	public void convolve2DStd_F32() {
+		ConvolveImageStandard_SB.convolve(kernel2D_F32, input_F32,out_F32);
 	}
 
-	public int timeConvolve2D_Std_I8_I8_DIV(int reps) {
-		for( int i = 0; i < reps; i++ )
-			ConvolveImageStandard_SB.convolve(kernel2D_I32, input_U8, out_U8,10);
-		return 0;
+	@Benchmark
+	public void convolve2D_U8_I16() {
+		ConvolveImageNoBorder.convolve(kernel2D_I32, input_U8, out_S16);
 	}
 
-	public int timeConvolve2D_I8_I8_DIV(int reps) {
-		for( int i = 0; i < reps; i++ )
-			ConvolveImageNoBorder.convolve(kernel2D_I32, input_U8, out_U8,10);
-		return 0;
+	@Benchmark
+	public void convolve2DExtend_U8_I16() {
+		ConvolveImage.convolve(kernel2D_I32, input_U8, out_S16, new ImageBorder1D_S32(BorderIndex1D_Extend.class));
 	}
 
-	public int timeConvolve2D_Std_I8_I16(int reps) {
-		for( int i = 0; i < reps; i++ )
-			ConvolveImageNoBorder.convolve(kernel2D_I32, input_U8, out_U8,10);
-		return 0;
+	@Benchmark
+	public void convolve2D_U8_I8_div() {
+		ConvolveImageNoBorder.convolve(kernel2D_I32, input_U8, out_U8,10);
 	}
 
-	public int timeHorizontalUnrolled_F32(int reps) {
-		for( int i = 0; i < reps; i++ )
-			if( !ConvolveImageUnrolled_SB_F32_F32.horizontal(kernelF32, input_F32,out_F32) )
-				throw new RuntimeException();
-		return 0;
+	@Benchmark
+	public void convolve2DStd_U8_I8_div() {
+		ConvolveImageStandard_SB.convolve(kernel2D_I32, input_U8, out_U8,10);
 	}
 
-	public int timeVerticalUnrolled_F32(int reps) {
-		for( int i = 0; i < reps; i++ )
-			if( !ConvolveImageUnrolled_SB_F32_F32.vertical(kernelF32, input_F32, out_F32) )
-				throw new RuntimeException();
-		return 0;
+	@Benchmark
+	public void boxVertical_U8_S32() {
+		ImplConvolveBox.vertical(input_U8, out_S32,radius);
 	}
 
-	public int timeHorizontalUnrolled_U8(int reps) {
-		for( int i = 0; i < reps; i++ )
-			if( !ConvolveImageUnrolled_SB_U8_I16.horizontal(kernelI32, input_U8, out_S16) )
-				throw new RuntimeException();
-		return 0;
-	}
-
-	public int timeVerticalUnrolled_U8(int reps) {
-		for( int i = 0; i < reps; i++ )
-			if( !ConvolveImageUnrolled_SB_U8_I16.vertical(kernelI32, input_U8, out_S16) )
-				throw new RuntimeException();
-		return 0;
-	}
-
-	public int timeHorizontalUnrolled_I16(int reps) {
-		for( int i = 0; i < reps; i++ )
-			if( !ConvolveImageUnrolled_SB_S16_I16.horizontal(kernelI32, input_S16, out_S16) )
-				throw new RuntimeException();
-		return 0;
-	}
-
-	public int timeVerticalUnrolled_I16(int reps) {
-		for( int i = 0; i < reps; i++ )
-			if( !ConvolveImageUnrolled_SB_S16_I16.vertical(kernelI32, input_S16, out_S16) )
-				throw new RuntimeException();
-		return 0;
-	}
+	public static void main( String args[] ) throws RunnerException {
+		Options opt = new OptionsBuilder()
+				.include(BenchmarkConvolve.class.getSimpleName())
+				.build();
 
-	public int timeBox_U8_S32_Vertical6(int reps) {
-		for( int i = 0; i < reps; i++ )
-			ImplConvolveBox.vertical(input_U8, out_S32,radius);
-		return 0;
+		new Runner(opt).run();
 	}
-
-//	public static void main( String args[] ) {
-//		System.out.println("=========  Profile Image Size "+ width +" x "+ height +" ==========");
-//
-//		Runner.main(BenchmarkConvolve.class, args);
-//	}
 }
@@ -19,11 +19,13 @@
 package boofcv.alg.color;
 
 import boofcv.alg.misc.GImageMiscOps;
-import boofcv.misc.PerformerBase;
-import boofcv.misc.ProfileOperation;
 import boofcv.struct.image.GrayF32;
 import boofcv.struct.image.Planar;
 import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
 
 import java.util.Random;
 import java.util.concurrent.TimeUnit;
@@ -42,8 +44,6 @@ public class BenchmarkColorConvert {
 	public static final int imgHeight = 480;
 	public static final Random rand = new Random(234);
 
-	public static final int TEST_TIME = 1000;
-
 	public static Planar<GrayF32> src_F32;
 	public static Planar<GrayF32> dst_F32;
 
@@ -77,4 +77,11 @@ public class BenchmarkColorConvert {
 		ColorYuv.yuvToRgb_F32(src_F32,dst_F32);
 	}
 
+	public static void main( String args[] ) throws RunnerException {
+		Options opt = new OptionsBuilder()
+				.include(BenchmarkColorConvert.class.getSimpleName())
+				.build();
+
+		new Runner(opt).run();
+	}
 }
@@ -19,111 +19,97 @@
 package boofcv.alg.distort;
 
 import boofcv.alg.interpolate.InterpolatePixelS;
+import boofcv.alg.misc.GImageMiscOps;
+import boofcv.concurrency.BoofConcurrency;
 import boofcv.core.image.GeneralizedImageOps;
 import boofcv.core.image.border.BorderType;
 import boofcv.factory.distort.FactoryDistort;
 import boofcv.factory.interpolate.FactoryInterpolation;
-import boofcv.misc.PerformerBase;
-import boofcv.misc.ProfileOperation;
 import boofcv.struct.distort.PixelTransform2_F32;
 import boofcv.struct.image.GrayF32;
+import boofcv.struct.image.GrayU8;
 import boofcv.struct.image.ImageGray;
 import georegression.struct.homography.Homography2D_F32;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
 
 import java.util.Random;
+import java.util.concurrent.TimeUnit;
 
 /**
  * @author Peter Abeles
  */
-public class BenchmarkImageDistort<T extends ImageGray<T>> {
-	public static final int imgWidth = 640;
-	public static final int imgHeight = 480;
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@State(Scope.Benchmark)
+@Fork(value=1)
+public class BenchmarkImageDistort {
+	@Param({"GrayU8","GrayF32"})
+	public String imageType;
 
-	public static final int TEST_TIME = 1000;
+	@Param({"true","false"})
+	public boolean concurrent;
 
-	Class<T> imageType;
-	
-	public T src_F32;
-	public T dst_F32;
+	int imgWidth = 640;
+	int imgHeight = 480;
 
-	public BenchmarkImageDistort(Class<T> imageType) {
-		this.imageType = imageType;
-		src_F32 = GeneralizedImageOps.createSingleBand(imageType,imgWidth,imgHeight);
-		dst_F32 = GeneralizedImageOps.createSingleBand(imageType,imgWidth,imgHeight);
-	}
-
-	public class HomographyBilinear_F32 extends PerformerBase {
-		ImageDistort<T,T> alg;
-
-		public HomographyBilinear_F32(Homography2D_F32 affine) {
-			PixelTransform2_F32 tran = new PixelTransformHomography_F32(affine);
-			InterpolatePixelS<T> interp = FactoryInterpolation.bilinearPixelS(imageType, BorderType.EXTENDED);
-			
-			alg = FactoryDistort.distortSB(false, interp, imageType);
-			alg.setModel(tran);
-		}
-
-		@Override
-		public void process() {
-			alg.apply(src_F32, dst_F32);
-		}
-	}
-
-	public class HomographyBilinearCrop_F32 extends PerformerBase {
-		ImageDistort<T,T> alg;
-
-		public HomographyBilinearCrop_F32(Homography2D_F32 affine) {
-			PixelTransform2_F32 tran = new PixelTransformHomography_F32(affine);
-			InterpolatePixelS<T> interp = FactoryInterpolation.bilinearPixelS(imageType, BorderType.EXTENDED);
-
-			alg = FactoryDistort.distortSB(false, interp, imageType);
-			alg.setModel(tran);
-		}
-
-		@Override
-		public void process() {
-			alg.apply(src_F32, dst_F32,0,0,imgWidth,imgHeight);
-		}
-	}
-
-	public class MapBilinear_F32 extends PerformerBase {
-		ImageDistort<T,T> alg;
+	ImageGray src;
+	ImageGray dst;
 
-		public MapBilinear_F32( Homography2D_F32 homography ) {
-			PixelTransform2_F32 tran = new PixelTransformHomography_F32(homography);
-			InterpolatePixelS<T> interp = FactoryInterpolation.bilinearPixelS(imageType, BorderType.EXTENDED);
+	ImageDistort homography;
+	ImageDistort map;
 
-			alg = FactoryDistort.distortSB(true, interp, imageType);
-			alg.setModel(tran);
-		}
+	@Setup
+	public void setup() {
+		BoofConcurrency.USE_CONCURRENT = concurrent;
 
-		@Override
-		public void process() {
-			alg.apply(src_F32, dst_F32,0,0,imgWidth,imgHeight);
-		}
-	}
+		Class<ImageGray> type = imageType.equals("GrayU8") ? (Class)GrayU8.class : (Class)GrayF32.class;
 
-	private void benchmark() {
 		Random rand = new Random(234);
+		src = GeneralizedImageOps.createSingleBand(type,imgWidth,imgHeight);
+		dst = GeneralizedImageOps.createSingleBand(type,imgWidth,imgHeight);
+		GImageMiscOps.fillUniform(src, rand, 0, 100);
 
 		Homography2D_F32 affine = new Homography2D_F32((float)rand.nextGaussian(),(float)rand.nextGaussian(),
 				(float)rand.nextGaussian(),(float)rand.nextGaussian(),(float)rand.nextGaussian(),
 				(float)rand.nextGaussian(),(float)rand.nextGaussian(),(float)rand.nextGaussian(),
 				(float)rand.nextGaussian());
+		PixelTransform2_F32 tran = new PixelTransformHomography_F32(affine);
 
-		System.out.println("=========  Profile Image Size " + imgWidth + " x " + imgHeight + " ==========");
-		System.out.println();
+		InterpolatePixelS interp = FactoryInterpolation.bilinearPixelS(type, BorderType.EXTENDED);
+		homography = FactoryDistort.distortSB(false, interp, type);
+		homography.setModel(tran);
 
-		ProfileOperation.printOpsPerSec(new MapBilinear_F32(affine),TEST_TIME);
-		ProfileOperation.printOpsPerSec(new HomographyBilinear_F32(affine),TEST_TIME);
-		ProfileOperation.printOpsPerSec(new HomographyBilinearCrop_F32(affine),TEST_TIME);
+		interp = FactoryInterpolation.bilinearPixelS(type, BorderType.EXTENDED);
+		map = FactoryDistort.distortSB(true, interp, type);
+		map.setModel(tran);
+	}
 
+	@Benchmark
+	public void mapBilinear() {
+		map.apply(src, dst,0,0,imgWidth,imgHeight);
 	}
 
+	@Benchmark
+	public void homographyBilinear() {
+		homography.apply(src, dst);
+	}
+
+	@Benchmark
+	public void homographyBilinearCrop() {
+		homography.apply(src, dst,0,0,imgWidth,imgHeight);
+	}
 
-	public static void main( String args[] ) {
-		BenchmarkImageDistort benchmark = new BenchmarkImageDistort(GrayF32.class);
+	public static void main( String args[] ) throws RunnerException {
+		Options opt = new OptionsBuilder()
+				.include(BenchmarkImageDistort.class.getSimpleName())
+				.build();
 
-		benchmark.benchmark();
+		new Runner(opt).run();
 	}
 }
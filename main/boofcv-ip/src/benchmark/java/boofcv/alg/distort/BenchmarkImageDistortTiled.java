@@ -0,0 +1,130 @@
+/*
+ * Copyright (c) 2011-2018, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.distort;
+
+import boofcv.alg.distort.impl.DistortSupport;
+import boofcv.alg.interpolate.InterpolatePixelS;
+import boofcv.alg.misc.GImageMiscOps;
+import boofcv.concurrency.BoofConcurrency;
+import boofcv.core.image.border.BorderType;
+import boofcv.factory.distort.FactoryDistort;
+import boofcv.factory.interpolate.FactoryInterpolation;
+import boofcv.struct.image.GrayF32;
+import boofcv.struct.image.Planar;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks tiled image distortion when rotating an image. Gray and planar images are rendered with and
+ * without a cached remap table
+ *
+ * @author Peter Abeles
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@State(Scope.Benchmark)
+@Fork(value=1)
+public class BenchmarkImageDistortTiled {
+
+	@Param({"640","1920"})
+	public int size;
+
+	@Param({"true","false"})
+	public boolean concurrent;
+
+	@Param({"true","false"})
+	public boolean renderAll;
+
+	GrayF32 gray, grayOut;
+	Planar<GrayF32> planar, planarOut;
+
+	ImageDistort<GrayF32,GrayF32> basic, cached;
+	ImageDistort<Planar<GrayF32>,Planar<GrayF32>> basicPL, cachedPL;
+
+	@Setup
+	public void setup() {
+		BoofConcurrency.USE_CONCURRENT = concurrent;
+		Random rand = new Random(234);
+
+		gray = new GrayF32(size,size);
+		grayOut = gray.createSameShape();
+		planar = new Planar<>(GrayF32.class,size,size,3);
+		planarOut = planar.createSameShape();
+		GImageMiscOps.fillUniform(gray,rand,0,200);
+		GImageMiscOps.fillUniform(planar,rand,0,200);
+
+		PixelTransformAffine_F32 model = DistortSupport.transformRotate(size/2,size/2,size/2,size/2,0.5f);
+
+		basic = createDistort(false,model);
+		cached = createDistort(true,model);
+
+		basicPL = FactoryDistort.distortPL(false,
+				FactoryInterpolation.bilinearPixelS(GrayF32.class, BorderType.ZERO),GrayF32.class);
+		basicPL.setModel(model);
+		basicPL.setRenderAll(renderAll);
+		cachedPL = FactoryDistort.distortPL(true,
+				FactoryInterpolation.bilinearPixelS(GrayF32.class, BorderType.ZERO),GrayF32.class);
+		cachedPL.setModel(model);
+		cachedPL.setRenderAll(renderAll);
+	}
+
+	private ImageDistort<GrayF32,GrayF32> createDistort( boolean cached , PixelTransformAffine_F32 model ) {
+		InterpolatePixelS<GrayF32> interp = FactoryInterpolation.bilinearPixelS(GrayF32.class, BorderType.ZERO);
+		ImageDistort<GrayF32,GrayF32> alg = FactoryDistort.distortSB(cached,interp,GrayF32.class);
+		alg.setModel(model);
+		alg.setRenderAll(renderAll);
+		return alg;
+	}
+
+	@Benchmark
+	public void gray() {
+		basic.apply(gray,grayOut);
+	}
+
+	@Benchmark
+	public void gray_cached() {
+		cached.apply(gray,grayOut);
+	}
+
+	@Benchmark
+	public void planar() {
+		basicPL.apply(planar,planarOut);
+	}
+
+	@Benchmark
+	public void planar_cached() {
+		cachedPL.apply(planar,planarOut);
+	}
+
+	public static void main( String args[] ) throws RunnerException {
+		Options opt = new OptionsBuilder()
+				.include(BenchmarkImageDistortTiled.class.getSimpleName())
+				.build();
+
+		new Runner(opt).run();
+	}
+}
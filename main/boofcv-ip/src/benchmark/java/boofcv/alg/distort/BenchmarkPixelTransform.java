@@ -18,53 +18,37 @@
 
 package boofcv.alg.distort;
 
-import boofcv.misc.Performer;
-import boofcv.misc.ProfileOperation;
 import boofcv.struct.distort.PixelTransform2_F32;
 import georegression.struct.affine.Affine2D_F32;
 import georegression.struct.homography.Homography2D_F32;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
 
 import java.util.Random;
+import java.util.concurrent.TimeUnit;
 
 /**
  * @author Peter Abeles
  */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@State(Scope.Benchmark)
+@Fork(value=1)
 public class BenchmarkPixelTransform {
 
+	int imgWidth = 640;
+	int imgHeight = 480;
 
-	public static final int imgWidth = 640;
-	public static final int imgHeight = 480;
-	
-	public static final int TEST_TIME = 1000;
+	PixelTransform2_F32 homography;
+	PixelTransform2_F32 affine;
 
-	public static class TestPixelTransform_F32 implements Performer {
-		PixelTransform2_F32 alg;
-		String name;
-
-		public TestPixelTransform_F32(PixelTransform2_F32 alg, String name ) {
-			this.alg = alg;
-			this.name = name;
-		}
-
-		@Override
-		public void process() {
-			for (int y = 0; y < imgHeight; y++ )
-				for (int x = 0; x < imgWidth; x++)
-					alg.compute(x, y);
-		}
-
-		@Override
-		public String getName() {
-			return name;
-		}
-	}
-
-	
-	private static void benchmark(PixelTransform2_F32 alg , String name ) {
-		ProfileOperation.printOpsPerSec(new TestPixelTransform_F32(alg,name), TEST_TIME);
-	}
-	
-	public static void main( String args[] ) {
+	@Setup
+	public void setup() {
 		Random rand = new Random(234);
 
 		Affine2D_F32 affine = new Affine2D_F32((float)rand.nextGaussian(),(float)rand.nextGaussian(),
@@ -76,11 +60,31 @@ public class BenchmarkPixelTransform {
 				(float)rand.nextGaussian(),(float)rand.nextGaussian(),(float)rand.nextGaussian(),
 				(float)rand.nextGaussian());
 
-		System.out.println("=========  Profile Image Size " + imgWidth + " x " + imgHeight + " ==========");
-		System.out.println();
+		this.homography = new PixelTransformHomography_F32(homography);
+		this.affine = new PixelTransformAffine_F32(affine);
+	}
+
+	@Benchmark
+	public void homography() {
+		process(homography);
+	}
+
+	@Benchmark
+	public void affine() {
+		process(affine);
+	}
+
+	private void process( PixelTransform2_F32 alg ) {
+		for (int y = 0; y < imgHeight; y++ )
+			for (int x = 0; x < imgWidth; x++)
+				alg.compute(x, y);
+	}
 
-		benchmark(new PixelTransformHomography_F32(homography), "Homography");
-		benchmark(new PixelTransformAffine_F32(affine), "Affine");
+	public static void main( String args[] ) throws RunnerException {
+		Options opt = new OptionsBuilder()
+				.include(BenchmarkPixelTransform.class.getSimpleName())
+				.build();
 
+		new Runner(opt).run();
 	}
 }
@@ -22,20 +22,32 @@ import boofcv.alg.filter.binary.impl.ImplBinaryInnerOps;
 import boofcv.alg.filter.binary.impl.ImplBinaryNaiveOps;
 import boofcv.alg.misc.ImageMiscOps;
 import boofcv.struct.image.GrayU8;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
 
 import java.util.Random;
+import java.util.concurrent.TimeUnit;
 
 /**
- * Benchmark for different convolution operations.
+ * Benchmark for binary morphological operations.
  *
  * @author Peter Abeles
  */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@State(Scope.Benchmark)
+@Fork(value=1)
 public class BenchmarkBinaryOps  {
-	static int imgWidth = 640;
-	static int imgHeight = 480;
+	int imgWidth = 640;
+	int imgHeight = 480;
 
-	static GrayU8 input = new GrayU8(imgWidth, imgHeight);
-	static GrayU8 output = new GrayU8(imgWidth, imgHeight);
+	GrayU8 input = new GrayU8(imgWidth, imgHeight);
+	GrayU8 output = new GrayU8(imgWidth, imgHeight);
 
 	public BenchmarkBinaryOps() {
 		Random rand = new Random(234);
@@ -45,135 +57,116 @@ public class BenchmarkBinaryOps  {
 //		ImageMiscOps.fillRectangle(input,1,100,200,150,100);
 	}
 
-	public int timeNaiveErode4(int reps) {
-		for( int i = 0; i < reps; i++ )
-			ImplBinaryNaiveOps.erode4(input, output);
-		return 0;
+	@Benchmark
+	public void naiveErode4() {
+		ImplBinaryNaiveOps.erode4(input, output);
 	}
 
-	public int timeNaiveErode8(int reps) {
-		for( int i = 0; i < reps; i++ )
-			ImplBinaryNaiveOps.erode8(input, output);
-		return 0;
+	@Benchmark
+	public void naiveErode8() {
+		ImplBinaryNaiveOps.erode8(input, output);
 	}
 
-	public int timeNaiveDilate4(int reps) {
-		for( int i = 0; i < reps; i++ )
-			ImplBinaryNaiveOps.dilate4(input, output);
-		return 0;
+	@Benchmark
+	public void naiveDilate4() {
+		ImplBinaryNaiveOps.dilate4(input, output);
 	}
 
-	public int timeNaiveDilate8(int reps) {
-		for( int i = 0; i < reps; i++ )
-			ImplBinaryNaiveOps.dilate8(input, output);
-		return 0;
+	@Benchmark
+	public void naiveDilate8() {
+		ImplBinaryNaiveOps.dilate8(input, output);
 	}
 
-	public int timeNaiveEdge4(int reps) {
-		for( int i = 0; i < reps; i++ )
-			ImplBinaryNaiveOps.edge4(input, output);
-		return 0;
+	@Benchmark
+	public void naiveEdge4() {
+		ImplBinaryNaiveOps.edge4(input, output);
 	}
 
-	public int timeNaiveEdge8(int reps) {
-		for( int i = 0; i < reps; i++ )
-			ImplBinaryNaiveOps.edge8(input, output);
-		return 0;
+	@Benchmark
+	public void naiveEdge8() {
+		ImplBinaryNaiveOps.edge8(input, output);
 	}
 
-	public int timeNaiveRemovePointNoise(int reps) {
-		for( int i = 0; i < reps; i++ )
-			ImplBinaryNaiveOps.removePointNoise(input, output);
-		return 0;
+	@Benchmark
+	public void naiveRemovePointNoise() {
+		ImplBinaryNaiveOps.removePointNoise(input, output);
 	}
 
-	public int timeInnerErode4(int reps) {
-		for( int i = 0; i < reps; i++ )
-			ImplBinaryInnerOps.erode4(input, output);
-		return 0;
+	@Benchmark
+	public void innerErode4() {
+		ImplBinaryInnerOps.erode4(input, output);
 	}
 
-	public int timeInnerErode8(int reps) {
-		for( int i = 0; i < reps; i++ )
-			ImplBinaryInnerOps.erode8(input, output);
-		return 0;
+	@Benchmark
+	public void innerErode8() {
+		ImplBinaryInnerOps.erode8(input, output);
 	}
 
-	public int timeInnerDilate4(int reps) {
-		for( int i = 0; i < reps; i++ )
-			ImplBinaryInnerOps.dilate4(input, output);
-		return 0;
+	@Benchmark
+	public void innerDilate4() {
+		ImplBinaryInnerOps.dilate4(input, output);
 	}
 
-	public int timeInnerDilate8(int reps) {
-		for( int i = 0; i < reps; i++ )
-			ImplBinaryInnerOps.dilate8(input, output);
-		return 0;
+	@Benchmark
+	public void innerDilate8() {
+		ImplBinaryInnerOps.dilate8(input, output);
 	}
 
-	public int timeInnerEdge4(int reps) {
-		for( int i = 0; i < reps; i++ )
-			ImplBinaryInnerOps.edge4(input, output);
-		return 0;
+	@Benchmark
+	public void innerEdge4() {
+		ImplBinaryInnerOps.edge4(input, output);
 	}
 
-	public int timeInnerEdge8(int reps) {
-		for( int i = 0; i < reps; i++ )
-			ImplBinaryInnerOps.edge8(input, output);
-		return 0;
+	@Benchmark
+	public void innerEdge8() {
+		ImplBinaryInnerOps.edge8(input, output);
 	}
 
-	public int timeInnerRemovePointNoise(int reps) {
-		for( int i = 0; i < reps; i++ )
-			ImplBinaryInnerOps.removePointNoise(input, output);
-		return 0;
+	@Benchmark
+	public void innerRemovePointNoise() {
+		ImplBinaryInnerOps.removePointNoise(input, output);
 	}
 
-	public int timeErode4(int reps) {
-		for( int i = 0; i < reps; i++ )
-			BinaryImageOps.erode4(input, 1, output);
-		return 0;
+	@Benchmark
+	public void erode4() {
+		BinaryImageOps.erode4(input, 1, output);
 	}
 
-	public int timeErode8(int reps) {
-		for( int i = 0; i < reps; i++ )
-			BinaryImageOps.erode8(input, 1, output);
-		return 0;
+	@Benchmark
+	public void erode8() {
+		BinaryImageOps.erode8(input, 1, output);
 	}
 
-	public int timeDilate4(int reps) {
-		for( int i = 0; i < reps; i++ )
-			BinaryImageOps.dilate4(input, 1, output);
-		return 0;
+	@Benchmark
+	public void dilate4() {
+		BinaryImageOps.dilate4(input, 1, output);
 	}
 
-	public int timeDilate8(int reps) {
-		for( int i = 0; i < reps; i++ )
-			BinaryImageOps.dilate8(input, 1, output);
-		return 0;
+	@Benchmark
+	public void dilate8() {
+		BinaryImageOps.dilate8(input, 1, output);
 	}
 
-	public int timeEdge4(int reps) {
-		for( int i = 0; i < reps; i++ )
-			BinaryImageOps.edge4(input, output);
-		return 0;
+	@Benchmark
+	public void edge4() {
+		BinaryImageOps.edge4(input, output);
 	}
 
-	public int timeEdge8(int reps) {
-		for( int i = 0; i < reps; i++ )
-			BinaryImageOps.edge8(input, output);
-		return 0;
+	@Benchmark
+	public void edge8() {
+		BinaryImageOps.edge8(input, output);
 	}
 
-	public int timeRemovePointNoise(int reps) {
-		for( int i = 0; i < reps; i++ )
-			BinaryImageOps.removePointNoise(input, output);
-		return 0;
+	@Benchmark
+	public void removePointNoise() {
+		BinaryImageOps.removePointNoise(input, output);
 	}
 
-	public static void main(String args[]) {
-		System.out.println("=========  Profile Image Size " + imgWidth + " x " + imgHeight + " ==========");
+	public static void main( String args[] ) throws RunnerException {
+		Options opt = new OptionsBuilder()
+				.include(BenchmarkBinaryOps.class.getSimpleName())
+				.build();
 
-//		Runner.main(BenchmarkBinaryOps.class, args);
+		new Runner(opt).run();
 	}
 }
@@ -26,28 +26,40 @@ import boofcv.struct.image.GrayF32;
 import boofcv.struct.image.GrayS16;
 import boofcv.struct.image.GrayS32;
 import boofcv.struct.image.GrayU8;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
 
 import java.util.Random;
+import java.util.concurrent.TimeUnit;
 
 /**
- * Benchmark for different convolution operations.
+ * Benchmark for median filter implementations.
  * @author Peter Abeles
  */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@State(Scope.Benchmark)
+@Fork(value=1)
 public class BenchmarkMedianFilter  {
-	static int imgWidth = 640;
-	static int imgHeight = 480;
-	static long TEST_TIME = 1000;
+	int imgWidth = 640;
+	int imgHeight = 480;
 
-	static GrayF32 imgFloat32 = new GrayF32(imgWidth,imgHeight);
-	static GrayF32 out_F32 = new GrayF32(imgWidth,imgHeight);
-	static GrayU8 imgInt8 = new GrayU8(imgWidth,imgHeight);
-	static GrayS16 imgInt16 = new GrayS16(imgWidth,imgHeight);
-	static GrayU8 out_I8 = new GrayU8(imgWidth,imgHeight);
-	static GrayS16 out_I16 = new GrayS16(imgWidth,imgHeight);
-	static GrayS32 out_I32 = new GrayS32(imgWidth,imgHeight);
+	GrayF32 imgFloat32 = new GrayF32(imgWidth,imgHeight);
+	GrayF32 out_F32 = new GrayF32(imgWidth,imgHeight);
+	GrayU8 imgInt8 = new GrayU8(imgWidth,imgHeight);
+	GrayS16 imgInt16 = new GrayS16(imgWidth,imgHeight);
+	GrayU8 out_I8 = new GrayU8(imgWidth,imgHeight);
+	GrayS16 out_I16 = new GrayS16(imgWidth,imgHeight);
+	GrayS32 out_I32 = new GrayS32(imgWidth,imgHeight);
 
 	// iterate through different sized kernel radius
-	private int radius;
+	@Param({"1","2","5"})
+	public int radius;
 
 	public BenchmarkMedianFilter() {
 		Random rand = new Random(234);
@@ -55,46 +67,41 @@ public class BenchmarkMedianFilter  {
 		ImageMiscOps.fillUniform(imgFloat32,rand,0,200);
 	}
 
-	public int timeBlurImageOps_I8(int reps) {
-		for( int i = 0; i < reps; i++ )
-			BlurImageOps.median(imgInt8, out_I8, radius);
-		return 0;
+	@Benchmark
+	public void blurImageOps_I8() {
+		BlurImageOps.median(imgInt8, out_I8, radius);
 	}
 
-	public int timeBlurImageOps_F32(int reps) {
-		for( int i = 0; i < reps; i++ )
-			BlurImageOps.median(imgFloat32,out_F32,radius);
-		return 0;
+	@Benchmark
+	public void blurImageOps_F32() {
+		BlurImageOps.median(imgFloat32,out_F32,radius);
 	}
 
-	public int timeHistogramNaive_I8(int reps) {
-		for( int i = 0; i < reps; i++ )
-			ImplMedianHistogramInnerNaive.process(imgInt8, out_I8, radius, null, null);
-		return 0;
+	@Benchmark
+	public void histogramNaive_I8() {
+		ImplMedianHistogramInnerNaive.process(imgInt8, out_I8, radius, null, null);
 	}
 
-	public int timeHistogram_I8(int reps) {
-		for( int i = 0; i < reps; i++ )
-			ImplMedianHistogramInner.process(imgInt8,out_I8,radius,null,null);
-		return 0;
+	@Benchmark
+	public void histogram_I8() {
+		ImplMedianHistogramInner.process(imgInt8,out_I8,radius,null,null);
 	}
 
-	public int timeSortNaive_I8(int reps) {
-		for( int i = 0; i < reps; i++ )
-			ImplMedianSortNaive.process(imgInt8,out_I8,radius,null);
-		return 0;
+	@Benchmark
+	public void sortNaive_I8() {
+		ImplMedianSortNaive.process(imgInt8,out_I8,radius,null);
 	}
 
-	public int timeSortNaive_F32(int reps) {
-		for( int i = 0; i < reps; i++ )
-			ImplMedianSortNaive.process(imgFloat32,out_F32,radius,null);
-		return 0;
+	@Benchmark
+	public void sortNaive_F32() {
+		ImplMedianSortNaive.process(imgFloat32,out_F32,radius,null);
 	}
 
-	public static void main( String args[] ) {
-		System.out.println("=========  Profile Image Size "+imgWidth+" x "+imgHeight+" ==========");
-		System.out.println();
+	public static void main( String args[] ) throws RunnerException {
+		Options opt = new OptionsBuilder()
+				.include(BenchmarkMedianFilter.class.getSimpleName())
+				.build();
 
-//		Runner.main(BenchmarkMedianFilter.class, args);
+		new Runner(opt).run();
 	}
 }
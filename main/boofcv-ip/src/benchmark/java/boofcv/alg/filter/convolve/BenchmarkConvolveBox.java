@@ -27,35 +27,46 @@ import boofcv.struct.image.GrayF32;
 import boofcv.struct.image.GrayS16;
 import boofcv.struct.image.GrayS32;
 import boofcv.struct.image.GrayU8;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
 
 import java.util.Random;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Benchmark for different convolution operations.
  * @author Peter Abeles
  */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@State(Scope.Benchmark)
+@Fork(value=1)
 @SuppressWarnings("UnusedDeclaration")
 public class BenchmarkConvolveBox {
 
-	static int width = 640;
-	static int height = 480;
-	static long TEST_TIME = 1000;
-	static Random rand = new Random(234);
-
-	static Kernel1D_S32 kernelI32;
-	static Kernel1D_F32 kernelF32;
-	static GrayF32 input_F32 = new GrayF32(width,height);
-	static GrayF32 out_F32 = new GrayF32(width,height);
-	static GrayF32 storageF32 = new GrayF32(width,height);
-	static GrayU8 input_I8 = new GrayU8(width,height);
-	static GrayS16 input_I16 = new GrayS16(width,height);
-	static GrayU8 out_I8 = new GrayU8(width,height);
-	static GrayS16 out_I16 = new GrayS16(width,height);
-	static GrayS32 out_I32 = new GrayS32(width,height);
+	int width = 640;
+	int height = 480;
+	Random rand = new Random(234);
+
+	Kernel1D_S32 kernelI32;
+	Kernel1D_F32 kernelF32;
+	GrayF32 input_F32 = new GrayF32(width,height);
+	GrayF32 out_F32 = new GrayF32(width,height);
+	GrayF32 storageF32 = new GrayF32(width,height);
+	GrayU8 input_I8 = new GrayU8(width,height);
+	GrayS16 input_I16 = new GrayS16(width,height);
+	GrayU8 out_I8 = new GrayU8(width,height);
+	GrayS16 out_I16 = new GrayS16(width,height);
+	GrayS32 out_I32 = new GrayS32(width,height);
 
 	// iterate through different sized kernel radius
-//	@Param({"1", "2", "3", "5","10"})
-	private int radius;
+	@Param({"1", "2", "3", "5","10"})
+	public int radius;
 
 	public BenchmarkConvolveBox() {
 		ImageMiscOps.fillUniform(input_I8,rand,0,20);
@@ -63,78 +74,72 @@ public class BenchmarkConvolveBox {
 		ImageMiscOps.fillUniform(input_F32,rand,0,20);
 	}
 
-	protected void setUp() throws Exception {
+	@Setup
+	public void setup() {
 		kernelF32 = FactoryKernel.table1D_F32(radius,false);
 		kernelI32 = FactoryKernel.table1D_I32(radius);
 	}
 
-	public int timeConvolve_Vertical_I8_I16(int reps) {
-		for( int i = 0; i < reps; i++ )
-			ConvolveImageNoBorder.vertical(kernelI32, input_I8,out_I16);
-		return 0;
+	@Benchmark
+	public void convolve_Vertical_I8_I16() {
+		ConvolveImageNoBorder.vertical(kernelI32, input_I8,out_I16);
 	}
 
-	public int timeConvolve_Vertical_I8_I32(int reps) {
-		for( int i = 0; i < reps; i++ )
-			ConvolveImageNoBorder.vertical(kernelI32, input_I8,out_I32);
-		return 0;
+	@Benchmark
+	public void convolve_Vertical_I8_I32() {
+		ConvolveImageNoBorder.vertical(kernelI32, input_I8,out_I32);
 	}
 
-	public int timeBox_U8_I16_Vertical(int reps) {
-		for( int i = 0; i < reps; i++ )
-			ImplConvolveBox.vertical(input_I8,out_I16,radius);
-		return 0;
+	@Benchmark
+	public void box_U8_I16_Vertical() {
+		ImplConvolveBox.vertical(input_I8,out_I16,radius);
 	}
 
-	public int timeBox_U8_I32_Vertical(int reps) {
-		for( int i = 0; i < reps; i++ )
-			ImplConvolveBox.vertical(input_I8,out_I32,radius);
-		return 0;
+	@Benchmark
+	public void box_U8_I32_Vertical() {
+		ImplConvolveBox.vertical(input_I8,out_I32,radius);
 	}
 
-	public int timeBox_S16_I16_Vertical(int reps) {
-		for( int i = 0; i < reps; i++ )
-			ImplConvolveBox.vertical(input_I16,out_I16,radius);
-		return 0;
+	@Benchmark
+	public void box_S16_I16_Vertical() {
+		ImplConvolveBox.vertical(input_I16,out_I16,radius);
 	}
 
-	public int timeBox_F32_F32_Vertical(int reps) {
-		for( int i = 0; i < reps; i++ )
-			ImplConvolveBox.vertical(input_F32,out_F32,radius);
-		return 0;
+	@Benchmark
+	public void box_F32_F32_Vertical() {
+		ImplConvolveBox.vertical(input_F32,out_F32,radius);
 	}
 
-	public int timeBoxAlt_F32_F32_Vertical(int reps) {
-		for( int i = 0; i < reps; i++ )
-			ConvolveBoxAlt.vertical(input_F32,out_F32,radius,false);
-		return 0;
+	@Benchmark
+	public void boxAlt_F32_F32_Vertical() {
+		ConvolveBoxAlt.vertical(input_F32,out_F32,radius,false);
 	}
 
-	public int timeBox_U8_I16_Horizontal(int reps) {
-		for( int i = 0; i < reps; i++ )
-			ImplConvolveBox.horizontal(input_I8, out_I16, radius);
-		return 0;
+	@Benchmark
+	public void box_U8_I16_Horizontal() {
+		ImplConvolveBox.horizontal(input_I8, out_I16, radius);
 	}
 
-	public int timeBox_U8_I32_Horizontal(int reps) {
-		for( int i = 0; i < reps; i++ )
-			ImplConvolveBox.horizontal(input_I8,out_I32,radius);
-		return 0;
+	@Benchmark
+	public void box_U8_I32_Horizontal() {
+		ImplConvolveBox.horizontal(input_I8,out_I32,radius);
 	}
 
-	public int timeBox_S16_I16_Horizontal(int reps) {
-		for( int i = 0; i < reps; i++ )
-			ImplConvolveBox.horizontal(input_I16,out_I16,radius);
-		return 0;
+	@Benchmark
+	public void box_S16_I16_Horizontal() {
+		ImplConvolveBox.horizontal(input_I16,out_I16,radius);
 	}
 
-	public int timeBox_F32_F32_Horizontal(int reps) {
-		for( int i = 0; i < reps; i++ )
-			ImplConvolveBox.horizontal(input_F32,out_F32,radius);
-		return 0;
+	@Benchmark
+	public void box_F32_F32_Horizontal() {
+		ImplConvolveBox.horizontal(input_F32,out_F32,radius);
 	}
 
-//	public static void main( String args[] ) {
-//		Runner.main(BenchmarkConvolveBox.class, args);
-//	}
+	public static void main( String args[] ) throws RunnerException {
+		Options opt = new OptionsBuilder()
+				.include(BenchmarkConvolveBox.class.getSimpleName())
+				.build();
+
+		new Runner(opt).run();
+	}
 }
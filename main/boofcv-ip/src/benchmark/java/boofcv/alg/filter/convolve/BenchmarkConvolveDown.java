@@ -32,35 +32,47 @@ import boofcv.struct.image.GrayF32;
 import boofcv.struct.image.GrayS16;
 import boofcv.struct.image.GrayS32;
 import boofcv.struct.image.GrayU8;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
 
 import java.util.Random;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Benchmark for different convolution operations.
  * @author Peter Abeles
  */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@State(Scope.Benchmark)
+@Fork(value=1)
 @SuppressWarnings({"UnusedDeclaration"})
 public class BenchmarkConvolveDown {
-	static int imgWidth = 640;
-	static int imgHeight = 480;
-	static int skip = 2;
-
-	static Kernel2D_F32 kernel2D_F32;
-	static Kernel1D_F32 kernelF32;
-	static GrayF32 imgFloat32;
-	static GrayF32 out_F32_D;
-	static GrayF32 out_F32;
-	static Kernel1D_S32 kernelI32;
-	static Kernel2D_S32 kernel2D_I32;
-	static GrayU8 imgInt8;
-	static GrayS16 imgInt16;
-	static GrayU8 out_I8;
-	static GrayS16 out_I16;
-	static GrayS32 out_I32;
+	int imgWidth = 640;
+	int imgHeight = 480;
+	int skip = 2;
+
+	Kernel2D_F32 kernel2D_F32;
+	Kernel1D_F32 kernelF32;
+	GrayF32 imgFloat32;
+	GrayF32 out_F32_D;
+	GrayF32 out_F32;
+	Kernel1D_S32 kernelI32;
+	Kernel2D_S32 kernel2D_I32;
+	GrayU8 imgInt8;
+	GrayS16 imgInt16;
+	GrayU8 out_I8;
+	GrayS16 out_I16;
+	GrayS32 out_I32;
 
 	// iterate through different sized kernel radius
-//	@Param({"1", "2", "3", "5","10"})
-	private int radius;
+	@Param({"1", "2", "3", "5"})
+	public int radius;
 
 	public BenchmarkConvolveDown() {
 		int outWidth = imgWidth/skip;
@@ -81,81 +93,74 @@ public class BenchmarkConvolveDown {
 		ImageMiscOps.fillUniform(imgFloat32,rand,0,200);
 	}
 
-	protected void setUp() throws Exception {
+	@Setup
+	public void setup() {
 		kernelF32 = FactoryKernelGaussian.gaussian(Kernel1D_F32.class, -1, radius);
 		kernelI32 = FactoryKernelGaussian.gaussian(Kernel1D_S32.class,-1,radius);
 		kernel2D_F32 = FactoryKernelGaussian.gaussian(Kernel2D_F32.class,-1,radius);
 		kernel2D_I32 = FactoryKernelGaussian.gaussian(Kernel2D_S32.class, -1, radius);
 	}
 
-	public int timeHorizontalStandard_F32(int reps) {
-		for( int i = 0; i < reps; i++ )
-			ConvolveDownNoBorderStandard.horizontal(kernelF32,imgFloat32,out_F32,skip);
-		return 0;
+	@Benchmark
+	public void horizontalStandard_F32() {
+		ConvolveDownNoBorderStandard.horizontal(kernelF32,imgFloat32,out_F32,skip);
 	}
 
-	public int timeHorizontalUnrolled_F32(int reps) {
-		for( int i = 0; i < reps; i++ )
-			if( !ConvolveDownNoBorderUnrolled_F32_F32.horizontal(kernelF32,imgFloat32,out_F32,skip) )
-				throw new RuntimeException();
-		return 0;
+	@Benchmark
+	public void horizontalUnrolled_F32() {
+		if( !ConvolveDownNoBorderUnrolled_F32_F32.horizontal(kernelF32,imgFloat32,out_F32,skip) )
+			throw new RuntimeException();
 	}
 
-	public int timeVerticalStandard_F32(int reps) {
-		for( int i = 0; i < reps; i++ )
-			ConvolveDownNoBorderStandard.vertical(kernelF32,imgFloat32,out_F32,skip);
-		return 0;
+	@Benchmark
+	public void verticalStandard_F32() {
+		ConvolveDownNoBorderStandard.vertical(kernelF32,imgFloat32,out_F32,skip);
 	}
 
-	public int timeVerticalUnrolled_F32(int reps) {
-		for( int i = 0; i < reps; i++ )
-			if( !ConvolveDownNoBorderUnrolled_F32_F32.vertical(kernelF32,imgFloat32,out_F32,skip) )
-				throw new RuntimeException();
-		return 0;
+	@Benchmark
+	public void verticalUnrolled_F32() {
+		if( !ConvolveDownNoBorderUnrolled_F32_F32.vertical(kernelF32,imgFloat32,out_F32,skip) )
+			throw new RuntimeException();
 	}
 
-	public int timeConvolve2DStandard_F32(int reps) {
-		for( int i = 0; i < reps; i++ )
-			ConvolveDownNoBorderStandard.convolve(kernel2D_F32,imgFloat32,out_F32,skip);
-		return 0;
+	@Benchmark
+	public void convolve2DStandard_F32() {
+		ConvolveDownNoBorderStandard.convolve(kernel2D_F32,imgFloat32,out_F32,skip);
 	}
 
-	public int timeConvolve2DUnrolled_F32(int reps) {
-		for( int i = 0; i < reps; i++ )
-			if( !ConvolveDownNoBorderUnrolled_F32_F32.convolve(kernel2D_F32,imgFloat32,out_F32,skip) )
-				throw new RuntimeException();
-		return 0;
+	@Benchmark
+	public void convolve2DUnrolled_F32() {
+		if( !ConvolveDownNoBorderUnrolled_F32_F32.convolve(kernel2D_F32,imgFloat32,out_F32,skip) )
+			throw new RuntimeException();
 	}
 
-	public int timeVerticalStandard_U8_I16(int reps) {
-		for( int i = 0; i < reps; i++ )
-			ConvolveDownNoBorderStandard.vertical(kernelI32,imgInt8,out_I16,skip);
-		return 0;
+	@Benchmark
+	public void verticalStandard_U8_I16() {
+		ConvolveDownNoBorderStandard.vertical(kernelI32,imgInt8,out_I16,skip);
 	}
 
-	public int timeVerticalUnrolled_U8_I16(int reps) {
-		for( int i = 0; i < reps; i++ )
-			if( !ConvolveDownNoBorderUnrolled_U8_I16.vertical(kernelI32,imgInt8,out_I16,skip) )
-				throw new RuntimeException();
-		return 0;
+	@Benchmark
+	public void verticalUnrolled_U8_I16() {
+		if( !ConvolveDownNoBorderUnrolled_U8_I16.vertical(kernelI32,imgInt8,out_I16,skip) )
+			throw new RuntimeException();
 	}
 
-	public int timeVerticalStandard_U8_I8_Div(int reps) {
-		for( int i = 0; i < reps; i++ )
-			ConvolveDownNoBorderStandard.vertical(kernelI32,imgInt8,out_I8,skip,10);
-		return 0;
+	@Benchmark
+	public void verticalStandard_U8_I8_Div() {
+		ConvolveDownNoBorderStandard.vertical(kernelI32,imgInt8,out_I8,skip,10);
 	}
 
-	public int timeVerticalUnrolled_U8_I8_Div(int reps) {
-		for( int i = 0; i < reps; i++ )
-			if( !ConvolveDownNoBorderUnrolled_U8_I8_Div.vertical(kernelI32,imgInt8,out_I8,skip,10) )
-				throw new RuntimeException();
-		return 0;
+	@Benchmark
+	public void verticalUnrolled_U8_I8_Div() {
+		if( !ConvolveDownNoBorderUnrolled_U8_I8_Div.vertical(kernelI32,imgInt8,out_I8,skip,10) )
+			throw new RuntimeException();
 	}
 
-	public static void main( String args[] ) {
-		System.out.println("=========  Profile Image Size "+ imgWidth +" x "+ imgHeight +" ==========");
+	public static void main( String args[] ) throws RunnerException {
+		Options opt = new OptionsBuilder()
+				.include(BenchmarkConvolveDown.class.getSimpleName())
+				.build();
 
-//		Runner.main(BenchmarkConvolveDown.class, args);
+		new Runner(opt).run();
 	}
 }
@@ -29,36 +29,47 @@ import boofcv.struct.image.GrayF32;
 import boofcv.struct.image.GrayS16;
 import boofcv.struct.image.GrayS32;
 import boofcv.struct.image.GrayU8;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
 
 import java.util.Random;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Benchmark for different convolution operations.
  * @author Peter Abeles
  */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@State(Scope.Benchmark)
+@Fork(value=1)
 @SuppressWarnings({"UnusedDeclaration"})
 public class BenchmarkConvolveDownNormalized {
-	static int imgWidth = 640;
-	static int imgHeight = 480;
-	static int skip = 2;
-	static long TEST_TIME = 1000;
-
-	static Kernel2D_F32 kernel2D_F32;
-	static Kernel1D_F32 kernelF32;
-	static GrayF32 imgFloat32;
-	static GrayF32 out_F32_D;
-	static GrayF32 out_F32;
-	static Kernel1D_S32 kernelI32;
-	static Kernel2D_S32 kernel2D_I32;
-	static GrayU8 imgInt8;
-	static GrayS16 imgInt16;
-	static GrayU8 out_I8;
-	static GrayS16 out_I16;
-	static GrayS32 out_I32;
+	int imgWidth = 640;
+	int imgHeight = 480;
+	int skip = 2;
+
+	Kernel2D_F32 kernel2D_F32;
+	Kernel1D_F32 kernelF32;
+	GrayF32 imgFloat32;
+	GrayF32 out_F32_D;
+	GrayF32 out_F32;
+	Kernel1D_S32 kernelI32;
+	Kernel2D_S32 kernel2D_I32;
+	GrayU8 imgInt8;
+	GrayS16 imgInt16;
+	GrayU8 out_I8;
+	GrayS16 out_I16;
+	GrayS32 out_I32;
 
 	// iterate through different sized kernel radius
-//	@Param({"1", "2", "3", "5","10"})
-	private int radius;
+	@Param({"1", "2", "3", "5","10"})
+	public int radius;
 
 	public BenchmarkConvolveDownNormalized() {
 		int outWidth = imgWidth/skip;
@@ -79,68 +90,64 @@ public class BenchmarkConvolveDownNormalized {
 		ImageMiscOps.fillUniform(imgFloat32,rand,0,200);
 	}
 
-	protected void setUp() throws Exception {
+	@Setup
+	public void setup() {
 		kernelF32 = FactoryKernelGaussian.gaussian(Kernel1D_F32.class, -1, radius);
 		kernelI32 = FactoryKernelGaussian.gaussian(Kernel1D_S32.class,-1,radius);
 		kernel2D_F32 = FactoryKernelGaussian.gaussian(Kernel2D_F32.class,-1,radius);
 		kernel2D_I32 = FactoryKernelGaussian.gaussian(Kernel2D_S32.class, -1, radius);
 	}
 
-	public int timeHorizontal_Naive_F32(int reps) {
-		for( int i = 0; i < reps; i++ )
-			ConvolveDownNormalizedNaive.horizontal(kernelF32,imgFloat32,out_F32,skip);
-		return 0;
+	@Benchmark
+	public void horizontal_Naive_F32() {
+		ConvolveDownNormalizedNaive.horizontal(kernelF32,imgFloat32,out_F32,skip);
 	}
 
-	public int timeHorizontal_NoBorder_F32(int reps) {
-		for( int i = 0; i < reps; i++ )
-			ConvolveImageDownNoBorder.horizontal(kernelF32,imgFloat32,out_F32,skip);
-		return 0;
+	@Benchmark
+	public void horizontal_NoBorder_F32() {
+		ConvolveImageDownNoBorder.horizontal(kernelF32,imgFloat32,out_F32,skip);
 	}
 
-	public int timeHorizontal_F32(int reps) {
-		for( int i = 0; i < reps; i++ )
-			ConvolveImageDownNormalized.horizontal(kernelF32,imgFloat32,out_F32,skip);
-		return 0;
+	@Benchmark
+	public void horizontal_F32() {
+		ConvolveImageDownNormalized.horizontal(kernelF32,imgFloat32,out_F32,skip);
 	}
 
-	public int timeVertical_Naive_F32(int reps) {
-		for( int i = 0; i < reps; i++ )
-			ConvolveDownNormalizedNaive.vertical(kernelF32, imgFloat32, out_F32, skip);
-		return 0;
+	@Benchmark
+	public void vertical_Naive_F32() {
+		ConvolveDownNormalizedNaive.vertical(kernelF32, imgFloat32, out_F32, skip);
 	}
 
-	public int timeVertical_NoBorder_F32(int reps) {
-		for( int i = 0; i < reps; i++ )
-			ConvolveImageDownNoBorder.vertical(kernelF32,imgFloat32,out_F32,skip);
-		return 0;
+	@Benchmark
+	public void vertical_NoBorder_F32() {
+		ConvolveImageDownNoBorder.vertical(kernelF32,imgFloat32,out_F32,skip);
 	}
 
-	public int timeVertical_F32(int reps) {
-		for( int i = 0; i < reps; i++ )
-			ConvolveImageDownNormalized.vertical(kernelF32,imgFloat32,out_F32,skip);
-		return 0;
+	@Benchmark
+	public void vertical_F32() {
+		ConvolveImageDownNormalized.vertical(kernelF32,imgFloat32,out_F32,skip);
 	}
 
-	public int timeConvolve_Naive_F32(int reps) {
-		for( int i = 0; i < reps; i++ )
-			ConvolveDownNormalizedNaive.convolve(kernel2D_F32, imgFloat32, out_F32, skip);
-		return 0;
+	@Benchmark
+	public void convolve_Naive_F32() {
+		ConvolveDownNormalizedNaive.convolve(kernel2D_F32, imgFloat32, out_F32, skip);
 	}
 
-	public int timeConvolve_NoBorder_F32(int reps) {
-		for( int i = 0; i < reps; i++ )
-			ConvolveImageDownNoBorder.convolve(kernel2D_F32,imgFloat32,out_F32,skip);
-		return 0;
+	@Benchmark
+	public void convolve_NoBorder_F32() {
+		ConvolveImageDownNoBorder.convolve(kernel2D_F32,imgFloat32,out_F32,skip);
 	}
 
-	public int timeConvolve_F32(int reps) {
-		for( int i = 0; i < reps; i++ )
-			ConvolveImageDownNormalized.convolve(kernel2D_F32,imgFloat32,out_F32,skip);
-		return 0;
+	@Benchmark
+	public void convolve_F32() {
+		ConvolveImageDownNormalized.convolve(kernel2D_F32,imgFloat32,out_F32,skip);
 	}
 
-	public static void main( String args[] ) {
-		System.out.println("=========  Profile Image Size "+ imgWidth +" x "+ imgHeight +" ==========");
+	public static void main( String args[] ) throws RunnerException {
+		Options opt = new OptionsBuilder()
+				.include(BenchmarkConvolveDownNormalized.class.getSimpleName())
+				.build();
+
+		new Runner(opt).run();
 	}
 }
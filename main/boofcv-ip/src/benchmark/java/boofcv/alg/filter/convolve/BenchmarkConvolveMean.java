@@ -30,33 +30,45 @@ import boofcv.struct.image.GrayF32;
 import boofcv.struct.image.GrayS16;
 import boofcv.struct.image.GrayU8;
 import boofcv.struct.image.ImageType;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
 
 import java.util.Random;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Benchmark for different convolution operations.
  * @author Peter Abeles
  */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@State(Scope.Benchmark)
+@Fork(value=1)
 @SuppressWarnings({"UnusedDeclaration"})
 public class BenchmarkConvolveMean {
-	static private int width = 640;
-	static private int height = 480;
-	static private Random rand = new Random(234);
+	int width = 640;
+	int height = 480;
+	Random rand = new Random(234);
 
-	static private Kernel1D_F32 kernelF32;
-	static private GrayF32 input_F32 = new GrayF32(width,height);
-	static private GrayF32 out_F32 = new GrayF32(width,height);
-	static private GrayF32 storageF32 = new GrayF32(width,height);
-	static private Kernel1D_S32 kernelI32;
-	static private GrayU8 input_I8 = new GrayU8(width,height);
-	static private GrayS16 input_I16 = new GrayS16(width,height);
-	static private GrayU8 out_I8 = new GrayU8(width,height);
+	Kernel1D_F32 kernelF32;
+	GrayF32 input_F32 = new GrayF32(width,height);
+	GrayF32 out_F32 = new GrayF32(width,height);
+	GrayF32 storageF32 = new GrayF32(width,height);
+	Kernel1D_S32 kernelI32;
+	GrayU8 input_I8 = new GrayU8(width,height);
+	GrayS16 input_I16 = new GrayS16(width,height);
+	GrayU8 out_I8 = new GrayU8(width,height);
 
-	static private BlurFilter<GrayF32> filter;
+	BlurFilter<GrayF32> filter;
 
 	// iterate through different sized kernel radius
-//	@Param({"1", "2", "3", "5","10"})
-	private int radius;
+	@Param({"1", "2", "3", "5","10"})
+	public int radius;
 
 	public BenchmarkConvolveMean() {
 		ImageMiscOps.fillUniform(input_I8,rand,0,20);
@@ -64,57 +76,53 @@ public class BenchmarkConvolveMean {
 		ImageMiscOps.fillUniform(input_F32,rand,0,20);
 	}
 
-	protected void setUp() throws Exception {
+	@Setup
+	public void setup() {
 		filter = FactoryBlurFilter.mean(ImageType.single(GrayF32.class),radius);
 		kernelF32 = FactoryKernel.table1D_F32(radius, true);
 		kernelI32 = FactoryKernel.table1D_I32(radius);
 	}
 
-	public int timeConvolve_Vertical_U8_I8(int reps) {
-		for( int i = 0; i < reps; i++ )
-			ConvolveImageNoBorder.vertical(kernelI32, input_I8,out_I8,radius*2+1);
-		return 0;
+	@Benchmark
+	public void convolve_Vertical_U8_I8() {
+		ConvolveImageNoBorder.vertical(kernelI32, input_I8,out_I8,radius*2+1);
 	}
 
-	public int timeConvolve_Horizontal_U8_I8(int reps) {
-		for( int i = 0; i < reps; i++ )
-			ConvolveImageNoBorder.horizontal(kernelI32, input_I8, out_I8, radius * 2 + 1);
-		return 0;
+	@Benchmark
+	public void convolve_Horizontal_U8_I8() {
+		ConvolveImageNoBorder.horizontal(kernelI32, input_I8, out_I8, radius * 2 + 1);
 	}
 
-	public int timeMean_U8_I8_Vertical(int reps) {
-		for( int i = 0; i < reps; i++ )
-			ImplConvolveMean.vertical(input_I8, out_I8, radius);
-		return 0;
+	@Benchmark
+	public void mean_U8_I8_Vertical() {
+		ImplConvolveMean.vertical(input_I8, out_I8, radius);
 	}
 
-	public int timeMean_F32_F32_Vertical(int reps) {
-		for( int i = 0; i < reps; i++ )
-			ImplConvolveMean.vertical(input_F32,out_F32,radius);
-		return 0;
+	@Benchmark
+	public void mean_F32_F32_Vertical() {
+		ImplConvolveMean.vertical(input_F32,out_F32,radius);
 	}
 
-	public int timeMean_F32_F32_Horizontal(int reps) {
-		for( int i = 0; i < reps; i++ )
-			ImplConvolveMean.horizontal(input_F32, out_F32, radius);
-		return 0;
+	@Benchmark
+	public void mean_F32_F32_Horizontal() {
+		ImplConvolveMean.horizontal(input_F32, out_F32, radius);
 	}
 
-	public int timeMean_F32_F32_Blur(int reps) {
-		for( int i = 0; i < reps; i++ )
-			BlurImageOps.mean(input_F32, out_F32, radius, storageF32);
-		return 0;
+	@Benchmark
+	public void mean_F32_F32_Blur() {
+		BlurImageOps.mean(input_F32, out_F32, radius, storageF32);
 	}
 
-	public int timeMean_F32_F32_BlurAbst(int reps) {
-		for( int i = 0; i < reps; i++ )
-			filter.process(input_F32, out_F32);
-		return 0;
+	@Benchmark
+	public void mean_F32_F32_BlurAbst() {
+		filter.process(input_F32, out_F32);
 	}
 
-	public static void main( String args[] ) {
-		System.out.println("=========  Profile Image Size "+ width +" x "+ height +" ==========");
+	public static void main( String args[] ) throws RunnerException {
+		Options opt = new OptionsBuilder()
+				.include(BenchmarkConvolveMean.class.getSimpleName())
+				.build();
 
-//		Runner.main(BenchmarkConvolveMean.class, args);
+		new Runner(opt).run();
 	}
 }
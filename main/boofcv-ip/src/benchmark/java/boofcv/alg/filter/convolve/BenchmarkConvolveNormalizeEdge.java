@@ -29,34 +29,46 @@ import boofcv.struct.image.GrayF32;
 import boofcv.struct.image.GrayS16;
 import boofcv.struct.image.GrayS32;
 import boofcv.struct.image.GrayU8;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
 
 import java.util.Random;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Benchmark for different convolution which renormalize along the image edges.
  *
  * @author Peter Abeles
  */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@State(Scope.Benchmark)
+@Fork(value=1)
 @SuppressWarnings({"UnusedDeclaration"})
 public class BenchmarkConvolveNormalizeEdge {
-	static private int imgWidth = 640;
-	static private int imgHeight = 480;
-
-	static private Kernel2D_F32 kernel2D_F32;
-	static private Kernel1D_F32 kernelF32;
-	static private GrayF32 imgFloat32;
-	static private GrayF32 out_F32;
-	static private Kernel1D_S32 kernelI32;
-	static private Kernel2D_S32 kernel2D_I32;
-	static private GrayU8 imgInt8;
-	static private GrayS16 imgInt16;
-	static private GrayU8 out_I8;
-	static private GrayS16 out_I16;
-	static private GrayS32 out_I32;
+	int imgWidth = 640;
+	int imgHeight = 480;
+
+	Kernel2D_F32 kernel2D_F32;
+	Kernel1D_F32 kernelF32;
+	GrayF32 imgFloat32;
+	GrayF32 out_F32;
+	Kernel1D_S32 kernelI32;
+	Kernel2D_S32 kernel2D_I32;
+	GrayU8 imgInt8;
+	GrayS16 imgInt16;
+	GrayU8 out_I8;
+	GrayS16 out_I16;
+	GrayS32 out_I32;
 
 	// iterate through different sized kernel radius
-//	@Param({"1", "2", "3", "5","10"})
-	private int radius;
+	@Param({"1", "2", "3", "5","10"})
+	public int radius;
 
 	public BenchmarkConvolveNormalizeEdge() {
 		imgInt8 = new GrayU8(imgWidth,imgHeight);
@@ -73,58 +85,54 @@ public class BenchmarkConvolveNormalizeEdge {
 		ImageMiscOps.fillUniform(imgFloat32,rand,0,200);
 	}
 
-	protected void setUp() throws Exception {
+	@Setup
+	public void setup() {
 		kernelF32 = FactoryKernelGaussian.gaussian(Kernel1D_F32.class, -1, radius);
 		kernelI32 = FactoryKernelGaussian.gaussian(Kernel1D_S32.class, -1, radius);
 		kernel2D_F32 = FactoryKernelGaussian.gaussian(Kernel2D_F32.class,-1,radius);
 		kernel2D_I32 = FactoryKernelGaussian.gaussian(Kernel2D_S32.class, -1, radius);
 	}
 
-	public int timeHorizontal_Naive_F32(int reps) {
-		for( int i = 0; i < reps; i++ )
-			ConvolveNormalizedNaive_SB.horizontal(kernelF32, imgFloat32, out_F32);
-		return 0;
+	@Benchmark
+	public void horizontal_Naive_F32() {
+		ConvolveNormalizedNaive_SB.horizontal(kernelF32, imgFloat32, out_F32);
 	}
 
-	public int timeHorizontal_F32(int reps) {
-		for( int i = 0; i < reps; i++ )
-			ConvolveImageNormalized.horizontal(kernelF32,imgFloat32,out_F32);
-		return 0;
+	@Benchmark
+	public void horizontal_F32() {
+		ConvolveImageNormalized.horizontal(kernelF32,imgFloat32,out_F32);
 	}
 
-	public int timeHorizontal_I8(int reps) {
-		for( int i = 0; i < reps; i++ )
-			ConvolveImageNormalized.horizontal(kernelI32,imgInt8,out_I8);
-		return 0;
+	@Benchmark
+	public void horizontal_I8() {
+		ConvolveImageNormalized.horizontal(kernelI32,imgInt8,out_I8);
 	}
 
-	public int timeHorizontal_I16(int reps) {
-		for( int i = 0; i < reps; i++ )
-			ConvolveImageNormalized.horizontal(kernelI32,imgInt16,out_I16);
-		return 0;
+	@Benchmark
+	public void horizontal_I16() {
+		ConvolveImageNormalized.horizontal(kernelI32,imgInt16,out_I16);
 	}
 
-	public int timeVertical_F32(int reps) {
-		for( int i = 0; i < reps; i++ )
-			ConvolveImageNormalized.vertical(kernelF32, imgFloat32, out_F32);
-		return 0;
+	@Benchmark
+	public void vertical_F32() {
+		ConvolveImageNormalized.vertical(kernelF32, imgFloat32, out_F32);
 	}
 
-	public int timeVertical_I8(int reps) {
-		for( int i = 0; i < reps; i++ )
-			ConvolveImageNormalized.vertical(kernelI32,imgInt8,out_I8);
-		return 0;
+	@Benchmark
+	public void vertical_I8() {
+		ConvolveImageNormalized.vertical(kernelI32,imgInt8,out_I8);
 	}
 
-	public int timeVertical_I16(int reps) {
-		for( int i = 0; i < reps; i++ )
-			ConvolveImageNormalized.vertical(kernelI32,imgInt16,out_I16);
-		return 0;
+	@Benchmark
+	public void vertical_I16() {
+		ConvolveImageNormalized.vertical(kernelI32,imgInt16,out_I16);
 	}
 
-	public static void main( String args[] ) {
-		System.out.println("=========  Profile Image Size "+ imgWidth +" x "+ imgHeight +" ==========");
+	public static void main( String args[] ) throws RunnerException {
+		Options opt = new OptionsBuilder()
+				.include(BenchmarkConvolveNormalizeEdge.class.getSimpleName())
+				.build();
 
-//		Runner.main(BenchmarkConvolveMean.class, args);
+		new Runner(opt).run();
 	}
 }
@@ -18,74 +18,89 @@
 
 package boofcv.alg.filter.derivative;
 
-import boofcv.misc.PerformerBase;
-import boofcv.misc.ProfileOperation;
+import boofcv.alg.misc.GImageMiscOps;
+import boofcv.core.image.GeneralizedImageOps;
+import boofcv.core.image.border.*;
 import boofcv.struct.image.GrayF32;
 import boofcv.struct.image.GrayS16;
+import boofcv.struct.image.GrayU8;
+import boofcv.struct.image.ImageGray;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
 
 /**
- * Benchmarks related to computing image derivatives
+ * Compares computing the Sobel hessian directly from the image against computing it from the gradient
  * 
  * @author Peter Abeles
  */
-public class BenchmarkHessianSobel extends BenchmarkDerivativeBase {
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@State(Scope.Benchmark)
+@Fork(value=1)
+public class BenchmarkHessianSobel {
 
-	static GrayF32 tempA_F32 = new GrayF32(imgWidth,imgHeight);
-	static GrayF32 tempB_F32 = new GrayF32(imgWidth,imgHeight);
-	static GrayS16 tempA_I16 = new GrayS16(imgWidth,imgHeight);
-	static GrayS16 tempB_I16 = new GrayS16(imgWidth,imgHeight);
+	@Param({"640","1920"})
+	public int size;
 
+	@Param({"GrayU8","GrayF32"})
+	public String imageType;
 
-	public static class Hessian_I8 extends PerformerBase
-	{
-		@Override
-		public void process() {
-			HessianSobel.process(imgInt8,derivX_I16,derivY_I16,derivXY_I16,borderI32);
-		}
-	}
+	ImageBorder_S32 borderI32 = new ImageBorder1D_S32(BorderIndex1D_Extend.class);
+	ImageBorder_F32 borderF32 = new ImageBorder1D_F32(BorderIndex1D_Extend.class);
 
-	public static class Hessian_F32 extends PerformerBase
-	{
-		@Override
-		public void process() {
-			HessianSobel.process(imgFloat32,derivX_F32,derivY_F32,derivXY_F32,borderF32);
-		}
-	}
+	ImageGray input;
+	ImageGray derivXX, derivYY, derivXY;
+	ImageGray tempA, tempB;
 
-	public static class HessianFromDeriv_I8 extends PerformerBase
-	{
-		@Override
-		public void process() {
-			GradientSobel.process(imgInt8,tempA_I16,tempB_I16,borderI32);
-			HessianFromGradient.hessianSobel(tempA_I16,tempB_I16,derivX_I16,derivY_I16,derivXY_I16,borderI32);
-		}
-	}
+	@Setup
+	public void setup() {
+		Class<ImageGray> inputType = imageType.equals("GrayU8") ? (Class)GrayU8.class : (Class)GrayF32.class;
+		Class<ImageGray> derivType = GImageDerivativeOps.getDerivativeType(inputType);
 
-	public static class HessianFromDeriv_F32 extends PerformerBase
-	{
-		@Override
-		public void process() {
-			GradientSobel.process(imgFloat32,tempA_F32,tempB_F32,borderF32);
-			HessianFromGradient.hessianSobel(tempA_F32,tempB_F32,derivX_F32,derivY_F32,derivXY_F32,borderF32);
-		}
+		input = GeneralizedImageOps.createSingleBand(inputType, size, size);
+		derivXX = GeneralizedImageOps.createSingleBand(derivType, size, size);
+		derivYY = GeneralizedImageOps.createSingleBand(derivType, size, size);
+		derivXY = GeneralizedImageOps.createSingleBand(derivType, size, size);
+		tempA = GeneralizedImageOps.createSingleBand(derivType, size, size);
+		tempB = GeneralizedImageOps.createSingleBand(derivType, size, size);
+
+		GImageMiscOps.fillUniform(input, new Random(234), 0, 100);
 	}
 
-	@Override
-	public void profile_I8() {
-		ProfileOperation.printOpsPerSec(new Hessian_I8(),TEST_TIME);
-		ProfileOperation.printOpsPerSec(new HessianFromDeriv_I8(),TEST_TIME);
+	@Benchmark
+	public void hessian() {
+		if( input instanceof GrayU8 )
+			HessianSobel.process((GrayU8)input,(GrayS16)derivXX,(GrayS16)derivYY,(GrayS16)derivXY,borderI32);
+		else
+			HessianSobel.process((GrayF32)input,(GrayF32)derivXX,(GrayF32)derivYY,(GrayF32)derivXY,borderF32);
 	}
 
-	@Override
-	public void profile_F32() {
-		ProfileOperation.printOpsPerSec(new Hessian_F32(),TEST_TIME);
-		ProfileOperation.printOpsPerSec(new HessianFromDeriv_F32(),TEST_TIME);
+	@Benchmark
+	public void fromGradient() {
+		if( input instanceof GrayU8 ) {
+			GradientSobel.process((GrayU8)input,(GrayS16)tempA,(GrayS16)tempB,borderI32);
+			HessianFromGradient.hessianSobel((GrayS16)tempA,(GrayS16)tempB,
+					(GrayS16)derivXX,(GrayS16)derivYY,(GrayS16)derivXY,borderI32);
+		} else {
+			GradientSobel.process((GrayF32)input,(GrayF32)tempA,(GrayF32)tempB,borderF32);
+			HessianFromGradient.hessianSobel((GrayF32)tempA,(GrayF32)tempB,
+					(GrayF32)derivXX,(GrayF32)derivYY,(GrayF32)derivXY,borderF32);
+		}
 	}
 
-	public static void main( String args[] ) {
-		BenchmarkHessianSobel benchmark = new BenchmarkHessianSobel();
+	public static void main( String args[] ) throws RunnerException {
+		Options opt = new OptionsBuilder()
+				.include(BenchmarkHessianSobel.class.getSimpleName())
+				.build();
 
-		BenchmarkHessianSobel.border = true;
-		benchmark.process();
+		new Runner(opt).run();
 	}
 }
@@ -18,154 +18,113 @@
 
 package boofcv.alg.filter.derivative;
 
-import boofcv.alg.filter.derivative.impl.HessianThree_Standard;
-import boofcv.misc.PerformerBase;
-import boofcv.misc.ProfileOperation;
+import boofcv.alg.misc.GImageMiscOps;
+import boofcv.core.image.GeneralizedImageOps;
+import boofcv.core.image.border.*;
+import boofcv.struct.image.GrayF32;
+import boofcv.struct.image.GrayS16;
+import boofcv.struct.image.GrayU8;
+import boofcv.struct.image.ImageGray;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
 
 /**
- * Benchmarks related to computing image derivatives
+ * Compares the speed of the different types of image derivatives
  * 
  * @author Peter Abeles
  */
-public class BenchmarkImageDerivative extends BenchmarkDerivativeBase {
-
-	public static class Sobel_I8 extends PerformerBase
-	{
-		@Override
-		public void process() {
-			GradientSobel.process(imgInt8,derivX_I16,derivY_I16,borderI32);
-		}
-	}
-
-	public static class Sobel_F32 extends PerformerBase
-	{
-		@Override
-		public void process() {
-			GradientSobel.process(imgFloat32,derivX_F32,derivY_F32,borderF32);
-		}
-	}
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@State(Scope.Benchmark)
+@Fork(value=1)
+public class BenchmarkImageDerivative {
 
-	public static class DerivativeThree_F32 extends PerformerBase
-	{
-		@Override
-		public void process() {
-			GradientThree.process(imgFloat32,derivX_F32,derivY_F32,borderF32);
-		}
-	}
-
-	public static class DerivativeThree_I8 extends PerformerBase
-	{
-		@Override
-		public void process() {
-			GradientThree.process(imgInt8,derivX_I16,derivY_I16,borderI32);
-		}
-	}
+	@Param({"640","1920"})
+	public int size;
 
-	public static class HessianThree_Std_I8 extends PerformerBase
-	{
-		@Override
-		public void process() {
-			HessianThree_Standard.process(imgInt8,derivX_I16,derivY_I16,derivXY_I16);
-		}
-	}
+	@Param({"GrayU8","GrayF32"})
+	public String imageType;
 
-	public static class HessianThree_I8 extends PerformerBase
-	{
-		@Override
-		public void process() {
-			HessianThree.process(imgInt8,derivX_I16,derivY_I16,derivXY_I16,borderI32);
-		}
-	}
+	ImageBorder_S32 borderI32 = new ImageBorder1D_S32(BorderIndex1D_Extend.class);
+	ImageBorder_F32 borderF32 = new ImageBorder1D_F32(BorderIndex1D_Extend.class);
 
-	public static class HessianThree_Std_F32 extends PerformerBase
-	{
-		@Override
-		public void process() {
-			HessianThree_Standard.process(imgFloat32,derivX_F32,derivY_F32,derivXY_F32);
-		}
-	}
+	ImageGray input;
+	ImageGray derivX, derivY, derivXY;
 
-	public static class HessianThree_F32 extends PerformerBase
-	{
-		@Override
-		public void process() {
-			HessianThree.process(imgFloat32,derivX_F32,derivY_F32,derivXY_F32,borderF32);
-		}
-	}
+	@Setup
+	public void setup() {
+		Class<ImageGray> inputType = imageType.equals("GrayU8") ? (Class)GrayU8.class : (Class)GrayF32.class;
+		Class<ImageGray> derivType = GImageDerivativeOps.getDerivativeType(inputType);
 
-	public static class HessianSobel_I8 extends PerformerBase
-	{
-		@Override
-		public void process() {
-			HessianSobel.process(imgInt8,derivX_I16,derivY_I16,derivXY_I16,borderI32);
-		}
-	}
+		input = GeneralizedImageOps.createSingleBand(inputType, size, size);
+		derivX = GeneralizedImageOps.createSingleBand(derivType, size, size);
+		derivY = GeneralizedImageOps.createSingleBand(derivType, size, size);
+		derivXY = GeneralizedImageOps.createSingleBand(derivType, size, size);
 
-	public static class HessianSobel_F32 extends PerformerBase
-	{
-		@Override
-		public void process() {
-			HessianSobel.process(imgFloat32,derivX_F32,derivY_F32,derivXY_F32,borderF32);
-		}
+		GImageMiscOps.fillUniform(input, new Random(234), 0, 100);
 	}
 
-	public static class LaplacianEdge_F32 extends PerformerBase
-	{
-		@Override
-		public void process() {
-			LaplacianEdge.process(imgFloat32,derivX_F32);
-		}
+	@Benchmark
+	public void sobel() {
+		if( input instanceof GrayU8 )
+			GradientSobel.process((GrayU8)input,(GrayS16)derivX,(GrayS16)derivY,borderI32);
+		else
+			GradientSobel.process((GrayF32)input,(GrayF32)derivX,(GrayF32)derivY,borderF32);
 	}
 
-	public static class LaplacianEdge_I8 extends PerformerBase
-	{
-		@Override
-		public void process() {
-			LaplacianEdge.process(imgInt8,derivX_I16);
-		}
+	@Benchmark
+	public void prewitt() {
+		if( input instanceof GrayU8 )
+			GradientPrewitt.process((GrayU8)input,(GrayS16)derivX,(GrayS16)derivY,borderI32);
+		else
+			GradientPrewitt.process((GrayF32)input,(GrayF32)derivX,(GrayF32)derivY,borderF32);
 	}
 
-	public static class Prewitt_I8 extends PerformerBase
-	{
-		@Override
-		public void process() {
-			GradientPrewitt.process(imgInt8,derivX_I16,derivY_I16,borderI32);
-		}
+	@Benchmark
+	public void three() {
+		if( input instanceof GrayU8 )
+			GradientThree.process((GrayU8)input,(GrayS16)derivX,(GrayS16)derivY,borderI32);
+		else
+			GradientThree.process((GrayF32)input,(GrayF32)derivX,(GrayF32)derivY,borderF32);
 	}
 
-	public static class Prewitt_F32 extends PerformerBase
-	{
-		@Override
-		public void process() {
-			GradientPrewitt.process(imgFloat32,derivX_F32,derivY_F32,borderF32);
-		}
+	@Benchmark
+	public void hessianThree() {
+		if( input instanceof GrayU8 )
+			HessianThree.process((GrayU8)input,(GrayS16)derivX,(GrayS16)derivY,(GrayS16)derivXY,borderI32);
+		else
+			HessianThree.process((GrayF32)input,(GrayF32)derivX,(GrayF32)derivY,(GrayF32)derivXY,borderF32);
 	}
 
-	@Override
-	public void profile_I8() {
-		ProfileOperation.printOpsPerSec(new Sobel_I8(),TEST_TIME);
-		ProfileOperation.printOpsPerSec(new Prewitt_I8(),TEST_TIME);
-		ProfileOperation.printOpsPerSec(new DerivativeThree_I8(),TEST_TIME);
-		ProfileOperation.printOpsPerSec(new HessianThree_I8(),TEST_TIME);
-		ProfileOperation.printOpsPerSec(new HessianSobel_I8(),TEST_TIME);
-		ProfileOperation.printOpsPerSec(new LaplacianEdge_I8(),TEST_TIME);
+	@Benchmark
+	public void hessianSobel() {
+		if( input instanceof GrayU8 )
+			HessianSobel.process((GrayU8)input,(GrayS16)derivX,(GrayS16)derivY,(GrayS16)derivXY,borderI32);
+		else
+			HessianSobel.process((GrayF32)input,(GrayF32)derivX,(GrayF32)derivY,(GrayF32)derivXY,borderF32);
 	}
 
-	@Override
-	public void profile_F32() {
-		ProfileOperation.printOpsPerSec(new Sobel_F32(),TEST_TIME);
-		ProfileOperation.printOpsPerSec(new Prewitt_F32(),TEST_TIME);
-		ProfileOperation.printOpsPerSec(new DerivativeThree_F32(),TEST_TIME);
-		ProfileOperation.printOpsPerSec(new HessianThree_F32(),TEST_TIME);
-		ProfileOperation.printOpsPerSec(new HessianSobel_F32(),TEST_TIME);
-		ProfileOperation.printOpsPerSec(new LaplacianEdge_F32(),TEST_TIME);
+	@Benchmark
+	public void laplacian() {
+		if( input instanceof GrayU8 )
+			LaplacianEdge.process((GrayU8)input,(GrayS16)derivX);
+		else
+			LaplacianEdge.process((GrayF32)input,(GrayF32)derivX);
 	}
 
-	public static void main( String args[] ) {
-		BenchmarkImageDerivative benchmark = new BenchmarkImageDerivative();
+	public static void main( String args[] ) throws RunnerException {
+		Options opt = new OptionsBuilder()
+				.include(BenchmarkImageDerivative.class.getSimpleName())
+				.build();
 
-		BenchmarkImageDerivative.border = true;
-		benchmark.process();
+		new Runner(opt).run();
 	}
-
 }
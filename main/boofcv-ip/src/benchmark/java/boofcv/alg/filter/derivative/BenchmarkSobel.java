@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2011-2017, Peter Abeles. All Rights Reserved.
+ * Copyright (c) 2011-2018, Peter Abeles. All Rights Reserved.
  *
  * This file is part of BoofCV (http://boofcv.org).
  *
@@ -21,118 +21,103 @@ package boofcv.alg.filter.derivative;
 import boofcv.alg.filter.derivative.impl.GradientSobel_Naive;
 import boofcv.alg.filter.derivative.impl.GradientSobel_Outer;
 import boofcv.alg.filter.derivative.impl.GradientSobel_UnrolledOuter;
-import boofcv.misc.PerformerBase;
-import boofcv.misc.ProfileOperation;
+import boofcv.alg.misc.GImageMiscOps;
+import boofcv.concurrency.BoofConcurrency;
+import boofcv.core.image.GeneralizedImageOps;
+import boofcv.core.image.border.*;
+import boofcv.struct.image.GrayF32;
+import boofcv.struct.image.GrayS16;
+import boofcv.struct.image.GrayU8;
+import boofcv.struct.image.ImageGray;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
 
 /**
- * Benchmarks related to computing image derivatives
+ * Benchmarks for the different implementations of the Sobel gradient
  * 
  * @author Peter Abeles
  */
-public class BenchmarkSobel extends BenchmarkDerivativeBase{
-
-	public static class Sobel_I8 extends PerformerBase
-	{
-		@Override
-		public void process() {
-			GradientSobel.process(imgInt8,derivX_I16,derivY_I16,borderI32);
-		}
-	}
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@State(Scope.Benchmark)
+@Fork(value=1)
+public class BenchmarkSobel {
 
-	public static class Sobel_F32 extends PerformerBase
-	{
-		@Override
-		public void process() {
-			GradientSobel.process(imgFloat32,derivX_F32,derivY_F32,borderF32);
-		}
-	}
+	@Param({"640","1920"})
+	public int size;
 
-	public static class SobelNaive_I8 extends PerformerBase
-	{
-		@Override
-		public void process() {
-			GradientSobel_Naive.process(imgInt8,derivX_I16,derivY_I16);
-		}
-	}
+	@Param({"GrayU8","GrayF32"})
+	public String imageType;
 
-	public static class SobelNaive_F32 extends PerformerBase
-	{
-		@Override
-		public void process() {
-			GradientSobel_Naive.process(imgFloat32,derivX_F32,derivY_F32);
-		}
-	}
+	@Param({"true","false"})
+	public boolean concurrent;
 
-	public static class SobelOuter_I8 extends PerformerBase
-	{
-		@Override
-		public void process() {
-			GradientSobel_Outer.process_I8(imgInt8,derivX_I16,derivY_I16);
-		}
-	}
+	ImageBorder_S32 borderI32 = new ImageBorder1D_S32(BorderIndex1D_Extend.class);
+	ImageBorder_F32 borderF32 = new ImageBorder1D_F32(BorderIndex1D_Extend.class);
 
-	public static class SobelOuter_I8_Sub extends PerformerBase
-	{
-		@Override
-		public void process() {
-			GradientSobel_Outer.process_I8_sub(imgInt8,derivX_I16,derivY_I16);
-		}
-	}
+	ImageGray input;
+	ImageGray derivX;
+	ImageGray derivY;
 
-	public static class SobelOuter_F32 extends PerformerBase
-	{
-		@Override
-		public void process() {
-			GradientSobel_Outer.process_F32(imgFloat32,derivX_F32,derivY_F32);
-		}
-	}
+	@Setup
+	public void setup() {
+		BoofConcurrency.USE_CONCURRENT = concurrent;
+
+		Class<ImageGray> inputType = imageType.equals("GrayU8") ? (Class)GrayU8.class : (Class)GrayF32.class;
+		Class<ImageGray> derivType = GImageDerivativeOps.getDerivativeType(inputType);
+
+		input = GeneralizedImageOps.createSingleBand(inputType, size, size);
+		derivX = GeneralizedImageOps.createSingleBand(derivType, size, size);
+		derivY = GeneralizedImageOps.createSingleBand(derivType, size, size);
 
-	public static class SobelUnrolledOuter_I8 extends PerformerBase
-	{
-		@Override
-		public void process() {
-			GradientSobel_UnrolledOuter.process_I8(imgInt8,derivX_I16,derivY_I16);
-		}
+		GImageMiscOps.fillUniform(input, new Random(234), 0, 100);
 	}
 
-	public static class SobelUnrolledOuter_F32 extends PerformerBase
-	{
-		@Override
-		public void process() {
-			GradientSobel_UnrolledOuter.process_F32(imgFloat32,derivX_F32,derivY_F32);
-		}
+	@Benchmark
+	public void sobel() {
+		if( input instanceof GrayU8 )
+			GradientSobel.process((GrayU8)input,(GrayS16)derivX,(GrayS16)derivY,borderI32);
+		else
+			GradientSobel.process((GrayF32)input,(GrayF32)derivX,(GrayF32)derivY,borderF32);
 	}
 
-	public static class SobelUnrolledOuter_F32_Sub extends PerformerBase
-	{
-		@Override
-		public void process() {
-			GradientSobel_UnrolledOuter.process_F32_sub(imgFloat32,derivX_F32,derivY_F32);
-		}
+	@Benchmark
+	public void naive() {
+		if( input instanceof GrayU8 )
+			GradientSobel_Naive.process((GrayU8)input,(GrayS16)derivX,(GrayS16)derivY);
+		else
+			GradientSobel_Naive.process((GrayF32)input,(GrayF32)derivX,(GrayF32)derivY);
 	}
 
-	@Override
-	public void profile_I8() {
-		ProfileOperation.printOpsPerSec(new Sobel_I8(),TEST_TIME);
-		ProfileOperation.printOpsPerSec(new SobelNaive_I8(),TEST_TIME);
-		ProfileOperation.printOpsPerSec(new SobelOuter_I8(),TEST_TIME);
-		ProfileOperation.printOpsPerSec(new SobelOuter_I8_Sub(),TEST_TIME);
-		ProfileOperation.printOpsPerSec(new SobelUnrolledOuter_I8(),TEST_TIME);
+	@Benchmark
+	public void outer() {
+		if( input instanceof GrayU8 )
+			GradientSobel_Outer.process_I8((GrayU8)input,(GrayS16)derivX,(GrayS16)derivY);
+		else
+			GradientSobel_Outer.process_F32((GrayF32)input,(GrayF32)derivX,(GrayF32)derivY);
 	}
 
-	@Override
-	public void profile_F32() {
-		ProfileOperation.printOpsPerSec(new Sobel_F32(),TEST_TIME);
-		ProfileOperation.printOpsPerSec(new SobelNaive_F32(),TEST_TIME);
-		ProfileOperation.printOpsPerSec(new SobelOuter_F32(),TEST_TIME);
-		ProfileOperation.printOpsPerSec(new SobelUnrolledOuter_F32(),TEST_TIME);
-		ProfileOperation.printOpsPerSec(new SobelUnrolledOuter_F32_Sub(),TEST_TIME);
+	@Benchmark
+	public void unrolledOuter() {
+		if( input instanceof GrayU8 )
+			GradientSobel_UnrolledOuter.process_I8((GrayU8)input,(GrayS16)derivX,(GrayS16)derivY);
+		else
+			GradientSobel_UnrolledOuter.process_F32((GrayF32)input,(GrayF32)derivX,(GrayF32)derivY);
 	}
 
-	public static void main( String args[] ) {
-		BenchmarkSobel benchmark = new BenchmarkSobel();
+	public static void main( String args[] ) throws RunnerException {
+		Options opt = new OptionsBuilder()
+				.include(BenchmarkSobel.class.getSimpleName())
+				.build();
 
-		BenchmarkSobel.border = true;
-		benchmark.process();
+		new Runner(opt).run();
 	}
 }
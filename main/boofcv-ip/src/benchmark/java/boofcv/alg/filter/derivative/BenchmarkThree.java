@@ -19,64 +19,81 @@
 package boofcv.alg.filter.derivative;
 
 import boofcv.alg.filter.derivative.impl.GradientThree_Standard;
-import boofcv.misc.PerformerBase;
-import boofcv.misc.ProfileOperation;
+import boofcv.alg.misc.GImageMiscOps;
+import boofcv.core.image.GeneralizedImageOps;
+import boofcv.core.image.border.*;
+import boofcv.struct.image.GrayF32;
+import boofcv.struct.image.GrayS16;
+import boofcv.struct.image.GrayU8;
+import boofcv.struct.image.ImageGray;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
 
 /**
- * Benchmarks related to computing image derivatives
+ * Benchmarks for the different implementations of the three tap gradient
  * 
  * @author Peter Abeles
  */
-public class BenchmarkThree extends BenchmarkDerivativeBase {
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@State(Scope.Benchmark)
+@Fork(value=1)
+public class BenchmarkThree {
 
-	public static class Three_I8 extends PerformerBase
-	{
-		@Override
-		public void process() {
-			GradientThree.process(imgInt8,derivX_I16,derivY_I16,borderI32);
-		}
-	}
+	@Param({"640","1920"})
+	public int size;
 
-	public static class Three_F32 extends PerformerBase
-	{
-		@Override
-		public void process() {
-			GradientThree.process(imgFloat32,derivX_F32,derivY_F32,borderF32);
-		}
-	}
+	@Param({"GrayU8","GrayF32"})
+	public String imageType;
 
-	public static class ThreeStandard_I8 extends PerformerBase
-	{
-		@Override
-		public void process() {
-			GradientThree_Standard.process(imgInt8,derivX_I16,derivY_I16);
-		}
-	}
+	ImageBorder_S32 borderI32 = new ImageBorder1D_S32(BorderIndex1D_Extend.class);
+	ImageBorder_F32 borderF32 = new ImageBorder1D_F32(BorderIndex1D_Extend.class);
+
+	ImageGray input;
+	ImageGray derivX;
+	ImageGray derivY;
+
+	@Setup
+	public void setup() {
+		Class<ImageGray> inputType = imageType.equals("GrayU8") ? (Class)GrayU8.class : (Class)GrayF32.class;
+		Class<ImageGray> derivType = GImageDerivativeOps.getDerivativeType(inputType);
+
+		input = GeneralizedImageOps.createSingleBand(inputType, size, size);
+		derivX = GeneralizedImageOps.createSingleBand(derivType, size, size);
+		derivY = GeneralizedImageOps.createSingleBand(derivType, size, size);
 
-	public static class ThreeStandard_F32 extends PerformerBase
-	{
-		@Override
-		public void process() {
-			GradientThree_Standard.process(imgFloat32,derivX_F32,derivY_F32);
-		}
+		GImageMiscOps.fillUniform(input, new Random(234), 0, 100);
 	}
 
-	@Override
-	public void profile_I8() {
-		ProfileOperation.printOpsPerSec(new Three_I8(),TEST_TIME);
-		ProfileOperation.printOpsPerSec(new ThreeStandard_I8(),TEST_TIME);
+	@Benchmark
+	public void three() {
+		if( input instanceof GrayU8 )
+			GradientThree.process((GrayU8)input,(GrayS16)derivX,(GrayS16)derivY,borderI32);
+		else
+			GradientThree.process((GrayF32)input,(GrayF32)derivX,(GrayF32)derivY,borderF32);
 	}
 
-	@Override
-	public void profile_F32() {
-		ProfileOperation.printOpsPerSec(new Three_F32(),TEST_TIME);
-		ProfileOperation.printOpsPerSec(new ThreeStandard_F32(),TEST_TIME);
+	@Benchmark
+	public void standard() {
+		if( input instanceof GrayU8 )
+			GradientThree_Standard.process((GrayU8)input,(GrayS16)derivX,(GrayS16)derivY);
+		else
+			GradientThree_Standard.process((GrayF32)input,(GrayF32)derivX,(GrayF32)derivY);
 	}
 
-	public static void main( String args[] ) {
-		BenchmarkThree benchmark = new BenchmarkThree();
+	public static void main( String args[] ) throws RunnerException {
+		Options opt = new OptionsBuilder()
+				.include(BenchmarkThree.class.getSimpleName())
+				.build();
 
-		BenchmarkThree.border = true;
-		benchmark.process();
+		new Runner(opt).run();
 	}
 }
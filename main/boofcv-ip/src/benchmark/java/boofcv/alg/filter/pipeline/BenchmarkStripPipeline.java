@@ -0,0 +1,122 @@
+/*
+ * Copyright (c) 2011-2018, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.filter.pipeline;
+
+import boofcv.alg.filter.binary.ThresholdImageOps;
+import boofcv.alg.filter.blur.BlurImageOps;
+import boofcv.alg.filter.derivative.GradientSobel;
+import boofcv.alg.misc.GImageMiscOps;
+import boofcv.concurrency.BoofConcurrency;
+import boofcv.core.image.ConvertImage;
+import boofcv.core.image.border.BorderType;
+import boofcv.core.image.border.FactoryImageBorder;
+import boofcv.core.image.border.ImageBorder_F32;
+import boofcv.struct.image.*;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares converting a color image to gray, blurring, then thresholding or computing the gradient one
+ * step at a time against a single pass with {@link StripPipeline}.
+ *
+ * @author Peter Abeles
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@State(Scope.Benchmark)
+@Fork(value=1)
+public class BenchmarkStripPipeline {
+
+	@Param({"1280x720","3840x2160"})
+	public String size;
+
+	@Param({"true","false"})
+	public boolean concurrent;
+
+	int radius = 2;
+
+	InterleavedU8 input;
+	InterleavedF32 color;
+	GrayF32 gray, blurred, storage;
+	GrayF32 derivX, derivY;
+	GrayU8 binary;
+
+	ImageBorder_F32 border = (ImageBorder_F32)FactoryImageBorder.single(GrayF32.class, BorderType.EXTENDED);
+	StripPipeline<InterleavedU8> pipeline = new StripPipeline<>(ImageType.il(3,InterleavedU8.class)).gaussian(-1,radius);
+
+	@Setup
+	public void setup() {
+		BoofConcurrency.USE_CONCURRENT = concurrent;
+		String[] words = size.split("x");
+		int width = Integer.parseInt(words[0]);
+		int height = Integer.parseInt(words[1]);
+
+		input = new InterleavedU8(width,height,3);
+		color = new InterleavedF32(width,height,3);
+		gray = new GrayF32(width,height);
+		blurred = gray.createSameShape();
+		storage = gray.createSameShape();
+		derivX = gray.createSameShape();
+		derivY = gray.createSameShape();
+		binary = new GrayU8(width,height);
+		GImageMiscOps.fillUniform(input, new Random(234), 0, 255);
+	}
+
+	@Benchmark
+	public void threshold_separate() {
+		ConvertImage.convert(input,color);
+		ConvertImage.average(color,gray);
+		BlurImageOps.gaussian(gray,blurred,-1,radius,storage);
+		ThresholdImageOps.threshold(blurred,binary,120,false);
+	}
+
+	@Benchmark
+	public void threshold_fused() {
+		pipeline.threshold(input,binary,120,false);
+	}
+
+	@Benchmark
+	public void sobel_separate() {
+		ConvertImage.convert(input,color);
+		ConvertImage.average(color,gray);
+		BlurImageOps.gaussian(gray,blurred,-1,radius,storage);
+		GradientSobel.process(blurred,derivX,derivY,border);
+	}
+
+	@Benchmark
+	public void sobel_fused() {
+		pipeline.sobel(input,derivX,derivY);
+	}
+
+	public static void main( String args[] ) throws RunnerException {
+		Options opt = new OptionsBuilder()
+				.include(BenchmarkStripPipeline.class.getSimpleName())
+				.build();
+
+		new Runner(opt).run();
+	}
+}
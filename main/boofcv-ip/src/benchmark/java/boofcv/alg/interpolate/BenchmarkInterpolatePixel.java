@@ -24,103 +24,94 @@ import boofcv.alg.interpolate.impl.ImplPolynomialPixel_F32;
 import boofcv.alg.interpolate.impl.NearestNeighborPixel_F32;
 import boofcv.alg.interpolate.kernel.BicubicKernel_F32;
 import boofcv.alg.misc.ImageMiscOps;
-import boofcv.misc.PerformerBase;
-import boofcv.misc.ProfileOperation;
 import boofcv.struct.image.GrayF32;
-import boofcv.struct.image.GrayU8;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
 
 import java.util.Random;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Benchmark for interpolating on a per-pixel basis
  *
  * @author Peter Abeles
  */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@State(Scope.Benchmark)
+@Fork(value=1)
 public class BenchmarkInterpolatePixel {
-	static int imgWidth = 640;
-	static int imgHeight = 480;
-	static long TEST_TIME = 1000;
+	int imgWidth = 640;
+	int imgHeight = 480;
 
-	static GrayF32 imgFloat32;
-	static GrayU8 imgInt8;
+	GrayF32 imgFloat32 = new GrayF32(imgWidth, imgHeight);
 
 	// defines the region its interpolation
-	static float start = 10.1f;
-	static float end = 310.1f;
-	static float step = 1f;
-
-	public static class Bilinear_Safe_F32 extends PerformerBase {
-		ImplBilinearPixel_F32 alg = new ImplBilinearPixel_F32(imgFloat32);
-
-		@Override
-		public void process() {
-			for (float x = start; x <= end; x += step)
-				for (float y = start; y <= end; y += step)
-					alg.get(x, y);
-		}
-	}
-
-	public static class Bilinear_UnSafe_F32 extends PerformerBase {
-		ImplBilinearPixel_F32 alg = new ImplBilinearPixel_F32(imgFloat32);
+	float start = 10.1f;
+	float end = 310.1f;
+	float step = 1f;
 
-		@Override
-		public void process() {
-			for (float x = start; x <= end; x += step)
-				for (float y = start; y <= end; y += step)
-					alg.get_fast(x, y);
-		}
-	}
+	ImplBilinearPixel_F32 bilinear;
+	NearestNeighborPixel_F32 nearest;
+	ImplInterpolatePixelConvolution_F32 convolution = new ImplInterpolatePixelConvolution_F32(new BicubicKernel_F32(-0.5f),0,255);
+	ImplPolynomialPixel_F32 polynomial = new ImplPolynomialPixel_F32(5,0,255);
 
-	public static class NearestNeighbor_Safe_F32 extends PerformerBase {
-		NearestNeighborPixel_F32 alg = new NearestNeighborPixel_F32(imgFloat32);
+	@Setup
+	public void setup() {
+		Random rand = new Random(234);
+		ImageMiscOps.fillUniform(imgFloat32, rand, 0, 200);
 
-		@Override
-		public void process() {
-			for (float x = start; x <= end; x += step)
-				for (float y = start; y <= end; y += step)
-					alg.get(x, y);
-		}
+		bilinear = new ImplBilinearPixel_F32(imgFloat32);
+		nearest = new NearestNeighborPixel_F32(imgFloat32);
+		convolution.setImage(imgFloat32);
+		polynomial.setImage(imgFloat32);
 	}
 
-	public static class BilinearConvolution_Safe_F32 extends PerformerBase {
-		ImplInterpolatePixelConvolution_F32 alg = new ImplInterpolatePixelConvolution_F32(new BicubicKernel_F32(-0.5f),0,255);
-
-		@Override
-		public void process() {
-			alg.setImage(imgFloat32);
-			for (float x = start; x <= end; x += step)
-				for (float y = start; y <= end; y += step)
-					alg.get(x, y);
-		}
+	@Benchmark
+	public void bilinear_Safe_F32() {
+		for (float x = start; x <= end; x += step)
+			for (float y = start; y <= end; y += step)
+				bilinear.get(x, y);
 	}
 
-	public static class Polynomial_Safe_F32 extends PerformerBase {
-		ImplPolynomialPixel_F32 alg = new ImplPolynomialPixel_F32(5,0,255);
+	@Benchmark
+	public void bilinear_UnSafe_F32() {
+		for (float x = start; x <= end; x += step)
+			for (float y = start; y <= end; y += step)
+				bilinear.get_fast(x, y);
+	}
 
-		@Override
-		public void process() {
-			alg.setImage(imgFloat32);
-			for (float x = start; x <= end; x += step)
-				for (float y = start; y <= end; y += step)
-					alg.get(x, y);
-		}
+	@Benchmark
+	public void nearestNeighbor_Safe_F32() {
+		for (float x = start; x <= end; x += step)
+			for (float y = start; y <= end; y += step)
+				nearest.get(x, y);
 	}
 
-	public static void main(String args[]) {
-		imgInt8 = new GrayU8(imgWidth, imgHeight);
-		imgFloat32 = new GrayF32(imgWidth, imgHeight);
+	@Benchmark
+	public void bilinearConvolution_Safe_F32() {
+		for (float x = start; x <= end; x += step)
+			for (float y = start; y <= end; y += step)
+				convolution.get(x, y);
+	}
 
-		Random rand = new Random(234);
-		ImageMiscOps.fillUniform(imgInt8, rand, 0, 100);
-		ImageMiscOps.fillUniform(imgFloat32, rand, 0, 200);
+	@Benchmark
+	public void polynomial_Safe_F32() {
+		for (float x = start; x <= end; x += step)
+			for (float y = start; y <= end; y += step)
+				polynomial.get(x, y);
+	}
 
-		System.out.println("=========  Profile Image Size " + imgWidth + " x " + imgHeight + " ==========");
-		System.out.println();
+	public static void main( String args[] ) throws RunnerException {
+		Options opt = new OptionsBuilder()
+				.include(BenchmarkInterpolatePixel.class.getSimpleName())
+				.build();
 
-		ProfileOperation.printOpsPerSec(new Bilinear_Safe_F32(), TEST_TIME);
-		ProfileOperation.printOpsPerSec(new Bilinear_UnSafe_F32(), TEST_TIME);
-		ProfileOperation.printOpsPerSec(new NearestNeighbor_Safe_F32(), TEST_TIME);
-		ProfileOperation.printOpsPerSec(new BilinearConvolution_Safe_F32(), TEST_TIME);
-		ProfileOperation.printOpsPerSec(new Polynomial_Safe_F32(), TEST_TIME);
+		new Runner(opt).run();
 	}
 }
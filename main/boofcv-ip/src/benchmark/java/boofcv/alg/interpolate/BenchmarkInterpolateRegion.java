@@ -20,59 +20,66 @@ package boofcv.alg.interpolate;
 
 import boofcv.alg.interpolate.impl.BilinearRectangle_F32;
 import boofcv.alg.misc.ImageMiscOps;
-import boofcv.misc.PerformerBase;
-import boofcv.misc.ProfileOperation;
 import boofcv.struct.image.GrayF32;
-import boofcv.struct.image.GrayU8;
 import boofcv.testing.BoofTesting;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
 
 import java.util.Random;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Benchmark interpolating rectangular regions
  *
  * @author Peter Abeles
  */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@State(Scope.Benchmark)
+@Fork(value=1)
 public class BenchmarkInterpolateRegion {
-	static int imgWidth = 640;
-	static int imgHeight = 480;
-	static long TEST_TIME = 1000;
+	@Param({"false","true"})
+	public boolean subimage;
 
-	static GrayF32 imgFloat32;
-	static GrayU8 imgInt8;
-	static GrayF32 outputImage;
+	int imgWidth = 640;
+	int imgHeight = 480;
 
-	// defines the region its interpolation
-	static float start = 10.1f;
-	static int regionSize = 300;
-
-	public static class Bilinear_F32 extends PerformerBase {
-		BilinearRectangle_F32 alg = new BilinearRectangle_F32(imgFloat32);
+	GrayF32 imgFloat32 = new GrayF32(imgWidth, imgHeight);
+	GrayF32 outputImage;
 
-		@Override
-		public void process() {
-			alg.region(start, start, outputImage);
-		}
-	}
-
-	public static void main(String args[]) {
-		imgInt8 = new GrayU8(imgWidth, imgHeight);
-		imgFloat32 = new GrayF32(imgWidth, imgHeight);
+	// defines the region its interpolation
+	float start = 10.1f;
+	int regionSize = 300;
 
-		outputImage = new GrayF32(regionSize,regionSize);
+	BilinearRectangle_F32 bilinear;
 
+	@Setup
+	public void setup() {
 		Random rand = new Random(234);
-		ImageMiscOps.fillUniform(imgInt8, rand, 0, 100);
 		ImageMiscOps.fillUniform(imgFloat32, rand, 0, 200);
 
-		System.out.println("=========  Profile Image Size " + imgWidth + " x " + imgHeight + " ==========");
-		System.out.println();
+		outputImage = new GrayF32(regionSize,regionSize);
+		if( subimage )
+			outputImage = BoofTesting.createSubImageOf(outputImage);
 
-		ProfileOperation.printOpsPerSec(new Bilinear_F32(), TEST_TIME);
+		bilinear = new BilinearRectangle_F32(imgFloat32);
+	}
+
+	@Benchmark
+	public void bilinear_F32() {
+		bilinear.region(start, start, outputImage);
+	}
 
-		System.out.println("   ---- Sub-Image ----");
-		outputImage = BoofTesting.createSubImageOf(outputImage);
-		ProfileOperation.printOpsPerSec(new Bilinear_F32(), TEST_TIME);
+	public static void main( String args[] ) throws RunnerException {
+		Options opt = new OptionsBuilder()
+				.include(BenchmarkInterpolateRegion.class.getSimpleName())
+				.build();
 
+		new Runner(opt).run();
 	}
 }
@@ -0,0 +1,118 @@
+/*
+ * Copyright (c) 2011-2018, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.misc;
+
+import boofcv.core.image.ConvertImage;
+import boofcv.struct.image.GrayF32;
+import boofcv.struct.image.GrayU8;
+import boofcv.struct.image.ImageType;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares generic functions which dispatch on every call against operators which are resolved once. Operations
+ * are applied to small regions inside a loop, where dispatch is most significant. Also compares scale, clip, and
+ * convert as separate passes against a single {@link PixelPipeline} pass.
+ *
+ * @author Peter Abeles
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@State(Scope.Benchmark)
+@Fork(value=1)
+public class BenchmarkImageOperators {
+
+	@Param({"640","1920"})
+	public int size;
+
+	@Param({"8","32"})
+	public int region;
+
+	GrayF32 input, work;
+	GrayU8 output;
+
+	ImageOperators.Scalar<GrayF32> divide = ImageOperators.divide(ImageType.single(GrayF32.class));
+	ImageOperators.Statistic<GrayF32> max = ImageOperators.max(ImageType.single(GrayF32.class));
+	PixelPipeline<GrayF32,GrayU8> pipeline = new PixelPipeline<>(
+			ImageType.single(GrayF32.class),ImageType.single(GrayU8.class)).scale(0.5).clip(0,255);
+
+	@Setup
+	public void setup() {
+		input = new GrayF32(size,size);
+		work = input.createSameShape();
+		output = new GrayU8(size,size);
+		GImageMiscOps.fillUniform(input, new Random(234), 0, 500);
+	}
+
+	@Benchmark
+	public double regions_generic() {
+		double total = 0;
+		for( int y = 0; y+region <= size; y += region ) {
+			for( int x = 0; x+region <= size; x += region ) {
+				GrayF32 in = input.subimage(x,y,x+region,y+region,null);
+				GrayF32 out = work.subimage(x,y,x+region,y+region,null);
+				GPixelMath.divide(in,2.0,out);
+				total += GImageStatistics.max(out);
+			}
+		}
+		return total;
+	}
+
+	@Benchmark
+	public double regions_operator() {
+		double total = 0;
+		for( int y = 0; y+region <= size; y += region ) {
+			for( int x = 0; x+region <= size; x += region ) {
+				GrayF32 in = input.subimage(x,y,x+region,y+region,null);
+				GrayF32 out = work.subimage(x,y,x+region,y+region,null);
+				divide.process(in,2.0,out);
+				total += max.process(out);
+			}
+		}
+		return total;
+	}
+
+	@Benchmark
+	public void scaleClipConvert_passes() {
+		PixelMath.multiply(input,0.5f,work);
+		PixelMath.boundImage(work,0,255);
+		ConvertImage.convert(work,output);
+	}
+
+	@Benchmark
+	public void scaleClipConvert_pipeline() {
+		pipeline.process(input,output);
+	}
+
+	public static void main( String args[] ) throws RunnerException {
+		Options opt = new OptionsBuilder()
+				.include(BenchmarkImageOperators.class.getSimpleName())
+				.build();
+
+		new Runner(opt).run();
+	}
+}
@@ -20,46 +20,54 @@ package boofcv.alg.transform.fft;
 
 import boofcv.abst.transform.fft.DiscreteFourierTransform;
 import boofcv.alg.misc.ImageMiscOps;
-import boofcv.misc.PerformerBase;
-import boofcv.misc.ProfileOperation;
 import boofcv.struct.image.GrayF32;
 import boofcv.struct.image.InterleavedF32;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
 
 import java.util.Random;
+import java.util.concurrent.TimeUnit;
 
 /**
  * @author Peter Abeles
  */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@State(Scope.Benchmark)
+@Fork(value=1)
 public class BenchmarkFastFourierTransform {
 
-	static int width = 640;
-	static int height = 480;
-	static long TEST_TIME = 1000;
+	int width = 640;
+	int height = 480;
 
-	static GrayF32 input = new GrayF32(width,height);
-	static InterleavedF32 fourier = new InterleavedF32(width,height,2);
-	static GrayF32 output = new GrayF32(width,height);
+	GrayF32 input = new GrayF32(width,height);
+	InterleavedF32 fourier = new InterleavedF32(width,height,2);
+	GrayF32 output = new GrayF32(width,height);
 
+	DiscreteFourierTransform<GrayF32,InterleavedF32> dft = DiscreteFourierTransformOps.createTransformF32();
 
-	public static class ComputeFFT extends PerformerBase {
-
-		DiscreteFourierTransform dft = DiscreteFourierTransformOps.createTransformF32();
-
-		@Override
-		public void process() {
-			dft.forward(input,fourier);
-			dft.inverse(fourier,output);
-		}
-	}
-
-	public static void main( String args[] ) {
-
+	@Setup
+	public void setup() {
 		Random rand = new Random(234);
 		ImageMiscOps.fillUniform(input, rand, 0, 100);
+	}
+
+	@Benchmark
+	public void computeFFT() {
+		dft.forward(input,fourier);
+		dft.inverse(fourier,output);
+	}
 
-		System.out.println("=========  Profile Image Size " + width + " x " + height + " ==========");
-		System.out.println();
+	public static void main( String args[] ) throws RunnerException {
+		Options opt = new OptionsBuilder()
+				.include(BenchmarkFastFourierTransform.class.getSimpleName())
+				.build();
 
-		ProfileOperation.printOpsPerSec(new ComputeFFT(), TEST_TIME);
+		new Runner(opt).run();
 	}
 }
@@ -19,67 +19,65 @@
 package boofcv.alg.transform.ii;
 
 import boofcv.alg.misc.ImageMiscOps;
-import boofcv.misc.PerformerBase;
-import boofcv.misc.ProfileOperation;
 import boofcv.struct.image.GrayF32;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
 
 import java.util.Random;
-
+import java.util.concurrent.TimeUnit;
 
 /**
  *
  * @author Peter Abeles
  */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@State(Scope.Benchmark)
+@Fork(value=1)
 public class BenchmarkIntegralImage {
-	static int width = 640;
-	static int height = 480;
-	static long TEST_TIME = 1000;
+	int width = 640;
+	int height = 480;
 
-	static GrayF32 input = new GrayF32(width,height);
-	static GrayF32 integral = new GrayF32(width,height);
+	GrayF32 input = new GrayF32(width,height);
+	GrayF32 integral = new GrayF32(width,height);
 
-	static GrayF32 output = new GrayF32(width,height);
+	GrayF32 output = new GrayF32(width,height);
 
+	IntegralKernel kernel = DerivativeIntegralImage.kernelDerivXX(9,null);
 
-	public static class ComputeIntegral extends PerformerBase {
-		@Override
-		public void process() {
-			IntegralImageOps.transform(input,integral);
-		}
+	@Setup
+	public void setup() {
+		Random rand = new Random(234);
+		ImageMiscOps.fillUniform(input, rand, 0, 100);
+		IntegralImageOps.transform(input,integral);
 	}
 
-	public static class DerivXX extends PerformerBase {
-
-		IntegralKernel kernel = DerivativeIntegralImage.kernelDerivXX(9,null);
-
-		@Override
-		public void process() {
-			DerivativeIntegralImage.derivXX(integral,output,9);
-			IntegralImageOps.convolveBorder(integral,kernel,output,4,4);
-		}
+	@Benchmark
+	public void computeIntegral() {
+		IntegralImageOps.transform(input,integral);
 	}
 
-	public static class GenericDerivXX extends PerformerBase {
-
-		IntegralKernel kernel = DerivativeIntegralImage.kernelDerivXX(9,null);
-
-		@Override
-		public void process() {
-			IntegralImageOps.convolve(integral,kernel,output);
-		}
+	@Benchmark
+	public void derivXX() {
+		DerivativeIntegralImage.derivXX(integral,output,9);
+		IntegralImageOps.convolveBorder(integral,kernel,output,4,4);
 	}
 
-	public static void main(String args[]) {
-
-		Random rand = new Random(234);
-		ImageMiscOps.fillUniform(input, rand, 0, 100);
-		IntegralImageOps.transform(input,integral);
+	@Benchmark
+	public void genericDerivXX() {
+		IntegralImageOps.convolve(integral,kernel,output);
+	}
 
-		System.out.println("=========  Profile Image Size " + width + " x " + height + " ==========");
-		System.out.println();
+	public static void main( String args[] ) throws RunnerException {
+		Options opt = new OptionsBuilder()
+				.include(BenchmarkIntegralImage.class.getSimpleName())
+				.build();
 
-		ProfileOperation.printOpsPerSec(new ComputeIntegral(), TEST_TIME);
-		ProfileOperation.printOpsPerSec(new DerivXX(), TEST_TIME);
-		ProfileOperation.printOpsPerSec(new GenericDerivXX(), TEST_TIME);
+		new Runner(opt).run();
 	}
 }
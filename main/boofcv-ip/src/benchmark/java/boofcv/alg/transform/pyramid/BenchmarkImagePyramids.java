@@ -21,71 +21,69 @@ package boofcv.alg.transform.pyramid;
 import boofcv.alg.misc.ImageMiscOps;
 import boofcv.factory.filter.kernel.FactoryKernelGaussian;
 import boofcv.factory.transform.pyramid.FactoryPyramid;
-import boofcv.misc.PerformerBase;
-import boofcv.misc.ProfileOperation;
 import boofcv.struct.convolve.Kernel1D_F32;
 import boofcv.struct.image.GrayF32;
 import boofcv.struct.image.ImageType;
 import boofcv.struct.pyramid.PyramidDiscrete;
 import boofcv.struct.pyramid.PyramidFloat;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
 
 import java.util.Random;
-
+import java.util.concurrent.TimeUnit;
 
 /**
  * Shows runtime performance difference of each type of image pyramid given similar configurations.
  *
  * @author Peter Abeles
  */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@State(Scope.Benchmark)
+@Fork(value=1)
 public class BenchmarkImagePyramids {
-	static int width = 640;
-	static int height = 480;
-	static long TEST_TIME = 1000;
-
-	static GrayF32 input = new GrayF32(width,height);
+	int width = 640;
+	int height = 480;
 
-	static int scalesD[] = new int[]{1,2,4,8};
-	static double scalesF[] = new double[]{1,2,4,8};
+	GrayF32 input = new GrayF32(width,height);
 
-	static PyramidDiscrete<GrayF32> pyramidD;
-	static PyramidFloat<GrayF32> pyramidF;
+	int scalesD[] = new int[]{1,2,4,8};
+	double scalesF[] = new double[]{1,2,4,8};
 
-	static Class<GrayF32> imageType = GrayF32.class;
+	PyramidDiscrete<GrayF32> pyramidD;
+	PyramidFloat<GrayF32> pyramidF;
 
-	public static class Float_F32 extends PerformerBase {
-
-		@Override
-		public void process() {
-			pyramidF.process(input);
-		}
-	}
-
-	public static class Discrete_F32 extends PerformerBase {
-
-		@Override
-		public void process() {
-			pyramidD.process(input);
-		}
-	}
+	@Setup
+	public void setup() {
+		Random rand = new Random(234);
+		ImageMiscOps.fillUniform(input, rand, 0, 100);
 
-	private static void createUpdate() {
 		Kernel1D_F32 kernel = FactoryKernelGaussian.gaussian(Kernel1D_F32.class,-1.0,2);
 		pyramidD = new PyramidDiscreteSampleBlur<>(kernel,2, ImageType.single(GrayF32.class),true,scalesD);
 
 		pyramidF = FactoryPyramid.scaleSpacePyramid(scalesF, GrayF32.class);
-
 	}
 
-	public static void main(String args[]) {
+	@Benchmark
+	public void float_F32() {
+		pyramidF.process(input);
+	}
 
-		Random rand = new Random(234);
-		ImageMiscOps.fillUniform(input, rand, 0, 100);
-		createUpdate();
+	@Benchmark
+	public void discrete_F32() {
+		pyramidD.process(input);
+	}
 
-		System.out.println("=========  Profile Image Size " + width + " x " + height + " ==========");
-		System.out.println();
+	public static void main( String args[] ) throws RunnerException {
+		Options opt = new OptionsBuilder()
+				.include(BenchmarkImagePyramids.class.getSimpleName())
+				.build();
 
-		ProfileOperation.printOpsPerSec(new Float_F32(), TEST_TIME);
-		ProfileOperation.printOpsPerSec(new Discrete_F32(), TEST_TIME);
+		new Runner(opt).run();
 	}
 }
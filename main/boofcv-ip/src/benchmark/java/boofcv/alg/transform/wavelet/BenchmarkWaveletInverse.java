@@ -22,82 +22,77 @@ import boofcv.alg.misc.ImageMiscOps;
 import boofcv.alg.transform.wavelet.impl.ImplWaveletTransformNaive;
 import boofcv.core.image.border.BorderType;
 import boofcv.factory.transform.wavelet.FactoryWaveletDaub;
-import boofcv.misc.PerformerBase;
-import boofcv.misc.ProfileOperation;
 import boofcv.struct.image.GrayF32;
 import boofcv.struct.image.GrayS32;
 import boofcv.struct.wavelet.WaveletDescription;
 import boofcv.struct.wavelet.WlCoef_F32;
 import boofcv.struct.wavelet.WlCoef_I32;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
 
 import java.util.Random;
-
+import java.util.concurrent.TimeUnit;
 
 /**
  * @author Peter Abeles
  */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@State(Scope.Benchmark)
+@Fork(value=1)
 public class BenchmarkWaveletInverse {
-	static int imgWidth = 640;
-	static int imgHeight = 480;
-	static long TEST_TIME = 1000;
-
-	static WaveletDescription<WlCoef_F32> desc_F32 = FactoryWaveletDaub.biorthogonal_F32(5,BorderType.REFLECT);
-	static WaveletDescription<WlCoef_I32> desc_I32 = FactoryWaveletDaub.biorthogonal_I32(5, BorderType.REFLECT);
+	int imgWidth = 640;
+	int imgHeight = 480;
 
-	static GrayF32 tran_F32 = new GrayF32(imgWidth,imgHeight);
-	static GrayF32 temp1_F32 = new GrayF32(imgWidth,imgHeight);
-	static GrayF32 temp2_F32 = new GrayF32(imgWidth,imgHeight);
-	static GrayS32 tran_I32 = new GrayS32(imgWidth,imgHeight);
-	static GrayS32 temp1_I32 = new GrayS32(imgWidth,imgHeight);
-	static GrayS32 temp2_I32 = new GrayS32(imgWidth,imgHeight);
+	WaveletDescription<WlCoef_F32> desc_F32 = FactoryWaveletDaub.biorthogonal_F32(5,BorderType.REFLECT);
+	WaveletDescription<WlCoef_I32> desc_I32 = FactoryWaveletDaub.biorthogonal_I32(5, BorderType.REFLECT);
 
-	public static class Naive_F32 extends PerformerBase {
+	GrayF32 tran_F32 = new GrayF32(imgWidth,imgHeight);
+	GrayF32 temp1_F32 = new GrayF32(imgWidth,imgHeight);
+	GrayF32 temp2_F32 = new GrayF32(imgWidth,imgHeight);
+	GrayS32 tran_I32 = new GrayS32(imgWidth,imgHeight);
+	GrayS32 temp1_I32 = new GrayS32(imgWidth,imgHeight);
+	GrayS32 temp2_I32 = new GrayS32(imgWidth,imgHeight);
 
-		@Override
-		public void process() {
-			ImplWaveletTransformNaive.verticalInverse(desc_F32.getBorder(), desc_F32.getInverse(), tran_F32, temp1_F32);
-			ImplWaveletTransformNaive.horizontalInverse(desc_F32.getBorder(), desc_F32.getInverse(), temp1_F32, temp2_F32);
-		}
+	@Setup
+	public void setup() {
+		Random rand = new Random(234);
+		ImageMiscOps.fillUniform(tran_F32, rand, 0, 100);
+		ImageMiscOps.fillUniform(tran_I32, rand, 0, 100);
 	}
 
-	public static class Naive_I32 extends PerformerBase {
-
-		@Override
-		public void process() {
-			ImplWaveletTransformNaive.verticalInverse(desc_I32.getBorder(), desc_I32.getInverse(), tran_I32, temp1_I32);
-			ImplWaveletTransformNaive.horizontalInverse(desc_I32.getBorder(), desc_I32.getInverse(), temp1_I32, temp2_I32);
-		}
+	@Benchmark
+	public void naive_F32() {
+		ImplWaveletTransformNaive.verticalInverse(desc_F32.getBorder(), desc_F32.getInverse(), tran_F32, temp1_F32);
+		ImplWaveletTransformNaive.horizontalInverse(desc_F32.getBorder(), desc_F32.getInverse(), temp1_F32, temp2_F32);
 	}
 
-	public static class Standard_F32 extends PerformerBase {
-
-		@Override
-		public void process() {
-			WaveletTransformOps.inverse1(desc_F32,tran_F32,temp1_F32,temp1_F32,0,255);
-		}
+	@Benchmark
+	public void naive_I32() {
+		ImplWaveletTransformNaive.verticalInverse(desc_I32.getBorder(), desc_I32.getInverse(), tran_I32, temp1_I32);
+		ImplWaveletTransformNaive.horizontalInverse(desc_I32.getBorder(), desc_I32.getInverse(), temp1_I32, temp2_I32);
 	}
 
-	public static class Standard_I32 extends PerformerBase {
-
-		@Override
-		public void process() {
-			WaveletTransformOps.inverse1(desc_I32,tran_I32,temp1_I32,temp1_I32,0,255);
-		}
+	@Benchmark
+	public void standard_F32() {
+		WaveletTransformOps.inverse1(desc_F32,tran_F32,temp1_F32,temp1_F32,0,255);
 	}
 
+	@Benchmark
+	public void standard_I32() {
+		WaveletTransformOps.inverse1(desc_I32,tran_I32,temp1_I32,temp1_I32,0,255);
+	}
 
-	public static void main(String args[]) {
-
-		Random rand = new Random(234);
-		ImageMiscOps.fillUniform(tran_F32, rand, 0, 100);
-		ImageMiscOps.fillUniform(tran_I32, rand, 0, 100);
-
-		System.out.println("=========  Profile Image Size " + imgWidth + " x " + imgHeight + " ==========");
-		System.out.println();
+	public static void main( String args[] ) throws RunnerException {
+		Options opt = new OptionsBuilder()
+				.include(BenchmarkWaveletInverse.class.getSimpleName())
+				.build();
 
-		ProfileOperation.printOpsPerSec(new Naive_F32(), TEST_TIME);
-		ProfileOperation.printOpsPerSec(new Standard_F32(), TEST_TIME);
-		ProfileOperation.printOpsPerSec(new Naive_I32(), TEST_TIME);
-		ProfileOperation.printOpsPerSec(new Standard_I32(), TEST_TIME);
+		new Runner(opt).run();
 	}
 }
@@ -18,101 +18,72 @@
 
 package boofcv.core.image;
 
-import boofcv.misc.PerformerBase;
-import boofcv.misc.ProfileOperation;
+import boofcv.alg.misc.ImageMiscOps;
 import boofcv.struct.image.GrayF32;
 import boofcv.struct.image.GrayS16;
 import boofcv.struct.image.GrayU8;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Benchmarks related to functions inside of ConvertImage
  * 
  * @author Peter Abeles
  */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@State(Scope.Benchmark)
+@Fork(value=1)
 public class BenchmarkConvertImage {
-	static int imgWidth = 640;
-	static int imgHeight = 480;
-
-	static GrayF32 imgFloat32;
-	static GrayU8 imgUInt8;
-	static GrayS16 imgUInt16;
-	static GrayU8 imgSInt8;
-	static GrayS16 imgSInt16;
-
-	public static class Float32toInt8 extends PerformerBase
-	{
-		@Override
-		public void process() {
-			ConvertImage.convert(imgFloat32,imgUInt8);
-		}
+	int imgWidth = 640;
+	int imgHeight = 480;
+
+	GrayF32 imgFloat32 = new GrayF32(imgWidth,imgHeight);
+	GrayU8 imgUInt8 = new GrayU8(imgWidth,imgHeight);
+	GrayS16 imgSInt16 = new GrayS16(imgWidth,imgHeight);
+	GrayU8 imgSInt8 = new GrayU8(imgWidth,imgHeight);
+
+	@Setup
+	public void setup() {
+		Random rand = new Random(234);
+		ImageMiscOps.fillUniform(imgFloat32,rand,0,100);
+		ImageMiscOps.fillUniform(imgUInt8,rand,0,100);
+		ImageMiscOps.fillUniform(imgSInt16,rand,-100,100);
 	}
 
-	public static class Int8ToFloat32 extends PerformerBase
-	{
-		GrayU8 img;
-
-		public Int8ToFloat32(GrayU8 img) {
-			this.img = img;
-		}
-
-		@Override
-		public void process() {
-			ConvertImage.convert(img,imgFloat32);
-		}
+	@Benchmark
+	public void float32toInt8() {
+		ConvertImage.convert(imgFloat32,imgUInt8);
 	}
 
-	public static class Int16ToFloat32 extends PerformerBase
-	{
-		GrayS16 img;
-
-		public Int16ToFloat32(GrayS16 img) {
-			this.img = img;
-		}
-
-		@Override
-		public void process() {
-			ConvertImage.convert(img,imgFloat32);
-		}
+	@Benchmark
+	public void int8ToFloat32() {
+		ConvertImage.convert(imgUInt8,imgFloat32);
 	}
 
-	public static class Int16ToInt8 extends PerformerBase
-	{
-		GrayS16 img;
-
-		public Int16ToInt8(GrayS16 img) {
-			this.img = img;
-		}
-
-		@Override
-		public void process() {
-			ConvertImage.convert(img,imgSInt8);
-		}
+	@Benchmark
+	public void int16ToFloat32() {
+		ConvertImage.convert(imgSInt16,imgFloat32);
 	}
 
-	public static void main( String args[] ) {
-		imgSInt8 = new GrayU8(imgWidth,imgHeight);
-		imgSInt16 = new GrayS16(imgWidth,imgHeight);
-		imgUInt8 = new GrayU8(imgWidth,imgHeight);
-		imgUInt16 = new GrayS16(imgWidth,imgHeight);
-		imgFloat32 = new GrayF32(imgWidth,imgHeight);
-
-		System.out.println("=========  Profile Image Size "+imgWidth+" x "+imgHeight+" ==========");
-		System.out.println();
+	@Benchmark
+	public void int16ToInt8() {
+		ConvertImage.convert(imgSInt16,imgSInt8);
+	}
 
-		System.out.printf("Float32 to Int8              %10.2f ops/sec\n",
-				ProfileOperation.profileOpsPerSec(new Float32toInt8(),1000, false));
-		System.out.printf("Int8 to Float32 signed       %10.2f ops/sec\n",
-				ProfileOperation.profileOpsPerSec(new Int8ToFloat32(imgSInt8),1000, false));
-		System.out.printf("Int8 to Float32 unsigned     %10.2f ops/sec\n",
-				ProfileOperation.profileOpsPerSec(new Int8ToFloat32(imgUInt8),1000, false));
-		System.out.printf("Int16 to Float32 signed       %10.2f ops/sec\n",
-				ProfileOperation.profileOpsPerSec(new Int16ToFloat32(imgSInt16),1000, false));
-		System.out.printf("Int16 to Float32 unsigned     %10.2f ops/sec\n",
-				ProfileOperation.profileOpsPerSec(new Int16ToFloat32(imgUInt16),1000, false));
-		System.out.printf("Int16 to Int8 signed          %10.2f ops/sec\n",
-				ProfileOperation.profileOpsPerSec(new Int16ToInt8(imgSInt16),1000, false));
-		System.out.printf("Int16 to Int8 unsigned        %10.2f ops/sec\n",
-				ProfileOperation.profileOpsPerSec(new Int16ToInt8(imgUInt16),1000, false));
+	public static void main( String args[] ) throws RunnerException {
+		Options opt = new OptionsBuilder()
+				.include(BenchmarkConvertImage.class.getSimpleName())
+				.build();
 
+		new Runner(opt).run();
 	}
 }
@@ -19,125 +19,109 @@
 package boofcv.core.image;
 
 import boofcv.alg.misc.ImageMiscOps;
-import boofcv.misc.PerformerBase;
-import boofcv.misc.ProfileOperation;
 import boofcv.struct.image.GrayF32;
 import boofcv.struct.image.GrayU8;
-import boofcv.struct.image.ImageGray;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
 
 import java.util.Random;
+import java.util.concurrent.TimeUnit;
 
 /**
+ * Compares direct array access against the generic {@link GImageGray} wrapper
+ *
  * @author Peter Abeles
  */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@State(Scope.Benchmark)
+@Fork(value=1)
 public class BenchmarkGImageGray {
 
-	static int period = 1000;
-
-	static int width = 640;
-	static int height = 480;
+	int width = 640;
+	int height = 480;
 
-	static GrayF32 input = new GrayF32(width,height);
+	GrayF32 input = new GrayF32(width,height);
+	GrayF32 output_F32 = new GrayF32(width,height);
+	GrayU8 output_U8 = new GrayU8(width,height);
 
-	public static class IndexDirect_U8 extends PerformerBase
-	{
-		GrayU8 output;
+	GImageGray wrapped_F32 = FactoryGImageGray.wrap(output_F32);
+	GImageGray wrapped_U8 = FactoryGImageGray.wrap(output_U8);
 
-		public IndexDirect_U8(GrayU8 output) {
-			this.output = output;
-		}
+	@Setup
+	public void setup() {
+		Random rand = new Random(234);
+		ImageMiscOps.fillUniform(input,rand,0,50);
+	}
 
-		@Override
-		public void process() {
-			int index = 0;
-			for( int y = 0; y < input.height; y++ ) {
-				for( int x = 0; x < input.width; x++ , index++) {
-					output.data[index] = (byte)input.data[index];
-				}
+	@Benchmark
+	public void indexDirect_U8() {
+		int index = 0;
+		for( int y = 0; y < input.height; y++ ) {
+			for( int x = 0; x < input.width; x++ , index++) {
+				output_U8.data[index] = (byte)input.data[index];
 			}
 		}
 	}
 
-	public static class IndexDirect_F32 extends PerformerBase
-	{
-		GrayF32 output;
-
-		public IndexDirect_F32( GrayF32 output) {
-			this.output = output;
-		}
-
-		@Override
-		public void process() {
-			int index = 0;
-			for( int y = 0; y < input.height; y++ ) {
-				for( int x = 0; x < input.width; x++ , index++) {
-					output.data[index] = input.data[index];
-				}
+	@Benchmark
+	public void indexDirect_F32() {
+		int index = 0;
+		for( int y = 0; y < input.height; y++ ) {
+			for( int x = 0; x < input.width; x++ , index++) {
+				output_F32.data[index] = input.data[index];
 			}
 		}
 	}
 
-	public static class IndexAccess extends PerformerBase
-	{
-		GImageGray output;
+	@Benchmark
+	public void indexAccess_U8() {
+		indexAccess(wrapped_U8);
+	}
 
-		public IndexAccess( ImageGray output) {
-			this.output = FactoryGImageGray.wrap(output);
-		}
+	@Benchmark
+	public void indexAccess_F32() {
+		indexAccess(wrapped_F32);
+	}
 
-		@Override
-		public void process() {
-			int index = 0;
-			for( int y = 0; y < input.height; y++ ) {
-				for( int x = 0; x < input.width; x++ , index++) {
-					output.set(index,input.data[index]);
-				}
-			}
-		}
+	@Benchmark
+	public void pixelAccess_U8() {
+		pixelAccess(wrapped_U8);
 	}
 
-	public static class PixelAccess extends PerformerBase
-	{
-		GImageGray output;
+	@Benchmark
+	public void pixelAccess_F32() {
+		pixelAccess(wrapped_F32);
+	}
 
-		public PixelAccess( ImageGray output) {
-			this.output = FactoryGImageGray.wrap(output);
+	private void indexAccess( GImageGray output ) {
+		int index = 0;
+		for( int y = 0; y < input.height; y++ ) {
+			for( int x = 0; x < input.width; x++ , index++) {
+				output.set(index,input.data[index]);
+			}
 		}
+	}
 
-		@Override
-		public void process() {
-
-			int index = 0;
-			for( int y = 0; y < input.height; y++ ) {
-				for( int x = 0; x < input.width; x++ , index++) {
-					output.set(x,y,input.data[index]);
-				}
+	private void pixelAccess( GImageGray output ) {
+		int index = 0;
+		for( int y = 0; y < input.height; y++ ) {
+			for( int x = 0; x < input.width; x++ , index++) {
+				output.set(x,y,input.data[index]);
 			}
 		}
 	}
 
-	public static void main( String args[] ) {
-		GrayF32 output_F32 = new GrayF32(width,height);
-		GrayU8 output_U8 = new GrayU8(width,height);
-
-		Random rand = new Random(234);
-
-		ImageMiscOps.fillUniform(input,rand,0,50);
+	public static void main( String args[] ) throws RunnerException {
+		Options opt = new OptionsBuilder()
+				.include(BenchmarkGImageGray.class.getSimpleName())
+				.build();
 
-		System.out.println("=========  Profile Image Size "+width+" x "+height+" ==========");
-		System.out.println();
-
-		System.out.printf("Direct  U8          %10.2f ops/sec\n",
-				ProfileOperation.profileOpsPerSec(new IndexDirect_U8(output_U8), period, false));
-		System.out.printf("Wrapped U8 Index    %10.2f ops/sec\n",
-				ProfileOperation.profileOpsPerSec(new IndexAccess(output_U8),period, false));
-		System.out.printf("Wrapped U8 Pixel    %10.2f ops/sec\n",
-				ProfileOperation.profileOpsPerSec(new PixelAccess(output_U8),period, false));
-		System.out.printf("Direct  F32         %10.2f ops/sec\n",
-				ProfileOperation.profileOpsPerSec(new IndexDirect_F32(output_F32), period, false));
-		System.out.printf("Wrapped F32 Index   %10.2f ops/sec\n",
-				ProfileOperation.profileOpsPerSec(new IndexAccess(output_F32),period, false));
-		System.out.printf("Wrapped F32 Pixel   %10.2f ops/sec\n",
-				ProfileOperation.profileOpsPerSec(new PixelAccess(output_F32),period, false));
+		new Runner(opt).run();
 	}
 }
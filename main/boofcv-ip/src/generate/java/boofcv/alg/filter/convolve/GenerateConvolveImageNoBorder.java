@@ -22,7 +22,8 @@ import boofcv.misc.AutoTypeImage;
 import boofcv.misc.CodeGeneratorBase;
 
 /**
- * NOTE: There is a tinny bit of manual work required.  need to comment out a few lines to unroll
+ * NOTE: There is a tinny bit of manual work required.  need to comment out a few lines to unroll.
+ * The _MT classes which are referenced are created by AutocodeConcurrentApp.
  *
  * @author Peter Abeles
  */
@@ -57,6 +58,7 @@ public class GenerateConvolveImageNoBorder extends CodeGeneratorBase {
 		out.print(
 				"import boofcv.alg.InputSanityCheck;\n" +
 				"import boofcv.alg.filter.convolve.noborder.*;\n" +
+				"import boofcv.concurrency.BoofConcurrency;\n" +
 				"import boofcv.struct.convolve.*;\n" +
 				"import boofcv.struct.image.*;\n");
 		out.println();
@@ -139,13 +141,21 @@ public class GenerateConvolveImageNoBorder extends CodeGeneratorBase {
 				"\t\t\t\t\t\t\t\t  "+inputName+" input, "+outputName+" output"+divideArg+") {\n" +
 				"\t\tInputSanityCheck.checkSameShape(input, output);\n" +
 				"\n");
+		out.print("\t\tif( BoofConcurrency.USE_CONCURRENT ) {\n");
+		printCall(name, singleBand, divideSuf, divideInput, "_MT");
+		out.print("\t\t} else {\n");
+		printCall(name, singleBand, divideSuf, divideInput, "");
+		out.print("\t\t}\n");
+		out.print("\t}\n\n");
+	}
+
+	private void printCall( String name , boolean singleBand , String divideSuf , String divideInput , String suffix ) {
 		if( singleBand ) {
-			out.print("\t\tif (!ConvolveImageUnrolled_SB_"+typeIn+"_"+typeOut+divideSuf+"."+name+"(kernel, input, output"+divideInput+"))\n" +
-					"\t\t\tConvolveImageStandard_SB."+name+"(kernel, input, output"+divideInput+");\n");
+			out.print("\t\t\tif (!ConvolveImageUnrolled_SB_"+typeIn+"_"+typeOut+divideSuf+suffix+"."+name+"(kernel, input, output"+divideInput+"))\n" +
+					"\t\t\t\tConvolveImageStandard_SB"+suffix+"."+name+"(kernel, input, output"+divideInput+");\n");
 		} else {
-			out.print("\t\tConvolveImageStandard_IL."+name+"(kernel, input, output"+divideInput+");\n");
+			out.print("\t\t\tConvolveImageStandard_IL"+suffix+"."+name+"(kernel, input, output"+divideInput+");\n");
 		}
-		out.print("\t}\n\n");
 	}
 
 	public static void main(String[] args) {
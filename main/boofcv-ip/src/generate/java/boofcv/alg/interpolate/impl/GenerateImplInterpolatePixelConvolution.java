@@ -250,6 +250,17 @@ public class GenerateImplInterpolatePixelConvolution extends CodeGeneratorBase {
 				"\t@Override\n" +
 				"\tpublic ImageType<"+inputType.getSingleBandName()+"> getImageType() {\n" +
 				"\t\treturn ImageType.single("+inputType.getSingleBandName()+".class);\n" +
+				"\t}\n\n" +
+				"\t@Override\n" +
+				"\tpublic InterpolatePixelS<"+inputType.getSingleBandName()+"> copy() {\n" +
+				"\t\t"+className+" out = new "+className+"(kernel,min,max);\n" +
+				"\t\tif( border != null ) {\n" +
+				"\t\t\tout.setBorder(border.copy());\n" +
+				"\t\t\t// the border doesn't support being copied\n" +
+				"\t\t\tif( out.getBorder() == null )\n" +
+				"\t\t\t\treturn null;\n" +
+				"\t\t}\n" +
+				"\t\treturn out;\n" +
 				"\t}\n");
 	}
 
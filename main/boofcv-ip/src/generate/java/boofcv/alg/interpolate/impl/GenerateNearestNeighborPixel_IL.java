@@ -63,7 +63,8 @@ public class GenerateNearestNeighborPixel_IL extends CodeGeneratorBase {
 
 	private void printPreamble() throws FileNotFoundException {
 		setOutputFile(className);
-		out.print("import boofcv.alg.interpolate.NearestNeighborPixelMB;\n" +
+		out.print("import boofcv.alg.interpolate.InterpolatePixelMB;\n" +
+				"import boofcv.alg.interpolate.NearestNeighborPixelMB;\n" +
 				"import boofcv.struct.image.ImageType;\n" +
 				"import boofcv.struct.image." + image.getInterleavedName() + ";\n" +
 				"import boofcv.core.image.border.ImageBorder_" + borderType + ";\n");
@@ -127,6 +128,17 @@ public class GenerateNearestNeighborPixel_IL extends CodeGeneratorBase {
 				"\t\tfor (int i = 0; i < pixel.length; i++) {\n" +
 				"\t\t\tvalues[i] = "+sumToFloat+"pixel[i];\n" +
 				"\t\t}\n" +
+				"\t}\n\n" +
+				"\t@Override\n" +
+				"\tpublic InterpolatePixelMB<"+image.getInterleavedName()+"> copy() {\n" +
+				"\t\t"+className+" out = new "+className+"();\n" +
+				"\t\tif( border != null ) {\n" +
+				"\t\t\tout.setBorder(border.copy());\n" +
+				"\t\t\t// the border doesn't support being copied\n" +
+				"\t\t\tif( out.getBorder() == null )\n" +
+				"\t\t\t\treturn null;\n" +
+				"\t\t}\n" +
+				"\t\treturn out;\n" +
 				"\t}\n\n");
 	}
 
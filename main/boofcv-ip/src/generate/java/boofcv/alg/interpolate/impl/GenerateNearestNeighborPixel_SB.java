@@ -63,7 +63,8 @@ public class GenerateNearestNeighborPixel_SB extends CodeGeneratorBase {
 
 	private void printPreamble() throws FileNotFoundException {
 		setOutputFile(className);
-		out.print("import boofcv.alg.interpolate.NearestNeighborPixel;\n" +
+		out.print("import boofcv.alg.interpolate.InterpolatePixelS;\n" +
+				"import boofcv.alg.interpolate.NearestNeighborPixelS;\n" +
 				"import boofcv.struct.image.ImageType;\n" +
 				"import boofcv.struct.image." + image.getSingleBandName() + ";\n" +
 				"import boofcv.core.image.border.ImageBorder_"+borderType+";\n");
@@ -125,6 +126,17 @@ public class GenerateNearestNeighborPixel_SB extends CodeGeneratorBase {
 				"\t@Override\n" +
 				"\tpublic ImageType<"+image.getSingleBandName()+"> getImageType() {\n" +
 				"\t\treturn ImageType.single("+image.getSingleBandName()+".class);\n" +
+				"\t}\n\n" +
+				"\t@Override\n" +
+				"\tpublic InterpolatePixelS<"+image.getSingleBandName()+"> copy() {\n" +
+				"\t\t"+className+" out = new "+className+"();\n" +
+				"\t\tif( border != null ) {\n" +
+				"\t\t\tout.setBorder(border.copy());\n" +
+				"\t\t\t// the border doesn't support being copied\n" +
+				"\t\t\tif( out.getBorder() == null )\n" +
+				"\t\t\t\treturn null;\n" +
+				"\t\t}\n" +
+				"\t\treturn out;\n" +
 				"\t}\n\n");
 	}
 
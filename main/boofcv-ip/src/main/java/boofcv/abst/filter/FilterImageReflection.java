@@ -18,21 +18,25 @@
 
 package boofcv.abst.filter;
 
+import boofcv.misc.BoofLambdas;
 import boofcv.struct.image.ImageGray;
 import boofcv.struct.image.ImageType;
 import boofcv.testing.BoofTesting;
 
-import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
 
 /**
  * Turns functions into implementations of {@link FilterImageInterface} Wraps around any function which has two images as input and output.
+ * The function is found using reflection once and then bound using {@link BoofLambdas} so that it's invoked directly.
  */
 public class FilterImageReflection<Input extends ImageGray<Input>, Output extends ImageGray<Output>>
 		implements FilterImageInterface<Input, Output> {
 
 	// method being invoke for the filter
 	Method m;
+	// direct call to the method. Only one is used depending on the number of arguments
+	BoofLambdas.Process2<Input,Output> function2;
+	BoofLambdas.Process2Int<Input,Output> function3;
 
 	// input and output image types
 	Class<Input> inputType;
@@ -58,6 +62,7 @@ public class FilterImageReflection<Input extends ImageGray<Input>, Output extend
 			throw new IllegalArgumentException("Input method must have two or three inputs");
 		if (!ImageGray.class.isAssignableFrom(param[0]) || !ImageGray.class.isAssignableFrom(param[0]))
 			throw new IllegalArgumentException("TWo input parameters must be of type ImageGray");
+		bind();
 	}
 
 
@@ -74,6 +79,7 @@ public class FilterImageReflection<Input extends ImageGray<Input>, Output extend
 			throw new IllegalArgumentException("Input method must have two or three inputs");
 		if (!ImageGray.class.isAssignableFrom(param[0]) || !ImageGray.class.isAssignableFrom(param[0]))
 			throw new IllegalArgumentException("TWo input parameters must be of type ImageGray");
+		bind();
 	}
 
 	@Override
@@ -83,14 +89,18 @@ public class FilterImageReflection<Input extends ImageGray<Input>, Output extend
 		if (output == null)
 			throw new IllegalArgumentException("Output parameter is null");
 
-		try {
-			if( m.getParameterTypes().length == 3 ) {
-				m.invoke(null, input, 1 , output);
-			} else {
-				m.invoke(null, input, output);
-			}
-		} catch (IllegalAccessException | InvocationTargetException e) {
-			throw new RuntimeException(e);
+		if( function3 != null ) {
+			function3.process(input, 1, output);
+		} else {
+			function2.process(input, output);
+		}
+	}
+
+	private void bind() {
+		if( m.getParameterTypes().length == 3 ) {
+			function3 = BoofLambdas.bindStatic(m, BoofLambdas.Process2Int.class);
+		} else {
+			function2 = BoofLambdas.bindStatic(m, BoofLambdas.Process2.class);
 		}
 	}
 
@@ -21,17 +21,18 @@ package boofcv.abst.filter.convolve;
 import boofcv.core.image.border.BorderType;
 import boofcv.core.image.border.FactoryImageBorder;
 import boofcv.core.image.border.ImageBorder;
+import boofcv.misc.BoofLambdas;
 import boofcv.struct.convolve.KernelBase;
 import boofcv.struct.image.ImageBase;
 import boofcv.struct.image.ImageType;
 
-import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
 
 
 /**
  * Generalized interface for filtering images with convolution kernels.  Can invoke different
- * techniques for handling image borders.
+ * techniques for handling image borders. The convolution function is bound once using {@link BoofLambdas}
+ * so that it's invoked directly.
  *
  * @author Peter Abeles
  */
@@ -39,6 +40,9 @@ public class GenericConvolve<Input extends ImageBase<Input>, Output extends Imag
 	implements ConvolveInterface<Input,Output>
 {
 	Method m;
+	// direct call to the function. Which one is used depends on if a border is passed in
+	BoofLambdas.Process3<KernelBase,Input,Output> function;
+	BoofLambdas.Process4<KernelBase,Input,Output,ImageBorder> functionBorder;
 	KernelBase kernel;
 	BorderType type;
 	ImageBorder borderRule;
@@ -55,42 +59,21 @@ public class GenericConvolve<Input extends ImageBase<Input>, Output extends Imag
 		this.outputType = outputType;
 
 		Class<?> params[] = m.getParameterTypes();
-		if( type == BorderType.SKIP || type == BorderType.NORMALIZED )
+		if( type == BorderType.SKIP || type == BorderType.NORMALIZED ) {
 			this.borderRule = null;
-		else
+			function = BoofLambdas.bindStatic(m, BoofLambdas.Process3.class);
+		} else {
 			borderRule = FactoryImageBorder.single((Class) params[1], type);
+			functionBorder = BoofLambdas.bindStatic(m, BoofLambdas.Process4.class);
+		}
 	}
 
 	@Override
 	public void process(Input input, Output output) {
-		try {
-			if( kernel.getDimension() == 1 ) {
-				switch( type ) {
-					case SKIP:
-						m.invoke(null,kernel,input,output);
-						break;
-
-					case NORMALIZED:
-						m.invoke(null,kernel,input,output);
-						break;
-
-					default:
-						m.invoke(null,kernel,input,output, borderRule);
-						break;
-				}
-			} else {
-				switch( type ) {
-					case SKIP:
-					case NORMALIZED:
-						m.invoke(null,kernel,input,output);
-						break;
-
-					default:
-						m.invoke(null,kernel,input,output, borderRule);
-				}
-			}
-		} catch (IllegalAccessException | InvocationTargetException e) {
-			throw new RuntimeException(e);
+		if( borderRule == null ) {
+			function.process(kernel, input, output);
+		} else {
+			functionBorder.process(kernel, input, output, borderRule);
 		}
 	}
 
@@ -19,18 +19,19 @@
 package boofcv.abst.filter.convolve;
 
 import boofcv.core.image.border.BorderType;
+import boofcv.misc.BoofLambdas;
 import boofcv.struct.convolve.KernelBase;
 import boofcv.struct.image.ImageBase;
 import boofcv.struct.image.ImageType;
 
-import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
 
 
 /**
  * Generalized interface for filtering images with convolution kernels while skipping pixels.
  * Can invoke different techniques for handling image borders.  The first pixel sampled is always (0,0) and the
- * sampled pixels are (x*skip,y*skip).
+ * sampled pixels are (x*skip,y*skip). The convolution function is bound once using {@link BoofLambdas}
+ * so that it's invoked directly.
  *
  * @author Peter Abeles
  */
@@ -38,6 +39,7 @@ public class GenericConvolveDown<Input extends ImageBase<Input>, Output extends
 	implements ConvolveDown<Input,Output>
 {
 	Method m;
+	BoofLambdas.Process3Int<KernelBase,Input,Output> function;
 	KernelBase kernel;
 	BorderType type;
 	int skip;
@@ -49,6 +51,7 @@ public class GenericConvolveDown<Input extends ImageBase<Input>, Output extends
 							   ImageType<Input> inputType,
 							   ImageType<Output> outputType) {
 		this.m = m;
+		this.function = BoofLambdas.bindStatic(m, BoofLambdas.Process3Int.class);
 		this.kernel = kernel;
 		this.type = type;
 		this.skip = skip;
@@ -66,11 +69,7 @@ public class GenericConvolveDown<Input extends ImageBase<Input>, Output extends
 
 	@Override
 	public void process(Input input, Output output) {
-		try {
-			m.invoke(null,kernel,input,output,skip);
-		} catch (IllegalAccessException | InvocationTargetException e) {
-			throw new RuntimeException(e);
-		}
+		function.process(kernel,input,output,skip);
 	}
 
 	@Override
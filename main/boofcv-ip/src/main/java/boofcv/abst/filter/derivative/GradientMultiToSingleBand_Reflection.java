@@ -18,16 +18,16 @@
 
 package boofcv.abst.filter.derivative;
 
+import boofcv.misc.BoofLambdas;
 import boofcv.struct.image.ImageGray;
 import boofcv.struct.image.ImageMultiBand;
 import boofcv.struct.image.ImageType;
 
-import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
 
 /**
- * Implementation of {@link GradientMultiToSingleBand} which uses reflection to invoke static
- * functions.
+ * Implementation of {@link GradientMultiToSingleBand} which uses reflection to find static
+ * functions. The function is bound once using {@link BoofLambdas} so that it is invoked directly.
  *
  * @author Peter Abeles
  */
@@ -35,6 +35,7 @@ public class GradientMultiToSingleBand_Reflection<Input extends ImageMultiBand<I
 	implements GradientMultiToSingleBand<Input,Output>
 {
 	private Method m;
+	private BoofLambdas.Process4<Input,Input,Output,Output> function;
 	ImageType<Input> inputType;
 	Class<Output> outputType;
 
@@ -42,17 +43,14 @@ public class GradientMultiToSingleBand_Reflection<Input extends ImageMultiBand<I
 												ImageType<Input> inputType,
 												Class<Output> outputType) {
 		this.m = m;
+		this.function = BoofLambdas.bindStatic(m,BoofLambdas.Process4.class);
 		this.inputType = inputType;
 		this.outputType = outputType;
 	}
 
 	@Override
 	public void process(Input inDerivX, Input inDerivY, Output outDerivX, Output outDerivY) {
-		try {
-			m.invoke(null,inDerivX, inDerivY, outDerivX, outDerivY);
-		} catch (IllegalAccessException | InvocationTargetException e) {
-			throw new RuntimeException(e);
-		}
+		function.process(inDerivX, inDerivY, outDerivX, outDerivY);
 	}
 
 	@Override
@@ -21,16 +21,17 @@ package boofcv.abst.filter.derivative;
 import boofcv.core.image.border.BorderType;
 import boofcv.core.image.border.FactoryImageBorder;
 import boofcv.core.image.border.ImageBorder;
+import boofcv.misc.BoofLambdas;
 import boofcv.struct.BoofDefaults;
 import boofcv.struct.image.ImageGray;
 import boofcv.struct.image.ImageType;
 
-import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
 
 
 /**
- * Generic implementation which uses reflections to call derivative functions
+ * Generic implementation which uses reflections to find derivative functions. The function is bound once
+ * using {@link BoofLambdas} so that it is invoked directly.
  *
  * @author Peter Abeles
  */
@@ -43,19 +44,17 @@ public class ImageGradient_Reflection<Input extends ImageGray<Input>, Output ext
 
 	// the image derivative function
 	private Method m;
+	private BoofLambdas.Process4<Input,Output,Output,ImageBorder<Input>> function;
 
 	public ImageGradient_Reflection(Method m) {
 		this.m = m;
+		this.function = BoofLambdas.bindStatic(m,BoofLambdas.Process4.class);
 		setBorderType(borderType);
 	}
 
 	@Override
 	public void process(Input inputImage , Output derivX, Output derivY) {
-		try {
-			m.invoke(null,inputImage, derivX, derivY, border);
-		} catch (IllegalAccessException | InvocationTargetException e) {
-			throw new RuntimeException(e);
-		}
+		function.process(inputImage, derivX, derivY, border);
 	}
 
 	@Override
@@ -21,16 +21,17 @@ package boofcv.abst.filter.derivative;
 import boofcv.core.image.border.BorderType;
 import boofcv.core.image.border.FactoryImageBorder;
 import boofcv.core.image.border.ImageBorder;
+import boofcv.misc.BoofLambdas;
 import boofcv.struct.BoofDefaults;
 import boofcv.struct.image.ImageGray;
 import boofcv.struct.image.ImageType;
 
-import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
 
 
 /**
- * Generic implementation which uses reflections to call hessian functions
+ * Generic implementation which uses reflections to find hessian functions. The function is bound once
+ * using {@link BoofLambdas} so that it is invoked directly.
  *
  * @author Peter Abeles
  */
@@ -42,19 +43,17 @@ public class ImageHessian_Reflection<Output extends ImageGray<Output>>
 	ImageBorder<Output> border;
 	// the image hessian function
 	private Method m;
+	private BoofLambdas.Process6<Output,Output,Output,Output,Output,ImageBorder<Output>> function;
 
 	public ImageHessian_Reflection(Method m ) {
 		this.m = m;
+		this.function = BoofLambdas.bindStatic(m,BoofLambdas.Process6.class);
 		setBorderType(borderType);
 	}
 
 	@Override
 	public void process(Output inputDerivX, Output inputDerivY , Output derivXX, Output derivYY, Output derivXY) {
-		try {
-			m.invoke(null,inputDerivX, inputDerivY, derivXX, derivYY, derivXY, border);
-		} catch (IllegalAccessException | InvocationTargetException e) {
-			throw new RuntimeException(e);
-		}
+		function.process(inputDerivX, inputDerivY, derivXX, derivYY, derivXY, border);
 	}
 
 	@Override
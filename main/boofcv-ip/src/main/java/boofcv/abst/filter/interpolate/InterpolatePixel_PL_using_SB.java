@@ -101,4 +101,10 @@ public class InterpolatePixel_PL_using_SB<T extends ImageGray<T>>
 	public ImageType<Planar<T>> getImageType() {
 		throw new RuntimeException("Image type isn't determined until it processes an image");
 	}
+
+	@Override
+	public InterpolatePixelMB<Planar<T>> copy() {
+		InterpolatePixelS<T> copy = alg.copy();
+		return copy == null ? null : new InterpolatePixel_PL_using_SB<>(copy);
+	}
 }
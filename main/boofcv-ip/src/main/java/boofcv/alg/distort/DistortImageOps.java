@@ -269,6 +269,10 @@ public class DistortImageOps {
 	void distortPL(Planar<Input> input , Planar<Output> output ,
 				   ImageDistort<Input,Output> distortion )
 	{
+		if( distortion instanceof ImageDistortBasic_SB ) {
+			((ImageDistortBasic_SB<Input,Output>)distortion).applyBands(input,output,0,0,output.width,output.height);
+			return;
+		}
 		for( int band = 0; band < input.getNumBands(); band++ )
 			distortion.apply(input.getBand(band),output.getBand(band));
 	}
@@ -19,12 +19,27 @@
 package boofcv.alg.distort;
 
 import boofcv.alg.interpolate.InterpolatePixel;
+import boofcv.concurrency.BoofConcurrency;
+import boofcv.core.image.border.ImageBorder;
 import boofcv.struct.distort.PixelTransform2_F32;
 import boofcv.struct.image.ImageBase;
+import org.ddogleg.struct.FastQueue;
 
 /**
+ * <p>
  * Most basic implementation of {@link ImageDistort}. Computes the distortion from the dst to src image
  * for each pixel.  The dst pixel value is then set to the interpolated value of the src image.
+ * </p>
+ *
+ * <p>
+ * The output image is processed in square tiles which are aligned to the image's origin. The source pixel for
+ * every pixel in a tile is found first and then the tile is rendered. If only pixels inside the source image are
+ * rendered then tiles which map entirely outside of it are skipped. When {@link BoofConcurrency#USE_CONCURRENT}
+ * is true, the model supports {@link PixelTransform2_F32#copyConcurrent()}, and the interpolation supports
+ * {@link InterpolatePixel#copy()} then blocks of tiles are processed in different threads, each with its own
+ * copy of the model and interpolation. Whether copies are supported is checked when the model or the
+ * interpolation's border is changed, and copies of the interpolation are reused until its border is changed.
+ * </p>
  *
  * @author Peter Abeles
  */
@@ -45,6 +60,22 @@ public abstract class ImageDistortBasic
 	protected Input srcImg;
 	protected Output dstImg;
 
+	// width and height of a tile
+	protected int tileSize = 64;
+	// first tile inside the crop boundary and the number of tiles in each row
+	private int tileX0, tileY0, tilesX;
+
+	// storage for each block of tiles when processed concurrently
+	protected FastQueue<TileWork> workspace = new FastQueue<>(TileWork.class,true);
+	// storage used when processed in a single thread. References the original model and interpolation
+	protected TileWork singleWork = new TileWork();
+
+	// true if the interpolation and the model can be copied for use by other threads
+	private boolean interpCopySupported;
+	private boolean modelCopySupported;
+	// border of the interpolation when interpCopySupported was found
+	private ImageBorder<Input> checkedBorder;
+
 	/**
 	 * Specifies configuration parameters
 	 *
@@ -52,23 +83,18 @@ public abstract class ImageDistortBasic
 	 */
 	public ImageDistortBasic( Interpolate interp ) {
 		this.interp = interp;
+		checkInterpCopy();
 	}
 
 	@Override
 	public void setModel(PixelTransform2_F32 dstToSrc) {
 		this.dstToSrc = dstToSrc;
+		this.modelCopySupported = dstToSrc != null && copyModelConcurrent() != null;
 	}
 
 	@Override
 	public void apply(Input srcImg, Output dstImg) {
-		init(srcImg, dstImg);
-
-		x0 = 0;y0 = 0;x1 = dstImg.width;y1 = dstImg.height;
-
-		if(renderAll)
-			applyAll();
-		else
-			applyOnlyInside();
+		apply(srcImg,dstImg,0,0,dstImg.width,dstImg.height);
 	}
 
 	@Override
@@ -77,10 +103,7 @@ public abstract class ImageDistortBasic
 
 		x0 = dstX0;y0 = dstY0;x1 = dstX1;y1 = dstY1;
 
-		if(renderAll)
-			applyAll();
-		else
-			applyOnlyInside();
+		applyTiles();
 	}
 
 	protected void init(Input srcImg, Output dstImg) {
@@ -89,9 +112,135 @@ public abstract class ImageDistortBasic
 		interp.setImage(srcImg);
 	}
 
-	protected abstract void applyAll();
+	/**
+	 * Renders every tile which intersects the crop boundary
+	 */
+	protected void applyTiles() {
+		if( x1 <= x0 || y1 <= y0 )
+			return;
+
+		tileX0 = x0/tileSize;
+		tileY0 = y0/tileSize;
+		tilesX = (x1-1)/tileSize - tileX0 + 1;
+		int tilesY = (y1-1)/tileSize - tileY0 + 1;
+		int numTiles = tilesX*tilesY;
+
+		if( checkedBorder != interp.getBorder() )
+			checkInterpCopy();
+
+		if( BoofConcurrency.USE_CONCURRENT && numTiles > 1 && interpCopySupported && modelCopySupported ) {
+			BoofConcurrency.loopBlocks(0,numTiles,workspace,(w,tile0,tile1)->{
+				if( w.interp == null || w.interpBorder != checkedBorder ) {
+					w.interp = interp.copy();
+					w.interpBorder = checkedBorder;
+				}
+				w.interp.setImage(srcImg);
+				// the model's parameters can be changed without calling setModel() so it's copied every time
+				w.dstToSrc = copyModelConcurrent();
+				renderTiles(w,tile0,tile1);
+			});
+		} else {
+			singleWork.interp = interp;
+			singleWork.dstToSrc = dstToSrc;
+			renderTiles(singleWork,0,numTiles);
+		}
+	}
 
-	protected abstract void applyOnlyInside();
+	/**
+	 * Checks to see if the interpolation can be copied. The border is the only part of it which can be changed
+	 * after it has been created, and it might not support being copied.
+	 */
+	private void checkInterpCopy() {
+		checkedBorder = interp.getBorder();
+		interpCopySupported = interp.copy() != null;
+	}
+
+	/**
+	 * Creates a copy of the model which can be used by another thread.
+	 *
+	 * @return The copy or null if tiles can't be processed concurrently
+	 */
+	protected PixelTransform2_F32 copyModelConcurrent() {
+		return dstToSrc.copyConcurrent();
+	}
+
+	private void renderTiles( TileWork w , int tile0 , int tile1 ) {
+		for( int tile = tile0; tile < tile1; tile++ ) {
+			int tileX = tileX0 + tile%tilesX;
+			int tileY = tileY0 + tile/tilesX;
+
+			int tx0 = Math.max(x0,tileX*tileSize);
+			int ty0 = Math.max(y0,tileY*tileSize);
+			int tx1 = Math.min(x1,(tileX+1)*tileSize);
+			int ty1 = Math.min(y1,(tileY+1)*tileSize);
+
+			if( computeTile(w,tileX,tileY,tx0,ty0,tx1,ty1) )
+				renderTile(w,tx0,ty0,tx1,ty1);
+		}
+	}
+
+	/**
+	 * Finds the source pixel of every pixel in the tile and saves them in the work space.
+	 *
+	 * @param tileX Tile's x-coordinate in the tile grid
+	 * @param tileY Tile's y-coordinate in the tile grid
+	 * @return false if the tile can be skipped because none of its pixels will be rendered
+	 */
+	protected boolean computeTile( TileWork w , int tileX , int tileY , int tx0 , int ty0 , int tx1 , int ty1 ) {
+		final int length = (tx1-tx0)*(ty1-ty0)*2;
+		if( w.buffer.length < length )
+			w.buffer = new float[tileSize*tileSize*2];
+		w.coords = w.buffer;
+		w.offset = 0;
+		w.stride = (tx1-tx0)*2;
+
+		final float[] coords = w.buffer;
+		final PixelTransform2_F32 dstToSrc = w.dstToSrc;
+
+		int index = 0;
+		if( renderAll ) {
+			for( int y = ty0; y < ty1; y++ ) {
+				for( int x = tx0; x < tx1; x++ ) {
+					dstToSrc.compute(x,y);
+					coords[index++] = dstToSrc.distX;
+					coords[index++] = dstToSrc.distY;
+				}
+			}
+			return true;
+		}
+
+		// bounding box of all the source pixels. NaN is ignored since it won't be rendered
+		float minX = Float.MAX_VALUE, maxX = -Float.MAX_VALUE;
+		float minY = Float.MAX_VALUE, maxY = -Float.MAX_VALUE;
+		for( int y = ty0; y < ty1; y++ ) {
+			for( int x = tx0; x < tx1; x++ ) {
+				dstToSrc.compute(x,y);
+				float sx = dstToSrc.distX;
+				float sy = dstToSrc.distY;
+				coords[index++] = sx;
+				coords[index++] = sy;
+
+				if( sx < minX ) minX = sx;
+				if( sx > maxX ) maxX = sx;
+				if( sy < minY ) minY = sy;
+				if( sy > maxY ) maxY = sy;
+			}
+		}
+		return isInsideSource(minX,minY,maxX,maxY);
+	}
+
+	/**
+	 * Returns true if the rectangle intersects the region inside the source image which is rendered when
+	 * only inside pixels are rendered
+	 */
+	protected boolean isInsideSource( float minX , float minY , float maxX , float maxY ) {
+		return maxX >= 0 && maxY >= 0 && minX <= srcImg.width-1 && minY <= srcImg.height-1;
+	}
+
+	/**
+	 * Renders the pixels inside the tile using the source pixels in the work space.
+	 */
+	protected abstract void renderTile( TileWork w , int tx0 , int ty0 , int tx1 , int ty1 );
 
 	@Override
 	public void setRenderAll(boolean renderAll) {
@@ -102,4 +251,29 @@ public abstract class ImageDistortBasic
 	public boolean getRenderAll() {
 		return renderAll;
 	}
+
+	public PixelTransform2_F32 getModel() {
+		return dstToSrc;
+	}
+
+	/**
+	 * Storage used to render tiles in a single thread
+	 */
+	public static class TileWork {
+		// interpolation and model used by this thread
+		public InterpolatePixel interp;
+		public PixelTransform2_F32 dstToSrc;
+		// border of the original interpolation when interp was copied
+		public ImageBorder<?> interpBorder;
+
+		// source pixel of each pixel in the tile as (x,y) pairs. Row y of the tile starts at
+		// index offset + (y-ty0)*stride
+		public float[] coords;
+		public int offset, stride;
+
+		// storage for computed coordinates
+		public float[] buffer = new float[0];
+		// storage for interpolated values of multi-band images
+		public float[] values = new float[0];
+	}
 }
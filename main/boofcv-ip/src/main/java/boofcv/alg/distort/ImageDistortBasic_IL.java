@@ -31,9 +31,6 @@ public abstract class ImageDistortBasic_IL
 		<Input extends ImageInterleaved<Input>,Output extends ImageInterleaved<Output>>
 		extends ImageDistortBasic<Input,Output,InterpolatePixelMB<Input>> {
 
-	// storage for interpolated pixel values
-	float values[] = new float[0];
-
 	/**
 	 * Specifies configuration parameters
 	 *
@@ -44,45 +41,37 @@ public abstract class ImageDistortBasic_IL
 	}
 
 	@Override
-	protected void init(Input srcImg, Output dstImg) {
-		super.init(srcImg,dstImg);
-		if( values.length != srcImg.getNumBands() ) {
-			values = new float[ srcImg.getNumBands() ];
-		}
-	}
+	protected void renderTile( TileWork w , int tx0 , int ty0 , int tx1 , int ty1 ) {
+		final InterpolatePixelMB<Input> interp = (InterpolatePixelMB<Input>)w.interp;
+		final float[] coords = w.coords;
+		final int numBands = dstImg.numBands;
 
-	@Override
-	public void applyAll() {
+		if( w.values.length != srcImg.getNumBands() )
+			w.values = new float[ srcImg.getNumBands() ];
+		final float[] values = w.values;
 
-		// todo TO make this faster first apply inside the region which can process the fast border
-		// then do the slower border thingy
-		for( int y = y0; y < y1; y++ ) {
-			int indexDst = dstImg.startIndex + dstImg.stride*y + x0*dstImg.numBands;
-			for( int x = x0; x < x1; x++ , indexDst += dstImg.numBands ) {
-				dstToSrc.compute(x,y);
+		final float maxWidth = srcImg.getWidth()-1;
+		final float maxHeight = srcImg.getHeight()-1;
 
-				interp.get(dstToSrc.distX, dstToSrc.distY, values);
-				assign(indexDst,values);
-			}
-		}
-	}
+		for( int y = ty0; y < ty1; y++ ) {
+			int indexDst = dstImg.startIndex + dstImg.stride*y + tx0*numBands;
+			int indexSrc = w.offset + (y-ty0)*w.stride;
 
-	@Override
-	public void applyOnlyInside() {
-
-		float maxWidth = srcImg.getWidth()-1;
-		float maxHeight = srcImg.getHeight()-1;
-
-		for( int y = y0; y < y1; y++ ) {
-			int indexDst = dstImg.startIndex + dstImg.stride*y + x0*dstImg.numBands;
-			for( int x = x0; x < x1; x++ , indexDst += dstImg.numBands ) {
-				dstToSrc.compute(x,y);
-
-				if( dstToSrc.distX >= 0 && dstToSrc.distX <= maxWidth &&
-						dstToSrc.distY >= 0 && dstToSrc.distY <= maxHeight ) {
-					interp.get(dstToSrc.distX, dstToSrc.distY, values);
+			if( renderAll ) {
+				for( int x = tx0; x < tx1; x++ , indexDst += numBands , indexSrc += 2 ) {
+					interp.get(coords[indexSrc], coords[indexSrc+1], values);
 					assign(indexDst,values);
 				}
+			} else {
+				for( int x = tx0; x < tx1; x++ , indexDst += numBands , indexSrc += 2 ) {
+					float sx = coords[indexSrc];
+					float sy = coords[indexSrc+1];
+
+					if( sx >= 0 && sx <= maxWidth && sy >= 0 && sy <= maxHeight ) {
+						interp.get(sx, sy, values);
+						assign(indexDst,values);
+					}
+				}
 			}
 		}
 	}
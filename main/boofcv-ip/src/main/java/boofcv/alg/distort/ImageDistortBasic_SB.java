@@ -20,16 +20,26 @@ package boofcv.alg.distort;
 
 import boofcv.alg.interpolate.InterpolatePixelS;
 import boofcv.struct.image.ImageGray;
+import boofcv.struct.image.Planar;
 
 /**
  * Most basic implementation of {@link ImageDistort} for {@link ImageGray}. Computes the distortion from the
  * dst to src image for each pixel.  The dst pixel value is then set to the interpolated value of the src image.
+ * Every band in a {@link Planar} image can be rendered in a single pass using
+ * {@link #applyBands(Planar, Planar, int, int, int, int)}.
  *
  * @author Peter Abeles
  */
 public abstract class ImageDistortBasic_SB<Input extends ImageGray<Input>,Output extends ImageGray<Output>>
 		extends ImageDistortBasic<Input,Output,InterpolatePixelS<Input>> {
 
+	// bands in the input and output images. A gray image has a single band
+	protected Input[] srcBands;
+	protected Output[] dstBands;
+
+	private final ImageGray[] srcSingle = new ImageGray[1];
+	private final ImageGray[] dstSingle = new ImageGray[1];
+
 	/**
 	 * Specifies configuration parameters
 	 *
@@ -40,38 +50,75 @@ public abstract class ImageDistortBasic_SB<Input extends ImageGray<Input>,Output
 	}
 
 	@Override
-	public void applyAll() {
+	protected void init(Input srcImg, Output dstImg) {
+		super.init(srcImg, dstImg);
+		srcSingle[0] = srcImg;
+		dstSingle[0] = dstImg;
+		srcBands = (Input[])srcSingle;
+		dstBands = (Output[])dstSingle;
+	}
+
+	/**
+	 * Applies the distortion to every band in the image. The source pixel of each output pixel is only
+	 * computed once and is used by every band.
+	 *
+	 * @param srcImg Input image
+	 * @param dstImg Output image
+	 * @param dstX0 Left most crop boundary. Inclusive.
+	 * @param dstY0 Top most crop boundary. Inclusive.
+	 * @param dstX1 Right most crop boundary. Exclusive.
+	 * @param dstY1 Bottom most crop boundary. Exclusive.
+	 */
+	public void applyBands( Planar<Input> srcImg , Planar<Output> dstImg ,
+							int dstX0, int dstY0, int dstX1, int dstY1 ) {
+		if( srcImg.getNumBands() != dstImg.getNumBands() )
+			throw new IllegalArgumentException("Number of bands must be the same. "+srcImg.getNumBands()+" vs "+dstImg.getNumBands());
+		if( srcImg.getNumBands() == 0 )
+			return;
 
-		// todo TO make this faster first apply inside the region which can process the fast border
-		// then do the slower border thingy
-		for( int y = y0; y < y1; y++ ) {
-			int indexDst = dstImg.startIndex + dstImg.stride*y + x0;
-			for( int x = x0; x < x1; x++ , indexDst++ ) {
-				dstToSrc.compute(x,y);
+		init(srcImg.getBand(0), dstImg.getBand(0));
+		srcBands = srcImg.bands;
+		dstBands = dstImg.bands;
 
-				assign(indexDst,interp.get(dstToSrc.distX, dstToSrc.distY));
-			}
-		}
+		x0 = dstX0;y0 = dstY0;x1 = dstX1;y1 = dstY1;
+
+		applyTiles();
 	}
 
 	@Override
-	public void applyOnlyInside() {
+	protected void renderTile( TileWork w , int tx0 , int ty0 , int tx1 , int ty1 ) {
+		final InterpolatePixelS<Input> interp = (InterpolatePixelS<Input>)w.interp;
+		final float[] coords = w.coords;
+
+		final float maxWidth = srcImg.getWidth()-1;
+		final float maxHeight = srcImg.getHeight()-1;
+
+		for( int band = 0; band < srcBands.length; band++ ) {
+			final Output dst = dstBands[band];
+			if( srcBands.length > 1 )
+				interp.setImage(srcBands[band]);
 
-		float maxWidth = srcImg.getWidth()-1;
-		float maxHeight = srcImg.getHeight()-1;
+			for( int y = ty0; y < ty1; y++ ) {
+				int indexDst = dst.startIndex + dst.stride*y + tx0;
+				int indexSrc = w.offset + (y-ty0)*w.stride;
 
-		for( int y = y0; y < y1; y++ ) {
-			int indexDst = dstImg.startIndex + dstImg.stride*y + x0;
-			for( int x = x0; x < x1; x++ , indexDst++ ) {
-				dstToSrc.compute(x,y);
+				if( renderAll ) {
+					for( int x = tx0; x < tx1; x++ , indexDst++ , indexSrc += 2 ) {
+						assign(dst,indexDst,interp.get(coords[indexSrc], coords[indexSrc+1]));
+					}
+				} else {
+					for( int x = tx0; x < tx1; x++ , indexDst++ , indexSrc += 2 ) {
+						float sx = coords[indexSrc];
+						float sy = coords[indexSrc+1];
 
-				if( dstToSrc.distX >= 0 && dstToSrc.distX <= maxWidth &&
-						dstToSrc.distY >= 0 && dstToSrc.distY <= maxHeight ) {
-					assign(indexDst,interp.get(dstToSrc.distX, dstToSrc.distY));
+						if( sx >= 0 && sx <= maxWidth && sy >= 0 && sy <= maxHeight ) {
+							assign(dst,indexDst,interp.get(sx, sy));
+						}
+					}
 				}
 			}
 		}
 	}
 
-	protected abstract void assign( int indexDst , float value );
+	protected abstract void assign( Output dst , int indexDst , float value );
 }
@@ -20,35 +20,39 @@ package boofcv.alg.distort;
 
 import boofcv.alg.interpolate.InterpolatePixelS;
 import boofcv.struct.distort.PixelTransform2_F32;
+import boofcv.struct.distort.RemapTable_F32;
 import boofcv.struct.image.ImageGray;
-import georegression.struct.point.Point2D_F32;
 
 /**
  * Except for very simple functions, computing the per pixel distortion is an expensive operation.
  * To overcome this problem the distortion is computed once and cached.  Then when the image is distorted
  * again the save results are simply recalled and not computed again.
  *
+ * The cache is stored in a {@link RemapTable_F32}. If the model is a {@link PixelTransformTable_F32} then its
+ * table is used directly and not copied. The table must be the same size as the output image, otherwise an
+ * IllegalArgumentException is thrown. The bounding box of the source
+ * pixels in each tile is saved with the table, so that tiles outside the source image are skipped without
+ * reading the table. Since the table is only read, tiles are always processed concurrently when
+ * {@link boofcv.concurrency.BoofConcurrency#USE_CONCURRENT} is true.
+ *
  * @author Peter Abeles
  */
 public abstract class ImageDistortCache_SB<Input extends ImageGray<Input>,Output extends ImageGray<Output>>
-		implements ImageDistort<Input,Output> {
+		extends ImageDistortBasic_SB<Input,Output> {
 
 	// size of output image
 	private int width=-1,height=-1;
-	private Point2D_F32 map[];
-	// sub pixel interpolation
-	private InterpolatePixelS<Input> interp;
-
-	// transform
-	private PixelTransform2_F32 dstToSrc;
-
-	// crop boundary
-	private int x0,y0,x1,y1;
-
-	// should it render all pixels in the destination, even ones outside the input image
-	protected boolean renderAll = true;
-	protected Input srcImg;
-	protected Output dstImg;
+	// source pixel for each output pixel
+	private RemapTable_F32 table;
+	// true if the table was provided by the model and should not be modified
+	private boolean sharedTable;
+
+	// bounding box of the source pixels in each tile. (minX,minY,maxX,maxY)
+	private float[] tileBounds = new float[0];
+	// number of tiles in each row of the table
+	private int tableTilesX;
+	// true if tileBounds has been computed for the current table
+	private boolean boundsValid;
 
 	protected boolean dirty;
 
@@ -58,103 +62,111 @@ public abstract class ImageDistortCache_SB<Input extends ImageGray<Input>,Output
 	 * @param interp Interpolation algorithm
 	 */
 	public ImageDistortCache_SB(InterpolatePixelS<Input> interp) {
-		this.interp = interp;
+		super(interp);
 	}
 
 	@Override
 	public void setModel(PixelTransform2_F32 dstToSrc) {
+		super.setModel(dstToSrc);
 		this.dirty = true;
-		this.dstToSrc = dstToSrc;
-	}
-
-	@Override
-	public void apply(Input srcImg, Output dstImg) {
-		init(srcImg, dstImg);
-
-		x0 = 0;y0 = 0;x1 = dstImg.width;y1 = dstImg.height;
-
-		if( renderAll )
-			renderAll();
-		else
-			applyOnlyInside();
 	}
 
 	@Override
-	public void apply(Input srcImg, Output dstImg, int dstX0, int dstY0, int dstX1, int dstY1) {
-		init(srcImg, dstImg);
-
-		x0 = dstX0;y0 = dstY0;x1 = dstX1;y1 = dstY1;
-
-		if( renderAll )
-			renderAll();
-		else
-			applyOnlyInside();
-	}
-
-	private void init(Input srcImg, Output dstImg) {
+	protected void init(Input srcImg, Output dstImg) {
 		if( dirty || width != dstImg.width || height != dstImg.height) {
 			width = dstImg.width;
 			height = dstImg.height;
-			map = new Point2D_F32[width*height];
-			for( int i = 0; i < map.length; i++ ) {
-				map[i] = new Point2D_F32();
-			}
 
-			int index = 0;
-			for( int y = 0; y < height; y++ ) {
-				for( int x = 0; x < width; x++ ) {
-					dstToSrc.compute(x,y);
-					map[index++].set(dstToSrc.distX,dstToSrc.distY);
-				}
+			if( dstToSrc instanceof PixelTransformTable_F32 ) {
+				RemapTable_F32 modelTable = ((PixelTransformTable_F32)dstToSrc).getTable();
+				if( !modelTable.isSize(width,height) )
+					throw new IllegalArgumentException("Table is "+modelTable.width+"x"+modelTable.height+
+							" but the output image is "+width+"x"+height);
+				table = modelTable;
+				sharedTable = true;
+			} else {
+				if( table == null || sharedTable )
+					table = new RemapTable_F32(width,height);
+				else
+					table.reshape(width,height);
+				sharedTable = false;
+				table.compute(dstToSrc);
 			}
+			boundsValid = false;
 			dirty = false;
-		} else if( dstImg.width != width || dstImg.height != height )
-			throw new IllegalArgumentException("Unexpected dstImg dimension");
-
-		this.srcImg = srcImg;
-		this.dstImg = dstImg;
-		interp.setImage(srcImg);
-	}
-
-	public void renderAll() {
-
-		// todo TO make this faster first apply inside the region which can process the fast border
-		// then do the slower border thingy
-		for( int y = y0; y < y1; y++ ) {
-			int indexDst = dstImg.startIndex + dstImg.stride*y + x0;
-			for( int x = x0; x < x1; x++ , indexDst++ ) {
-				Point2D_F32 s = map[indexDst];
-
-				assign(indexDst,interp.get(s.x, s.y));
-			}
 		}
-	}
 
-	public void applyOnlyInside() {
-		float maxWidth = srcImg.getWidth()-1;
-		float maxHeight = srcImg.getHeight()-1;
+		// bounds are only needed when tiles can be skipped
+		if( !renderAll && !boundsValid ) {
+			computeTileBounds();
+			boundsValid = true;
+		}
 
-		for( int y = y0; y < y1; y++ ) {
-			int indexDst = dstImg.startIndex + dstImg.stride*y + x0;
-			for( int x = x0; x < x1; x++ , indexDst++ ) {
-				Point2D_F32 s = map[indexDst];
+		super.init(srcImg,dstImg);
+	}
 
-				if( s.x >= 0 && s.x <= maxWidth && s.y >= 0 && s.y <= maxHeight ) {
-					assign(indexDst,interp.get(s.x, s.y));
+	/**
+	 * Computes the bounding box of the source pixels in each tile
+	 */
+	private void computeTileBounds() {
+		tableTilesX = (width+tileSize-1)/tileSize;
+		int tableTilesY = (height+tileSize-1)/tileSize;
+		if( tileBounds.length < tableTilesX*tableTilesY*4 )
+			tileBounds = new float[tableTilesX*tableTilesY*4];
+
+		final float[] data = table.data;
+		int indexBounds = 0;
+		for( int tileY = 0; tileY < tableTilesY; tileY++ ) {
+			int ty0 = tileY*tileSize, ty1 = Math.min(height,ty0+tileSize);
+			for( int tileX = 0; tileX < tableTilesX; tileX++ ) {
+				int tx0 = tileX*tileSize, tx1 = Math.min(width,tx0+tileSize);
+
+				float minX = Float.MAX_VALUE, maxX = -Float.MAX_VALUE;
+				float minY = Float.MAX_VALUE, maxY = -Float.MAX_VALUE;
+				for( int y = ty0; y < ty1; y++ ) {
+					int index = (y*width + tx0)*2;
+					for( int x = tx0; x < tx1; x++ ) {
+						float sx = data[index++];
+						float sy = data[index++];
+						if( sx < minX ) minX = sx;
+						if( sx > maxX ) maxX = sx;
+						if( sy < minY ) minY = sy;
+						if( sy > maxY ) maxY = sy;
+					}
 				}
+				tileBounds[indexBounds++] = minX;
+				tileBounds[indexBounds++] = minY;
+				tileBounds[indexBounds++] = maxX;
+				tileBounds[indexBounds++] = maxY;
 			}
 		}
 	}
 
-	protected abstract void assign( int indexDst , float value );
-
+	/**
+	 * The model isn't used after the table has been computed, so every thread can share it
+	 */
 	@Override
-	public void setRenderAll(boolean renderAll) {
-		this.renderAll = renderAll;
+	protected PixelTransform2_F32 copyModelConcurrent() {
+		return dstToSrc;
 	}
 
 	@Override
-	public boolean getRenderAll() {
-		return renderAll;
+	protected boolean computeTile( TileWork w , int tileX , int tileY , int tx0 , int ty0 , int tx1 , int ty1 ) {
+		w.coords = table.data;
+		w.offset = (ty0*width + tx0)*2;
+		w.stride = width*2;
+
+		if( renderAll )
+			return true;
+
+		int index = (tileY*tableTilesX + tileX)*4;
+		return isInsideSource(tileBounds[index],tileBounds[index+1],tileBounds[index+2],tileBounds[index+3]);
+	}
+
+	/**
+	 * Returns the table which was computed or provided by the model. Null until an image has been distorted.
+	 */
+	public RemapTable_F32 getTable() {
+		return table;
 	}
 }
@@ -71,4 +71,11 @@ public class PixelTransformHomography_F32 extends PixelTransform2_F32 {
 	public Homography2D_F32 getModel() {
 		return homo;
 	}
+
+	@Override
+	public PixelTransformHomography_F32 copyConcurrent() {
+		PixelTransformHomography_F32 ret = new PixelTransformHomography_F32();
+		ret.set(homo);
+		return ret;
+	}
 }
@@ -0,0 +1,54 @@
+/*
+ * Copyright (c) 2011-2018, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.distort;
+
+import boofcv.struct.distort.PixelTransform2_F32;
+import boofcv.struct.distort.RemapTable_F32;
+
+/**
+ * Pixel transform which looks up the result in a precomputed {@link RemapTable_F32}. Passing it to
+ * {@link ImageDistortCache_SB} causes the table to be used directly instead of being computed again, which
+ * allows one table to be shared by multiple distortions or loaded from disk. Doesn't check bounds.
+ *
+ * @author Peter Abeles
+ */
+public class PixelTransformTable_F32 extends PixelTransform2_F32 {
+
+	RemapTable_F32 table;
+
+	public PixelTransformTable_F32( RemapTable_F32 table ) {
+		this.table = table;
+	}
+
+	@Override
+	public void compute( int x , int y ) {
+		int index = (y*table.width+x)*2;
+		distX = table.data[index];
+		distY = table.data[index+1];
+	}
+
+	public RemapTable_F32 getTable() {
+		return table;
+	}
+
+	@Override
+	public PixelTransformTable_F32 copyConcurrent() {
+		return new PixelTransformTable_F32(table);
+	}
+}
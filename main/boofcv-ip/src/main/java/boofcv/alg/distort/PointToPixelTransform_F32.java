@@ -49,4 +49,12 @@ public class PointToPixelTransform_F32 extends PixelTransform2_F32 {
 		distX = point.x;
 		distY = point.y;
 	}
+
+	@Override
+	public PixelTransform2_F32 copyConcurrent() {
+		Point2Transform2_F32 alg = this.alg.copyConcurrent();
+		if( alg == null )
+			return null;
+		return new PointToPixelTransform_F32(alg);
+	}
 }
@@ -70,4 +70,9 @@ public class PointTransformHomography_F32 implements Point2Transform2Model_F32<H
 	public Homography2D_F32 newInstanceModel() {
 		return new Homography2D_F32();
 	}
+
+	@Override
+	public PointTransformHomography_F32 copyConcurrent() {
+		return new PointTransformHomography_F32(homo);
+	}
 }
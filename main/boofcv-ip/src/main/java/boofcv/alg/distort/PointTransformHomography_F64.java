@@ -70,4 +70,9 @@ public class PointTransformHomography_F64 implements Point2Transform2Model_F64<H
 	public Homography2D_F64 newInstanceModel() {
 		return new Homography2D_F64();
 	}
+
+	@Override
+	public PointTransformHomography_F64 copyConcurrent() {
+		return new PointTransformHomography_F64(homo);
+	}
 }
@@ -36,7 +36,7 @@ public class ImplImageDistortCache_F32<Input extends ImageGray<Input>>
 	}
 
 	@Override
-	protected void assign(int indexDst, float value) {
-		dstImg.data[indexDst] = value;
+	protected void assign(GrayF32 dst, int indexDst, float value) {
+		dst.data[indexDst] = value;
 	}
 }
@@ -37,7 +37,7 @@ public class ImplImageDistortCache_I16<Input extends ImageGray<Input>, Output ex
 	}
 
 	@Override
-	protected void assign(int indexDst, float value) {
-		dstImg.data[indexDst] = (short)value;
+	protected void assign(Output dst, int indexDst, float value) {
+		dst.data[indexDst] = (short)value;
 	}
 }
@@ -37,7 +37,7 @@ public class ImplImageDistortCache_I8<Input extends ImageGray<Input>, Output ext
 	}
 
 	@Override
-	protected void assign(int indexDst, float value) {
-		dstImg.data[indexDst] = (byte)value;
+	protected void assign(Output dst, int indexDst, float value) {
+		dst.data[indexDst] = (byte)value;
 	}
 }
@@ -38,8 +38,8 @@ public class ImplImageDistort_I16<Input extends ImageGray<Input>, Output extends
 	}
 
 	@Override
-	protected void assign(int indexDst, float value) {
-		dstImg.data[indexDst] = (short)value;
+	protected void assign(Output dst, int indexDst, float value) {
+		dst.data[indexDst] = (short)value;
 	}
 
 }
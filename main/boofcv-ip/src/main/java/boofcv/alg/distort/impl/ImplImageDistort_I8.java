@@ -38,7 +38,7 @@ public class ImplImageDistort_I8<Input extends ImageGray<Input>, Output extends
 	}
 
 	@Override
-	protected void assign(int indexDst, float value) {
-		dstImg.data[indexDst] = (byte)value;
+	protected void assign(Output dst, int indexDst, float value) {
+		dst.data[indexDst] = (byte)value;
 	}
 }
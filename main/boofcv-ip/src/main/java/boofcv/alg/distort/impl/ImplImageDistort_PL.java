@@ -19,12 +19,15 @@
 package boofcv.alg.distort.impl;
 
 import boofcv.alg.distort.ImageDistort;
+import boofcv.alg.distort.ImageDistortBasic_SB;
 import boofcv.struct.distort.PixelTransform2_F32;
 import boofcv.struct.image.ImageGray;
 import boofcv.struct.image.Planar;
 
 /**
- * Implementation of {@link ImageDistort} for {@link Planar} images.
+ * Implementation of {@link ImageDistort} for {@link Planar} images. If the distortion for a single band is a
+ * {@link ImageDistortBasic_SB} then all the bands are rendered in a single pass and the source pixel of each
+ * output pixel is only computed once. Otherwise each band is distorted independently.
  * 
  * @author Peter Abeles
  */
@@ -44,13 +47,7 @@ public class ImplImageDistort_PL<Input extends ImageGray<Input>,Output extends I
 
 	@Override
 	public void apply(Planar<Input> srcImg, Planar<Output> dstImg) {
-		if( srcImg.getNumBands() != dstImg.getNumBands() )
-			throw new IllegalArgumentException("Number of bands must be the same. "+srcImg.getNumBands()+" vs "+dstImg.getNumBands());
-		int N = srcImg.getNumBands();
-		
-		for( int i = 0; i < N; i++ ) {
-			layerDistort.apply(srcImg.getBand(i),dstImg.getBand(i));
-		}
+		apply(srcImg,dstImg,0,0,dstImg.width,dstImg.height);
 	}
 
 	@Override
@@ -58,6 +55,11 @@ public class ImplImageDistort_PL<Input extends ImageGray<Input>,Output extends I
 					  int dstX0, int dstY0, int dstX1, int dstY1) {
 		if( srcImg.getNumBands() != dstImg.getNumBands() )
 			throw new IllegalArgumentException("Number of bands must be the same. "+srcImg.getNumBands()+" vs "+dstImg.getNumBands());
+		if( layerDistort instanceof ImageDistortBasic_SB ) {
+			((ImageDistortBasic_SB<Input,Output>)layerDistort).applyBands(srcImg,dstImg,dstX0, dstY0, dstX1, dstY1);
+			return;
+		}
+
 		int N = srcImg.getNumBands();
 
 		for( int i = 0; i < N; i++ ) {
@@ -38,7 +38,7 @@ public class ImplImageDistort_S32<Input extends ImageGray<Input>>
 	}
 
 	@Override
-	protected void assign(int indexDst, float value) {
-		dstImg.data[indexDst] = (int)value;
+	protected void assign(GrayS32 dst, int indexDst, float value) {
+		dst.data[indexDst] = (int)value;
 	}
 }
@@ -21,7 +21,10 @@ package boofcv.alg.filter.derivative;
 import boofcv.alg.InputSanityCheck;
 import boofcv.alg.filter.convolve.border.ConvolveJustBorder_General_SB;
 import boofcv.alg.filter.derivative.impl.GradientSobel_Outer;
+import boofcv.alg.filter.derivative.impl.GradientSobel_Outer_MT;
 import boofcv.alg.filter.derivative.impl.GradientSobel_UnrolledOuter;
+import boofcv.alg.filter.derivative.impl.GradientSobel_UnrolledOuter_MT;
+import boofcv.concurrency.BoofConcurrency;
 import boofcv.core.image.border.ImageBorder_F32;
 import boofcv.core.image.border.ImageBorder_S32;
 import boofcv.struct.convolve.Kernel2D;
@@ -90,7 +93,10 @@ public class GradientSobel {
 	 */
 	public static void process(GrayU8 orig, GrayS16 derivX, GrayS16 derivY, ImageBorder_S32<GrayU8> border ) {
 		InputSanityCheck.checkSameShape(orig, derivX, derivY);
-		GradientSobel_Outer.process_I8_sub(orig, derivX, derivY);
+		if( BoofConcurrency.USE_CONCURRENT )
+			GradientSobel_Outer_MT.process_I8_sub(orig, derivX, derivY);
+		else
+			GradientSobel_Outer.process_I8_sub(orig, derivX, derivY);
 
 		if( border != null ) {
 			border.setImage(orig);
@@ -109,7 +115,10 @@ public class GradientSobel {
 	 */
 	public static void process(GrayS16 orig, GrayS16 derivX, GrayS16 derivY, ImageBorder_S32<GrayS16> border ) {
 		InputSanityCheck.checkSameShape(orig, derivX, derivY);
-		GradientSobel_Outer.process_I8_sub(orig, derivX, derivY);
+		if( BoofConcurrency.USE_CONCURRENT )
+			GradientSobel_Outer_MT.process_I8_sub(orig, derivX, derivY);
+		else
+			GradientSobel_Outer.process_I8_sub(orig, derivX, derivY);
 
 		if( border != null ) {
 			border.setImage(orig);
@@ -130,7 +139,10 @@ public class GradientSobel {
 		InputSanityCheck.checkSameShape(orig, derivX, derivY);
 
 //		GradientSobel_Outer.process_F32(orig, derivX, derivY);
-		GradientSobel_UnrolledOuter.process_F32_sub(orig, derivX, derivY);
+		if( BoofConcurrency.USE_CONCURRENT )
+			GradientSobel_UnrolledOuter_MT.process_F32_sub(orig, derivX, derivY);
+		else
+			GradientSobel_UnrolledOuter.process_F32_sub(orig, derivX, derivY);
 
 		if( border != null ) {
 			border.setImage(orig);
@@ -0,0 +1,677 @@
+/*
+ * Copyright (c) 2011-2018, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.filter.pipeline;
+
+import boofcv.alg.filter.kernel.KernelMath;
+import boofcv.concurrency.BoofConcurrency;
+import boofcv.factory.filter.kernel.FactoryKernelGaussian;
+import boofcv.struct.convolve.Kernel1D_F32;
+import boofcv.struct.image.*;
+import org.ddogleg.struct.FastQueue;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * <p>
+ * Applies a chain of common preprocessing operations in a single pass through the image without creating full sized
+ * intermediate images. The input is converted into a gray scale image by averaging its bands, optionally blurred by
+ * one or more separable normalized convolutions, then written out as a {@link GrayF32}, thresholded into a
+ * {@link GrayU8}, or its Sobel gradient is computed. Normally each of those steps would write a full image that's
+ * then read back by the next step.
+ * </p>
+ *
+ * <pre>
+ * StripPipeline&lt;InterleavedU8&gt; pipeline = new StripPipeline&lt;&gt;(ImageType.il(3,InterleavedU8.class)).gaussian(-1,2);
+ * pipeline.threshold(color,binary,100,false);
+ * </pre>
+ *
+ * <p>
+ * Rows are computed lazily. Each intermediate step only keeps as many rows as the step after it needs in a
+ * ring buffer, e.g. 2*radius+1 rows before a vertical convolution, so the working set stays in cache
+ * even for large images. When concurrency is turned on the image is split into horizontal strips which are processed
+ * independently. Rows which border two strips are computed by both strips.
+ * </p>
+ *
+ * <p>
+ * All processing is done with floats. Results match converting the input into a floating point image, computing
+ * the average of its bands, {@link boofcv.alg.filter.blur.BlurImageOps#gaussian}, then
+ * {@link boofcv.alg.filter.binary.ThresholdImageOps#threshold} or {@link boofcv.alg.filter.derivative.GradientSobel}
+ * with an extended border, up to floating point error. Note that converting an integer image using
+ * {@link boofcv.core.image.ConvertImage#average} will round the average.
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+public class StripPipeline<In extends ImageBase<In>> {
+
+	ImageType<In> inputType;
+
+	// reads a single band in a row of the input image
+	RowReader reader;
+
+	// Level 0 is the input converted to gray. Every vertical convolution adds another level
+	List<Level> levels = new ArrayList<>();
+
+	// storage for each strip
+	FastQueue<Strip> strips = new FastQueue<>(Strip.class,true);
+
+	/**
+	 * Specifies the type of input image
+	 *
+	 * @param inputType Type of input image
+	 */
+	public StripPipeline( ImageType<In> inputType ) {
+		this.inputType = inputType;
+		this.reader = createReader(inputType);
+		levels.add(new Level(null));
+	}
+
+	/**
+	 * Adds a Gaussian blur. Same as {@link boofcv.alg.filter.blur.BlurImageOps#gaussian}.
+	 *
+	 * @param sigma Gaussian distribution's sigma.  If &le; 0 then will be selected based on radius.
+	 * @param radius Radius of the Gaussian blur function. If &le; 0 then radius will be determined by sigma.
+	 */
+	public StripPipeline<In> gaussian( double sigma , int radius ) {
+		Kernel1D_F32 kernel = FactoryKernelGaussian.gaussian(Kernel1D_F32.class,sigma,radius);
+		return convolve(kernel,kernel);
+	}
+
+	/**
+	 * Adds a separable normalized convolution. Same as
+	 * {@link boofcv.alg.filter.convolve.ConvolveImageNormalized#horizontal} followed by
+	 * {@link boofcv.alg.filter.convolve.ConvolveImageNormalized#vertical}.
+	 *
+	 * @param horizontal Kernel applied along the x-axis. If null it's skipped.
+	 * @param vertical Kernel applied along the y-axis. If null it's skipped.
+	 */
+	public StripPipeline<In> convolve( Kernel1D_F32 horizontal , Kernel1D_F32 vertical ) {
+		if( horizontal != null )
+			levels.get(levels.size()-1).horizontal.add(normalize(horizontal));
+		if( vertical != null )
+			levels.add(new Level(normalize(vertical)));
+		return this;
+	}
+
+	private static Kernel1D_F32 normalize( Kernel1D_F32 kernel ) {
+		Kernel1D_F32 k = kernel.copy();
+		KernelMath.normalizeSumToOne(k);
+		return k;
+	}
+
+	/**
+	 * Applies the pipeline and saves the results
+	 *
+	 * @param input Input image. Not modified.
+	 * @param output Output image. Modified.
+	 */
+	public void process( In input , GrayF32 output ) {
+		output.reshape(input.width,input.height);
+		processStrips(input,0,(strip,y)->{
+			float[] row = rowOf(strip,levels.size()-1,y);
+			System.arraycopy(row,0,output.data,output.startIndex + y*output.stride,input.width);
+		});
+	}
+
+	/**
+	 * Applies the pipeline and then thresholds the results. Same as
+	 * {@link boofcv.alg.filter.binary.ThresholdImageOps#threshold(GrayF32, GrayU8, float, boolean)}
+	 *
+	 * @param input Input image. Not modified.
+	 * @param output Binary output image. Modified.
+	 * @param threshold threshold value.
+	 * @param down If true then the inequality &le; is used, otherwise if false then &gt; is used.
+	 */
+	public void threshold( In input , GrayU8 output , float threshold , boolean down ) {
+		output.reshape(input.width,input.height);
+		final int width = input.width;
+		processStrips(input,0,(strip,y)->{
+			float[] row = rowOf(strip,levels.size()-1,y);
+			int indexOut = output.startIndex + y*output.stride;
+			if( down ) {
+				for( int x = 0; x < width; x++ ) {
+					output.data[indexOut++] = (byte)(row[x] <= threshold ? 1 : 0);
+				}
+			} else {
+				for( int x = 0; x < width; x++ ) {
+					output.data[indexOut++] = (byte)(row[x] > threshold ? 1 : 0);
+				}
+			}
+		});
+	}
+
+	/**
+	 * Applies the pipeline and then computes the image gradient using a Sobel kernel with an extended border.
+	 * Same as {@link boofcv.alg.filter.derivative.GradientSobel#process(GrayF32, GrayF32, GrayF32, boofcv.core.image.border.ImageBorder_F32)}
+	 *
+	 * @param input Input image. Not modified.
+	 * @param derivX Derivative along the x-axis. Modified.
+	 * @param derivY Derivative along the y-axis. Modified.
+	 */
+	public void sobel( In input , GrayF32 derivX , GrayF32 derivY ) {
+		derivX.reshape(input.width,input.height);
+		derivY.reshape(input.width,input.height);
+		final int width = input.width;
+		final int height = input.height;
+		final int level = levels.size()-1;
+		processStrips(input,1,(strip,y)->{
+			float[] r0 = rowOf(strip,level,Math.max(0,y-1));
+			float[] r1 = rowOf(strip,level,y);
+			float[] r2 = rowOf(strip,level,Math.min(height-1,y+1));
+
+			final float[] dataX = derivX.data;
+			final float[] dataY = derivY.data;
+			final int indexX = derivX.startIndex + y*derivX.stride;
+			final int indexY = derivY.startIndex + y*derivY.stride;
+			for( int x = 1; x < width-1; x++ ) {
+				float a = r0[x+1]-r0[x-1];
+				float b = r1[x+1]-r1[x-1];
+				float c = r2[x+1]-r2[x-1];
+				dataX[indexX+x] = 0.25f*(a+c) + 0.5f*b;
+
+				a = r2[x-1]-r0[x-1];
+				b = r2[x]-r0[x];
+				c = r2[x+1]-r0[x+1];
+				dataY[indexY+x] = 0.25f*(a+c) + 0.5f*b;
+			}
+
+			// extended border along the left and right sides
+			sobelPixel(r0,r1,r2,width,0,dataX,indexX,dataY,indexY);
+			if( width > 1 )
+				sobelPixel(r0,r1,r2,width,width-1,dataX,indexX+width-1,dataY,indexY+width-1);
+		});
+	}
+
+	private static void sobelPixel( float[] r0 , float[] r1 , float[] r2 , int width , int x ,
+									float[] derivX , int indexX , float[] derivY , int indexY ) {
+		int x0 = x > 0 ? x-1 : 0;
+		int x1 = x < width-1 ? x+1 : width-1;
+		derivX[indexX] = 0.25f*(r0[x1]-r0[x0]) + 0.5f*(r1[x1]-r1[x0]) + 0.25f*(r2[x1]-r2[x0]);
+		derivY[indexY] = 0.25f*(r2[x0]-r0[x0]) + 0.5f*(r2[x]-r0[x]) + 0.25f*(r2[x1]-r0[x1]);
+	}
+
+	/**
+	 * Splits the image into strips and passes every row in them to the sink
+	 *
+	 * @param sinkRadius Number of rows above and below which the sink reads from the last level
+	 */
+	private void processStrips( In input , int sinkRadius , RowSink sink ) {
+		if( input.width == 0 || input.height == 0 )
+			return;
+
+		if( BoofConcurrency.USE_CONCURRENT ) {
+			BoofConcurrency.loopBlocks(0,input.height,strips,(strip,y0,y1)->
+					processStrip(input,sinkRadius,sink,strip,y0,y1));
+		} else {
+			strips.resize(1);
+			processStrip(input,sinkRadius,sink,strips.get(0),0,input.height);
+		}
+	}
+
+	private void processStrip( In input , int sinkRadius , RowSink sink , Strip strip , int y0 , int y1 ) {
+		strip.initialize(this,input,sinkRadius);
+		for( int y = y0; y < y1; y++ ) {
+			sink.process(strip,y);
+		}
+	}
+
+	/**
+	 * Returns row y from the specified level. Rows are computed as needed and must be requested in order
+	 * within the ring buffer's window.
+	 */
+	float[] rowOf( Strip strip , int level , int y ) {
+		if( strip.next[level] == Integer.MIN_VALUE )
+			strip.next[level] = y;
+
+		final float[][] ring = strip.rings[level];
+		while( strip.next[level] <= y ) {
+			int row = strip.next[level]++;
+			computeRow(strip,level,row,ring[row % ring.length]);
+		}
+		return ring[y % ring.length];
+	}
+
+	/**
+	 * Computes a row in the level and writes it into the output row
+	 */
+	private void computeRow( Strip strip , int level , int y , float[] output ) {
+		Level l = levels.get(level);
+		final int width = strip.image.width;
+
+		// Each level has its own work space since computing this row can require rows from lower levels.
+		// The first operation writes into the output when there are no horizontal operations
+		final float[] work0 = strip.work[level][0];
+		final float[] work1 = strip.work[level][1];
+		float[] target = l.horizontal.isEmpty() ? output : work0;
+
+		if( level == 0 ) {
+			readGray(strip.image,y,target);
+		} else {
+			convolveVertical(strip,level,l.vertical,y,target);
+		}
+
+		float[] src = target;
+		for( int i = 0; i < l.horizontal.size(); i++ ) {
+			float[] dst = i == l.horizontal.size()-1 ? output : (src == work0 ? work1 : work0);
+			convolveHorizontal(l.horizontal.get(i),src,dst,width);
+			src = dst;
+		}
+	}
+
+	/**
+	 * Reads a row from the input and converts it into gray by averaging the bands
+	 */
+	private void readGray( ImageBase image , int y , float[] row ) {
+		final int width = image.width;
+		switch( inputType.getFamily() ) {
+			case GRAY:
+				reader.read(image,image.startIndex + y*image.stride,1,row,width,false);
+				break;
+
+			case INTERLEAVED: {
+				int numBands = ((ImageInterleaved)image).getNumBands();
+				int index = image.startIndex + y*image.stride;
+				for( int band = 0; band < numBands; band++ ) {
+					reader.read(image,index+band,numBands,row,width,band > 0);
+				}
+				divide(row,width,numBands);
+			} break;
+
+			case PLANAR: {
+				Planar planar = (Planar)image;
+				int numBands = planar.getNumBands();
+				for( int band = 0; band < numBands; band++ ) {
+					ImageGray b = planar.getBand(band);
+					reader.read(b,b.startIndex + y*b.stride,1,row,width,band > 0);
+				}
+				divide(row,width,numBands);
+			} break;
+
+			default:
+				throw new IllegalArgumentException("Unknown family");
+		}
+	}
+
+	private static void divide( float[] row , int width , int numBands ) {
+		if( numBands == 1 )
+			return;
+		float scale = 1.0f/numBands;
+		for( int x = 0; x < width; x++ ) {
+			row[x] *= scale;
+		}
+	}
+
+	/**
+	 * Normalized convolution along the y-axis using rows from the previous level. Rows outside the image are
+	 * skipped and the kernel is renormalized.
+	 */
+	private void convolveVertical( Strip strip , int level , Kernel1D_F32 kernel , int y , float[] output ) {
+		final int width = strip.image.width;
+		final int offset = kernel.offset;
+		final float[] k = kernel.data;
+
+		int i0 = Math.max(0,y-offset);
+		int i1 = Math.min(strip.image.height,y-offset+kernel.width);
+
+		// The ring buffer can hold as many rows as there are elements in the kernel, so all the rows are
+		// valid at the same time
+		final float[][] rows = strip.window[level];
+		for( int i = i0; i < i1; i++ ) {
+			rows[i-i0] = rowOf(strip,level-1,i);
+		}
+
+		if( i1-i0 == kernel.width ) {
+			switch( kernel.width ) {
+				case 3: vertical3(k,rows,output,width); return;
+				case 5: vertical5(k,rows,output,width); return;
+				case 7: vertical7(k,rows,output,width); return;
+			}
+		}
+
+		// index of the kernel element applied to the first row
+		final int kernelStart = i0-y+offset;
+		float weight = 0;
+		for( int i = 0; i < i1-i0; i++ ) {
+			final float kv = k[kernelStart+i];
+			final float[] row = rows[i];
+			if( i == 0 ) {
+				for( int x = 0; x < width; x++ ) {
+					output[x] = row[x]*kv;
+				}
+			} else {
+				for( int x = 0; x < width; x++ ) {
+					output[x] += row[x]*kv;
+				}
+			}
+			weight += kv;
+		}
+
+		// the kernel sums to one so only rows along the image border need to be normalized
+		if( i1-i0 != kernel.width ) {
+			for( int x = 0; x < width; x++ ) {
+				output[x] /= weight;
+			}
+		}
+	}
+
+	/**
+	 * Normalized convolution along the x-axis. Pixels outside the image are skipped and the kernel is renormalized.
+	 */
+	static void convolveHorizontal( Kernel1D_F32 kernel , float[] input , float[] output , int width ) {
+		final float[] k = kernel.data;
+		final int offset = kernel.offset;
+		final int kernelWidth = kernel.width;
+
+		int interior0 = Math.min(width,offset);
+		int interior1 = Math.max(interior0,width-(kernelWidth-offset-1));
+
+		switch( kernelWidth ) {
+			case 3: horizontal3(k,offset,input,output,interior0,interior1); break;
+			case 5: horizontal5(k,offset,input,output,interior0,interior1); break;
+			case 7: horizontal7(k,offset,input,output,interior0,interior1); break;
+			default:
+				for( int x = interior0; x < interior1; x++ ) {
+					int i = x-offset;
+					float total = 0;
+					for( int j = 0; j < kernelWidth; j++ ) {
+						total += input[i+j]*k[j];
+					}
+					output[x] = total;
+				}
+		}
+
+		for( int x = 0; x < interior0; x++ ) {
+			output[x] = convolveBorder(k,offset,input,width,x);
+		}
+		for( int x = interior1; x < width; x++ ) {
+			output[x] = convolveBorder(k,offset,input,width,x);
+		}
+	}
+
+	private static void horizontal3( float[] k , int offset , float[] input , float[] output , int x0 , int x1 ) {
+		final float k0 = k[0],k1 = k[1],k2 = k[2];
+		for( int x = x0, i = x0-offset; x < x1; x++, i++ ) {
+			output[x] = input[i]*k0 + input[i+1]*k1 + input[i+2]*k2;
+		}
+	}
+
+	private static void horizontal5( float[] k , int offset , float[] input , float[] output , int x0 , int x1 ) {
+		final float k0 = k[0],k1 = k[1],k2 = k[2],k3 = k[3],k4 = k[4];
+		for( int x = x0, i = x0-offset; x < x1; x++, i++ ) {
+			output[x] = input[i]*k0 + input[i+1]*k1 + input[i+2]*k2 + input[i+3]*k3 + input[i+4]*k4;
+		}
+	}
+
+	private static void horizontal7( float[] k , int offset , float[] input , float[] output , int x0 , int x1 ) {
+		final float k0 = k[0],k1 = k[1],k2 = k[2],k3 = k[3],k4 = k[4],k5 = k[5],k6 = k[6];
+		for( int x = x0, i = x0-offset; x < x1; x++, i++ ) {
+			output[x] = input[i]*k0 + input[i+1]*k1 + input[i+2]*k2 + input[i+3]*k3 + input[i+4]*k4 + input[i+5]*k5 + input[i+6]*k6;
+		}
+	}
+
+	private static void vertical3( float[] k , float[][] rows , float[] output , int width ) {
+		final float k0 = k[0],k1 = k[1],k2 = k[2];
+		final float[] r0 = rows[0],r1 = rows[1],r2 = rows[2];
+		for( int x = 0; x < width; x++ ) {
+			output[x] = r0[x]*k0 + r1[x]*k1 + r2[x]*k2;
+		}
+	}
+
+	private static void vertical5( float[] k , float[][] rows , float[] output , int width ) {
+		final float k0 = k[0],k1 = k[1],k2 = k[2],k3 = k[3],k4 = k[4];
+		final float[] r0 = rows[0],r1 = rows[1],r2 = rows[2],r3 = rows[3],r4 = rows[4];
+		for( int x = 0; x < width; x++ ) {
+			output[x] = r0[x]*k0 + r1[x]*k1 + r2[x]*k2 + r3[x]*k3 + r4[x]*k4;
+		}
+	}
+
+	private static void vertical7( float[] k , float[][] rows , float[] output , int width ) {
+		final float k0 = k[0],k1 = k[1],k2 = k[2],k3 = k[3],k4 = k[4],k5 = k[5],k6 = k[6];
+		final float[] r0 = rows[0],r1 = rows[1],r2 = rows[2],r3 = rows[3],r4 = rows[4],r5 = rows[5],r6 = rows[6];
+		for( int x = 0; x < width; x++ ) {
+			output[x] = r0[x]*k0 + r1[x]*k1 + r2[x]*k2 + r3[x]*k3 + r4[x]*k4 + r5[x]*k5 + r6[x]*k6;
+		}
+	}
+
+	private static float convolveBorder( float[] k , int offset , float[] input , int width , int x ) {
+		int j0 = Math.max(0,x-offset);
+		int j1 = Math.min(width,x-offset+k.length);
+		float total = 0;
+		float weight = 0;
+		for( int j = j0; j < j1; j++ ) {
+			float v = k[j-x+offset];
+			total += input[j]*v;
+			weight += v;
+		}
+		return total/weight;
+	}
+
+	public ImageType<In> getInputType() {
+		return inputType;
+	}
+
+	/**
+	 * Number of vertical convolutions in the pipeline
+	 */
+	public int getNumberOfVertical() {
+		return levels.size()-1;
+	}
+
+	/**
+	 * Operations which are applied to compute a row in a level
+	 */
+	static class Level {
+		// convolution applied to rows in the previous level. null for the first level
+		Kernel1D_F32 vertical;
+		// convolutions applied to each row after the vertical convolution
+		List<Kernel1D_F32> horizontal = new ArrayList<>();
+
+		Level( Kernel1D_F32 vertical ) {
+			this.vertical = vertical;
+		}
+	}
+
+	/**
+	 * Storage for processing a single strip
+	 */
+	public static class Strip {
+		// image being processed
+		ImageBase image;
+		// ring buffer of rows for each level
+		float[][][] rings = new float[0][][];
+		// rows which are being convolved by the vertical kernel in each level
+		float[][][] window = new float[0][][];
+		// index of the next row to be computed in each level. MIN_VALUE if no row has been computed yet
+		int[] next = new int[0];
+		// work space for horizontal convolutions in each level
+		float[][][] work = new float[0][][];
+
+		void initialize( StripPipeline<?> owner , ImageBase image , int sinkRadius ) {
+			this.image = image;
+			final int width = image.width;
+			final int numLevels = owner.levels.size();
+
+			if( rings.length != numLevels ) {
+				rings = new float[numLevels][][];
+				window = new float[numLevels][][];
+				work = new float[numLevels][2][0];
+				next = new int[numLevels];
+			}
+			for( int level = 0; level < numLevels; level++ ) {
+				// number of rows which are needed by whatever reads from this level
+				int size;
+				if( level+1 < numLevels )
+					size = owner.levels.get(level+1).vertical.width;
+				else
+					size = 2*sinkRadius+1;
+
+				float[][] ring = rings[level];
+				if( ring == null || ring.length != size || ring[0].length < width ) {
+					ring = rings[level] = new float[size][];
+					for( int i = 0; i < size; i++ ) {
+						ring[i] = new float[width];
+					}
+				}
+				next[level] = Integer.MIN_VALUE;
+
+				Kernel1D_F32 vertical = owner.levels.get(level).vertical;
+				if( vertical != null && (window[level] == null || window[level].length != vertical.width) )
+					window[level] = new float[vertical.width][];
+
+				if( !owner.levels.get(level).horizontal.isEmpty() && work[level][0].length < width ) {
+					work[level][0] = new float[width];
+					work[level][1] = new float[width];
+				}
+			}
+		}
+	}
+
+	/**
+	 * Processes a row in the final level
+	 */
+	interface RowSink {
+		void process( Strip strip , int y );
+	}
+
+	/**
+	 * Reads a single band from a row in the image into a float array
+	 */
+	interface RowReader {
+		/**
+		 * @param index Index of the first pixel in the band
+		 * @param step Number of elements between pixels
+		 * @param add If true the values are added to the row instead of being assigned
+		 */
+		void read( ImageBase image , int index , int step , float[] row , int width , boolean add );
+	}
+
+	static RowReader createReader( ImageType<?> type ) {
+		boolean interleaved = type.getFamily() == ImageType.Family.INTERLEAVED;
+		switch( type.getDataType() ) {
+			case U8: return interleaved ?
+					(image,index,step,row,width,add)->readU8(((InterleavedI8)image).data,index,step,row,width,add) :
+					(image,index,step,row,width,add)->readU8(((GrayI8)image).data,index,step,row,width,add);
+			case S8: return interleaved ?
+					(image,index,step,row,width,add)->readS8(((InterleavedI8)image).data,index,step,row,width,add) :
+					(image,index,step,row,width,add)->readS8(((GrayI8)image).data,index,step,row,width,add);
+			case U16: return interleaved ?
+					(image,index,step,row,width,add)->readU16(((InterleavedI16)image).data,index,step,row,width,add) :
+					(image,index,step,row,width,add)->readU16(((GrayI16)image).data,index,step,row,width,add);
+			case S16: return interleaved ?
+					(image,index,step,row,width,add)->readS16(((InterleavedI16)image).data,index,step,row,width,add) :
+					(image,index,step,row,width,add)->readS16(((GrayI16)image).data,index,step,row,width,add);
+			case S32: return interleaved ?
+					(image,index,step,row,width,add)->readS32(((InterleavedS32)image).data,index,step,row,width,add) :
+					(image,index,step,row,width,add)->readS32(((GrayS32)image).data,index,step,row,width,add);
+			case F32: return interleaved ?
+					(image,index,step,row,width,add)->readF32(((InterleavedF32)image).data,index,step,row,width,add) :
+					(image,index,step,row,width,add)->readF32(((GrayF32)image).data,index,step,row,width,add);
+			case F64: return interleaved ?
+					(image,index,step,row,width,add)->readF64(((InterleavedF64)image).data,index,step,row,width,add) :
+					(image,index,step,row,width,add)->readF64(((GrayF64)image).data,index,step,row,width,add);
+			default:
+				throw new IllegalArgumentException("Unsupported data type "+type.getDataType());
+		}
+	}
+
+	private static void readU8( byte[] data , int index , int step , float[] row , int width , boolean add ) {
+		if( add ) {
+			for( int x = 0; x < width; x++, index += step ) {
+				row[x] += data[index] & 0xFF;
+			}
+		} else {
+			for( int x = 0; x < width; x++, index += step ) {
+				row[x] = data[index] & 0xFF;
+			}
+		}
+	}
+
+	private static void readS8( byte[] data , int index , int step , float[] row , int width , boolean add ) {
+		if( add ) {
+			for( int x = 0; x < width; x++, index += step ) {
+				row[x] += data[index];
+			}
+		} else {
+			for( int x = 0; x < width; x++, index += step ) {
+				row[x] = data[index];
+			}
+		}
+	}
+
+	private static void readU16( short[] data , int index , int step , float[] row , int width , boolean add ) {
+		if( add ) {
+			for( int x = 0; x < width; x++, index += step ) {
+				row[x] += data[index] & 0xFFFF;
+			}
+		} else {
+			for( int x = 0; x < width; x++, index += step ) {
+				row[x] = data[index] & 0xFFFF;
+			}
+		}
+	}
+
+	private static void readS16( short[] data , int index , int step , float[] row , int width , boolean add ) {
+		if( add ) {
+			for( int x = 0; x < width; x++, index += step ) {
+				row[x] += data[index];
+			}
+		} else {
+			for( int x = 0; x < width; x++, index += step ) {
+				row[x] = data[index];
+			}
+		}
+	}
+
+	private static void readS32( int[] data , int index , int step , float[] row , int width , boolean add ) {
+		if( add ) {
+			for( int x = 0; x < width; x++, index += step ) {
+				row[x] += data[index];
+			}
+		} else {
+			for( int x = 0; x < width; x++, index += step ) {
+				row[x] = data[index];
+			}
+		}
+	}
+
+	private static void readF32( float[] data , int index , int step , float[] row , int width , boolean add ) {
+		if( add ) {
+			for( int x = 0; x < width; x++, index += step ) {
+				row[x] += data[index];
+			}
+		} else {
+			for( int x = 0; x < width; x++, index += step ) {
+				row[x] = data[index];
+			}
+		}
+	}
+
+	private static void readF64( double[] data , int index , int step , float[] row , int width , boolean add ) {
+		if( add ) {
+			for( int x = 0; x < width; x++, index += step ) {
+				row[x] += (float)data[index];
+			}
+		} else {
+			for( int x = 0; x < width; x++, index += step ) {
+				row[x] = (float)data[index];
+			}
+		}
+	}
+}
@@ -85,4 +85,15 @@ public interface InterpolatePixel<T extends ImageBase<T>> {
 	 */
 	public ImageType<T> getImageType();
 
+	/**
+	 * Creates a new instance of this interpolation algorithm with the same configuration.  Nothing is
+	 * shared with the original, including the border, so the copy can be used in a different thread.  The
+	 * image is not set.
+	 *
+	 * @return The copy or null if copying isn't supported, in which case it can only be used in a single thread
+	 */
+	default InterpolatePixel<T> copy() {
+		return null;
+	}
+
 }
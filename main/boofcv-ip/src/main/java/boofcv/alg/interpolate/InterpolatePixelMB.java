@@ -51,4 +51,9 @@ public interface InterpolatePixelMB<T extends ImageBase<T>> extends InterpolateP
 	 */
 	void get_fast(float x, float y, float []values );
 
+	@Override
+	default InterpolatePixelMB<T> copy() {
+		return null;
+	}
+
 }
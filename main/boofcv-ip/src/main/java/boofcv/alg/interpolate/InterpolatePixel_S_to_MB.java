@@ -85,4 +85,10 @@ public class InterpolatePixel_S_to_MB<T extends ImageGray<T>> implements Interpo
 	public ImageType<T> getImageType() {
 		return interp.getImageType();
 	}
+
+	@Override
+	public InterpolatePixelMB<T> copy() {
+		InterpolatePixelS<T> copy = interp.copy();
+		return copy == null ? null : new InterpolatePixel_S_to_MB<>(copy);
+	}
 }
@@ -43,6 +43,16 @@ public interface InterpolateRectangle<T extends ImageGray<T>> {
 	 */
 	public T getImage();
 
+	/**
+	 * Creates a new instance of this interpolation method. The image is not copied and must be set
+	 * before the copy can be used. Intended for use in concurrent code where each thread needs its own instance.
+	 *
+	 * @return The copy or null if copying isn't supported, in which case it can only be used in a single thread
+	 */
+	default InterpolateRectangle<T> copy() {
+		return null;
+	}
+
 	/**
 	 * Copies a grid from the source image starting at the specified coordinate
 	 * into the destination image.  The 'dest' image must be within the original image.
@@ -19,6 +19,7 @@
 package boofcv.alg.interpolate.impl;
 
 import boofcv.alg.interpolate.BilinearPixelS;
+import boofcv.alg.interpolate.InterpolatePixelS;
 import boofcv.core.image.border.ImageBorder_F32;
 import boofcv.struct.image.GrayF32;
 import boofcv.struct.image.ImageType;
@@ -94,4 +95,15 @@ public class ImplBilinearPixel_F32 extends BilinearPixelS<GrayF32> {
 		return ImageType.single(GrayF32.class);
 	}
 
+	@Override
+	public InterpolatePixelS<GrayF32> copy() {
+		ImplBilinearPixel_F32 out = new ImplBilinearPixel_F32();
+		if( border != null ) {
+			out.setBorder(border.copy());
+			// the border doesn't support being copied
+			if( out.getBorder() == null )
+				return null;
+		}
+		return out;
+	}
 }
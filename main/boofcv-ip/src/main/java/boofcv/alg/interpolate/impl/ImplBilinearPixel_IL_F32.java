@@ -18,6 +18,7 @@
 package boofcv.alg.interpolate.impl;
 
 import boofcv.alg.interpolate.BilinearPixelMB;
+import boofcv.alg.interpolate.InterpolatePixelMB;
 import boofcv.core.image.border.ImageBorder_IL_F32;
 import boofcv.struct.image.ImageType;
 import boofcv.struct.image.InterleavedF32;
@@ -127,4 +128,15 @@ public class ImplBilinearPixel_IL_F32 extends BilinearPixelMB<InterleavedF32> {
 		return orig.getImageType();
 	}
 
+	@Override
+	public InterpolatePixelMB<InterleavedF32> copy() {
+		ImplBilinearPixel_IL_F32 out = new ImplBilinearPixel_IL_F32(temp0.length);
+		if( border != null ) {
+			out.setBorder(border.copy());
+			// the border doesn't support being copied
+			if( out.getBorder() == null )
+				return null;
+		}
+		return out;
+	}
 }
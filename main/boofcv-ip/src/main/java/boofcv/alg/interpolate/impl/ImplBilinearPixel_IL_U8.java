@@ -18,6 +18,7 @@
 package boofcv.alg.interpolate.impl;
 
 import boofcv.alg.interpolate.BilinearPixelMB;
+import boofcv.alg.interpolate.InterpolatePixelMB;
 import boofcv.core.image.border.ImageBorder_IL_S32;
 import boofcv.struct.image.ImageType;
 import boofcv.struct.image.InterleavedU8;
@@ -127,4 +128,15 @@ public class ImplBilinearPixel_IL_U8 extends BilinearPixelMB<InterleavedU8> {
 		return orig.getImageType();
 	}
 
+	@Override
+	public InterpolatePixelMB<InterleavedU8> copy() {
+		ImplBilinearPixel_IL_U8 out = new ImplBilinearPixel_IL_U8(temp0.length);
+		if( border != null ) {
+			out.setBorder(border.copy());
+			// the border doesn't support being copied
+			if( out.getBorder() == null )
+				return null;
+		}
+		return out;
+	}
 }
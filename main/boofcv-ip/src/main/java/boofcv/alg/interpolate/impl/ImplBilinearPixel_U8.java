@@ -19,6 +19,7 @@
 package boofcv.alg.interpolate.impl;
 
 import boofcv.alg.interpolate.BilinearPixelS;
+import boofcv.alg.interpolate.InterpolatePixelS;
 import boofcv.core.image.border.ImageBorder_S32;
 import boofcv.struct.image.GrayU8;
 import boofcv.struct.image.ImageType;
@@ -94,4 +95,15 @@ public class ImplBilinearPixel_U8 extends BilinearPixelS<GrayU8> {
 		return ImageType.single(GrayU8.class);
 	}
 
+	@Override
+	public InterpolatePixelS<GrayU8> copy() {
+		ImplBilinearPixel_U8 out = new ImplBilinearPixel_U8();
+		if( border != null ) {
+			out.setBorder(border.copy());
+			// the border doesn't support being copied
+			if( out.getBorder() == null )
+				return null;
+		}
+		return out;
+	}
 }
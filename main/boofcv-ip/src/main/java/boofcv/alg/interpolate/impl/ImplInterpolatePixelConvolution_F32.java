@@ -210,4 +210,15 @@ public class ImplInterpolatePixelConvolution_F32 implements InterpolatePixelS<Gr
 		return ImageType.single(GrayF32.class);
 	}
 
+	@Override
+	public InterpolatePixelS<GrayF32> copy() {
+		ImplInterpolatePixelConvolution_F32 out = new ImplInterpolatePixelConvolution_F32(kernel,min,max);
+		if( border != null ) {
+			out.setBorder(border.copy());
+			// the border doesn't support being copied
+			if( out.getBorder() == null )
+				return null;
+		}
+		return out;
+	}
 }
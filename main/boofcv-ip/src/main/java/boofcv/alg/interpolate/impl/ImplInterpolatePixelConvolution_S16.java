@@ -210,4 +210,15 @@ public class ImplInterpolatePixelConvolution_S16 implements InterpolatePixelS<Gr
 		return ImageType.single(GrayS16.class);
 	}
 
+	@Override
+	public InterpolatePixelS<GrayS16> copy() {
+		ImplInterpolatePixelConvolution_S16 out = new ImplInterpolatePixelConvolution_S16(kernel,min,max);
+		if( border != null ) {
+			out.setBorder(border.copy());
+			// the border doesn't support being copied
+			if( out.getBorder() == null )
+				return null;
+		}
+		return out;
+	}
 }
@@ -17,6 +17,7 @@
  */
 package boofcv.alg.interpolate.impl;
 
+import boofcv.alg.interpolate.InterpolatePixelS;
 import boofcv.alg.interpolate.PolynomialPixel;
 import boofcv.core.image.border.ImageBorder_F32;
 import boofcv.struct.image.GrayF32;
@@ -144,4 +145,15 @@ public class ImplPolynomialPixel_F32 extends PolynomialPixel<GrayF32> {
 		return ImageType.single(GrayF32.class);
 	}
 
+	@Override
+	public InterpolatePixelS<GrayF32> copy() {
+		ImplPolynomialPixel_F32 out = new ImplPolynomialPixel_F32(M,min,max);
+		if( border != null ) {
+			out.setBorder(border.copy());
+			// the border doesn't support being copied
+			if( out.getBorder() == null )
+				return null;
+		}
+		return out;
+	}
 }
@@ -18,6 +18,7 @@
 
 package boofcv.alg.interpolate.impl;
 
+import boofcv.alg.interpolate.InterpolatePixelS;
 import boofcv.alg.interpolate.PolynomialPixel;
 import boofcv.core.image.border.ImageBorder_S32;
 import boofcv.struct.image.GrayI;
@@ -145,4 +146,15 @@ public class ImplPolynomialPixel_I<T extends GrayI<T>> extends PolynomialPixel<T
 		return ImageType.<T>single((Class)GrayI.class);
 	}
 
+	@Override
+	public InterpolatePixelS<T> copy() {
+		ImplPolynomialPixel_I<T> out = new ImplPolynomialPixel_I<>(M,min,max);
+		if( border != null ) {
+			out.setBorder(border.copy());
+			// the border doesn't support being copied
+			if( out.getBorder() == null )
+				return null;
+		}
+		return out;
+	}
 }
@@ -18,6 +18,7 @@
 
 package boofcv.alg.interpolate.impl;
 
+import boofcv.alg.interpolate.InterpolatePixelS;
 import boofcv.alg.interpolate.NearestNeighborPixelS;
 import boofcv.core.image.border.ImageBorder_S32;
 import boofcv.struct.image.GrayS32;
@@ -75,4 +76,15 @@ public class NearestNeighborPixel_S32 extends NearestNeighborPixelS<GrayS32> {
 		return ImageType.single(GrayS32.class);
 	}
 
+	@Override
+	public InterpolatePixelS<GrayS32> copy() {
+		NearestNeighborPixel_S32 out = new NearestNeighborPixel_S32();
+		if( border != null ) {
+			out.setBorder(border.copy());
+			// the border doesn't support being copied
+			if( out.getBorder() == null )
+				return null;
+		}
+		return out;
+	}
 }
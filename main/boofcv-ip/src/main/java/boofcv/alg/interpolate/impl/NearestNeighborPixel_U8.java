@@ -18,6 +18,7 @@
 
 package boofcv.alg.interpolate.impl;
 
+import boofcv.alg.interpolate.InterpolatePixelS;
 import boofcv.alg.interpolate.NearestNeighborPixelS;
 import boofcv.core.image.border.ImageBorder_S32;
 import boofcv.struct.image.GrayU8;
@@ -75,4 +76,15 @@ public class NearestNeighborPixel_U8 extends NearestNeighborPixelS<GrayU8> {
 		return ImageType.single(GrayU8.class);
 	}
 
+	@Override
+	public InterpolatePixelS<GrayU8> copy() {
+		NearestNeighborPixel_U8 out = new NearestNeighborPixel_U8();
+		if( border != null ) {
+			out.setBorder(border.copy());
+			// the border doesn't support being copied
+			if( out.getBorder() == null )
+				return null;
+		}
+		return out;
+	}
 }
@@ -0,0 +1,408 @@
+/*
+ * Copyright (c) 2011-2018, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.misc;
+
+import boofcv.misc.BoofLambdas;
+import boofcv.struct.image.ImageBase;
+import boofcv.struct.image.ImageType;
+import boofcv.struct.image.Planar;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.reflect.Method;
+
+/**
+ * <p>
+ * Image operators which are resolved once for a specific image type. The functions in {@link GPixelMath},
+ * {@link GImageStatistics}, and {@link GImageMiscOps} go through a chain of instanceof checks every time they
+ * are called. That's negligible for a whole image but can dominate when called on small images or regions inside
+ * of a loop. Operators returned here call the typed function in {@link PixelMath}, {@link ImageStatistics}, or
+ * {@link ImageMiscOps} directly, don't declare memory, and can be reused as often as needed.
+ * </p>
+ *
+ * <pre>
+ * ImageOperators.Scalar&lt;GrayU8&gt; divide = ImageOperators.divide(ImageType.single(GrayU8.class));
+ * for( ... )
+ *     divide.process(region,2.0,output);
+ * </pre>
+ *
+ * <p>
+ * Planar images are handled by applying the operator to each band. An IllegalArgumentException is thrown when
+ * the operator is requested if there is no implementation for the image type. To apply several element-wise
+ * operations in a single pass, add them to a {@link PixelPipeline} using {@link Unary#asStage()} and
+ * {@link Scalar#asStage(double)}.
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+public class ImageOperators {
+
+	/**
+	 * Operator with an input and output image, e.g. abs
+	 */
+	public interface Unary<T extends ImageBase<T>> {
+		void process( T input , T output );
+
+		/**
+		 * Returns a new stage which applies the same operation to a row inside of a {@link PixelPipeline}
+		 */
+		PixelPipeline.Stage asStage();
+	}
+
+	/**
+	 * Operator which applies a scalar value to each pixel in the input image, e.g. divide
+	 */
+	public interface Scalar<T extends ImageBase<T>> {
+		void process( T input , double value , T output );
+
+		/**
+		 * Returns a new stage which applies the same operation to a row inside of a {@link PixelPipeline}
+		 *
+		 * @param value The scalar value used by the stage
+		 */
+		PixelPipeline.Stage asStage( double value );
+	}
+
+	/**
+	 * Computes a statistic across all the pixels, e.g. max
+	 */
+	public interface Statistic<T extends ImageBase<T>> {
+		double process( T input );
+	}
+
+	/**
+	 * Modifies an image using a scalar value, e.g. fill
+	 */
+	public interface Fill<T extends ImageBase<T>> {
+		void process( T image , double value );
+	}
+
+	// The typed functions use the scalar's native type, these are used to bind to them
+	private interface UnaryD { void process( Object input , Object output ); }
+	private interface ScalarD { void process( Object input , double value , Object output ); }
+	private interface ScalarF { void process( Object input , float value , Object output ); }
+	private interface ScalarI { void process( Object input , int value , Object output ); }
+	private interface ScalarL { void process( Object input , long value , Object output ); }
+	private interface FillF { void process( Object image , float value ); }
+	private interface FillI { void process( Object image , int value ); }
+	private interface FillL { void process( Object image , long value ); }
+
+	// types a scalar parameter can have, in order of preference
+	private static final Class[] SCALAR_TYPES = new Class[]{double.class,float.class,int.class,long.class};
+
+	/**
+	 * @see PixelMath#abs
+	 */
+	public static <T extends ImageBase<T>> Unary<T> abs( ImageType<T> type ) {
+		return unary(type,"abs");
+	}
+
+	/**
+	 * @see PixelMath#invert
+	 */
+	public static <T extends ImageBase<T>> Unary<T> invert( ImageType<T> type ) {
+		return unary(type,"invert");
+	}
+
+	/**
+	 * @see PixelMath#log
+	 */
+	public static <T extends ImageBase<T>> Unary<T> log( ImageType<T> type ) {
+		return unary(type,"log");
+	}
+
+	/**
+	 * @see PixelMath#sqrt
+	 */
+	public static <T extends ImageBase<T>> Unary<T> sqrt( ImageType<T> type ) {
+		return unary(type,"sqrt");
+	}
+
+	/**
+	 * @see PixelMath#pow2
+	 */
+	public static <T extends ImageBase<T>> Unary<T> pow2( ImageType<T> type ) {
+		return unary(type,"pow2");
+	}
+
+	/**
+	 * @see PixelMath#multiply
+	 */
+	public static <T extends ImageBase<T>> Scalar<T> multiply( ImageType<T> type ) {
+		return scalar(type,"multiply");
+	}
+
+	/**
+	 * @see PixelMath#divide
+	 */
+	public static <T extends ImageBase<T>> Scalar<T> divide( ImageType<T> type ) {
+		return scalar(type,"divide");
+	}
+
+	/**
+	 * @see PixelMath#plus
+	 */
+	public static <T extends ImageBase<T>> Scalar<T> plus( ImageType<T> type ) {
+		return scalar(type,"plus");
+	}
+
+	/**
+	 * Subtracts the value from each pixel. output = input - value
+	 *
+	 * @see PixelMath#minus
+	 */
+	public static <T extends ImageBase<T>> Scalar<T> minus( ImageType<T> type ) {
+		return scalar(type,"minus");
+	}
+
+	/**
+	 * @see ImageStatistics#min
+	 */
+	public static <T extends ImageBase<T>> Statistic<T> min( ImageType<T> type ) {
+		return statistic(type,"min");
+	}
+
+	/**
+	 * @see ImageStatistics#max
+	 */
+	public static <T extends ImageBase<T>> Statistic<T> max( ImageType<T> type ) {
+		return statistic(type,"max");
+	}
+
+	/**
+	 * @see ImageStatistics#maxAbs
+	 */
+	public static <T extends ImageBase<T>> Statistic<T> maxAbs( ImageType<T> type ) {
+		return statistic(type,"maxAbs");
+	}
+
+	/**
+	 * @see ImageStatistics#sum
+	 */
+	public static <T extends ImageBase<T>> Statistic<T> sum( ImageType<T> type ) {
+		return statistic(type,"sum");
+	}
+
+	/**
+	 * @see ImageStatistics#mean
+	 */
+	public static <T extends ImageBase<T>> Statistic<T> mean( ImageType<T> type ) {
+		return statistic(type,"mean");
+	}
+
+	/**
+	 * @see ImageMiscOps#fill
+	 */
+	public static <T extends ImageBase<T>> Fill<T> fill( ImageType<T> type ) {
+		if( type.getFamily() == ImageType.Family.PLANAR ) {
+			Fill band = fill(ImageType.single(type.getImageClass()));
+			return (image,value)->{
+				Planar p = (Planar)image;
+				for( int i = 0; i < p.getNumBands(); i++ ) {
+					band.process(p.getBand(i),value);
+				}
+			};
+		}
+
+		Class imageClass = type.getImageClass();
+		for( Class scalarType : SCALAR_TYPES ) {
+			Method m = findMethod(ImageMiscOps.class,"fill",imageClass,scalarType);
+			if( m == null )
+				continue;
+			if( scalarType == double.class ) {
+				return bind(m, Fill.class);
+			} else if( scalarType == float.class ) {
+				FillF f = bind(m, FillF.class);
+				return (image,value)->f.process(image,(float)value);
+			} else if( scalarType == int.class ) {
+				FillI f = bind(m, FillI.class);
+				return (image,value)->f.process(image,(int)value);
+			} else {
+				FillL f = bind(m, FillL.class);
+				return (image,value)->f.process(image,(long)value);
+			}
+		}
+		throw new IllegalArgumentException("fill not supported for "+imageClass.getSimpleName());
+	}
+
+	private static <T extends ImageBase<T>> Unary<T> unary( ImageType<T> type , String name ) {
+		UnaryD function = unaryFunction(type,name);
+		return new Unary<T>() {
+			@Override
+			public void process(T input, T output) {
+				function.process(input,output);
+			}
+
+			@Override
+			public PixelPipeline.Stage asStage() {
+				return unaryStage(name);
+			}
+		};
+	}
+
+	private static <T extends ImageBase<T>> Scalar<T> scalar( ImageType<T> type , String name ) {
+		ScalarD function = scalarFunction(type,name);
+		return new Scalar<T>() {
+			@Override
+			public void process(T input, double value, T output) {
+				function.process(input,value,output);
+			}
+
+			@Override
+			public PixelPipeline.Stage asStage( double value ) {
+				return scalarStage(name,value);
+			}
+		};
+	}
+
+	private static UnaryD unaryFunction( ImageType<?> type , String name ) {
+		if( type.getFamily() == ImageType.Family.PLANAR ) {
+			UnaryD band = unaryFunction(ImageType.single(type.getImageClass()),name);
+			return (input,output)->{
+				Planar in = (Planar)input;
+				Planar out = (Planar)output;
+				for( int i = 0; i < in.getNumBands(); i++ ) {
+					band.process(in.getBand(i),out.getBand(i));
+				}
+			};
+		}
+
+		Class imageClass = type.getImageClass();
+		Method m = findMethod(PixelMath.class,name,imageClass,imageClass);
+		if( m == null )
+			throw new IllegalArgumentException(name+" not supported for "+imageClass.getSimpleName());
+		return bind(m, UnaryD.class);
+	}
+
+	private static ScalarD scalarFunction( ImageType<?> type , String name ) {
+		if( type.getFamily() == ImageType.Family.PLANAR ) {
+			ScalarD band = scalarFunction(ImageType.single(type.getImageClass()),name);
+			return (input,value,output)->{
+				Planar in = (Planar)input;
+				Planar out = (Planar)output;
+				for( int i = 0; i < in.getNumBands(); i++ ) {
+					band.process(in.getBand(i),value,out.getBand(i));
+				}
+			};
+		}
+
+		Class imageClass = type.getImageClass();
+		for( Class scalarType : SCALAR_TYPES ) {
+			Method m = findMethod(PixelMath.class,name,imageClass,scalarType,imageClass);
+			if( m == null )
+				continue;
+			if( scalarType == double.class ) {
+				return bind(m, ScalarD.class);
+			} else if( scalarType == float.class ) {
+				ScalarF f = bind(m, ScalarF.class);
+				return (input,value,output)->f.process(input,(float)value,output);
+			} else if( scalarType == int.class ) {
+				ScalarI f = bind(m, ScalarI.class);
+				return (input,value,output)->f.process(input,(int)value,output);
+			} else {
+				ScalarL f = bind(m, ScalarL.class);
+				return (input,value,output)->f.process(input,(long)value,output);
+			}
+		}
+		throw new IllegalArgumentException(name+" not supported for "+imageClass.getSimpleName());
+	}
+
+	/**
+	 * Row level equivalent of the unary operator. Values in a pipeline are doubles, so unlike the integer image
+	 * functions nothing is rounded until the pipeline writes the output.
+	 */
+	private static PixelPipeline.Stage unaryStage( String name ) {
+		switch( name ) {
+			case "abs": return new PixelPipeline.Abs();
+			case "invert": return new PixelPipeline.Invert();
+			case "log": return new PixelPipeline.Log();
+			case "sqrt": return new PixelPipeline.Sqrt();
+			case "pow2": return new PixelPipeline.Pow2();
+			default: throw new IllegalArgumentException("No stage for "+name);
+		}
+	}
+
+	/**
+	 * Row level equivalent of the scalar operator
+	 */
+	private static PixelPipeline.Stage scalarStage( String name , double value ) {
+		switch( name ) {
+			case "multiply": return new PixelPipeline.Scale(value);
+			case "divide": return new PixelPipeline.Divide(value);
+			case "plus": return new PixelPipeline.Offset(value);
+			case "minus": return new PixelPipeline.Offset(-value);
+			default: throw new IllegalArgumentException("No stage for "+name);
+		}
+	}
+
+	private static <T extends ImageBase<T>> Statistic<T> statistic( ImageType<T> type , String name ) {
+		if( type.getFamily() == ImageType.Family.PLANAR ) {
+			// every band has the same number of pixels so the mean is the average of each band's mean
+			boolean additive = name.equals("sum") || name.equals("mean");
+			boolean minimum = name.equals("min");
+			boolean average = name.equals("mean");
+			Statistic band = statistic(ImageType.single(type.getImageClass()),name);
+			return (input)->{
+				Planar in = (Planar)input;
+				double result = band.process(in.getBand(0));
+				for( int i = 1; i < in.getNumBands(); i++ ) {
+					double value = band.process(in.getBand(i));
+					if( additive )
+						result += value;
+					else if( minimum )
+						result = Math.min(result,value);
+					else
+						result = Math.max(result,value);
+				}
+				return average ? result/in.getNumBands() : result;
+			};
+		}
+
+		Class imageClass = type.getImageClass();
+		Method m = findMethod(ImageStatistics.class,name,imageClass);
+		if( m == null )
+			throw new IllegalArgumentException(name+" not supported for "+imageClass.getSimpleName());
+		return bind(m, Statistic.class);
+	}
+
+	/**
+	 * Finds the function with an exact match to the parameters. If there is none then one where images are passed
+	 * in as a parent type, e.g. GrayI8 for GrayU8. Primitive parameters must always match exactly.
+	 */
+	private static Method findMethod( Class owner , String name , Class... parameters ) {
+		try {
+			return owner.getMethod(name,parameters);
+		} catch (NoSuchMethodException ignore) {}
+
+		escape:for( Method m : owner.getMethods() ) {
+			if( !m.getName().equals(name) || m.getParameterCount() != parameters.length )
+				continue;
+			Class[] found = m.getParameterTypes();
+			for( int i = 0; i < found.length; i++ ) {
+				if( found[i].isPrimitive() ? found[i] != parameters[i] : !found[i].isAssignableFrom(parameters[i]) )
+					continue escape;
+			}
+			return m;
+		}
+		return null;
+	}
+
+	private static <F> F bind( Method m , Class<F> function ) {
+		return BoofLambdas.bindStatic(MethodHandles.lookup(),m,function);
+	}
+}
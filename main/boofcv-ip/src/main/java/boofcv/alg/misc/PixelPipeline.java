@@ -0,0 +1,534 @@
+/*
+ * Copyright (c) 2011-2018, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.misc;
+
+import boofcv.struct.image.*;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * <p>
+ * Applies a sequence of element-wise operations to an image and converts it into the output type in a single pass.
+ * For example, scaling, clipping, then converting a {@link GrayF32} into a {@link GrayU8} would normally
+ * require three passes through the image and an intermediate image. Here each row is read into a buffer, all
+ * the stages are applied to the buffer, and then it's written into the output image. Reading and writing
+ * are resolved once for the image types when the pipeline is created and processing doesn't declare memory
+ * once the row buffer has been grown.
+ * </p>
+ *
+ * <pre>
+ * PixelPipeline&lt;GrayF32,GrayU8&gt; pipeline = new PixelPipeline&lt;&gt;(
+ *         ImageType.single(GrayF32.class),ImageType.single(GrayU8.class)).scale(255.0/max).clip(0,255).round();
+ * pipeline.process(input,output);
+ * </pre>
+ *
+ * <p>
+ * Values are processed as doubles. When written to an integer image they are cast, which truncates, the
+ * same as {@link boofcv.core.image.ConvertImage}. Add a {@link #round()} and {@link #clip} stage
+ * if that's not desired. Operators from {@link ImageOperators} can be added as stages with
+ * {@link #add(ImageOperators.Unary)}. Input and output must be from the same family. Interleaved images are processed as rows
+ * of width*numBands values and planar images one band at a time. The input and output can be the same instance.
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+public class PixelPipeline<In extends ImageBase<In>, Out extends ImageBase<Out>> {
+
+	ImageType<In> inputType;
+	ImageType<Out> outputType;
+
+	// reads and writes rows of the input and output image types
+	RowReader reader;
+	RowWriter writer;
+
+	List<Stage> stages = new ArrayList<>();
+
+	// storage for the row being processed
+	double[] row = new double[0];
+
+	public PixelPipeline( ImageType<In> inputType , ImageType<Out> outputType ) {
+		if( inputType.getFamily() != outputType.getFamily() )
+			throw new IllegalArgumentException("Input and output must be the same image family");
+		this.inputType = inputType;
+		this.outputType = outputType;
+		this.reader = createReader(inputType);
+		this.writer = createWriter(outputType);
+	}
+
+	/**
+	 * Adds a stage to the end of the pipeline
+	 */
+	public PixelPipeline<In,Out> add( Stage stage ) {
+		stages.add(stage);
+		return this;
+	}
+
+	/**
+	 * Multiplies each value by a scale factor
+	 */
+	public PixelPipeline<In,Out> scale( double value ) {
+		return add(new Scale(value));
+	}
+
+	/**
+	 * Adds an offset to each value
+	 */
+	public PixelPipeline<In,Out> offset( double value ) {
+		return add(new Offset(value));
+	}
+
+	/**
+	 * Values are bounded to be inside the range. Inclusive
+	 */
+	public PixelPipeline<In,Out> clip( double lower , double upper ) {
+		return add(new Clip(lower,upper));
+	}
+
+	/**
+	 * Absolute value
+	 */
+	public PixelPipeline<In,Out> abs() {
+		return add(new Abs());
+	}
+
+	/**
+	 * Rounds to the nearest integer
+	 */
+	public PixelPipeline<In,Out> round() {
+		return add(new Round());
+	}
+
+	/**
+	 * Divides each value by the denominator
+	 */
+	public PixelPipeline<In,Out> divide( double denominator ) {
+		return add(new Divide(denominator));
+	}
+
+	/**
+	 * Changes the sign of each value
+	 */
+	public PixelPipeline<In,Out> invert() {
+		return add(new Invert());
+	}
+
+	/**
+	 * log(1 + value), the same as {@link PixelMath#log}
+	 */
+	public PixelPipeline<In,Out> log() {
+		return add(new Log());
+	}
+
+	/**
+	 * Square root of each value
+	 */
+	public PixelPipeline<In,Out> sqrt() {
+		return add(new Sqrt());
+	}
+
+	/**
+	 * Raises each value to the power of two
+	 */
+	public PixelPipeline<In,Out> pow2() {
+		return add(new Pow2());
+	}
+
+	/**
+	 * Adds the row level version of an element-wise operator to the end of the pipeline
+	 *
+	 * @see ImageOperators.Unary#asStage()
+	 */
+	public PixelPipeline<In,Out> add( ImageOperators.Unary<?> operator ) {
+		return add(operator.asStage());
+	}
+
+	/**
+	 * Adds the row level version of an element-wise operator with a scalar parameter to the end of the pipeline
+	 *
+	 * @see ImageOperators.Scalar#asStage(double)
+	 */
+	public PixelPipeline<In,Out> add( ImageOperators.Scalar<?> operator , double value ) {
+		return add(operator.asStage(value));
+	}
+
+	/**
+	 * Processes the input image and writes the results into the output image. The output is reshaped to match
+	 * the input.
+	 *
+	 * @param input Input image. Not modified.
+	 * @param output Output image. Modified.
+	 */
+	public void process( In input , Out output ) {
+		switch( inputType.getFamily() ) {
+			case GRAY:
+				output.reshape(input.width,input.height);
+				processRows(input,output,input.width);
+				break;
+
+			case INTERLEAVED: {
+				int numBands = ((ImageInterleaved)input).getNumBands();
+				((ImageInterleaved)output).reshape(input.width,input.height,numBands);
+				processRows(input,output,input.width*numBands);
+			} break;
+
+			case PLANAR: {
+				Planar in = (Planar)input;
+				Planar out = (Planar)output;
+				out.reshape(input.width,input.height,in.getNumBands());
+				for( int i = 0; i < in.getNumBands(); i++ ) {
+					processRows(in.getBand(i),out.getBand(i),input.width);
+				}
+			} break;
+
+			default:
+				throw new IllegalArgumentException("Unknown family");
+		}
+	}
+
+	private void processRows( ImageBase input , ImageBase output , int length ) {
+		if( row.length < length )
+			row = new double[length];
+
+		for( int y = 0; y < input.height; y++ ) {
+			reader.read(input,input.startIndex + y*input.stride,row,length);
+			for( int i = 0; i < stages.size(); i++ ) {
+				stages.get(i).process(row,length);
+			}
+			writer.write(row,length,output,output.startIndex + y*output.stride);
+		}
+	}
+
+	public List<Stage> getStages() {
+		return stages;
+	}
+
+	public ImageType<In> getInputType() {
+		return inputType;
+	}
+
+	public ImageType<Out> getOutputType() {
+		return outputType;
+	}
+
+	/**
+	 * Element-wise operation which is applied to a row of values
+	 */
+	public interface Stage {
+		/**
+		 * @param row Values which are modified in place
+		 * @param length Number of elements in the row
+		 */
+		void process( double[] row , int length );
+	}
+
+	public static class Scale implements Stage {
+		public double value;
+
+		public Scale( double value ) {
+			this.value = value;
+		}
+
+		@Override
+		public void process(double[] row, int length) {
+			for( int i = 0; i < length; i++ ) {
+				row[i] *= value;
+			}
+		}
+	}
+
+	public static class Offset implements Stage {
+		public double value;
+
+		public Offset( double value ) {
+			this.value = value;
+		}
+
+		@Override
+		public void process(double[] row, int length) {
+			for( int i = 0; i < length; i++ ) {
+				row[i] += value;
+			}
+		}
+	}
+
+	public static class Clip implements Stage {
+		public double lower,upper;
+
+		public Clip( double lower , double upper ) {
+			this.lower = lower;
+			this.upper = upper;
+		}
+
+		@Override
+		public void process(double[] row, int length) {
+			for( int i = 0; i < length; i++ ) {
+				double v = row[i];
+				if( v < lower )
+					row[i] = lower;
+				else if( v > upper )
+					row[i] = upper;
+			}
+		}
+	}
+
+	public static class Abs implements Stage {
+		@Override
+		public void process(double[] row, int length) {
+			for( int i = 0; i < length; i++ ) {
+				row[i] = Math.abs(row[i]);
+			}
+		}
+	}
+
+	public static class Round implements Stage {
+		@Override
+		public void process(double[] row, int length) {
+			for( int i = 0; i < length; i++ ) {
+				row[i] = Math.round(row[i]);
+			}
+		}
+	}
+
+	public static class Divide implements Stage {
+		public double denominator;
+
+		public Divide( double denominator ) {
+			this.denominator = denominator;
+		}
+
+		@Override
+		public void process(double[] row, int length) {
+			for( int i = 0; i < length; i++ ) {
+				row[i] /= denominator;
+			}
+		}
+	}
+
+	public static class Invert implements Stage {
+		@Override
+		public void process(double[] row, int length) {
+			for( int i = 0; i < length; i++ ) {
+				row[i] = -row[i];
+			}
+		}
+	}
+
+	public static class Log implements Stage {
+		@Override
+		public void process(double[] row, int length) {
+			for( int i = 0; i < length; i++ ) {
+				row[i] = Math.log(1 + row[i]);
+			}
+		}
+	}
+
+	public static class Sqrt implements Stage {
+		@Override
+		public void process(double[] row, int length) {
+			for( int i = 0; i < length; i++ ) {
+				row[i] = Math.sqrt(row[i]);
+			}
+		}
+	}
+
+	public static class Pow2 implements Stage {
+		@Override
+		public void process(double[] row, int length) {
+			for( int i = 0; i < length; i++ ) {
+				double v = row[i];
+				row[i] = v*v;
+			}
+		}
+	}
+
+	/**
+	 * Reads a row from the image into a double array
+	 */
+	interface RowReader {
+		void read( ImageBase image , int index , double[] row , int length );
+	}
+
+	/**
+	 * Writes a row into the image from a double array
+	 */
+	interface RowWriter {
+		void write( double[] row , int length , ImageBase image , int index );
+	}
+
+	static RowReader createReader( ImageType<?> type ) {
+		boolean interleaved = type.getFamily() == ImageType.Family.INTERLEAVED;
+		switch( type.getDataType() ) {
+			case U8: return interleaved ?
+					(image,index,row,length)->readU8(((InterleavedI8)image).data,index,row,length) :
+					(image,index,row,length)->readU8(((GrayI8)image).data,index,row,length);
+			case S8: return interleaved ?
+					(image,index,row,length)->readS8(((InterleavedI8)image).data,index,row,length) :
+					(image,index,row,length)->readS8(((GrayI8)image).data,index,row,length);
+			case U16: return interleaved ?
+					(image,index,row,length)->readU16(((InterleavedI16)image).data,index,row,length) :
+					(image,index,row,length)->readU16(((GrayI16)image).data,index,row,length);
+			case S16: return interleaved ?
+					(image,index,row,length)->readS16(((InterleavedI16)image).data,index,row,length) :
+					(image,index,row,length)->readS16(((GrayI16)image).data,index,row,length);
+			case S32: return interleaved ?
+					(image,index,row,length)->readS32(((InterleavedS32)image).data,index,row,length) :
+					(image,index,row,length)->readS32(((GrayS32)image).data,index,row,length);
+			case S64: return interleaved ?
+					(image,index,row,length)->readS64(((InterleavedS64)image).data,index,row,length) :
+					(image,index,row,length)->readS64(((GrayS64)image).data,index,row,length);
+			case F32: return interleaved ?
+					(image,index,row,length)->readF32(((InterleavedF32)image).data,index,row,length) :
+					(image,index,row,length)->readF32(((GrayF32)image).data,index,row,length);
+			case F64: return interleaved ?
+					(image,index,row,length)->readF64(((InterleavedF64)image).data,index,row,length) :
+					(image,index,row,length)->readF64(((GrayF64)image).data,index,row,length);
+			default:
+				throw new IllegalArgumentException("Unsupported data type "+type.getDataType());
+		}
+	}
+
+	static RowWriter createWriter( ImageType<?> type ) {
+		boolean interleaved = type.getFamily() == ImageType.Family.INTERLEAVED;
+		switch( type.getDataType() ) {
+			case U8: return interleaved ?
+					(row,length,image,index)->writeU8(row,length,((InterleavedI8)image).data,index) :
+					(row,length,image,index)->writeU8(row,length,((GrayI8)image).data,index);
+			case S8: return interleaved ?
+					(row,length,image,index)->writeS8(row,length,((InterleavedI8)image).data,index) :
+					(row,length,image,index)->writeS8(row,length,((GrayI8)image).data,index);
+			case U16: return interleaved ?
+					(row,length,image,index)->writeU16(row,length,((InterleavedI16)image).data,index) :
+					(row,length,image,index)->writeU16(row,length,((GrayI16)image).data,index);
+			case S16: return interleaved ?
+					(row,length,image,index)->writeS16(row,length,((InterleavedI16)image).data,index) :
+					(row,length,image,index)->writeS16(row,length,((GrayI16)image).data,index);
+			case S32: return interleaved ?
+					(row,length,image,index)->writeS32(row,length,((InterleavedS32)image).data,index) :
+					(row,length,image,index)->writeS32(row,length,((GrayS32)image).data,index);
+			case S64: return interleaved ?
+					(row,length,image,index)->writeS64(row,length,((InterleavedS64)image).data,index) :
+					(row,length,image,index)->writeS64(row,length,((GrayS64)image).data,index);
+			case F32: return interleaved ?
+					(row,length,image,index)->writeF32(row,length,((InterleavedF32)image).data,index) :
+					(row,length,image,index)->writeF32(row,length,((GrayF32)image).data,index);
+			case F64: return interleaved ?
+					(row,length,image,index)->writeF64(row,length,((InterleavedF64)image).data,index) :
+					(row,length,image,index)->writeF64(row,length,((GrayF64)image).data,index);
+			default:
+				throw new IllegalArgumentException("Unsupported data type "+type.getDataType());
+		}
+	}
+
+	private static void readU8( byte[] data , int index , double[] row , int length ) {
+		for( int i = 0; i < length; i++ ) {
+			row[i] = data[index+i] & 0xFF;
+		}
+	}
+
+	private static void readS8( byte[] data , int index , double[] row , int length ) {
+		for( int i = 0; i < length; i++ ) {
+			row[i] = data[index+i];
+		}
+	}
+
+	private static void readU16( short[] data , int index , double[] row , int length ) {
+		for( int i = 0; i < length; i++ ) {
+			row[i] = data[index+i] & 0xFFFF;
+		}
+	}
+
+	private static void readS16( short[] data , int index , double[] row , int length ) {
+		for( int i = 0; i < length; i++ ) {
+			row[i] = data[index+i];
+		}
+	}
+
+	private static void readS32( int[] data , int index , double[] row , int length ) {
+		for( int i = 0; i < length; i++ ) {
+			row[i] = data[index+i];
+		}
+	}
+
+	private static void readS64( long[] data , int index , double[] row , int length ) {
+		for( int i = 0; i < length; i++ ) {
+			row[i] = data[index+i];
+		}
+	}
+
+	private static void readF32( float[] data , int index , double[] row , int length ) {
+		for( int i = 0; i < length; i++ ) {
+			row[i] = data[index+i];
+		}
+	}
+
+	private static void readF64( double[] data , int index , double[] row , int length ) {
+		for( int i = 0; i < length; i++ ) {
+			row[i] = data[index+i];
+		}
+	}
+
+	private static void writeU8( double[] row , int length , byte[] data , int index ) {
+		for( int i = 0; i < length; i++ ) {
+			data[index+i] = (byte)row[i];
+		}
+	}
+
+	private static void writeS8( double[] row , int length , byte[] data , int index ) {
+		for( int i = 0; i < length; i++ ) {
+			data[index+i] = (byte)row[i];
+		}
+	}
+
+	private static void writeU16( double[] row , int length , short[] data , int index ) {
+		for( int i = 0; i < length; i++ ) {
+			data[index+i] = (short)row[i];
+		}
+	}
+
+	private static void writeS16( double[] row , int length , short[] data , int index ) {
+		for( int i = 0; i < length; i++ ) {
+			data[index+i] = (short)row[i];
+		}
+	}
+
+	private static void writeS32( double[] row , int length , int[] data , int index ) {
+		for( int i = 0; i < length; i++ ) {
+			data[index+i] = (int)row[i];
+		}
+	}
+
+	private static void writeS64( double[] row , int length , long[] data , int index ) {
+		for( int i = 0; i < length; i++ ) {
+			data[index+i] = (long)row[i];
+		}
+	}
+
+	private static void writeF32( double[] row , int length , float[] data , int index ) {
+		for( int i = 0; i < length; i++ ) {
+			data[index+i] = (float)row[i];
+		}
+	}
+
+	private static void writeF64( double[] row , int length , double[] data , int index ) {
+		for( int i = 0; i < length; i++ ) {
+			data[index+i] = row[i];
+		}
+	}
+}
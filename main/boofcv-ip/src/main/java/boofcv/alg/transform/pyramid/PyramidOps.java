@@ -23,10 +23,11 @@ import boofcv.abst.filter.derivative.ImageGradient;
 import boofcv.abst.filter.derivative.ImageHessian;
 import boofcv.alg.interpolate.InterpolatePixelS;
 import boofcv.alg.transform.pyramid.impl.ImplPyramidOps;
-import boofcv.core.image.GeneralizedImageOps;
 import boofcv.struct.image.GrayF32;
 import boofcv.struct.image.GrayU8;
 import boofcv.struct.image.ImageGray;
+import boofcv.struct.image.ImagePool;
+import boofcv.struct.image.ImageType;
 import boofcv.struct.pyramid.ImagePyramid;
 
 import java.lang.reflect.Array;
@@ -51,18 +52,21 @@ public class PyramidOps {
 	public static <O extends ImageGray<O>>
 	O[] declareOutput( ImagePyramid<?> pyramid , Class<O> outputType ) {
 		O[] ret = (O[])Array.newInstance(outputType,pyramid.getNumLayers());
+		ImageType<O> type = ImageType.single(outputType);
 
 		for( int i = 0; i < ret.length; i++ ) {
 			int w = pyramid.getWidth(i);
 			int h = pyramid.getHeight(i);
-			ret[i] = GeneralizedImageOps.createSingleBand(outputType,w,h);
+			ret[i] = ImagePool.createImage(type,w,h);
 		}
 
 		return ret;
 	}
 
 	/**
-	 * Reshapes each image in the array to match the layers in the pyramid
+	 * Reshapes each image in the array to match the layers in the pyramid.  If a global {@link ImagePool} is
+	 * set then images which need more memory are swapped with images from the pool.
+	 *
 	 * @param pyramid (Input) Image pyramid
 	 * @param output (Output) List of images which is to be resized
 	 * @param <O> Image type
@@ -73,7 +77,7 @@ public class PyramidOps {
 		for( int i = 0; i < output.length; i++ ) {
 			int w = pyramid.getWidth(i);
 			int h = pyramid.getHeight(i);
-			output[i].reshape(w, h);
+			output[i] = ImagePool.reshape(output[i], w, h);
 		}
 	}
 
@@ -0,0 +1,198 @@
+/*
+ * Copyright (c) 2011-2018, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.concurrency;
+
+import org.ddogleg.struct.FastQueue;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.IntConsumer;
+
+/**
+ * <p>
+ * Central location for controlling how concurrent code is run inside of BoofCV. Concurrent implementations
+ * of algorithms, which are typically denoted with an _MT suffix, use the functions in this class to split up
+ * work, e.g. an image into bands of rows, and process each piece in a shared thread pool. How the work is
+ * divided only depends on the size of the problem and the number of threads, so for a fixed configuration
+ * the same blocks are always computed and an algorithm which writes each output element exactly once will
+ * produce results which are identical to its single threaded counterpart.
+ * </p>
+ *
+ * <p>
+ * Concurrency can be globally turned on or off with {@link #USE_CONCURRENT} and is off by default. Classes which
+ * dispatch between single threaded and concurrent implementations check this flag every time they are called.
+ * The number of threads is changed using {@link #setMaxThreads(int)}.
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+public class BoofConcurrency {
+	/**
+	 * If true then concurrent implementations will be used when available. false by default.
+	 */
+	public static volatile boolean USE_CONCURRENT = false;
+
+	// pool which all the concurrent code is run inside of
+	private static volatile ForkJoinPool pool = new ForkJoinPool();
+
+	/**
+	 * Changes the maximum number of threads which will be used by concurrent algorithms. Work which has
+	 * already started finishes in the previous pool. The previous pool isn't shutdown, since another thread could
+	 * have just been given it, and its idle threads will terminate on their own.
+	 *
+	 * @param maxThreads Maximum number of threads. Must be &ge; 1.
+	 */
+	public static synchronized void setMaxThreads( int maxThreads ) {
+		if( maxThreads <= 0 )
+			throw new IllegalArgumentException("Number of threads must be at least one. "+maxThreads);
+		pool = new ForkJoinPool(maxThreads);
+	}
+
+	/**
+	 * Returns the maximum number of threads which will be used by concurrent algorithms
+	 */
+	public static int getMaxThreads() {
+		return pool.getParallelism();
+	}
+
+	/**
+	 * Concurrent for loop. Each element in the range is passed to the consumer. Elements are grouped into
+	 * contiguous blocks and each block is processed by a single thread.
+	 *
+	 * @param start First index, inclusive
+	 * @param endExclusive Last index, exclusive
+	 * @param consumer Processes an index
+	 */
+	public static void loopFor( int start , int endExclusive , IntConsumer consumer ) {
+		loopBlocks(start, endExclusive, 1, (i0, i1) -> {
+			for (int i = i0; i < i1; i++) {
+				consumer.accept(i);
+			}
+		});
+	}
+
+	/**
+	 * Splits the range into contiguous blocks, one for each thread, and processes the blocks concurrently.
+	 *
+	 * @param start First index, inclusive
+	 * @param endExclusive Last index, exclusive
+	 * @param consumer Processes a block
+	 */
+	public static void loopBlocks( int start , int endExclusive , IntRangeConsumer consumer ) {
+		loopBlocks(start, endExclusive, 1, consumer);
+	}
+
+	/**
+	 * Splits the range into contiguous blocks, one for each thread, and processes the blocks concurrently.
+	 * A block will never be smaller than minBlock, unless the range itself is smaller. Useful when the work
+	 * done per element is small and the overhead of a thread would dominate.
+	 *
+	 * @param start First index, inclusive
+	 * @param endExclusive Last index, exclusive
+	 * @param minBlock Minimum number of elements in a block. Must be &ge; 1.
+	 * @param consumer Processes a block
+	 */
+	public static void loopBlocks( int start , int endExclusive , int minBlock , IntRangeConsumer consumer ) {
+		final ForkJoinPool pool = BoofConcurrency.pool;
+		int numBlocks = selectNumberOfBlocks(endExclusive-start,minBlock,pool.getParallelism());
+		if( numBlocks <= 1 ) {
+			if( endExclusive > start )
+				consumer.accept(start,endExclusive);
+			return;
+		}
+		pool.invoke(new BlockTask(start,endExclusive,numBlocks,0,numBlocks,
+				(block,i0,i1)->consumer.accept(i0,i1)));
+	}
+
+	/**
+	 * Splits the range into contiguous blocks and processes the blocks concurrently. Each block is given its own
+	 * work space, which is taken from the provided queue. The queue is resized to match the number of blocks and
+	 * the i-th block is always given the i-th element. This allows thread specific storage to be recycled
+	 * between calls and the results in each work space to be merged in a deterministic order afterwards.
+	 *
+	 * @param start First index, inclusive
+	 * @param endExclusive Last index, exclusive
+	 * @param workspace Storage for each block. Modified.
+	 * @param consumer Processes a block
+	 */
+	public static <T> void loopBlocks( int start , int endExclusive ,
+									   FastQueue<T> workspace , IntRangeObjectConsumer<T> consumer ) {
+		final ForkJoinPool pool = BoofConcurrency.pool;
+		int numBlocks = selectNumberOfBlocks(endExclusive-start,1,pool.getParallelism());
+		workspace.resize(Math.max(1,numBlocks));
+		if( numBlocks <= 1 ) {
+			if( endExclusive > start )
+				consumer.accept(workspace.get(0),start,endExclusive);
+			return;
+		}
+		pool.invoke(new BlockTask(start,endExclusive,numBlocks,0,numBlocks,
+				(block,i0,i1)->consumer.accept(workspace.get(block),i0,i1)));
+	}
+
+	/**
+	 * Number of blocks that a range is split into
+	 *
+	 * @param length Number of elements in the range
+	 * @param minBlock Minimum number of elements in a block
+	 * @param numThreads Number of threads
+	 */
+	static int selectNumberOfBlocks( int length , int minBlock , int numThreads ) {
+		if( length <= 0 )
+			return 0;
+		return Math.max(1,Math.min(numThreads, length/Math.max(1,minBlock)));
+	}
+
+	/**
+	 * Recursively splits the set of blocks in half until a single block remains which is then processed.
+	 * Block boundaries are computed from the block's index so they don't depend on how tasks are scheduled.
+	 */
+	private static class BlockTask extends RecursiveAction {
+		final int start, endExclusive, numBlocks;
+		final int block0, block1;
+		final BlockProcessor processor;
+
+		BlockTask(int start, int endExclusive, int numBlocks, int block0, int block1, BlockProcessor processor) {
+			this.start = start;
+			this.endExclusive = endExclusive;
+			this.numBlocks = numBlocks;
+			this.block0 = block0;
+			this.block1 = block1;
+			this.processor = processor;
+		}
+
+		@Override
+		protected void compute() {
+			if( block1-block0 == 1 ) {
+				long length = endExclusive-start;
+				int i0 = start + (int)(length*block0/numBlocks);
+				int i1 = start + (int)(length*block1/numBlocks);
+				processor.process(block0, i0, i1);
+			} else {
+				int middle = (block0+block1)/2;
+				invokeAll(
+						new BlockTask(start,endExclusive,numBlocks,block0,middle,processor),
+						new BlockTask(start,endExclusive,numBlocks,middle,block1,processor));
+			}
+		}
+	}
+
+	private interface BlockProcessor {
+		void process( int block , int minInclusive , int maxExclusive );
+	}
+}
@@ -0,0 +1,37 @@
+/*
+ * Copyright (c) 2011-2018, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.concurrency;
+
+/**
+ * Functional interface for processing a contiguous range of integers while having access to a work space
+ * object which is owned exclusively by the thread processing the range.
+ *
+ * @author Peter Abeles
+ */
+@FunctionalInterface
+public interface IntRangeObjectConsumer<T> {
+	/**
+	 * Processes the range of values from minInclusive to maxExclusive
+	 *
+	 * @param data Work space which is only accessed by this block
+	 * @param minInclusive first value in the range, inclusive
+	 * @param maxExclusive last value in the range, exclusive
+	 */
+	void accept( T data , int minInclusive , int maxExclusive );
+}
@@ -24,8 +24,19 @@ import org.ddogleg.struct.GrowQueue_I8;
 import java.nio.ByteBuffer;
 
 /**
+ * <p>
  * Converts images that are stored in {@link java.nio.ByteBuffer} into BoofCV image types and performs
  * a local copy when the raw array can't be accessed
+ * </p>
+ *
+ * <p>
+ * If the buffer is backed by an accessible array, see {@link ByteBuffer#hasArray()}, then the wrap functions
+ * will create an image which references that array and no data is copied. Buffers created with
+ * {@link ByteBuffer#allocateDirect(int)} or by memory mapping a file don't have an accessible array and
+ * can't be wrapped. For those the from and to functions copy the data one row at a time using the buffer's
+ * bulk get and put operations. The wrapOrCopy functions pick between the two and report which one was used.
+ * Offset and stride are always specified in bytes.
+ * </p>
  *
  * @author Peter Abeles
  */
@@ -157,4 +168,207 @@ public class ConvertByteBufferImage {
 			indexSrc += srcStride;
 		}
 	}
+
+	/**
+	 * Makes the gray image reference the array which backs the buffer. No data is copied and changes to one
+	 * will be seen by the other. The image is marked as a sub-image since it doesn't own its data.
+	 *
+	 * @param src Buffer containing a single band 8-bit image
+	 * @param srcOffset Location of the first pixel in the buffer
+	 * @param srcStride Number of bytes between the start of each row
+	 * @param width Image width
+	 * @param height Image height
+	 * @param dst (Output) Image which will reference the buffer's array
+	 * @return true if the buffer could be wrapped or false if it has no accessible array
+	 * @throws IllegalArgumentException If the buffer is too small for an image of the requested shape
+	 */
+	public static boolean wrap_1BU8( ByteBuffer src , int srcOffset , int srcStride , int width , int height ,
+									 GrayU8 dst )
+	{
+		checkSize(src, srcOffset, srcStride, width, height, 1);
+		if( !src.hasArray() )
+			return false;
+
+		dst.data = src.array();
+		dst.startIndex = src.arrayOffset() + srcOffset;
+		dst.stride = srcStride;
+		dst.width = width;
+		dst.height = height;
+		dst.subImage = true;
+		return true;
+	}
+
+	/**
+	 * Makes the interleaved image reference the array which backs the buffer. No data is copied and changes to one
+	 * will be seen by the other. The image is marked as a sub-image since it doesn't own its data.
+	 *
+	 * @param src Buffer containing an interleaved 8-bit image
+	 * @param srcOffset Location of the first pixel in the buffer
+	 * @param srcStride Number of bytes between the start of each row
+	 * @param width Image width
+	 * @param height Image height
+	 * @param numBands Number of interleaved bands
+	 * @param dst (Output) Image which will reference the buffer's array
+	 * @return true if the buffer could be wrapped or false if it has no accessible array
+	 * @throws IllegalArgumentException If the buffer is too small for an image of the requested shape
+	 */
+	public static boolean wrap_NBU8( ByteBuffer src , int srcOffset , int srcStride , int width , int height ,
+									 int numBands , InterleavedU8 dst )
+	{
+		checkSize(src, srcOffset, srcStride, width, height, numBands);
+		if( !src.hasArray() )
+			return false;
+
+		dst.data = src.array();
+		dst.startIndex = src.arrayOffset() + srcOffset;
+		dst.stride = srcStride;
+		dst.width = width;
+		dst.height = height;
+		dst.numBands = numBands;
+		dst.subImage = true;
+		return true;
+	}
+
+	/**
+	 * Wraps the buffer when it has an accessible array, see {@link #wrap_1BU8}, otherwise the image is
+	 * reshaped and the pixels are copied into it. Direct and memory mapped buffers are always copied, so
+	 * changes made to the image will not be seen in the buffer in that case. When copying the image must
+	 * not be a sub-image.
+	 *
+	 * @return true if the buffer was wrapped or false if its data was copied
+	 */
+	public static boolean wrapOrCopy_1BU8( ByteBuffer src , int srcOffset , int srcStride , int width , int height ,
+										   GrayU8 dst )
+	{
+		if( wrap_1BU8(src, srcOffset, srcStride, width, height, dst) )
+			return true;
+
+		dst.reshape(width,height);
+		from_1BU8_to_U8(src, srcOffset, srcStride, dst);
+		return false;
+	}
+
+	/**
+	 * Wraps the buffer when it has an accessible array, see {@link #wrap_NBU8}, otherwise the image is
+	 * reshaped and the pixels are copied into it. Direct and memory mapped buffers are always copied, so
+	 * changes made to the image will not be seen in the buffer in that case. When copying the image must
+	 * not be a sub-image.
+	 *
+	 * @return true if the buffer was wrapped or false if its data was copied
+	 */
+	public static boolean wrapOrCopy_NBU8( ByteBuffer src , int srcOffset , int srcStride , int width , int height ,
+										   int numBands , InterleavedU8 dst )
+	{
+		if( wrap_NBU8(src, srcOffset, srcStride, width, height, numBands, dst) )
+			return true;
+
+		dst.reshape(width,height,numBands);
+		from_NBU8_to_IU8(src, srcOffset, srcStride, dst);
+		return false;
+	}
+
+	/**
+	 * Makes sure the offset and stride are valid and that the last row of the image ends inside the buffer
+	 */
+	static void checkSize( ByteBuffer src , int offset , int stride , int width , int height , int numBands ) {
+		if( width < 0 || height < 0 || numBands <= 0 )
+			throw new IllegalArgumentException("Invalid image shape. width="+width+" height="+height+
+					" bands="+numBands);
+		int rowLength = width*numBands;
+		if( offset < 0 )
+			throw new IllegalArgumentException("Offset can't be negative. offset="+offset);
+		if( stride < rowLength )
+			throw new IllegalArgumentException("Stride is smaller than a row. stride="+stride+" row="+rowLength);
+		long end = height == 0 ? offset : offset + (long)stride*(height-1) + rowLength;
+		if( end > src.limit() )
+			throw new IllegalArgumentException("Buffer is too small. limit="+src.limit()+" required="+end);
+	}
+
+	public static void from_1BU8_to_U8( ByteBuffer src , int srcOffset , int srcStride , GrayU8 dst ) {
+		int indexSrc = srcOffset;
+		for (int y = 0; y < dst.height; y++) {
+			src.position(indexSrc);
+			src.get(dst.data,dst.startIndex + dst.stride * y,dst.width);
+			indexSrc += srcStride;
+		}
+	}
+
+	public static void from_NBU8_to_IU8( ByteBuffer src , int srcOffset , int srcStride , InterleavedU8 dst ) {
+		int length = dst.width*dst.numBands;
+		int indexSrc = srcOffset;
+		for (int y = 0; y < dst.height; y++) {
+			src.position(indexSrc);
+			src.get(dst.data,dst.startIndex + dst.stride * y,length);
+			indexSrc += srcStride;
+		}
+	}
+
+	/**
+	 * Copies a 32-bit float image from the buffer. The buffer's byte order is used.
+	 */
+	public static void from_1BF32_to_F32( ByteBuffer src , int srcOffset , int srcStride , GrayF32 dst ) {
+		int indexSrc = srcOffset;
+		for (int y = 0; y < dst.height; y++) {
+			src.position(indexSrc);
+			src.asFloatBuffer().get(dst.data,dst.startIndex + dst.stride * y,dst.width);
+			indexSrc += srcStride;
+		}
+	}
+
+	/**
+	 * Copies an interleaved 32-bit float image from the buffer. The buffer's byte order is used.
+	 */
+	public static void from_NBF32_to_IF32( ByteBuffer src , int srcOffset , int srcStride , InterleavedF32 dst ) {
+		int length = dst.width*dst.numBands;
+		int indexSrc = srcOffset;
+		for (int y = 0; y < dst.height; y++) {
+			src.position(indexSrc);
+			src.asFloatBuffer().get(dst.data,dst.startIndex + dst.stride * y,length);
+			indexSrc += srcStride;
+		}
+	}
+
+	public static void from_U8_to_1BU8( GrayU8 src , ByteBuffer dst , int dstOffset , int dstStride ) {
+		int indexDst = dstOffset;
+		for (int y = 0; y < src.height; y++) {
+			dst.position(indexDst);
+			dst.put(src.data,src.startIndex + src.stride * y,src.width);
+			indexDst += dstStride;
+		}
+	}
+
+	public static void from_IU8_to_NBU8( InterleavedU8 src , ByteBuffer dst , int dstOffset , int dstStride ) {
+		int length = src.width*src.numBands;
+		int indexDst = dstOffset;
+		for (int y = 0; y < src.height; y++) {
+			dst.position(indexDst);
+			dst.put(src.data,src.startIndex + src.stride * y,length);
+			indexDst += dstStride;
+		}
+	}
+
+	/**
+	 * Copies a 32-bit float image into the buffer. The buffer's byte order is used.
+	 */
+	public static void from_F32_to_1BF32( GrayF32 src , ByteBuffer dst , int dstOffset , int dstStride ) {
+		int indexDst = dstOffset;
+		for (int y = 0; y < src.height; y++) {
+			dst.position(indexDst);
+			dst.asFloatBuffer().put(src.data,src.startIndex + src.stride * y,src.width);
+			indexDst += dstStride;
+		}
+	}
+
+	/**
+	 * Copies an interleaved 32-bit float image into the buffer. The buffer's byte order is used.
+	 */
+	public static void from_IF32_to_NBF32( InterleavedF32 src , ByteBuffer dst , int dstOffset , int dstStride ) {
+		int length = src.width*src.numBands;
+		int indexDst = dstOffset;
+		for (int y = 0; y < src.height; y++) {
+			dst.position(indexDst);
+			dst.asFloatBuffer().put(src.data,src.startIndex + src.stride * y,length);
+			indexDst += dstStride;
+		}
+	}
 }
@@ -48,4 +48,14 @@ public abstract class ImageBorder<T extends ImageBase<T>> {
 	public abstract void getGeneral(int x, int y, double[] pixel);
 
 	public abstract void setGeneral(int x, int y, double[] pixel);
+
+	/**
+	 * Creates a new instance of this border with the same configuration. Nothing is shared with the original,
+	 * so the copy can be used in a different thread. The image is not copied and must be set.
+	 *
+	 * @return The copy or null if copying isn't supported, in which case it can only be used in a single thread
+	 */
+	public ImageBorder<T> copy() {
+		return null;
+	}
 }
@@ -68,4 +68,9 @@ public class ImageBorder1D_IL_F64 extends ImageBorder_IL_F64 implements ImageBor
 	public void setOutside(int x, int y, double[] pixel) {
 		image.unsafe_set(colWrap.getIndex(x) , rowWrap.getIndex(y),pixel);
 	}
+
+	@Override
+	public ImageBorder1D_IL_F64 copy() {
+		return new ImageBorder1D_IL_F64(rowWrap.getClass());
+	}
 }
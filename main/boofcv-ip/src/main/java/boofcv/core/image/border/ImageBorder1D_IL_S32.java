@@ -70,4 +70,9 @@ public class ImageBorder1D_IL_S32<T extends InterleavedInteger<T>>
 	public void setOutside(int x, int y, int[] pixel) {
 		image.unsafe_set(colWrap.getIndex(x), rowWrap.getIndex(y), pixel);
 	}
+
+	@Override
+	public ImageBorder1D_IL_S32<T> copy() {
+		return new ImageBorder1D_IL_S32<>(rowWrap.getClass());
+	}
 }
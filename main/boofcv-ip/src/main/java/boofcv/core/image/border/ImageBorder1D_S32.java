@@ -76,4 +76,9 @@ public class ImageBorder1D_S32<T extends GrayI<T>>
 	public void setOutside(int x, int y, int val) {
 		image.set(colWrap.getIndex(x) , rowWrap.getIndex(y),val);
 	}
+
+	@Override
+	public ImageBorder1D_S32<T> copy() {
+		return new ImageBorder1D_S32<>(rowWrap.getClass());
+	}
 }
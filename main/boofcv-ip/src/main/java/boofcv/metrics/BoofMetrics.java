@@ -0,0 +1,104 @@
+/*
+ * Copyright (c) 2011-2018, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.metrics;
+
+import java.lang.reflect.Method;
+
+/**
+ * <p>
+ * Central location for controlling where instrumented algorithms in BoofCV report their metrics. By default
+ * no {@link MetricsSink} is set and instrumentation is turned off. In that state the only overhead inside
+ * an algorithm is checking to see if a sink has been set once per frame. Once a sink has been set, algorithms
+ * report the time taken by each of their stages, counts of what they found, and optionally how many bytes
+ * were allocated while processing a frame.
+ * </p>
+ *
+ * <p>
+ * Algorithms use {@link MetricsRecorder} to report their metrics.
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+public class BoofMetrics {
+
+	// where the metrics are sent. null means it's turned off
+	private static volatile MetricsSink sink;
+
+	/**
+	 * If true then the number of bytes allocated by the thread while processing a frame is reported. Only
+	 * supported on JVMs which provide com.sun.management.ThreadMXBean. Off by default since it
+	 * adds a bit of overhead.
+	 */
+	public static volatile boolean TRACK_ALLOCATIONS = false;
+
+	// Function used to look up the number of bytes allocated by a thread. null if not supported
+	private static Object threadBean;
+	private static Method threadAllocatedBytes;
+
+	static {
+		// Reflections are used since this isn't available on all platforms, e.g. Android
+		try {
+			Class<?> factory = Class.forName("java.lang.management.ManagementFactory");
+			Object bean = factory.getMethod("getThreadMXBean").invoke(null);
+			Class<?> sunBean = Class.forName("com.sun.management.ThreadMXBean");
+			if( sunBean.isInstance(bean) ) {
+				Method m = sunBean.getMethod("getThreadAllocatedBytes", long.class);
+				m.invoke(bean, Thread.currentThread().getId());
+				threadBean = bean;
+				threadAllocatedBytes = m;
+			}
+		} catch( Throwable ignore ) {
+			// not supported
+		}
+	}
+
+	/**
+	 * Specifies where metrics are sent. Set to null to turn off instrumentation.
+	 */
+	public static void setSink( MetricsSink sink ) {
+		BoofMetrics.sink = sink;
+	}
+
+	/**
+	 * Returns where metrics are sent or null if turned off
+	 */
+	public static MetricsSink getSink() {
+		return sink;
+	}
+
+	/**
+	 * True if the number of bytes allocated by a thread can be measured on this platform
+	 */
+	public static boolean isAllocationTrackingSupported() {
+		return threadAllocatedBytes != null;
+	}
+
+	/**
+	 * Total number of bytes allocated by the current thread since it was started or -1 if not supported.
+	 */
+	public static long allocatedBytes() {
+		if( threadAllocatedBytes == null )
+			return -1;
+		try {
+			return (Long)threadAllocatedBytes.invoke(threadBean, Thread.currentThread().getId());
+		} catch( Exception e ) {
+			return -1;
+		}
+	}
+}
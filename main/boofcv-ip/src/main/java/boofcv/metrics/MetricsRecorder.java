@@ -0,0 +1,150 @@
+/*
+ * Copyright (c) 2011-2018, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.metrics;
+
+/**
+ * <p>
+ * Used inside of an algorithm to report metrics for each frame it processes to the {@link BoofMetrics global sink}.
+ * The sink is looked up once when {@link #beginFrame()} is called and all other functions do nothing if
+ * there is no sink. Each call to {@link #stage(String)} reports the time since the previous stage ended, or
+ * since the frame began, which allows the work inside of a frame to be broken up with very little code.
+ * </p>
+ *
+ * <pre>
+ * recorder.beginFrame();
+ * detectContours();
+ * recorder.stage("contour");
+ * fitPolygons();
+ * recorder.stage("shapes");
+ * recorder.count("polygons",found.size);
+ * recorder.endFrame();
+ * </pre>
+ *
+ * <p>
+ * Instances are not thread safe and each algorithm should have its own.
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+public class MetricsRecorder {
+	/**
+	 * Name of the stage which is the total time taken to process a frame
+	 */
+	public static final String FRAME = "frame";
+	/**
+	 * Name of the value which is the number of bytes allocated while processing a frame
+	 */
+	public static final String ALLOCATED_BYTES = "allocated_bytes";
+
+	// name of the algorithm
+	private final String component;
+
+	// sink for the current frame. null if turned off
+	private MetricsSink sink;
+
+	// time stamps for when the frame and the current stage started
+	private long timeFrame;
+	private long timeStage;
+	// number of bytes allocated when the frame started. -1 if not tracked
+	private long allocatedFrame;
+
+	/**
+	 * @param component Name of the algorithm. Typically the class's simple name.
+	 */
+	public MetricsRecorder( String component ) {
+		this.component = component;
+	}
+
+	/**
+	 * Starts a new frame. Must be called before any other function in each frame.
+	 */
+	public void beginFrame() {
+		sink = BoofMetrics.getSink();
+		if( sink == null )
+			return;
+		allocatedFrame = BoofMetrics.TRACK_ALLOCATIONS ? BoofMetrics.allocatedBytes() : -1;
+		timeFrame = timeStage = System.nanoTime();
+	}
+
+	/**
+	 * Reports the time since the previous stage ended, or the frame started, as the time for this stage.
+	 *
+	 * @param name Name of the stage which just finished
+	 */
+	public void stage( String name ) {
+		if( sink == null )
+			return;
+		long now = System.nanoTime();
+		sink.recordStage(component, name, now - timeStage);
+		timeStage = now;
+	}
+
+	/**
+	 * Starts timing a new stage without reporting the time since the previous stage.
+	 */
+	public void skip() {
+		if( sink == null )
+			return;
+		timeStage = System.nanoTime();
+	}
+
+	/**
+	 * Reports a count for this frame
+	 */
+	public void count( String name , long amount ) {
+		if( sink == null )
+			return;
+		sink.recordCount(component, name, amount);
+	}
+
+	/**
+	 * Reports a value for this frame
+	 */
+	public void value( String name , double value ) {
+		if( sink == null )
+			return;
+		sink.recordValue(component, name, value);
+	}
+
+	/**
+	 * Finishes the frame and reports the total time and, if requested, bytes allocated
+	 */
+	public void endFrame() {
+		if( sink == null )
+			return;
+		sink.recordStage(component, FRAME, System.nanoTime() - timeFrame);
+		if( allocatedFrame >= 0 ) {
+			long allocated = BoofMetrics.allocatedBytes();
+			if( allocated >= 0 )
+				sink.recordValue(component, ALLOCATED_BYTES, allocated - allocatedFrame);
+		}
+		sink = null;
+	}
+
+	/**
+	 * Returns true if metrics are being recorded for the current frame
+	 */
+	public boolean isActive() {
+		return sink != null;
+	}
+
+	public String getComponent() {
+		return component;
+	}
+}
@@ -0,0 +1,62 @@
+/*
+ * Copyright (c) 2011-2018, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.metrics;
+
+/**
+ * Receives measurements from instrumented algorithms. Every measurement is identified by the name of the
+ * component which generated it, e.g. "DetectPolygonFromContour", and the name of the measurement within that
+ * component, e.g. "contour". Implementations must be thread safe since algorithms running in different threads
+ * can report to the same sink at the same time. Functions are called while an algorithm is processing an image
+ * so they should return quickly.
+ *
+ * @see BoofMetrics
+ * @see MetricsSummary
+ *
+ * @author Peter Abeles
+ */
+public interface MetricsSink {
+	/**
+	 * Time it took to complete a stage inside of an algorithm. The special stage {@link MetricsRecorder#FRAME}
+	 * is the time it took to process an entire frame.
+	 *
+	 * @param component Name of the algorithm
+	 * @param stage Name of the stage
+	 * @param nanoseconds Elapsed time in nanoseconds
+	 */
+	void recordStage( String component , String stage , long nanoseconds );
+
+	/**
+	 * Number of times something happened while processing a single frame, e.g. number of tracks dropped.
+	 *
+	 * @param component Name of the algorithm
+	 * @param name Name of what was counted
+	 * @param amount The count
+	 */
+	void recordCount( String component , String name , long amount );
+
+	/**
+	 * Sample of a value whose distribution is of interest, e.g. reprojection error or bytes allocated
+	 * while processing a frame.
+	 *
+	 * @param component Name of the algorithm
+	 * @param name Name of the value
+	 * @param value The value
+	 */
+	void recordValue( String component , String name , double value );
+}
@@ -0,0 +1,217 @@
+/*
+ * Copyright (c) 2011-2018, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.metrics;
+
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * {@link MetricsSink} which keeps summary statistics of everything it has been sent in memory. Each
+ * measurement has its count, mean, minimum, maximum, and a histogram with power of two bins. Useful for
+ * tuning an application or as the source for a monitoring system which periodically collects the statistics.
+ *
+ * @author Peter Abeles
+ */
+public class MetricsSummary implements MetricsSink {
+
+	// statistics for each measurement. Sorted by key to make printing easier
+	private final Map<String,Statistic> stages = new TreeMap<>();
+	private final Map<String,Statistic> counts = new TreeMap<>();
+	private final Map<String,Statistic> values = new TreeMap<>();
+
+	@Override
+	public synchronized void recordStage(String component, String stage, long nanoseconds) {
+		lookup(stages, component, stage).add(nanoseconds);
+	}
+
+	@Override
+	public synchronized void recordCount(String component, String name, long amount) {
+		lookup(counts, component, name).add(amount);
+	}
+
+	@Override
+	public synchronized void recordValue(String component, String name, double value) {
+		lookup(values, component, name).add(value);
+	}
+
+	private static Statistic lookup( Map<String,Statistic> map , String component , String name ) {
+		String key = component+"/"+name;
+		Statistic s = map.get(key);
+		if( s == null ) {
+			s = new Statistic();
+			map.put(key,s);
+		}
+		return s;
+	}
+
+	/**
+	 * Returns a copy of the statistics for a stage, with times in nanoseconds, or null if it has not been recorded
+	 */
+	public synchronized Statistic getStage( String component , String stage ) {
+		return copy(stages.get(component+"/"+stage));
+	}
+
+	/**
+	 * Returns a copy of the statistics for a count or null if it has not been recorded
+	 */
+	public synchronized Statistic getCount( String component , String name ) {
+		return copy(counts.get(component+"/"+name));
+	}
+
+	/**
+	 * Returns a copy of the statistics for a value or null if it has not been recorded
+	 */
+	public synchronized Statistic getValue( String component , String name ) {
+		return copy(values.get(component+"/"+name));
+	}
+
+	/**
+	 * Names of all the recorded stages in the "component/stage" format
+	 */
+	public synchronized List<String> getStageNames() {
+		return Collections.unmodifiableList(new ArrayList<>(stages.keySet()));
+	}
+
+	/**
+	 * Discards all the statistics
+	 */
+	public synchronized void reset() {
+		stages.clear();
+		counts.clear();
+		values.clear();
+	}
+
+	/**
+	 * Prints a table summarizing all the statistics. Times are printed in milliseconds.
+	 */
+	public synchronized void print( PrintStream out ) {
+		if( !stages.isEmpty() ) {
+			out.println("Stage (ms)");
+			for( Map.Entry<String,Statistic> e : stages.entrySet() ) {
+				Statistic s = e.getValue();
+				out.printf("  %-50s n=%-7d mean=%8.3f min=%8.3f max=%8.3f\n", e.getKey(),
+						s.count, s.getMean()*1e-6, s.min*1e-6, s.max*1e-6);
+			}
+		}
+		print(out, "Count", counts);
+		print(out, "Value", values);
+	}
+
+	private static void print( PrintStream out , String title , Map<String,Statistic> map ) {
+		if( map.isEmpty() )
+			return;
+		out.println(title);
+		for( Map.Entry<String,Statistic> e : map.entrySet() ) {
+			Statistic s = e.getValue();
+			out.printf("  %-50s n=%-7d mean=%10.2f min=%10.2f max=%10.2f\n", e.getKey(),
+					s.count, s.getMean(), s.min, s.max);
+		}
+	}
+
+	private static Statistic copy( Statistic s ) {
+		if( s == null )
+			return null;
+		Statistic c = new Statistic();
+		c.setTo(s);
+		return c;
+	}
+
+	/**
+	 * Summary statistics for a single measurement. Histogram bin 0 contains values &lt; 1 and bin i &gt; 0
+	 * contains values from 2<sup>i-1</sup> to 2<sup>i</sup>.
+	 */
+	public static class Statistic {
+		public static final int BINS = 64;
+
+		long count;
+		double sum;
+		double min = Double.MAX_VALUE;
+		double max = -Double.MAX_VALUE;
+		final long histogram[] = new long[BINS];
+
+		void add( double value ) {
+			count++;
+			sum += value;
+			if( value < min ) min = value;
+			if( value > max ) max = value;
+			histogram[bin(value)]++;
+		}
+
+		static int bin( double value ) {
+			if( value < 1 )
+				return 0;
+			long v = (long)value;
+			return Math.min(BINS-1, 64-Long.numberOfLeadingZeros(v));
+		}
+
+		/**
+		 * Returns an upper bound of the value at the specified fraction using the histogram.
+		 *
+		 * @param fraction From 0 to 1. 0.5 is the median
+		 */
+		public double getPercentileUpper( double fraction ) {
+			if( count == 0 )
+				return 0;
+			long target = (long)Math.ceil(fraction*count);
+			long total = 0;
+			for( int i = 0; i < BINS; i++ ) {
+				total += histogram[i];
+				if( total >= target && total > 0 )
+					return Math.min(max, i == 0 ? 1 : Math.pow(2,i));
+			}
+			return max;
+		}
+
+		public void setTo( Statistic s ) {
+			count = s.count;
+			sum = s.sum;
+			min = s.min;
+			max = s.max;
+			System.arraycopy(s.histogram,0,histogram,0,BINS);
+		}
+
+		public long getCount() {
+			return count;
+		}
+
+		public double getSum() {
+			return sum;
+		}
+
+		public double getMean() {
+			return count == 0 ? 0 : sum/count;
+		}
+
+		public double getMin() {
+			return min;
+		}
+
+		public double getMax() {
+			return max;
+		}
+
+		public long[] getHistogram() {
+			return histogram;
+		}
+	}
+}
@@ -0,0 +1,216 @@
+/*
+ * Copyright (c) 2011-2018, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.misc;
+
+import java.lang.invoke.*;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.Proxy;
+
+/**
+ * <p>
+ * Functional interfaces for invoking static functions and a way to bind a {@link Method} to them. Abstract wrappers
+ * which select a typed static function at runtime look it up once and then call it through one of these
+ * interfaces instead of {@link Method#invoke}. That avoids creating an argument array and boxing primitives on
+ * every call, lets the JIT inline the target, and exceptions thrown by the function are not wrapped.
+ * </p>
+ *
+ * <p>
+ * Binding uses {@link LambdaMetafactory}, which generates the same class a method reference would. If that's
+ * not supported by the platform, e.g. older versions of Android, then it falls back to a proxy which uses
+ * reflection.
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+public class BoofLambdas {
+
+	public interface Process2<A,B> {
+		void process( A a , B b );
+	}
+
+	public interface Process3<A,B,C> {
+		void process( A a , B b , C c );
+	}
+
+	public interface Process4<A,B,C,D> {
+		void process( A a , B b , C c , D d );
+	}
+
+	public interface Process5<A,B,C,D,E> {
+		void process( A a , B b , C c , D d , E e );
+	}
+
+	public interface Process6<A,B,C,D,E,F> {
+		void process( A a , B b , C c , D d , E e , F f );
+	}
+
+	/**
+	 * Two objects with an integer parameter between them. E.g. (input, numTimes, output)
+	 */
+	public interface Process2Int<A,B> {
+		void process( A a , int value , B b );
+	}
+
+	/**
+	 * Three objects followed by an integer parameter. E.g. (kernel, input, output, skip)
+	 */
+	public interface Process3Int<A,B,C> {
+		void process( A a , B b , C c , int value );
+	}
+
+	/**
+	 * Creates an implementation of the functional interface which directly invokes the static method. The
+	 * method's arguments must match the interface's. If the method returns a value and the interface doesn't
+	 * then the value is discarded. Primitive return values can be widened, e.g. int to double.
+	 *
+	 * @param m A public static method
+	 * @param function A functional interface, e.g. {@link Process3}
+	 * @return Implementation of the functional interface
+	 */
+	public static <T> T bindStatic( Method m , Class<T> function ) {
+		return bindStatic(MethodHandles.lookup(), m, function);
+	}
+
+	/**
+	 * Same as {@link #bindStatic(Method, Class)} but the caller provides the lookup. This allows the functional
+	 * interface to be one which is only visible to the caller, e.g. a private nested interface.
+	 *
+	 * @param lookup Lookup created by the caller with {@link MethodHandles#lookup()}
+	 * @param m A public static method
+	 * @param function A functional interface which is accessible to the lookup
+	 * @return Implementation of the functional interface
+	 */
+	public static <T> T bindStatic( MethodHandles.Lookup lookup , Method m , Class<T> function ) {
+		Method sam = checkArguments(m, function);
+
+		try {
+			MethodHandle target = lookup.unreflect(m);
+			MethodType samType = MethodType.methodType(sam.getReturnType(), sam.getParameterTypes());
+			MethodType instantiated = target.type().changeReturnType(sam.getReturnType());
+
+			CallSite site = LambdaMetafactory.metafactory(lookup, sam.getName(),
+					MethodType.methodType(function), samType, target, instantiated);
+			return (T)site.getTarget().invoke();
+		} catch( Throwable e ) {
+			return bindReflection(m, function);
+		}
+	}
+
+	/**
+	 * Implements the functional interface with a proxy which calls {@link Method#invoke}. Used when
+	 * {@link LambdaMetafactory} is not available.
+	 */
+	static <T> T bindReflection( Method m , Class<T> function ) {
+		Method sam = checkArguments(m, function);
+		return (T)Proxy.newProxyInstance(function.getClassLoader(), new Class[]{function},
+				new ReflectionHandler(m,sam.getReturnType()));
+	}
+
+	private static Method checkArguments( Method m , Class<?> function ) {
+		if( !Modifier.isStatic(m.getModifiers()) )
+			throw new IllegalArgumentException("Method must be static. "+m.getName());
+		if( !function.isInterface() )
+			throw new IllegalArgumentException("Must be an interface. "+function.getSimpleName());
+
+		Method sam = null;
+		for( Method a : function.getMethods() ) {
+			if( !Modifier.isAbstract(a.getModifiers()) )
+				continue;
+			if( sam != null )
+				throw new IllegalArgumentException("Interface has more than one abstract method");
+			sam = a;
+		}
+		if( sam == null )
+			throw new IllegalArgumentException("Interface has no abstract methods");
+
+		Class<?>[] expected = sam.getParameterTypes();
+		Class<?>[] found = m.getParameterTypes();
+		if( expected.length != found.length )
+			throw new IllegalArgumentException("Expected "+expected.length+" arguments not "+found.length+
+					". "+m.getName());
+		for( int i = 0; i < expected.length; i++ ) {
+			if( expected[i].isPrimitive() != found[i].isPrimitive() ||
+					(expected[i].isPrimitive() && expected[i] != found[i]) )
+				throw new IllegalArgumentException("Argument "+i+" of "+m.getName()+" doesn't match the interface");
+		}
+		Class<?> samReturn = sam.getReturnType();
+		Class<?> mReturn = m.getReturnType();
+		if( samReturn.isPrimitive() && samReturn != void.class ) {
+			if( !mReturn.isPrimitive() || primitiveRank(mReturn) < 0 || primitiveRank(mReturn) > primitiveRank(samReturn) )
+				throw new IllegalArgumentException("Return type of "+m.getName()+" can't be converted to "+samReturn);
+		} else if( samReturn != void.class && !samReturn.isAssignableFrom(mReturn) ) {
+			throw new IllegalArgumentException("Return type of "+m.getName()+" doesn't match the interface");
+		}
+		return sam;
+	}
+
+	/**
+	 * Order of numerical primitive types. A type can be widened into any type with a larger rank
+	 */
+	private static int primitiveRank( Class<?> type ) {
+		if( type == int.class ) return 0;
+		else if( type == long.class ) return 1;
+		else if( type == float.class ) return 2;
+		else if( type == double.class ) return 3;
+		else return -1;
+	}
+
+	private static class ReflectionHandler implements InvocationHandler {
+		Method m;
+		// return type of the functional interface
+		Class<?> returnType;
+
+		ReflectionHandler( Method m , Class<?> returnType ) {
+			this.m = m;
+			this.returnType = returnType;
+		}
+
+		@Override
+		public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+			if( method.getDeclaringClass() == Object.class ) {
+				switch( method.getName() ) {
+					case "equals": return proxy == args[0];
+					case "hashCode": return System.identityHashCode(proxy);
+					default: return "Reflection "+m.getName();
+				}
+			}
+
+			Object result;
+			try {
+				result = m.invoke(null, args);
+			} catch( InvocationTargetException e ) {
+				throw e.getCause();
+			}
+
+			// primitive values need to be converted into the wrapper of the interface's return type
+			if( returnType == void.class )
+				return null;
+			else if( returnType == double.class )
+				return ((Number)result).doubleValue();
+			else if( returnType == float.class )
+				return ((Number)result).floatValue();
+			else if( returnType == long.class )
+				return ((Number)result).longValue();
+			return result;
+		}
+	}
+}
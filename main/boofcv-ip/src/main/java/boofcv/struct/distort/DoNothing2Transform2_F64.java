@@ -31,4 +31,9 @@ public class DoNothing2Transform2_F64 implements Point2Transform2_F64 {
 		out.x = x;
 		out.y = y;
 	}
+
+	@Override
+	public DoNothing2Transform2_F64 copyConcurrent() {
+		return new DoNothing2Transform2_F64();
+	}
 }
@@ -37,4 +37,14 @@ public abstract class PixelTransform2_F32 implements PixelTransform {
 	public float getDistY() {
 		return distY;
 	}
+
+	/**
+	 * Creates a copy which can be used in a different thread at the same time as this instance. Read only
+	 * data, such as a lookup table, can be shared between the two.
+	 *
+	 * @return The copy or null if this transform can't be used concurrently
+	 */
+	public PixelTransform2_F32 copyConcurrent() {
+		return null;
+	}
 }
@@ -35,4 +35,14 @@ public interface Point2Transform2_F64 {
 	 * @param out Transformed point location.
 	 */
 	void compute( double x, double y, Point2D_F64 out);
+
+	/**
+	 * Creates a copy which can be used in a different thread at the same time as this instance. Read only
+	 * data can be shared between the two.
+	 *
+	 * @return The copy or null if this transform can't be used concurrently
+	 */
+	default Point2Transform2_F64 copyConcurrent() {
+		return null;
+	}
 }
@@ -36,4 +36,14 @@ public interface Point3Transform2_F32 {
 	 * @param out Transformed point location.
 	 */
 	void compute(float x, float y, float z, Point2D_F32 out);
+
+	/**
+	 * Creates a copy which can be used in a different thread at the same time as this instance. Read only
+	 * data can be shared between the two.
+	 *
+	 * @return The copy or null if this transform can't be used concurrently
+	 */
+	default Point3Transform2_F32 copyConcurrent() {
+		return null;
+	}
 }
@@ -0,0 +1,102 @@
+/*
+ * Copyright (c) 2011-2018, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.struct.distort;
+
+import java.io.Serializable;
+
+/**
+ * Precomputed location in the source image of every pixel in the destination image. Coordinates are packed
+ * into a single array as (x,y) pairs in row-major order, which uses a fraction of the memory of an object per
+ * pixel and is read sequentially when an image is distorted. Once computed a table is only read, so it
+ * can be shared between threads and between multiple distortions of the same size.
+ *
+ * @author Peter Abeles
+ */
+public class RemapTable_F32 implements Serializable {
+	/** Size of the destination image */
+	public int width, height;
+	/** Source pixel coordinates. x and y of pixel (i,j) are at index 2*(j*width+i) and 2*(j*width+i)+1 */
+	public float[] data;
+
+	public RemapTable_F32( int width , int height ) {
+		reshape(width,height);
+	}
+
+	public RemapTable_F32() {
+		data = new float[0];
+	}
+
+	/**
+	 * Creates a table by computing the transform at every pixel
+	 *
+	 * @param width Width of the destination image
+	 * @param height Height of the destination image
+	 * @param dstToSrc Transform from destination pixels to source pixels
+	 * @return The table
+	 */
+	public static RemapTable_F32 create( int width , int height , PixelTransform2_F32 dstToSrc ) {
+		RemapTable_F32 table = new RemapTable_F32(width,height);
+		table.compute(dstToSrc);
+		return table;
+	}
+
+	/**
+	 * Changes the size of the table. The array is only reallocated if it's too small.
+	 */
+	public void reshape( int width , int height ) {
+		this.width = width;
+		this.height = height;
+		if( data == null || data.length < width*height*2 )
+			data = new float[width*height*2];
+	}
+
+	/**
+	 * Fills in the table by computing the transform at every pixel
+	 *
+	 * @param dstToSrc Transform from destination pixels to source pixels
+	 */
+	public void compute( PixelTransform2_F32 dstToSrc ) {
+		int index = 0;
+		for( int y = 0; y < height; y++ ) {
+			for( int x = 0; x < width; x++ ) {
+				dstToSrc.compute(x,y);
+				data[index++] = dstToSrc.distX;
+				data[index++] = dstToSrc.distY;
+			}
+		}
+	}
+
+	public float getX( int x , int y ) {
+		return data[(y*width+x)*2];
+	}
+
+	public float getY( int x , int y ) {
+		return data[(y*width+x)*2+1];
+	}
+
+	public void set( int x , int y , float srcX , float srcY ) {
+		int index = (y*width+x)*2;
+		data[index] = srcX;
+		data[index+1] = srcY;
+	}
+
+	public boolean isSize( int width , int height ) {
+		return this.width == width && this.height == height;
+	}
+}
@@ -44,4 +44,15 @@ public class SequencePoint2Transform2_F64 implements Point2Transform2_F64 {
 			sequence[i].compute(out.x,out.y,out);
 		}
 	}
+
+	@Override
+	public SequencePoint2Transform2_F64 copyConcurrent() {
+		Point2Transform2_F64[] sequence = new Point2Transform2_F64[this.sequence.length];
+		for( int i = 0; i < sequence.length; i++ ) {
+			sequence[i] = this.sequence[i].copyConcurrent();
+			if( sequence[i] == null )
+				return null;
+		}
+		return new SequencePoint2Transform2_F64(sequence);
+	}
 }
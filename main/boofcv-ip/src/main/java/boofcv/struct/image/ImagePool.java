@@ -0,0 +1,308 @@
+/*
+ * Copyright (c) 2011-2018, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.struct.image;
+
+import java.lang.reflect.Array;
+import java.util.ArrayDeque;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * <p>
+ * Recycles images which are used internally by algorithms. Images are stored by their {@link ImageType} and
+ * shape. When an image of the same type and shape is requested again a previously released image is returned
+ * instead of declaring a new one. This reduces the amount of garbage created when processing a sequence of
+ * images which change in size, e.g. crops of different regions. Hit and miss statistics are recorded
+ * so that the number of images stored for each shape can be tuned.
+ * </p>
+ *
+ * <p>
+ * Pooling is opt-in. By default no global pool is set and the static functions {@link #createImage},
+ * {@link #recycle}, and {@link #reshape} behave exactly as if no pool existed. Once a pool has been assigned
+ * with {@link #setGlobal(ImagePool)}, image pyramids and other algorithms will draw their internal images from it
+ * and return them when their shape changes. An image which was returned by one of these algorithms should
+ * not be used after the algorithm has processed an image with a different shape since its storage might
+ * have been given to someone else.
+ * </p>
+ *
+ * <p>
+ * The contents of an image taken from the pool are undefined. All functions are thread safe.
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+public class ImagePool {
+	// The pool used by algorithms. If null then pooling is turned off
+	private static volatile ImagePool global;
+
+	// Images which are available for reuse
+	private final Map<Key,ArrayDeque<ImageBase>> available = new HashMap<>();
+	// The maximum number of images stored for each type and shape
+	private int maxPerKey;
+
+	// used to look up images without declaring memory
+	private final Key lookup = new Key();
+
+	// statistics
+	private long hits;
+	private long misses;
+	private long discarded;
+	private int totalStored;
+
+	/**
+	 * Creates a pool which will store up to maxPerKey images for each type and shape
+	 *
+	 * @param maxPerKey Maximum number of images of a single type and shape which are stored. Must be &ge; 1.
+	 */
+	public ImagePool( int maxPerKey ) {
+		setMaxPerKey(maxPerKey);
+	}
+
+	/**
+	 * Creates a pool which will store up to 8 images for each type and shape
+	 */
+	public ImagePool() {
+		this(8);
+	}
+
+	/**
+	 * Returns an image of the specified type and shape. If one is available in the pool it is returned,
+	 * otherwise a new image is declared.
+	 *
+	 * @param type Type of image
+	 * @param width Image width
+	 * @param height Image height
+	 * @return Image with undefined contents
+	 */
+	public synchronized <T extends ImageBase> T acquire( ImageType<T> type , int width , int height ) {
+		ArrayDeque<ImageBase> queue = available.get(lookup.set(type,width,height));
+		if( queue != null && !queue.isEmpty() ) {
+			hits++;
+			totalStored--;
+			return (T)queue.removeLast();
+		}
+		misses++;
+		return type.createImage(width,height);
+	}
+
+	/**
+	 * Returns the image to the pool so that it can be used again. Sub-images and images which are already
+	 * in the pool are ignored. If the pool is full for this type and shape the image is discarded.
+	 *
+	 * @param image The image being returned. The caller must not use it after this function is called.
+	 */
+	public synchronized void release( ImageBase image ) {
+		if( image == null || image.isSubimage() )
+			return;
+
+		ArrayDeque<ImageBase> queue = available.get(lookup.set(image.getImageType(),image.width,image.height));
+		if( queue == null ) {
+			queue = new ArrayDeque<>();
+			available.put(lookup.copy(),queue);
+		}
+		for( ImageBase a : queue ) {
+			if( a == image )
+				return;
+		}
+		if( queue.size() >= maxPerKey ) {
+			discarded++;
+			return;
+		}
+		queue.add(image);
+		totalStored++;
+	}
+
+	/**
+	 * Removes all images from the pool. Statistics are not modified.
+	 */
+	public synchronized void clear() {
+		available.clear();
+		totalStored = 0;
+	}
+
+	/**
+	 * Sets all the statistics back to zero
+	 */
+	public synchronized void resetStatistics() {
+		hits = misses = discarded = 0;
+	}
+
+	/**
+	 * Number of times an image was requested and one was available in the pool
+	 */
+	public synchronized long getHits() {
+		return hits;
+	}
+
+	/**
+	 * Number of times an image was requested and a new one had to be declared
+	 */
+	public synchronized long getMisses() {
+		return misses;
+	}
+
+	/**
+	 * Number of images which were released but not stored because the pool was full
+	 */
+	public synchronized long getDiscarded() {
+		return discarded;
+	}
+
+	/**
+	 * Fraction of requests which were satisfied by the pool. Zero if there have been no requests.
+	 */
+	public synchronized double getHitFraction() {
+		long total = hits + misses;
+		return total == 0 ? 0 : hits/(double)total;
+	}
+
+	/**
+	 * Total number of images currently stored in the pool
+	 */
+	public synchronized int getTotalStored() {
+		return totalStored;
+	}
+
+	public synchronized int getMaxPerKey() {
+		return maxPerKey;
+	}
+
+	/**
+	 * Changes the maximum number of images stored for each type and shape. Excess images are discarded.
+	 */
+	public synchronized void setMaxPerKey( int maxPerKey ) {
+		if( maxPerKey < 1 )
+			throw new IllegalArgumentException("maxPerKey must be at least one");
+		this.maxPerKey = maxPerKey;
+		for( ArrayDeque<ImageBase> queue : available.values() ) {
+			while( queue.size() > maxPerKey ) {
+				queue.removeFirst();
+				totalStored--;
+			}
+		}
+	}
+
+	@Override
+	public synchronized String toString() {
+		return String.format("ImagePool{ hits = %d , misses = %d , discarded = %d , stored = %d }",
+				hits,misses,discarded,totalStored);
+	}
+
+	/**
+	 * Specifies the pool which is used by algorithms. Set to null to turn off pooling.
+	 */
+	public static void setGlobal( ImagePool pool ) {
+		global = pool;
+	}
+
+	/**
+	 * Returns the pool used by algorithms or null if pooling is turned off
+	 */
+	public static ImagePool getGlobal() {
+		return global;
+	}
+
+	/**
+	 * Declares an image using the global pool, if one is set. Otherwise a new image is created.
+	 */
+	public static <T extends ImageBase> T createImage( ImageType<T> type , int width , int height ) {
+		ImagePool pool = global;
+		if( pool == null )
+			return type.createImage(width,height);
+		return pool.acquire(type,width,height);
+	}
+
+	/**
+	 * Returns the image to the global pool, if one is set. Otherwise nothing happens.
+	 */
+	public static void recycle( ImageBase image ) {
+		ImagePool pool = global;
+		if( pool != null )
+			pool.release(image);
+	}
+
+	/**
+	 * Changes the shape of a single band image. If the image's internal array is large enough it is
+	 * reshaped in place. If a larger array is needed and a global pool is set, then the image is returned to the
+	 * pool and an image with the requested shape is taken from it. Without a pool this is identical to
+	 * calling {@link ImageGray#reshape(int, int)}.
+	 *
+	 * @param image The image which is to be reshaped
+	 * @param width Desired width
+	 * @param height Desired height
+	 * @return Image with the requested shape. Either the input image or one from the pool.
+	 */
+	public static <T extends ImageGray<T>> T reshape( T image , int width , int height ) {
+		ImagePool pool = global;
+		if( pool == null || image.isSubimage() || Array.getLength(image._getData()) >= width*height ) {
+			image.reshape(width,height);
+			return image;
+		}
+		ImageType<T> type = image.getImageType();
+		pool.release(image);
+		return pool.acquire(type,width,height);
+	}
+
+	/**
+	 * Identifies images which are interchangeable
+	 */
+	private static class Key {
+		ImageType.Family family;
+		ImageDataType dataType;
+		int numBands;
+		int width, height;
+
+		Key set( ImageType type , int width , int height ) {
+			this.family = type.getFamily();
+			this.dataType = type.getDataType();
+			this.numBands = family == ImageType.Family.GRAY ? 1 : type.getNumBands();
+			this.width = width;
+			this.height = height;
+			return this;
+		}
+
+		Key copy() {
+			Key c = new Key();
+			c.family = family;
+			c.dataType = dataType;
+			c.numBands = numBands;
+			c.width = width;
+			c.height = height;
+			return c;
+		}
+
+		@Override
+		public boolean equals( Object o ) {
+			if( !(o instanceof Key) )
+				return false;
+			Key k = (Key)o;
+			return family == k.family && dataType == k.dataType && numBands == k.numBands &&
+					width == k.width && height == k.height;
+		}
+
+		@Override
+		public int hashCode() {
+			int h = family.hashCode();
+			h = 31*h + dataType.hashCode();
+			h = 31*h + numBands;
+			h = 31*h + width;
+			return 31*h + height;
+		}
+	}
+}
@@ -19,6 +19,7 @@
 package boofcv.struct.pyramid;
 
 import boofcv.struct.image.ImageBase;
+import boofcv.struct.image.ImagePool;
 import boofcv.struct.image.ImageType;
 
 /**
@@ -49,6 +50,8 @@ public abstract class ImagePyramidBase<T extends ImageBase<T>>
 
 	// if the top layer is full resolution, should a copy be made or a reference to the original be saved?i
 	protected boolean saveOriginalReference;
+	// true if the first layer is a reference to an image owned by someone else
+	private boolean firstLayerReference;
 
 	ImageType<T> imageType;
 
@@ -75,25 +78,45 @@ public abstract class ImagePyramidBase<T extends ImageBase<T>>
 		if( bottomWidth == width && bottomHeight == height )
 			return;
 
+		recycleLayers();
 		this.bottomWidth = width;
 		this.bottomHeight = height;
 		layers = imageType.createArray(getNumLayers());
 		double scaleFactor = getScale(0);
 
+		firstLayerReference = scaleFactor == 1 && saveOriginalReference;
 		if (scaleFactor == 1) {
 			if (!saveOriginalReference) {
-				layers[0] = imageType.createImage(bottomWidth, bottomHeight);
+				layers[0] = ImagePool.createImage(imageType, bottomWidth, bottomHeight);
 			}
 		} else {
-			layers[0] = imageType.createImage((int)Math.ceil(bottomWidth / scaleFactor), (int)Math.ceil(bottomHeight / scaleFactor));
+			layers[0] = ImagePool.createImage(imageType,
+					(int)Math.ceil(bottomWidth / scaleFactor), (int)Math.ceil(bottomHeight / scaleFactor));
 		}
 
 		for (int i = 1; i < layers.length; i++) {
 			scaleFactor = getScale(i);
-			layers[i] = imageType.createImage((int)Math.ceil(bottomWidth / scaleFactor), (int)Math.ceil(bottomHeight / scaleFactor));
+			layers[i] = ImagePool.createImage(imageType,
+					(int)Math.ceil(bottomWidth / scaleFactor), (int)Math.ceil(bottomHeight / scaleFactor));
 		}
 	}
 
+	/**
+	 * Returns the layers to the global {@link ImagePool}, if one is set.  The first layer is skipped if it
+	 * is a reference to the input image.  After this function has been called the pyramid must be
+	 * initialized again before it can be used.
+	 */
+	public void recycleLayers() {
+		if( layers == null )
+			return;
+		int start = firstLayerReference ? 1 : 0;
+		for (int i = start; i < layers.length; i++) {
+			ImagePool.recycle(layers[i]);
+		}
+		layers = null;
+		bottomWidth = bottomHeight = 0;
+	}
+
 	/**
 	 * Used to internally check that the provided scales are valid.
 	 */
@@ -22,6 +22,7 @@ import boofcv.alg.interpolate.InterpolatePixelS;
 import boofcv.alg.interpolate.impl.ImplBilinearPixel_F32;
 import boofcv.struct.distort.PixelTransform2_F32;
 import boofcv.struct.image.GrayF32;
+import boofcv.struct.image.ImageGray;
 import org.junit.Test;
 
 import static org.junit.Assert.assertEquals;
@@ -109,11 +110,11 @@ public class TestImageDistortBasic_SB {
 		}
 
 		@Override
-		protected void assign(int indexDst, float value) {
+		protected void assign(ImageGray dst, int indexDst, float value) {
 			total++;
-			int x = (indexDst - dstImg.startIndex)%dstImg.stride;
-			int y = (indexDst - dstImg.startIndex)/dstImg.stride;
-			assertTrue(dstImg.isInBounds(x,y));
+			int x = (indexDst - dst.startIndex)%dst.stride;
+			int y = (indexDst - dst.startIndex)/dst.stride;
+			assertTrue(dst.isInBounds(x,y));
 		}
 	}
 
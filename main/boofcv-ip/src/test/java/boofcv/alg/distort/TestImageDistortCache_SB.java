@@ -20,11 +20,12 @@ package boofcv.alg.distort;
 
 import boofcv.alg.interpolate.InterpolatePixelS;
 import boofcv.struct.distort.PixelTransform2_F32;
+import boofcv.struct.distort.RemapTable_F32;
 import boofcv.struct.image.GrayF32;
+import boofcv.struct.image.ImageGray;
 import org.junit.Test;
 
-import static org.junit.Assert.assertEquals;
-import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.*;
 
 /**
  * @author Peter Abeles
@@ -92,6 +93,41 @@ public class TestImageDistortCache_SB {
 		assertEquals(9*14,alg.getTotal());
 	}
 
+	/**
+	 * A table from the model is used directly and must never be modified.
+	 */
+	@Test
+	public void sharedTable() {
+		Helper alg = new Helper(interp);
+
+		RemapTable_F32 table = RemapTable_F32.create(10,15,tran);
+		float[] original = table.data.clone();
+		alg.setModel(new PixelTransformTable_F32(table));
+		alg.apply(new GrayF32(10, 15), new GrayF32(10, 15));
+		assertSame(table,alg.getTable());
+
+		// new model. Recompute without modifying the shared table
+		alg.setModel(tran);
+		alg.apply(new GrayF32(10, 15), new GrayF32(10, 15));
+		assertNotSame(table,alg.getTable());
+		assertArrayEquals(original,table.data,0);
+	}
+
+	/**
+	 * The table's size doesn't match the output image
+	 */
+	@Test
+	public void sharedTable_wrongSize() {
+		Helper alg = new Helper(interp);
+
+		RemapTable_F32 table = RemapTable_F32.create(10,15,tran);
+		alg.setModel(new PixelTransformTable_F32(table));
+		try {
+			alg.apply(new GrayF32(10, 15), new GrayF32(8, 12));
+			fail("Should have thrown an exception");
+		} catch( IllegalArgumentException ignore ) {}
+	}
+
 	private static class Helper extends ImageDistortCache_SB {
 
 		int total = 0;
@@ -109,11 +145,11 @@ public class TestImageDistortCache_SB {
 		}
 
 		@Override
-		protected void assign(int indexDst, float value) {
+		protected void assign(ImageGray dst, int indexDst, float value) {
 			total++;
-			int x = (indexDst - dstImg.startIndex)%dstImg.stride;
-			int y = (indexDst - dstImg.startIndex)/dstImg.stride;
-			assertTrue(dstImg.isInBounds(x,y));
+			int x = (indexDst - dst.startIndex)%dst.stride;
+			int y = (indexDst - dst.startIndex)/dst.stride;
+			assertTrue(dst.isInBounds(x,y));
 		}
 	}
 }
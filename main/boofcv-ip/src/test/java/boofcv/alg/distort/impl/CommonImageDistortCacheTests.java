@@ -21,6 +21,7 @@ package boofcv.alg.distort.impl;
 import boofcv.alg.distort.ImageDistort;
 import boofcv.alg.distort.ImageDistortCache_SB;
 import boofcv.alg.distort.PixelTransformAffine_F32;
+import boofcv.alg.distort.PixelTransformTable_F32;
 import boofcv.alg.interpolate.InterpolatePixelS;
 import boofcv.alg.misc.GImageMiscOps;
 import boofcv.core.image.GeneralizedImageOps;
@@ -28,6 +29,7 @@ import boofcv.core.image.border.BorderType;
 import boofcv.core.image.border.FactoryImageBorder;
 import boofcv.factory.distort.FactoryDistort;
 import boofcv.factory.interpolate.FactoryInterpolation;
+import boofcv.struct.distort.RemapTable_F32;
 import boofcv.struct.image.ImageGray;
 import boofcv.testing.BoofTesting;
 import georegression.struct.affine.Affine2D_F32;
@@ -35,6 +37,8 @@ import org.junit.Test;
 
 import java.util.Random;
 
+import static org.junit.Assert.assertSame;
+
 /**
  * @author Peter Abeles
  */
@@ -80,6 +84,33 @@ public abstract class CommonImageDistortCacheTests<T extends ImageGray<T>> {
 		BoofTesting.assertEquals(dst0, dst1, 1e-4);
 	}
 
+	/**
+	 * Only pixels inside the source are rendered. Tiles which are outside are skipped.
+	 */
+	@Test
+	public void compareRenderInside() {
+		ImageDistort<T,T> standard = FactoryDistort.distortSB(false, interp, imageType);
+		ImageDistortCache_SB<T,T> alg = create(interp,imageType);
+
+		PixelTransformAffine_F32 tran = DistortSupport.transformRotate(100,150,100,150,0.6f);
+		standard.setModel(tran);
+		alg.setModel(tran);
+		standard.setRenderAll(false);
+		alg.setRenderAll(false);
+
+		GImageMiscOps.fill(dst0,7);
+		GImageMiscOps.fill(dst1,7);
+		standard.apply(src,dst0);
+		alg.apply(src,dst1);
+		BoofTesting.assertEquals(dst0, dst1, 1e-4);
+
+		GImageMiscOps.fill(dst0,7);
+		GImageMiscOps.fill(dst1,7);
+		standard.apply(src,dst0,10,30,180,260);
+		alg.apply(src,dst1,10,30,180,260);
+		BoofTesting.assertEquals(dst0, dst1, 1e-4);
+	}
+
 	@Test
 	public void compareCrop() {
 
@@ -95,6 +126,45 @@ public abstract class CommonImageDistortCacheTests<T extends ImageGray<T>> {
 		BoofTesting.assertEquals(dst0, dst1, 1e-4);
 	}
 	
+	/**
+	 * The destination is a sub-image. The table is indexed by pixel and not by the image's internal index
+	 */
+	@Test
+	public void compareSubImage() {
+		ImageDistort<T,T> standard = FactoryDistort.distortSB(false, interp, imageType);
+		ImageDistortCache_SB<T,T> alg = create(interp,imageType);
+
+		standard.setModel(tran);
+		alg.setModel(tran);
+
+		T larger = GeneralizedImageOps.createSingleBand(imageType,220,320);
+		T sub = larger.subimage(10,15,210,315);
+
+		standard.apply(src,dst0);
+		alg.apply(src,sub);
+
+		BoofTesting.assertEquals(dst0, sub, 1e-4);
+	}
+
+	/**
+	 * A precomputed table is used directly and produces the same results
+	 */
+	@Test
+	public void compareSharedTable() {
+		ImageDistort<T,T> standard = FactoryDistort.distortSB(false, interp, imageType);
+		ImageDistortCache_SB<T,T> alg = create(interp,imageType);
+
+		RemapTable_F32 table = RemapTable_F32.create(dst0.width,dst0.height,tran);
+		standard.setModel(tran);
+		alg.setModel(new PixelTransformTable_F32(table));
+
+		standard.apply(src,dst0);
+		alg.apply(src,dst1);
+
+		BoofTesting.assertEquals(dst0, dst1, 1e-4);
+		assertSame(table,alg.getTable());
+	}
+
 	public abstract ImageDistortCache_SB<T,T>
 	create(InterpolatePixelS<T> interp, Class<T> imageType );
 }
@@ -19,11 +19,16 @@
 package boofcv.alg.distort.impl;
 
 import boofcv.alg.distort.ImageDistort;
+import boofcv.alg.distort.PixelTransformAffine_F32;
 import boofcv.alg.interpolate.InterpolatePixel;
+import boofcv.alg.interpolate.InterpolatePixelMB;
+import boofcv.alg.interpolate.InterpolatePixelS;
 import boofcv.alg.interpolate.InterpolationType;
 import boofcv.alg.misc.GImageMiscOps;
+import boofcv.concurrency.BoofConcurrency;
 import boofcv.core.image.GeneralizedImageOps;
 import boofcv.core.image.border.BorderType;
+import boofcv.core.image.border.FactoryImageBorder;
 import boofcv.factory.interpolate.FactoryInterpolation;
 import boofcv.struct.distort.PixelTransform2_F32;
 import boofcv.struct.image.ImageBase;
@@ -222,6 +227,113 @@ public abstract class GeneralImageDistortTests<T extends ImageBase<T>> {
 		}
 	}
 
+	/**
+	 * The image is broken up into several tiles. Compare the results against a brute force solution with and
+	 * without concurrency. Parts of the image map outside the source so some tiles are skipped.
+	 */
+	@Test
+	public void multipleTiles() {
+		int width = 210, height = 150;
+		T src = imageType.createImage(width,height);
+		T dst = imageType.createImage(width,height);
+		GImageMiscOps.fillUniform(src, rand, 0, 10);
+
+		PixelTransformAffine_F32 model = DistortSupport.transformRotate(width/2,height/2,width/2,height/2,0.6f);
+		model.getModel().a11 *= 1.6f;
+		model.getModel().a21 *= 1.6f;
+
+		int maxThreads = BoofConcurrency.getMaxThreads();
+		boolean concurrent = BoofConcurrency.USE_CONCURRENT;
+		try {
+			BoofConcurrency.setMaxThreads(3);
+			for( boolean useConcurrent : new boolean[]{false,true} ) {
+				BoofConcurrency.USE_CONCURRENT = useConcurrent;
+				for( boolean renderAll : new boolean[]{true,false} ) {
+					ImageDistort<T,T> alg = createDistort(model,interp);
+					alg.setRenderAll(renderAll);
+
+					GImageMiscOps.fill(dst, 50);
+					alg.apply(src,dst);
+					checkBruteForce(src,dst,model,renderAll,0,0,width,height);
+
+					GImageMiscOps.fill(dst, 50);
+					alg.apply(src,dst,17,23,181,140);
+					checkBruteForce(src,dst,model,renderAll,17,23,181,140);
+				}
+			}
+		} finally {
+			BoofConcurrency.USE_CONCURRENT = concurrent;
+			BoofConcurrency.setMaxThreads(maxThreads);
+		}
+	}
+
+	/**
+	 * Calls apply multiple times with concurrency. Between calls the model is modified without calling setModel()
+	 * and the border is changed. Copies made for other threads must see both changes.
+	 */
+	@Test
+	public void multipleCalls_concurrent() {
+		int width = 210, height = 150;
+		T src = imageType.createImage(width,height);
+		T dst = imageType.createImage(width,height);
+		GImageMiscOps.fillUniform(src, rand, 0, 10);
+
+		PixelTransformAffine_F32 model = DistortSupport.transformRotate(width/2,height/2,width/2,height/2,0.6f);
+		model.getModel().a11 *= 1.6f;
+		model.getModel().a21 *= 1.6f;
+
+		int maxThreads = BoofConcurrency.getMaxThreads();
+		boolean concurrent = BoofConcurrency.USE_CONCURRENT;
+		try {
+			BoofConcurrency.setMaxThreads(3);
+			BoofConcurrency.USE_CONCURRENT = true;
+
+			ImageDistort<T,T> alg = createDistort(model,interp);
+			GImageMiscOps.fill(dst, 50);
+			alg.apply(src,dst);
+			checkBruteForce(src,dst,model,true,0,0,width,height);
+
+			model.getModel().tx += 15;
+			GImageMiscOps.fill(dst, 50);
+			alg.apply(src,dst);
+			checkBruteForce(src,dst,model,true,0,0,width,height);
+
+			interp.setBorder(FactoryImageBorder.genericValue(3,imageType));
+			GImageMiscOps.fill(dst, 50);
+			alg.apply(src,dst);
+			checkBruteForce(src,dst,model,true,0,0,width,height);
+		} finally {
+			BoofConcurrency.USE_CONCURRENT = concurrent;
+			BoofConcurrency.setMaxThreads(maxThreads);
+		}
+	}
+
+	private void checkBruteForce( T src , T dst , PixelTransform2_F32 model , boolean renderAll ,
+								  int x0 , int y0 , int x1 , int y1 ) {
+		float[] values = new float[imageType.getNumBands()];
+		interp.setImage(src);
+		for( int y = 0; y < dst.height; y++ ) {
+			for( int x = 0; x < dst.width; x++ ) {
+				model.compute(x,y);
+				boolean inside = model.distX >= 0 && model.distX <= src.width-1 &&
+						model.distY >= 0 && model.distY <= src.height-1;
+				boolean rendered = x >= x0 && x < x1 && y >= y0 && y < y1 && (renderAll || inside);
+
+				if( rendered ) {
+					if( interp instanceof InterpolatePixelS ) {
+						values[0] = ((InterpolatePixelS)interp).get(model.distX,model.distY);
+					} else {
+						((InterpolatePixelMB)interp).get(model.distX,model.distY,values);
+					}
+				}
+				for (int band = 0; band < imageType.getNumBands(); band++) {
+					double expected = rendered ? values[band] : 50;
+					assertEquals(expected,GeneralizedImageOps.get(dst,x,y,band),1e-4);
+				}
+			}
+		}
+	}
+
 	public class BasicTransform extends PixelTransform2_F32 {
 
 
@@ -0,0 +1,90 @@
+/*
+ * Copyright (c) 2011-2018, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.distort.impl;
+
+import boofcv.alg.distort.ImageDistort;
+import boofcv.alg.distort.PixelTransformAffine_F32;
+import boofcv.alg.interpolate.InterpolatePixelS;
+import boofcv.alg.misc.GImageMiscOps;
+import boofcv.concurrency.BoofConcurrency;
+import boofcv.core.image.border.BorderType;
+import boofcv.factory.distort.FactoryDistort;
+import boofcv.factory.interpolate.FactoryInterpolation;
+import boofcv.struct.image.GrayF32;
+import boofcv.struct.image.Planar;
+import boofcv.testing.BoofTesting;
+import org.junit.Test;
+
+import java.util.Random;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestImplImageDistort_PL {
+
+	Random rand = new Random(234);
+
+	int width = 150, height = 130;
+
+	/**
+	 * All the bands are rendered in a single pass. The results should be the same as distorting each band
+	 * independently
+	 */
+	@Test
+	public void compareToBands() {
+		Planar<GrayF32> src = new Planar<>(GrayF32.class,width,height,3);
+		Planar<GrayF32> dst = new Planar<>(GrayF32.class,width,height,3);
+		Planar<GrayF32> expected = new Planar<>(GrayF32.class,width,height,3);
+		GImageMiscOps.fillUniform(src, rand, 0, 100);
+
+		PixelTransformAffine_F32 model = DistortSupport.transformRotate(width/2,height/2,width/2,height/2,0.4f);
+
+		int maxThreads = BoofConcurrency.getMaxThreads();
+		boolean concurrent = BoofConcurrency.USE_CONCURRENT;
+		try {
+			BoofConcurrency.setMaxThreads(3);
+			for( boolean useConcurrent : new boolean[]{false,true} ) {
+				BoofConcurrency.USE_CONCURRENT = useConcurrent;
+				for( boolean cached : new boolean[]{false,true} ) {
+					for( boolean renderAll : new boolean[]{true,false} ) {
+						InterpolatePixelS<GrayF32> interp =
+								FactoryInterpolation.bilinearPixelS(GrayF32.class, BorderType.EXTENDED);
+						ImageDistort<GrayF32,GrayF32> band = FactoryDistort.distortSB(cached,interp,GrayF32.class);
+						band.setModel(model);
+						band.setRenderAll(renderAll);
+
+						GImageMiscOps.fill(expected,-1);
+						for( int i = 0; i < src.getNumBands(); i++ ) {
+							band.apply(src.getBand(i),expected.getBand(i),5,7,140,120);
+						}
+
+						ImageDistort<Planar<GrayF32>,Planar<GrayF32>> alg = new ImplImageDistort_PL<>(band);
+						GImageMiscOps.fill(dst,-1);
+						alg.apply(src,dst,5,7,140,120);
+
+						BoofTesting.assertEquals(expected, dst, 1e-4);
+					}
+				}
+			}
+		} finally {
+			BoofConcurrency.USE_CONCURRENT = concurrent;
+			BoofConcurrency.setMaxThreads(maxThreads);
+		}
+	}
+}
@@ -46,6 +46,10 @@ public class CompareToStandardConvolveDownNoBorder extends CompareIdenticalFunct
 		super(targetClass, ConvolveDownNoBorderStandard.class);
 	}
 
+	public CompareToStandardConvolveDownNoBorder( Class<?> targetClass , Class<?> validationClass ) {
+		super(targetClass, validationClass);
+	}
+
 	public void compareMethod( Method target , String validationName , int radius ) {
 		this.kernelRadius = radius;
 		super.compareMethod(target,validationName);
@@ -71,9 +75,9 @@ public class CompareToStandardConvolveDownNoBorder extends CompareIdenticalFunct
 		Object kernel = FactoryKernel.random(paramTypes[0],kernelRadius,0,10,rand);
 
 		int divW,divH;
-		if( candidate.getName().compareTo("horizontal") == 0) {
+		if( candidate.getName().startsWith("horizontal") ) {
 			divW = skip; divH = 1;
-		} else if( candidate.getName().compareTo("vertical") == 0) {
+		} else if( candidate.getName().startsWith("vertical") ) {
 			divW = 1; divH = skip;
 		} else {
 			divW = divH = skip;
@@ -0,0 +1,114 @@
+/*
+ * Copyright (c) 2011-2018, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.filter.convolve.down;
+
+import boofcv.concurrency.BoofConcurrency;
+import boofcv.struct.convolve.KernelBase;
+import boofcv.struct.image.ImageBase;
+import boofcv.testing.BoofTesting;
+import org.junit.Test;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Compares concurrent down convolution to the single threaded versions. Results must be identical.
+ *
+ * @author Peter Abeles
+ */
+public class TestConvolveDownNoBorder_MT {
+
+	Class<?> pairs[][] = new Class[][]{
+			{ConvolveDownNoBorderStandard_MT.class, ConvolveDownNoBorderStandard.class},
+			{ConvolveDownNoBorderUnrolled_F32_F32_MT.class, ConvolveDownNoBorderUnrolled_F32_F32.class},
+			{ConvolveDownNoBorderUnrolled_S16_I16_MT.class, ConvolveDownNoBorderUnrolled_S16_I16.class},
+			{ConvolveDownNoBorderUnrolled_S16_I16_Div_MT.class, ConvolveDownNoBorderUnrolled_S16_I16_Div.class},
+			{ConvolveDownNoBorderUnrolled_U8_I16_MT.class, ConvolveDownNoBorderUnrolled_U8_I16.class},
+			{ConvolveDownNoBorderUnrolled_U8_I8_Div_MT.class, ConvolveDownNoBorderUnrolled_U8_I8_Div.class}};
+
+	@Test
+	public void compareToSingle() {
+		// force it to use multiple threads even on a single core machine
+		int previousThreads = BoofConcurrency.getMaxThreads();
+		BoofConcurrency.setMaxThreads(3);
+		try {
+			for( Class<?> pair[] : pairs ) {
+				int total = 0;
+				Compare compare = new Compare(pair[0], pair[1]);
+				for( Method m : pair[0].getDeclaredMethods() ) {
+					if( !isTestMethod(m) )
+						continue;
+					for( int skip = 1; skip <= 3; skip++ ) {
+						for( int radius : selectRadius(m) ) {
+							compare.setSkip(skip);
+							compare.setImageDimention(20+skip,25+skip);
+							compare.compareMethod(m, m.getName(), radius);
+						}
+					}
+					total++;
+				}
+				// make sure every function in the single threaded class was checked
+				int expected = 0;
+				for( Method m : pair[1].getDeclaredMethods() ) {
+					if( isTestMethod(m) )
+						expected++;
+				}
+				assertEquals(expected,total);
+			}
+		} finally {
+			BoofConcurrency.setMaxThreads(previousThreads);
+		}
+	}
+
+	private static boolean isTestMethod( Method m ) {
+		Class<?> param[] = m.getParameterTypes();
+		return Modifier.isPublic(m.getModifiers()) && m.getReturnType() == void.class &&
+				param.length >= 4 && KernelBase.class.isAssignableFrom(param[0]);
+	}
+
+	/**
+	 * Functions in unrolled classes only work with a specific kernel width
+	 */
+	private static int[] selectRadius( Method m ) {
+		String name = m.getName();
+		int suffix = name.length();
+		while( Character.isDigit(name.charAt(suffix-1)) )
+			suffix--;
+
+		if( suffix != name.length() )
+			return new int[]{Integer.parseInt(name.substring(suffix))/2};
+		else
+			return new int[]{1,2};
+	}
+
+	private static class Compare extends CompareToStandardConvolveDownNoBorder {
+		public Compare(Class<?> targetClass, Class<?> validationClass) {
+			super(targetClass, validationClass);
+		}
+
+		@Override
+		protected void compareResults(Object targetResult, Object[] targetParam,
+									  Object validationResult, Object[] validationParam) {
+			// results should be identical
+			BoofTesting.assertEquals((ImageBase)validationParam[2], (ImageBase)targetParam[2], 0);
+		}
+	}
+}
@@ -0,0 +1,124 @@
+/*
+ * Copyright (c) 2011-2018, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.filter.convolve.noborder;
+
+import boofcv.alg.misc.GImageMiscOps;
+import boofcv.concurrency.BoofConcurrency;
+import boofcv.core.image.GeneralizedImageOps;
+import boofcv.factory.filter.kernel.FactoryKernel;
+import boofcv.struct.convolve.KernelBase;
+import boofcv.struct.image.ImageBase;
+import boofcv.struct.image.ImageGray;
+import boofcv.testing.BoofTesting;
+import boofcv.testing.CompareIdenticalFunctions;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Compares the concurrent implementation of a convolution class against the single threaded version. The
+ * output is required to be identical.
+ *
+ * @author Peter Abeles
+ */
+public abstract class CompareConvolveToSingleThread extends CompareIdenticalFunctions {
+	Random rand = new Random(234);
+
+	int width = 45;
+	int height = 60;
+	int numBands = 2;
+
+	protected CompareConvolveToSingleThread(Class<?> testClass, Class<?>... validationClass) {
+		super(testClass, validationClass);
+	}
+
+	@Override
+	public void performTests(int numMethods) {
+		// force it to use multiple threads even on a single core machine
+		int previousThreads = BoofConcurrency.getMaxThreads();
+		BoofConcurrency.setMaxThreads(3);
+		try {
+			super.performTests(numMethods);
+		} finally {
+			BoofConcurrency.setMaxThreads(previousThreads);
+		}
+	}
+
+	@Override
+	protected boolean isTestMethod(Method m) {
+		Class<?> param[] = m.getParameterTypes();
+		return param.length >= 3 && KernelBase.class.isAssignableFrom(param[0]);
+	}
+
+	@Override
+	protected Object[][] createInputParam(Method candidate, Method validation) {
+		Class<?> param[] = candidate.getParameterTypes();
+
+		// functions in unrolled classes only work with a specific kernel width
+		String name = candidate.getName();
+		int suffix = name.length();
+		while( Character.isDigit(name.charAt(suffix-1)) )
+			suffix--;
+
+		List<int[]> shapes = new ArrayList<>();
+		if( suffix != name.length() ) {
+			int kernelWidth = Integer.parseInt(name.substring(suffix));
+			shapes.add(new int[]{kernelWidth,kernelWidth/2});
+		} else {
+			shapes.add(new int[]{5,2});
+			shapes.add(new int[]{4,1});
+		}
+
+		Object[][] ret = new Object[shapes.size()][];
+		for (int i = 0; i < shapes.size(); i++) {
+			int shape[] = shapes.get(i);
+			ImageBase input = createImage(param[1]);
+			ImageBase output = createImage(param[2]);
+			GImageMiscOps.fillUniform(input, rand, 0, 20);
+
+			ret[i] = new Object[param.length];
+			ret[i][0] = FactoryKernel.random(param[0], shape[0], shape[1], 0, 10, rand);
+			ret[i][1] = input;
+			ret[i][2] = output;
+			if( param.length == 4 )
+				ret[i][3] = 11;
+		}
+		return ret;
+	}
+
+	private ImageBase createImage( Class type ) {
+		if( ImageGray.class.isAssignableFrom(type))
+			return GeneralizedImageOps.createSingleBand(type, width, height);
+		else
+			return GeneralizedImageOps.createInterleaved(type, width, height, numBands);
+	}
+
+	@Override
+	protected void compareResults(Object targetResult, Object[] targetParam, Object validationResult, Object[] validationParam) {
+		if( targetResult != null )
+			assertEquals(validationResult, targetResult);
+
+		// results should be identical
+		BoofTesting.assertEquals((ImageBase)validationParam[2], (ImageBase)targetParam[2], 0);
+	}
+}
@@ -0,0 +1,44 @@
+/*
+ * Copyright (c) 2011-2018, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.filter.convolve.noborder;
+
+import org.junit.Test;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestConvolveImageUnrolled_SB_MT {
+
+	Class<?> pairs[][] = new Class[][]{
+			{ConvolveImageUnrolled_SB_F32_F32_MT.class, ConvolveImageUnrolled_SB_F32_F32.class},
+			{ConvolveImageUnrolled_SB_F64_F64_MT.class, ConvolveImageUnrolled_SB_F64_F64.class},
+			{ConvolveImageUnrolled_SB_S16_I16_MT.class, ConvolveImageUnrolled_SB_S16_I16.class},
+			{ConvolveImageUnrolled_SB_S16_I16_Div_MT.class, ConvolveImageUnrolled_SB_S16_I16_Div.class},
+			{ConvolveImageUnrolled_SB_S32_S32_MT.class, ConvolveImageUnrolled_SB_S32_S32.class},
+			{ConvolveImageUnrolled_SB_S32_S32_Div_MT.class, ConvolveImageUnrolled_SB_S32_S32_Div.class},
+			{ConvolveImageUnrolled_SB_U8_I16_MT.class, ConvolveImageUnrolled_SB_U8_I16.class},
+			{ConvolveImageUnrolled_SB_U8_I8_Div_MT.class, ConvolveImageUnrolled_SB_U8_I8_Div.class}};
+
+	@Test
+	public void compareToSingle() {
+		for( Class<?> pair[] : pairs ) {
+			new CompareConvolveToSingleThread(pair[0], pair[1]) {}.performTests(18);
+		}
+	}
+}
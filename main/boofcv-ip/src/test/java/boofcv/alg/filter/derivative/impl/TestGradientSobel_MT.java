@@ -0,0 +1,87 @@
+/*
+ * Copyright (c) 2011-2018, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.filter.derivative.impl;
+
+import boofcv.alg.misc.GImageMiscOps;
+import boofcv.concurrency.BoofConcurrency;
+import boofcv.core.image.GeneralizedImageOps;
+import boofcv.struct.image.ImageGray;
+import boofcv.testing.BoofTesting;
+import org.junit.Test;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.Random;
+
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Compares the concurrent Sobel implementations to the single threaded versions. Results must be identical.
+ *
+ * @author Peter Abeles
+ */
+public class TestGradientSobel_MT {
+	Random rand = new Random(234);
+
+	Class<?> pairs[][] = new Class[][]{
+			{GradientSobel_Outer_MT.class, GradientSobel_Outer.class},
+			{GradientSobel_UnrolledOuter_MT.class, GradientSobel_UnrolledOuter.class}};
+
+	@Test
+	public void compareToSingle() throws Exception {
+		// force it to use multiple threads even on a single core machine
+		int previousThreads = BoofConcurrency.getMaxThreads();
+		BoofConcurrency.setMaxThreads(3);
+		try {
+			for( Class<?> pair[] : pairs ) {
+				int total = 0;
+				for( Method validation : pair[1].getDeclaredMethods() ) {
+					if( !Modifier.isPublic(validation.getModifiers()) )
+						continue;
+					Method target = pair[0].getMethod(validation.getName(), validation.getParameterTypes());
+					// width isn't a multiple of 3 to exercise the unrolled loop
+					compare(target, validation, 31, 40);
+					compare(target, validation, 32, 41);
+					total++;
+				}
+				assertTrue(total > 0);
+			}
+		} finally {
+			BoofConcurrency.setMaxThreads(previousThreads);
+		}
+	}
+
+	private void compare( Method target , Method validation , int width , int height ) throws Exception {
+		Class<?> param[] = validation.getParameterTypes();
+
+		ImageGray input = GeneralizedImageOps.createSingleBand((Class)param[0], width, height);
+		GImageMiscOps.fillUniform(input, rand, 0, 100);
+
+		ImageGray expectedX = GeneralizedImageOps.createSingleBand((Class)param[1], width, height);
+		ImageGray expectedY = GeneralizedImageOps.createSingleBand((Class)param[2], width, height);
+		ImageGray foundX = GeneralizedImageOps.createSingleBand((Class)param[1], width, height);
+		ImageGray foundY = GeneralizedImageOps.createSingleBand((Class)param[2], width, height);
+
+		validation.invoke(null, input, expectedX, expectedY);
+		target.invoke(null, input, foundX, foundY);
+
+		BoofTesting.assertEquals(expectedX, foundX, 0);
+		BoofTesting.assertEquals(expectedY, foundY, 0);
+	}
+}
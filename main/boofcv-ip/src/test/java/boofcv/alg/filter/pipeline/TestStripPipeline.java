@@ -0,0 +1,273 @@
+/*
+ * Copyright (c) 2011-2018, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.filter.pipeline;
+
+import boofcv.alg.filter.binary.ThresholdImageOps;
+import boofcv.alg.filter.blur.BlurImageOps;
+import boofcv.alg.filter.convolve.ConvolveImageNormalized;
+import boofcv.alg.filter.derivative.GradientSobel;
+import boofcv.alg.misc.GImageMiscOps;
+import boofcv.concurrency.BoofConcurrency;
+import boofcv.core.image.GConvertImage;
+import boofcv.core.image.border.BorderType;
+import boofcv.core.image.border.FactoryImageBorder;
+import boofcv.core.image.border.ImageBorder_F32;
+import boofcv.struct.convolve.Kernel1D_F32;
+import boofcv.struct.image.*;
+import boofcv.testing.BoofTesting;
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestStripPipeline {
+
+	Random rand = new Random(234);
+
+	ImageType[] types = new ImageType[]{
+			ImageType.single(GrayU8.class),
+			ImageType.single(GrayS16.class),
+			ImageType.single(GrayF64.class),
+			ImageType.il(3,InterleavedU8.class),
+			ImageType.pl(2,GrayF32.class)};
+
+	// image shapes. Includes images which are smaller than the kernels
+	int[][] shapes = new int[][]{{40,35},{3,2},{1,9},{11,1},{3,3},{4,6}};
+
+	/**
+	 * Converting to gray without any other operations
+	 */
+	@Test
+	public void process_gray() {
+		for( ImageType type : types ) {
+			StripPipeline alg = new StripPipeline(type);
+			checkAllConcurrency(()->{
+				for( int[] shape : shapes ) {
+					ImageBase input = createInput(type,shape[0],shape[1]);
+					GrayF32 found = new GrayF32(1,1);
+					alg.process(input,found);
+					BoofTesting.assertEquals(gray(input),found,1e-4);
+				}
+			});
+		}
+	}
+
+	@Test
+	public void process_gaussian() {
+		for( ImageType type : types ) {
+			StripPipeline alg = new StripPipeline(type).gaussian(-1,3);
+			checkAllConcurrency(()->{
+				for( int[] shape : shapes ) {
+					ImageBase input = createInput(type,shape[0],shape[1]);
+					GrayF32 found = new GrayF32(1,1);
+					alg.process(input,found);
+					GrayF32 expected = BlurImageOps.gaussian(gray(input),null,-1,3,null);
+					BoofTesting.assertEquals(expected,found,1e-3);
+				}
+			});
+		}
+	}
+
+	/**
+	 * Several convolutions with kernels which aren't centered and don't sum to one
+	 */
+	@Test
+	public void process_multipleConvolutions() {
+		Kernel1D_F32 kernelA = new Kernel1D_F32(new float[]{1,2,3,1},4,1);
+		Kernel1D_F32 kernelB = new Kernel1D_F32(new float[]{2,1},2,0);
+
+		for( ImageType type : types ) {
+			StripPipeline alg = new StripPipeline(type).
+					convolve(kernelA,kernelB).convolve(null,kernelA).convolve(kernelB,null).gaussian(-1,1);
+			assertEquals(3,alg.getNumberOfVertical());
+			checkAllConcurrency(()->{
+				for( int[] shape : shapes ) {
+					ImageBase input = createInput(type,shape[0],shape[1]);
+					GrayF32 found = new GrayF32(1,1);
+					alg.process(input,found);
+
+					GrayF32 expected = gray(input);
+					GrayF32 tmp = expected.createSameShape();
+					ConvolveImageNormalized.horizontal(kernelA,expected,tmp);
+					ConvolveImageNormalized.vertical(kernelB,tmp,expected);
+					ConvolveImageNormalized.vertical(kernelA,expected,tmp);
+					ConvolveImageNormalized.horizontal(kernelB,tmp,expected);
+					expected = BlurImageOps.gaussian(expected,null,-1,1,null);
+					BoofTesting.assertEquals(expected,found,1e-3);
+				}
+			});
+		}
+	}
+
+	@Test
+	public void threshold() {
+		for( ImageType type : types ) {
+			StripPipeline alg = new StripPipeline(type).gaussian(-1,2);
+			checkAllConcurrency(()->{
+				for( boolean down : new boolean[]{true,false}) {
+					for( int[] shape : shapes ) {
+						ImageBase input = createInput(type,shape[0],shape[1]);
+						GrayF32 blurred = BlurImageOps.gaussian(gray(input),null,-1,2,null);
+
+						// select a threshold which isn't close to any pixel value
+						float threshold = 50.5f;
+						for( int i = 0; i < blurred.data.length; i++ ) {
+							if( Math.abs(blurred.data[i]-threshold) < 0.01 )
+								threshold += 0.1f;
+						}
+
+						GrayU8 found = new GrayU8(1,1);
+						alg.threshold(input,found,threshold,down);
+						GrayU8 expected = ThresholdImageOps.threshold(blurred,null,threshold,down);
+						BoofTesting.assertEquals(expected,found,0);
+					}
+				}
+			});
+		}
+	}
+
+	@Test
+	public void sobel() {
+		for( ImageType type : types ) {
+			StripPipeline alg = new StripPipeline(type).gaussian(-1,2);
+			checkAllConcurrency(()->{
+				for( int[] shape : shapes ) {
+					// GradientSobel can't handle images which are thinner than the kernel
+					if( shape[0] < 3 || shape[1] < 3 )
+						continue;
+					ImageBase input = createInput(type,shape[0],shape[1]);
+					GrayF32 blurred = BlurImageOps.gaussian(gray(input),null,-1,2,null);
+
+					GrayF32 foundX = new GrayF32(1,1);
+					GrayF32 foundY = new GrayF32(1,1);
+					alg.sobel(input,foundX,foundY);
+
+					GrayF32 expectedX = blurred.createSameShape();
+					GrayF32 expectedY = blurred.createSameShape();
+					ImageBorder_F32 border = (ImageBorder_F32)FactoryImageBorder.single(GrayF32.class,BorderType.EXTENDED);
+					GradientSobel.process(blurred,expectedX,expectedY,border);
+
+					BoofTesting.assertEquals(expectedX,foundX,1e-3);
+					BoofTesting.assertEquals(expectedY,foundY,1e-3);
+				}
+			});
+		}
+	}
+
+	/**
+	 * Input and output images are sub-images
+	 */
+	@Test
+	public void subimage() {
+		for( ImageType type : types ) {
+			StripPipeline alg = new StripPipeline(type).gaussian(-1,2);
+			ImageBase input = createInput(type,30,25);
+			ImageBase inputSub = BoofTesting.createSubImageOf(input);
+			GrayF32 expected = new GrayF32(1,1);
+			alg.process(input,expected);
+
+			GrayF32 found = BoofTesting.createSubImageOf(new GrayF32(30,25));
+			alg.process(inputSub,found);
+			BoofTesting.assertEquals(expected,found,1e-4);
+
+			GrayF32 foundX = BoofTesting.createSubImageOf(new GrayF32(30,25));
+			GrayF32 foundY = BoofTesting.createSubImageOf(new GrayF32(30,25));
+			GrayF32 expectedX = new GrayF32(1,1);
+			GrayF32 expectedY = new GrayF32(1,1);
+			alg.sobel(input,expectedX,expectedY);
+			alg.sobel(inputSub,foundX,foundY);
+			BoofTesting.assertEquals(expectedX,foundX,1e-4);
+			BoofTesting.assertEquals(expectedY,foundY,1e-4);
+		}
+	}
+
+	/**
+	 * When processed in strips the rows along the strip boundaries are computed twice. The results should
+	 * be identical
+	 */
+	@Test
+	public void stripsIdentical() {
+		ImageType type = ImageType.il(3,InterleavedU8.class);
+		StripPipeline alg = new StripPipeline(type).gaussian(-1,4);
+		ImageBase input = createInput(type,50,61);
+
+		GrayF32 single = new GrayF32(1,1);
+		GrayF32 concurrent = new GrayF32(1,1);
+
+		int maxThreads = BoofConcurrency.getMaxThreads();
+		boolean useConcurrent = BoofConcurrency.USE_CONCURRENT;
+		try {
+			BoofConcurrency.setMaxThreads(3);
+			BoofConcurrency.USE_CONCURRENT = false;
+			alg.process(input,single);
+			BoofConcurrency.USE_CONCURRENT = true;
+			alg.process(input,concurrent);
+			assertTrue(alg.strips.size() > 1);
+		} finally {
+			BoofConcurrency.USE_CONCURRENT = useConcurrent;
+			BoofConcurrency.setMaxThreads(maxThreads);
+		}
+		BoofTesting.assertEquals(single,concurrent,0);
+	}
+
+	private void checkAllConcurrency( Runnable check ) {
+		int maxThreads = BoofConcurrency.getMaxThreads();
+		boolean useConcurrent = BoofConcurrency.USE_CONCURRENT;
+		try {
+			BoofConcurrency.setMaxThreads(3);
+			for( boolean concurrent : new boolean[]{false,true} ) {
+				BoofConcurrency.USE_CONCURRENT = concurrent;
+				check.run();
+			}
+		} finally {
+			BoofConcurrency.USE_CONCURRENT = useConcurrent;
+			BoofConcurrency.setMaxThreads(maxThreads);
+		}
+	}
+
+	private ImageBase createInput( ImageType type , int width , int height ) {
+		ImageBase input = type.createImage(width,height);
+		GImageMiscOps.fillUniform(input,rand,0,100);
+		return input;
+	}
+
+	/**
+	 * Converts the input into floating point and then into gray
+	 */
+	private static GrayF32 gray( ImageBase input ) {
+		ImageType type = input.getImageType();
+		ImageBase f32;
+		if( type.getFamily() == ImageType.Family.INTERLEAVED )
+			f32 = new InterleavedF32(input.width,input.height,type.getNumBands());
+		else if( type.getFamily() == ImageType.Family.PLANAR )
+			f32 = new Planar<>(GrayF32.class,input.width,input.height,type.getNumBands());
+		else
+			f32 = new GrayF32(input.width,input.height);
+		GConvertImage.convert(input,f32);
+
+		if( f32 instanceof GrayF32 )
+			return (GrayF32)f32;
+		return GConvertImage.average((ImageMultiBand)f32,new GrayF32(input.width,input.height));
+	}
+}
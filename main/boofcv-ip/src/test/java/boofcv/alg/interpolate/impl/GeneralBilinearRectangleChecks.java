@@ -82,6 +82,29 @@ public abstract class GeneralBilinearRectangleChecks<T extends ImageGray<T>> {
 	}
 
 
+	/**
+	 * A copy should produce the same results as the original
+	 */
+	@Test
+	public void copy() {
+		T img = createImage(width, height);
+		GImageMiscOps.fillUniform(img, rand, 0, 100);
+
+		InterpolateRectangle<T> interp = createRectangleInterpolate();
+		interp.setImage(img);
+		InterpolateRectangle<T> copy = interp.copy();
+		assertTrue(copy != interp);
+		assertEquals(interp.getClass(), copy.getClass());
+		copy.setImage(img);
+
+		GrayF32 expected = new GrayF32(10,15);
+		GrayF32 found = new GrayF32(10,15);
+		interp.region(2.11f, 5.23f, expected);
+		copy.region(2.11f, 5.23f, found);
+
+		BoofTesting.assertEquals(expected, found, 0);
+	}
+
 	@Test(expected=IllegalArgumentException.class)
 	public void outsideImageBorder() {
 		T img = createImage(width, height);
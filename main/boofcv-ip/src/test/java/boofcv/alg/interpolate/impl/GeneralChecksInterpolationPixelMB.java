@@ -206,6 +206,37 @@ public abstract class GeneralChecksInterpolationPixelMB<T extends ImageMultiBand
 		for (int i = 0; i < numBands; i++) { assertEquals(tmp0[i],tmp1[i],1e-4); }
 	}
 
+	/**
+	 * The copy should produce identical results and not share any state with the original
+	 */
+	@Test
+	public void copy() {
+		T img = createImage(width, height, numBands);
+		GImageMiscOps.fillUniform(img, rand, 0, 100);
+
+		InterpolatePixelMB<T> interp = wrap(img, 0, 100);
+		interp.setBorder((ImageBorder)FactoryImageBorder.interleavedValue((Class) img.getClass(), 5));
+		interp.setImage(img);
+
+		InterpolatePixelMB<T> copy = interp.copy();
+		assertNotSame(interp,copy);
+		assertNotSame(interp.getBorder(),copy.getBorder());
+		copy.setImage(img);
+
+		for( int i = 0; i < 200; i++ ) {
+			float x = rand.nextFloat()*(width+10)-5;
+			float y = rand.nextFloat()*(height+10)-5;
+			interp.get(x,y,tmp0);
+			copy.get(x,y,tmp1);
+			for (int j = 0; j < numBands; j++) { assertEquals(tmp0[j],tmp1[j],1e-4); }
+		}
+
+		// giving the copy a different image shouldn't change the original
+		copy.setImage(createImage(width/2, height/2, numBands));
+		assertSame(img,interp.getImage());
+		assertSame(img,interp.getBorder().getImage());
+	}
+
 	@Test
 	public void getImage() {
 		T img = createImage(width, height, numBands);
@@ -174,6 +174,35 @@ public abstract class GeneralChecksInterpolationPixelS<T extends ImageGray<T>> {
 		assertEquals(5,interp.get(0,2330),1e-6);
 	}
 
+	/**
+	 * The copy should produce identical results and not share any state with the original
+	 */
+	@Test
+	public void copy() {
+		T img = createImage(width, height);
+		GImageMiscOps.fillUniform(img, rand, 0, 100);
+
+		InterpolatePixelS<T> interp = wrap(img, 0, 100);
+		interp.setBorder((ImageBorder)FactoryImageBorder.singleValue(img.getClass(), 5));
+		interp.setImage(img);
+
+		InterpolatePixelS<T> copy = interp.copy();
+		assertNotSame(interp,copy);
+		assertNotSame(interp.getBorder(),copy.getBorder());
+		copy.setImage(img);
+
+		for( int i = 0; i < 200; i++ ) {
+			float x = rand.nextFloat()*(width+10)-5;
+			float y = rand.nextFloat()*(height+10)-5;
+			assertEquals(interp.get(x,y),copy.get(x,y),1e-6);
+		}
+
+		// giving the copy a different image shouldn't change the original
+		copy.setImage(createImage(width/2, height/2));
+		assertSame(img,interp.getImage());
+		assertSame(img,interp.getBorder().getImage());
+	}
+
 	@Test
 	public void getImage() {
 		T img = createImage(width, height);
@@ -0,0 +1,201 @@
+/*
+ * Copyright (c) 2011-2018, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.misc;
+
+import boofcv.struct.image.*;
+import boofcv.testing.BoofTesting;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestImageOperators {
+
+	Random rand = new Random(234);
+	int width = 20, height = 15;
+
+	List<ImageType> types = new ArrayList<>();
+
+	public TestImageOperators() {
+		ImageDataType[] dataTypes = new ImageDataType[]{ImageDataType.U8, ImageDataType.S8,ImageDataType.U16,
+				ImageDataType.S16, ImageDataType.S32, ImageDataType.S64, ImageDataType.F32, ImageDataType.F64};
+		for( ImageDataType d : dataTypes ) {
+			types.add(ImageType.single(d));
+			types.add(ImageType.il(2,d));
+			types.add(ImageType.pl(2,d));
+		}
+	}
+
+	/**
+	 * Compare the scalar operators against {@link GPixelMath}
+	 */
+	@Test
+	public void scalar() {
+		for( ImageType type : types ) {
+			ImageBase input = createImage(type);
+			ImageBase expected = input.createSameShape();
+			ImageBase found = input.createSameShape();
+
+			GPixelMath.multiply(input,2.5,expected);
+			ImageOperators.multiply(type).process(input,2.5,found);
+			BoofTesting.assertEquals(expected,found,1e-4);
+
+			GPixelMath.divide(input,2.5,expected);
+			ImageOperators.divide(type).process(input,2.5,found);
+			BoofTesting.assertEquals(expected,found,1e-4);
+
+			GPixelMath.plus(input,3,expected);
+			ImageOperators.plus(type).process(input,3,found);
+			BoofTesting.assertEquals(expected,found,1e-4);
+
+			GPixelMath.minus(input,3,expected);
+			ImageOperators.minus(type).process(input,3,found);
+			BoofTesting.assertEquals(expected,found,1e-4);
+		}
+	}
+
+	/**
+	 * Compare the unary operators against {@link GPixelMath}. Unsigned images aren't supported
+	 */
+	@Test
+	public void unary() {
+		for( ImageType type : types ) {
+			ImageBase input = createImage(type);
+			ImageBase expected = input.createSameShape();
+			ImageBase found = input.createSameShape();
+
+			if( !type.getDataType().isSigned() ) {
+				try {
+					ImageOperators.abs(type);
+					fail("Should have thrown an exception");
+				} catch( IllegalArgumentException ignore ) {}
+				continue;
+			}
+
+			GPixelMath.abs(input,expected);
+			ImageOperators.abs(type).process(input,found);
+			BoofTesting.assertEquals(expected,found,1e-4);
+
+			GPixelMath.invert(input,expected);
+			ImageOperators.invert(type).process(input,found);
+			BoofTesting.assertEquals(expected,found,1e-4);
+		}
+
+		// only supported by floating point gray images
+		GrayF32 input = new GrayF32(width,height);
+		GImageMiscOps.fillUniform(input,rand,0,10);
+		GrayF32 expected = input.createSameShape();
+		GrayF32 found = input.createSameShape();
+		ImageType<GrayF32> type = ImageType.single(GrayF32.class);
+
+		PixelMath.sqrt(input,expected);
+		ImageOperators.sqrt(type).process(input,found);
+		BoofTesting.assertEquals(expected,found,1e-4);
+
+		PixelMath.log(input,expected);
+		ImageOperators.log(type).process(input,found);
+		BoofTesting.assertEquals(expected,found,1e-4);
+
+		PixelMath.pow2(input,expected);
+		ImageOperators.pow2(type).process(input,found);
+		BoofTesting.assertEquals(expected,found,1e-4);
+	}
+
+	/**
+	 * Compare against {@link GImageStatistics}. Planar images are compared against the statistic computed from
+	 * each band
+	 */
+	@Test
+	public void statistic() {
+		for( ImageType type : types ) {
+			ImageBase input = createImage(type);
+
+			double min,max,maxAbs,sum,mean;
+			if( type.getFamily() == ImageType.Family.PLANAR ) {
+				Planar p = (Planar)input;
+				min = Math.min(GImageStatistics.min(p.getBand(0)),GImageStatistics.min(p.getBand(1)));
+				max = Math.max(GImageStatistics.max(p.getBand(0)),GImageStatistics.max(p.getBand(1)));
+				maxAbs = Math.max(GImageStatistics.maxAbs(p.getBand(0)),GImageStatistics.maxAbs(p.getBand(1)));
+				sum = GImageStatistics.sum(p.getBand(0)) + GImageStatistics.sum(p.getBand(1));
+				mean = sum/(width*height*2);
+			} else {
+				min = GImageStatistics.min(input);
+				max = GImageStatistics.max(input);
+				maxAbs = GImageStatistics.maxAbs(input);
+				sum = GImageStatistics.sum(input);
+				mean = GImageStatistics.mean(input);
+			}
+
+			double tol = Math.abs(sum)*1e-6;
+			assertEquals(min,ImageOperators.min(type).process(input),1e-4);
+			assertEquals(max,ImageOperators.max(type).process(input),1e-4);
+			assertEquals(maxAbs,ImageOperators.maxAbs(type).process(input),1e-4);
+			assertEquals(sum,ImageOperators.sum(type).process(input),tol);
+			assertEquals(mean,ImageOperators.mean(type).process(input),1e-4);
+		}
+	}
+
+	@Test
+	public void fill() {
+		for( ImageType type : types ) {
+			ImageBase expected = type.createImage(width,height);
+			ImageBase found = type.createImage(width,height);
+
+			GImageMiscOps.fill(expected,7);
+			ImageOperators.fill(type).process(found,7);
+			BoofTesting.assertEquals(expected,found,1e-4);
+		}
+	}
+
+	/**
+	 * The same operator should work on sub-images and different sized images
+	 */
+	@Test
+	public void reuse() {
+		ImageType<GrayU8> type = ImageType.single(GrayU8.class);
+		ImageOperators.Scalar<GrayU8> divide = ImageOperators.divide(type);
+
+		for( int size : new int[]{5,31} ) {
+			GrayU8 input = new GrayU8(size,size+1);
+			GImageMiscOps.fillUniform(input,rand,0,200);
+			GrayU8 expected = input.createSameShape();
+			GrayU8 found = BoofTesting.createSubImageOf(expected);
+
+			GPixelMath.divide(input,3,expected);
+			divide.process(input,3,found);
+			BoofTesting.assertEquals(expected,found,1e-4);
+		}
+	}
+
+	private ImageBase createImage( ImageType type ) {
+		ImageBase image = type.createImage(width,height);
+		if( type.getDataType().isSigned() )
+			GImageMiscOps.fillUniform(image,rand,-20,20);
+		else
+			GImageMiscOps.fillUniform(image,rand,0,40);
+		return image;
+	}
+}
@@ -0,0 +1,181 @@
+/*
+ * Copyright (c) 2011-2018, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.misc;
+
+import boofcv.core.image.ConvertImage;
+import boofcv.core.image.GConvertImage;
+import boofcv.struct.image.*;
+import boofcv.testing.BoofTesting;
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestPixelPipeline {
+
+	Random rand = new Random(234);
+	int width = 25, height = 18;
+
+	ImageDataType[] dataTypes = new ImageDataType[]{ImageDataType.U8, ImageDataType.S8,ImageDataType.U16,
+			ImageDataType.S16, ImageDataType.S32, ImageDataType.S64, ImageDataType.F32, ImageDataType.F64};
+
+	/**
+	 * Scale, clip, and convert in one pass should be the same as doing each step on a whole image
+	 */
+	@Test
+	public void scaleClipConvert() {
+		GrayF32 input = new GrayF32(width,height);
+		GImageMiscOps.fillUniform(input,rand,-50,400);
+
+		GrayF32 work = input.createSameShape();
+		GrayU8 expected = new GrayU8(width,height);
+		PixelMath.multiply(input,0.7f,work);
+		PixelMath.boundImage(work,0,255);
+		ConvertImage.convert(work,expected);
+
+		PixelPipeline<GrayF32,GrayU8> alg = new PixelPipeline<>(
+				ImageType.single(GrayF32.class),ImageType.single(GrayU8.class)).scale(0.7).clip(0,255);
+		GrayU8 found = new GrayU8(1,1);
+		alg.process(input,found);
+
+		BoofTesting.assertEquals(expected,found,0);
+
+		// sub-images
+		GrayF32 inputSub = BoofTesting.createSubImageOf(input);
+		GrayU8 foundSub = BoofTesting.createSubImageOf(found);
+		GImageMiscOps.fill(foundSub,0);
+		alg.process(inputSub,foundSub);
+		BoofTesting.assertEquals(expected,foundSub,0);
+	}
+
+	/**
+	 * With no stages it should be the same as converting the image
+	 */
+	@Test
+	public void convert_allTypes() {
+		for( ImageType.Family family : new ImageType.Family[]{
+				ImageType.Family.GRAY, ImageType.Family.INTERLEAVED, ImageType.Family.PLANAR}) {
+			for( ImageDataType inputType : dataTypes ) {
+				ImageBase input = new ImageType(family,inputType,3).createImage(width,height);
+				GImageMiscOps.fillUniform(input,rand,inputType.isSigned() ? -100 : 0,120);
+
+				for( ImageDataType outputType : dataTypes ) {
+					ImageType typeOut = new ImageType(family,outputType,3);
+					ImageBase expected = typeOut.createImage(width,height);
+					ImageBase found = typeOut.createImage(width,height);
+					GConvertImage.convert(input,expected);
+
+					new PixelPipeline(input.getImageType(),typeOut).process(input,found);
+					BoofTesting.assertEquals(expected,found,1e-4);
+				}
+			}
+		}
+	}
+
+	@Test
+	public void stages() {
+		GrayF64 input = new GrayF64(width,height);
+		GImageMiscOps.fillUniform(input,rand,-10,10);
+		GrayF64 found = input.createSameShape();
+
+		new PixelPipeline<>(input.getImageType(),input.getImageType()).
+				abs().offset(0.3).scale(2).round().clip(1,15).process(input,found);
+
+		for( int i = 0; i < input.data.length; i++ ) {
+			double expected = Math.round((Math.abs(input.data[i])+0.3)*2);
+			expected = Math.max(1,Math.min(15,expected));
+			assertEquals(expected,found.data[i],1e-8);
+		}
+	}
+
+	/**
+	 * Stages created from {@link ImageOperators} should produce the same results as the operators applied to
+	 * the whole image
+	 */
+	@Test
+	public void imageOperators() {
+		for( ImageType type : new ImageType[]{ImageType.single(GrayF32.class),ImageType.pl(2,GrayF32.class)}) {
+			ImageBase input = type.createImage(width,height);
+			GImageMiscOps.fillUniform(input,rand,0,10);
+			ImageBase work = input.createSameShape();
+			ImageBase expected = input.createSameShape();
+			ImageBase found = input.createSameShape();
+
+			ImageOperators.log(type).process(input,work);
+			ImageOperators.pow2(type).process(work,expected);
+			ImageOperators.divide(type).process(expected,2.5,work);
+			ImageOperators.sqrt(type).process(work,expected);
+			ImageOperators.minus(type).process(expected,1.5,work);
+			ImageOperators.invert(type).process(work,expected);
+
+			new PixelPipeline(type,type).
+					add(ImageOperators.log(type)).add(ImageOperators.pow2(type)).
+					add(ImageOperators.divide(type),2.5).add(ImageOperators.sqrt(type)).
+					add(ImageOperators.minus(type),1.5).add(ImageOperators.invert(type)).process(input,found);
+			BoofTesting.assertEquals(expected,found,1e-4);
+
+			// same thing using the pipeline's functions
+			GImageMiscOps.fill(found,0);
+			new PixelPipeline(type,type).log().pow2().divide(2.5).sqrt().offset(-1.5).invert().process(input,found);
+			BoofTesting.assertEquals(expected,found,1e-4);
+		}
+	}
+
+	/**
+	 * Each call should create a new stage so that its parameters can be changed independently
+	 */
+	@Test
+	public void imageOperators_newStage() {
+		ImageOperators.Scalar<GrayF32> divide = ImageOperators.divide(ImageType.single(GrayF32.class));
+		PixelPipeline.Divide a = (PixelPipeline.Divide)divide.asStage(2);
+		PixelPipeline.Divide b = (PixelPipeline.Divide)divide.asStage(3);
+		assertEquals(2,a.denominator,0);
+		assertEquals(3,b.denominator,0);
+	}
+
+	/**
+	 * Stage parameters can be changed after the pipeline has been created and the input can be the output
+	 */
+	@Test
+	public void changeParameters_inplace() {
+		GrayS16 image = new GrayS16(width,height);
+		GImageMiscOps.fill(image,10);
+
+		PixelPipeline.Scale scale = new PixelPipeline.Scale(2);
+		PixelPipeline<GrayS16,GrayS16> alg = new PixelPipeline<>(image.getImageType(),image.getImageType()).add(scale);
+		alg.process(image,image);
+		assertEquals(20,image.get(4,5));
+		scale.value = 3;
+		alg.process(image,image);
+		assertEquals(60,image.get(4,5));
+	}
+
+	@Test
+	public void differentFamilies() {
+		try {
+			new PixelPipeline<>(ImageType.single(GrayU8.class),ImageType.pl(2,GrayU8.class));
+			fail("Should have thrown an exception");
+		} catch( IllegalArgumentException ignore ) {}
+	}
+}
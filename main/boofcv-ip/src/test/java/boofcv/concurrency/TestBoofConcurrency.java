@@ -0,0 +1,149 @@
+/*
+ * Copyright (c) 2011-2018, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.concurrency;
+
+import org.ddogleg.struct.FastQueue;
+import org.ddogleg.struct.GrowQueue_I32;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestBoofConcurrency {
+
+	int previousThreads;
+
+	@Before
+	public void before() {
+		previousThreads = BoofConcurrency.getMaxThreads();
+		BoofConcurrency.setMaxThreads(4);
+	}
+
+	@After
+	public void after() {
+		BoofConcurrency.setMaxThreads(previousThreads);
+	}
+
+	@Test
+	public void setMaxThreads() {
+		BoofConcurrency.setMaxThreads(2);
+		assertEquals(2, BoofConcurrency.getMaxThreads());
+
+		try {
+			BoofConcurrency.setMaxThreads(0);
+			fail("Exception expected");
+		} catch( IllegalArgumentException ignore ){}
+	}
+
+	/**
+	 * Every element should be visited exactly once
+	 */
+	@Test
+	public void loopFor() {
+		AtomicIntegerArray counts = new AtomicIntegerArray(50);
+		BoofConcurrency.loopFor(5, 45, i -> counts.incrementAndGet(i));
+
+		for (int i = 0; i < counts.length(); i++) {
+			assertEquals(i >= 5 && i < 45 ? 1 : 0, counts.get(i));
+		}
+
+		// empty range should do nothing
+		BoofConcurrency.loopFor(5, 5, i -> fail("Should not be called"));
+	}
+
+	/**
+	 * Blocks should be contiguous, not overlap, and cover the entire range
+	 */
+	@Test
+	public void loopBlocks() {
+		AtomicIntegerArray counts = new AtomicIntegerArray(103);
+		AtomicIntegerArray numBlocks = new AtomicIntegerArray(1);
+		BoofConcurrency.loopBlocks(3, 103, (i0, i1) -> {
+			assertTrue(i0 < i1);
+			numBlocks.incrementAndGet(0);
+			for (int i = i0; i < i1; i++) {
+				counts.incrementAndGet(i);
+			}
+		});
+
+		assertEquals(4, numBlocks.get(0));
+		for (int i = 0; i < counts.length(); i++) {
+			assertEquals(i >= 3 ? 1 : 0, counts.get(i));
+		}
+	}
+
+	@Test
+	public void loopBlocks_minBlock() {
+		AtomicIntegerArray numBlocks = new AtomicIntegerArray(1);
+		BoofConcurrency.loopBlocks(0, 20, 8, (i0, i1) -> {
+			assertTrue(i1-i0 >= 8);
+			numBlocks.incrementAndGet(0);
+		});
+		assertEquals(2, numBlocks.get(0));
+	}
+
+	/**
+	 * Each block should get its own work space and the same block should always get the same work space
+	 */
+	@Test
+	public void loopBlocks_workspace() {
+		FastQueue<GrowQueue_I32> workspace = new FastQueue<>(GrowQueue_I32.class, true);
+
+		for (int trial = 0; trial < 2; trial++) {
+			BoofConcurrency.loopBlocks(0, 100, workspace, (data, i0, i1) -> {
+				data.reset();
+				for (int i = i0; i < i1; i++) {
+					data.add(i);
+				}
+			});
+
+			assertEquals(4, workspace.size);
+			int expected = 0;
+			for (int block = 0; block < workspace.size; block++) {
+				GrowQueue_I32 data = workspace.get(block);
+				for (int i = 0; i < data.size; i++) {
+					assertEquals(expected++, data.get(i));
+				}
+			}
+			assertEquals(100, expected);
+		}
+	}
+
+	/**
+	 * Exceptions thrown inside a thread should be passed on to the caller
+	 */
+	@Test
+	public void exceptions() {
+		try {
+			BoofConcurrency.loopFor(0, 100, i -> {
+				if (i == 60)
+					throw new IllegalArgumentException("Foo");
+			});
+			fail("Exception expected");
+		} catch( IllegalArgumentException e ) {
+			assertTrue(e.getMessage().contains("Foo"));
+		}
+	}
+}
@@ -0,0 +1,242 @@
+/*
+ * Copyright (c) 2011-2018, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.core.image;
+
+import boofcv.alg.misc.ImageMiscOps;
+import boofcv.struct.image.GrayF32;
+import boofcv.struct.image.GrayU8;
+import boofcv.struct.image.InterleavedF32;
+import boofcv.struct.image.InterleavedU8;
+import boofcv.testing.BoofTesting;
+import org.junit.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestConvertByteBufferImage {
+	Random rand = new Random(234);
+
+	int width = 15, height = 10;
+	int offset = 7;
+
+	@Test
+	public void wrap_1BU8() {
+		int stride = width + 3;
+		ByteBuffer buffer = ByteBuffer.allocate(offset + stride*height);
+		for (int i = 0; i < buffer.capacity(); i++) {
+			buffer.put(i,(byte)rand.nextInt(255));
+		}
+
+		GrayU8 found = new GrayU8(1,1);
+		assertTrue(ConvertByteBufferImage.wrap_1BU8(buffer,offset,stride,width,height,found));
+		assertTrue(found.isSubimage());
+		assertSame(buffer.array(), found.data);
+		assertEquals(width, found.width);
+		assertEquals(height, found.height);
+
+		for (int y = 0; y < height; y++) {
+			for (int x = 0; x < width; x++) {
+				assertEquals(buffer.get(offset+y*stride+x)&0xFF, found.get(x,y));
+			}
+		}
+
+		// changes in the buffer should be seen in the image
+		buffer.put(offset+stride*2+3,(byte)123);
+		assertEquals(123, found.get(3,2));
+
+		// direct buffers don't have an accessible array
+		assertFalse(ConvertByteBufferImage.wrap_1BU8(ByteBuffer.allocateDirect(10),0,5,5,2,found));
+	}
+
+	@Test
+	public void wrap_NBU8() {
+		int numBands = 3;
+		int stride = width*numBands + 2;
+		ByteBuffer buffer = ByteBuffer.allocate(offset + stride*height);
+		for (int i = 0; i < buffer.capacity(); i++) {
+			buffer.put(i,(byte)rand.nextInt(255));
+		}
+
+		InterleavedU8 found = new InterleavedU8(1,1,1);
+		assertTrue(ConvertByteBufferImage.wrap_NBU8(buffer,offset,stride,width,height,numBands,found));
+		assertTrue(found.isSubimage());
+		assertSame(buffer.array(), found.data);
+		assertEquals(numBands, found.numBands);
+
+		for (int y = 0; y < height; y++) {
+			for (int x = 0; x < width; x++) {
+				for (int band = 0; band < numBands; band++) {
+					assertEquals(buffer.get(offset+y*stride+x*numBands+band)&0xFF, found.getBand(x,y,band));
+				}
+			}
+		}
+
+		assertFalse(ConvertByteBufferImage.wrap_NBU8(ByteBuffer.allocateDirect(10),0,5,5,2,1,found));
+	}
+
+	@Test
+	public void wrap_badSize() {
+		int stride = width + 3;
+		ByteBuffer buffer = ByteBuffer.allocate(offset + stride*height);
+		GrayU8 gray = new GrayU8(1,1);
+		InterleavedU8 inter = new InterleavedU8(1,1,1);
+
+		// just fits
+		assertTrue(ConvertByteBufferImage.wrap_1BU8(buffer,offset,stride,width,height,gray));
+
+		// one byte too many
+		checkBadWrap(()->ConvertByteBufferImage.wrap_1BU8(buffer,offset+4,stride,width,height,gray));
+		checkBadWrap(()->ConvertByteBufferImage.wrap_1BU8(buffer,-1,stride,width,height,gray));
+		checkBadWrap(()->ConvertByteBufferImage.wrap_1BU8(buffer,offset,width-1,width,height,gray));
+		checkBadWrap(()->ConvertByteBufferImage.wrap_NBU8(buffer,offset,stride,width,height,2,inter));
+		// direct buffers are checked too
+		checkBadWrap(()->ConvertByteBufferImage.wrap_1BU8(ByteBuffer.allocateDirect(9),0,5,5,2,gray));
+	}
+
+	private static void checkBadWrap( Runnable r ) {
+		try {
+			r.run();
+			fail("Expected an exception");
+		} catch( IllegalArgumentException ignore ) {}
+	}
+
+	@Test
+	public void wrapOrCopy_1BU8() {
+		int stride = width + 3;
+		ByteBuffer buffer = ByteBuffer.allocateDirect(offset + stride*height);
+		for (int i = 0; i < buffer.capacity(); i++) {
+			buffer.put(i,(byte)rand.nextInt(255));
+		}
+
+		// direct buffers get copied
+		GrayU8 found = new GrayU8(1,1);
+		assertFalse(ConvertByteBufferImage.wrapOrCopy_1BU8(buffer,offset,stride,width,height,found));
+		assertFalse(found.isSubimage());
+		for (int y = 0; y < height; y++) {
+			for (int x = 0; x < width; x++) {
+				assertEquals(buffer.get(offset+y*stride+x)&0xFF, found.get(x,y));
+			}
+		}
+
+		// array backed buffers get wrapped
+		ByteBuffer heap = ByteBuffer.allocate(buffer.capacity());
+		assertTrue(ConvertByteBufferImage.wrapOrCopy_1BU8(heap,offset,stride,width,height,found));
+		assertSame(heap.array(), found.data);
+	}
+
+	@Test
+	public void wrapOrCopy_NBU8() {
+		int numBands = 2;
+		int stride = width*numBands + 3;
+		ByteBuffer buffer = ByteBuffer.allocateDirect(offset + stride*height);
+		for (int i = 0; i < buffer.capacity(); i++) {
+			buffer.put(i,(byte)rand.nextInt(255));
+		}
+
+		InterleavedU8 found = new InterleavedU8(1,1,1);
+		assertFalse(ConvertByteBufferImage.wrapOrCopy_NBU8(buffer,offset,stride,width,height,numBands,found));
+		assertEquals(numBands, found.numBands);
+		for (int y = 0; y < height; y++) {
+			for (int x = 0; x < width; x++) {
+				for (int band = 0; band < numBands; band++) {
+					assertEquals(buffer.get(offset+y*stride+x*numBands+band)&0xFF, found.getBand(x,y,band));
+				}
+			}
+		}
+
+		ByteBuffer heap = ByteBuffer.allocate(buffer.capacity());
+		assertTrue(ConvertByteBufferImage.wrapOrCopy_NBU8(heap,offset,stride,width,height,numBands,found));
+		assertSame(heap.array(), found.data);
+	}
+
+	@Test
+	public void U8_direct() {
+		int stride = width + 3;
+		GrayU8 original = new GrayU8(width,height);
+		ImageMiscOps.fillUniform(original,rand,0,255);
+
+		ByteBuffer buffer = ByteBuffer.allocateDirect(offset + stride*height);
+		ConvertByteBufferImage.from_U8_to_1BU8(original,buffer,offset,stride);
+
+		GrayU8 found = new GrayU8(width,height);
+		ConvertByteBufferImage.from_1BU8_to_U8(buffer,offset,stride,found);
+		BoofTesting.assertEquals(original,found,0);
+
+		// see if sub-images are handled correctly
+		GrayU8 sub = BoofTesting.createSubImageOf(found);
+		ImageMiscOps.fill(sub,0);
+		ConvertByteBufferImage.from_1BU8_to_U8(buffer,offset,stride,sub);
+		BoofTesting.assertEquals(original,sub,0);
+	}
+
+	@Test
+	public void IU8_direct() {
+		int numBands = 2;
+		int stride = width*numBands + 3;
+		InterleavedU8 original = new InterleavedU8(width,height,numBands);
+		ImageMiscOps.fillUniform(original,rand,0,255);
+
+		ByteBuffer buffer = ByteBuffer.allocateDirect(offset + stride*height);
+		ConvertByteBufferImage.from_IU8_to_NBU8(original,buffer,offset,stride);
+
+		InterleavedU8 found = BoofTesting.createSubImageOf(new InterleavedU8(width,height,numBands));
+		ConvertByteBufferImage.from_NBU8_to_IU8(buffer,offset,stride,found);
+		BoofTesting.assertEquals(original,found,0);
+	}
+
+	@Test
+	public void F32_direct() {
+		for( ByteOrder order : new ByteOrder[]{ByteOrder.BIG_ENDIAN,ByteOrder.LITTLE_ENDIAN}) {
+			int stride = (width + 3)*4;
+			GrayF32 original = new GrayF32(width,height);
+			ImageMiscOps.fillUniform(original,rand,-10,10);
+
+			ByteBuffer buffer = ByteBuffer.allocateDirect(offset + stride*height).order(order);
+			ConvertByteBufferImage.from_F32_to_1BF32(original,buffer,offset,stride);
+
+			// check the byte order
+			assertEquals(original.get(2,1), buffer.getFloat(offset + stride + 2*4), 0.0f);
+
+			GrayF32 found = BoofTesting.createSubImageOf(new GrayF32(width,height));
+			ConvertByteBufferImage.from_1BF32_to_F32(buffer,offset,stride,found);
+			BoofTesting.assertEquals(original,found,0);
+		}
+	}
+
+	@Test
+	public void IF32_direct() {
+		int numBands = 3;
+		int stride = (width*numBands + 1)*4;
+		InterleavedF32 original = new InterleavedF32(width,height,numBands);
+		ImageMiscOps.fillUniform(original,rand,-10,10);
+
+		ByteBuffer buffer = ByteBuffer.allocateDirect(offset + stride*height).order(ByteOrder.nativeOrder());
+		ConvertByteBufferImage.from_IF32_to_NBF32(original,buffer,offset,stride);
+
+		InterleavedF32 found = BoofTesting.createSubImageOf(new InterleavedF32(width,height,numBands));
+		ConvertByteBufferImage.from_NBF32_to_IF32(buffer,offset,stride,found);
+		BoofTesting.assertEquals(original,found,0);
+	}
+}
@@ -27,6 +27,8 @@ import java.util.ArrayList;
 import java.util.List;
 import java.util.Random;
 
+import static org.junit.Assert.assertNotSame;
+
 
 /**
  * Common tests for implementers of {@link ImageBorder}.
@@ -105,6 +107,30 @@ public abstract class GenericImageBorderTests<T extends ImageBase<T>> {
 		checkBorderGet(x,y,orig,tmp0);
 	}
 
+	/**
+	 * The copy should behave the same as the original and not share any state with it
+	 */
+	@Test
+	public void copy() {
+		for( ImageType<T> imageType : imageTypes ) {
+			init(imageType);
+
+			T img = imageType.createImage(width, height);
+			GImageMiscOps.fillUniform(img, rand, 0, 100);
+
+			ImageBorder<T> border = wrap(img);
+			ImageBorder<T> copy = border.copy();
+			assertNotSame(border,copy);
+
+			copy.setImage(img);
+			checkGet(img, copy);
+
+			// giving the copy a different image shouldn't change the original
+			copy.setImage(imageType.createImage(width/2, height/2));
+			checkGet(img, border);
+		}
+	}
+
 	@Test
 	public void set() {
 		for( ImageType<T> imageType : imageTypes ) {
@@ -0,0 +1,110 @@
+/*
+ * Copyright (c) 2011-2018, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.metrics;
+
+import org.junit.After;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestMetricsRecorder {
+
+	@After
+	public void after() {
+		BoofMetrics.setSink(null);
+		BoofMetrics.TRACK_ALLOCATIONS = false;
+	}
+
+	/**
+	 * Nothing should be reported if there is no sink
+	 */
+	@Test
+	public void noSink() {
+		MetricsRecorder alg = new MetricsRecorder("foo");
+		alg.beginFrame();
+		assertFalse(alg.isActive());
+		alg.stage("a");
+		alg.count("b",2);
+		alg.value("c",3);
+		alg.endFrame();
+
+		// a sink set in the middle of a frame is ignored until the next frame
+		MetricsSummary summary = new MetricsSummary();
+		alg.beginFrame();
+		BoofMetrics.setSink(summary);
+		alg.stage("a");
+		alg.endFrame();
+		assertTrue(summary.getStageNames().isEmpty());
+	}
+
+	@Test
+	public void stages() throws InterruptedException {
+		MetricsSummary summary = new MetricsSummary();
+		BoofMetrics.setSink(summary);
+
+		MetricsRecorder alg = new MetricsRecorder("foo");
+		for (int trial = 0; trial < 2; trial++) {
+			alg.beginFrame();
+			assertTrue(alg.isActive());
+			Thread.sleep(5);
+			alg.stage("a");
+			alg.skip();
+			Thread.sleep(5);
+			alg.stage("b");
+			alg.count("c",trial+1);
+			alg.value("d",trial*2);
+			alg.endFrame();
+			assertFalse(alg.isActive());
+		}
+
+		MetricsSummary.Statistic a = summary.getStage("foo","a");
+		MetricsSummary.Statistic b = summary.getStage("foo","b");
+		MetricsSummary.Statistic frame = summary.getStage("foo",MetricsRecorder.FRAME);
+		assertEquals(2,a.getCount());
+		assertEquals(2,b.getCount());
+		assertEquals(2,frame.getCount());
+		assertTrue(a.getMin() >= 4e6);
+		assertTrue(frame.getSum() >= a.getSum() + b.getSum());
+
+		assertEquals(3,summary.getCount("foo","c").getSum(),1e-8);
+		assertEquals(1,summary.getValue("foo","d").getMean(),1e-8);
+		assertNull(summary.getValue("foo",MetricsRecorder.ALLOCATED_BYTES));
+	}
+
+	@Test
+	public void allocations() {
+		if( !BoofMetrics.isAllocationTrackingSupported() )
+			return;
+
+		MetricsSummary summary = new MetricsSummary();
+		BoofMetrics.setSink(summary);
+		BoofMetrics.TRACK_ALLOCATIONS = true;
+
+		MetricsRecorder alg = new MetricsRecorder("foo");
+		alg.beginFrame();
+		byte[] data = new byte[1024*1024];
+		alg.endFrame();
+
+		assertTrue(data.length > 0);
+		assertTrue(summary.getValue("foo",MetricsRecorder.ALLOCATED_BYTES).getMax() >= 1024*1024);
+	}
+}
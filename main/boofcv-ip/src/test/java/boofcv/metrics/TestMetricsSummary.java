@@ -0,0 +1,97 @@
+/*
+ * Copyright (c) 2011-2018, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.metrics;
+
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestMetricsSummary {
+
+	@Test
+	public void statistics() {
+		MetricsSummary alg = new MetricsSummary();
+
+		alg.recordStage("a","s",10);
+		alg.recordStage("a","s",30);
+		alg.recordStage("b","s",5);
+		alg.recordCount("a","c",4);
+		alg.recordValue("a","v",-1.5);
+
+		MetricsSummary.Statistic s = alg.getStage("a","s");
+		assertEquals(2,s.getCount());
+		assertEquals(20,s.getMean(),1e-8);
+		assertEquals(10,s.getMin(),1e-8);
+		assertEquals(30,s.getMax(),1e-8);
+		assertEquals(5,alg.getStage("b","s").getMean(),1e-8);
+		assertEquals(4,alg.getCount("a","c").getSum(),1e-8);
+		assertEquals(-1.5,alg.getValue("a","v").getMean(),1e-8);
+		assertNull(alg.getStage("a","c"));
+
+		assertEquals(2,alg.getStageNames().size());
+
+		// a copy should be returned
+		alg.recordStage("a","s",20);
+		assertEquals(2,s.getCount());
+
+		alg.reset();
+		assertNull(alg.getStage("a","s"));
+	}
+
+	@Test
+	public void histogram() {
+		MetricsSummary alg = new MetricsSummary();
+
+		alg.recordValue("a","v",0.5);
+		alg.recordValue("a","v",1);
+		alg.recordValue("a","v",3);
+		alg.recordValue("a","v",4);
+		alg.recordValue("a","v",1000);
+
+		MetricsSummary.Statistic s = alg.getValue("a","v");
+		long[] h = s.getHistogram();
+		assertEquals(1,h[0]);
+		assertEquals(1,h[1]);
+		assertEquals(1,h[2]);
+		assertEquals(1,h[3]);
+		assertEquals(1,h[10]);
+
+		assertEquals(4,s.getPercentileUpper(0.6),1e-8);
+		assertEquals(1000,s.getPercentileUpper(1.0),1e-8);
+	}
+
+	@Test
+	public void print() {
+		MetricsSummary alg = new MetricsSummary();
+		alg.recordStage("a","s",1000000);
+		alg.recordCount("a","c",4);
+
+		ByteArrayOutputStream stream = new ByteArrayOutputStream();
+		alg.print(new PrintStream(stream));
+		String text = stream.toString();
+		assertTrue(text.contains("a/s"));
+		assertTrue(text.contains("a/c"));
+	}
+}
@@ -0,0 +1,164 @@
+/*
+ * Copyright (c) 2011-2018, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.misc;
+
+import boofcv.struct.image.GrayF32;
+import boofcv.struct.image.GrayU8;
+import org.junit.Test;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestBoofLambdas {
+
+	@Test
+	public void bindStatic() throws NoSuchMethodException {
+		Method m = getClass().getMethod("copy", GrayU8.class, GrayF32.class);
+		BoofLambdas.Process2<GrayU8,GrayF32> function = BoofLambdas.bindStatic(m,BoofLambdas.Process2.class);
+		// it should not have fallen back on reflection
+		assertFalse(Proxy.isProxyClass(function.getClass()));
+		checkCopy(function);
+	}
+
+	@Test
+	public void bindReflection() throws NoSuchMethodException {
+		Method m = getClass().getMethod("copy", GrayU8.class, GrayF32.class);
+		BoofLambdas.Process2<GrayU8,GrayF32> function = BoofLambdas.bindReflection(m,BoofLambdas.Process2.class);
+		checkCopy(function);
+	}
+
+	private void checkCopy( BoofLambdas.Process2<GrayU8,GrayF32> function ) {
+		GrayU8 a = new GrayU8(3,4);
+		GrayF32 b = new GrayF32(3,4);
+		a.set(1,2,45);
+		function.process(a,b);
+		assertEquals(45,b.get(1,2),1e-8f);
+
+		// the wrong type should be caught
+		try {
+			((BoofLambdas.Process2)function).process(b,b);
+			fail("Should have thrown an exception");
+		} catch( ClassCastException | IllegalArgumentException ignore ) {}
+	}
+
+	/**
+	 * Primitive arguments and a return value which is ignored
+	 */
+	@Test
+	public void primitivesAndReturn() throws NoSuchMethodException {
+		Method m = getClass().getMethod("fill", GrayU8.class, int.class, GrayU8.class);
+		for( boolean reflection : new boolean[]{false,true} ) {
+			BoofLambdas.Process2Int<GrayU8,GrayU8> function = reflection ?
+					BoofLambdas.bindReflection(m,BoofLambdas.Process2Int.class) :
+					BoofLambdas.bindStatic(m,BoofLambdas.Process2Int.class);
+
+			GrayU8 a = new GrayU8(3,4);
+			GrayU8 b = new GrayU8(3,4);
+			function.process(a,7,b);
+			assertEquals(7,b.get(2,3));
+		}
+	}
+
+	/**
+	 * Exceptions should be passed through without being wrapped
+	 */
+	@Test
+	public void exceptionNotWrapped() throws NoSuchMethodException {
+		Method m = getClass().getMethod("throwException", GrayU8.class, GrayU8.class);
+		for( boolean reflection : new boolean[]{false,true} ) {
+			BoofLambdas.Process2<GrayU8,GrayU8> function = reflection ?
+					BoofLambdas.bindReflection(m,BoofLambdas.Process2.class) :
+					BoofLambdas.bindStatic(m,BoofLambdas.Process2.class);
+			try {
+				function.process(null,null);
+				fail("Should have thrown an exception");
+			} catch( IllegalArgumentException e ) {
+				assertEquals("Dummy",e.getMessage());
+			}
+		}
+	}
+
+	public interface ReturnDouble<A> {
+		double process( A a );
+	}
+
+	/**
+	 * Primitive return values should be widened to the interface's type
+	 */
+	@Test
+	public void returnWidened() throws NoSuchMethodException {
+		Method m = getClass().getMethod("count", GrayU8.class);
+		for( boolean reflection : new boolean[]{false,true} ) {
+			ReturnDouble<GrayU8> function = reflection ?
+					BoofLambdas.bindReflection(m,ReturnDouble.class) :
+					BoofLambdas.bindStatic(m,ReturnDouble.class);
+			assertEquals(12.0,function.process(new GrayU8(3,4)),1e-8);
+		}
+	}
+
+	@Test
+	public void badArguments() throws NoSuchMethodException {
+		Method copy = getClass().getMethod("copy", GrayU8.class, GrayF32.class);
+		Method fill = getClass().getMethod("fill", GrayU8.class, int.class, GrayU8.class);
+
+		// wrong number of arguments
+		try {
+			BoofLambdas.bindStatic(copy,BoofLambdas.Process3.class);
+			fail("Should have thrown an exception");
+		} catch( IllegalArgumentException ignore ) {}
+
+		// object passed to a primitive
+		try {
+			BoofLambdas.bindStatic(fill,BoofLambdas.Process3.class);
+			fail("Should have thrown an exception");
+		} catch( IllegalArgumentException ignore ) {}
+
+		// not static
+		try {
+			BoofLambdas.bindStatic(getClass().getMethod("badArguments"),Runnable.class);
+			fail("Should have thrown an exception");
+		} catch( IllegalArgumentException ignore ) {}
+	}
+
+	public static void copy( GrayU8 a , GrayF32 b ) {
+		for( int i = 0; i < a.data.length; i++ ) {
+			b.data[i] = a.data[i] & 0xFF;
+		}
+	}
+
+	public static GrayU8 fill( GrayU8 a , int value , GrayU8 b ) {
+		for( int i = 0; i < b.data.length; i++ ) {
+			b.data[i] = (byte)value;
+		}
+		return b;
+	}
+
+	public static int count( GrayU8 a ) {
+		return a.data.length;
+	}
+
+	public static void throwException( GrayU8 a , GrayU8 b ) {
+		throw new IllegalArgumentException("Dummy");
+	}
+}
@@ -0,0 +1,67 @@
+/*
+ * Copyright (c) 2011-2018, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.struct.distort;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestRemapTable_F32 {
+
+	PixelTransform2_F32 tran = new PixelTransform2_F32() {
+		@Override
+		public void compute(int x, int y) {
+			distX = x*2+0.5f;
+			distY = y-1.5f;
+		}
+	};
+
+	@Test
+	public void create() {
+		RemapTable_F32 table = RemapTable_F32.create(7,5,tran);
+		assertEquals(7,table.width);
+		assertEquals(5,table.height);
+		for( int y = 0; y < 5; y++ ) {
+			for( int x = 0; x < 7; x++ ) {
+				assertEquals(x*2+0.5f,table.getX(x,y),0);
+				assertEquals(y-1.5f,table.getY(x,y),0);
+			}
+		}
+
+		table.set(3,4,-1,-2);
+		assertEquals(-1,table.getX(3,4),0);
+		assertEquals(-2,table.getY(3,4),0);
+	}
+
+	@Test
+	public void reshape() {
+		RemapTable_F32 table = new RemapTable_F32(10,12);
+		float[] data = table.data;
+		assertEquals(240,data.length);
+
+		table.reshape(12,10);
+		assertSame(data,table.data);
+		table.reshape(15,10);
+		assertEquals(300,table.data.length);
+	}
+}
@@ -0,0 +1,154 @@
+/*
+ * Copyright (c) 2011-2018, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.struct.image;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestImagePool {
+
+	@Test
+	public void acquire_release() {
+		ImagePool pool = new ImagePool();
+		ImageType<GrayF32> type = ImageType.single(GrayF32.class);
+
+		GrayF32 a = pool.acquire(type,20,30);
+		assertEquals(20,a.width);
+		assertEquals(30,a.height);
+		assertEquals(0,pool.getHits());
+		assertEquals(1,pool.getMisses());
+
+		pool.release(a);
+		assertEquals(1,pool.getTotalStored());
+		assertTrue(a == pool.acquire(type,20,30));
+		assertEquals(1,pool.getHits());
+		assertEquals(0,pool.getTotalStored());
+		assertEquals(0.5,pool.getHitFraction(),1e-8);
+
+		// pool is empty again
+		assertTrue(a != pool.acquire(type,20,30));
+		assertEquals(2,pool.getMisses());
+	}
+
+	/**
+	 * Images are only reused if they have the same type and shape
+	 */
+	@Test
+	public void matchTypeAndShape() {
+		ImagePool pool = new ImagePool();
+
+		pool.release(new GrayF32(20,30));
+		pool.release(new Planar<>(GrayU8.class,20,30,2));
+
+		assertEquals(0,pool.getHits());
+		pool.acquire(ImageType.single(GrayF32.class),30,20);
+		pool.acquire(ImageType.single(GrayU8.class),20,30);
+		pool.acquire(ImageType.pl(3,GrayU8.class),20,30);
+		pool.acquire(ImageType.il(2,InterleavedU8.class),20,30);
+		assertEquals(0,pool.getHits());
+
+		Planar<GrayU8> p = pool.acquire(ImageType.pl(2,GrayU8.class),20,30);
+		assertEquals(2,p.getNumBands());
+		GrayF32 g = pool.acquire(ImageType.single(GrayF32.class),20,30);
+		assertEquals(20,g.width);
+		assertEquals(2,pool.getHits());
+	}
+
+	@Test
+	public void release_ignored() {
+		ImagePool pool = new ImagePool();
+
+		GrayU8 image = new GrayU8(10,12);
+		pool.release(image);
+		pool.release(image);
+		assertEquals(1,pool.getTotalStored());
+
+		pool.release(image.subimage(0,0,5,5));
+		pool.release(null);
+		assertEquals(1,pool.getTotalStored());
+	}
+
+	@Test
+	public void maxPerKey() {
+		ImagePool pool = new ImagePool(2);
+
+		for (int i = 0; i < 4; i++) {
+			pool.release(new GrayU8(10,12));
+		}
+		assertEquals(2,pool.getTotalStored());
+		assertEquals(2,pool.getDiscarded());
+
+		pool.setMaxPerKey(1);
+		assertEquals(1,pool.getTotalStored());
+
+		pool.clear();
+		assertEquals(0,pool.getTotalStored());
+		pool.resetStatistics();
+		assertEquals(0,pool.getDiscarded());
+	}
+
+	/**
+	 * Without a global pool the static functions should behave as if pooling didn't exist
+	 */
+	@Test
+	public void staticFunctions_noGlobal() {
+		assertNull(ImagePool.getGlobal());
+
+		GrayU8 a = ImagePool.createImage(ImageType.single(GrayU8.class),10,15);
+		ImagePool.recycle(a);
+		GrayU8 b = ImagePool.createImage(ImageType.single(GrayU8.class),10,15);
+		assertTrue(a != b);
+
+		GrayU8 c = ImagePool.reshape(b,30,40);
+		assertTrue(c == b);
+		assertEquals(30,c.width);
+		assertEquals(40,c.height);
+	}
+
+	@Test
+	public void staticFunctions_global() {
+		ImagePool pool = new ImagePool();
+		ImagePool.setGlobal(pool);
+		try {
+			ImageType<GrayU8> type = ImageType.single(GrayU8.class);
+			GrayU8 a = ImagePool.createImage(type,10,15);
+			ImagePool.recycle(a);
+			assertTrue(a == ImagePool.createImage(type,10,15));
+
+			// shrinking doesn't need new memory so the image is reshaped in place
+			GrayU8 b = ImagePool.reshape(a,5,5);
+			assertTrue(a == b);
+			assertEquals(0,pool.getTotalStored());
+
+			// growing swaps it with an image from the pool
+			GrayU8 c = ImagePool.reshape(b,30,40);
+			assertTrue(c != b);
+			assertEquals(30,c.width);
+			assertEquals(40,c.height);
+			assertEquals(1,pool.getTotalStored());
+			assertTrue(b == pool.acquire(type,5,5));
+		} finally {
+			ImagePool.setGlobal(null);
+		}
+	}
+}
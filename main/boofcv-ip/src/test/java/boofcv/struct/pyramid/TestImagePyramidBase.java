@@ -21,6 +21,7 @@ package boofcv.struct.pyramid;
 import boofcv.alg.misc.GImageMiscOps;
 import boofcv.struct.image.GrayU8;
 import boofcv.struct.image.ImageBase;
+import boofcv.struct.image.ImagePool;
 import boofcv.struct.image.ImageType;
 import boofcv.testing.BoofTesting;
 import org.junit.Test;
@@ -104,6 +105,44 @@ public class TestImagePyramidBase {
 		assertTrue(pyramid.layers[0] != null);
 	}
 
+	/**
+	 * When the shape changes the old layers should go back into the pool, except for a saved reference
+	 */
+	@Test
+	public void initialize_pool() {
+		ImagePool pool = new ImagePool();
+		ImagePool.setGlobal(pool);
+		try {
+			Dummy pyramid = new Dummy(GrayU8.class,true);
+			pyramid.setScaleFactors(1,2,4);
+			pyramid.initialize(100,120);
+			GrayU8 input = new GrayU8(100,120);
+			pyramid.setFirstLayer(input);
+			ImageBase layer1 = pyramid.getLayer(1);
+			ImageBase layer2 = pyramid.getLayer(2);
+			assertEquals(2,pool.getMisses());
+
+			// the old 25x30 layer can be reused
+			pyramid.initialize(50,60);
+			assertEquals(1,pool.getHits());
+			assertEquals(1,pool.getTotalStored());
+			assertTrue(layer2 == pyramid.getLayer(1));
+
+			// switching back should be entirely from the pool
+			pool.resetStatistics();
+			pyramid.initialize(100,120);
+			assertEquals(2,pool.getHits());
+			assertEquals(0,pool.getMisses());
+			assertTrue(layer1 == pyramid.getLayer(1));
+
+			pyramid.recycleLayers();
+			assertNull(pyramid.layers);
+			assertEquals(3,pool.getTotalStored());
+		} finally {
+			ImagePool.setGlobal(null);
+		}
+	}
+
 	@Test
 	public void getWidth_Height() {
 		Dummy pyramid = new Dummy(GrayU8.class,false);
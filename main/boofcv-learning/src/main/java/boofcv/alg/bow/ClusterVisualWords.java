@@ -18,6 +18,7 @@
 
 package boofcv.alg.bow;
 
+import boofcv.struct.feature.PackedTupleArray_F64;
 import boofcv.struct.feature.TupleDesc_F64;
 import org.ddogleg.clustering.AssignCluster;
 import org.ddogleg.clustering.ComputeClusters;
@@ -30,6 +31,9 @@ import java.util.List;
  * Internally it uses {@link org.ddogleg.clustering.ComputeClusters} and simply extracts the inner array
  * from the tuple.
  *
+ * Alternatively {@link MiniBatchKMeans_F64} can be used when there are too many features to keep in memory.
+ * Features are then copied into a batch and the clusters are updated each time the batch is full.
+ *
  * @author Peter Abeles
  */
 // TODO make completely generic?  Not F64 specific?
@@ -41,6 +45,12 @@ public class ClusterVisualWords {
 	// inner arrays extracted from the input features
 	List<double[]> tuples = new ArrayList<>();
 
+	// used instead of computeClusters to cluster a stream of features
+	MiniBatchKMeans_F64 miniBatch;
+	// features in the current batch
+	PackedTupleArray_F64 batch;
+	int batchSize;
+
 	/**
 	 * Constructor which configures the cluster finder.
 	 *
@@ -54,13 +64,34 @@ public class ClusterVisualWords {
 		computeClusters.init(featureDOF,randomSeed);
 	}
 
+	/**
+	 * Constructor for streaming mode. Features are not saved and memory is bounded.
+	 *
+	 * @param miniBatch Mini-batch k-means. Specifies the number of words.
+	 * @param batchSize Number of features in each batch. Try 10,000
+	 */
+	public ClusterVisualWords(MiniBatchKMeans_F64 miniBatch, int batchSize ) {
+		this.miniBatch = miniBatch;
+		this.batchSize = batchSize;
+		this.batch = new PackedTupleArray_F64(miniBatch.getDof());
+		this.batch.reserve(batchSize);
+	}
+
 	/**
 	 * Add a feature to the list.
 	 *
-	 * @param feature image feature. Reference to inner array is saved.
+	 * @param feature image feature. Reference to inner array is saved. In streaming mode it is copied.
 	 */
 	public void addReference(TupleDesc_F64 feature) {
-		tuples.add(feature.getValue());
+		if( miniBatch == null ) {
+			tuples.add(feature.getValue());
+		} else {
+			batch.append(feature);
+			if( batch.size() == batchSize ) {
+				miniBatch.process(batch);
+				batch.reset();
+			}
+		}
 	}
 
 	/**
@@ -68,14 +99,27 @@ public class ClusterVisualWords {
 	 * @param numberOfWords Number of words/clusters it should find
 	 */
 	public void process( int numberOfWords ) {
-		computeClusters.process(tuples,numberOfWords);
+		if( miniBatch == null ) {
+			computeClusters.process(tuples,numberOfWords);
+		} else {
+			if( numberOfWords != miniBatch.getNumClusters() )
+				throw new IllegalArgumentException("Number of words must match MiniBatchKMeans_F64");
+			// process the remaining features
+			if( batch.size() > 0 ) {
+				miniBatch.process(batch);
+				batch.reset();
+			}
+		}
 	}
 
 	/**
 	 * Returns a transform from point to cluster.
 	 */
 	public AssignCluster<double[]> getAssignment() {
-		return computeClusters.getAssignment();
+		if( miniBatch == null )
+			return computeClusters.getAssignment();
+		else
+			return miniBatch.getAssignment();
 	}
 
 }
@@ -0,0 +1,332 @@
+/*
+ * Copyright (c) 2011-2018, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.bow;
+
+import boofcv.concurrency.BoofConcurrency;
+import boofcv.struct.feature.PackedTupleArray_F64;
+import org.ddogleg.clustering.kmeans.AssignKMeans_F64;
+
+import java.io.*;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * <p>
+ * Mini-batch k-means [1] for learning a large vocabulary from a stream of descriptors. Points are provided
+ * in batches and only the cluster centers are kept between batches, so memory is bounded by the number of clusters
+ * and the size of a batch and not by the number of points. For each batch the closest center to every point
+ * is found, concurrently when {@link BoofConcurrency#USE_CONCURRENT} is true, and then each center is moved towards
+ * its points with a learning rate of one over the number of points assigned to it so far.
+ * </p>
+ *
+ * <p>
+ * Centers are initialized with a uniform random sample, selected by reservoir sampling, of the first
+ * {@link #getInitPoints() initPoints} points. Those points are not used to update the centers.
+ * </p>
+ *
+ * <p>
+ * The state can be saved to disk after every N batches so that training can be resumed after it has been
+ * stopped. See {@link #setCheckpoint(File, int)} and {@link #loadCheckpoint(File)}.
+ * </p>
+ *
+ * <p>
+ * [1] Sculley, David. "Web-scale k-means clustering." WWW 2010
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+public class MiniBatchKMeans_F64 {
+	public static final int CHECKPOINT_MAGIC = 0x424D4B4D; // "BMKM"
+	public static final int CHECKPOINT_VERSION = 1;
+
+	// number of elements in a point
+	protected int dof;
+	// number of clusters
+	protected int numClusters;
+	// number of points used to initialize the centers
+	protected int initPoints;
+
+	// center of cluster i starts at index i*dof
+	protected double[] centers;
+	// number of points which have been assigned to each cluster
+	protected long[] counts;
+	// total number of points which have been processed
+	protected long pointsSeen;
+	// number of batches used to update the centers
+	protected long numBatches;
+
+	// closest cluster to each point in the batch and the squared distance to it
+	protected int[] assignments = new int[0];
+	protected double[] distances = new double[0];
+	// mean squared distance of points in the last batch to their center
+	protected double batchError;
+
+	protected Random rand;
+
+	// where and how often the state is saved
+	protected File checkpointFile;
+	protected int checkpointPeriod;
+
+	/**
+	 * Configures the algorithm
+	 *
+	 * @param dof Number of elements in a point
+	 * @param numClusters Number of clusters
+	 * @param initPoints Number of points to sample the initial centers from. Must be &ge; numClusters. Try 10*numClusters
+	 * @param randomSeed Seed for the random number generator
+	 */
+	public MiniBatchKMeans_F64( int dof , int numClusters , int initPoints , long randomSeed ) {
+		if( initPoints < numClusters )
+			throw new IllegalArgumentException("initPoints must be >= numClusters");
+		this.dof = dof;
+		this.numClusters = numClusters;
+		this.initPoints = initPoints;
+		this.rand = new Random(randomSeed);
+		this.centers = new double[numClusters*dof];
+		this.counts = new long[numClusters];
+	}
+
+	/**
+	 * Resets the algorithm into its initial state. All clusters are discarded.
+	 */
+	public void reset() {
+		pointsSeen = 0;
+		numBatches = 0;
+		batchError = 0;
+		for( int i = 0; i < numClusters; i++ ) {
+			counts[i] = 0;
+		}
+	}
+
+	/**
+	 * Processes a batch of points. Points are first used to initialize the centers and after that to update them.
+	 *
+	 * @param points Batch of points. Not modified.
+	 */
+	public void process( PackedTupleArray_F64 points ) {
+		if( points.dof != dof )
+			throw new IllegalArgumentException("Expected points with "+dof+" elements not "+points.dof);
+		final int N = points.size();
+
+		// sample the initial centers
+		int start = 0;
+		while( pointsSeen < initPoints && start < N ) {
+			int index = pointsSeen < numClusters ? (int)pointsSeen : rand.nextInt((int)pointsSeen+1);
+			if( index < numClusters ) {
+				System.arraycopy(points.data.data,start*dof,centers,index*dof,dof);
+			}
+			pointsSeen++;
+			start++;
+		}
+		if( start == N )
+			return;
+
+		if( assignments.length < N ) {
+			assignments = new int[N];
+			distances = new double[N];
+		}
+
+		// find the closest center to each point
+		if( BoofConcurrency.USE_CONCURRENT ) {
+			BoofConcurrency.loopBlocks(start,N,(i0,i1)->assign(points.data.data,i0,i1));
+		} else {
+			assign(points.data.data,start,N);
+		}
+
+		// move the centers towards their points
+		final double[] data = points.data.data;
+		double totalError = 0;
+		for( int i = start; i < N; i++ ) {
+			int cluster = assignments[i];
+			totalError += distances[i];
+			double eta = 1.0/(++counts[cluster]);
+			int indexC = cluster*dof;
+			int indexP = i*dof;
+			for( int j = 0; j < dof; j++ ) {
+				centers[indexC+j] += eta*(data[indexP+j]-centers[indexC+j]);
+			}
+		}
+		batchError = totalError/(N-start);
+		pointsSeen += N-start;
+		numBatches++;
+
+		if( checkpointFile != null && numBatches % checkpointPeriod == 0 ) {
+			try {
+				saveCheckpoint(checkpointFile);
+			} catch( IOException e ) {
+				throw new UncheckedIOException(e);
+			}
+		}
+	}
+
+	/**
+	 * Finds the closest center to each point in the range. The distance to a center is abandoned once it is
+	 * larger than the best distance found so far.
+	 */
+	protected void assign( double[] points , int idx0 , int idx1 ) {
+		for( int i = idx0; i < idx1; i++ ) {
+			final int indexP = i*dof;
+			int best = 0;
+			double bestDistance = Double.MAX_VALUE;
+			for( int cluster = 0; cluster < numClusters; cluster++ ) {
+				final int indexC = cluster*dof;
+				double distance = 0;
+				int j = 0;
+				while( j < dof && distance < bestDistance ) {
+					int end = Math.min(dof,j+16);
+					for( ; j < end; j++ ) {
+						double d = points[indexP+j]-centers[indexC+j];
+						distance += d*d;
+					}
+				}
+				if( distance < bestDistance ) {
+					bestDistance = distance;
+					best = cluster;
+				}
+			}
+			assignments[i] = best;
+			distances[i] = bestDistance;
+		}
+	}
+
+	/**
+	 * Returns the found clusters. Clusters which are not yet initialized are omitted.
+	 */
+	public AssignKMeans_F64 getAssignment() {
+		int total = (int)Math.min(pointsSeen,numClusters);
+		List<double[]> clusters = new ArrayList<>();
+		for( int i = 0; i < total; i++ ) {
+			double[] c = new double[dof];
+			System.arraycopy(centers,i*dof,c,0,dof);
+			clusters.add(c);
+		}
+		return new AssignKMeans_F64(clusters);
+	}
+
+	/**
+	 * Specifies where the state should be saved and how often
+	 *
+	 * @param file Where it's saved. If null then checkpoints are turned off.
+	 * @param period Number of batches between each checkpoint
+	 */
+	public void setCheckpoint( File file , int period ) {
+		if( period <= 0 )
+			throw new IllegalArgumentException("Period must be > 0");
+		this.checkpointFile = file;
+		this.checkpointPeriod = period;
+	}
+
+	/**
+	 * Saves the clusters and training progress. The file is first written to a temporary file and then
+	 * renamed so that an existing checkpoint is not corrupted if writing is interrupted.
+	 */
+	public void saveCheckpoint( File file ) throws IOException {
+		File tmp = new File(file.getPath()+".tmp");
+		try( DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(tmp),1 << 16)) ) {
+			out.writeInt(CHECKPOINT_MAGIC);
+			out.writeInt(CHECKPOINT_VERSION);
+			out.writeInt(dof);
+			out.writeInt(numClusters);
+			out.writeInt(initPoints);
+			out.writeLong(pointsSeen);
+			out.writeLong(numBatches);
+			for( int i = 0; i < numClusters; i++ ) {
+				out.writeLong(counts[i]);
+			}
+			for( int i = 0; i < centers.length; i++ ) {
+				out.writeDouble(centers[i]);
+			}
+		}
+		Files.move(tmp.toPath(),file.toPath(),StandardCopyOption.REPLACE_EXISTING);
+	}
+
+	/**
+	 * Restores the state saved by {@link #saveCheckpoint(File)}. The number of clusters and point dof must match.
+	 * If the checkpoint was saved before initialization was complete the random sample of initial centers will be
+	 * different from an uninterrupted run.
+	 */
+	public void loadCheckpoint( File file ) throws IOException {
+		try( DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(file),1 << 16)) ) {
+			if( in.readInt() != CHECKPOINT_MAGIC )
+				throw new IOException("Not a mini-batch k-means checkpoint");
+			int version = in.readInt();
+			if( version != CHECKPOINT_VERSION )
+				throw new IOException("Unsupported version "+version);
+			int dof = in.readInt();
+			int numClusters = in.readInt();
+			if( dof != this.dof || numClusters != this.numClusters )
+				throw new IOException("Checkpoint has dof="+dof+" clusters="+numClusters+
+						" expected dof="+this.dof+" clusters="+this.numClusters);
+			initPoints = in.readInt();
+			pointsSeen = in.readLong();
+			numBatches = in.readLong();
+			for( int i = 0; i < numClusters; i++ ) {
+				counts[i] = in.readLong();
+			}
+			for( int i = 0; i < centers.length; i++ ) {
+				centers[i] = in.readDouble();
+			}
+		}
+	}
+
+	public int getDof() {
+		return dof;
+	}
+
+	public int getNumClusters() {
+		return numClusters;
+	}
+
+	public int getInitPoints() {
+		return initPoints;
+	}
+
+	/**
+	 * True once all the centers have been initialized and new points are used to update them
+	 */
+	public boolean isInitialized() {
+		return pointsSeen >= initPoints;
+	}
+
+	public long getPointsSeen() {
+		return pointsSeen;
+	}
+
+	public long getNumBatches() {
+		return numBatches;
+	}
+
+	/**
+	 * Mean squared distance between the points in the last batch and their closest center
+	 */
+	public double getBatchError() {
+		return batchError;
+	}
+
+	public double[] getCenters() {
+		return centers;
+	}
+
+	public long[] getCounts() {
+		return counts;
+	}
+}
@@ -54,6 +54,29 @@ public class TestClusterVisualWords {
 		assertEquals(DISTANCE,clusters.getDistanceMeasure(),1e-8);
 	}
 
+	/**
+	 * In streaming mode features are processed in batches
+	 */
+	@Test
+	public void process_miniBatch() {
+		MiniBatchKMeans_F64 miniBatch = new MiniBatchKMeans_F64(DOF,3,3,SEED);
+		ClusterVisualWords alg = new ClusterVisualWords(miniBatch,10);
+
+		TupleDesc_F64 desc = new TupleDesc_F64(DOF);
+		for( int i = 0; i < 25; i++ ) {
+			desc.value[0] = i;
+			alg.addReference(desc);
+		}
+		// two full batches. The first is partially used for initialization
+		assertEquals(2,miniBatch.getNumBatches());
+		assertEquals(20,miniBatch.getPointsSeen());
+
+		alg.process(3);
+		assertEquals(3,miniBatch.getNumBatches());
+		assertEquals(25,miniBatch.getPointsSeen());
+		assertEquals(3,alg.getAssignment().getNumberOfClusters());
+	}
+
 	protected class DummyClusters implements ComputeClusters<double[]> {
 
 		int numInit = 0;
@@ -0,0 +1,202 @@
+/*
+ * Copyright (c) 2011-2018, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.bow;
+
+import boofcv.concurrency.BoofConcurrency;
+import boofcv.struct.feature.PackedTupleArray_F64;
+import org.ddogleg.clustering.kmeans.AssignKMeans_F64;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestMiniBatchKMeans_F64 {
+
+	Random rand = new Random(234);
+	int DOF = 4;
+
+	/**
+	 * With a single cluster the learning rate makes the center the mean of all the points after initialization
+	 */
+	@Test
+	public void singleCluster_mean() {
+		MiniBatchKMeans_F64 alg = new MiniBatchKMeans_F64(DOF,1,1,234);
+
+		PackedTupleArray_F64 batch = createPoints(new double[DOF],1.0,101);
+		alg.process(batch);
+		assertTrue(alg.isInitialized());
+		assertEquals(101,alg.getPointsSeen());
+		assertEquals(1,alg.getNumBatches());
+
+		for( int j = 0; j < DOF; j++ ) {
+			double mean = 0;
+			for( int i = 1; i < batch.size(); i++ ) {
+				mean += batch.data.get(i*DOF+j);
+			}
+			mean /= batch.size()-1;
+			assertEquals(mean,alg.getCenters()[j],1e-8);
+		}
+		assertEquals(100,alg.getCounts()[0]);
+	}
+
+	/**
+	 * Well separated clusters with one initial point in each should converge to their means
+	 */
+	@Test
+	public void separatedClusters() {
+		double[][] means = new double[3][DOF];
+		for( int i = 0; i < means.length; i++ ) {
+			for( int j = 0; j < DOF; j++ ) {
+				means[i][j] = i*100+j;
+			}
+		}
+
+		MiniBatchKMeans_F64 alg = new MiniBatchKMeans_F64(DOF,3,3,234);
+		PackedTupleArray_F64 batch = new PackedTupleArray_F64(DOF);
+		for( int i = 0; i < means.length; i++ ) {
+			batch.append(means[i],0);
+		}
+		alg.process(batch);
+		assertTrue(alg.isInitialized());
+
+		for( int trial = 0; trial < 20; trial++ ) {
+			batch.reset();
+			for( int i = 0; i < 200; i++ ) {
+				addPoint(batch,means[rand.nextInt(means.length)],0.5);
+			}
+			alg.process(batch);
+		}
+		assertEquals(DOF*0.25,alg.getBatchError(),0.2);
+
+		AssignKMeans_F64 assignment = alg.getAssignment();
+		assertEquals(3,assignment.getNumberOfClusters());
+		for( int i = 0; i < means.length; i++ ) {
+			double[] found = assignment.getClusters().get(i);
+			for( int j = 0; j < DOF; j++ ) {
+				assertEquals(means[i][j],found[j],0.1);
+			}
+			assertEquals(i,assignment.assign(means[i]));
+		}
+	}
+
+	/**
+	 * Until enough points have been seen centers are randomly sampled from them
+	 */
+	@Test
+	public void initialization() {
+		MiniBatchKMeans_F64 alg = new MiniBatchKMeans_F64(DOF,10,50,234);
+		alg.process(createPoints(new double[DOF],1.0,6));
+		assertFalse(alg.isInitialized());
+		assertEquals(6,alg.getAssignment().getNumberOfClusters());
+		assertEquals(0,alg.getNumBatches());
+
+		alg.process(createPoints(new double[DOF],1.0,60));
+		assertTrue(alg.isInitialized());
+		assertEquals(10,alg.getAssignment().getNumberOfClusters());
+		assertEquals(1,alg.getNumBatches());
+		assertEquals(66,alg.getPointsSeen());
+	}
+
+	@Test
+	public void concurrent() {
+		PackedTupleArray_F64 init = createPoints(new double[DOF],10.0,200);
+		PackedTupleArray_F64 batch = createPoints(new double[DOF],10.0,1000);
+
+		int maxThreads = BoofConcurrency.getMaxThreads();
+		boolean concurrent = BoofConcurrency.USE_CONCURRENT;
+		try {
+			BoofConcurrency.setMaxThreads(3);
+			double[][] found = new double[2][];
+			for( int i = 0; i < 2; i++ ) {
+				BoofConcurrency.USE_CONCURRENT = i == 1;
+				MiniBatchKMeans_F64 alg = new MiniBatchKMeans_F64(DOF,20,200,234);
+				alg.process(init);
+				alg.process(batch);
+				alg.process(batch);
+				found[i] = alg.getCenters().clone();
+			}
+			assertArrayEquals(found[0],found[1],0);
+		} finally {
+			BoofConcurrency.USE_CONCURRENT = concurrent;
+			BoofConcurrency.setMaxThreads(maxThreads);
+		}
+	}
+
+	/**
+	 * Training which is resumed from a checkpoint should produce the same results
+	 */
+	@Test
+	public void checkpoint() throws IOException {
+		PackedTupleArray_F64 init = createPoints(new double[DOF],10.0,100);
+		PackedTupleArray_F64 batchA = createPoints(new double[DOF],10.0,300);
+		PackedTupleArray_F64 batchB = createPoints(new double[DOF],10.0,300);
+
+		File file = File.createTempFile("kmeans",".bin");
+		try {
+			MiniBatchKMeans_F64 alg = new MiniBatchKMeans_F64(DOF,20,100,234);
+			alg.setCheckpoint(file,2);
+			alg.process(init);
+			alg.process(batchA);
+			file.delete();
+			alg.process(batchA);
+			assertTrue(file.exists());
+			assertFalse(new File(file.getPath()+".tmp").exists());
+
+			MiniBatchKMeans_F64 resumed = new MiniBatchKMeans_F64(DOF,20,100,99);
+			resumed.loadCheckpoint(file);
+			assertEquals(alg.getPointsSeen(),resumed.getPointsSeen());
+			assertEquals(alg.getNumBatches(),resumed.getNumBatches());
+
+			alg.process(batchB);
+			resumed.process(batchB);
+			assertArrayEquals(alg.getCenters(),resumed.getCenters(),0);
+			assertArrayEquals(alg.getCounts(),resumed.getCounts());
+
+			// wrong number of clusters
+			try {
+				new MiniBatchKMeans_F64(DOF,21,100,99).loadCheckpoint(file);
+				fail("Should have thrown an exception");
+			} catch( IOException ignore ) {}
+		} finally {
+			file.delete();
+		}
+	}
+
+	private PackedTupleArray_F64 createPoints( double[] mean , double sigma , int total ) {
+		PackedTupleArray_F64 points = new PackedTupleArray_F64(DOF);
+		for( int i = 0; i < total; i++ ) {
+			addPoint(points,mean,sigma);
+		}
+		return points;
+	}
+
+	private void addPoint( PackedTupleArray_F64 points , double[] mean , double sigma ) {
+		double[] p = new double[DOF];
+		for( int j = 0; j < DOF; j++ ) {
+			p[j] = mean[j] + rand.nextGaussian()*sigma;
+		}
+		points.append(p,0);
+	}
+}
@@ -18,6 +18,7 @@
 
 package boofcv.abst.fiducial;
 
+import boofcv.alg.distort.radtan.LensDistortionRadialTangential;
 import boofcv.factory.fiducial.ConfigFiducialBinary;
 import boofcv.factory.fiducial.FactoryFiducial;
 import boofcv.factory.filter.binary.ConfigThreshold;
@@ -26,67 +27,71 @@ import boofcv.io.calibration.CalibrationIO;
 import boofcv.io.image.UtilImageIO;
 import boofcv.struct.calib.CameraPinholeRadial;
 import boofcv.struct.image.GrayU8;
-import boofcv.struct.image.ImageGray;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
 
 import java.io.File;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.TimeUnit;
 
 /**
+ * Time to detect the fiducials in each image of a sequence
+ *
  * @author Peter Abeles
  */
-public class BenchmarkFiducialDetector<T extends ImageGray<T>> {
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@State(Scope.Benchmark)
+@Fork(value=1)
+public class BenchmarkFiducialDetector {
 
-	FiducialDetector<T> detector;
-	List<T> images = new ArrayList<>();
+	static final String directory = UtilIO.pathExample("fiducial/binary/");
 
-	public BenchmarkFiducialDetector(FiducialDetector<T> detector) {
-		this.detector = detector;
-	}
+	@Param({"true","false"})
+	public boolean lensDistortion;
 
-	public void addImage( String path ) {
-		T image = (T)UtilImageIO.loadImage(path,detector.getInputType().getImageClass());
-		if( image == null )
-			throw new IllegalArgumentException("Can't find image "+path);
-		images.add(image);
-	}
+	FiducialDetector<GrayU8> detector;
+	List<GrayU8> images = new ArrayList<>();
 
-	public double benchmark( int numIterations ) {
+	@Setup
+	public void setup() {
+		detector = FactoryFiducial.squareBinary(
+				new ConfigFiducialBinary(0.2), ConfigThreshold.fixed(100) , GrayU8.class);
 
-		long before = System.nanoTime();
-		for (int i = 0; i < numIterations; i++) {
-			for (int j = 0; j < images.size(); j++) {
-				detector.detect(images.get(j));
-			}
+		if( lensDistortion ) {
+			CameraPinholeRadial intrinsic = CalibrationIO.load(new File(directory , "intrinsic.yaml"));
+			detector.setLensDistortion(new LensDistortionRadialTangential(intrinsic),
+					intrinsic.width,intrinsic.height);
 		}
-		long after = System.nanoTime();
-		double seconds = (after-before)/1e9;
-		return (numIterations*images.size())/seconds;
-	}
-
-	private static void perform(String directory, FiducialDetector detector) {
-		CameraPinholeRadial intrinsic = CalibrationIO.load(new File(directory , "intrinsic.yaml"));
 
-//		intrinsic.radial = null;
-//		intrinsic.t1 = intrinsic.t2 = 0;
-
-		BenchmarkFiducialDetector benchmark = new BenchmarkFiducialDetector(detector);
-		benchmark.addImage(directory + "image0000.jpg");
-		benchmark.addImage(directory + "image0001.jpg");
-		benchmark.addImage(directory + "image0002.jpg");
-
-		System.out.println("FPS = "+benchmark.benchmark(600));
+		images.clear();
+		for (int i = 0; i < 3; i++) {
+			String path = directory + String.format("image%04d.jpg",i);
+			GrayU8 image = UtilImageIO.loadImage(path,GrayU8.class);
+			if( image == null )
+				throw new IllegalArgumentException("Can't find image "+path);
+			images.add(image);
+		}
 	}
 
-	public static void main(String[] args) {
-		String directory = UtilIO.pathExample("fiducial/binary/");
+	@Benchmark
+	public void detect() {
+		for (int i = 0; i < images.size(); i++) {
+			detector.detect(images.get(i));
+		}
+	}
 
-		FiducialDetector detector = FactoryFiducial.squareBinary(
-				new ConfigFiducialBinary(0.2), ConfigThreshold.fixed(100) , GrayU8.class);
-		perform(directory, detector);
+	public static void main( String args[] ) throws RunnerException {
+		Options opt = new OptionsBuilder()
+				.include(BenchmarkFiducialDetector.class.getSimpleName())
+				.build();
 
-//		detector = FactoryFiducial.
-//				squareBinaryRobust(new ConfigFiducialBinary(0.2), 6, GrayU8.class);
-//		perform(directory, detector);
+		new Runner(opt).run();
 	}
 }
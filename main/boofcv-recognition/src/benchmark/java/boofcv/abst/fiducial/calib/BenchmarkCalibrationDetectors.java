@@ -22,45 +22,55 @@ import boofcv.abst.geo.calibration.DetectorFiducialCalibration;
 import boofcv.factory.fiducial.FactoryFiducialCalibration;
 import boofcv.io.UtilIO;
 import boofcv.io.image.ConvertBufferedImage;
-import boofcv.misc.PerformerBase;
-import boofcv.misc.ProfileOperation;
 import boofcv.struct.image.GrayF32;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
 
 import javax.imageio.ImageIO;
 import java.awt.image.BufferedImage;
 import java.io.File;
 import java.io.IOException;
+import java.util.concurrent.TimeUnit;
 
 /**
  * @author Peter Abeles
  */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@State(Scope.Benchmark)
+@Fork(value=1)
 public class BenchmarkCalibrationDetectors {
 
-	public static final int TEST_TIME = 1000;
+	GrayF32 imageChess;
+	GrayF32 imageSquare;
 
-	public static GrayF32 imageChess;
-	public static GrayF32 imageSquare;
+	DetectorFiducialCalibration chessboard;
+	DetectorFiducialCalibration square;
 
-	public static class Chessboard extends PerformerBase {
-		DetectorFiducialCalibration detector = FactoryFiducialCalibration.
-				chessboard(new ConfigChessboard(7, 5, 30));
+	@Setup
+	public void setup() {
+		imageChess = loadImage(UtilIO.pathExample("calibration/stereo/Bumblebee2_Chess/left01.jpg"));
+		imageSquare = loadImage(UtilIO.pathExample("calibration/stereo/Bumblebee2_Square/left01.jpg"));
 
-		@Override
-		public void process() {
-			if( !detector.process(imageChess) )
-				throw new RuntimeException("Can't find target!");
-		}
+		chessboard = FactoryFiducialCalibration.chessboard(new ConfigChessboard(7, 5, 30));
+		square = FactoryFiducialCalibration.squareGrid(new ConfigSquareGrid(4, 3, 30, 30));
 	}
 
-	public static class Square extends PerformerBase {
-		DetectorFiducialCalibration detector = FactoryFiducialCalibration.
-				squareGrid(new ConfigSquareGrid(4, 3, 30, 30));
+	@Benchmark
+	public void Chessboard() {
+		if( !chessboard.process(imageChess) )
+			throw new RuntimeException("Can't find target!");
+	}
 
-		@Override
-		public void process() {
-			if( !detector.process(imageSquare) )
-				throw new RuntimeException("Can't find target!");
-		}
+	@Benchmark
+	public void Square() {
+		if( !square.process(imageSquare) )
+			throw new RuntimeException("Can't find target!");
 	}
 
 	public static GrayF32 loadImage(String fileName) {
@@ -68,20 +78,17 @@ public class BenchmarkCalibrationDetectors {
 		try {
 			img = ImageIO.read(new File(fileName));
 		} catch (IOException e) {
-			return null;
+			throw new RuntimeException(e);
 		}
 
 		return ConvertBufferedImage.convertFrom(img, (GrayF32) null);
 	}
 
-	public static void main(String[] args) {
-		String chess = UtilIO.pathExample("calibration/stereo/Bumblebee2_Chess/left01.jpg");
-		String square = UtilIO.pathExample("calibration/stereo/Bumblebee2_Square/left01.jpg");
-
-		imageChess = loadImage(chess);
-		imageSquare = loadImage(square);
+	public static void main( String args[] ) throws RunnerException {
+		Options opt = new OptionsBuilder()
+				.include(BenchmarkCalibrationDetectors.class.getSimpleName())
+				.build();
 
-		ProfileOperation.printOpsPerSec(new Chessboard(), TEST_TIME);
-		ProfileOperation.printOpsPerSec(new Square(), TEST_TIME);
+		new Runner(opt).run();
 	}
 }
@@ -0,0 +1,122 @@
+/*
+ * Copyright (c) 2011-2018, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.scene;
+
+import boofcv.alg.scene.InvertedFileIndex.Match;
+import org.ddogleg.struct.FastQueue;
+import org.ddogleg.struct.GrowQueue_I32;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Query time of {@link InvertedFileIndex} as a function of database size. Words are sampled from a Zipf-like
+ * distribution so that a few words are very common, like in a real visual dictionary. Treating the common words as
+ * stop words avoids going through their long inverted files.
+ *
+ * @author Peter Abeles
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@State(Scope.Benchmark)
+@Fork(value=1, jvmArgs = {"-Xmx4g"})
+public class BenchmarkInvertedFileIndex {
+
+	@Param({"10000","100000"})
+	public int numImages;
+
+	@Param({"10000","100000"})
+	public int numWords;
+
+	@Param({"1.0","0.05"})
+	public double stopWordFraction;
+
+	// number of features in each image
+	static final int NUM_FEATURES = 300;
+	static final int NUM_QUERIES = 100;
+
+	InvertedFileIndex index;
+	GrowQueue_I32[] queries = new GrowQueue_I32[NUM_QUERIES];
+	FastQueue<Match> results = new FastQueue<>(Match.class,true);
+
+	// cumulative distribution of words
+	double[] cdf;
+	Random rand = new Random(234);
+
+	@Setup
+	public void setup() {
+		cdf = new double[numWords];
+		double total = 0;
+		for( int i = 0; i < numWords; i++ ) {
+			total += 1.0/(i+1);
+			cdf[i] = total;
+		}
+		for( int i = 0; i < numWords; i++ ) {
+			cdf[i] /= total;
+		}
+
+		index = new InvertedFileIndex(numWords);
+		GrowQueue_I32 words = new GrowQueue_I32();
+		for( int i = 0; i < numImages; i++ ) {
+			createImage(words);
+			index.addImage(words);
+		}
+		index.setStopWordFraction(stopWordFraction);
+		index.updateWeights();
+
+		for( int i = 0; i < NUM_QUERIES; i++ ) {
+			queries[i] = new GrowQueue_I32();
+			createImage(queries[i]);
+		}
+	}
+
+	private void createImage( GrowQueue_I32 words ) {
+		words.reset();
+		for( int i = 0; i < NUM_FEATURES; i++ ) {
+			int word = Arrays.binarySearch(cdf,rand.nextDouble());
+			words.add(Math.min(numWords-1,word < 0 ? -word-1 : word));
+		}
+	}
+
+	@Benchmark
+	public int query() {
+		int total = 0;
+		for( int i = 0; i < NUM_QUERIES; i++ ) {
+			index.query(queries[i],10,results);
+			total += results.size;
+		}
+		return total;
+	}
+
+	public static void main( String args[] ) throws RunnerException {
+		Options opt = new OptionsBuilder()
+				.include(BenchmarkInvertedFileIndex.class.getSimpleName())
+				.build();
+
+		new Runner(opt).run();
+	}
+}
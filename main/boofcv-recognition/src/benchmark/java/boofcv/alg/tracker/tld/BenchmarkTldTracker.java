@@ -0,0 +1,133 @@
+/*
+ * Copyright (c) 2011-2018, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.tracker.tld;
+
+import boofcv.alg.filter.derivative.GImageDerivativeOps;
+import boofcv.alg.misc.ImageMiscOps;
+import boofcv.concurrency.BoofConcurrency;
+import boofcv.core.image.border.BorderType;
+import boofcv.factory.filter.derivative.FactoryDerivative;
+import boofcv.factory.interpolate.FactoryInterpolation;
+import boofcv.factory.tracker.FactoryTrackerObjectAlgs;
+import boofcv.struct.image.GrayS16;
+import boofcv.struct.image.GrayU8;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Frames per second of {@link TldTracker} as a function of the number of threads.  The detection cascade is
+ * run on every frame and dominates the run time.  A synthetic scene is moved in a circle so that the
+ * sequence of frames can be repeated without a jump in the target's location.
+ *
+ * @author Peter Abeles
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@State(Scope.Benchmark)
+@Fork(value=1)
+public class BenchmarkTldTracker {
+
+	@Param({"640","1280","1920"})
+	public int width;
+
+	@Param({"1","2","4","8"})
+	public int threads;
+
+	// number of frames in the sequence and how far the scene moves
+	static final int NUM_FRAMES = 20;
+	static final int RADIUS = 10;
+
+	GrayU8 frames[] = new GrayU8[NUM_FRAMES];
+	int frameIndex;
+
+	TldTracker<GrayU8,GrayS16> tracker;
+
+	// global concurrency settings before the benchmark changed them
+	boolean previousConcurrent;
+	int previousMaxThreads;
+
+	@Setup
+	public void setup() {
+		previousConcurrent = BoofConcurrency.USE_CONCURRENT;
+		previousMaxThreads = BoofConcurrency.getMaxThreads();
+		BoofConcurrency.USE_CONCURRENT = threads > 1;
+		BoofConcurrency.setMaxThreads(threads);
+
+		int height = width*3/4;
+
+		// scene with structure at several scales
+		Random rand = new Random(234);
+		GrayU8 scene = new GrayU8(width+2*RADIUS,height+2*RADIUS);
+		ImageMiscOps.fillUniform(scene,rand,0,50);
+		for (int i = 0; i < width*height/2000; i++) {
+			int x = rand.nextInt(scene.width);
+			int y = rand.nextInt(scene.height);
+			int w = 5 + rand.nextInt(40);
+			int h = 5 + rand.nextInt(40);
+			ImageMiscOps.fillRectangle(scene,50+rand.nextInt(200),x,y,w,h);
+		}
+
+		for (int i = 0; i < NUM_FRAMES; i++) {
+			double angle = 2.0*Math.PI*i/NUM_FRAMES;
+			int dx = (int)(RADIUS*Math.cos(angle));
+			int dy = (int)(RADIUS*Math.sin(angle));
+			frames[i] = scene.subimage(RADIUS+dx,RADIUS+dy,RADIUS+dx+width,RADIUS+dy+height).clone();
+		}
+
+		// created after concurrency has been configured since that selects the detection implementation
+		tracker = FactoryTrackerObjectAlgs.createTLD(new TldParameters(),
+				FactoryInterpolation.bilinearPixelS(GrayU8.class, BorderType.EXTENDED),
+				FactoryDerivative.sobel(GrayU8.class, GrayS16.class),
+				GrayU8.class, GImageDerivativeOps.getDerivativeType(GrayU8.class));
+
+		int x0 = width/2-width/10;
+		int y0 = height/2-height/10;
+		tracker.initialize(frames[0],x0,y0,x0+width/5,y0+height/5);
+		frameIndex = 1;
+	}
+
+	@TearDown
+	public void tearDown() {
+		BoofConcurrency.USE_CONCURRENT = previousConcurrent;
+		BoofConcurrency.setMaxThreads(previousMaxThreads);
+	}
+
+	@Benchmark
+	public boolean track() {
+		boolean success = tracker.track(frames[frameIndex]);
+		frameIndex = (frameIndex+1)%NUM_FRAMES;
+		return success;
+	}
+
+	public static void main( String args[] ) throws RunnerException {
+		Options opt = new OptionsBuilder()
+				.include(BenchmarkTldTracker.class.getSimpleName())
+				.build();
+
+		new Runner(opt).run();
+	}
+}
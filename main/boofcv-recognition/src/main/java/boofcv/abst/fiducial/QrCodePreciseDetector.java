@@ -24,6 +24,7 @@ import boofcv.alg.fiducial.qrcode.QrCode;
 import boofcv.alg.fiducial.qrcode.QrCodeDecoderImage;
 import boofcv.alg.fiducial.qrcode.QrCodePositionPatternDetector;
 import boofcv.alg.shapes.polygon.DetectPolygonBinaryGrayRefine;
+import boofcv.metrics.MetricsRecorder;
 import boofcv.misc.MovingAverage;
 import boofcv.struct.image.GrayU8;
 import boofcv.struct.image.ImageGray;
@@ -48,6 +49,7 @@ public class QrCodePreciseDetector<T extends ImageGray<T>> implements QrCodeDete
 	boolean profiler = false;
 	protected MovingAverage milliBinary = new MovingAverage(0.8);
 	protected MovingAverage milliDecoding = new MovingAverage(0.8);
+	protected MetricsRecorder metrics = new MetricsRecorder("QrCodePreciseDetector");
 
 	public QrCodePreciseDetector(InputToBinary<T> inputToBinary,
 								 QrCodePositionPatternDetector<T> detectPositionPatterns,
@@ -61,23 +63,31 @@ public class QrCodePreciseDetector<T extends ImageGray<T>> implements QrCodeDete
 
 	@Override
 	public void process(T gray) {
+		metrics.beginFrame();
 		long time0 = System.nanoTime();
 		contourHelper.reshape(gray.width,gray.height);
 		inputToBinary.process(gray,contourHelper.withoutPadding());
 		long time1 = System.nanoTime();
 		milliBinary.update((time1-time0)*1e-6);
+		metrics.stage("binary");
 
 		if( profiler )
 			System.out.printf("qrcode: binary %5.2f ",milliBinary.getAverage());
 
 		detectPositionPatterns.process(gray,contourHelper.padded());
+		metrics.stage("position_patterns");
 		time0 = System.nanoTime();
 		decoder.process(detectPositionPatterns.getPositionPatterns(),gray);
 		time1 = System.nanoTime();
 		milliDecoding.update((time1-time0)*1e-6);
+		metrics.stage("decoding");
 
 		if( profiler )
 			System.out.printf(" decoding %5.1f\n",milliDecoding.getAverage());
+
+		metrics.count("detections",decoder.getFound().size());
+		metrics.count("failures",decoder.getFailures().size());
+		metrics.endFrame();
 	}
 
 	@Override
@@ -27,6 +27,7 @@ import boofcv.alg.shapes.polygon.DetectPolygonBinaryGrayRefine;
 import boofcv.alg.shapes.polygon.DetectPolygonFromContour;
 import boofcv.core.image.border.BorderType;
 import boofcv.factory.interpolate.FactoryInterpolation;
+import boofcv.metrics.MetricsRecorder;
 import boofcv.misc.MovingAverage;
 import boofcv.struct.image.GrayU8;
 import boofcv.struct.image.ImageGray;
@@ -78,6 +79,7 @@ public class QrCodePositionPatternDetector<T extends ImageGray<T>> {
 
 	// runtime profiling
 	protected MovingAverage milliGraph = new MovingAverage(0.8);
+	protected MetricsRecorder metrics = new MetricsRecorder("QrCodePositionPatternDetector");
 	protected boolean profiler = false;
 
 	/**
@@ -118,8 +120,11 @@ public class QrCodePositionPatternDetector<T extends ImageGray<T>> {
 		positionPatterns.reset();
 		interpolate.setImage(gray);
 
+		metrics.beginFrame();
+
 		// detect squares
 		squareDetector.process(gray,binary);
+		metrics.stage("squares");
 
 		long time0 = System.nanoTime();
 		squaresToPositionList();
@@ -129,11 +134,15 @@ public class QrCodePositionPatternDetector<T extends ImageGray<T>> {
 		// Create graph of neighboring squares
 		createPositionPatternGraph();
 //		long time2 = System.nanoTime();  // doesn't take very long
+		metrics.stage("graph");
 
 		double milli = (time1-time0)*1e-6;
 
 		milliGraph.update(milli);
 
+		metrics.count("position_patterns",positionPatterns.size());
+		metrics.endFrame();
+
 		DetectPolygonFromContour<T> detectorPoly = squareDetector.getDetector();
 		if( profiler ) {
 			System.out.printf(" contour %5.1f shapes %5.1f adjust_bias %5.2f PosPat %6.2f",
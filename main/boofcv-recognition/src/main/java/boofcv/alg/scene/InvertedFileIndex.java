@@ -0,0 +1,417 @@
+/*
+ * Copyright (c) 2011-2018, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.scene;
+
+import org.ddogleg.struct.FastQueue;
+import org.ddogleg.struct.GrowQueue_F32;
+import org.ddogleg.struct.GrowQueue_I32;
+
+/**
+ * <p>
+ * Image retrieval using an inverted file index of visual words and TF-IDF weighting [1]. An image is described by
+ * the words which its features were assigned to. For each word the index stores the images which contain it and
+ * how many times it was seen. Only the lists of words in the query are examined so a query's cost depends on the
+ * number of images which share words with it and not the size of the database or dictionary.
+ * </p>
+ *
+ * <p>
+ * The weight of word i in an image is n<sub>i</sub>&middot;idf<sub>i</sub>, where n<sub>i</sub> is the number of
+ * times it was seen, and the histogram of weights is normalized so that its L1-norm is one. Images are
+ * compared using the L1 distance between normalized histograms, which only depends on words the two have in common:
+ * |q-d| = 2 - &sum;<sub>i &isin; q&cap;d</sub> (q<sub>i</sub> + d<sub>i</sub> - |q<sub>i</sub> - d<sub>i</sub>|).
+ * The returned score is 1 - |q-d|/2, one for identical histograms and zero for images without a word in common.
+ * </p>
+ *
+ * <p>
+ * Images can be added at any time. Word weights (inverse document frequency) are either specified by
+ * {@link #setWordWeights(float[])}, typically from the set of images used to train the dictionary, or computed from
+ * the images in the database by calling {@link #updateWeights()}. Until either is called all words have a weight
+ * of one. Changing the weights only requires the normalization of each image to be recomputed.
+ * </p>
+ *
+ * <p>
+ * Very common words have long inverted files and carry little information. Words which are in more than
+ * {@link #setStopWordFraction(double) a fraction} of the images are treated as stop words by {@link #updateWeights()}
+ * and given a weight of zero. Their inverted files are skipped when querying, which keeps queries fast in large
+ * databases.
+ * </p>
+ *
+ * <p>
+ * Queries use internal work space and are not thread safe.
+ * </p>
+ *
+ * <p>
+ * [1] Nister, David, and Henrik Stewenius. "Scalable recognition with a vocabulary tree." CVPR 2006
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+public class InvertedFileIndex {
+
+	// number of words in the dictionary
+	protected int numWords;
+
+	// inverted file for each word
+	protected InvertedFile[] files;
+
+	// weight of each word
+	protected float[] weights;
+
+	// words in more than this fraction of images are given a weight of zero
+	protected double stopWordFraction = 1.0;
+
+	// L1-norm of each image's weighted histogram
+	protected GrowQueue_F32 imageNorms = new GrowQueue_F32();
+
+	// number of times each word was seen in the image being added or queried
+	private float[] wordCounts;
+	// words which have a non-zero count
+	private GrowQueue_I32 touchedWords = new GrowQueue_I32();
+
+	// accumulated score of each image during a query
+	private float[] imageScores = new float[0];
+	// images which have a word in common with the query
+	private GrowQueue_I32 touchedImages = new GrowQueue_I32();
+
+	// min-heap of the best matches found so far
+	private int[] heapImage = new int[0];
+	private float[] heapScore = new float[0];
+
+	/**
+	 * Creates an empty index
+	 *
+	 * @param numWords Number of words in the dictionary
+	 */
+	public InvertedFileIndex( int numWords ) {
+		this.numWords = numWords;
+		this.files = new InvertedFile[numWords];
+		for( int i = 0; i < numWords; i++ ) {
+			files[i] = new InvertedFile();
+		}
+		this.weights = new float[numWords];
+		this.wordCounts = new float[numWords];
+		for( int i = 0; i < numWords; i++ ) {
+			weights[i] = 1.0f;
+		}
+	}
+
+	/**
+	 * Removes all images from the index. Word weights are not modified.
+	 */
+	public void reset() {
+		for( int i = 0; i < numWords; i++ ) {
+			files[i].reset();
+		}
+		imageNorms.reset();
+	}
+
+	/**
+	 * Adds an image to the index.
+	 *
+	 * @param words The word which each feature in the image was assigned to. A word will appear multiple times if
+	 *              multiple features were assigned to it.
+	 * @return ID of the image. IDs are assigned sequentially starting from zero.
+	 */
+	public int addImage( GrowQueue_I32 words ) {
+		int image = imageNorms.size;
+		countWords(words);
+
+		float norm = 0;
+		for( int i = 0; i < touchedWords.size; i++ ) {
+			int word = touchedWords.data[i];
+			float count = wordCounts[word];
+			files[word].add(image,count);
+			norm += count*weights[word];
+			wordCounts[word] = 0;
+		}
+		imageNorms.add(norm);
+
+		return image;
+	}
+
+	/**
+	 * Finds the images in the index which are the most similar to the query.
+	 *
+	 * @param words The word which each feature in the query image was assigned to.
+	 * @param maxResults The maximum number of matches which will be returned
+	 * @param results (Output) Matches sorted from best to worst. Only images with a word in common are returned.
+	 */
+	public void query( GrowQueue_I32 words , int maxResults , FastQueue<Match> results ) {
+		results.reset();
+		if( maxResults <= 0 )
+			return;
+
+		int numImages = imageNorms.size;
+		if( imageScores.length < numImages ) {
+			imageScores = new float[Math.max(numImages,imageScores.length*2)];
+		}
+
+		// weighted and normalized query histogram
+		countWords(words);
+		float queryNorm = 0;
+		for( int i = 0; i < touchedWords.size; i++ ) {
+			int word = touchedWords.data[i];
+			queryNorm += wordCounts[word]*weights[word];
+		}
+
+		// Go through the inverted file of each word in the query and update the score of images with that word
+		touchedImages.reset();
+		final float[] norms = imageNorms.data;
+		for( int i = 0; i < touchedWords.size; i++ ) {
+			int word = touchedWords.data[i];
+			float weight = weights[word];
+			float q = queryNorm == 0 ? 0 : wordCounts[word]*weight/queryNorm;
+			wordCounts[word] = 0;
+			if( q == 0 )
+				continue;
+
+			InvertedFile file = files[word];
+			for( int j = 0; j < file.size; j++ ) {
+				int image = file.images[j];
+				float norm = norms[image];
+				if( norm == 0 )
+					continue;
+				float d = file.counts[j]*weight/norm;
+				if( imageScores[image] == 0 )
+					touchedImages.add(image);
+				// q + d - |q - d| = 2*min(q,d)
+				imageScores[image] += 2*Math.min(q,d);
+			}
+		}
+
+		selectBest(maxResults,results);
+	}
+
+	/**
+	 * Computes the weight of each word from the images in the index. The weight is the inverse document
+	 * frequency, log(N/N<sub>i</sub>), where N is the number of images and N<sub>i</sub> the number of images
+	 * which contain word i. Stop words and words which aren't in any image are given a weight of zero.
+	 */
+	public void updateWeights() {
+		int numImages = imageNorms.size;
+		for( int word = 0; word < numWords; word++ ) {
+			int found = files[word].size;
+			if( found == 0 || found > stopWordFraction*numImages )
+				weights[word] = 0;
+			else
+				weights[word] = (float)Math.log(numImages/(double)found);
+		}
+		updateNorms();
+	}
+
+	/**
+	 * Specifies the weight of each word. The normalization of every image in the index is updated.
+	 *
+	 * @param weights Weight of each word. Typically the inverse document frequency. Not modified.
+	 */
+	public void setWordWeights( float[] weights ) {
+		if( weights.length != numWords )
+			throw new IllegalArgumentException("Expected "+numWords+" weights not "+weights.length);
+		System.arraycopy(weights,0,this.weights,0,numWords);
+		updateNorms();
+	}
+
+	/**
+	 * Recomputes the norm of every image's weighted histogram by going through each inverted file once
+	 */
+	protected void updateNorms() {
+		imageNorms.fill(0);
+		final float[] norms = imageNorms.data;
+		for( int word = 0; word < numWords; word++ ) {
+			InvertedFile file = files[word];
+			float weight = weights[word];
+			for( int j = 0; j < file.size; j++ ) {
+				norms[file.images[j]] += file.counts[j]*weight;
+			}
+		}
+	}
+
+	/**
+	 * Counts the number of times each word appears and records which words were seen
+	 */
+	private void countWords( GrowQueue_I32 words ) {
+		touchedWords.reset();
+		for( int i = 0; i < words.size; i++ ) {
+			int word = words.data[i];
+			if( wordCounts[word] == 0 )
+				touchedWords.add(word);
+			wordCounts[word] += 1;
+		}
+	}
+
+	/**
+	 * Selects the images with the highest score using a min-heap, then resets the score of each touched image
+	 */
+	private void selectBest( int maxResults , FastQueue<Match> results ) {
+		int capacity = Math.min(maxResults,touchedImages.size);
+		if( heapImage.length < capacity ) {
+			heapImage = new int[capacity];
+			heapScore = new float[capacity];
+		}
+
+		int heapSize = 0;
+		for( int i = 0; i < touchedImages.size; i++ ) {
+			int image = touchedImages.data[i];
+			float score = imageScores[image];
+			imageScores[image] = 0;
+
+			if( heapSize < capacity ) {
+				// sift up
+				int k = heapSize++;
+				while( k > 0 ) {
+					int parent = (k-1)/2;
+					if( heapScore[parent] <= score )
+						break;
+					heapScore[k] = heapScore[parent];
+					heapImage[k] = heapImage[parent];
+					k = parent;
+				}
+				heapScore[k] = score;
+				heapImage[k] = image;
+			} else if( score > heapScore[0] ) {
+				siftDown(heapSize,image,score);
+			}
+		}
+
+		// remove the worst match until the heap is empty, filling in the results from the back
+		results.resize(heapSize);
+		for( int i = heapSize-1; i >= 0; i-- ) {
+			Match m = results.get(i);
+			m.image = heapImage[0];
+			m.score = 0.5*heapScore[0];
+			siftDown(i,heapImage[i],heapScore[i]);
+		}
+	}
+
+	/**
+	 * Replaces the root of the heap and restores the heap property
+	 */
+	private void siftDown( int heapSize , int image , float score ) {
+		int k = 0;
+		while( true ) {
+			int child = 2*k+1;
+			if( child >= heapSize )
+				break;
+			if( child+1 < heapSize && heapScore[child+1] < heapScore[child] )
+				child++;
+			if( score <= heapScore[child] )
+				break;
+			heapScore[k] = heapScore[child];
+			heapImage[k] = heapImage[child];
+			k = child;
+		}
+		heapScore[k] = score;
+		heapImage[k] = image;
+	}
+
+	/**
+	 * Number of images in the index
+	 */
+	public int getNumImages() {
+		return imageNorms.size;
+	}
+
+	public int getNumWords() {
+		return numWords;
+	}
+
+	public double getStopWordFraction() {
+		return stopWordFraction;
+	}
+
+	/**
+	 * Words which are in more than this fraction of the images are stop words. Takes effect the next time
+	 * {@link #updateWeights()} is called.
+	 *
+	 * @param stopWordFraction Fraction from 0 to 1. Default is 1, no stop words.
+	 */
+	public void setStopWordFraction( double stopWordFraction ) {
+		this.stopWordFraction = stopWordFraction;
+	}
+
+	public float[] getWordWeights() {
+		return weights;
+	}
+
+	public InvertedFile getInvertedFile( int word ) {
+		return files[word];
+	}
+
+	/**
+	 * Specifies the contents of the index directly. Used when loading a saved index.
+	 *
+	 * @param weights Weight of each word
+	 * @param imageNorms L1-norm of each image's weighted histogram
+	 */
+	public void setIndex( float[] weights , GrowQueue_F32 imageNorms ) {
+		System.arraycopy(weights,0,this.weights,0,numWords);
+		this.imageNorms.setTo(imageNorms);
+	}
+
+	public GrowQueue_F32 getImageNorms() {
+		return imageNorms;
+	}
+
+	/**
+	 * List of images which contain a word and the number of times the word was seen in each image. Images
+	 * are in the order they were added.
+	 */
+	public static class InvertedFile {
+		public int[] images = new int[0];
+		public float[] counts = new float[0];
+		public int size;
+
+		public void reset() {
+			size = 0;
+		}
+
+		public void add( int image , float count ) {
+			if( size == images.length ) {
+				reserve(Math.max(4,size*2));
+			}
+			images[size] = image;
+			counts[size] = count;
+			size++;
+		}
+
+		/**
+		 * Ensures there is enough storage for the specified number of images without discarding data
+		 */
+		public void reserve( int length ) {
+			if( images.length >= length )
+				return;
+			int[] images = new int[length];
+			float[] counts = new float[length];
+			System.arraycopy(this.images,0,images,0,size);
+			System.arraycopy(this.counts,0,counts,0,size);
+			this.images = images;
+			this.counts = counts;
+		}
+	}
+
+	/**
+	 * An image which was matched to the query
+	 */
+	public static class Match {
+		/** ID of the image */
+		public int image;
+		/** Similarity of the two images. From 0 to 1. 1 means the histograms are identical */
+		public double score;
+	}
+}
@@ -0,0 +1,213 @@
+/*
+ * Copyright (c) 2011-2018, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.scene;
+
+import boofcv.alg.scene.InvertedFileIndex.InvertedFile;
+import org.ddogleg.struct.GrowQueue_F32;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * <p>
+ * Saves and loads an {@link InvertedFileIndex}. Images can be added to a loaded index and it can be saved again.
+ * </p>
+ *
+ * <p>
+ * File format. All values are little endian.
+ * </p>
+ * <ol>
+ *     <li>Header of {@link #HEADER_SIZE} bytes: "BOOFIFI" magic, format version, number of words, and number
+ *     of images</li>
+ *     <li>float[numWords] weight of each word</li>
+ *     <li>float[numImages] L1-norm of each image</li>
+ *     <li>For each word: int number of images, int[] image IDs, float[] counts</li>
+ * </ol>
+ *
+ * @author Peter Abeles
+ */
+public class InvertedFileIndexIO {
+	public static final int HEADER_SIZE = 32;
+	public static final byte[] MAGIC = "BOOFIFI".getBytes(StandardCharsets.US_ASCII);
+	public static final int VERSION = 1;
+
+	/**
+	 * Saves the index to disk
+	 *
+	 * @param index The index which is to be saved
+	 * @param file Where it should be saved
+	 */
+	public static void save( InvertedFileIndex index , File file ) throws IOException {
+		final int numWords = index.getNumWords();
+		final int numImages = index.getNumImages();
+
+		try( RandomAccessFile raf = new RandomAccessFile(file,"rw") ) {
+			raf.setLength(0);
+			Stream stream = new Stream(raf.getChannel());
+
+			ByteBuffer header = stream.buffer;
+			header.put(MAGIC);
+			header.put((byte)0);
+			header.putInt(VERSION);
+			header.putInt(numWords);
+			header.putInt(numImages);
+			while( header.position() < HEADER_SIZE )
+				header.put((byte)0);
+
+			stream.write(index.getWordWeights(),numWords);
+			stream.write(index.getImageNorms().data,numImages);
+			for( int word = 0; word < numWords; word++ ) {
+				InvertedFile f = index.getInvertedFile(word);
+				stream.ensureSpace(4);
+				stream.buffer.putInt(f.size);
+				stream.write(f.images,f.size);
+				stream.write(f.counts,f.size);
+			}
+			stream.flush();
+		}
+	}
+
+	/**
+	 * Loads an index which was saved by {@link #save}.
+	 *
+	 * @param file Path to the saved index
+	 * @return The index
+	 */
+	public static InvertedFileIndex load( File file ) throws IOException {
+		try( RandomAccessFile raf = new RandomAccessFile(file,"r") ) {
+			Stream stream = new Stream(raf.getChannel());
+			stream.buffer.limit(0);
+			stream.fill(HEADER_SIZE);
+
+			ByteBuffer header = stream.buffer;
+			for( int i = 0; i < MAGIC.length; i++ ) {
+				if( header.get() != MAGIC[i] )
+					throw new IOException("Not a saved InvertedFileIndex");
+			}
+			header.get();
+			int version = header.getInt();
+			if( version != VERSION )
+				throw new IOException("Unsupported version "+version);
+			int numWords = header.getInt();
+			int numImages = header.getInt();
+			header.position(HEADER_SIZE);
+
+			float[] weights = new float[numWords];
+			GrowQueue_F32 norms = new GrowQueue_F32(numImages);
+			norms.size = numImages;
+			stream.read(weights,numWords);
+			stream.read(norms.data,numImages);
+
+			InvertedFileIndex index = new InvertedFileIndex(numWords);
+			index.setIndex(weights,norms);
+			for( int word = 0; word < numWords; word++ ) {
+				stream.fill(4);
+				int size = stream.buffer.getInt();
+				if( size < 0 || size > numImages )
+					throw new IOException("Corrupted file. Bad inverted file size for word "+word);
+				InvertedFile f = index.getInvertedFile(word);
+				f.reserve(size);
+				stream.read(f.images,size);
+				stream.read(f.counts,size);
+				f.size = size;
+			}
+			return index;
+		}
+	}
+
+	/**
+	 * Reads and writes primitive arrays to a channel through a fixed size buffer
+	 */
+	private static class Stream {
+		FileChannel channel;
+		ByteBuffer buffer = ByteBuffer.allocate(1 << 16).order(ByteOrder.LITTLE_ENDIAN);
+
+		Stream( FileChannel channel ) {
+			this.channel = channel;
+		}
+
+		void ensureSpace( int bytes ) throws IOException {
+			if( buffer.remaining() < bytes )
+				flush();
+		}
+
+		void flush() throws IOException {
+			buffer.flip();
+			while( buffer.hasRemaining() ) {
+				channel.write(buffer);
+			}
+			buffer.clear();
+		}
+
+		/**
+		 * Ensures that at least the specified number of bytes can be read from the buffer
+		 */
+		void fill( int bytes ) throws IOException {
+			if( buffer.remaining() >= bytes )
+				return;
+			buffer.compact();
+			while( buffer.position() < bytes ) {
+				if( channel.read(buffer) < 0 )
+					throw new IOException("Unexpected end of file");
+			}
+			buffer.flip();
+		}
+
+		void write( int[] array , int length ) throws IOException {
+			for( int i = 0; i < length; i++ ) {
+				ensureSpace(4);
+				buffer.putInt(array[i]);
+			}
+		}
+
+		void write( float[] array , int length ) throws IOException {
+			for( int i = 0; i < length; i++ ) {
+				ensureSpace(4);
+				buffer.putFloat(array[i]);
+			}
+		}
+
+		void read( int[] array , int length ) throws IOException {
+			int i = 0;
+			while( i < length ) {
+				fill(4);
+				int n = Math.min(length-i,buffer.remaining()/4);
+				buffer.asIntBuffer().get(array,i,n);
+				buffer.position(buffer.position()+n*4);
+				i += n;
+			}
+		}
+
+		void read( float[] array , int length ) throws IOException {
+			int i = 0;
+			while( i < length ) {
+				fill(4);
+				int n = Math.min(length-i,buffer.remaining()/4);
+				buffer.asFloatBuffer().get(array,i,n);
+				buffer.position(buffer.position()+n*4);
+				i += n;
+			}
+		}
+	}
+}
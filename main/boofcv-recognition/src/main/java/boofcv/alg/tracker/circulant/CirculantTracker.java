@@ -25,8 +25,10 @@ import boofcv.alg.misc.PixelMath;
 import boofcv.alg.transform.fft.DiscreteFourierTransformOps;
 import boofcv.factory.feature.detect.peak.FactorySearchLocalPeak;
 import boofcv.misc.BoofMiscOps;
+import boofcv.struct.image.GrayF32;
 import boofcv.struct.image.GrayF64;
 import boofcv.struct.image.ImageGray;
+import boofcv.struct.image.InterleavedF32;
 import boofcv.struct.image.InterleavedF64;
 import georegression.struct.shapes.RectangleLength2D_F32;
 
@@ -263,6 +265,23 @@ public class CirculantTracker<T extends ImageGray<T>> {
 		}
 	}
 
+	/**
+	 * Computes the cosine window
+	 */
+	protected static void computeCosineWindow( GrayF32 cosine ) {
+		double cosX[] = new double[ cosine.width ];
+		for( int x = 0; x < cosine.width; x++ ) {
+			cosX[x] = 0.5*(1 - Math.cos( 2.0*Math.PI*x/(cosine.width-1) ));
+		}
+		for( int y = 0; y < cosine.height; y++ ) {
+			int index = cosine.startIndex + y*cosine.stride;
+			double cosY = 0.5*(1 - Math.cos( 2.0*Math.PI*y/(cosine.height-1) ));
+			for( int x = 0; x < cosine.width; x++ ) {
+				cosine.data[index++] = (float)(cosX[x]*cosY);
+			}
+		}
+	}
+
 	/**
 	 * Computes the weights used in the gaussian kernel
 	 *
@@ -482,6 +501,21 @@ public class CirculantTracker<T extends ImageGray<T>> {
 
 	}
 
+	public static void circshift(GrayF32 a, GrayF32 b ) {
+		int w2 = a.width/2;
+		int h2 = b.height/2;
+
+		for( int y = 0; y < a.height; y++ ) {
+			int yy = (y+h2)%a.height;
+
+			for( int x = 0; x < a.width; x++ ) {
+				int xx = (x+w2)%a.width;
+
+				b.set( xx , yy , a.get(x,y));
+			}
+		}
+	}
+
 	/**
 	 * Computes the dot product of the image with itself
 	 */
@@ -498,6 +532,23 @@ public class CirculantTracker<T extends ImageGray<T>> {
 		return total;
 	}
 
+	/**
+	 * Computes the dot product of the image with itself
+	 */
+	public static float imageDotProduct(GrayF32 a) {
+
+		// accumulate in double to reduce round off error in large work regions
+		double total = 0;
+
+		int N = a.width*a.height;
+		for( int index = 0; index < N; index++ ) {
+			float value = a.data[index];
+			total += value*value;
+		}
+
+		return (float)total;
+	}
+
 	/**
 	 * Element-wise multiplication of 'a' and the complex conjugate of 'b'
 	 */
@@ -519,6 +570,27 @@ public class CirculantTracker<T extends ImageGray<T>> {
 		}
 	}
 
+	/**
+	 * Element-wise multiplication of 'a' and the complex conjugate of 'b'
+	 */
+	public static void elementMultConjB( InterleavedF32 a , InterleavedF32 b , InterleavedF32 output ) {
+		for( int y = 0; y < a.height; y++ ) {
+
+			int index = a.startIndex + y*a.stride;
+
+			for( int x = 0; x < a.width; x++, index += 2 ) {
+
+				float realA = a.data[index];
+				float imgA = a.data[index+1];
+				float realB = b.data[index];
+				float imgB = b.data[index+1];
+
+				output.data[index] = realA*realB + imgA*imgB;
+				output.data[index+1] = -realA*imgB + imgA*realB;
+			}
+		}
+	}
+
 	/**
 	 * new_alphaf = yf ./ (fft2(k) + lambda);   %(Eq. 7)
 	 */
@@ -544,6 +616,31 @@ public class CirculantTracker<T extends ImageGray<T>> {
 		}
 	}
 
+	/**
+	 * new_alphaf = yf ./ (fft2(k) + lambda);   %(Eq. 7)
+	 */
+	protected static void computeAlphas( InterleavedF32 yf , InterleavedF32 kf , float lambda ,
+										 InterleavedF32 alphaf ) {
+
+		for( int y = 0; y < kf.height; y++ ) {
+
+			int index = yf.startIndex + y*yf.stride;
+
+			for( int x = 0; x < kf.width; x++, index += 2 ) {
+				float a = yf.data[index];
+				float b = yf.data[index+1];
+
+				float c = kf.data[index] + lambda;
+				float d = kf.data[index+1];
+
+				float bottom = c*c + d*d;
+
+				alphaf.data[index] = (a*c + b*d)/bottom;
+				alphaf.data[index+1] = (b*c - a*d)/bottom;
+			}
+		}
+	}
+
 	/**
 	 * Computes the output of the Gaussian kernel for each element in the target region
 	 *
@@ -571,6 +668,33 @@ public class CirculantTracker<T extends ImageGray<T>> {
 		}
 	}
 
+	/**
+	 * Computes the output of the Gaussian kernel for each element in the target region
+	 *
+	 * k = exp(-1 / sigma^2 * max(0, (xx + yy - 2 * xy) / numel(x)));
+	 *
+	 * @param xx ||x||^2
+	 * @param yy ||y||^2
+	 */
+	protected static void gaussianKernel(float xx , float yy , GrayF32 xy , float sigma  , GrayF32 output ) {
+		float sigma2 = sigma*sigma;
+		float N = xy.width*xy.height;
+
+		for( int y = 0; y < xy.height; y++ ) {
+			int index = xy.startIndex + y*xy.stride;
+
+			for( int x = 0; x < xy.width; x++ , index++ ) {
+
+				// (xx + yy - 2 * xy) / numel(x)
+				float value = (xx + yy - 2*xy.data[index])/N;
+
+				float v = (float)Math.exp(-Math.max(0, value) / sigma2);
+
+				output.data[index] = v;
+			}
+		}
+	}
+
 	/**
 	 * Copies the target into the output image and applies the cosine window to it.
 	 */
@@ -0,0 +1,567 @@
+/*
+ * Copyright (c) 2011-2018, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.tracker.circulant;
+
+import boofcv.abst.feature.detect.peak.SearchLocalPeak;
+import boofcv.abst.transform.fft.DiscreteFourierTransform;
+import boofcv.alg.interpolate.InterpolatePixelS;
+import boofcv.alg.misc.PixelMath;
+import boofcv.alg.transform.fft.DiscreteFourierTransformOps;
+import boofcv.concurrency.BoofConcurrency;
+import boofcv.core.image.border.BorderType;
+import boofcv.factory.feature.detect.peak.FactorySearchLocalPeak;
+import boofcv.factory.interpolate.FactoryInterpolation;
+import boofcv.misc.BoofMiscOps;
+import boofcv.struct.image.GrayF32;
+import boofcv.struct.image.ImageGray;
+import boofcv.struct.image.InterleavedF32;
+import georegression.struct.shapes.RectangleLength2D_F32;
+import org.ddogleg.struct.FastQueue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * <p>
+ * Variant of {@link CirculantTracker} which tracks multiple targets in the same image sequence. Everything which
+ * only depends on the tuning parameters and work region size is computed once and shared by all the targets, i.e.
+ * the cosine window and the Fourier transform of the Gaussian labels. Internally all computations are done using
+ * 32-bit floats and the FFT is computed by {@link DiscreteFourierTransformOps#createTransformF32()}.
+ * </p>
+ *
+ * <p>
+ * Targets are split into blocks and each block is processed by a different thread with its own FFT, scratch images,
+ * and interpolation. Each target has its own random number generator for filling in pixels outside the image
+ * so the results do not depend on the number of threads.
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+public class CirculantTrackerMulti<T extends ImageGray<T>> {
+
+	// --- Tuning parameters
+	// spatial bandwidth (proportional to target)
+	private float output_sigma_factor;
+
+	// gaussian kernel bandwidth
+	private float sigma;
+
+	// regularization term
+	private float lambda;
+	// linear interpolation term.  Adjusts how fast it can learn
+	private float interp_factor;
+
+	// the maximum pixel value
+	private float maxPixelValue;
+
+	// extra padding around the selected region
+	private double padding;
+
+	// size of the work space in pixels
+	private int workRegionSize;
+
+	//----- Internal variables
+	// Input image width and height
+	private int imageWidth,imageHeight;
+
+	// type of input image
+	private Class<T> imageType;
+
+	// cosine window used to reduce artifacts from FFT
+	protected GrayF32 cosine = new GrayF32(1,1);
+
+	// Used for computing the gaussian kernel
+	protected GrayF32 gaussianWeight = new GrayF32(1,1);
+	protected InterleavedF32 gaussianWeightDFT = new InterleavedF32(1,1,2);
+
+	// targets which are being tracked
+	protected List<Target> targets = new ArrayList<>();
+
+	// storage for each thread
+	// the class literal of a generic type can't be parameterized, so it has to be cast once
+	@SuppressWarnings({"unchecked","rawtypes"})
+	private FastQueue<WorkSpace<T>> workspace = new FastQueue<>((Class<WorkSpace<T>>)(Class)WorkSpace.class,true);
+
+	/**
+	 * Configure tracker
+	 *
+	 * @param output_sigma_factor  spatial bandwidth (proportional to target) Try 1.0/16.0
+	 * @param sigma Sigma for Gaussian kernel in linear classifier.  Try 0.2
+	 * @param lambda Try 1e-2
+	 * @param interp_factor Try 0.075
+	 * @param padding Padding added around the selected target.  Try 1
+	 * @param workRegionSize Size of work region. Best if power of 2.  Try 64
+	 * @param maxPixelValue Maximum pixel value.  Typically 255
+	 * @param imageType Type of input image
+	 */
+	public CirculantTrackerMulti(double output_sigma_factor, double sigma, double lambda, double interp_factor,
+								 double padding ,
+								 int workRegionSize ,
+								 double maxPixelValue,
+								 Class<T> imageType ) {
+		if( workRegionSize < 3 )
+			throw new IllegalArgumentException("Minimum size of work region is 3 pixels.");
+
+		this.output_sigma_factor = (float)output_sigma_factor;
+		this.sigma = (float)sigma;
+		this.lambda = (float)lambda;
+		this.interp_factor = (float)interp_factor;
+		this.maxPixelValue = (float)maxPixelValue;
+		this.imageType = imageType;
+
+		this.padding = padding;
+		this.workRegionSize = workRegionSize;
+
+		cosine.reshape(workRegionSize,workRegionSize);
+		gaussianWeight.reshape(workRegionSize,workRegionSize);
+		gaussianWeightDFT.reshape(workRegionSize,workRegionSize);
+
+		CirculantTracker.computeCosineWindow(cosine);
+		computeGaussianWeights(workRegionSize);
+	}
+
+	/**
+	 * Starts tracking a new target around the specified rectangle region. All targets must be tracked in
+	 * images of the same shape.
+	 *
+	 * @param image Image to start tracking from
+	 * @param x0 top-left corner of region
+	 * @param y0 top-left corner of region
+	 * @param regionWidth region's width
+	 * @param regionHeight region's height
+	 * @return The new target
+	 */
+	public Target addTarget( T image , int x0 , int y0 , int regionWidth , int regionHeight ) {
+		if( targets.isEmpty() ) {
+			this.imageWidth = image.width;
+			this.imageHeight = image.height;
+		} else {
+			checkImageShape(image);
+		}
+
+		Target target = new Target(workRegionSize);
+		setTrackLocation(target,x0,y0,regionWidth,regionHeight);
+
+		WorkSpace<T> work = workspace.size() == 0 ? workspace.grow() : workspace.get(0);
+		work.initialize(workRegionSize,imageType,image);
+		initialLearning(target,work,image);
+
+		targets.add(target);
+		return target;
+	}
+
+	/**
+	 * Stops tracking the specified target
+	 *
+	 * @return true if the target was being tracked
+	 */
+	public boolean removeTarget( Target target ) {
+		return targets.remove(target);
+	}
+
+	/**
+	 * Stops tracking all the targets
+	 */
+	public void removeAllTargets() {
+		targets.clear();
+	}
+
+	/**
+	 * Used to change the track's location. If this method is used it is assumed that tracking is active and that
+	 * the appearance of the target has not changed
+	 * @param x0 top-left corner of region
+	 * @param y0 top-left corner of region
+	 * @param regionWidth region's width
+	 * @param regionHeight region's height
+	 */
+	public void setTrackLocation( Target target , int x0 , int y0 , int regionWidth , int regionHeight ) {
+		if( imageWidth < regionWidth || imageHeight < regionHeight)
+			throw new IllegalArgumentException("Track region is larger than input image: "+regionWidth+" "+regionHeight);
+
+		target.regionOut.width = regionWidth;
+		target.regionOut.height = regionHeight;
+
+		// adjust for padding
+		int w = (int)(regionWidth*(1+padding));
+		int h = (int)(regionHeight*(1+padding));
+		int cx = x0 + regionWidth/2;
+		int cy = y0 + regionHeight/2;
+
+		// save the track location
+		target.regionTrack.width = w;
+		target.regionTrack.height = h;
+		target.regionTrack.x0 = cx-w/2;
+		target.regionTrack.y0 = cy-h/2;
+
+		target.stepX = (w-1)/(float)(workRegionSize-1);
+		target.stepY = (h-1)/(float)(workRegionSize-1);
+
+		target.updateRegionOut();
+	}
+
+	/**
+	 * Search for all the targets in the image and update their appearance
+	 *
+	 * @param image Next image in the sequence
+	 */
+	public void performTracking( T image ) {
+		checkImageShape(image);
+
+		BoofConcurrency.loopBlocks(0,targets.size(),workspace,(work,idx0,idx1)->{
+			work.initialize(workRegionSize,imageType,image);
+
+			for (int i = idx0; i < idx1; i++) {
+				Target target = targets.get(i);
+				updateTrackLocation(target,work,image);
+				if( interp_factor != 0 )
+					performLearning(target,work,image);
+			}
+		});
+	}
+
+	private void checkImageShape( T image ) {
+		if( image.width != imageWidth || image.height != imageHeight )
+			throw new IllegalArgumentException("Tracking image size is not the same as " +
+					"input image. Expected "+imageWidth+" x "+imageHeight);
+	}
+
+	/**
+	 * Learn the target's appearance.
+	 */
+	protected void initialLearning( Target target , WorkSpace<T> work , T image ) {
+		// get subwindow at current estimated target position, to train classifier
+		get_subwindow(target, work, image, target.template);
+
+		// Kernel Regularized Least-Squares, calculate alphas (in Fourier domain)
+		//	k = dense_gauss_kernel(sigma, x);
+		dense_gauss_kernel(work, sigma, target.template, target.template, work.k);
+		work.fft.forward(work.k, work.kf);
+
+		// new_alphaf = yf ./ (fft2(k) + lambda);   %(Eq. 7)
+		CirculantTracker.computeAlphas(gaussianWeightDFT, work.kf, lambda, target.alphaf);
+	}
+
+	/**
+	 * Computes the weights used in the gaussian kernel and their Fourier transform.
+	 *
+	 * @see CirculantTracker#computeGaussianWeights(int)
+	 */
+	protected void computeGaussianWeights( int width ) {
+		// desired output (gaussian shaped), bandwidth proportional to target size
+		double output_sigma = Math.sqrt(width*width) * output_sigma_factor;
+
+		double left = -0.5/(output_sigma*output_sigma);
+
+		int radius = width/2;
+
+		for( int y = 0; y < gaussianWeight.height; y++ ) {
+			int index = gaussianWeight.startIndex + y*gaussianWeight.stride;
+
+			double ry = y-radius;
+
+			for( int x = 0; x < width; x++ ) {
+				double rx = x-radius;
+
+				gaussianWeight.data[index++] = (float)Math.exp(left * (ry * ry + rx * rx));
+			}
+		}
+
+		DiscreteFourierTransformOps.createTransformF32().forward(gaussianWeight,gaussianWeightDFT);
+	}
+
+	/**
+	 * Find the target inside the current image by searching around its last known location
+	 */
+	protected void updateTrackLocation( Target target , WorkSpace<T> work , T image ) {
+		GrayF32 response = work.response;
+
+		get_subwindow(target, work, image, work.templateNew);
+
+		// calculate response of the classifier at all locations
+		// matlab: k = dense_gauss_kernel(sigma, x, z);
+		dense_gauss_kernel(work, sigma, work.templateNew, target.template, work.k);
+
+		work.fft.forward(work.k,work.kf);
+
+		// response = real(ifft2(alphaf .* fft2(k)));   %(Eq. 9)
+		DiscreteFourierTransformOps.multiplyComplex(target.alphaf, work.kf, work.tmpFourier0);
+		work.fft.inverse(work.tmpFourier0, response);
+
+		// find the pixel with the largest response
+		int N = response.width*response.height;
+		int indexBest = -1;
+		float valueBest = -1;
+		for( int i = 0; i < N; i++ ) {
+			float v = response.data[i];
+			if( v > valueBest ) {
+				valueBest = v;
+				indexBest = i;
+			}
+		}
+
+		int peakX = indexBest % response.width;
+		int peakY = indexBest / response.width;
+
+		// sub-pixel peak estimation
+		float offX = 0, offY = 0;
+		// this function for r was determined empirically by using work regions of 32,64,128
+		int r = Math.min(2,response.width/25);
+		if( r >= 0 ) {
+			work.localPeak.setSearchRadius(r);
+			work.localPeak.search(peakX,peakY);
+
+			offX = work.localPeak.getPeakX() - peakX;
+			offY = work.localPeak.getPeakY() - peakY;
+		}
+
+		// peak in region's coordinate system
+		float deltaX = (peakX+offX) - work.templateNew.width/2;
+		float deltaY = (peakY+offY) - work.templateNew.height/2;
+
+		// convert peak location into image coordinate system
+		target.regionTrack.x0 = target.regionTrack.x0 + deltaX*target.stepX;
+		target.regionTrack.y0 = target.regionTrack.y0 + deltaY*target.stepY;
+
+		target.updateRegionOut();
+	}
+
+	/**
+	 * Update the alphas and the track's appearance
+	 */
+	protected void performLearning( Target target , WorkSpace<T> work , T image ) {
+		GrayF32 templateNew = work.templateNew;
+
+		// use the update track location
+		get_subwindow(target, work, image, templateNew);
+
+		// Kernel Regularized Least-Squares, calculate alphas (in Fourier domain)
+		//	k = dense_gauss_kernel(sigma, x);
+		dense_gauss_kernel(work, sigma, templateNew, templateNew, work.k);
+		work.fft.forward(work.k,work.kf);
+
+		// new_alphaf = yf ./ (fft2(k) + lambda);   %(Eq. 7)
+		CirculantTracker.computeAlphas(gaussianWeightDFT, work.kf, lambda, work.newAlphaf);
+
+		// subsequent frames, interpolate model
+		// alphaf = (1 - interp_factor) * alphaf + interp_factor * new_alphaf;
+		InterleavedF32 alphaf = target.alphaf;
+		int N = alphaf.width*alphaf.height*2;
+		for( int i = 0; i < N; i++ ) {
+			alphaf.data[i] = (1-interp_factor)*alphaf.data[i] + interp_factor*work.newAlphaf.data[i];
+		}
+
+		// Set the previous image to be an interpolated version
+		//		z = (1 - interp_factor) * z + interp_factor * new_z;
+		GrayF32 template = target.template;
+		N = templateNew.width* templateNew.height;
+		for( int i = 0; i < N; i++ ) {
+			template.data[i] = (1-interp_factor)* template.data[i] + interp_factor*templateNew.data[i];
+		}
+	}
+
+	/**
+	 * Gaussian Kernel with dense sampling.
+	 *
+	 * @see CirculantTracker#dense_gauss_kernel
+	 *
+	 * @param work Storage for the thread
+	 * @param sigma Gaussian kernel bandwidth
+	 * @param x Input image
+	 * @param y Input image
+	 * @param k Output containing Gaussian kernel for each element in target region
+	 */
+	protected static void dense_gauss_kernel( WorkSpace<?> work , float sigma , GrayF32 x , GrayF32 y , GrayF32 k ) {
+
+		InterleavedF32 xf=work.tmpFourier0,yf,xyf=work.tmpFourier2;
+		GrayF32 xy = work.tmpReal0;
+		float yy;
+
+		// find x in Fourier domain
+		work.fft.forward(x, xf);
+		float xx = CirculantTracker.imageDotProduct(x);
+
+		if( x != y ) {
+			// general case, x and y are different
+			yf = work.tmpFourier1;
+			work.fft.forward(y,yf);
+			yy = CirculantTracker.imageDotProduct(y);
+		} else {
+			// auto-correlation of x, avoid repeating a few operations
+			yf = xf;
+			yy = xx;
+		}
+
+		//----   xy = invF[ F(x)*F(y) ]
+		// cross-correlation term in Fourier domain
+		CirculantTracker.elementMultConjB(xf,yf,xyf);
+		// convert to spatial domain
+		work.fft.inverse(xyf,xy);
+		CirculantTracker.circshift(xy,work.tmpReal1);
+
+		// calculate gaussian response for all positions
+		CirculantTracker.gaussianKernel(xx, yy, work.tmpReal1, sigma, k);
+	}
+
+	/**
+	 * Copies the target into the output image and applies the cosine window to it.
+	 */
+	protected void get_subwindow( Target target , WorkSpace<T> work , T image , GrayF32 output ) {
+		InterpolatePixelS<T> interp = work.interp;
+		RectangleLength2D_F32 regionTrack = target.regionTrack;
+
+		// copy the target region
+		int index = 0;
+		for( int y = 0; y < workRegionSize; y++ ) {
+			float yy = regionTrack.y0 + y*target.stepY;
+
+			for( int x = 0; x < workRegionSize; x++ ) {
+				float xx = regionTrack.x0 + x*target.stepX;
+
+				if( interp.isInFastBounds(xx,yy))
+					output.data[index++] = interp.get_fast(xx,yy);
+				else if( BoofMiscOps.checkInside(image, xx, yy))
+					output.data[index++] = interp.get(xx, yy);
+				else {
+					// randomize to make pixels outside the image poorly correlate.  It will then focus on matching
+					// what's inside the image since it has structure
+					output.data[index++] = target.rand.nextFloat()*maxPixelValue;
+				}
+			}
+		}
+
+		// normalize values to be from -0.5 to 0.5
+		PixelMath.divide(output, maxPixelValue, output);
+		PixelMath.plus(output, -0.5f, output);
+		// apply the cosine window to it
+		PixelMath.multiply(output,cosine,output);
+	}
+
+	/**
+	 * List of targets which are being tracked
+	 */
+	public List<Target> getTargets() {
+		return targets;
+	}
+
+	public int getWorkRegionSize() {
+		return workRegionSize;
+	}
+
+	/**
+	 * State of a single target
+	 */
+	public static class Target {
+		// location of target
+		protected RectangleLength2D_F32 regionTrack = new RectangleLength2D_F32();
+		protected RectangleLength2D_F32 regionOut = new RectangleLength2D_F32();
+
+		// storage for the subimage of the previous frame
+		protected GrayF32 template;
+
+		// Learn values.  used to compute weight in linear classifier
+		protected InterleavedF32 alphaf;
+
+		// conversion from workspace to image pixels
+		protected float stepX,stepY;
+
+		// used to fill the area outside of the image with unstructured data.
+		protected Random rand = new Random(234);
+
+		protected Target( int workRegionSize ) {
+			template = new GrayF32(workRegionSize,workRegionSize);
+			alphaf = new InterleavedF32(workRegionSize,workRegionSize,2);
+		}
+
+		private void updateRegionOut() {
+			regionOut.x0 = (regionTrack.x0+((int)regionTrack.width)/2)-((int)regionOut.width)/2;
+			regionOut.y0 = (regionTrack.y0+((int)regionTrack.height)/2)-((int)regionOut.height)/2;
+		}
+
+		/**
+		 * The location of the target in the image
+		 */
+		public RectangleLength2D_F32 getTargetLocation() {
+			return regionOut;
+		}
+
+		/**
+		 * Visual appearance of the target
+		 */
+		public GrayF32 getTargetTemplate() {
+			return template;
+		}
+	}
+
+	/**
+	 * Storage used by a single thread
+	 */
+	public static class WorkSpace<T extends ImageGray<T>> {
+		// computes the FFT
+		public DiscreteFourierTransform<GrayF32,InterleavedF32> fft = DiscreteFourierTransformOps.createTransformF32();
+
+		// storage for subimage of input image
+		public GrayF32 templateNew = new GrayF32(1,1);
+
+		// Storage for the kernel's response
+		public GrayF32 k = new GrayF32(1,1);
+		public InterleavedF32 kf = new InterleavedF32(1,1,2);
+		public InterleavedF32 newAlphaf = new InterleavedF32(1,1,2);
+
+		// detector response
+		public GrayF32 response = new GrayF32(1,1);
+
+		// storage for storing temporary results
+		public GrayF32 tmpReal0 = new GrayF32(1,1);
+		public GrayF32 tmpReal1 = new GrayF32(1,1);
+		public InterleavedF32 tmpFourier0 = new InterleavedF32(1,1,2);
+		public InterleavedF32 tmpFourier1 = new InterleavedF32(1,1,2);
+		public InterleavedF32 tmpFourier2 = new InterleavedF32(1,1,2);
+
+		// interpolation used when sampling input image into work space
+		public InterpolatePixelS<T> interp;
+
+		// used to compute sub-pixel location
+		public SearchLocalPeak<GrayF32> localPeak =
+				FactorySearchLocalPeak.meanShiftUniform(5, 1e-4f, GrayF32.class);
+
+		/**
+		 * Declares the interpolation, resizes storage, and sets the input image
+		 */
+		public void initialize( int workRegionSize , Class<T> imageType , T image ) {
+			if( interp == null ) {
+				interp = FactoryInterpolation.bilinearPixelS(imageType, BorderType.EXTENDED);
+			}
+			if( response.width != workRegionSize ) {
+				templateNew.reshape(workRegionSize,workRegionSize);
+				k.reshape(workRegionSize,workRegionSize);
+				kf.reshape(workRegionSize,workRegionSize);
+				newAlphaf.reshape(workRegionSize,workRegionSize);
+				response.reshape(workRegionSize,workRegionSize);
+				tmpReal0.reshape(workRegionSize,workRegionSize);
+				tmpReal1.reshape(workRegionSize,workRegionSize);
+				tmpFourier0.reshape(workRegionSize,workRegionSize);
+				tmpFourier1.reshape(workRegionSize,workRegionSize);
+				tmpFourier2.reshape(workRegionSize,workRegionSize);
+				localPeak.setImage(response);
+			}
+			interp.setImage(image);
+		}
+	}
+}
@@ -38,14 +38,16 @@ import java.util.List;
 public class TldDetection<T extends ImageGray<T>> {
 
 	// Detects rectangles: Removes candidates don't match the fern descriptors
-	private TldFernClassifier<T> fern;
+	protected TldFernClassifier<T> fern;
 	// Detects rectangles: Removes candidates don't match NCC descriptors
 	protected TldTemplateMatching<T> template;
 	// Detects rectangles: Removes candidates which lack texture
-	private TldVarianceFilter<T> variance;
+	protected TldVarianceFilter<T> variance;
 
 	// Storage for results of the fern test on individual regions
 	protected FastQueue<TldRegionFernInfo> fernInfo = new FastQueue<>(TldRegionFernInfo.class, true);
+	// sum of the fern P and N values across all regions in fernInfo
+	protected int totalP,totalN;
 
 	protected TldParameters config;
 
@@ -109,28 +111,9 @@ public class TldDetection<T extends ImageGray<T>> {
 
 		fernInfo.reset();
 
-		int totalP = 0;
-		int totalN = 0;
-
 		// Run through all candidate regions, ignore ones without enough variance, compute
 		// the fern for each one
-		TldRegionFernInfo info = fernInfo.grow();
-		for( int i = 0; i < cascadeRegions.size; i++ ) {
-			ImageRectangle region = cascadeRegions.get(i);
-
-			if( !variance.checkVariance(region)) {
-				continue;
-			}
-
-			info.r = region;
-
-			if( fern.lookupFernPN(info)) {
-				totalP += info.sumP;
-				totalN += info.sumN;
-				info = fernInfo.grow();
-			}
-		}
-		fernInfo.removeTail();
+		computeFernInfo(cascadeRegions);
 
 		// avoid overflow errors in the future by re-normalizing the Fern detector
 		if( totalP > 0x0fffffff)
@@ -159,27 +142,56 @@ public class TldDetection<T extends ImageGray<T>> {
 		}
 	}
 
+	/**
+	 * Applies the variance and fern tests to each region.  Regions which pass are saved in {@link #fernInfo} in the
+	 * same order as the input list and their fern sums added to {@link #totalP} and {@link #totalN}
+	 */
+	protected void computeFernInfo( FastQueue<ImageRectangle> cascadeRegions ) {
+		totalP = 0;
+		totalN = 0;
+
+		TldRegionFernInfo info = fernInfo.grow();
+		for( int i = 0; i < cascadeRegions.size; i++ ) {
+			ImageRectangle region = cascadeRegions.get(i);
+
+			if( !variance.checkVariance(region)) {
+				continue;
+			}
+
+			info.r = region;
+
+			if( fern.lookupFernPN(info)) {
+				totalP += info.sumP;
+				totalN += info.sumN;
+				info = fernInfo.grow();
+			}
+		}
+		fernInfo.removeTail();
+	}
+
 	/**
 	 * Computes the confidence for all the regions which pass the fern test
 	 */
 	protected void computeTemplateConfidence() {
-		double max = 0;
 		for( int i = 0; i < fernRegions.size(); i++ ) {
 			ImageRectangle region = fernRegions.get(i);
 
-			double confidence = template.computeConfidence(region);
-
-			max = Math.max(max,confidence);
-
-			if( confidence < config.confidenceThresholdUpper)
-				continue;
-			TldRegion r = candidateDetections.grow();
-			r.connections = 0;
-			r.rect.set(region);
-			r.confidence = confidence;
+			addCandidateDetection(region, template.computeConfidence(region));
 		}
 	}
 
+	/**
+	 * Saves the region as a candidate detection if its confidence is high enough
+	 */
+	protected void addCandidateDetection( ImageRectangle region , double confidence ) {
+		if( confidence < config.confidenceThresholdUpper)
+			return;
+		TldRegion r = candidateDetections.grow();
+		r.connections = 0;
+		r.rect.set(region);
+		r.confidence = confidence;
+	}
+
 	/**
 	 * compute the probability that each region is the target conditional upon this image
 	 * the sumP and sumN are needed for image conditional probability
@@ -0,0 +1,135 @@
+/*
+ * Copyright (c) 2011-2018, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.tracker.tld;
+
+import boofcv.concurrency.BoofConcurrency;
+import boofcv.struct.ImageRectangle;
+import boofcv.struct.feature.NccFeature;
+import boofcv.struct.image.ImageGray;
+import org.ddogleg.struct.FastQueue;
+import org.ddogleg.struct.GrowQueue_F64;
+
+/**
+ * <p>
+ * Concurrent implementation of {@link TldDetection}.  Cascade regions are split into contiguous blocks and the
+ * variance and fern tests are applied to each block in a different thread.  The template confidence of regions
+ * which pass the fern test is computed the same way.  Each block has its own storage and the results are merged
+ * in block order afterwards, so the output is identical to the single threaded version.
+ * </p>
+ *
+ * <p>
+ * The interpolation used by {@link TldFernClassifier} and {@link TldTemplateMatching} is shared by all the threads.
+ * Its get_fast() function must not modify internal state, which is true for bilinear and nearest-neighbor.
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+public class TldDetection_MT<T extends ImageGray<T>> extends TldDetection<T> {
+
+	// storage for each block
+	private FastQueue<FernWorkSpace> fernWork = new FastQueue<>(FernWorkSpace.class,true);
+	private FastQueue<NccFeature> templateWork = new FastQueue<NccFeature>(NccFeature.class,true) {
+		@Override
+		protected NccFeature createInstance() {
+			return new NccFeature(15*15);
+		}
+	};
+
+	// confidence of each region which passed the fern test
+	private GrowQueue_F64 confidences = new GrowQueue_F64();
+
+	public TldDetection_MT(TldFernClassifier<T> fern, TldTemplateMatching<T> template,
+						   TldVarianceFilter<T> variance, TldParameters config) {
+		super(fern, template, variance, config);
+	}
+
+	@Override
+	protected void computeFernInfo( FastQueue<ImageRectangle> cascadeRegions ) {
+		totalP = 0;
+		totalN = 0;
+		// work spaces are only updated when there are regions to process
+		if( cascadeRegions.size == 0 )
+			return;
+
+		BoofConcurrency.loopBlocks(0,cascadeRegions.size,fernWork,(work,idx0,idx1)->{
+			work.reset();
+
+			TldRegionFernInfo info = work.info.grow();
+			for( int i = idx0; i < idx1; i++ ) {
+				ImageRectangle region = cascadeRegions.get(i);
+
+				if( !variance.checkVariance(region)) {
+					continue;
+				}
+
+				info.r = region;
+
+				if( fern.lookupFernPN(info)) {
+					work.totalP += info.sumP;
+					work.totalN += info.sumN;
+					info = work.info.grow();
+				}
+			}
+			work.info.removeTail();
+		});
+
+		// merge results in the order of the blocks
+		for( int block = 0; block < fernWork.size; block++ ) {
+			FernWorkSpace work = fernWork.get(block);
+			for( int i = 0; i < work.info.size; i++ ) {
+				TldRegionFernInfo src = work.info.get(i);
+				TldRegionFernInfo dst = fernInfo.grow();
+				dst.r = src.r;
+				dst.sumP = src.sumP;
+				dst.sumN = src.sumN;
+			}
+			totalP += work.totalP;
+			totalN += work.totalN;
+		}
+	}
+
+	@Override
+	protected void computeTemplateConfidence() {
+		confidences.resize(fernRegions.size());
+
+		BoofConcurrency.loopBlocks(0,fernRegions.size(),templateWork,(observed,idx0,idx1)->{
+			for( int i = idx0; i < idx1; i++ ) {
+				confidences.data[i] = template.computeConfidence(fernRegions.get(i),observed);
+			}
+		});
+
+		for( int i = 0; i < fernRegions.size(); i++ ) {
+			addCandidateDetection(fernRegions.get(i), confidences.data[i]);
+		}
+	}
+
+	/**
+	 * Results of the fern test for a single block
+	 */
+	public static class FernWorkSpace {
+		public FastQueue<TldRegionFernInfo> info = new FastQueue<>(TldRegionFernInfo.class, true);
+		public int totalP,totalN;
+
+		public void reset() {
+			info.reset();
+			totalP = 0;
+			totalN = 0;
+		}
+	}
+}
@@ -177,6 +177,17 @@ public class TldTemplateMatching<T extends ImageGray<T>> {
 	 * @return value from 0 to 1, where higher values are more confident
 	 */
 	public double computeConfidence( int x0 , int y0 , int x1 , int y1 ) {
+		return computeConfidence(x0,y0,x1,y1,observed);
+	}
+
+	/**
+	 * Same as {@link #computeConfidence(int, int, int, int)} but the caller provides storage for the region's
+	 * descriptor.  Allows confidence to be computed from multiple threads at once.
+	 *
+	 * @param observed (Output) Storage for the region's descriptor
+	 * @return value from 0 to 1, where higher values are more confident
+	 */
+	public double computeConfidence( int x0 , int y0 , int x1 , int y1 , NccFeature observed ) {
 
 		computeNccDescriptor(observed,x0,y0,x1,y1);
 
@@ -200,6 +211,13 @@ public class TldTemplateMatching<T extends ImageGray<T>> {
 		return computeConfidence(r.x0,r.y0,r.x1,r.y1);
 	}
 
+	/**
+	 * see the other function with the same name
+	 */
+	public double computeConfidence( ImageRectangle r , NccFeature observed ) {
+		return computeConfidence(r.x0,r.y0,r.x1,r.y1,observed);
+	}
+
 	/**
 	 * Computes the best distance to 'observed' from the candidate list.
 	 * @param observed Feature being matched
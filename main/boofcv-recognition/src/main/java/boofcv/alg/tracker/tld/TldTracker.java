@@ -19,8 +19,11 @@
 package boofcv.alg.tracker.tld;
 
 import boofcv.abst.filter.derivative.ImageGradient;
+import boofcv.alg.interpolate.BilinearPixelS;
 import boofcv.alg.interpolate.InterpolatePixelS;
+import boofcv.alg.interpolate.NearestNeighborPixelS;
 import boofcv.alg.tracker.klt.PyramidKltTracker;
+import boofcv.concurrency.BoofConcurrency;
 import boofcv.factory.tracker.FactoryTrackerAlg;
 import boofcv.factory.transform.pyramid.FactoryPyramid;
 import boofcv.struct.ImageRectangle;
@@ -132,7 +135,12 @@ public class TldTracker<T extends ImageGray<T>, D extends ImageGray<D>> {
 		fern = new TldFernClassifier<>(
 				rand, config.numFerns, config.fernSize, 20, 0.5f, interpolate);
 
-		detection = new TldDetection<>(fern, template, variance, config);
+		// the cascade reads the image through get_fast(), which is thread safe for these interpolation types
+		if( BoofConcurrency.USE_CONCURRENT &&
+				(interpolate instanceof BilinearPixelS || interpolate instanceof NearestNeighborPixelS) )
+			detection = new TldDetection_MT<>(fern, template, variance, config);
+		else
+			detection = new TldDetection<>(fern, template, variance, config);
 		learning = new TldLearning<>(rand, config, template, variance, fern, detection);
 	}
 
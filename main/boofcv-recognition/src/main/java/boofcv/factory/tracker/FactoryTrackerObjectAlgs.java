@@ -24,6 +24,7 @@ import boofcv.abst.tracker.ConfigComaniciu2003;
 import boofcv.alg.interpolate.InterpolatePixelMB;
 import boofcv.alg.interpolate.InterpolatePixelS;
 import boofcv.alg.tracker.circulant.CirculantTracker;
+import boofcv.alg.tracker.circulant.CirculantTrackerMulti;
 import boofcv.alg.tracker.meanshift.*;
 import boofcv.alg.tracker.sfot.SfotConfig;
 import boofcv.alg.tracker.sfot.SparseFlowObjectTracker;
@@ -123,6 +124,21 @@ public class FactoryTrackerObjectAlgs {
 				config.maxPixelValue,interp);
 	}
 
+	/**
+	 * Creates a {@link CirculantTrackerMulti} which tracks several targets at once using a single configuration
+	 */
+	public static <T extends ImageGray<T>>
+	CirculantTrackerMulti<T> circulantMulti( ConfigCirculantTracker config , Class<T> imageType) {
+		if( config == null )
+			config = new ConfigCirculantTracker();
+
+		return new CirculantTrackerMulti<>(
+				config.output_sigma_factor,config.sigma,config.lambda,config.interp_factor,
+				config.padding,
+				config.workSpace,
+				config.maxPixelValue,imageType);
+	}
+
 	public static <T extends ImageBase<T>>
 	TrackerMeanShiftComaniciu2003<T> meanShiftComaniciu2003(ConfigComaniciu2003 config, ImageType<T> imageType ) {
 
@@ -0,0 +1,211 @@
+/*
+ * Copyright (c) 2011-2018, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.scene;
+
+import boofcv.alg.scene.InvertedFileIndex.Match;
+import org.ddogleg.struct.FastQueue;
+import org.ddogleg.struct.GrowQueue_I32;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestInvertedFileIndex {
+
+	Random rand = new Random(234);
+	int numWords = 200;
+
+	/**
+	 * Compare scores against a brute force computation using dense histograms
+	 */
+	@Test
+	public void query_bruteForce() {
+		List<GrowQueue_I32> images = createImages(150);
+		InvertedFileIndex alg = new InvertedFileIndex(numWords);
+		for( int i = 0; i < images.size(); i++ ) {
+			assertEquals(i,alg.addImage(images.get(i)));
+		}
+
+		for( boolean idf : new boolean[]{false,true}) {
+			if( idf )
+				alg.updateWeights();
+
+			FastQueue<Match> found = new FastQueue<>(Match.class,true);
+			for( int trial = 0; trial < 10; trial++ ) {
+				GrowQueue_I32 query = createImage();
+				alg.query(query,images.size(),found);
+
+				double[] expected = new double[images.size()];
+				int numNonZero = 0;
+				for( int i = 0; i < images.size(); i++ ) {
+					expected[i] = bruteForce(alg.getWordWeights(),query,images.get(i));
+					if( expected[i] > 0 )
+						numNonZero++;
+				}
+				assertEquals(numNonZero,found.size);
+				for( int i = 0; i < found.size; i++ ) {
+					Match m = found.get(i);
+					assertEquals(expected[m.image],m.score,1e-5);
+					if( i > 0 )
+						assertTrue(found.get(i-1).score >= m.score);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Only the best matches should be returned and an image should match itself perfectly
+	 */
+	@Test
+	public void query_maxResults() {
+		List<GrowQueue_I32> images = createImages(300);
+		InvertedFileIndex alg = new InvertedFileIndex(numWords);
+		for( int i = 0; i < images.size(); i++ ) {
+			alg.addImage(images.get(i));
+		}
+		alg.updateWeights();
+
+		FastQueue<Match> all = new FastQueue<>(Match.class,true);
+		FastQueue<Match> found = new FastQueue<>(Match.class,true);
+		alg.query(images.get(21),images.size(),all);
+		alg.query(images.get(21),5,found);
+
+		assertEquals(5,found.size);
+		assertEquals(21,found.get(0).image);
+		assertEquals(1.0,found.get(0).score,1e-5);
+		for( int i = 0; i < 5; i++ ) {
+			assertEquals(all.get(i).score,found.get(i).score,1e-8);
+		}
+
+		alg.query(images.get(21),0,found);
+		assertEquals(0,found.size);
+	}
+
+	/**
+	 * Images added after a query should be found by the next query
+	 */
+	@Test
+	public void addImage_incremental() {
+		List<GrowQueue_I32> images = createImages(50);
+		InvertedFileIndex alg = new InvertedFileIndex(numWords);
+		FastQueue<Match> found = new FastQueue<>(Match.class,true);
+		for( int i = 0; i < images.size(); i++ ) {
+			alg.addImage(images.get(i));
+			alg.query(images.get(i),1,found);
+			assertEquals(i,found.get(0).image);
+		}
+		assertEquals(images.size(),alg.getNumImages());
+
+		alg.reset();
+		assertEquals(0,alg.getNumImages());
+		alg.query(images.get(0),1,found);
+		assertEquals(0,found.size);
+	}
+
+	@Test
+	public void updateWeights() {
+		InvertedFileIndex alg = new InvertedFileIndex(4);
+		alg.addImage(GrowQueue_I32.array(0,1,1));
+		alg.addImage(GrowQueue_I32.array(0,2));
+		alg.updateWeights();
+
+		float[] weights = alg.getWordWeights();
+		assertEquals(0,weights[0],1e-6);
+		assertEquals(Math.log(2),weights[1],1e-6);
+		assertEquals(Math.log(2),weights[2],1e-6);
+		assertEquals(0,weights[3],1e-6);
+
+		assertEquals(2*Math.log(2),alg.getImageNorms().get(0),1e-6);
+		assertEquals(Math.log(2),alg.getImageNorms().get(1),1e-6);
+	}
+
+	@Test
+	public void updateWeights_stopWords() {
+		InvertedFileIndex alg = new InvertedFileIndex(4);
+		alg.addImage(GrowQueue_I32.array(0,1,1));
+		alg.addImage(GrowQueue_I32.array(1,2));
+		alg.addImage(GrowQueue_I32.array(3));
+		alg.setStopWordFraction(0.5);
+		alg.updateWeights();
+
+		float[] weights = alg.getWordWeights();
+		assertEquals(Math.log(3),weights[0],1e-6);
+		assertEquals(0,weights[1],1e-6);
+
+		// a query which only contains stop words matches nothing
+		FastQueue<Match> found = new FastQueue<>(Match.class,true);
+		alg.query(GrowQueue_I32.array(1,1),10,found);
+		assertEquals(0,found.size);
+		alg.query(GrowQueue_I32.array(0,1),10,found);
+		assertEquals(1,found.size);
+		assertEquals(0,found.get(0).image);
+		assertEquals(1.0,found.get(0).score,1e-6);
+	}
+
+	/**
+	 * Score computed using dense histograms
+	 */
+	private double bruteForce( float[] weights , GrowQueue_I32 a , GrowQueue_I32 b ) {
+		double[] histA = histogram(weights,a);
+		double[] histB = histogram(weights,b);
+		double distance = 0;
+		boolean common = false;
+		for( int i = 0; i < numWords; i++ ) {
+			distance += Math.abs(histA[i]-histB[i]);
+			common |= histA[i] != 0 && histB[i] != 0;
+		}
+		return common ? 1 - distance/2 : 0;
+	}
+
+	private double[] histogram( float[] weights , GrowQueue_I32 words ) {
+		double[] hist = new double[numWords];
+		double total = 0;
+		for( int i = 0; i < words.size; i++ ) {
+			hist[words.get(i)] += weights[words.get(i)];
+			total += weights[words.get(i)];
+		}
+		for( int i = 0; i < numWords; i++ ) {
+			hist[i] /= total;
+		}
+		return hist;
+	}
+
+	private List<GrowQueue_I32> createImages( int total ) {
+		List<GrowQueue_I32> images = new ArrayList<>();
+		for( int i = 0; i < total; i++ ) {
+			images.add(createImage());
+		}
+		return images;
+	}
+
+	private GrowQueue_I32 createImage() {
+		GrowQueue_I32 words = new GrowQueue_I32();
+		int count = 5 + rand.nextInt(30);
+		for( int i = 0; i < count; i++ ) {
+			words.add(rand.nextInt(numWords));
+		}
+		return words;
+	}
+}
@@ -0,0 +1,94 @@
+/*
+ * Copyright (c) 2011-2018, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.scene;
+
+import boofcv.alg.scene.InvertedFileIndex.InvertedFile;
+import org.ddogleg.struct.GrowQueue_I32;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestInvertedFileIndexIO {
+
+	Random rand = new Random(234);
+
+	@Test
+	public void saveLoad() throws IOException {
+		InvertedFileIndex original = new InvertedFileIndex(5000);
+		for( int i = 0; i < 400; i++ ) {
+			GrowQueue_I32 words = new GrowQueue_I32();
+			for( int j = 0; j < 100; j++ ) {
+				words.add(rand.nextInt(5000));
+			}
+			original.addImage(words);
+		}
+		original.updateWeights();
+
+		File file = File.createTempFile("inverted",".bin");
+		try {
+			InvertedFileIndexIO.save(original,file);
+			InvertedFileIndex found = InvertedFileIndexIO.load(file);
+
+			assertEquals(original.getNumWords(),found.getNumWords());
+			assertEquals(original.getNumImages(),found.getNumImages());
+			for( int i = 0; i < original.getNumWords(); i++ ) {
+				assertEquals(original.getWordWeights()[i],found.getWordWeights()[i],0);
+				InvertedFile a = original.getInvertedFile(i);
+				InvertedFile b = found.getInvertedFile(i);
+				assertEquals(a.size,b.size);
+				for( int j = 0; j < a.size; j++ ) {
+					assertEquals(a.images[j],b.images[j]);
+					assertEquals(a.counts[j],b.counts[j],0);
+				}
+			}
+			for( int i = 0; i < original.getNumImages(); i++ ) {
+				assertEquals(original.getImageNorms().get(i),found.getImageNorms().get(i),0);
+			}
+
+			// images can be added to a loaded index
+			assertEquals(400,found.addImage(GrowQueue_I32.array(1,2,3)));
+		} finally {
+			file.delete();
+		}
+	}
+
+	@Test
+	public void load_notIndex() throws IOException {
+		File file = File.createTempFile("inverted",".bin");
+		try {
+			try( RandomAccessFile raf = new RandomAccessFile(file,"rw") ) {
+				raf.write(new byte[100]);
+			}
+			InvertedFileIndexIO.load(file);
+			fail("Should have thrown an exception");
+		} catch( IOException ignore ) {
+		} finally {
+			file.delete();
+		}
+	}
+}
@@ -0,0 +1,262 @@
+/*
+ * Copyright (c) 2011-2018, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.tracker.circulant;
+
+import boofcv.alg.misc.GImageMiscOps;
+import boofcv.alg.misc.ImageMiscOps;
+import boofcv.concurrency.BoofConcurrency;
+import boofcv.core.image.border.BorderType;
+import boofcv.factory.interpolate.FactoryInterpolation;
+import boofcv.struct.image.GrayF32;
+import boofcv.struct.image.GrayF64;
+import boofcv.struct.image.InterleavedF32;
+import boofcv.struct.image.InterleavedF64;
+import georegression.struct.shapes.RectangleLength2D_F32;
+import org.junit.Test;
+
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestCirculantTrackerMulti {
+
+	Random rand = new Random(234);
+
+	int width = 60;
+	int height = 80;
+
+	/**
+	 * Move several targets by different amounts and see if they are all tracked
+	 */
+	@Test
+	public void basicTrackingCheck() {
+		GrayF32 a = new GrayF32(100,90);
+		GrayF32 b = new GrayF32(100,90);
+
+		GImageMiscOps.fillUniform(a, rand, 0, 200);
+		GImageMiscOps.fillUniform(b, rand, 0, 200);
+
+		CirculantTrackerMulti<GrayF32> alg = new CirculantTrackerMulti<>(1f/16,0.2,1e-2,0.075,1.0,64,255,GrayF32.class);
+		alg.addTarget(a, 5, 6, 20, 25);
+		alg.addTarget(a, 60, 10, 20, 25);
+		alg.addTarget(a, 40, 55, 25, 20);
+
+		// the whole image moves so each target is displaced by the same amount
+		shiftCopy(2,4,a,b);
+		alg.performTracking(b);
+
+		double tolerance = 1;
+
+		List<CirculantTrackerMulti.Target> targets = alg.getTargets();
+		assertEquals(3,targets.size());
+		checkLocation(targets.get(0).getTargetLocation(), 5+2,  6+4,  tolerance);
+		checkLocation(targets.get(1).getTargetLocation(), 60+2, 10+4, tolerance);
+		checkLocation(targets.get(2).getTargetLocation(), 40+2, 55+4, tolerance);
+	}
+
+	private static void checkLocation( RectangleLength2D_F32 r , double x0 , double y0 , double tol ) {
+		assertEquals(x0,r.x0,tol);
+		assertEquals(y0,r.y0,tol);
+	}
+
+	/**
+	 * Results should be very similar to the single target tracker which is computed using doubles
+	 */
+	@Test
+	public void compareToSingle() {
+		GrayF32 a = new GrayF32(100,100);
+		GrayF32 b = new GrayF32(100,100);
+
+		GImageMiscOps.fillUniform(a, rand, 0, 200);
+		GImageMiscOps.fillUniform(b, rand, 0, 200);
+
+		CirculantTracker<GrayF32> single = new CirculantTracker<>(1f/16,0.2,1e-2,0.075,1.0,64,255,
+				FactoryInterpolation.bilinearPixelS(GrayF32.class, BorderType.EXTENDED));
+		CirculantTrackerMulti<GrayF32> multi = new CirculantTrackerMulti<>(1f/16,0.2,1e-2,0.075,1.0,64,255,GrayF32.class);
+
+		single.initialize(a,20,25,30,20);
+		CirculantTrackerMulti.Target target = multi.addTarget(a,20,25,30,20);
+
+		for( int i = 0; i < 3; i++ ) {
+			shiftCopy(-3+i,2,a,b);
+			single.performTracking(b);
+			multi.performTracking(b);
+
+			RectangleLength2D_F32 expected = single.getTargetLocation();
+			RectangleLength2D_F32 found = target.getTargetLocation();
+			assertEquals(expected.x0, found.x0, 0.05);
+			assertEquals(expected.y0, found.y0, 0.05);
+			assertEquals(expected.width, found.width, 1e-8);
+			assertEquals(expected.height, found.height, 1e-8);
+		}
+	}
+
+	/**
+	 * The number of threads should have no influence on the results
+	 */
+	@Test
+	public void independentOfThreads() {
+		GrayF32 a = new GrayF32(120,100);
+		GrayF32 b = new GrayF32(120,100);
+
+		GImageMiscOps.fillUniform(a, rand, 0, 200);
+		GImageMiscOps.fillUniform(b, rand, 0, 200);
+		// motion will push targets outside the image, which is when random numbers are used
+		shiftCopy(-4,3,a,b);
+
+		int numTargets = 7;
+
+		int maxThreads = BoofConcurrency.getMaxThreads();
+		try {
+			BoofConcurrency.setMaxThreads(1);
+			CirculantTrackerMulti<GrayF32> expected = createAndTrack(a,b,numTargets);
+			BoofConcurrency.setMaxThreads(3);
+			CirculantTrackerMulti<GrayF32> found = createAndTrack(a,b,numTargets);
+
+			for (int i = 0; i < numTargets; i++) {
+				CirculantTrackerMulti.Target e = expected.getTargets().get(i);
+				CirculantTrackerMulti.Target f = found.getTargets().get(i);
+
+				assertEquals(e.getTargetLocation().x0, f.getTargetLocation().x0, 0);
+				assertEquals(e.getTargetLocation().y0, f.getTargetLocation().y0, 0);
+				for (int j = 0; j < e.template.data.length; j++) {
+					assertEquals(e.template.data[j], f.template.data[j], 0);
+				}
+			}
+		} finally {
+			BoofConcurrency.setMaxThreads(maxThreads);
+		}
+	}
+
+	private CirculantTrackerMulti<GrayF32> createAndTrack( GrayF32 a , GrayF32 b , int numTargets ) {
+		CirculantTrackerMulti<GrayF32> alg = new CirculantTrackerMulti<>(1f/16,0.2,1e-2,0.075,1.0,32,255,GrayF32.class);
+		for (int i = 0; i < numTargets; i++) {
+			alg.addTarget(a, i*14, (i*23)%80, 20, 20);
+		}
+		alg.performTracking(b);
+		alg.performTracking(a);
+		return alg;
+	}
+
+	@Test
+	public void removeTarget() {
+		GrayF32 a = new GrayF32(50,50);
+		GImageMiscOps.fillUniform(a, rand, 0, 200);
+
+		CirculantTrackerMulti<GrayF32> alg = new CirculantTrackerMulti<>(1f/16,0.2,1e-2,0.075,1.0,32,255,GrayF32.class);
+		CirculantTrackerMulti.Target t0 = alg.addTarget(a, 5, 6, 20, 25);
+		CirculantTrackerMulti.Target t1 = alg.addTarget(a, 20, 10, 20, 25);
+
+		assertTrue(alg.removeTarget(t0));
+		assertEquals(1,alg.getTargets().size());
+		assertTrue(alg.getTargets().get(0) == t1);
+
+		alg.removeAllTargets();
+		assertEquals(0,alg.getTargets().size());
+
+		// with no targets left a different image shape is allowed
+		alg.addTarget(new GrayF32(40,45), 5, 6, 20, 25);
+		alg.performTracking(new GrayF32(40,45));
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void differentImageShape() {
+		CirculantTrackerMulti<GrayF32> alg = new CirculantTrackerMulti<>(1f/16,0.2,1e-2,0.075,1.0,32,255,GrayF32.class);
+		alg.addTarget(new GrayF32(50,50), 5, 6, 20, 25);
+		alg.performTracking(new GrayF32(51,50));
+	}
+
+	@Test
+	public void computeCosineWindow() {
+		GrayF64 expected = new GrayF64(20,25);
+		GrayF32 found = new GrayF32(20,25);
+
+		CirculantTracker.computeCosineWindow(expected);
+		CirculantTracker.computeCosineWindow(found);
+
+		for( int i = 0; i < found.data.length; i++ ) {
+			assertEquals(expected.data[i],found.data[i],1e-6);
+		}
+	}
+
+	@Test
+	public void elementMultConjB() {
+		InterleavedF32 a = new InterleavedF32(width,height,2);
+		InterleavedF32 b = new InterleavedF32(width,height,2);
+		InterleavedF32 c = new InterleavedF32(width,height,2);
+
+		ImageMiscOps.fillUniform(a,rand,-10,10);
+		ImageMiscOps.fillUniform(b,rand,-10,10);
+
+		CirculantTracker.elementMultConjB(a, b, c);
+
+		InterleavedF64 c64 = new InterleavedF64(width,height,2);
+		CirculantTracker.elementMultConjB(convert(a), convert(b), c64);
+
+		for( int i = 0; i < c.data.length; i++ ) {
+			assertEquals(c64.data[i],c.data[i],1e-4);
+		}
+	}
+
+	@Test
+	public void computeAlphas() {
+		InterleavedF32 yf = new InterleavedF32(width,height,2);
+		InterleavedF32 kf = new InterleavedF32(width,height,2);
+		InterleavedF32 alphaf = new InterleavedF32(width,height,2);
+
+		ImageMiscOps.fillUniform(yf,rand,-10,10);
+		ImageMiscOps.fillUniform(kf,rand,-10,10);
+
+		float lambda = 0.01f;
+		CirculantTracker.computeAlphas(yf, kf, lambda, alphaf);
+
+		InterleavedF64 alphaf64 = new InterleavedF64(width,height,2);
+		CirculantTracker.computeAlphas(convert(yf), convert(kf), lambda, alphaf64);
+
+		for( int i = 0; i < alphaf.data.length; i++ ) {
+			assertEquals(alphaf64.data[i],alphaf.data[i],1e-3);
+		}
+	}
+
+	private static InterleavedF64 convert( InterleavedF32 src ) {
+		InterleavedF64 dst = new InterleavedF64(src.width,src.height,src.numBands);
+		for( int i = 0; i < src.data.length; i++ ) {
+			dst.data[i] = src.data[i];
+		}
+		return dst;
+	}
+
+	private void shiftCopy(int offX, int offY, GrayF32 src, GrayF32 dst) {
+		for( int y = 0; y < src.height; y++ ) {
+			for( int x = 0; x < src.width; x++ ) {
+				int xx = x + offX;
+				int yy = y + offY;
+
+				if( xx >= 0 && xx < src.width && yy >= 0 && yy < src.height ) {
+					dst.set(xx, yy, src.get(x, y));
+				}
+			}
+		}
+	}
+}
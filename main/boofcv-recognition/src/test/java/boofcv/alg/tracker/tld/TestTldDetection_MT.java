@@ -0,0 +1,128 @@
+/*
+ * Copyright (c) 2011-2018, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.tracker.tld;
+
+import boofcv.alg.interpolate.InterpolatePixelS;
+import boofcv.alg.misc.ImageMiscOps;
+import boofcv.concurrency.BoofConcurrency;
+import boofcv.core.image.border.BorderType;
+import boofcv.factory.interpolate.FactoryInterpolation;
+import boofcv.struct.ImageRectangle;
+import boofcv.struct.image.GrayU8;
+import org.ddogleg.struct.FastQueue;
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestTldDetection_MT {
+
+	Random rand = new Random(234);
+
+	/**
+	 * Compare the results of the full cascade against the single threaded version
+	 */
+	@Test
+	public void compareToSingle() {
+		GrayU8 image = new GrayU8(150,120);
+		ImageMiscOps.fillUniform(image,rand,0,200);
+
+		InterpolatePixelS<GrayU8> interp = FactoryInterpolation.bilinearPixelS(GrayU8.class, BorderType.EXTENDED);
+		TldParameters config = new TldParameters();
+
+		TldVarianceFilter<GrayU8> variance = new TldVarianceFilter<>(GrayU8.class);
+		TldFernClassifier<GrayU8> fern = new TldFernClassifier<>(new Random(234),10,8,20,0.5f,interp);
+		TldTemplateMatching<GrayU8> template = new TldTemplateMatching<>(interp);
+
+		variance.setImage(image);
+		fern.setImage(image);
+		template.setImage(image);
+
+		// learn positive and negative examples
+		ImageRectangle target = new ImageRectangle(40,31,70,61);
+		variance.selectThreshold(target);
+		fern.learnFern(true,target);
+		template.addDescriptor(true,target);
+		for( int i = 0; i < 5; i++ ) {
+			ImageRectangle r = new ImageRectangle(5+i*20,70,35+i*20,100);
+			fern.learnFern(false,r);
+			template.addDescriptor(false,r);
+		}
+
+		FastQueue<ImageRectangle> regions = new FastQueue<>(ImageRectangle.class,true);
+		for( int y = 1; y+30 < image.height; y += 3 ) {
+			for( int x = 1; x+30 < image.width; x += 3 ) {
+				regions.grow().set(x,y,x+30,y+30);
+			}
+		}
+
+		TldDetection<GrayU8> expected = new TldDetection<>(fern,template,variance,config);
+		TldDetection_MT<GrayU8> found = new TldDetection_MT<>(fern,template,variance,config);
+
+		int maxThreads = BoofConcurrency.getMaxThreads();
+		try {
+			BoofConcurrency.setMaxThreads(3);
+
+			// process twice to make sure storage is recycled correctly
+			for( int trial = 0; trial < 2; trial++ ) {
+				expected.detectionCascade(regions);
+				found.detectionCascade(regions);
+
+				assertEquals(expected.totalP, found.totalP);
+				assertEquals(expected.totalN, found.totalN);
+				assertTrue(expected.fernInfo.size > 0);
+				assertEquals(expected.fernInfo.size, found.fernInfo.size);
+				for( int i = 0; i < expected.fernInfo.size; i++ ) {
+					TldRegionFernInfo e = expected.fernInfo.get(i);
+					TldRegionFernInfo f = found.fernInfo.get(i);
+					assertSame(e.r, f.r);
+					assertEquals(e.sumP, f.sumP);
+					assertEquals(e.sumN, f.sumN);
+				}
+
+				assertTrue(expected.getCandidateDetections().size > 0);
+				assertEquals(expected.getCandidateDetections().size, found.getCandidateDetections().size);
+				for( int i = 0; i < expected.getCandidateDetections().size; i++ ) {
+					TldRegion e = expected.getCandidateDetections().get(i);
+					TldRegion f = found.getCandidateDetections().get(i);
+					assertEquals(e.confidence, f.confidence, 0);
+					assertEquals(e.rect.x0, f.rect.x0);
+					assertEquals(e.rect.y0, f.rect.y0);
+				}
+
+				assertEquals(expected.isSuccess(), found.isSuccess());
+				assertEquals(expected.isAmbiguous(), found.isAmbiguous());
+				assertEquals(expected.getBest().confidence, found.getBest().confidence, 0);
+			}
+
+			// no regions should produce no fern results
+			regions.reset();
+			found.detectionCascade(regions);
+			assertEquals(0, found.fernInfo.size);
+			assertEquals(0, found.totalP);
+			assertFalse(found.isSuccess());
+		} finally {
+			BoofConcurrency.setMaxThreads(maxThreads);
+		}
+	}
+}
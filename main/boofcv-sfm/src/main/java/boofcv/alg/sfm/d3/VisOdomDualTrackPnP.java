@@ -25,6 +25,7 @@ import boofcv.abst.feature.tracker.PointTracker;
 import boofcv.abst.geo.TriangulateTwoViewsCalibrated;
 import boofcv.alg.distort.LensDistortionOps;
 import boofcv.alg.feature.associate.StereoConsistencyCheck;
+import boofcv.metrics.MetricsRecorder;
 import boofcv.struct.calib.StereoParameters;
 import boofcv.struct.distort.Point2Transform2_F64;
 import boofcv.struct.feature.AssociatedIndex;
@@ -110,6 +111,9 @@ public class VisOdomDualTrackPnP<T extends ImageBase<T>,Desc extends TupleDesc>
 	// is this the first frame
 	private boolean first = true;
 
+	// reports how long each step takes
+	private MetricsRecorder metrics = new MetricsRecorder("VisOdomDualTrackPnP");
+
 	/**
 	 * Specifies internal algorithms and parameters
 	 *
@@ -185,31 +189,43 @@ public class VisOdomDualTrackPnP<T extends ImageBase<T>,Desc extends TupleDesc>
 		this.inputRight = right;
 
 		tick++;
+		metrics.beginFrame();
 		trackerLeft.process(left);
 		trackerRight.process(right);
+		metrics.stage("track");
 
 		if( first ) {
 			addNewTracks();
+			metrics.stage("spawn");
 			first = false;
 		} else {
 			mutualTrackDrop();
 			selectCandidateTracks();
 			boolean failed = !estimateMotion();
 			dropUnusedTracks();
+			metrics.stage("estimate");
 
-			if( failed )
+			if( failed ) {
+				metrics.count("fault",1);
+				metrics.endFrame();
 				return false;
+			}
 
 			int N = matcher.getMatchSet().size();
+			metrics.count("inliers",N);
 
-			if( modelRefiner != null )
+			if( modelRefiner != null ) {
 				refineMotionEstimate();
+				metrics.stage("refine");
+			}
 
 			if( thresholdAdd <= 0 || N < thresholdAdd ) {
 				changePoseToReference();
 				addNewTracks();
+				metrics.stage("spawn");
 			}
 		}
+		metrics.endFrame();
 		return true;
 	}
 
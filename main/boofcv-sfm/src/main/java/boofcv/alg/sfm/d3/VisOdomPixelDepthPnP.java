@@ -23,6 +23,7 @@ import boofcv.abst.feature.tracker.PointTracker;
 import boofcv.abst.feature.tracker.PointTrackerTwoPass;
 import boofcv.abst.geo.RefinePnP;
 import boofcv.abst.sfm.ImagePixelTo3D;
+import boofcv.metrics.MetricsRecorder;
 import boofcv.struct.distort.Point2Transform2_F64;
 import boofcv.struct.geo.Point2D3D;
 import boofcv.struct.image.ImageBase;
@@ -97,6 +98,9 @@ public class VisOdomPixelDepthPnP<T extends ImageBase<T>> {
 	// used when concating motion
 	private Se3_F64 temp = new Se3_F64();
 
+	// reports how long each step takes
+	private MetricsRecorder metrics = new MetricsRecorder("VisOdomPixelDepthPnP");
+
 	/**
 	 * Configures magic numbers and estimation algorithms.
 	 *
@@ -152,30 +156,41 @@ public class VisOdomPixelDepthPnP<T extends ImageBase<T>> {
 	 * @return true if successful or false if it failed
 	 */
 	public boolean process( T image ) {
+		metrics.beginFrame();
 		tracker.process(image);
+		metrics.stage("track");
 
 		tick++;
 		inlierTracks.clear();
 
 		if( first ) {
 			addNewTracks();
+			metrics.stage("spawn");
 			first = false;
 		} else {
 			if( !estimateMotion() ) {
+				metrics.stage("estimate");
+				metrics.count("fault",1);
+				metrics.endFrame();
 				return false;
 			}
+			metrics.stage("estimate");
 
-			dropUnusedTracks();
+			int numDropped = dropUnusedTracks();
 			int N = motionEstimator.getMatchSet().size();
+			metrics.count("inliers",N);
+			metrics.count("dropped",numDropped);
 
 			if( thresholdAdd <= 0 || N < thresholdAdd ) {
 				changePoseToReference();
 				addNewTracks();
+				metrics.stage("spawn");
 			}
 
 //			System.out.println("  num inliers = "+N+"  num dropped "+numDropped+" total active "+tracker.getActivePairs().size());
 		}
 
+		metrics.endFrame();
 		return true;
 	}
 
@@ -34,6 +34,7 @@ import boofcv.alg.sfm.structure.PairwiseImageGraph.ViewState;
 import boofcv.factory.geo.EpipolarError;
 import boofcv.factory.geo.FactoryMultiView;
 import boofcv.factory.geo.FactoryMultiViewRobust;
+import boofcv.metrics.MetricsRecorder;
 import boofcv.struct.calib.CameraPinhole;
 import boofcv.struct.distort.Point2Transform2_F64;
 import boofcv.struct.feature.AssociatedIndex;
@@ -107,6 +108,9 @@ public class EstimateSceneUnordered<T extends ImageBase<T>> implements EstimateS
 	// Verbose output to standard out
 	boolean verbose = false;
 
+	// reports how long each step takes
+	MetricsRecorder metrics = new MetricsRecorder("EstimateSceneUnordered");
+
 	public EstimateSceneUnordered( PairwiseImageMatching<T> imageMatching ) {
 		this.imageMatching = imageMatching;
 		this.imageMatching.setVerbose(verbose);
@@ -153,12 +157,18 @@ public class EstimateSceneUnordered<T extends ImageBase<T>> implements EstimateS
 
 	@Override
 	public boolean estimate() {
+		metrics.beginFrame();
 		declareModelFitting();
 
-		if( !imageMatching.process(camerasPixelToNorm,camerasIntrinsc) )
+		if( !imageMatching.process(camerasPixelToNorm,camerasIntrinsc) ) {
+			metrics.endFrame();
 			return false;
-		
+		}
+		metrics.stage("matching");
+
 		graph = imageMatching.getGraph();
+		metrics.count("views",graph.nodes.size());
+		metrics.count("edges",graph.edges.size());
 
 		for (int i = 0; i < graph.edges.size(); i++) {
 			CameraMotion e = graph.edges.get(i);
@@ -180,21 +190,31 @@ public class EstimateSceneUnordered<T extends ImageBase<T>> implements EstimateS
 				triangulateStereoEdges(e);
 			}
 		}
+		metrics.stage("triangulation");
 
 		System.out.println("Defining the coordinate system");
 		// Using the selecting coordinate frames and triangulated points define the coordinate system
 		defineCoordinateSystem(origin, baseMotion);
-		if( stopRequested )
+		metrics.stage("coordinate_system");
+		if( stopRequested ) {
+			metrics.endFrame();
 			return false;
+		}
 
 		System.out.println("Estimate all features");
 		// Now estimate all the other view locations and 3D features
 		estimateAllFeatures(origin, baseMotion.destination(origin));
-		if( stopRequested )
+		metrics.stage("estimate_features");
+		if( stopRequested ) {
+			metrics.endFrame();
 			return false;
+		}
 
 		// Convert the graph into the output format
 		convertToOutput(origin);
+		metrics.stage("output");
+		metrics.count("views_added",viewsAdded.size());
+		metrics.endFrame();
 
 		return viewsAdded.size() >= 2;
 	}
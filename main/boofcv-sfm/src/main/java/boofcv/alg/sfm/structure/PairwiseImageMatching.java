@@ -23,6 +23,7 @@ import boofcv.abst.feature.associate.ScoreAssociation;
 import boofcv.abst.feature.detdesc.DetectDescribePoint;
 import boofcv.alg.geo.robust.RansacMultiView;
 import boofcv.alg.sfm.structure.PairwiseImageGraph.Feature3D;
+import boofcv.concurrency.BoofConcurrency;
 import boofcv.factory.feature.associate.FactoryAssociation;
 import boofcv.factory.geo.ConfigEssential;
 import boofcv.factory.geo.ConfigFundamental;
@@ -41,13 +42,24 @@ import org.ddogleg.struct.FastQueue;
 import org.ddogleg.struct.Stoppable;
 import org.ejml.data.DMatrixRMaj;
 
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.function.Supplier;
 
 /**
+ * <p>
  * Determines connectivity between images by exhaustively considering all possible combination of views. Assocation
  * is found by detecting features inside of each image.
+ * </p>
+ *
+ * <p>
+ * Concurrent Mode: Enabled by passing in a factory for the feature detector. Features are detected in batches
+ * of images and each pair of images is evaluated in parallel using {@link BoofConcurrency}. Each pair of images
+ * is fit using a new instance of RANSAC created with the same seed so that the found graph is the same no matter
+ * how many threads are used.
+ * </p>
  *
  * @author Peter Abeles
  */
@@ -87,11 +99,29 @@ public class PairwiseImageMatching<T extends ImageBase<T>>
 	// print is verbose or not
 	private boolean verbose;
 
+	// Creates a feature detector for each thread. If not null then concurrent mode is enabled
+	private Supplier<DetectDescribePoint<T,TupleDesc>> factoryDetDesc;
+	// Images which features have not been detected inside of yet. Only used in concurrent mode
+	private List<PendingImage> pending = new ArrayList<>();
+	// Work space for each thread in concurrent mode
+	private FastQueue<DetectWorker> detectWorkers = new FastQueue<>(DetectWorker.class,true);
+	private FastQueue<PairWorker> pairWorkers = new FastQueue<>(PairWorker.class,true);
+
 	public PairwiseImageMatching(DetectDescribePoint<T, TupleDesc> detDesc) {
 		this();
 		this.detDesc = detDesc;
-		ScoreAssociation scorer = FactoryAssociation.defaultScore(detDesc.getDescriptionType());
-		associate = FactoryAssociation.greedy(scorer, Double.MAX_VALUE, true);
+		associate = createAssociate();
+	}
+
+	/**
+	 * Creates an instance which runs in concurrent mode.
+	 *
+	 * @param factoryDetDesc Creates new instances of the feature detector and descriptor. One is created for
+	 *                       each thread.
+	 */
+	public PairwiseImageMatching(Supplier<DetectDescribePoint<T, TupleDesc>> factoryDetDesc) {
+		this(factoryDetDesc.get());
+		this.factoryDetDesc = factoryDetDesc;
 	}
 
 	protected PairwiseImageMatching(){
@@ -128,6 +158,43 @@ public class PairwiseImageMatching<T extends ImageBase<T>>
 		view.camera = cameraName;
 		graph.nodes.add(view);
 
+		if( factoryDetDesc == null ) {
+			detectFeatures(detDesc, image, view);
+			computeNormalized(view, pixelToNorm);
+		} else {
+			// a copy is saved since the image might be recycled. Features are detected in batches
+			pending.add(new PendingImage(image.clone(), view, pixelToNorm));
+			if( pending.size() >= 2*BoofConcurrency.getMaxThreads() )
+				detectPending();
+		}
+	}
+
+	/**
+	 * Detects features inside of all the pending images concurrently
+	 */
+	private void detectPending() {
+		BoofConcurrency.loopBlocks(0,pending.size(),detectWorkers,(worker,idx0,idx1)->{
+			if( worker.detDesc == null )
+				worker.detDesc = factoryDetDesc.get();
+			for (int i = idx0; i < idx1; i++) {
+				PendingImage p = pending.get(i);
+				detectFeatures(worker.detDesc, p.image, p.view);
+			}
+		});
+
+		// The transforms are not assumed to be thread safe
+		for (int i = 0; i < pending.size(); i++) {
+			PendingImage p = pending.get(i);
+			computeNormalized(p.view, p.pixelToNorm);
+		}
+		pending.clear();
+	}
+
+	/**
+	 * Detects features and saves the results in the view
+	 */
+	private void detectFeatures( DetectDescribePoint<T,TupleDesc> detDesc , T image ,
+								 PairwiseImageGraph.CameraView view ) {
 		detDesc.detect(image);
 
 		// Pre-declare memory
@@ -142,19 +209,24 @@ public class PairwiseImageMatching<T extends ImageBase<T>>
 			view.descriptions.grow().setTo(detDesc.getDescription(i));
 			view.observationPixels.grow().set(p);
 		}
+	}
 
+	/**
+	 * Converts the pixel observations into normalized image coordinates
+	 */
+	private void computeNormalized( PairwiseImageGraph.CameraView view , Point2Transform2_F64 pixelToNorm ) {
 		if( pixelToNorm == null ){
 			return;
 		}
 
-		view.observationNorm.growArray(detDesc.getNumberOfFeatures());
+		view.observationNorm.growArray(view.observationPixels.size);
 		for (int i = 0; i < view.observationPixels.size; i++) {
 			Point2D_F64 p = view.observationPixels.get(i);
 			pixelToNorm.compute(p.x,p.y,view.observationNorm.grow());
 		}
 
 		if( verbose ) {
-			System.out.println("Detected Features: "+detDesc.getNumberOfFeatures());
+			System.out.println("Detected Features: "+view.observationPixels.size);
 		}
 	}
 
@@ -182,10 +254,16 @@ public class PairwiseImageMatching<T extends ImageBase<T>>
 		this.camerasIntrinsc = camerasIntrinsc;
 		determineCalibrated();
 
+		if( factoryDetDesc != null )
+			detectPending();
+
 		if( graph.nodes.size() < 2 )
 			return false;
 		stopRequested = false;
 
+		if( factoryDetDesc != null )
+			return processConcurrent();
+
 		declareModelFitting();
 
 		for (int i = 0; i < graph.nodes.size(); i++) {
@@ -206,6 +284,68 @@ public class PairwiseImageMatching<T extends ImageBase<T>>
 		return graph.edges.size() >= 1;
 	}
 
+	/**
+	 * Evaluates all pairs of images concurrently. Edges are added to the graph in the same order as the
+	 * single threaded version.
+	 */
+	private boolean processConcurrent() {
+		final int N = graph.nodes.size();
+
+		// look up table from pair index to the two views
+		final int numPairs = N*(N-1)/2;
+		final int[] pairA = new int[numPairs];
+		final int[] pairB = new int[numPairs];
+		for (int i = 0, k = 0; i < N; i++) {
+			for (int j = i+1; j < N; j++, k++) {
+				pairA[k] = i;
+				pairB[k] = j;
+			}
+		}
+
+		final PairwiseImageGraph.CameraMotion[] found = new PairwiseImageGraph.CameraMotion[numPairs];
+
+		BoofConcurrency.loopBlocks(0,numPairs,pairWorkers,(worker,idx0,idx1)->{
+			if( worker.associate == null )
+				worker.associate = createAssociate();
+
+			for (int k = idx0; k < idx1 && !stopRequested; k++) {
+				PairwiseImageGraph.CameraView viewA = graph.nodes.get(pairA[k]);
+				PairwiseImageGraph.CameraView viewB = graph.nodes.get(pairB[k]);
+
+				worker.associate.setSource(viewA.descriptions);
+				worker.associate.setDestination(viewB.descriptions);
+				worker.associate.associate();
+				FastQueue<AssociatedIndex> matches = worker.associate.getMatches();
+				if( matches.size < MIN_FEATURE_ASSOCIATED )
+					continue;
+
+				// A new instance of RANSAC is used so that the results don't depend on which pairs a thread processed
+				if( calibrated ) {
+					found[k] = fitEdge(viewA,viewB,matches,
+							FactoryMultiViewRobust.essentialRansac(configEssential, configRansac),null,worker.pairs);
+				} else {
+					found[k] = fitEdge(viewA,viewB,matches,
+							null,FactoryMultiViewRobust.fundamentalRansac(configFundamental, configRansac),worker.pairs);
+				}
+			}
+		});
+
+		if( stopRequested )
+			return false;
+
+		for (int k = 0; k < numPairs; k++) {
+			if( found[k] != null )
+				addEdge(found[k]);
+		}
+
+		return graph.edges.size() >= 1;
+	}
+
+	protected AssociateDescription<TupleDesc> createAssociate() {
+		ScoreAssociation scorer = FactoryAssociation.defaultScore(detDesc.getDescriptionType());
+		return FactoryAssociation.greedy(scorer, Double.MAX_VALUE, true);
+	}
+
 	protected void declareModelFitting() {
 		if( calibrated ) {
 			ransacEssential = FactoryMultiViewRobust.essentialRansac(configEssential, configRansac);
@@ -227,6 +367,21 @@ public class PairwiseImageMatching<T extends ImageBase<T>>
 	 * features to the edge if they an inlier in essential. Save fit score of homography vs essential.
 	 */
 	void connectViews(PairwiseImageGraph.CameraView viewA , PairwiseImageGraph.CameraView viewB , FastQueue<AssociatedIndex> matches) {
+		PairwiseImageGraph.CameraMotion edge = fitEdge(viewA,viewB,matches,ransacEssential,ransacFundamental,pairs);
+		if( edge != null )
+			addEdge(edge);
+	}
+
+	/**
+	 * Estimates the motion between the two views. Does not modify the graph.
+	 *
+	 * @return The edge connecting the two views or null if they should not be connected
+	 */
+	PairwiseImageGraph.CameraMotion fitEdge(PairwiseImageGraph.CameraView viewA , PairwiseImageGraph.CameraView viewB ,
+											FastQueue<AssociatedIndex> matches ,
+											RansacMultiView<Se3_F64,AssociatedPair> ransacEssential ,
+											Ransac<DMatrixRMaj,AssociatedPair> ransacFundamental ,
+											FastQueue<AssociatedPair> pairs ) {
 
 		// Estimate fundamental/essential with RANSAC
 		PairwiseImageGraph.CameraMotion edge = new PairwiseImageGraph.CameraMotion();
@@ -234,38 +389,45 @@ public class PairwiseImageMatching<T extends ImageBase<T>>
 		if( calibrated ) {
 			ransacEssential.setIntrinsic(0,camerasIntrinsc.get(viewA.camera));
 			ransacEssential.setIntrinsic(1,camerasIntrinsc.get(viewB.camera));
-			if( !fitEpipolar(matches, viewA.observationNorm.toList(), viewB.observationNorm.toList(),ransacEssential,edge) )
-				return;
+			if( !fitEpipolar(matches, viewA.observationNorm.toList(), viewB.observationNorm.toList(),ransacEssential,edge,pairs) )
+				return null;
 			inliersEpipolar = ransacEssential.getMatchSet().size();
 			edge.a_to_b.set( ransacEssential.getModelParameters() );
 			// scale is arbitrary. Might as well pick something which won't cause the math to blow up later on
 			edge.a_to_b.T.normalize();
 		} else {
-			if( !fitEpipolar(matches, viewA.observationPixels.toList(), viewB.observationPixels.toList(),ransacFundamental,edge) )
-				return;
+			if( !fitEpipolar(matches, viewA.observationPixels.toList(), viewB.observationPixels.toList(),ransacFundamental,edge,pairs) )
+				return null;
 			inliersEpipolar = ransacFundamental.getMatchSet().size();
 			// TODO save rigid body estimate
 		}
 
 		if( inliersEpipolar < MIN_FEATURE_ASSOCIATED )
-			return;
+			return null;
 
 		// If only a very small number of features are associated do not consider the view
 		double fractionA = inliersEpipolar/(double)viewA.descriptions.size;
 		double fractionB = inliersEpipolar/(double)viewB.descriptions.size;
 
 		if( fractionA < MIN_ASSOCIATE_FRACTION | fractionB < MIN_ASSOCIATE_FRACTION )
-			return;
+			return null;
 
 		// If the geometry is good for triangulation this number will be lower
 		edge.viewSrc = viewA;
 		edge.viewDst = viewB;
-		viewA.connections.add(edge);
-		viewB.connections.add(edge);
+		return edge;
+	}
+
+	/**
+	 * Adds the edge to the graph and the two views it connects
+	 */
+	private void addEdge( PairwiseImageGraph.CameraMotion edge ) {
+		edge.viewSrc.connections.add(edge);
+		edge.viewDst.connections.add(edge);
 		graph.edges.add(edge);
 
 		if( verbose )
-			System.out.println("  Connected "+viewA.index+" -> "+viewB.index);
+			System.out.println("  Connected "+edge.viewSrc.index+" -> "+edge.viewDst.index);
 	}
 
 	/**
@@ -282,6 +444,15 @@ public class PairwiseImageMatching<T extends ImageBase<T>>
 						List<Point2D_F64> pointsA , List<Point2D_F64> pointsB ,
 						Ransac<?,AssociatedPair> ransac ,
 						PairwiseImageGraph.CameraMotion edge )
+	{
+		return fitEpipolar(matches,pointsA,pointsB,ransac,edge,pairs);
+	}
+
+	boolean fitEpipolar(FastQueue<AssociatedIndex> matches ,
+						List<Point2D_F64> pointsA , List<Point2D_F64> pointsB ,
+						Ransac<?,AssociatedPair> ransac ,
+						PairwiseImageGraph.CameraMotion edge ,
+						FastQueue<AssociatedPair> pairs )
 	{
 		pairs.resize(matches.size);
 		for (int i = 0; i < matches.size; i++) {
@@ -327,6 +498,7 @@ public class PairwiseImageMatching<T extends ImageBase<T>>
 
 	public void reset() {
 		graph = new PairwiseImageGraph();
+		pending.clear();
 	}
 
 	public boolean isVerbose() {
@@ -336,4 +508,34 @@ public class PairwiseImageMatching<T extends ImageBase<T>>
 	public void setVerbose(boolean verbose) {
 		this.verbose = verbose;
 	}
+
+	/**
+	 * An image which is waiting for features to be detected inside of it
+	 */
+	private class PendingImage {
+		T image;
+		PairwiseImageGraph.CameraView view;
+		Point2Transform2_F64 pixelToNorm;
+
+		public PendingImage(T image, PairwiseImageGraph.CameraView view, Point2Transform2_F64 pixelToNorm) {
+			this.image = image;
+			this.view = view;
+			this.pixelToNorm = pixelToNorm;
+		}
+	}
+
+	/**
+	 * Feature detector used by a single thread
+	 */
+	public static class DetectWorker {
+		DetectDescribePoint detDesc;
+	}
+
+	/**
+	 * Association and storage used by a single thread when evaluating pairs of images
+	 */
+	public static class PairWorker {
+		AssociateDescription<TupleDesc> associate;
+		FastQueue<AssociatedPair> pairs = new FastQueue<>(AssociatedPair.class,true);
+	}
 }
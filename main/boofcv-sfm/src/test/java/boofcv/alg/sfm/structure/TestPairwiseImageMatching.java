@@ -21,6 +21,7 @@ package boofcv.alg.sfm.structure;
 import boofcv.abst.feature.detdesc.DetectDescribePoint;
 import boofcv.alg.distort.radtan.LensDistortionRadialTangential;
 import boofcv.alg.geo.WorldToCameraToPixel;
+import boofcv.concurrency.BoofConcurrency;
 import boofcv.struct.calib.CameraPinhole;
 import boofcv.struct.calib.CameraPinholeRadial;
 import boofcv.struct.distort.Point2Transform2_F64;
@@ -201,6 +202,93 @@ public class TestPairwiseImageMatching extends GenericSceneStructureChecks {
 		assertEquals(graph0.edges.size(),graph1.edges.size());
 	}
 
+	/**
+	 * Concurrent mode should produce the same graph no matter how many threads are used
+	 */
+	@Test
+	public void concurrent() {
+		MockDetector template = new MockDetector();
+
+		int maxThreads = BoofConcurrency.getMaxThreads();
+		try {
+			BoofConcurrency.setMaxThreads(1);
+			PairwiseImageGraph expected = computeGraphConcurrent(template);
+			BoofConcurrency.setMaxThreads(3);
+			PairwiseImageGraph found = computeGraphConcurrent(template);
+
+			assertEquals(7,found.nodes.size());
+			assertEquals(4+3+2+1+1,found.edges.size());
+			assertEquals(expected.edges.size(),found.edges.size());
+			for (int i = 0; i < expected.edges.size(); i++) {
+				PairwiseImageGraph.CameraMotion e = expected.edges.get(i);
+				PairwiseImageGraph.CameraMotion f = found.edges.get(i);
+
+				assertEquals(e.viewSrc.index,f.viewSrc.index);
+				assertEquals(e.viewDst.index,f.viewDst.index);
+				assertEquals(e.associated.size(),f.associated.size());
+				assertTrue(MatrixFeatures_DDRM.isIdentical(e.a_to_b.R,f.a_to_b.R,1e-8));
+				assertEquals(0,e.a_to_b.T.distance(f.a_to_b.T),1e-8);
+			}
+			for (int i = 0; i < expected.nodes.size(); i++) {
+				assertEquals(expected.nodes.get(i).connections.size(),found.nodes.get(i).connections.size());
+				assertEquals(expected.nodes.get(i).descriptions.size,found.nodes.get(i).descriptions.size);
+			}
+		} finally {
+			BoofConcurrency.setMaxThreads(maxThreads);
+		}
+	}
+
+	private PairwiseImageGraph computeGraphConcurrent( MockDetector template ) {
+		String cameraName = "camera";
+
+		Map<String, Point2Transform2_F64> camerasPixelToNorm = new HashMap<>();
+		Map<String, CameraPinhole> camerasIntrinsc = new HashMap<>();
+
+		camerasPixelToNorm.put(cameraName, new LensDistortionRadialTangential(intrinsic).undistort_F64(true,false));
+		camerasIntrinsc.put(cameraName,intrinsic);
+
+		// there will be two independent set of views in the graph
+		List<Se3_F64> listCameraToWorld = new ArrayList<>();
+		for (int i = 0; i < 7; i++) {
+			double x = i < 5 ? 0 : 50+0.5*5;
+			listCameraToWorld.add(SpecialEuclideanOps_F64.setEulerXYZ(0,0,0,x-0.5*i,0,0,null));
+		}
+
+		PairwiseImageMatching<GrayF32> alg = new PairwiseImageMatching<>(
+				()->(DetectDescribePoint)new MockDetectorByImage(template,listCameraToWorld));
+		alg.getConfigRansac().maxIterations = 100;
+
+		for (int i = 0; i < listCameraToWorld.size(); i++) {
+			// the detector uses the value of the first pixel to look up the camera's location
+			GrayF32 image = new GrayF32(intrinsic.width,intrinsic.height);
+			image.set(0,0,i);
+			alg.addImage(image,cameraName,camerasPixelToNorm.get(cameraName));
+		}
+
+		assertTrue(alg.process(camerasPixelToNorm,camerasIntrinsc));
+
+		return alg.getGraph();
+	}
+
+	/**
+	 * Detector which selects the camera's location using the input image. Shares features with the template
+	 */
+	public class MockDetectorByImage extends MockDetector {
+		List<Se3_F64> listCameraToWorld;
+
+		public MockDetectorByImage( MockDetector template , List<Se3_F64> listCameraToWorld ) {
+			this.locations3D = template.locations3D;
+			this.descriptions = template.descriptions;
+			this.listCameraToWorld = listCameraToWorld;
+		}
+
+		@Override
+		public void detect(GrayF32 input) {
+			cameraToWorld.set(listCameraToWorld.get((int)input.get(0,0)));
+			super.detect(input);
+		}
+	}
+
 	public class MockDetector implements DetectDescribePoint<GrayF32,TupleDesc_F64>
 	{
 		List<Point3D_F64> locations3D = new ArrayList<>();